@@ -34,22 +34,50 @@ public class ApplicationHolder {
 
     private static volatile Applications applications;
 
+    private static final int APPLICATION_LOCK_STRIPES = 64;
+
+    /**
+     * Guards the applications collection. Per application locks take the read lock of this
+     * lock, hence the write lock excludes every per application lock holder.
+     */
     private static ReadWriteLock lock = new ReadWriteLock("application-holder");
 
+    /**
+     * Striped locks guarding the state of individual applications.
+     */
+    private static final ReadWriteLock[] applicationLocks = new ReadWriteLock[APPLICATION_LOCK_STRIPES];
+
+    static {
+        for (int i = 0; i < APPLICATION_LOCK_STRIPES; i++) {
+            applicationLocks[i] = new ReadWriteLock("application-holder-" + i);
+        }
+    }
+
+    private static volatile ApplicationPersister persister;
+
     private ApplicationHolder() {
     }
 
+    /**
+     * Acquire read lock for all applications.
+     */
     public static void acquireReadLock() {
         if (log.isDebugEnabled()) {
             log.debug("Read lock acquired");
         }
         lock.acquireReadLock();
+        for (ReadWriteLock applicationLock : applicationLocks) {
+            applicationLock.acquireReadLock();
+        }
     }
 
     public static void releaseReadLock() {
         if (log.isDebugEnabled()) {
             log.debug("Read lock released");
         }
+        for (int i = applicationLocks.length - 1; i >= 0; i--) {
+            applicationLocks[i].releaseReadLock();
+        }
         lock.releaseReadLock();
     }
 
@@ -67,6 +95,53 @@ public class ApplicationHolder {
         lock.releaseWriteLock();
     }
 
+    /**
+     * Acquire read lock for the given application.
+     *
+     * @param applicationId application id
+     */
+    public static void acquireReadLock(String applicationId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Read lock acquired for application: [application-id] " + applicationId);
+        }
+        lock.acquireReadLock();
+        getApplicationLock(applicationId).acquireReadLock();
+    }
+
+    public static void releaseReadLock(String applicationId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Read lock released for application: [application-id] " + applicationId);
+        }
+        getApplicationLock(applicationId).releaseReadLock();
+        lock.releaseReadLock();
+    }
+
+    /**
+     * Acquire write lock for the given application. Applications mapped to other lock
+     * stripes can be updated concurrently.
+     *
+     * @param applicationId application id
+     */
+    public static void acquireWriteLock(String applicationId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Write lock acquired for application: [application-id] " + applicationId);
+        }
+        lock.acquireReadLock();
+        getApplicationLock(applicationId).acquireWriteLock();
+    }
+
+    public static void releaseWriteLock(String applicationId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Write lock released for application: [application-id] " + applicationId);
+        }
+        getApplicationLock(applicationId).releaseWriteLock();
+        lock.releaseReadLock();
+    }
+
+    private static ReadWriteLock getApplicationLock(String applicationId) {
+        return applicationLocks[(applicationId.hashCode() & 0x7fffffff) % APPLICATION_LOCK_STRIPES];
+    }
+
     public static Applications getApplications() {
         if (applications == null) {
             synchronized (ApplicationHolder.class) {
@@ -89,26 +164,66 @@ public class ApplicationHolder {
         return applications;
     }
 
-    public static void persistApplication(Application application) {
-        synchronized (ApplicationHolder.class) {
-            getApplications().addApplication(application);
-            AutoscalerUtil.persistApplication(application);
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Applications updated: %s", toJson(applications)));
+    public static ApplicationPersister getPersister() {
+        if (persister == null) {
+            synchronized (ApplicationHolder.class) {
+                if (persister == null) {
+                    persister = new ApplicationPersister();
+                    persister.start();
+                }
             }
         }
+        return persister;
     }
 
-    public static void removeApplication(String applicationId) {
+    /**
+     * Set the applications collection and the persister instead of loading them from the registry.
+     *
+     * @param applications applications collection
+     * @param persister    application persister
+     */
+    static void initialize(Applications applications, ApplicationPersister persister) {
+        synchronized (ApplicationHolder.class) {
+            ApplicationHolder.applications = applications;
+            ApplicationHolder.persister = persister;
+        }
+    }
+
+    /**
+     * Write pending application updates to the registry and switch to synchronous writes.
+     */
+    public static void shutdownPersister() {
         synchronized (ApplicationHolder.class) {
-            getApplications().removeApplication(applicationId);
-            AutoscalerUtil.removeApplication(applicationId);
-            if (log.isDebugEnabled()) {
-                log.debug("Application [ " + applicationId + " ] removed from application holder");
+            if (persister != null) {
+                persister.shutdown();
             }
         }
     }
 
+    /**
+     * Add the application to the holder and queue it to be written to the registry.
+     * The registry write is coalesced with other updates of the same application
+     * received within the flush interval. The caller is expected to hold the write lock of the
+     * application; applications of other lock stripes may be added or removed concurrently.
+     *
+     * @param application application to be persisted
+     */
+    public static void persistApplication(Application application) {
+        getApplications().addApplication(application);
+        getPersister().persistApplication(application);
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Applications updated: %s", toJson(applications)));
+        }
+    }
+
+    public static void removeApplication(String applicationId) {
+        getApplications().removeApplication(applicationId);
+        getPersister().removeApplication(applicationId);
+        if (log.isDebugEnabled()) {
+            log.debug("Application [ " + applicationId + " ] removed from application holder");
+        }
+    }
+
     private static String toJson(Object object) {
         Gson gson = new Gson();
         return gson.toJson(object);
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler.applications;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.autoscaler.util.AutoscalerConstants;
+import org.apache.stratos.autoscaler.util.AutoscalerUtil;
+import org.apache.stratos.common.threading.StratosThreadPool;
+import org.apache.stratos.messaging.domain.application.Application;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persister for applications. Updates are queued per application id and
+ * written to the registry once per flush interval, hence a burst of status transitions
+ * on the same application results in a single registry write. Pending updates are
+ * flushed when the persister is shut down; any update arriving after that is written
+ * through immediately.
+ */
+public class ApplicationPersister {
+
+    private static final Log log = LogFactory.getLog(ApplicationPersister.class);
+
+    private final long flushInterval;
+    private final Object queueLock = new Object();
+    private final Object flushLock = new Object();
+    private Map<String, Application> pendingUpdates;
+    private Set<String> pendingRemovals;
+    private ScheduledFuture<?> flushTask;
+    private volatile boolean writeThrough;
+
+    public ApplicationPersister() {
+        this(Long.getLong(AutoscalerConstants.APPLICATION_PERSISTER_FLUSH_INTERVAL,
+                AutoscalerConstants.DEFAULT_APPLICATION_PERSISTER_FLUSH_INTERVAL));
+    }
+
+    /**
+     * @param flushInterval flush interval in milliseconds, a value less than or equal to zero
+     *                      disables write-behind and persists every update immediately
+     */
+    public ApplicationPersister(long flushInterval) {
+        this.flushInterval = flushInterval;
+        this.pendingUpdates = new HashMap<String, Application>();
+        this.pendingRemovals = new LinkedHashSet<String>();
+        this.writeThrough = (flushInterval <= 0);
+    }
+
+    /**
+     * Schedule the periodic flush task.
+     */
+    public synchronized void start() {
+        if (writeThrough || (flushTask != null)) {
+            return;
+        }
+        ScheduledExecutorService scheduler = StratosThreadPool.getScheduledExecutorService(
+                AutoscalerConstants.APPLICATION_PERSISTER_SCHEDULER_ID, 1);
+        flushTask = scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    flush();
+                } catch (Exception e) {
+                    log.error("Could not flush pending application updates", e);
+                }
+            }
+        }, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Application persister started: [flush-interval] %d ms", flushInterval));
+        }
+    }
+
+    /**
+     * Stop the periodic flush task and write all pending updates. Updates received after
+     * this call are persisted synchronously.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            writeThrough = true;
+            if (flushTask != null) {
+                flushTask.cancel(false);
+                flushTask = null;
+            }
+        }
+        flush();
+        if (log.isDebugEnabled()) {
+            log.debug("Application persister stopped");
+        }
+    }
+
+    /**
+     * Queue the given application to be written to the registry. The caller is expected to
+     * hold the write lock of the application.
+     *
+     * @param application application to be persisted
+     */
+    public void persistApplication(Application application) {
+        if (writeThrough) {
+            writeApplication(application);
+            return;
+        }
+        synchronized (queueLock) {
+            pendingUpdates.put(application.getUniqueIdentifier(), application);
+        }
+    }
+
+    /**
+     * Queue the given application to be removed from the registry. Any pending update of
+     * the same application is discarded.
+     *
+     * @param applicationId application id
+     */
+    public void removeApplication(String applicationId) {
+        if (writeThrough) {
+            deleteApplication(applicationId);
+            return;
+        }
+        synchronized (queueLock) {
+            pendingUpdates.remove(applicationId);
+            pendingRemovals.add(applicationId);
+        }
+    }
+
+    /**
+     * Write all pending updates and removals to the registry. Removals are applied first so
+     * that an application re-added within the same interval ends up in the registry.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            Map<String, Application> updates;
+            Set<String> removals;
+            synchronized (queueLock) {
+                if (pendingUpdates.isEmpty() && pendingRemovals.isEmpty()) {
+                    return;
+                }
+                updates = pendingUpdates;
+                removals = pendingRemovals;
+                pendingUpdates = new HashMap<String, Application>();
+                pendingRemovals = new LinkedHashSet<String>();
+            }
+
+            for (String applicationId : removals) {
+                try {
+                    deleteApplication(applicationId);
+                } catch (Exception e) {
+                    log.error(String.format("Could not remove application from registry: [application-id] %s",
+                            applicationId), e);
+                    requeueRemoval(applicationId);
+                }
+            }
+
+            for (Map.Entry<String, Application> entry : updates.entrySet()) {
+                String applicationId = entry.getKey();
+                // Take the read lock of the application to avoid serializing it while a
+                // status transition is modifying it
+                ApplicationHolder.acquireReadLock(applicationId);
+                try {
+                    writeApplication(entry.getValue());
+                } catch (Exception e) {
+                    log.error(String.format("Could not persist application in registry: [application-id] %s",
+                            applicationId), e);
+                    requeueUpdate(entry.getValue());
+                } finally {
+                    ApplicationHolder.releaseReadLock(applicationId);
+                }
+            }
+
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Application updates flushed: [updated] %d [removed] %d",
+                        updates.size(), removals.size()));
+            }
+        }
+    }
+
+    /**
+     * @return number of applications waiting to be written to the registry
+     */
+    public int getPendingCount() {
+        synchronized (queueLock) {
+            return pendingUpdates.size() + pendingRemovals.size();
+        }
+    }
+
+    private void requeueUpdate(Application application) {
+        if (writeThrough) {
+            return;
+        }
+        String applicationId = application.getUniqueIdentifier();
+        synchronized (queueLock) {
+            // A newer update or a removal queued in the meantime takes precedence
+            if (!pendingUpdates.containsKey(applicationId) && !pendingRemovals.contains(applicationId)) {
+                pendingUpdates.put(applicationId, application);
+            }
+        }
+    }
+
+    private void requeueRemoval(String applicationId) {
+        if (writeThrough) {
+            return;
+        }
+        synchronized (queueLock) {
+            if (!pendingUpdates.containsKey(applicationId)) {
+                pendingRemovals.add(applicationId);
+            }
+        }
+    }
+
+    /**
+     * Write the application to the registry.
+     *
+     * @param application application to be written
+     */
+    protected void writeApplication(Application application) {
+        AutoscalerUtil.persistApplication(application);
+    }
+
+    /**
+     * Delete the application from the registry.
+     *
+     * @param applicationId application id
+     */
+    protected void deleteApplication(String applicationId) {
+        AutoscalerUtil.removeApplication(applicationId);
+    }
+}
@@ -88,7 +88,7 @@ public class ApplicationBuilder {
         }
         ApplicationInstance applicationInstance = null;
         //acquiring write lock to add the required instances
-        ApplicationHolder.acquireWriteLock();
+        ApplicationHolder.acquireWriteLock(appId);
         try {
 
             Applications applications = ApplicationHolder.getApplications();
@@ -114,7 +114,7 @@ public class ApplicationBuilder {
                         " [appId] %s [ApplicationInstanceId] %s", appId, instanceId));
             }
         } finally {
-            ApplicationHolder.releaseWriteLock();
+            ApplicationHolder.releaseWriteLock(appId);
         }
         return applicationInstance;
     }
@@ -329,7 +329,7 @@ public class ApplicationBuilder {
             log.debug("Handling application terminating event: [application-id] " + applicationId);
         }
         Set<ClusterDataHolder> clusterData;
-        ApplicationHolder.acquireWriteLock();
+        ApplicationHolder.acquireWriteLock(applicationId);
         try {
             Applications applications = ApplicationHolder.getApplications();
             Application application = applications.getApplication(applicationId);
@@ -346,7 +346,7 @@ public class ApplicationBuilder {
                 handleApplicationInstanceTerminatingEvent(applicationId, instance.getInstanceId());
             }
         } finally {
-            ApplicationHolder.releaseWriteLock();
+            ApplicationHolder.releaseWriteLock(applicationId);
         }
 
         // if monitors is not found for any cluster, assume cluster is not there and
@@ -502,7 +502,7 @@ public class ApplicationBuilder {
                                                                 String parentId,
                                                                 String networkPartitionId,
                                                                 String partitionId) {
-        ApplicationHolder.acquireWriteLock();
+        ApplicationHolder.acquireWriteLock(appId);
         try {
             if (log.isDebugEnabled()) {
                 log.debug("Handling Group instance creation for the [group]: " + groupId +
@@ -552,7 +552,7 @@ public class ApplicationBuilder {
                         " [Group-Instance-Id] " + instanceId);
             }
         } finally {
-            ApplicationHolder.releaseWriteLock();
+            ApplicationHolder.releaseWriteLock(appId);
         }
         return null;
     }
@@ -625,7 +625,7 @@ public class ApplicationBuilder {
         }
 
         try {
-            ApplicationHolder.acquireWriteLock();
+            ApplicationHolder.acquireWriteLock(appId);
             GroupInstance groupInstance = group.getInstanceContexts(instanceId);
             GroupStatus status = GroupStatus.Terminating;
             if (groupInstance != null) {
@@ -648,7 +648,7 @@ public class ApplicationBuilder {
                         " [instance-id] " + instanceId);
             }
         } finally {
-            ApplicationHolder.releaseWriteLock();
+            ApplicationHolder.releaseWriteLock(appId);
         }
     }
 
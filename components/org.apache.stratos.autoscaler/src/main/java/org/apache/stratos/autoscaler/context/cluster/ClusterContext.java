@@ -259,7 +259,7 @@ public class ClusterContext extends AbstractClusterContext {
         if (clusterInstanceContext == null) {
             int minInstances = 1;
             try {
-                ApplicationHolder.acquireReadLock();
+                ApplicationHolder.acquireReadLock(cluster.getAppId());
                 Application application = ApplicationHolder.getApplications().
                         getApplication(cluster.getAppId());
                 ClusterDataHolder dataHolder = application.
@@ -268,7 +268,7 @@ public class ClusterContext extends AbstractClusterContext {
                 minInstances = dataHolder.getMinInstances();
                 maxInstances = dataHolder.getMaxInstances();
             } finally {
-                ApplicationHolder.releaseReadLock();
+                ApplicationHolder.releaseReadLock(cluster.getAppId());
             }
             clusterInstanceContext = new ClusterInstanceContext(clusterInstance.getInstanceId(),
                     clusterLevelNetworkPartitionContext.getPartitionAlgorithm(),
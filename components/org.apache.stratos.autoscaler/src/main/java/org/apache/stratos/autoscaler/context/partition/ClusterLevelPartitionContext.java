@@ -54,11 +54,8 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     private int pendingMembersFailureCount = 0;
     // properties
     private Properties properties;
-
     // 15 mints as the default
     private long pendingMemberExpiryTime = 900000;
-    // pending members
-    private List<MemberContext> pendingMembers;
 
     // 1 day as default
     private long obsoltedMemberExpiryTime = 1 * 24 * 60 * 60 * 1000;
@@ -69,12 +66,22 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     // members to be terminated
     private Map<String, MemberContext> obsoletedMembers;
 
+    // member id: state of the member, guards the per state member maps below
+    private final Map<String, MemberState> memberStates = new HashMap<String, MemberState>();
+
+    // pending members
+    private final Map<String, MemberContext> pendingMembers = new LinkedHashMap<String, MemberContext>();
+
     // active members
-    private List<MemberContext> activeMembers;
+    private final Map<String, MemberContext> activeMembers = new LinkedHashMap<String, MemberContext>();
 
     // termination pending members, member is added to this when Autoscaler send grace fully shut down event
-    private List<MemberContext> terminationPendingMembers;
+    private final Map<String, MemberContext> terminationPendingMembers = new LinkedHashMap<String, MemberContext>();
 
+    // member counts cached for the rules engine and monitors, which read them without locking
+    private volatile int pendingMemberCount;
+    private volatile int activeMemberCount;
+    private volatile int terminationPendingMemberCount;
 
     //member id: time that member is moved to termination pending status
     private Map<String, Long> terminationPendingStartedTime;
@@ -82,39 +89,42 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     //Keep statistics come from CEP
     private Map<String, MemberStatsContext> memberStatsContexts;
 
+    /**
+     * States a member goes through before it is moved to the obsolete members. A member is in
+     * at most one state at a time, hence transitions are a constant time lookup in the member
+     * states map followed by a move between the per state maps.
+     */
+    private enum MemberState {
+        Pending, Active, TerminationPending
+    }
+
     // for the use of tests
     public ClusterLevelPartitionContext(long memberExpiryTime) {
         super(memberExpiryTime);
-        this.activeMembers = new ArrayList<MemberContext>();
-        this.terminationPendingMembers = new ArrayList<MemberContext>();
-        this.pendingMembers = new ArrayList<MemberContext>();
+        this.obsoletedMembers = new ConcurrentHashMap<String, MemberContext>();
+        this.memberStatsContexts = new ConcurrentHashMap<String, MemberStatsContext>();
+        this.terminationPendingStartedTime = new HashMap<String, Long>();
     }
 
     public void terminateAllRemainingInstances() {
 
-        // Forcefully deleting remaining active members
-        for (Iterator<MemberContext> iterator = activeMembers.iterator(); iterator.hasNext(); ) {
-            MemberContext member = iterator.next();
-            iterator.remove();
-            terminateForcefully(member.getMemberId());
+        // Forcefully deleting remaining active, pending and termination pending members
+        List<String> memberIds;
+        synchronized (memberStates) {
+            memberIds = new ArrayList<String>(activeMembers.keySet());
+            memberIds.addAll(pendingMembers.keySet());
+            memberIds.addAll(terminationPendingMembers.keySet());
+            memberStates.clear();
+            activeMembers.clear();
+            pendingMembers.clear();
+            terminationPendingMembers.clear();
+            terminationPendingStartedTime.clear();
+            updateMemberCounts();
         }
-
-        // Forcefully deleting remaining pending members
-        for (Iterator<MemberContext> iterator = pendingMembers.iterator(); iterator.hasNext(); ) {
-            MemberContext member = iterator.next();
-            iterator.remove();
-            terminateForcefully(member.getMemberId());
-        }
-
-        /// Forcefully deleting remaining termination pending members
-        for (Iterator<MemberContext> iterator = terminationPendingMembers.iterator(); iterator.hasNext(); ) {
-            MemberContext member = iterator.next();
-            // Remove the current element from the iterator and the list.
-            iterator.remove();
-            terminateForcefully(member.getMemberId());
+        for (String memberId : memberIds) {
+            terminateForcefully(memberId);
         }
 
-
         // Forcefully deleting remaining obsolete members
         for (Map.Entry<String, MemberContext> entry : obsoletedMembers.entrySet()) {
             MemberContext ObsoleteMemberContext = entry.getValue();
@@ -137,9 +147,6 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     public ClusterLevelPartitionContext(PartitionRef partition, String networkPartitionId, String deploymentPolicyId) {
 
         super(partition, networkPartitionId, deploymentPolicyId);
-        this.pendingMembers = new ArrayList<MemberContext>();
-        this.activeMembers = new ArrayList<MemberContext>();
-        this.terminationPendingMembers = new ArrayList<MemberContext>();
         this.obsoletedMembers = new ConcurrentHashMap<String, MemberContext>();
         memberStatsContexts = new ConcurrentHashMap<String, MemberStatsContext>();
 
@@ -164,19 +171,24 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     }
 
     public long getTerminationPendingStartedTimeOfMember(String memberId) {
-        return terminationPendingStartedTime.get(memberId);
+        synchronized (memberStates) {
+            return terminationPendingStartedTime.get(memberId);
+        }
     }
 
+    /**
+     * @return a snapshot of the pending members in the order they were added
+     */
     public List<MemberContext> getPendingMembers() {
-        return pendingMembers;
+        return getMembers(MemberState.Pending);
     }
 
     public void setPendingMembers(List<MemberContext> pendingMembers) {
-        this.pendingMembers = pendingMembers;
+        setMembers(MemberState.Pending, pendingMembers);
     }
 
     public int getActiveMemberCount() {
-        return activeMembers.size();
+        return activeMemberCount;
     }
 
     public int getMinimumMemberCount() {
@@ -188,103 +200,48 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     }
 
     public void addPendingMember(MemberContext ctxt) {
-        this.pendingMembers.add(ctxt);
+        addMember(ctxt, MemberState.Pending);
     }
 
     public void addTerminationPendingMember(MemberContext ctxt) {
-        this.terminationPendingMembers.add(ctxt);
+        addMember(ctxt, MemberState.TerminationPending);
     }
 
     public boolean removePendingMember(String id) {
-        if (id == null) {
-            return false;
-        }
-        synchronized (pendingMembers) {
-            for (Iterator<MemberContext> iterator = pendingMembers.iterator(); iterator.hasNext(); ) {
-                MemberContext pendingMember = iterator.next();
-                if (id.equals(pendingMember.getMemberId())) {
-                    iterator.remove();
-                    return true;
-                }
-
-            }
-        }
-        return false;
+        return removeMember(id, MemberState.Pending) != null;
     }
 
     public void movePendingMemberToActiveMembers(String memberId) {
         if (memberId == null) {
             return;
         }
-        synchronized (pendingMembers) {
-            Iterator<MemberContext> iterator = pendingMembers.listIterator();
-            while (iterator.hasNext()) {
-                MemberContext pendingMember = iterator.next();
-                if (pendingMember == null) {
-                    iterator.remove();
-                    continue;
-                }
-                if (memberId.equals(pendingMember.getMemberId())) {
-                    // member is activated
-                    // remove from pending list
-                    iterator.remove();
-                    // add to the activated list
-                    this.activeMembers.add(pendingMember);
-                    pendingMembersFailureCount = 0;
-                    if (log.isDebugEnabled()) {
-                        log.debug(String.format("Pending member is removed and added to the " +
-                                "activated member list. [Member Id] %s", memberId));
-                    }
-                    break;
+        synchronized (memberStates) {
+            if (moveMember(memberId, MemberState.Pending, MemberState.Active) != null) {
+                pendingMembersFailureCount = 0;
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Pending member is removed and added to the " +
+                            "activated member list. [Member Id] %s", memberId));
                 }
             }
         }
     }
 
     public boolean activeMemberAvailable(String memberId) {
-        for (MemberContext activeMember : activeMembers) {
-            if (memberId.equals(activeMember.getMemberId())) {
-                return true;
-            }
-        }
-        return false;
+        return isMemberInState(memberId, MemberState.Active);
     }
 
     public boolean pendingMemberAvailable(String memberId) {
-
-        for (MemberContext pendingMember : pendingMembers) {
-            if (memberId.equals(pendingMember.getMemberId())) {
-                return true;
-            }
-        }
-        return false;
+        return isMemberInState(memberId, MemberState.Pending);
     }
 
     public void moveActiveMemberToTerminationPendingMembers(String memberId) {
         if (memberId == null) {
             return;
         }
-        synchronized (activeMembers) {
-            Iterator<MemberContext> iterator = activeMembers.listIterator();
-            while (iterator.hasNext()) {
-                MemberContext activeMember = iterator.next();
-                if (activeMember == null) {
-                    iterator.remove();
-                    continue;
-                }
-                if (memberId.equals(activeMember.getMemberId())) {
-                    // member is activated
-                    // remove from pending list
-                    iterator.remove();
-                    // add to the activated list
-                    this.terminationPendingMembers.add(activeMember);
-                    terminationPendingStartedTime.put(memberId, System.currentTimeMillis());
-                    if (log.isDebugEnabled()) {
-                        log.debug(String.format("Active member is removed and added to the " +
-                                "termination pending member list. [Member Id] %s", memberId));
-                    }
-                    break;
-                }
+        if (moveMember(memberId, MemberState.Active, MemberState.TerminationPending) != null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Active member is removed and added to the " +
+                        "termination pending member list. [Member Id] %s", memberId));
             }
         }
     }
@@ -299,94 +256,36 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
             return;
         }
 
-        // check active member list
-        Iterator<MemberContext> activeMemberIterator = activeMembers.listIterator();
-        MemberContext removedMember = this.removeMemberFrom(activeMemberIterator, memberId);
-        if (removedMember != null) {
-            this.addObsoleteMember(removedMember);
-            removedMember.setObsoleteInitTime(System.currentTimeMillis());
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Active member is removed and added to the " +
-                        "obsolete member list. [Member Id] %s", memberId));
-            }
-
-            return;
-        }
-
-        // check pending member list
-        Iterator<MemberContext> pendingMemberIterator = pendingMembers.listIterator();
-        removedMember = this.removeMemberFrom(pendingMemberIterator, memberId);
-        if (removedMember != null) {
-            this.addObsoleteMember(removedMember);
-            removedMember.setObsoleteInitTime(System.currentTimeMillis());
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Pending member is removed and added to the " +
-                        "obsolete member list. [Member Id] %s", memberId));
-            }
-
-            return;
-        }
-
-        // check termination pending member list
-        Iterator<MemberContext> terminationPendingMembersIterator = terminationPendingMembers.listIterator();
-        removedMember = this.removeMemberFrom(terminationPendingMembersIterator, memberId);
-        if (removedMember != null) {
-            this.addObsoleteMember(removedMember);
-            removedMember.setObsoleteInitTime(System.currentTimeMillis());
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Termination Pending member is removed and added to the " +
-                        "obsolete member list. [Member Id] %s", memberId));
+        MemberState state;
+        MemberContext removedMember;
+        synchronized (memberStates) {
+            state = memberStates.get(memberId);
+            if (state == null) {
+                return;
             }
+            removedMember = removeMember(memberId, state);
         }
-    }
-
-    /**
-     * Removes the {@link org.apache.stratos.cloud.controller.stub.domain.MemberContext} object mapping
-     * to the specified member id from the specified MemberContext collection
-     *
-     * @param iterator The {@link java.util.Iterator} for the collection containing {@link org.apache.stratos.cloud.controller.stub.domain.MemberContext}
-     *                 objects
-     * @param memberId Member Id {@link String} for the {@link org.apache.stratos.cloud.controller.stub.domain.MemberContext}
-     *                 to be removed
-     * @return {@link org.apache.stratos.cloud.controller.stub.domain.MemberContext} object if
-     * object found and removed, null if otherwise.
-     */
-    private MemberContext removeMemberFrom(Iterator<MemberContext> iterator, String memberId) {
-        while (iterator.hasNext()) {
-            MemberContext activeMember = iterator.next();
-            if (activeMember == null) {
-                iterator.remove();
-                continue;
-            }
-            if (memberId.equals(activeMember.getMemberId())) {
-                iterator.remove();
-                return activeMember;
-            }
+        this.addObsoleteMember(removedMember);
+        removedMember.setObsoleteInitTime(System.currentTimeMillis());
+        if (log.isDebugEnabled()) {
+            String stateName = (state == MemberState.TerminationPending) ? "Termination Pending" : state.name();
+            log.debug(String.format("%s member is removed and added to the " +
+                    "obsolete member list. [Member Id] %s", stateName, memberId));
         }
-
-        return null;
     }
 
     public void addActiveMember(MemberContext ctxt) {
-        this.activeMembers.add(ctxt);
+        addMember(ctxt, MemberState.Active);
     }
 
     public void removeActiveMember(MemberContext ctxt) {
-        this.activeMembers.remove(ctxt);
+        if (ctxt != null) {
+            removeMember(ctxt.getMemberId(), MemberState.Active);
+        }
     }
 
     public boolean removeTerminationPendingMember(String memberId) {
-        boolean terminationPendingMemberAvailable = false;
-        synchronized (terminationPendingMembers) {
-            for (MemberContext memberContext : terminationPendingMembers) {
-                if (memberContext.getMemberId().equals(memberId)) {
-                    terminationPendingMemberAvailable = true;
-                    terminationPendingMembers.remove(memberContext);
-                    break;
-                }
-            }
-        }
-        return terminationPendingMemberAvailable;
+        return removeMember(memberId, MemberState.TerminationPending) != null;
     }
 
     public long getObsoltedMemberExpiryTime() {
@@ -426,7 +325,7 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
 
     @Override
     public int getActiveInstanceCount() {
-        return this.activeMembers.size();
+        return activeMemberCount;
     }
 
     public Map<String, MemberStatsContext> getMemberStatsContexts() {
@@ -469,60 +368,55 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
         this.serviceName = serviceName;
     }
 
+    /**
+     * @return a snapshot of the termination pending members in the order they were added
+     */
     public List<MemberContext> getTerminationPendingMembers() {
-        return terminationPendingMembers;
+        return getMembers(MemberState.TerminationPending);
     }
 
     public void setTerminationPendingMembers(List<MemberContext> terminationPendingMembers) {
-        this.terminationPendingMembers = terminationPendingMembers;
+        setMembers(MemberState.TerminationPending, terminationPendingMembers);
+    }
+
+    public int getTerminationPendingMemberCount() {
+        return terminationPendingMemberCount;
+    }
+
+    public int getPendingMemberCount() {
+        return pendingMemberCount;
     }
 
     public int getTotalMemberCount() {
 
-        return activeMembers.size() + pendingMembers.size() + terminationPendingMembers.size();
+        return activeMemberCount + pendingMemberCount + terminationPendingMemberCount;
     }
 
     public int getNonTerminatedMemberCount() {
-        return activeMembers.size() + pendingMembers.size();
+        return activeMemberCount + pendingMemberCount;
     }
 
+    /**
+     * @return a snapshot of the active members in the order they were added
+     */
     public List<MemberContext> getActiveMembers() {
-        return activeMembers;
+        return getMembers(MemberState.Active);
     }
 
     public void setActiveMembers(List<MemberContext> activeMembers) {
-        this.activeMembers = activeMembers;
+        setMembers(MemberState.Active, activeMembers);
     }
 
     public boolean removeActiveMemberById(String memberId) {
-        boolean removeActiveMember = false;
-        synchronized (activeMembers) {
-            Iterator<MemberContext> iterator = activeMembers.listIterator();
-            while (iterator.hasNext()) {
-                MemberContext memberContext = iterator.next();
-                if (memberId.equals(memberContext.getMemberId())) {
-                    iterator.remove();
-                    removeActiveMember = true;
-
-                    break;
-                }
-            }
-        }
-        return removeActiveMember;
+        return removeMember(memberId, MemberState.Active) != null;
     }
 
     public boolean activeMemberExist(String memberId) {
-
-        for (MemberContext memberContext : activeMembers) {
-            if (memberId.equals(memberContext.getMemberId())) {
-                return true;
-            }
-        }
-        return false;
+        return isMemberInState(memberId, MemberState.Active);
     }
 
     public int getAllMemberForTerminationCount() {
-        int count = activeMembers.size() + pendingMembers.size() + terminationPendingMembers.size();
+        int count = getTotalMemberCount();
         if (log.isDebugEnabled()) {
             log.debug("PartitionContext:getAllMemberForTerminationCount:size:" + count);
         }
@@ -532,27 +426,14 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     // Map<String, MemberStatsContext> getMemberStatsContexts().keySet()
     public Set<String> getAllMemberForTermination() {
 
-        List<MemberContext> merged = new ArrayList<MemberContext>();
-
-
-        merged.addAll(activeMembers);
-        merged.addAll(pendingMembers);
-        merged.addAll(terminationPendingMembers);
-
-        Set<String> results = new HashSet<String>(merged.size());
-
-        for (MemberContext ctx : merged) {
-            results.add(ctx.getMemberId());
+        Set<String> results;
+        synchronized (memberStates) {
+            results = new HashSet<String>(memberStates.keySet());
         }
 
-
         if (log.isDebugEnabled()) {
             log.debug("PartitionContext:getAllMemberForTermination:size:" + results.size());
         }
-
-        //MemberContext x = new MemberContext();
-        //x.getMemberId()
-
         return results;
     }
 
@@ -562,49 +443,30 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
         if (memberId == null) {
             return;
         }
-        Iterator<MemberContext> iterator = terminationPendingMembers.listIterator();
-        while (iterator.hasNext()) {
-            MemberContext terminationPendingMember = iterator.next();
-            if (terminationPendingMember == null) {
-                iterator.remove();
-                continue;
-            }
-            if (memberId.equals(terminationPendingMember.getMemberId())) {
-
-                log.info("Found termination pending member and trying to move [member] " + memberId + " to obsolete list");
-                // member is pending termination
-                // remove from pending termination list
-                iterator.remove();
-
-                // add to the obsolete list
-                this.obsoletedMembers.put(memberId, terminationPendingMember);
-
+        MemberContext terminationPendingMember = removeMember(memberId, MemberState.TerminationPending);
+        if (terminationPendingMember != null) {
+            log.info("Found termination pending member and trying to move [member] " + memberId + " to obsolete list");
+            // add to the obsolete list
+            this.obsoletedMembers.put(memberId, terminationPendingMember);
 
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("Termination pending member is removed and added to the " +
-                            "obsolete member list. [Member Id] %s", memberId));
-                }
-                break;
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Termination pending member is removed and added to the " +
+                        "obsolete member list. [Member Id] %s", memberId));
             }
         }
     }
 
     public MemberContext getPendingTerminationMember(String memberId) {
-        for (MemberContext memberContext : terminationPendingMembers) {
-            if (memberId.equals(memberContext.getMemberId())) {
-                return memberContext;
-            }
+        if (memberId == null) {
+            return null;
+        }
+        synchronized (memberStates) {
+            return terminationPendingMembers.get(memberId);
         }
-        return null;
     }
 
     public MemberContext getObsoleteMember(String memberId) {
-        for (MemberContext memberContext : obsoletedMembers.values()) {
-            if (memberId.equals(memberContext.getMemberId())) {
-                return memberContext;
-            }
-        }
-        return null;
+        return obsoletedMembers.get(memberId);
     }
 
     public long getTerminationPendingMemberExpiryTime() {
@@ -615,27 +477,120 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
         if (memberId == null) {
             return;
         }
-        Iterator<MemberContext> iterator = pendingMembers.listIterator();
-        while (iterator.hasNext()) {
-            MemberContext pendingMember = iterator.next();
-            if (pendingMember == null) {
-                iterator.remove();
-                continue;
+        MemberContext pendingMember = removeMember(memberId, MemberState.Pending);
+        if (pendingMember != null) {
+            // add to the obsolete list
+            this.obsoletedMembers.put(memberId, pendingMember);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Pending member is removed and added to the " +
+                        "obsolete member list. [Member Id] %s", memberId));
             }
-            if (memberId.equals(pendingMember.getMemberId())) {
+        }
+    }
 
-                // remove from pending list
-                iterator.remove();
-                // add to the obsolete list
-                this.obsoletedMembers.put(memberId, pendingMember);
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("Pending member is removed and added to the " +
-                            "obsolete member list. [Member Id] %s", memberId));
+    private Map<String, MemberContext> getMemberMap(MemberState state) {
+        switch (state) {
+            case Pending:
+                return pendingMembers;
+            case Active:
+                return activeMembers;
+            default:
+                return terminationPendingMembers;
+        }
+    }
+
+    private List<MemberContext> getMembers(MemberState state) {
+        synchronized (memberStates) {
+            return new ArrayList<MemberContext>(getMemberMap(state).values());
+        }
+    }
+
+    private void setMembers(MemberState state, List<MemberContext> members) {
+        synchronized (memberStates) {
+            Map<String, MemberContext> memberMap = getMemberMap(state);
+            for (String memberId : memberMap.keySet()) {
+                memberStates.remove(memberId);
+                terminationPendingStartedTime.remove(memberId);
+            }
+            memberMap.clear();
+            updateMemberCounts();
+            if (members != null) {
+                for (MemberContext member : members) {
+                    addMember(member, state);
                 }
-                break;
             }
         }
+    }
 
+    private boolean isMemberInState(String memberId, MemberState state) {
+        synchronized (memberStates) {
+            return state == memberStates.get(memberId);
+        }
+    }
+
+    /**
+     * Add the member in the given state, the member is removed from the state it is currently in.
+     */
+    private void addMember(MemberContext member, MemberState state) {
+        if (member == null) {
+            return;
+        }
+        synchronized (memberStates) {
+            String memberId = member.getMemberId();
+            MemberState currentState = memberStates.put(memberId, state);
+            if (currentState != null) {
+                getMemberMap(currentState).remove(memberId);
+            }
+            getMemberMap(state).put(memberId, member);
+            if (state == MemberState.TerminationPending) {
+                terminationPendingStartedTime.put(memberId, System.currentTimeMillis());
+            } else {
+                terminationPendingStartedTime.remove(memberId);
+            }
+            updateMemberCounts();
+        }
+    }
+
+    /**
+     * Remove the member if it is in the given state.
+     *
+     * @return the removed member or null if the member is not in the given state
+     */
+    private MemberContext removeMember(String memberId, MemberState state) {
+        if (memberId == null) {
+            return null;
+        }
+        synchronized (memberStates) {
+            if (memberStates.get(memberId) != state) {
+                return null;
+            }
+            memberStates.remove(memberId);
+            terminationPendingStartedTime.remove(memberId);
+            MemberContext member = getMemberMap(state).remove(memberId);
+            updateMemberCounts();
+            return member;
+        }
+    }
+
+    /**
+     * Move the member from one state to another if it is in the from state.
+     *
+     * @return the moved member or null if the member is not in the from state
+     */
+    private MemberContext moveMember(String memberId, MemberState from, MemberState to) {
+        synchronized (memberStates) {
+            MemberContext member = removeMember(memberId, from);
+            if (member != null) {
+                addMember(member, to);
+            }
+            return member;
+        }
+    }
+
+    private void updateMemberCounts() {
+        pendingMemberCount = pendingMembers.size();
+        activeMemberCount = activeMembers.size();
+        terminationPendingMemberCount = terminationPendingMembers.size();
     }
 
     private class PendingMemberWatcher implements Runnable {
@@ -652,46 +607,40 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
             while (true) {
 
                 long expiryTime = ctxt.getPendingMemberExpiryTime();
-                List<MemberContext> pendingMembers = ctxt.getPendingMembers();
-
-                synchronized (pendingMembers) {
-                    Iterator<MemberContext> iterator = pendingMembers.listIterator();
-                    while (iterator.hasNext()) {
-                        MemberContext pendingMember = iterator.next();
-                        String clusterInstanceId = pendingMember.getClusterInstanceId();
-                        String clusterId = pendingMember.getClusterId();
-                        String serviceName = pendingMember.getCartridgeType();
-                         Service service = TopologyManager.getTopology().
-                                getService(serviceName);
-
-                        ClusterStatus status = ClusterStatus.Terminated;
-                        if(service != null) {
-                            Cluster cluster = service.getCluster(clusterId);
-                            if(cluster != null) {
-                                status = cluster. getInstanceContexts(clusterInstanceId).getStatus();
-                            }
+
+                for (MemberContext pendingMember : ctxt.getPendingMembers()) {
+                    String clusterInstanceId = pendingMember.getClusterInstanceId();
+                    String clusterId = pendingMember.getClusterId();
+                    String serviceName = pendingMember.getCartridgeType();
+                    Service service = TopologyManager.getTopology().
+                            getService(serviceName);
+
+                    ClusterStatus status = ClusterStatus.Terminated;
+                    if (service != null) {
+                        Cluster cluster = service.getCluster(clusterId);
+                        if ((cluster != null) && (cluster.getInstanceContexts(clusterInstanceId) != null)) {
+                            status = cluster.getInstanceContexts(clusterInstanceId).getStatus();
                         }
+                    }
+
+                    long pendingTime = System.currentTimeMillis() - pendingMember.getInitTime();
+                    if (pendingTime >= expiryTime || status.equals(ClusterStatus.Terminating)) {
 
-                        if (pendingMember == null) {
+                        // the member may have been activated or removed after the snapshot was taken
+                        if (!ctxt.removePendingMember(pendingMember.getMemberId())) {
                             continue;
                         }
-
-                        long pendingTime = System.currentTimeMillis() - pendingMember.getInitTime();
-                        if (pendingTime >= expiryTime || status.equals(ClusterStatus.Terminating)) {
-
-                            log.info(String.format("Pending state of member expired, member will be moved to obsolete list. " +
-                                            "[pending member] %s [expiry time] %s [cluster] %s " + "[cluster instance] %s",
-                                    pendingMember.getMemberId(), expiryTime, pendingMember.getClusterId(),
-                                    pendingMember.getClusterInstanceId()));
-                            iterator.remove();
-                            // member should be terminated
-                            ctxt.addObsoleteMember(pendingMember);
-                            pendingMembersFailureCount++;
-                            if (pendingMembersFailureCount > PENDING_MEMBER_FAILURE_THRESHOLD) {
-                                setPendingMemberExpiryTime(expiryTime * 2);//Doubles the expiry time after the threshold
-                                // of failure exceeded
-                                //TODO Implement an alerting system: STRATOS-369
-                            }
+                        log.info(String.format("Pending state of member expired, member will be moved to obsolete list. " +
+                                        "[pending member] %s [expiry time] %s [cluster] %s " + "[cluster instance] %s",
+                                pendingMember.getMemberId(), expiryTime, pendingMember.getClusterId(),
+                                pendingMember.getClusterInstanceId()));
+                        // member should be terminated
+                        ctxt.addObsoleteMember(pendingMember);
+                        pendingMembersFailureCount++;
+                        if (pendingMembersFailureCount > PENDING_MEMBER_FAILURE_THRESHOLD) {
+                            setPendingMemberExpiryTime(expiryTime * 2);//Doubles the expiry time after the threshold
+                            // of failure exceeded
+                            //TODO Implement an alerting system: STRATOS-369
                         }
                     }
                 }
@@ -787,24 +736,26 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
             while (true) {
                 long terminationPendingMemberExpiryTime = ctxt.getTerminationPendingMemberExpiryTime();
 
-                Iterator<MemberContext> iterator = ctxt.getTerminationPendingMembers().listIterator();
-                while (iterator.hasNext()) {
-
-                    MemberContext terminationPendingMember = iterator.next();
+                for (MemberContext terminationPendingMember : ctxt.getTerminationPendingMembers()) {
 
-                    if (terminationPendingMember == null) {
+                    Long startedTime;
+                    synchronized (memberStates) {
+                        startedTime = terminationPendingStartedTime.get(terminationPendingMember.getMemberId());
+                    }
+                    if (startedTime == null) {
                         continue;
                     }
-                    long terminationPendingTime = System.currentTimeMillis()
-                            - ctxt.getTerminationPendingStartedTimeOfMember(terminationPendingMember.getMemberId());
+                    long terminationPendingTime = System.currentTimeMillis() - startedTime;
                     if (terminationPendingTime >= terminationPendingMemberExpiryTime) {
 
+                        if (!ctxt.removeTerminationPendingMember(terminationPendingMember.getMemberId())) {
+                            continue;
+                        }
                         log.info(String.format("Termination pending state of member is expired, member will be moved to " +
                                         "obsolete list [termination pending member] %s [expiry time] %s [cluster] %s " +
                                         "[cluster instance] %s",
                                 terminationPendingMember.getMemberId(), terminationPendingMemberExpiryTime,
                                 terminationPendingMember.getClusterId(), terminationPendingMember.getClusterInstanceId()));
-                        iterator.remove();
                         obsoletedMembers.put(terminationPendingMember.getMemberId(), terminationPendingMember);
                     }
                 }
@@ -137,7 +137,7 @@ public class AutoscalerTopologyEventReceiver {
                     while (!appMonitorCreationTriggered && retries > 0) {
                         try {
                             //acquire read lock
-                            ApplicationHolder.acquireReadLock();
+                            ApplicationHolder.acquireReadLock(appId);
                             //start the application monitor
                             ApplicationContext applicationContext = AutoscalerContext.getInstance().
                                     getApplicationContext(appId);
@@ -156,7 +156,7 @@ public class AutoscalerTopologyEventReceiver {
                             log.error(msg, e);
                         } finally {
                             //release read lock
-                            ApplicationHolder.releaseReadLock();
+                            ApplicationHolder.releaseReadLock(appId);
                         }
 
                         try {
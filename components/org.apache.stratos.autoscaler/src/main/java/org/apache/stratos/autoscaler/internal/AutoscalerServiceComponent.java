@@ -24,6 +24,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.autoscaler.algorithms.networkpartition.NetworkPartitionAlgorithmContext;
 import org.apache.stratos.autoscaler.applications.ApplicationEventSynchronizer;
+import org.apache.stratos.autoscaler.applications.ApplicationHolder;
 import org.apache.stratos.autoscaler.context.AutoscalerContext;
 import org.apache.stratos.autoscaler.event.receiver.health.AutoscalerHealthStatEventReceiver;
 import org.apache.stratos.autoscaler.event.receiver.topology.AutoscalerTopologyEventReceiver;
@@ -262,6 +263,13 @@ public class AutoscalerServiceComponent {
             }
         }
 
+        // Write pending application updates to the registry
+        try {
+            ApplicationHolder.shutdownPersister();
+        } catch (Exception e) {
+            log.warn("An error occurred while flushing pending application updates", e);
+        }
+
         // Shutdown executor service
         shutdownExecutorService(AutoscalerConstants.AUTOSCALER_THREAD_POOL_ID);
 
@@ -273,6 +281,9 @@ public class AutoscalerServiceComponent {
 
         // Shutdown cluster monitor scheduler executor service
         shutdownScheduledExecutorService(AutoscalerConstants.CLUSTER_MONITOR_SCHEDULER_ID);
+
+        // Shutdown application persister scheduler
+        shutdownScheduledExecutorService(AutoscalerConstants.APPLICATION_PERSISTER_SCHEDULER_ID);
     }
 
     private void shutdownExecutorService(String executorServiceId) {
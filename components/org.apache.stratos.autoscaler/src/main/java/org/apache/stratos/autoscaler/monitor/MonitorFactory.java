@@ -113,7 +113,7 @@ public class MonitorFactory {
 
         try {
             //acquiring read lock to create the monitor
-            ApplicationHolder.acquireReadLock();
+            ApplicationHolder.acquireReadLock(appId);
             Group group = application.getGroupRecursively(context.getId());
             if (group == null) {
                 throw new RuntimeException("Group not found: [group-alias] " + context.getId());
@@ -141,7 +141,7 @@ public class MonitorFactory {
                 groupMonitor.setHasStartupDependents(false);
             }
         } finally {
-            ApplicationHolder.releaseReadLock();
+            ApplicationHolder.releaseReadLock(appId);
         }
 
         Group group = application.getGroupRecursively(context.getId());
@@ -179,7 +179,7 @@ public class MonitorFactory {
         Application application;
         try {
             //acquiring read lock to start the monitor
-            ApplicationHolder.acquireReadLock();
+            ApplicationHolder.acquireReadLock(applicationId);
             application = ApplicationHolder.getApplications().getApplication(applicationId);
             if (application == null) {
                 throw new RuntimeException("Application not found in the topology: " +
@@ -189,7 +189,7 @@ public class MonitorFactory {
             applicationMonitor = new ApplicationMonitor(application);
             applicationMonitor.setHasStartupDependents(false);
         } finally {
-            ApplicationHolder.releaseReadLock();
+            ApplicationHolder.releaseReadLock(applicationId);
         }
         //Creating the immediate dependencies
         applicationMonitor.startMinimumDependencies(application);
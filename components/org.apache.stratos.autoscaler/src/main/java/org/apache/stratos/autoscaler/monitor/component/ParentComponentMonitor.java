@@ -598,12 +598,12 @@ public abstract class ParentComponentMonitor extends Monitor {
 
                 if (monitor instanceof GroupMonitor) {
                     try {
-                        ApplicationHolder.acquireReadLock();
+                        ApplicationHolder.acquireReadLock(appId);
                         //verify whether the GroupInstance is active or not
                         parentsActive = verifyGroupStatus(context1.getId(), instanceId,
                                 GroupStatus.Active);
                     } finally {
-                        ApplicationHolder.releaseReadLock();
+                        ApplicationHolder.releaseReadLock(appId);
                     }
                 } else if (monitor instanceof ClusterMonitor) {
                     ClusterMonitor monitor1 = (ClusterMonitor) monitor;
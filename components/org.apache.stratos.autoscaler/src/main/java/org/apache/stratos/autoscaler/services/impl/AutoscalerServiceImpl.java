@@ -254,12 +254,12 @@ public class AutoscalerServiceImpl implements AutoscalerService {
 
             // Setting application policy id in application object
             try {
-                ApplicationHolder.acquireWriteLock();
+                ApplicationHolder.acquireWriteLock(applicationId);
                 application = ApplicationHolder.getApplications().getApplication(applicationId);
                 application.setApplicationPolicyId(applicationPolicyId);
                 ApplicationHolder.persistApplication(application);
             } finally {
-                ApplicationHolder.releaseWriteLock();
+                ApplicationHolder.releaseWriteLock(applicationId);
             }
 
             // adding network partition algorithm context to registry
@@ -82,7 +82,7 @@ public class ClusterStatusTerminatedProcessor extends ClusterStatusProcessor {
                 cluster = service.getCluster(clusterId);
                 if (cluster != null) {
                     try {
-                        ApplicationHolder.acquireReadLock();
+                        ApplicationHolder.acquireReadLock(appId);
                         /**
                          * if all members removed from the cluster and cluster is in terminating,
                          * either it has to be terminated or Reset
@@ -101,7 +101,7 @@ public class ClusterStatusTerminatedProcessor extends ClusterStatusProcessor {
                                     + cluster.getInstanceContexts(instanceId).getStatus().toString());
                         }
                     } finally {
-                        ApplicationHolder.releaseReadLock();
+                        ApplicationHolder.releaseReadLock(appId);
                     }
                 }
             }
@@ -71,7 +71,7 @@ public class GroupStatusActiveProcessor extends GroupStatusProcessor {
                     "[ " + idOfComponent + " ] " + " for the instance " + " [ " + instanceId + " ]");
         }
         try {
-            ApplicationHolder.acquireWriteLock();
+            ApplicationHolder.acquireWriteLock(appId);
 
             Application application = ApplicationHolder.getApplications().
                     getApplication(appId);
@@ -108,7 +108,7 @@ public class GroupStatusActiveProcessor extends GroupStatusProcessor {
 
             }
         } finally {
-            ApplicationHolder.releaseWriteLock();
+            ApplicationHolder.releaseWriteLock(appId);
 
         }
         return false;
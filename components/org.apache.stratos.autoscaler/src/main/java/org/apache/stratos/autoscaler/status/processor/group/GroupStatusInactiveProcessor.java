@@ -77,7 +77,7 @@ public class GroupStatusInactiveProcessor extends GroupStatusProcessor {
         }
 
         try {
-            ApplicationHolder.acquireWriteLock();
+            ApplicationHolder.acquireWriteLock(appId);
             Application application = ApplicationHolder.getApplications().
                     getApplication(appId);
             component = application;
@@ -114,7 +114,7 @@ public class GroupStatusInactiveProcessor extends GroupStatusProcessor {
                 }
             }
         } finally {
-            ApplicationHolder.releaseWriteLock();
+            ApplicationHolder.releaseWriteLock(appId);
 
         }
         return false;
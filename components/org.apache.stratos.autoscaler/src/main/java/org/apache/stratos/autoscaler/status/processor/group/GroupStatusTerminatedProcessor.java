@@ -73,7 +73,7 @@ public class GroupStatusTerminatedProcessor extends GroupStatusProcessor {
         }
 
         try {
-            ApplicationHolder.acquireWriteLock();
+            ApplicationHolder.acquireWriteLock(appId);
 
             Application application = ApplicationHolder.getApplications().
                     getApplication(appId);
@@ -109,7 +109,7 @@ public class GroupStatusTerminatedProcessor extends GroupStatusProcessor {
                 }
             }
         } finally {
-            ApplicationHolder.releaseWriteLock();
+            ApplicationHolder.releaseWriteLock(appId);
 
         }
         return false;
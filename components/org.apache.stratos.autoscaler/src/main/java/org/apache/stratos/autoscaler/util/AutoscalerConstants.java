@@ -74,6 +74,9 @@ public final class AutoscalerConstants {
     public static final String MONITOR_THREAD_POOL_ID = "monitor.thread.pool";
     public static final String MONITOR_THREAD_POOL_SIZE = "monitor.thread.pool.size";
     public static final String CLUSTER_MONITOR_SCHEDULER_ID = "cluster.monitor.scheduler";
+    public static final String APPLICATION_PERSISTER_SCHEDULER_ID = "application.persister.scheduler";
+    public static final String APPLICATION_PERSISTER_FLUSH_INTERVAL = "autoscaler.application.persister.flush.interval";
+    public static final long DEFAULT_APPLICATION_PERSISTER_FLUSH_INTERVAL = 2000;
     public static final String MEMBER_FAULT_EVENT_NAME = "member_fault";
     //scheduler
     public static final int SCHEDULE_DEFAULT_INITIAL_DELAY = 30;
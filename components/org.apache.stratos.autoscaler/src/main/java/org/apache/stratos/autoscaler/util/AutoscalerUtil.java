@@ -823,7 +823,7 @@ public class AutoscalerUtil {
 
 
                 try {
-                    ApplicationHolder.acquireWriteLock();
+                    ApplicationHolder.acquireWriteLock(existingApplication.getUniqueIdentifier());
                     //update the min and max of Group instances
                     existingGroup.setGroupMinInstances(newGroup.getGroupMinInstances());
                     //TODO applications Topology update
@@ -831,7 +831,7 @@ public class AutoscalerUtil {
                     //Persisting the existing application
                     ApplicationHolder.persistApplication(existingApplication);
                 } finally {
-                    ApplicationHolder.releaseWriteLock();
+                    ApplicationHolder.releaseWriteLock(existingApplication.getUniqueIdentifier());
                 }
             } else {
                 String msg = "Application is inconsistent. Please check whether the updated " +
@@ -864,7 +864,7 @@ public class AutoscalerUtil {
                                 setMaxInstanceCount(clusterDataHolder.getMaxInstances());
 
                         try {
-                            ApplicationHolder.acquireWriteLock();
+                            ApplicationHolder.acquireWriteLock(existingApplication.getUniqueIdentifier());
                             //Updating the existing application
                             ClusterDataHolder existingClusterDataHolder = existingApplication.
                                     getClusterDataHolderRecursivelyByAlias(
@@ -878,7 +878,7 @@ public class AutoscalerUtil {
                             //Persisting the existing application
                             ApplicationHolder.persistApplication(existingApplication);
                         } finally {
-                            ApplicationHolder.releaseWriteLock();
+                            ApplicationHolder.releaseWriteLock(existingApplication.getUniqueIdentifier());
                         }
                     }
                 }
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.autoscaler.applications.ApplicationHolder;
+import org.apache.stratos.autoscaler.applications.ApplicationPersister;
+import org.apache.stratos.messaging.domain.application.Application;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Application persister test.
+ */
+public class ApplicationPersisterTest {
+
+    private static final Log log = LogFactory.getLog(ApplicationPersisterTest.class);
+
+    private static final int APPLICATION_COUNT = 500;
+    private static final int UPDATES_PER_APPLICATION = 20;
+    private static final int THREAD_COUNT = 20;
+
+    @Test
+    public void testConcurrentUpdatesAreCoalesced() throws Exception {
+        final InMemoryApplicationPersister persister = new InMemoryApplicationPersister(100);
+        persister.start();
+
+        final List<Application> applications = new ArrayList<Application>();
+        for (int i = 0; i < APPLICATION_COUNT; i++) {
+            applications.add(new Application("application-" + i));
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        final CountDownLatch latch = new CountDownLatch(THREAD_COUNT);
+        long startTime = System.currentTimeMillis();
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            final int threadIndex = t;
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int update = 0; update < UPDATES_PER_APPLICATION; update++) {
+                            for (int i = threadIndex; i < APPLICATION_COUNT; i += THREAD_COUNT) {
+                                Application application = applications.get(i);
+                                String applicationId = application.getUniqueIdentifier();
+                                ApplicationHolder.acquireWriteLock(applicationId);
+                                try {
+                                    application.setApplicationPolicyId("policy-" + update);
+                                    persister.persistApplication(application);
+                                } finally {
+                                    ApplicationHolder.releaseWriteLock(applicationId);
+                                }
+                            }
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+        assertTrue("Application updates did not complete", latch.await(60, TimeUnit.SECONDS));
+        long updateTime = System.currentTimeMillis() - startTime;
+        executorService.shutdown();
+
+        persister.shutdown();
+        long totalTime = System.currentTimeMillis() - startTime;
+
+        int updateCount = APPLICATION_COUNT * UPDATES_PER_APPLICATION;
+        log.info(String.format("Application persister throughput: [applications] %d [updates] %d " +
+                        "[registry-writes] %d [update-time] %d ms [total-time] %d ms [updates-per-second] %d",
+                APPLICATION_COUNT, updateCount, persister.getWriteCount(), updateTime, totalTime,
+                (updateCount * 1000L) / Math.max(1, updateTime)));
+
+        assertEquals(0, persister.getPendingCount());
+        assertEquals(APPLICATION_COUNT, persister.getRegistry().size());
+        for (int i = 0; i < APPLICATION_COUNT; i++) {
+            assertEquals("policy-" + (UPDATES_PER_APPLICATION - 1),
+                    persister.getRegistry().get("application-" + i));
+        }
+        assertTrue("Updates were not coalesced", persister.getWriteCount() < updateCount);
+    }
+
+    @Test
+    public void testRemovalDiscardsPendingUpdate() {
+        InMemoryApplicationPersister persister = new InMemoryApplicationPersister(60000);
+        Application application = new Application("application-removed");
+        application.setApplicationPolicyId("policy");
+
+        persister.persistApplication(application);
+        persister.removeApplication(application.getUniqueIdentifier());
+        persister.flush();
+        assertFalse(persister.getRegistry().containsKey(application.getUniqueIdentifier()));
+        assertEquals(0, persister.getWriteCount());
+
+        persister.removeApplication(application.getUniqueIdentifier());
+        persister.persistApplication(application);
+        persister.flush();
+        assertEquals("policy", persister.getRegistry().get(application.getUniqueIdentifier()));
+    }
+
+    @Test
+    public void testWriteThroughAfterShutdown() {
+        InMemoryApplicationPersister persister = new InMemoryApplicationPersister(60000);
+        Application application = new Application("application-late");
+        application.setApplicationPolicyId("policy");
+
+        persister.persistApplication(application);
+        persister.shutdown();
+        assertEquals(1, persister.getWriteCount());
+
+        application.setApplicationPolicyId("policy-updated");
+        persister.persistApplication(application);
+        assertEquals(0, persister.getPendingCount());
+        assertEquals("policy-updated", persister.getRegistry().get(application.getUniqueIdentifier()));
+    }
+
+    /**
+     * Registry stand-in keeping a snapshot of the application policy id of each written
+     * application and simulating the registry write latency.
+     */
+    private static class InMemoryApplicationPersister extends ApplicationPersister {
+
+        private final Map<String, String> registry = new ConcurrentHashMap<String, String>();
+        private final AtomicInteger writeCount = new AtomicInteger();
+
+        private InMemoryApplicationPersister(long flushInterval) {
+            super(flushInterval);
+        }
+
+        @Override
+        protected void writeApplication(Application application) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException ignore) {
+            }
+            registry.put(application.getUniqueIdentifier(), application.getApplicationPolicyId());
+            writeCount.incrementAndGet();
+        }
+
+        @Override
+        protected void deleteApplication(String applicationId) {
+            registry.remove(applicationId);
+        }
+
+        private Map<String, String> getRegistry() {
+            return registry;
+        }
+
+        private int getWriteCount() {
+            return writeCount.get();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler.applications;
+
+import org.apache.stratos.messaging.domain.application.Application;
+import org.apache.stratos.messaging.domain.application.Applications;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Application holder concurrency test. Applications are added and removed from many threads, each
+ * holding only the write lock of the application concerned, while readers look up applications
+ * which are never removed and iterate all applications.
+ */
+public class ApplicationHolderTest {
+
+    private static final int WRITER_COUNT = 16;
+    private static final int READER_COUNT = 4;
+    private static final int APPLICATIONS_PER_WRITER = 500;
+    private static final int STABLE_APPLICATION_COUNT = 100;
+
+    private InMemoryApplicationPersister persister;
+
+    @Before
+    public void setUp() {
+        persister = new InMemoryApplicationPersister();
+        ApplicationHolder.initialize(new Applications(), persister);
+    }
+
+    @After
+    public void tearDown() {
+        ApplicationHolder.initialize(null, null);
+    }
+
+    @Test
+    public void testConcurrentPersistAndRemove() throws Exception {
+        for (int i = 0; i < STABLE_APPLICATION_COUNT; i++) {
+            ApplicationHolder.persistApplication(new Application("stable-application-" + i));
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(WRITER_COUNT + READER_COUNT);
+        final CountDownLatch writersLatch = new CountDownLatch(WRITER_COUNT);
+        final AtomicBoolean writersDone = new AtomicBoolean(false);
+        final AtomicInteger missingReads = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+
+        for (int t = 0; t < WRITER_COUNT; t++) {
+            final int writerIndex = t;
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < APPLICATIONS_PER_WRITER; i++) {
+                            String applicationId = "application-" + writerIndex + "-" + i;
+                            ApplicationHolder.acquireWriteLock(applicationId);
+                            try {
+                                ApplicationHolder.persistApplication(new Application(applicationId));
+                            } finally {
+                                ApplicationHolder.releaseWriteLock(applicationId);
+                            }
+                            // Remove every other application again
+                            if ((i % 2) == 1) {
+                                ApplicationHolder.acquireWriteLock(applicationId);
+                                try {
+                                    ApplicationHolder.removeApplication(applicationId);
+                                } finally {
+                                    ApplicationHolder.releaseWriteLock(applicationId);
+                                }
+                            }
+                        }
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        writersLatch.countDown();
+                    }
+                }
+            });
+        }
+
+        final CountDownLatch readersLatch = new CountDownLatch(READER_COUNT);
+        for (int t = 0; t < READER_COUNT; t++) {
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        while (!writersDone.get()) {
+                            for (int i = 0; i < STABLE_APPLICATION_COUNT; i++) {
+                                String applicationId = "stable-application-" + i;
+                                ApplicationHolder.acquireReadLock(applicationId);
+                                try {
+                                    if (ApplicationHolder.getApplications().getApplication(applicationId) == null) {
+                                        missingReads.incrementAndGet();
+                                    }
+                                } finally {
+                                    ApplicationHolder.releaseReadLock(applicationId);
+                                }
+                            }
+                            // Policy removal checks iterate all applications without a lock
+                            int applicationCount = 0;
+                            for (Application application :
+                                    ApplicationHolder.getApplications().getApplications().values()) {
+                                if (application != null) {
+                                    applicationCount++;
+                                }
+                            }
+                            if (applicationCount < STABLE_APPLICATION_COUNT) {
+                                missingReads.incrementAndGet();
+                            }
+                        }
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        readersLatch.countDown();
+                    }
+                }
+            });
+        }
+
+        assertTrue("Writers did not complete", writersLatch.await(60, TimeUnit.SECONDS));
+        writersDone.set(true);
+        assertTrue("Readers did not complete", readersLatch.await(60, TimeUnit.SECONDS));
+        executorService.shutdown();
+
+        assertEquals(0, failures.get());
+        assertEquals("Stable applications were not found while others were updated", 0, missingReads.get());
+
+        int expectedCount = STABLE_APPLICATION_COUNT + (WRITER_COUNT * APPLICATIONS_PER_WRITER / 2);
+        Applications applications = ApplicationHolder.getApplications();
+        assertEquals(expectedCount, applications.getApplications().size());
+        assertEquals(expectedCount, persister.getRegistry().size());
+        for (int t = 0; t < WRITER_COUNT; t++) {
+            for (int i = 0; i < APPLICATIONS_PER_WRITER; i++) {
+                String applicationId = "application-" + t + "-" + i;
+                if ((i % 2) == 0) {
+                    assertNotNull(applicationId, applications.getApplication(applicationId));
+                } else {
+                    assertNull(applicationId, applications.getApplication(applicationId));
+                }
+            }
+        }
+    }
+
+    /**
+     * Write-through persister keeping applications in memory instead of the registry.
+     */
+    private static class InMemoryApplicationPersister extends ApplicationPersister {
+
+        private final Map<String, Application> registry = new ConcurrentHashMap<String, Application>();
+
+        private InMemoryApplicationPersister() {
+            super(0);
+        }
+
+        @Override
+        protected void writeApplication(Application application) {
+            registry.put(application.getUniqueIdentifier(), application);
+        }
+
+        @Override
+        protected void deleteApplication(String applicationId) {
+            registry.remove(applicationId);
+        }
+
+        private Map<String, Application> getRegistry() {
+            return registry;
+        }
+    }
+}
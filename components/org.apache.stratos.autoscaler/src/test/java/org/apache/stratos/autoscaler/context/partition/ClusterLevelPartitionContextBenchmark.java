@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler.context.partition;
+
+import org.apache.stratos.cloud.controller.stub.domain.MemberContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures member state transitions of a {@link ClusterLevelPartitionContext} holding a large
+ * number of members while members churn through the pending, active and termination pending
+ * states and the monitors poll the member counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClusterLevelPartitionContextBenchmark {
+
+    @Param({"5000"})
+    private int memberCount;
+
+    private ClusterLevelPartitionContext partitionContext;
+    private String[] memberIds;
+    private final AtomicInteger nextMember = new AtomicInteger();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        partitionContext = new ClusterLevelPartitionContext(900000);
+        memberIds = new String[memberCount];
+        for (int i = 0; i < memberCount; i++) {
+            memberIds[i] = "member-" + i;
+            MemberContext member = new MemberContext();
+            member.setMemberId(memberIds[i]);
+            member.setInitTime(System.currentTimeMillis());
+            // Spread the members over the three states
+            if (i % 3 == 0) {
+                partitionContext.addPendingMember(member);
+            } else if (i % 3 == 1) {
+                partitionContext.addActiveMember(member);
+            } else {
+                partitionContext.addTerminationPendingMember(member);
+            }
+        }
+    }
+
+    /**
+     * Moves a member one step forward through its life cycle, members leaving the termination
+     * pending state are added back as pending members to keep the partition size constant.
+     */
+    @Benchmark
+    @Threads(4)
+    public boolean churn() {
+        String memberId = memberIds[(nextMember.getAndIncrement() & Integer.MAX_VALUE) % memberCount];
+        if (partitionContext.pendingMemberAvailable(memberId)) {
+            partitionContext.movePendingMemberToActiveMembers(memberId);
+        } else if (partitionContext.activeMemberAvailable(memberId)) {
+            partitionContext.moveActiveMemberToTerminationPendingMembers(memberId);
+        } else {
+            MemberContext member = partitionContext.getPendingTerminationMember(memberId);
+            if ((member != null) && partitionContext.removeTerminationPendingMember(memberId)) {
+                partitionContext.addPendingMember(member);
+            }
+        }
+        return partitionContext.activeMemberExist(memberId);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int memberCounts() {
+        return partitionContext.getActiveMemberCount() + partitionContext.getNonTerminatedMemberCount()
+                + partitionContext.getTotalMemberCount();
+    }
+}
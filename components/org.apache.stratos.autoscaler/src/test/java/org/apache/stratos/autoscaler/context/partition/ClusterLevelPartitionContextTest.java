@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler.context.partition;
+
+import org.apache.stratos.cloud.controller.stub.domain.MemberContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the member state transitions of {@link ClusterLevelPartitionContext}.
+ */
+public class ClusterLevelPartitionContextTest {
+
+    private ClusterLevelPartitionContext partitionContext;
+
+    @Before
+    public void setUp() {
+        partitionContext = new ClusterLevelPartitionContext(900000);
+    }
+
+    @Test
+    public void testMemberLifecycle() {
+        partitionContext.addPendingMember(createMember("member-1"));
+        partitionContext.addPendingMember(createMember("member-2"));
+        assertTrue(partitionContext.pendingMemberAvailable("member-1"));
+        assertEquals(2, partitionContext.getNonTerminatedMemberCount());
+
+        partitionContext.movePendingMemberToActiveMembers("member-1");
+        assertFalse(partitionContext.pendingMemberAvailable("member-1"));
+        assertTrue(partitionContext.activeMemberAvailable("member-1"));
+        assertEquals(1, partitionContext.getActiveMemberCount());
+        assertEquals(1, partitionContext.getPendingMembers().size());
+
+        partitionContext.moveActiveMemberToTerminationPendingMembers("member-1");
+        assertEquals(0, partitionContext.getActiveInstanceCount());
+        assertNotNull(partitionContext.getPendingTerminationMember("member-1"));
+        assertTrue(partitionContext.getTerminationPendingStartedTimeOfMember("member-1") > 0);
+        assertEquals(2, partitionContext.getTotalMemberCount());
+
+        partitionContext.movePendingTerminationMemberToObsoleteMembers("member-1");
+        assertNull(partitionContext.getPendingTerminationMember("member-1"));
+        assertNotNull(partitionContext.getObsoleteMember("member-1"));
+
+        partitionContext.moveMemberToObsoleteList("member-2");
+        assertEquals(0, partitionContext.getTotalMemberCount());
+        assertEquals(2, partitionContext.getObsoletedMembers().size());
+    }
+
+    @Test
+    public void testTransitionsFromOtherStatesAreIgnored() {
+        partitionContext.addActiveMember(createMember("member-1"));
+
+        partitionContext.movePendingMemberToActiveMembers("member-1");
+        partitionContext.movePendingMemberToObsoleteMembers("member-1");
+        assertFalse(partitionContext.removeTerminationPendingMember("member-1"));
+        assertTrue(partitionContext.activeMemberExist("member-1"));
+        assertEquals(1, partitionContext.getActiveMemberCount());
+        assertTrue(partitionContext.getObsoletedMembers().isEmpty());
+    }
+
+    @Test
+    public void testMemberIsInOneStateOnly() {
+        MemberContext member = createMember("member-1");
+        partitionContext.addPendingMember(member);
+        partitionContext.addActiveMember(member);
+
+        assertEquals(0, partitionContext.getPendingMembers().size());
+        assertEquals(1, partitionContext.getActiveMembers().size());
+        assertEquals(1, partitionContext.getAllMemberForTermination().size());
+    }
+
+    @Test
+    public void testMembersAreReturnedInInsertionOrderAsSnapshots() {
+        List<MemberContext> members = new ArrayList<MemberContext>();
+        for (int i = 0; i < 10; i++) {
+            members.add(createMember("member-" + i));
+        }
+        partitionContext.setActiveMembers(members);
+
+        List<MemberContext> activeMembers = partitionContext.getActiveMembers();
+        for (int i = 0; i < 10; i++) {
+            assertEquals("member-" + i, activeMembers.get(i).getMemberId());
+        }
+
+        // Moving members while iterating a snapshot does not fail
+        for (MemberContext activeMember : activeMembers) {
+            partitionContext.moveActiveMemberToTerminationPendingMembers(activeMember.getMemberId());
+        }
+        assertEquals(0, partitionContext.getActiveMemberCount());
+        assertEquals(10, partitionContext.getTerminationPendingMembers().size());
+
+        partitionContext.setTerminationPendingMembers(new ArrayList<MemberContext>());
+        assertEquals(0, partitionContext.getTotalMemberCount());
+    }
+
+    private MemberContext createMember(String memberId) {
+        MemberContext member = new MemberContext();
+        member.setMemberId(memberId);
+        member.setClusterId("cluster-1");
+        member.setInitTime(System.currentTimeMillis());
+        return member;
+    }
+}
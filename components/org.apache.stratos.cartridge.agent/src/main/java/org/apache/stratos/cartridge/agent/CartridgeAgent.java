@@ -32,8 +32,14 @@ import org.apache.stratos.cartridge.agent.extensions.DefaultExtensionHandler;
 import org.apache.stratos.cartridge.agent.extensions.ExtensionHandler;
 import org.apache.stratos.cartridge.agent.util.CartridgeAgentConstants;
 import org.apache.stratos.cartridge.agent.util.ExtensionUtils;
+import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.event.instance.notifier.StandbyInstanceAssignedEvent;
+import org.apache.stratos.messaging.listener.instance.notifier.StandbyInstanceAssignedEventListener;
+import org.apache.stratos.messaging.message.receiver.instance.notifier.InstanceNotifierEventReceiver;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Cartridge agent runnable.
@@ -42,7 +48,7 @@ public class CartridgeAgent implements Runnable {
 
     private static final Log log = LogFactory.getLog(CartridgeAgent.class);
     private static final ExtensionHandler extensionHandler = new DefaultExtensionHandler();
-    private boolean terminated;
+    private volatile boolean terminated;
 
     private CartridgeAgentEventListeners eventListenerns;
 
@@ -52,13 +58,21 @@ public class CartridgeAgent implements Runnable {
             log.info("Cartridge agent started");
         }
 
-        eventListenerns = new CartridgeAgentEventListeners();
-
         validateRequiredSystemProperties();
         if (log.isInfoEnabled()) {
             log.info("Cartridge agent validated system properties done");
         }
 
+        // A standby instance of a warm pool takes over a member once it is assigned to it
+        if (CartridgeAgentConfiguration.isStandbyInstance()) {
+            waitForStandbyInstanceAssignment();
+            if (terminated) {
+                return;
+            }
+        }
+
+        eventListenerns = new CartridgeAgentEventListeners();
+
         // Start topology event receiver thread
         registerTopologyEventListeners();
         if (log.isInfoEnabled()) {
@@ -174,6 +188,60 @@ public class CartridgeAgent implements Runnable {
         logPublisherManager.stop();
     }
 
+    /**
+     * Wait until the standby instance assigned event of this instance is received, the launch
+     * parameters are then replaced with the payload of the assigned member.
+     */
+    protected void waitForStandbyInstanceAssignment() {
+        final String standbyMemberId = CartridgeAgentConfiguration.getStandbyMemberId();
+        final CountDownLatch assignedLatch = new CountDownLatch(1);
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Waiting for standby instance to be assigned: [standby-member-id] %s",
+                    standbyMemberId));
+        }
+
+        final InstanceNotifierEventReceiver standbyEventReceiver = new InstanceNotifierEventReceiver();
+        standbyEventReceiver.addEventListener(new StandbyInstanceAssignedEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                StandbyInstanceAssignedEvent standbyInstanceAssignedEvent = (StandbyInstanceAssignedEvent) event;
+                if ((assignedLatch.getCount() == 0) ||
+                        !standbyInstanceAssignedEvent.getStandbyMemberId().equals(standbyMemberId)) {
+                    return;
+                }
+                try {
+                    CartridgeAgentConfiguration.assignStandbyInstance(standbyInstanceAssignedEvent.getPayload());
+                    if (log.isInfoEnabled()) {
+                        log.info(String.format("Standby instance assigned: [standby-member-id] %s [member-id] %s " +
+                                        "[cluster-id] %s", standbyMemberId, standbyInstanceAssignedEvent.getMemberId(),
+                                standbyInstanceAssignedEvent.getClusterId()));
+                    }
+                    assignedLatch.countDown();
+                } catch (Exception e) {
+                    log.error(String.format("Could not assign standby instance: [standby-member-id] %s " +
+                            "[member-id] %s", standbyMemberId, standbyInstanceAssignedEvent.getMemberId()), e);
+                }
+            }
+        });
+        Thread receiverThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                standbyEventReceiver.execute();
+            }
+        });
+        receiverThread.start();
+
+        while ((assignedLatch.getCount() > 0) && !terminated) {
+            try {
+                assignedLatch.await(1, TimeUnit.SECONDS);
+            } catch (InterruptedException ignore) {
+            }
+        }
+        if (standbyEventReceiver.isSubscribed()) {
+            standbyEventReceiver.terminate();
+        }
+    }
+
     protected void registerInstanceNotifierEventListeners() {
         if (log.isDebugEnabled()) {
             log.debug("SsubscribeToTopicsAndRegisterListeners before");
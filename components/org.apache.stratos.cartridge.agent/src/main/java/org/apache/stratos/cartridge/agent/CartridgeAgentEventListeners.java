@@ -31,6 +31,7 @@ import org.apache.stratos.messaging.event.application.signup.ApplicationSignUpRe
 import org.apache.stratos.messaging.event.instance.notifier.ArtifactUpdatedEvent;
 import org.apache.stratos.messaging.event.instance.notifier.InstanceCleanupClusterEvent;
 import org.apache.stratos.messaging.event.instance.notifier.InstanceCleanupMemberEvent;
+import org.apache.stratos.messaging.event.instance.notifier.MultiTenantArtifactUpdatedEvent;
 import org.apache.stratos.messaging.event.tenant.CompleteTenantEvent;
 import org.apache.stratos.messaging.event.tenant.TenantCreatedEvent;
 import org.apache.stratos.messaging.event.tenant.TenantRemovedEvent;
@@ -40,6 +41,7 @@ import org.apache.stratos.messaging.listener.application.signup.ApplicationSignU
 import org.apache.stratos.messaging.listener.instance.notifier.ArtifactUpdateEventListener;
 import org.apache.stratos.messaging.listener.instance.notifier.InstanceCleanupClusterEventListener;
 import org.apache.stratos.messaging.listener.instance.notifier.InstanceCleanupMemberEventListener;
+import org.apache.stratos.messaging.listener.instance.notifier.MultiTenantArtifactUpdatedEventListener;
 import org.apache.stratos.messaging.listener.tenant.CompleteTenantEventListener;
 import org.apache.stratos.messaging.listener.tenant.TenantCreatedEventListener;
 import org.apache.stratos.messaging.listener.tenant.TenantRemovedEventListener;
@@ -185,6 +187,31 @@ public class CartridgeAgentEventListeners {
             }
         });
 
+        instanceNotifierEventReceiver.addEventListener(new MultiTenantArtifactUpdatedEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                MultiTenantArtifactUpdatedEvent multiTenantArtifactUpdatedEvent = (MultiTenantArtifactUpdatedEvent) event;
+                String clusterIdInPayload = CartridgeAgentConfiguration.getInstance().getClusterId();
+                if ((clusterIdInPayload == null) ||
+                        !clusterIdInPayload.equals(multiTenantArtifactUpdatedEvent.getClusterId())) {
+                    return;
+                }
+
+                // Process the event of each tenant as an artifact updated event
+                for (ArtifactUpdatedEvent artifactUpdatedEvent :
+                        multiTenantArtifactUpdatedEvent.createArtifactUpdatedEvents()) {
+                    try {
+                        extensionHandler.onArtifactUpdatedEvent(artifactUpdatedEvent);
+                    } catch (Exception e) {
+                        if (log.isErrorEnabled()) {
+                            log.error(String.format("Error processing artifact update event: [tenant] %s",
+                                    artifactUpdatedEvent.getTenantId()), e);
+                        }
+                    }
+                }
+            }
+        });
+
         instanceNotifierEventReceiver.addEventListener(new InstanceCleanupMemberEventListener() {
             @Override
             protected void onEvent(Event event) {
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cartridge.agent.artifact.deployment.synchronizer.git.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the artifact synchronization tasks of all tenant repositories on a single bounded
+ * scheduler. The interval of each repository is varied by a random jitter and its first run is
+ * spread over one interval, so that the repositories of a multi-tenant cartridge instance do not
+ * poll the remote repositories at the same time. Tasks are run with a fixed delay, a slow
+ * synchronization delays the next run of its repository instead of piling up runs.
+ */
+public class ArtifactSyncScheduler {
+
+    private static final Log log = LogFactory.getLog(ArtifactSyncScheduler.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final double jitter;
+    private final ConcurrentMap<Integer, ScheduledSyncTask> syncTasks;
+    private final Random random;
+
+    /**
+     * @param scheduler scheduler to run the synchronization tasks
+     * @param jitter    maximum fraction of the interval a repository interval is varied by
+     */
+    public ArtifactSyncScheduler(ScheduledExecutorService scheduler, double jitter) {
+        this.scheduler = scheduler;
+        this.jitter = jitter;
+        this.syncTasks = new ConcurrentHashMap<Integer, ScheduledSyncTask>();
+        this.random = new Random();
+    }
+
+    /**
+     * Schedule the synchronization task of the repository of the given tenant.
+     *
+     * @param tenantId tenant id
+     * @param task     synchronization task
+     * @param interval interval in seconds
+     * @return false if a task is already scheduled for the tenant
+     */
+    public boolean schedule(int tenantId, Runnable task, long interval) {
+        ScheduledSyncTask syncTask = new ScheduledSyncTask(task, getJitteredInterval(interval));
+        if (syncTasks.putIfAbsent(tenantId, syncTask) != null) {
+            return false;
+        }
+        synchronized (syncTask) {
+            if (syncTask.cancelled) {
+                return true;
+            }
+            long initialDelay = (long) (random.nextDouble() * syncTask.interval);
+            syncTask.future = scheduler.scheduleWithFixedDelay(task, initialDelay, syncTask.interval,
+                    TimeUnit.MILLISECONDS);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Artifact sync task scheduled: [tenant] %d [interval] %d ms", tenantId,
+                    syncTask.interval));
+        }
+        return true;
+    }
+
+    /**
+     * Postpone the next run of the synchronization task of the given tenant by a full interval,
+     * called once the repository is synchronized on an artifact updated event.
+     *
+     * @param tenantId tenant id
+     */
+    public void postpone(int tenantId) {
+        ScheduledSyncTask syncTask = syncTasks.get(tenantId);
+        if (syncTask == null) {
+            return;
+        }
+        synchronized (syncTask) {
+            if (syncTask.cancelled || (syncTask.future == null) || !syncTask.future.cancel(false)) {
+                return;
+            }
+            syncTask.future = scheduler.scheduleWithFixedDelay(syncTask.task, syncTask.interval, syncTask.interval,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Cancel the synchronization task of the given tenant.
+     *
+     * @param tenantId tenant id
+     * @return false if no task was scheduled for the tenant
+     */
+    public boolean cancel(int tenantId) {
+        ScheduledSyncTask syncTask = syncTasks.remove(tenantId);
+        if (syncTask == null) {
+            return false;
+        }
+        synchronized (syncTask) {
+            syncTask.cancelled = true;
+            if (syncTask.future != null) {
+                syncTask.future.cancel(false);
+            }
+        }
+        return true;
+    }
+
+    public boolean isScheduled(int tenantId) {
+        return syncTasks.containsKey(tenantId);
+    }
+
+    public int getScheduledCount() {
+        return syncTasks.size();
+    }
+
+    private long getJitteredInterval(long interval) {
+        long intervalMillis = TimeUnit.SECONDS.toMillis(interval);
+        long jitterMillis = (long) (intervalMillis * jitter * (2 * random.nextDouble() - 1));
+        return Math.max(1, intervalMillis + jitterMillis);
+    }
+
+    private static class ScheduledSyncTask {
+
+        private final Runnable task;
+        private final long interval;
+        private ScheduledFuture<?> future;
+        private boolean cancelled;
+
+        private ScheduledSyncTask(Runnable task, long interval) {
+            this.task = task;
+            this.interval = interval;
+        }
+    }
+}
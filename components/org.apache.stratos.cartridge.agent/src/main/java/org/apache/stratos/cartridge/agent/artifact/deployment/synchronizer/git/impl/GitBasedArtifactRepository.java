@@ -32,6 +32,7 @@ import org.apache.stratos.cartridge.agent.config.CartridgeAgentConfiguration;
 import org.apache.stratos.cartridge.agent.extensions.ExtensionHandler;
 import org.apache.stratos.cartridge.agent.util.CartridgeAgentConstants;
 import org.apache.stratos.cartridge.agent.util.ExtensionUtils;
+import org.apache.stratos.common.threading.StratosThreadPool;
 import org.eclipse.jgit.api.*;
 import org.eclipse.jgit.api.errors.*;
 import org.eclipse.jgit.lib.Ref;
@@ -46,7 +47,7 @@ import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Git based artifact repository.
@@ -54,9 +55,13 @@ import java.util.concurrent.*;
 public class GitBasedArtifactRepository {
 
     private static final int SUPER_TENANT_ID = -1234;
+    private static final String ARTIFACT_SYNC_SCHEDULER_ID = "cartridge.agent.artifact.sync.scheduler";
+    private static final int DEFAULT_ARTIFACT_SYNC_THREAD_POOL_SIZE = 4;
+    private static final double DEFAULT_ARTIFACT_SYNC_INTERVAL_JITTER = 0.1;
 
     private static final Log log = LogFactory.getLog(GitBasedArtifactRepository.class);
     private final ExtensionHandler extensionHandler;
+    private final ArtifactSyncScheduler artifactSyncScheduler;
 
     //Map to keep track of git context per tenant (remote urls, jgit git objects, etc.)
     private static ConcurrentHashMap<Integer, RepositoryContext>
@@ -67,6 +72,20 @@ public class GitBasedArtifactRepository {
 
     private GitBasedArtifactRepository() {
         extensionHandler = CartridgeAgent.getExtensionHandler();
+
+        int syncThreadPoolSize = Integer.getInteger(CartridgeAgentConstants.ARTIFACT_SYNC_THREAD_POOL_SIZE,
+                DEFAULT_ARTIFACT_SYNC_THREAD_POOL_SIZE);
+        double syncIntervalJitter = DEFAULT_ARTIFACT_SYNC_INTERVAL_JITTER;
+        String syncIntervalJitterStr = System.getProperty(CartridgeAgentConstants.ARTIFACT_SYNC_INTERVAL_JITTER);
+        if (syncIntervalJitterStr != null && !syncIntervalJitterStr.isEmpty()) {
+            try {
+                syncIntervalJitter = Double.parseDouble(syncIntervalJitterStr);
+            } catch (NumberFormatException e) {
+                log.error("Invalid artifact sync interval jitter specified ", e);
+            }
+        }
+        artifactSyncScheduler = new ArtifactSyncScheduler(StratosThreadPool.getScheduledExecutorService(
+                ARTIFACT_SYNC_SCHEDULER_ID, syncThreadPoolSize), syncIntervalJitter);
     }
 
     public static GitBasedArtifactRepository getInstance() {
@@ -487,7 +506,7 @@ public class GitBasedArtifactRepository {
         log.info("git repository deleted for tenant " + gitRepoCtx.getTenantId());
 
         // Stop the artifact update task
-        gitRepoCtx.getArtifactSyncSchedular().shutdown();
+        artifactSyncScheduler.cancel(tenantId);
         // Remove git repo for the tenant
         FileUtils.deleteDirectory(gitRepoCtx.getLocalRepo().getDirectory());
         FileUtils.deleteDirectory(new File(gitRepoCtx.getGitLocalRepoPath()));
@@ -601,24 +620,66 @@ public class GitBasedArtifactRepository {
             return;
         }
 
-        if (repoCtxt.getArtifactSyncSchedular() == null) {
-            synchronized (repoCtxt) {
-                if (repoCtxt.getArtifactSyncSchedular() == null) {
-                    // create a new ScheduledExecutorService instance
-                    final ScheduledExecutorService artifactSyncScheduler = Executors.newScheduledThreadPool(1,
-                            new ArtifactSyncTaskThreadFactory(repoCtxt.getGitLocalRepoPath()));
+        if (artifactSyncScheduler.schedule(tenantId, new ArtifactSyncTask(repoInformation, autoCheckout, autoCommit), delay)) {
+            log.info("Scheduled Artifact Synchronization Task for path " + repoCtxt.getGitLocalRepoPath());
+        } else {
+            // The repository was synchronized by the artifact updated event, the next poll is not due before a full interval
+            artifactSyncScheduler.postpone(tenantId);
+            log.info("Artifact Synchronization Task for path " + repoCtxt.getGitLocalRepoPath() + " already scheduled");
+        }
+    }
 
-                    // schedule at the given interval
-                    artifactSyncScheduler.scheduleAtFixedRate(new ArtifactSyncTask(repoInformation, autoCheckout, autoCommit), delay, delay, TimeUnit.SECONDS);
-                    // cache
-                    repoCtxt.setArtifactSyncSchedular(artifactSyncScheduler);
+    /**
+     * Pulls the changes of the remote repository unless the remote master branch still points to the
+     * local head, which is checked by listing the remote heads without fetching any objects.
+     *
+     * @param repositoryInformation repository information of the tenant
+     * @return true if the local repository is up to date
+     */
+    private boolean syncArtifacts(RepositoryInformation repositoryInformation) throws Exception {
 
-                    log.info("Scheduled Artifact Synchronization Task for path " + repoCtxt.getGitLocalRepoPath());
+        int tenantId = Integer.parseInt(repositoryInformation.getTenantId());
+        RepositoryContext gitRepoCtx = retrieveCachedGitContext(tenantId);
 
-                } else {
-                    log.info("Artifact Synchronization Task for path " + repoCtxt.getGitLocalRepoPath() + " already scheduled");
+        if (gitRepoCtx != null && new File(gitRepoCtx.getGitLocalRepoPath()).exists() && isValidGitRepo(gitRepoCtx)
+                && !isRemoteHeadUpdated(gitRepoCtx)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Remote repository not updated for tenant " + tenantId + ", no pull required");
+            }
+            return true;
+        }
+        return checkout(repositoryInformation);
+    }
+
+    /**
+     * Checks if the master branch of the remote repository points to a different commit than the local master branch
+     *
+     * @param gitRepoCtx RepositoryContext instance for the tenant
+     * @return true if the remote head has changed or could not be compared, else false
+     */
+    private boolean isRemoteHeadUpdated(RepositoryContext gitRepoCtx) {
+
+        try {
+            Ref localHead = gitRepoCtx.getLocalRepo().getRef(GitDeploymentSynchronizerConstants.GIT_REFS_HEADS_MASTER);
+            if (localHead == null || localHead.getObjectId() == null) {
+                return true;
+            }
+
+            LsRemoteCommand lsRemoteCmd = gitRepoCtx.getGit().lsRemote().
+                    setRemote(gitRepoCtx.getGitRemoteRepoUrl()).
+                    setHeads(true);
+            lsRemoteCmd.setCredentialsProvider(createCredentialsProvider(gitRepoCtx));
+
+            for (Ref remoteRef : lsRemoteCmd.call()) {
+                if (GitDeploymentSynchronizerConstants.GIT_REFS_HEADS_MASTER.equals(remoteRef.getName())) {
+                    return !localHead.getObjectId().equals(remoteRef.getObjectId());
                 }
             }
+            return true;
+
+        } catch (Exception e) {
+            log.warn("Listing remote heads failed for tenant " + gitRepoCtx.getTenantId() + ", " + e.getMessage());
+            return true;
         }
     }
 
@@ -990,28 +1051,20 @@ public class GitBasedArtifactRepository {
         public void run() {
             try {
                 if (autoCheckout) {
-                    checkout(repositoryInformation);
+                    syncArtifacts(repositoryInformation);
                 }
             } catch (Exception e) {
                 log.error(e);
             }
-            if (autoCommit) {
-                commit(repositoryInformation);
+            try {
+                if (autoCommit) {
+                    commit(repositoryInformation);
+                }
+            } catch (Exception e) {
+                // an exception would cancel the scheduled task
+                log.error(e);
             }
         }
     }
 
-    class ArtifactSyncTaskThreadFactory implements ThreadFactory {
-
-        private String localRepoPath;
-
-        public ArtifactSyncTaskThreadFactory(String localRepoPath) {
-            this.localRepoPath = localRepoPath;
-        }
-
-        public Thread newThread(Runnable r) {
-            return new Thread(r, "Artifact Update Thread - " + localRepoPath);
-        }
-    }
-
 }
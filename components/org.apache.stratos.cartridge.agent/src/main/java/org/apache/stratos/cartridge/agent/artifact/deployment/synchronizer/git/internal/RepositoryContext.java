@@ -25,7 +25,6 @@ import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.lib.Repository;
 
 import java.io.File;
-import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Git Repository Context class. Keeps track of git configurations per tenant.
@@ -44,7 +43,6 @@ public class RepositoryContext {
     private boolean keyBasedAuthentication;
     private String repoUsername;
     private String repoPassword;
-    private ScheduledExecutorService artifactSyncSchedular;
 
     public RepositoryContext() {
 
@@ -129,12 +127,4 @@ public class RepositoryContext {
     public void setRepoPassword(String repoPassword) {
         this.repoPassword = repoPassword;
     }
-
-    public ScheduledExecutorService getArtifactSyncSchedular() {
-        return artifactSyncSchedular;
-    }
-
-    public void setArtifactSyncSchedular(ScheduledExecutorService artifactSyncSchedular) {
-        this.artifactSyncSchedular = artifactSyncSchedular;
-    }
 }
@@ -28,6 +28,8 @@ import org.apache.stratos.cartridge.agent.util.CartridgeAgentConstants;
 import org.apache.stratos.cartridge.agent.util.CartridgeAgentUtils;
 
 import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.*;
@@ -356,7 +358,47 @@ public class CartridgeAgentConfiguration {
     }
 
 
-    private Map<String, String> loadParametersFile() {
+    /**
+     * Check whether the agent is running on a standby instance of a warm pool. Standby instances
+     * are started with a minimal payload, the configuration can only be read once the instance
+     * is assigned to a member.
+     *
+     * @return true if the launch parameters define a standby instance
+     */
+    public static boolean isStandbyInstance() {
+        return Boolean.parseBoolean(loadParametersFile().get(CartridgeAgentConstants.STANDBY));
+    }
+
+    /**
+     * Get the member id a standby instance was started with.
+     *
+     * @return member id in the launch parameters
+     */
+    public static String getStandbyMemberId() {
+        return loadParametersFile().get(CartridgeAgentConstants.MEMBER_ID);
+    }
+
+    /**
+     * Replace the launch parameters of a standby instance with the payload of the member it is
+     * assigned to. The configuration is read from the new launch parameters on the next call to
+     * {@link #getInstance()}.
+     *
+     * @param payload payload of the member in the comma separated key=value format
+     * @throws IOException if the launch parameter file could not be written
+     */
+    public static void assignStandbyInstance(String payload) throws IOException {
+        synchronized (CartridgeAgentConfiguration.class) {
+            FileWriter writer = new FileWriter(System.getProperty(CartridgeAgentConstants.PARAM_FILE_PATH));
+            try {
+                writer.write(payload);
+            } finally {
+                writer.close();
+            }
+            instance = null;
+        }
+    }
+
+    private static Map<String, String> loadParametersFile() {
         Map<String, String> parameters = new HashMap<String, String>();
         try {
 
@@ -45,6 +45,7 @@ public class CartridgeAgentConstants implements Serializable {
     public static final String WORKER_SERVICE_TYPE = "WORKER_SERVICE_TYPE";
     public static final String DEPENDENCY_CLUSTER_IDS = "DEPENDENCY_CLUSTER_IDS";
     public static final String CLUSTER_INSTANCE_ID = "CLUSTER_INSTANCE_ID";
+    public static final String STANDBY = "STANDBY";
 
     // stratos.sh environment variables keys
     public static final String LOG_FILE_PATHS = "LOG_FILE_PATHS";
@@ -56,6 +57,8 @@ public class CartridgeAgentConstants implements Serializable {
     public static final String MIN_INSTANCE_COUNT = "MIN_COUNT";
     public static final String ENABLE_ARTIFACT_UPDATE = "enable.artifact.update";
     public static final String ARTIFACT_UPDATE_INTERVAL = "artifact.update.interval";
+    public static final String ARTIFACT_SYNC_THREAD_POOL_SIZE = "artifact.sync.thread.pool.size";
+    public static final String ARTIFACT_SYNC_INTERVAL_JITTER = "artifact.sync.interval.jitter";
     public static final String COMMIT_ENABLED = "COMMIT_ENABLED";
     public static final String AUTO_COMMIT = "auto.commit";
     public static final String AUTO_CHECKOUT = "auto.checkout";
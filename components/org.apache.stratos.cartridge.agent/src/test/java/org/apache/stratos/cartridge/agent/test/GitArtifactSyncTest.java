@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cartridge.agent.test;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.cartridge.agent.artifact.deployment.synchronizer.RepositoryInformation;
+import org.apache.stratos.cartridge.agent.artifact.deployment.synchronizer.git.impl.ArtifactSyncScheduler;
+import org.apache.stratos.cartridge.agent.artifact.deployment.synchronizer.git.impl.GitBasedArtifactRepository;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.transport.RefSpec;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies that the artifact synchronization tasks of many tenants share a bounded scheduler and
+ * measures the synchronization latency of 1,000 tenant repositories cloned from a local bare
+ * repository.
+ */
+public class GitArtifactSyncTest {
+
+    private static final Log log = LogFactory.getLog(GitArtifactSyncTest.class);
+
+    private static final int TENANT_COUNT = 1000;
+    private static final int SCHEDULER_POOL_SIZE = 4;
+    private static final long SYNC_INTERVAL = 1;
+    private static final long TIMEOUT = 120000;
+
+    private File workDir;
+
+    @Before
+    public void setUp() throws IOException {
+        workDir = File.createTempFile("artifact-sync", "");
+        assertTrue(workDir.delete() && workDir.mkdirs());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(workDir);
+    }
+
+    @Test
+    public void testSchedulerIsBounded() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(SCHEDULER_POOL_SIZE);
+        ArtifactSyncScheduler syncScheduler = new ArtifactSyncScheduler(scheduler, 0.1);
+        final Set<Thread> syncThreads = Collections.synchronizedSet(new HashSet<Thread>());
+        final CountDownLatch latch = new CountDownLatch(TENANT_COUNT);
+        try {
+            for (int i = 0; i < TENANT_COUNT; i++) {
+                final AtomicInteger runCount = new AtomicInteger();
+                assertTrue(syncScheduler.schedule(i, new Runnable() {
+                    @Override
+                    public void run() {
+                        syncThreads.add(Thread.currentThread());
+                        if (runCount.incrementAndGet() == 2) {
+                            latch.countDown();
+                        }
+                    }
+                }, SYNC_INTERVAL));
+            }
+            assertFalse(syncScheduler.schedule(0, new Runnable() {
+                @Override
+                public void run() {
+                }
+            }, SYNC_INTERVAL));
+            assertEquals(TENANT_COUNT, syncScheduler.getScheduledCount());
+
+            assertTrue(latch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+            assertTrue(syncThreads.size() <= SCHEDULER_POOL_SIZE);
+
+            for (int i = 0; i < TENANT_COUNT; i++) {
+                assertTrue(syncScheduler.cancel(i));
+            }
+            assertEquals(0, syncScheduler.getScheduledCount());
+            assertFalse(syncScheduler.cancel(0));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSyncLatency() throws Exception {
+        File seedDir = new File(workDir, "seed");
+        File bareRepoDir = new File(workDir, "remote.git");
+        Git seed = Git.init().setDirectory(seedDir).call();
+        commitFile(seed, "index.html");
+        Git.cloneRepository().setBare(true).setURI(seedDir.toURI().toString()).setDirectory(bareRepoDir).call();
+        String remoteUrl = bareRepoDir.getAbsolutePath();
+
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        int initialThreadCount = threadMXBean.getThreadCount();
+
+        GitBasedArtifactRepository repository = GitBasedArtifactRepository.getInstance();
+        RepositoryInformation[] repoInformations = new RepositoryInformation[TENANT_COUNT];
+        for (int i = 0; i < TENANT_COUNT; i++) {
+            RepositoryInformation repoInformation = new RepositoryInformation();
+            repoInformation.setTenantId(String.valueOf(i + 1));
+            repoInformation.setRepoUrl(remoteUrl);
+            repoInformation.setRepoPath(new File(workDir, "tenant-" + (i + 1)).getAbsolutePath());
+            repoInformation.setRepoUsername("");
+            repoInformation.setRepoPassword("");
+            repoInformation.setMultitenant(false);
+            assertTrue(repository.checkout(repoInformation));
+            repository.scheduleSyncTask(repoInformation, true, false, SYNC_INTERVAL);
+            repoInformations[i] = repoInformation;
+        }
+
+        try {
+            // Let every tenant poll the unchanged remote repository at least once
+            Thread.sleep(TimeUnit.SECONDS.toMillis(SYNC_INTERVAL * 3));
+
+            commitFile(seed, "updated.html");
+            seed.push().setRemote(remoteUrl).setRefSpecs(new RefSpec("refs/heads/master:refs/heads/master")).call();
+            long pushTime = System.currentTimeMillis();
+
+            long maxLatency = 0;
+            for (RepositoryInformation repoInformation : repoInformations) {
+                File updatedFile = new File(repoInformation.getRepoPath(), "updated.html");
+                while (!updatedFile.exists()) {
+                    assertTrue("Artifact not synchronized for tenant " + repoInformation.getTenantId(),
+                            System.currentTimeMillis() - pushTime < TIMEOUT);
+                    Thread.sleep(10);
+                }
+                maxLatency = Math.max(maxLatency, System.currentTimeMillis() - pushTime);
+            }
+
+            int syncThreadCount = threadMXBean.getThreadCount() - initialThreadCount;
+            log.info(String.format("Synchronized %d tenant repositories: [max-latency] %d ms [threads] %d",
+                    TENANT_COUNT, maxLatency, syncThreadCount));
+            assertTrue(syncThreadCount < TENANT_COUNT / 10);
+        } finally {
+            for (RepositoryInformation repoInformation : repoInformations) {
+                if (repoInformation != null) {
+                    repository.removeRepo(Integer.parseInt(repoInformation.getTenantId()));
+                }
+            }
+        }
+    }
+
+    private void commitFile(Git git, String fileName) throws Exception {
+        File file = new File(git.getRepository().getWorkTree(), fileName);
+        FileUtils.writeStringToFile(file, fileName);
+        git.add().addFilepattern(fileName).call();
+        git.commit().setMessage("Add " + fileName).call();
+    }
+}
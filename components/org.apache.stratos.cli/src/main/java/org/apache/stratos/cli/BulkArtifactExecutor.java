@@ -0,0 +1,338 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cli;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.stratos.cli.exception.CommandException;
+import org.apache.stratos.cli.utils.CliUtils;
+import org.apache.stratos.cli.utils.RowMapper;
+import org.apache.stratos.common.beans.ResponseMessageBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Deploys, undeploys and lists the artifacts defined in a directory concurrently. Each json file
+ * of the directory holds the definition of one artifact, the id of the artifact is read from the
+ * definition. Requests are sent over the pooled http client of the rest client by a bounded
+ * number of threads.
+ */
+public class BulkArtifactExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkArtifactExecutor.class);
+
+    private static final String API_CONTEXT = "/api/v4.1";
+    private static final String JSON_FILE_EXTENSION = ".json";
+
+    private static final Gson gson = new GsonBuilder().create();
+
+    /**
+     * Bulk operations.
+     */
+    public enum Operation {
+        DEPLOY, UNDEPLOY, LIST
+    }
+
+    /**
+     * Artifact types supported by bulk operations with their resource paths and the json
+     * property holding their ids.
+     */
+    public enum ArtifactType {
+        CARTRIDGE("cartridge", "/cartridges", "type"),
+        CARTRIDGE_GROUP("cartridge-group", "/cartridgeGroups", "name"),
+        NETWORK_PARTITION("network-partition", "/networkPartitions", "id"),
+        AUTOSCALING_POLICY("autoscaling-policy", "/autoscalingPolicies", "id"),
+        DEPLOYMENT_POLICY("deployment-policy", "/deploymentPolicies", "id"),
+        APPLICATION_POLICY("application-policy", "/applicationPolicies", "id"),
+        APPLICATION("application", "/applications", "applicationId");
+
+        private final String name;
+        private final String resourcePath;
+        private final String idProperty;
+
+        ArtifactType(String name, String resourcePath, String idProperty) {
+            this.name = name;
+            this.resourcePath = API_CONTEXT + resourcePath;
+            this.idProperty = idProperty;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static ArtifactType fromName(String name) throws CommandException {
+            for (ArtifactType artifactType : values()) {
+                if (artifactType.name.equals(name)) {
+                    return artifactType;
+                }
+            }
+            throw new CommandException(String.format("Unknown artifact type: %s, supported artifact types: %s",
+                    name, getNames()));
+        }
+
+        public static String getNames() {
+            StringBuilder names = new StringBuilder();
+            for (ArtifactType artifactType : values()) {
+                if (names.length() > 0) {
+                    names.append(", ");
+                }
+                names.append(artifactType.name);
+            }
+            return names.toString();
+        }
+    }
+
+    /**
+     * Outcome of a bulk operation on a single artifact.
+     */
+    public static class ArtifactResult {
+
+        private final String fileName;
+        private String artifactId;
+        private boolean success;
+        private String message;
+
+        private ArtifactResult(String fileName) {
+            this.fileName = fileName;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    private final RestClient restClient;
+    private final int concurrency;
+
+    /**
+     * @param restClient  rest client of the session
+     * @param concurrency maximum number of requests sent concurrently
+     */
+    public BulkArtifactExecutor(RestClient restClient, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency should be greater than zero: " + concurrency);
+        }
+        this.restClient = restClient;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Apply the given operation to all artifacts defined in the given directory.
+     *
+     * @param operation     operation to be applied
+     * @param artifactType  type of the artifacts
+     * @param directoryPath directory holding a json file per artifact
+     * @return results in the order of the artifact file names
+     * @throws CommandException if the directory could not be read
+     */
+    public List<ArtifactResult> execute(final Operation operation, final ArtifactType artifactType,
+                                        String directoryPath) throws CommandException {
+        File[] files = listArtifactFiles(directoryPath);
+        restClient.ensureMaxConnections(concurrency);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(concurrency,
+                Math.max(files.length, 1)));
+        try {
+            List<Future<ArtifactResult>> futures = new ArrayList<Future<ArtifactResult>>(files.length);
+            for (final File file : files) {
+                futures.add(executorService.submit(new Callable<ArtifactResult>() {
+                    @Override
+                    public ArtifactResult call() {
+                        return execute(operation, artifactType, file);
+                    }
+                }));
+            }
+
+            List<ArtifactResult> results = new ArrayList<ArtifactResult>(files.length);
+            for (Future<ArtifactResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CommandException("Bulk operation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new CommandException("Bulk operation failed", e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Apply the given operation to all artifacts defined in the given directory and print the
+     * results.
+     *
+     * @param operation     operation to be applied
+     * @param artifactType  type of the artifacts
+     * @param directoryPath directory holding a json file per artifact
+     * @return true if the operation succeeded for all artifacts
+     * @throws CommandException if the directory could not be read
+     */
+    public boolean executeAndPrint(Operation operation, ArtifactType artifactType, String directoryPath)
+            throws CommandException {
+        long startTime = System.currentTimeMillis();
+        List<ArtifactResult> results = execute(operation, artifactType, directoryPath);
+        long duration = System.currentTimeMillis() - startTime;
+
+        List<ArtifactResult> rows = new ArrayList<ArtifactResult>();
+        int failed = 0;
+        for (ArtifactResult result : results) {
+            if (!result.isSuccess()) {
+                failed++;
+            }
+            // Successful deployments and undeployments are only counted
+            if ((operation == Operation.LIST) || !result.isSuccess()) {
+                rows.add(result);
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            RowMapper<ArtifactResult> resultMapper = new RowMapper<ArtifactResult>() {
+                public String[] getData(ArtifactResult result) {
+                    String[] data = new String[4];
+                    data[0] = result.getFileName();
+                    data[1] = (result.getArtifactId() != null) ? result.getArtifactId() : "-";
+                    data[2] = result.isSuccess() ? "OK" : "FAILED";
+                    data[3] = (result.getMessage() != null) ? result.getMessage() : "";
+                    return data;
+                }
+            };
+            ArtifactResult[] data = rows.toArray(new ArtifactResult[rows.size()]);
+            CliUtils.printTable(data, resultMapper, "File", "Id", "Status", "Message");
+        }
+
+        double throughput = (duration > 0) ? (results.size() * 1000.0 / duration) : results.size();
+        System.out.println(String.format("%s %s: [total] %d [succeeded] %d [failed] %d [time] %d ms " +
+                        "[throughput] %.1f requests/s", operation.name().toLowerCase(), artifactType.getName(),
+                results.size(), results.size() - failed, failed, duration, throughput));
+        return failed == 0;
+    }
+
+    private ArtifactResult execute(Operation operation, ArtifactType artifactType, File file) {
+        ArtifactResult result = new ArtifactResult(file.getName());
+        try {
+            String definition = CliUtils.readResource(file.getPath());
+            result.artifactId = readArtifactId(definition, artifactType);
+            DefaultHttpClient httpClient = restClient.getHttpClient();
+            String resourceUrl = restClient.getBaseURL() + artifactType.resourcePath;
+
+            HttpResponse response;
+            switch (operation) {
+                case DEPLOY:
+                    response = restClient.doPost(httpClient, resourceUrl, definition);
+                    break;
+                case UNDEPLOY:
+                    response = restClient.doDelete(httpClient, resourceUrl + "/" + result.artifactId);
+                    break;
+                default:
+                    response = restClient.doGet(httpClient, resourceUrl + "/" + result.artifactId);
+                    break;
+            }
+
+            int responseCode = response.getStatusLine().getStatusCode();
+            result.success = (responseCode >= 200) && (responseCode < 300);
+            if (operation == Operation.LIST) {
+                result.message = result.success ? "Found" : "Not found";
+            } else {
+                result.message = readResponseMessage(response);
+            }
+        } catch (Exception e) {
+            result.success = false;
+            result.message = e.getMessage();
+            log.error(String.format("Could not %s %s: [file] %s", operation.name().toLowerCase(),
+                    artifactType.getName(), file.getPath()), e);
+        }
+        return result;
+    }
+
+    private String readArtifactId(String definition, ArtifactType artifactType) throws CommandException {
+        JsonElement element = new JsonParser().parse(definition);
+        if (element.isJsonObject()) {
+            JsonElement id = ((JsonObject) element).get(artifactType.idProperty);
+            if ((id != null) && id.isJsonPrimitive()) {
+                return id.getAsString();
+            }
+        }
+        throw new CommandException(String.format("Property %s not found in %s definition",
+                artifactType.idProperty, artifactType.getName()));
+    }
+
+    private String readResponseMessage(HttpResponse response) {
+        String resultString = CliUtils.getHttpResponseString(response);
+        if (StringUtils.isNotBlank(resultString)) {
+            try {
+                ResponseMessageBean responseMessage = gson.fromJson(resultString, ResponseMessageBean.class);
+                if ((responseMessage != null) && (responseMessage.getMessage() != null)) {
+                    return responseMessage.getMessage();
+                }
+            } catch (Exception ignore) {
+                // Response is not a response message, fall back to the status line
+            }
+        }
+        return response.getStatusLine().toString();
+    }
+
+    private File[] listArtifactFiles(String directoryPath) throws CommandException {
+        File directory = new File(directoryPath);
+        if (!directory.isDirectory()) {
+            throw new CommandException("Directory not found: " + directoryPath);
+        }
+        File[] files = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(JSON_FILE_EXTENSION);
+            }
+        });
+        if (files == null) {
+            throw new CommandException("Could not read directory: " + directoryPath);
+        }
+        Arrays.sort(files);
+        return files;
+    }
+}
@@ -20,15 +20,21 @@ package org.apache.stratos.cli;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.BufferedHttpEntity;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
 import org.apache.http.params.HttpConnectionParams;
 import org.apache.http.params.HttpParams;
+import org.apache.http.util.EntityUtils;
+import org.apache.stratos.cli.exception.CommandException;
 import org.apache.stratos.cli.utils.CliUtils;
 import org.apache.stratos.common.beans.ResponseMessageBean;
 import org.slf4j.Logger;
@@ -36,6 +42,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.stratos.cli.utils.CliUtils.getHttpResponseString;
 
@@ -46,27 +53,110 @@ import static org.apache.stratos.cli.utils.CliUtils.getHttpResponseString;
  * 3. executePost, executePut, executeGet, executeDelete
  * <p/>
  * All the status code handling happens at category #2
+ * <p/>
+ * A single keep-alive http client backed by a pooling connection manager is used for the whole
+ * session, hence repeated and concurrent requests reuse the connections and tls sessions to the
+ * server. Response entities are buffered and the connections are released before the responses
+ * are returned to the callers.
  */
 public class RestClient implements GenericRestClient {
 
     private static final Logger log = LoggerFactory.getLogger(RestClient.class);
 
+    private static final String MAX_CONNECTIONS = "stratos.cli.http.max.connections";
+    private static final int DEFAULT_MAX_CONNECTIONS = 20;
+    private static final long IDLE_CONNECTION_TIMEOUT = 5000;
+    private static final Gson gson = new GsonBuilder().create();
+
     private String baseURL;
-    private String username;
-    private String password;
+    private final String authorizationHeader;
+    private final DefaultHttpClient httpClient;
 
     private final int TIME_OUT_PARAM = 6000000;
 
-    public RestClient(String baseURL, String username, String password) {
+    public RestClient(String baseURL, String username, String password) throws CommandException {
         this.baseURL = baseURL;
-        this.username = username;
-        this.password = password;
+        try {
+            String userPass = username + ":" + password;
+            this.authorizationHeader = "Basic " + javax.xml.bind.DatatypeConverter.printBase64Binary(
+                    userPass.getBytes("UTF-8"));
+            this.httpClient = createHttpClient();
+        } catch (Exception e) {
+            throw new CommandException("Could not create http client", e);
+        }
     }
 
     public String getBaseURL() {
         return baseURL;
     }
 
+    /**
+     * @return the pooled http client of the session
+     */
+    public DefaultHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Close the pooled connections of the session.
+     */
+    public void shutdown() {
+        httpClient.getConnectionManager().shutdown();
+    }
+
+    /**
+     * Raise the size of the connection pool to at least the given number of connections, used
+     * by bulk operations to run the given number of requests concurrently.
+     *
+     * @param maxConnections number of connections required
+     */
+    public void ensureMaxConnections(int maxConnections) {
+        PoolingClientConnectionManager connectionManager =
+                (PoolingClientConnectionManager) httpClient.getConnectionManager();
+        if (connectionManager.getMaxTotal() < maxConnections) {
+            connectionManager.setMaxTotal(maxConnections);
+            connectionManager.setDefaultMaxPerRoute(maxConnections);
+        }
+    }
+
+    private DefaultHttpClient createHttpClient() throws Exception {
+        int maxConnections = Integer.getInteger(MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS);
+        PoolingClientConnectionManager connectionManager = new PoolingClientConnectionManager(
+                WebClientWrapper.createSchemeRegistry());
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+
+        DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+        HttpParams params = client.getParams();
+        HttpConnectionParams.setConnectionTimeout(params, TIME_OUT_PARAM);
+        HttpConnectionParams.setSoTimeout(params, TIME_OUT_PARAM);
+        // Checking each pooled connection costs a blocking read, idle connections are closed instead
+        HttpConnectionParams.setStaleCheckingEnabled(params, false);
+        return client;
+    }
+
+    /**
+     * Execute the given request with the authorization header of the user. The response entity
+     * is buffered so that the connection is released back to the pool right away and the
+     * response can be read any number of times.
+     */
+    private HttpResponse execute(DefaultHttpClient httpClient, HttpRequestBase request) throws IOException {
+        request.addHeader("Authorization", authorizationHeader);
+        // Connections idle for a while may have been closed by the server
+        httpClient.getConnectionManager().closeIdleConnections(IDLE_CONNECTION_TIMEOUT, TimeUnit.MILLISECONDS);
+        try {
+            HttpResponse response = httpClient.execute(request);
+            HttpEntity entity = response.getEntity();
+            if (entity != null) {
+                response.setEntity(new BufferedHttpEntity(entity));
+                EntityUtils.consume(entity);
+            }
+            return response;
+        } finally {
+            request.releaseConnection();
+        }
+    }
+
     /**
      * Handle http post request. Return String
      *
@@ -84,18 +174,7 @@ public class RestClient implements GenericRestClient {
         input.setContentType("application/json");
         postRequest.setEntity(input);
 
-        String userPass = username + ":" + password;
-        String basicAuth = "Basic " + javax.xml.bind.DatatypeConverter.printBase64Binary(userPass.getBytes("UTF-8"));
-        postRequest.addHeader("Authorization", basicAuth);
-
-        httpClient = (DefaultHttpClient) WebClientWrapper.wrapClient(httpClient);
-
-        HttpParams params = httpClient.getParams();
-        HttpConnectionParams.setConnectionTimeout(params, TIME_OUT_PARAM);
-        HttpConnectionParams.setSoTimeout(params, TIME_OUT_PARAM);
-
-        HttpResponse response = httpClient.execute(postRequest);
-        return response;
+        return execute(httpClient, postRequest);
     }
 
     /**
@@ -111,36 +190,14 @@ public class RestClient implements GenericRestClient {
         HttpGet getRequest = new HttpGet(resourcePath);
         getRequest.addHeader("Content-Type", "application/json");
 
-        String userPass = username + ":" + password;
-        String basicAuth = "Basic " + javax.xml.bind.DatatypeConverter.printBase64Binary(userPass.getBytes("UTF-8"));
-        getRequest.addHeader("Authorization", basicAuth);
-
-        httpClient = (DefaultHttpClient) WebClientWrapper.wrapClient(httpClient);
-
-        HttpParams params = httpClient.getParams();
-        HttpConnectionParams.setConnectionTimeout(params, TIME_OUT_PARAM);
-        HttpConnectionParams.setSoTimeout(params, TIME_OUT_PARAM);
-
-        HttpResponse response = httpClient.execute(getRequest);
-        return response;
+        return execute(httpClient, getRequest);
     }
 
     public HttpResponse doDelete(DefaultHttpClient httpClient, String resourcePath) throws IOException {
         HttpDelete httpDelete = new HttpDelete(resourcePath);
         httpDelete.addHeader("Content-Type", "application/json");
 
-        String userPass = username + ":" + password;
-        String basicAuth = "Basic " + javax.xml.bind.DatatypeConverter.printBase64Binary(userPass.getBytes("UTF-8"));
-        httpDelete.addHeader("Authorization", basicAuth);
-
-        httpClient = (DefaultHttpClient) WebClientWrapper.wrapClient(httpClient);
-
-        HttpParams params = httpClient.getParams();
-        HttpConnectionParams.setConnectionTimeout(params, TIME_OUT_PARAM);
-        HttpConnectionParams.setSoTimeout(params, TIME_OUT_PARAM);
-
-        HttpResponse response = httpClient.execute(httpDelete);
-        return response;
+        return execute(httpClient, httpDelete);
     }
 
     public HttpResponse doPut(DefaultHttpClient httpClient, String resourcePath, String jsonParamString) throws IOException {
@@ -150,18 +207,7 @@ public class RestClient implements GenericRestClient {
         input.setContentType("application/json");
         httpPutRequest.setEntity(input);
 
-        String userPass = username + ":" + password;
-        String basicAuth = "Basic " + javax.xml.bind.DatatypeConverter.printBase64Binary(userPass.getBytes("UTF-8"));
-        httpPutRequest.addHeader("Authorization", basicAuth);
-
-        httpClient = (DefaultHttpClient) WebClientWrapper.wrapClient(httpClient);
-
-        HttpParams params = httpClient.getParams();
-        HttpConnectionParams.setConnectionTimeout(params, TIME_OUT_PARAM);
-        HttpConnectionParams.setSoTimeout(params, TIME_OUT_PARAM);
-
-        HttpResponse response = httpClient.execute(httpPutRequest);
-        return response;
+        return execute(httpClient, httpPutRequest);
     }
 
     public void deployEntity(String serviceEndpoint, String entityBody, String entityName) {
@@ -254,18 +300,9 @@ public class RestClient implements GenericRestClient {
     }
 
     private String executePost(String serviceEndpoint, String postBody) throws IOException {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
-        try {
-            HttpResponse response = doPost(httpClient, getBaseURL() + serviceEndpoint, postBody);
-            String result = getHttpResponseString(response);
-
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
-            return gson.fromJson(result, ResponseMessageBean.class).getMessage();
-
-        } finally {
-            httpClient.getConnectionManager().shutdown();
-        }
+        HttpResponse response = doPost(httpClient, getBaseURL() + serviceEndpoint, postBody);
+        String result = getHttpResponseString(response);
+        return gson.fromJson(result, ResponseMessageBean.class).getMessage();
     }
 
     private Object executeGet(String serviceEndpoint, Class responseJsonClass) throws Exception {
@@ -274,8 +311,6 @@ public class RestClient implements GenericRestClient {
             return null;
         }
 
-        GsonBuilder gsonBuilder = new GsonBuilder();
-        Gson gson = gsonBuilder.create();
         return gson.fromJson(resultString, responseJsonClass);
     }
 
@@ -285,58 +320,33 @@ public class RestClient implements GenericRestClient {
             return null;
         }
 
-        GsonBuilder gsonBuilder = new GsonBuilder();
-        Gson gson = gsonBuilder.create();
         return gson.fromJson(resultString, responseJsonType);
     }
 
     private String executeGet(String serviceEndpoint) throws Exception {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
-        HttpResponse response = null;
+        HttpResponse response = doGet(httpClient, getBaseURL() + serviceEndpoint);
+        int responseCode = response.getStatusLine().getStatusCode();
 
-        try {
-            response = doGet(httpClient, getBaseURL() + serviceEndpoint);
-            int responseCode = response.getStatusLine().getStatusCode();
-
-            if ((responseCode >= 400) && (responseCode < 500)) {
-                // Entity not found
-                return null;
-            } else if (responseCode < 200 || responseCode >= 300) {
-                CliUtils.printError(response);
-                return null;
-            } else {
-                return getHttpResponseString(response);
-            }
-        } finally {
-            httpClient.getConnectionManager().shutdown();
+        if ((responseCode >= 400) && (responseCode < 500)) {
+            // Entity not found
+            return null;
+        } else if (responseCode < 200 || responseCode >= 300) {
+            CliUtils.printError(response);
+            return null;
+        } else {
+            return getHttpResponseString(response);
         }
     }
 
     private String executePut(String serviceEndpoint, String postBody) throws IOException {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
-        try {
-            HttpResponse response = doPut(httpClient, getBaseURL() + serviceEndpoint, postBody);
-            String result = getHttpResponseString(response);
-
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
-            return gson.fromJson(result, ResponseMessageBean.class).getMessage();
-        } finally {
-            httpClient.getConnectionManager().shutdown();
-        }
+        HttpResponse response = doPut(httpClient, getBaseURL() + serviceEndpoint, postBody);
+        String result = getHttpResponseString(response);
+        return gson.fromJson(result, ResponseMessageBean.class).getMessage();
     }
 
     private String executeDelete(String serviceEndpoint) throws IOException {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
-        try {
-            HttpResponse response = doDelete(httpClient, getBaseURL() + serviceEndpoint);
-            String result = getHttpResponseString(response);
-
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
-            return gson.fromJson(result, ResponseMessageBean.class).getMessage();
-        } finally {
-            httpClient.getConnectionManager().shutdown();
-        }
+        HttpResponse response = doDelete(httpClient, getBaseURL() + serviceEndpoint);
+        String result = getHttpResponseString(response);
+        return gson.fromJson(result, ResponseMessageBean.class).getMessage();
     }
 }
\ No newline at end of file
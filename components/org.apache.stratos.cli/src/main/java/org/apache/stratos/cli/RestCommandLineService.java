@@ -209,7 +209,7 @@ public class RestCommandLineService {
             throw new CommandException(e);
         }
 
-        DefaultHttpClient httpClient = new DefaultHttpClient();
+        DefaultHttpClient httpClient = restClient.getHttpClient();
         try {
             if (validateLogin) {
                 HttpResponse response = restClient.doGet(httpClient, restClient.getBaseURL() + ENDPOINT_INIT);
@@ -244,8 +244,6 @@ public class RestCommandLineService {
             String message = "An unknown error occurred: " + e.getMessage();
             printError(message, e);
             return false;
-        } finally {
-            httpClient.getConnectionManager().shutdown();
         }
     }
 
@@ -256,8 +254,10 @@ public class RestCommandLineService {
      * @param username  username
      * @param password  password
      * @throws AxisFault
+     * @throws CommandException if the http client could not be created
      */
-    private void initializeRestClient(String serverURL, String username, String password) throws AxisFault {
+    private void initializeRestClient(String serverURL, String username, String password)
+            throws AxisFault, CommandException {
         HttpTransportProperties.Authenticator authenticator = new HttpTransportProperties.Authenticator();
         authenticator.setUsername(username);
         authenticator.setPassword(password);
@@ -276,6 +276,10 @@ public class RestCommandLineService {
             transportOutDescription.getSender().init(configurationContext, transportOutDescription);
         }
 
+        if (restClient != null) {
+            // Release the connections of the previous session
+            restClient.shutdown();
+        }
         this.restClient = new RestClient(serverURL, username, password);
     }
 
@@ -463,7 +467,7 @@ public class RestCommandLineService {
      */
     public void addTenant(String admin, String firstName, String lastName, String password, String domain, String email)
             throws CommandException {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
+        DefaultHttpClient httpClient = restClient.getHttpClient();
         try {
             TenantInfoBean tenantInfo = new TenantInfoBean();
             tenantInfo.setAdmin(admin);
@@ -491,8 +495,6 @@ public class RestCommandLineService {
         } catch (Exception e) {
             String message = "Could not add tenant: " + domain;
             printError(message, e);
-        } finally {
-            httpClient.getConnectionManager().shutdown();
         }
     }
 
@@ -592,7 +594,7 @@ public class RestCommandLineService {
      */
     public void updateTenant(int id, String admin, String firstName, String lastName, String password, String domain, String email)
             throws CommandException {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
+        DefaultHttpClient httpClient = restClient.getHttpClient();
         try {
             TenantInfoBean tenantInfo = new TenantInfoBean();
             tenantInfo.setAdmin(admin);
@@ -623,8 +625,6 @@ public class RestCommandLineService {
         } catch (Exception e) {
             String message = "Could not update tenant: " + domain;
             printError(message, e);
-        } finally {
-            httpClient.getConnectionManager().shutdown();
         }
     }
 
@@ -642,7 +642,7 @@ public class RestCommandLineService {
      */
     public void addUser(String userName, String credential, String role, String firstName, String lastName, String email, String profileName)
             throws CommandException {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
+        DefaultHttpClient httpClient = restClient.getHttpClient();
         try {
             UserInfoBean userInfoBean = new UserInfoBean();
             userInfoBean.setUserName(userName);
@@ -667,8 +667,6 @@ public class RestCommandLineService {
         } catch (Exception e) {
             String message = "Could not add user: " + userName;
             printError(message, e);
-        } finally {
-            httpClient.getConnectionManager().shutdown();
         }
     }
 
@@ -686,7 +684,7 @@ public class RestCommandLineService {
      */
     public void updateUser(String userName, String credential, String role, String firstName, String lastName, String email, String profileName)
             throws CommandException {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
+        DefaultHttpClient httpClient = restClient.getHttpClient();
         try {
             UserInfoBean userInfoBean = new UserInfoBean();
             userInfoBean.setUserName(userName);
@@ -714,8 +712,6 @@ public class RestCommandLineService {
         } catch (Exception e) {
             String message = "Could not update user: " + userName;
             printError(message, e);
-        } finally {
-            httpClient.getConnectionManager().shutdown();
         }
     }
 
@@ -726,7 +722,7 @@ public class RestCommandLineService {
      * @throws CommandException
      */
     public void deleteTenant(String tenantDomain) throws CommandException {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
+        DefaultHttpClient httpClient = restClient.getHttpClient();
         try {
             HttpResponse response = restClient.doDelete(httpClient, restClient.getBaseURL()
                     + ENDPOINT_ADD_TENANT + "/" + tenantDomain);
@@ -747,8 +743,6 @@ public class RestCommandLineService {
         } catch (Exception e) {
             String message = "Could not delete tenant: " + tenantDomain;
             printError(message, e);
-        } finally {
-            httpClient.getConnectionManager().shutdown();
         }
     }
 
@@ -759,7 +753,7 @@ public class RestCommandLineService {
      * @throws CommandException
      */
     public void deleteUser(String userName) throws CommandException {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
+        DefaultHttpClient httpClient = restClient.getHttpClient();
         try {
             HttpResponse response = restClient.doDelete(httpClient, restClient.getBaseURL()
                     + ENDPOINT_ADD_USER + "/" + userName);
@@ -771,8 +765,6 @@ public class RestCommandLineService {
         } catch (Exception e) {
             String message = "Could not delete user: " + userName;
             printError(message, e);
-        } finally {
-            httpClient.getConnectionManager().shutdown();
         }
     }
 
@@ -783,7 +775,7 @@ public class RestCommandLineService {
      * @throws CommandException
      */
     public void deactivateTenant(String tenantDomain) throws CommandException {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
+        DefaultHttpClient httpClient = restClient.getHttpClient();
         try {
             HttpResponse response = restClient.doPut(httpClient, restClient.getBaseURL()
                     + ENDPOINT_DEACTIVATE_TENANT.replace("{tenantDomain}", tenantDomain), "");
@@ -805,8 +797,6 @@ public class RestCommandLineService {
         } catch (Exception e) {
             String message = "Could not de-activate tenant: " + tenantDomain;
             printError(message, e);
-        } finally {
-            httpClient.getConnectionManager().shutdown();
         }
     }
 
@@ -817,7 +807,7 @@ public class RestCommandLineService {
      * @throws CommandException
      */
     public void activateTenant(String tenantDomain) throws CommandException {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
+        DefaultHttpClient httpClient = restClient.getHttpClient();
         try {
             HttpResponse response = restClient.doPut(httpClient, restClient.getBaseURL()
                     + ENDPOINT_ACTIVATE_TENANT.replace("{tenantDomain}", tenantDomain), "");
@@ -838,8 +828,6 @@ public class RestCommandLineService {
         } catch (Exception e) {
             String message = "Could not activate tenant: " + tenantDomain;
             printError(message, e);
-        } finally {
-            httpClient.getConnectionManager().shutdown();
         }
     }
 
@@ -920,6 +908,22 @@ public class RestCommandLineService {
         }
     }
 
+    /**
+     * Deploy, undeploy or list the artifacts defined in a directory concurrently
+     *
+     * @param operation     bulk operation
+     * @param artifactType  artifact type name
+     * @param directoryPath directory holding a json file per artifact
+     * @param concurrency   maximum number of concurrent requests
+     * @return true if the operation succeeded for all artifacts
+     * @throws CommandException
+     */
+    public boolean executeBulkOperation(BulkArtifactExecutor.Operation operation, String artifactType,
+                                        String directoryPath, int concurrency) throws CommandException {
+        BulkArtifactExecutor.ArtifactType type = BulkArtifactExecutor.ArtifactType.fromName(artifactType);
+        return new BulkArtifactExecutor(restClient, concurrency).executeAndPrint(operation, type, directoryPath);
+    }
+
     /**
      * Add cartridge
      *
@@ -1183,7 +1187,7 @@ public class RestCommandLineService {
      * @throws CommandException
      */
     public void addKubernetesHost(String entityBody, String clusterId) throws CommandException {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
+        DefaultHttpClient httpClient = restClient.getHttpClient();
         try {
             HttpResponse response = restClient.doPost(httpClient, restClient.getBaseURL()
                     + ENDPOINT_DEPLOY_KUBERNETES_HOST.replace("{kubernetesClusterId}", clusterId), entityBody);
@@ -1204,8 +1208,6 @@ public class RestCommandLineService {
         } catch (Exception e) {
             String message = "Could not add host to Kubernetes cluster: " + clusterId;
             printError(message, e);
-        } finally {
-            httpClient.getConnectionManager().shutdown();
         }
     }
 
@@ -1405,7 +1407,7 @@ public class RestCommandLineService {
      * @throws CommandException
      */
     public void synchronizeArtifacts(String cartridgeAlias) throws CommandException {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
+        DefaultHttpClient httpClient = restClient.getHttpClient();
         try {
             HttpResponse response = restClient.doPost(httpClient, restClient.getBaseURL() + ENDPOINT_SYNCHRONIZE_ARTIFACTS.replace("{subscriptionAlias}", cartridgeAlias), cartridgeAlias);
 
@@ -1423,8 +1425,6 @@ public class RestCommandLineService {
         } catch (Exception e) {
             String message = "Could not synchronize artifacts for cartridge subscription alias: " + cartridgeAlias;
             printError(message, e);
-        } finally {
-            httpClient.getConnectionManager().shutdown();
         }
     }
 
@@ -1490,7 +1490,7 @@ public class RestCommandLineService {
      * @throws CommandException
      */
     public void deployApplication(String applicationId, String applicationPolicyId) throws CommandException {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
+        DefaultHttpClient httpClient = restClient.getHttpClient();
         try {
             String url = (ENDPOINT_DEPLOY_APPLICATION.replace("{applicationId}", applicationId)).replace("{applicationPolicyId}", applicationPolicyId);
             HttpResponse response = restClient.doPost(httpClient, restClient.getBaseURL()
@@ -1505,8 +1505,6 @@ public class RestCommandLineService {
         } catch (Exception e) {
             String message = "Could not deploy application: " + applicationId;
             printError(message, e);
-        } finally {
-            httpClient.getConnectionManager().shutdown();
         }
 
         //restClient.deployEntity((ENDPOINT_DEPLOY_APPLICATION.replace("{applicationId}", applicationId)).replace("{applicationPolicyId",applicationPolicyId),"application");
@@ -1519,7 +1517,7 @@ public class RestCommandLineService {
      * @throws CommandException
      */
     public void undeployApplication(String applicationId) throws CommandException {
-        DefaultHttpClient httpClient = new DefaultHttpClient();
+        DefaultHttpClient httpClient = restClient.getHttpClient();
         try {
             HttpResponse response = restClient.doPost(httpClient, restClient.getBaseURL()
                     + ENDPOINT_UNDEPLOY_APPLICATION.replace("{id}", applicationId), "");
@@ -1531,8 +1529,6 @@ public class RestCommandLineService {
         } catch (Exception e) {
             String message = "Could not undeploy application: " + applicationId;
             printError(message, e);
-        } finally {
-            httpClient.getConnectionManager().shutdown();
         }
     }
 
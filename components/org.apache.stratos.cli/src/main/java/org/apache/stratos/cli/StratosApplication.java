@@ -291,6 +291,15 @@ public class StratosApplication extends CommandLineApplication<StratosCommandCon
         command = new UpdateApplicationCommand();
         commands.put(command.getName(), command);
 
+        command = new BulkDeployCommand();
+        commands.put(command.getName(), command);
+
+        command = new BulkUndeployCommand();
+        commands.put(command.getName(), command);
+
+        command = new BulkListCommand();
+        commands.put(command.getName(), command);
+
         if (logger.isDebugEnabled()) {
             logger.debug("Created {} commands for the application. {}", commands.size(), commands.keySet());
         }
@@ -24,6 +24,7 @@ import org.apache.http.conn.scheme.Scheme;
 import org.apache.http.conn.scheme.SchemeRegistry;
 import org.apache.http.conn.ssl.SSLSocketFactory;
 import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
@@ -35,29 +36,46 @@ public class WebClientWrapper {
 
     public static HttpClient wrapClient(HttpClient base) {
         try {
-            SSLContext ctx = SSLContext.getInstance("TLS");
-            X509TrustManager tm = new X509TrustManager() {
-                public void checkClientTrusted(X509Certificate[] xcs,
-                                               String string) throws CertificateException {
-                }
-
-                public void checkServerTrusted(X509Certificate[] xcs,
-                                               String string) throws CertificateException {
-                }
-
-                public X509Certificate[] getAcceptedIssuers() {
-                    return null;
-                }
-            };
-            ctx.init(null, new TrustManager[]{tm}, null);
-            SSLSocketFactory ssf = new SSLSocketFactory(ctx);
-            ssf.setHostnameVerifier(SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER);
             ClientConnectionManager ccm = base.getConnectionManager();
             SchemeRegistry sr = ccm.getSchemeRegistry();
-            sr.register(new Scheme("https", ssf, 443));
+            sr.register(new Scheme("https", createSSLSocketFactory(), 443));
             return new DefaultHttpClient(ccm, base.getParams());
         } catch (Exception ex) {
             return null;
         }
     }
+
+    /**
+     * Create a scheme registry for plain http and for https accepting any server certificate,
+     * to be shared by the connection managers of long lived clients.
+     *
+     * @return scheme registry
+     * @throws Exception if the ssl context could not be initialized
+     */
+    public static SchemeRegistry createSchemeRegistry() throws Exception {
+        SchemeRegistry sr = SchemeRegistryFactory.createDefault();
+        sr.register(new Scheme("https", createSSLSocketFactory(), 443));
+        return sr;
+    }
+
+    private static SSLSocketFactory createSSLSocketFactory() throws Exception {
+        SSLContext ctx = SSLContext.getInstance("TLS");
+        X509TrustManager tm = new X509TrustManager() {
+            public void checkClientTrusted(X509Certificate[] xcs,
+                                           String string) throws CertificateException {
+            }
+
+            public void checkServerTrusted(X509Certificate[] xcs,
+                                           String string) throws CertificateException {
+            }
+
+            public X509Certificate[] getAcceptedIssuers() {
+                return null;
+            }
+        };
+        ctx.init(null, new TrustManager[]{tm}, null);
+        SSLSocketFactory ssf = new SSLSocketFactory(ctx);
+        ssf.setHostnameVerifier(SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER);
+        return ssf;
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cli.commands;
+
+import org.apache.commons.cli.*;
+import org.apache.stratos.cli.BulkArtifactExecutor;
+import org.apache.stratos.cli.Command;
+import org.apache.stratos.cli.RestCommandLineService;
+import org.apache.stratos.cli.StratosCommandContext;
+import org.apache.stratos.cli.exception.CommandException;
+import org.apache.stratos.cli.utils.CliConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.stratos.cli.utils.CliUtils.mergeOptionArrays;
+
+/**
+ * Base class of the commands applying a bulk operation to the artifacts defined in a directory.
+ */
+public abstract class BulkArtifactCommand implements Command<StratosCommandContext> {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkArtifactCommand.class);
+
+    private final Options options;
+    private final BulkArtifactExecutor.Operation operation;
+
+    protected BulkArtifactCommand(BulkArtifactExecutor.Operation operation) {
+        this.operation = operation;
+        this.options = constructOptions();
+    }
+
+    private Options constructOptions() {
+        final Options options = new Options();
+
+        Option artifactType = new Option(CliConstants.ARTIFACT_TYPE_OPTION, CliConstants.ARTIFACT_TYPE_LONG_OPTION,
+                true, "Artifact type: " + BulkArtifactExecutor.ArtifactType.getNames());
+        artifactType.setArgName("artifact type");
+        options.addOption(artifactType);
+
+        Option resourcePath = new Option(CliConstants.RESOURCE_PATH, CliConstants.RESOURCE_PATH_LONG_OPTION, true,
+                "Directory holding a json file per artifact");
+        resourcePath.setArgName("resource path");
+        options.addOption(resourcePath);
+
+        Option concurrency = new Option(CliConstants.CONCURRENCY_OPTION, CliConstants.CONCURRENCY_LONG_OPTION, true,
+                "Maximum number of concurrent requests, default " + CliConstants.DEFAULT_BULK_CONCURRENCY);
+        concurrency.setArgName("concurrency");
+        options.addOption(concurrency);
+
+        return options;
+    }
+
+    public String getArgumentSyntax() {
+        return null;
+    }
+
+    public int execute(StratosCommandContext context, String[] args, Option[] alreadyParsedOpts)
+            throws CommandException {
+        if (log.isDebugEnabled()) {
+            log.debug("Executing {} command...", getName());
+        }
+
+        if (args != null && args.length > 0) {
+            final CommandLineParser parser = new GnuParser();
+            CommandLine commandLine;
+
+            try {
+                commandLine = parser.parse(options, args);
+                //merge newly discovered options with previously discovered ones.
+                Options opts = mergeOptionArrays(alreadyParsedOpts, commandLine.getOptions());
+
+                if (!opts.hasOption(CliConstants.ARTIFACT_TYPE_OPTION) || !opts.hasOption(CliConstants.RESOURCE_PATH)) {
+                    context.getStratosApplication().printUsage(getName());
+                    return CliConstants.COMMAND_FAILED;
+                }
+                String artifactType = opts.getOption(CliConstants.ARTIFACT_TYPE_OPTION).getValue();
+                String resourcePath = opts.getOption(CliConstants.RESOURCE_PATH).getValue();
+
+                int concurrency = CliConstants.DEFAULT_BULK_CONCURRENCY;
+                if (opts.hasOption(CliConstants.CONCURRENCY_OPTION)) {
+                    concurrency = Integer.parseInt(opts.getOption(CliConstants.CONCURRENCY_OPTION).getValue());
+                    if (concurrency < 1) {
+                        System.out.println("Concurrency should be greater than zero");
+                        return CliConstants.COMMAND_FAILED;
+                    }
+                }
+
+                boolean success = RestCommandLineService.getInstance().executeBulkOperation(operation,
+                        artifactType, resourcePath, concurrency);
+                return success ? CliConstants.COMMAND_SUCCESSFULL : CliConstants.COMMAND_FAILED;
+
+            } catch (ParseException e) {
+                log.error("Error parsing arguments", e);
+                System.out.println(e.getMessage());
+                return CliConstants.COMMAND_FAILED;
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid concurrency");
+                return CliConstants.COMMAND_FAILED;
+            }
+        } else {
+            context.getStratosApplication().printUsage(getName());
+            return CliConstants.COMMAND_FAILED;
+        }
+    }
+
+    public Options getOptions() {
+        return options;
+    }
+}
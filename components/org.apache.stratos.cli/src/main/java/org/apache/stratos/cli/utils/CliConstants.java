@@ -369,6 +369,15 @@ public class CliConstants {
     public static final String RESOURCE_PATH = "p";
     public static final String RESOURCE_PATH_LONG_OPTION = "resource-path";
 
+    // Bulk options
+    public static final String ARTIFACT_TYPE_OPTION = "t";
+    public static final String ARTIFACT_TYPE_LONG_OPTION = "artifact-type";
+
+    public static final String CONCURRENCY_OPTION = "c";
+    public static final String CONCURRENCY_LONG_OPTION = "concurrency";
+
+    public static final int DEFAULT_BULK_CONCURRENCY = 10;
+
     // Kubernetes options
     public static final String CLUSTER_ID_OPTION = "c";
     public static final String CLUSTER_ID_LONG_OPTION = "cluster-id";
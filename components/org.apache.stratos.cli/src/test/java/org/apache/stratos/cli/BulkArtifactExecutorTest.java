@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cli;
+
+import org.apache.http.HttpResponse;
+import org.apache.stratos.cli.BulkArtifactExecutor.ArtifactResult;
+import org.apache.stratos.cli.BulkArtifactExecutor.ArtifactType;
+import org.apache.stratos.cli.BulkArtifactExecutor.Operation;
+import org.apache.stratos.cli.utils.CliUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link BulkArtifactExecutor} and the pooled {@link RestClient} against an embedded
+ * stand-in of the REST API.
+ */
+public class BulkArtifactExecutorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private StratosApiStandIn standIn;
+    private RestClient restClient;
+
+    @Before
+    public void setUp() throws Exception {
+        standIn = new StratosApiStandIn();
+        standIn.start();
+        restClient = new RestClient(standIn.getBaseURL(), "admin", "admin");
+    }
+
+    @After
+    public void tearDown() {
+        restClient.shutdown();
+        standIn.stop();
+    }
+
+    @Test
+    public void testDeployListAndUndeploy() throws Exception {
+        File directory = createCartridgeDefinitions(20);
+        BulkArtifactExecutor executor = new BulkArtifactExecutor(restClient, 5);
+
+        List<ArtifactResult> results = executor.execute(Operation.DEPLOY, ArtifactType.CARTRIDGE,
+                directory.getPath());
+        assertEquals(20, results.size());
+        assertAllSucceeded(results, true);
+        assertEquals(20, standIn.getCartridges().size());
+        assertEquals("cartridge-0", results.get(0).getArtifactId());
+
+        assertAllSucceeded(executor.execute(Operation.LIST, ArtifactType.CARTRIDGE, directory.getPath()), true);
+        // Cartridges exist already
+        assertAllSucceeded(executor.execute(Operation.DEPLOY, ArtifactType.CARTRIDGE, directory.getPath()), false);
+
+        assertAllSucceeded(executor.execute(Operation.UNDEPLOY, ArtifactType.CARTRIDGE, directory.getPath()), true);
+        assertEquals(0, standIn.getCartridges().size());
+        assertAllSucceeded(executor.execute(Operation.LIST, ArtifactType.CARTRIDGE, directory.getPath()), false);
+    }
+
+    @Test
+    public void testDefinitionWithoutId() throws Exception {
+        File directory = temporaryFolder.newFolder("invalid");
+        write(new File(directory, "cartridge.json"), "{\"category\":\"framework\"}");
+
+        List<ArtifactResult> results = new BulkArtifactExecutor(restClient, 2).execute(Operation.DEPLOY,
+                ArtifactType.CARTRIDGE, directory.getPath());
+        assertEquals(1, results.size());
+        assertFalse(results.get(0).isSuccess());
+        assertNull(results.get(0).getArtifactId());
+        assertEquals(0, standIn.getRequestCount());
+    }
+
+    @Test
+    public void testConnectionIsReused() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            HttpResponse response = restClient.doGet(restClient.getHttpClient(),
+                    standIn.getBaseURL() + "/api/v4.1/cartridges/cartridge-" + i);
+            assertEquals(404, response.getStatusLine().getStatusCode());
+            // Responses are buffered, hence they can be read after the connection is released
+            assertTrue(CliUtils.getHttpResponseString(response).contains("cartridge-" + i));
+        }
+        assertEquals(50, standIn.getRequestCount());
+        assertEquals(1, standIn.getConnectionCount());
+    }
+
+    @Test
+    public void testConcurrentRequestsAreBounded() throws Exception {
+        File directory = createCartridgeDefinitions(100);
+        new BulkArtifactExecutor(restClient, 4).execute(Operation.DEPLOY, ArtifactType.CARTRIDGE,
+                directory.getPath());
+        assertEquals(100, standIn.getCartridges().size());
+        assertTrue(standIn.getConnectionCount() <= 4);
+    }
+
+    private void assertAllSucceeded(List<ArtifactResult> results, boolean success) {
+        for (ArtifactResult result : results) {
+            assertEquals(result.getFileName() + ": " + result.getMessage(), success, result.isSuccess());
+        }
+    }
+
+    private File createCartridgeDefinitions(int count) throws IOException {
+        File directory = temporaryFolder.newFolder("cartridges");
+        for (int i = 0; i < count; i++) {
+            write(new File(directory, String.format("cartridge-%04d.json", i)), createCartridgeDefinition(i));
+        }
+        return directory;
+    }
+
+    static String createCartridgeDefinition(int index) {
+        return "{\"type\":\"cartridge-" + index + "\",\"category\":\"framework\",\"provider\":\"apache\"," +
+                "\"host\":\"stratos.apache.org\",\"displayName\":\"Cartridge " + index + "\",\"version\":\"1.0\"," +
+                "\"multiTenant\":false,\"portMapping\":[{\"name\":\"http\",\"protocol\":\"http\",\"port\":8080," +
+                "\"proxyPort\":8280}],\"iaasProvider\":[{\"type\":\"mock\",\"imageId\":\"RegionOne/b4\"}]}";
+    }
+
+    static void write(File file, String content) throws IOException {
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
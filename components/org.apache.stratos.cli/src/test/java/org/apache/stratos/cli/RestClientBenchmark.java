@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cli;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.stratos.cli.BulkArtifactExecutor.ArtifactResult;
+import org.apache.stratos.cli.BulkArtifactExecutor.ArtifactType;
+import org.apache.stratos.cli.BulkArtifactExecutor.Operation;
+import org.apache.stratos.cli.utils.CliUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the deployment of 1,000 cartridges against the embedded stand-in of the REST API.
+ * Compares creating a new http client per request, as the rest client did before the pooled
+ * client, against bulk deployments over the pooled client with increasing concurrency. The
+ * stand-in serves plain http, hence tls handshakes saved by the pooled client are not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RestClientBenchmark {
+
+    private static final int CARTRIDGE_COUNT = 1000;
+
+    @Param({"1", "10", "20"})
+    public int concurrency;
+
+    private StratosApiStandIn standIn;
+    private RestClient restClient;
+    private File directory;
+    private File[] files;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        standIn = new StratosApiStandIn();
+        standIn.start();
+        restClient = new RestClient(standIn.getBaseURL(), "admin", "admin");
+
+        directory = new File(System.getProperty("java.io.tmpdir"), "stratos-cli-benchmark-" + System.nanoTime());
+        if (!directory.mkdirs()) {
+            throw new IllegalStateException("Could not create directory: " + directory);
+        }
+        files = new File[CARTRIDGE_COUNT];
+        for (int i = 0; i < CARTRIDGE_COUNT; i++) {
+            files[i] = new File(directory, String.format("cartridge-%04d.json", i));
+            BulkArtifactExecutorTest.write(files[i], BulkArtifactExecutorTest.createCartridgeDefinition(i));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetStandIn() {
+        standIn.reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        restClient.shutdown();
+        standIn.stop();
+        for (File file : files) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    /**
+     * Deploy the cartridges one after the other with a new http client per request.
+     */
+    @Benchmark
+    public int perRequestClientDeploy() throws Exception {
+        int deployed = 0;
+        String resourceUrl = standIn.getBaseURL() + "/api/v4.1/cartridges";
+        for (File file : files) {
+            DefaultHttpClient httpClient = (DefaultHttpClient) WebClientWrapper.wrapClient(new DefaultHttpClient());
+            try {
+                HttpResponse response = restClient.doPost(httpClient, resourceUrl,
+                        CliUtils.readResource(file.getPath()));
+                if (response.getStatusLine().getStatusCode() == 201) {
+                    deployed++;
+                }
+            } finally {
+                httpClient.getConnectionManager().shutdown();
+            }
+        }
+        return deployed;
+    }
+
+    @Benchmark
+    public List<ArtifactResult> pooledClientBulkDeploy() throws Exception {
+        return new BulkArtifactExecutor(restClient, concurrency).execute(Operation.DEPLOY, ArtifactType.CARTRIDGE,
+                directory.getPath());
+    }
+}
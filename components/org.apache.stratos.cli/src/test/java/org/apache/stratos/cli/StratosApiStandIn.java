@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cli;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded stand-in of the cartridge resources of the Stratos REST API. Cartridges are kept in
+ * memory, the remote addresses of the requests are recorded to verify connection reuse.
+ */
+public class StratosApiStandIn {
+
+    private static final String CARTRIDGES_PATH = "/api/v4.1/cartridges";
+
+    static {
+        // Avoid delayed acknowledgements between the response headers and body skewing the results
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executorService;
+    private final Map<String, String> cartridges = new ConcurrentHashMap<String, String>();
+    private final Set<String> remoteAddresses =
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    public StratosApiStandIn() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(CARTRIDGES_PATH, new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    handleCartridgeRequest(exchange);
+                } finally {
+                    exchange.close();
+                }
+            }
+        });
+        executorService = Executors.newFixedThreadPool(50);
+        server.setExecutor(executorService);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executorService.shutdownNow();
+    }
+
+    public String getBaseURL() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public Map<String, String> getCartridges() {
+        return cartridges;
+    }
+
+    /**
+     * @return number of distinct client connections seen so far
+     */
+    public int getConnectionCount() {
+        return remoteAddresses.size();
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    public void reset() {
+        cartridges.clear();
+        remoteAddresses.clear();
+        requestCount.set(0);
+    }
+
+    private void handleCartridgeRequest(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        remoteAddresses.add(exchange.getRemoteAddress().toString());
+        String body = readBody(exchange.getRequestBody());
+        String path = exchange.getRequestURI().getPath();
+        String cartridgeType = path.length() > CARTRIDGES_PATH.length() + 1 ?
+                path.substring(CARTRIDGES_PATH.length() + 1) : null;
+        String method = exchange.getRequestMethod();
+
+        if ("POST".equals(method) && (cartridgeType == null)) {
+            JsonElement type = ((JsonObject) new JsonParser().parse(body)).get("type");
+            if (cartridges.containsKey(type.getAsString())) {
+                respond(exchange, 409, "error", "Cartridge already exists: [cartridge-type] " + type.getAsString());
+            } else {
+                cartridges.put(type.getAsString(), body);
+                respond(exchange, 201, "success", "Cartridge added successfully: [cartridge-type] " +
+                        type.getAsString());
+            }
+        } else if ("GET".equals(method) && (cartridgeType != null)) {
+            String cartridge = cartridges.get(cartridgeType);
+            if (cartridge == null) {
+                respond(exchange, 404, "error", "Cartridge not found: [cartridge-type] " + cartridgeType);
+            } else {
+                respond(exchange, 200, cartridge);
+            }
+        } else if ("DELETE".equals(method) && (cartridgeType != null)) {
+            if (cartridges.remove(cartridgeType) == null) {
+                respond(exchange, 404, "error", "Cartridge not found: [cartridge-type] " + cartridgeType);
+            } else {
+                respond(exchange, 200, "success", "Cartridge removed successfully: [cartridge-type] " +
+                        cartridgeType);
+            }
+        } else {
+            respond(exchange, 405, "error", "Method not allowed: " + method);
+        }
+    }
+
+    private void respond(HttpExchange exchange, int statusCode, String status, String message) throws IOException {
+        respond(exchange, statusCode, "{\"status\":\"" + status + "\",\"message\":\"" + message + "\"}");
+    }
+
+    private void respond(HttpExchange exchange, int statusCode, String body) throws IOException {
+        byte[] bytes = body.getBytes("UTF-8");
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        OutputStream outputStream = exchange.getResponseBody();
+        outputStream.write(bytes);
+        outputStream.close();
+    }
+
+    private String readBody(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, length);
+        }
+        return outputStream.toString("UTF-8");
+    }
+}
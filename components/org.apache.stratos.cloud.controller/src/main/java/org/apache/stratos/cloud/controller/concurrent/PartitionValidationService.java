@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.concurrent;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.cloud.controller.context.CloudControllerContext;
+import org.apache.stratos.cloud.controller.domain.IaasProvider;
+import org.apache.stratos.cloud.controller.domain.Partition;
+import org.apache.stratos.cloud.controller.exception.InvalidPartitionException;
+import org.apache.stratos.cloud.controller.util.CloudControllerConstants;
+import org.apache.stratos.cloud.controller.util.CloudControllerUtil;
+import org.apache.stratos.common.threading.StratosThreadPool;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Validates the partitions of network partitions against the iaas providers of cartridges.
+ * Partitions of a cartridge in the same region and zone of an iaas provider share one check,
+ * the validated iaas provider is mapped back to each of them with its own properties. Checks run in
+ * parallel on a thread pool of partition.validation.thread.pool.size threads and each check fails
+ * if it does not complete within partition.validation.timeout milliseconds of being submitted.
+ * Successful results are cached for partition.validation.cache.ttl milliseconds, failed checks
+ * are not cached.
+ */
+public class PartitionValidationService {
+
+    private static final Log log = LogFactory.getLog(PartitionValidationService.class);
+
+    private static final String THREAD_POOL_ID = "cloud.controller.partition.validation.thread.pool";
+    private static final int DEFAULT_THREAD_POOL_SIZE = 10;
+    private static final long DEFAULT_TIMEOUT = 60000;
+    private static final long DEFAULT_CACHE_TTL = 5 * 60 * 1000;
+
+    private static volatile PartitionValidationService instance;
+
+    private final ExecutorService executorService;
+    private final long timeout;
+    private final long cacheTtl;
+    private final ConcurrentMap<String, ValidationTask> validations;
+    private final AtomicLong validationCount = new AtomicLong();
+
+    PartitionValidationService(ExecutorService executorService, long timeout, long cacheTtl) {
+        this.executorService = executorService;
+        this.timeout = timeout;
+        this.cacheTtl = cacheTtl;
+        this.validations = new ConcurrentHashMap<String, ValidationTask>();
+    }
+
+    public static PartitionValidationService getInstance() {
+        if (instance == null) {
+            synchronized (PartitionValidationService.class) {
+                if (instance == null) {
+                    int threadPoolSize = Integer.getInteger(
+                            CloudControllerConstants.PARTITION_VALIDATION_THREAD_POOL_SIZE, DEFAULT_THREAD_POOL_SIZE);
+                    instance = new PartitionValidationService(
+                            StratosThreadPool.getExecutorService(THREAD_POOL_ID, threadPoolSize),
+                            Long.getLong(CloudControllerConstants.PARTITION_VALIDATION_TIMEOUT, DEFAULT_TIMEOUT),
+                            Long.getLong(CloudControllerConstants.PARTITION_VALIDATION_CACHE_TTL, DEFAULT_CACHE_TTL));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Validate the given partitions against the iaas providers of the given cartridge. All checks
+     * are submitted before waiting for any of them, the first failing partition fails the validation.
+     *
+     * @param cartridgeType cartridge type
+     * @param partitions    partitions to be validated
+     * @return iaas providers of the partitions by partition id
+     * @throws InvalidPartitionException if a partition is not valid or could not be validated in time
+     */
+    public Map<String, IaasProvider> validatePartitions(String cartridgeType, Partition[] partitions)
+            throws InvalidPartitionException {
+        removeExpiredValidations();
+
+        Map<String, ValidationTask> tasks = new HashMap<String, ValidationTask>();
+        for (Partition partition : partitions) {
+            IaasProvider iaasProvider = getIaasProvider(cartridgeType, partition.getProvider());
+            tasks.put(partition.getId(), submit(cartridgeType, partition, iaasProvider));
+        }
+
+        Map<String, IaasProvider> iaasProviders = new HashMap<String, IaasProvider>();
+        for (Partition partition : partitions) {
+            ValidationTask task = tasks.get(partition.getId());
+            IaasProvider iaasProvider = getResult(partition, task);
+            if (iaasProvider != null) {
+                iaasProviders.put(partition.getId(), mapToPartition(task, iaasProvider, partition));
+            }
+        }
+        return iaasProviders;
+    }
+
+    /**
+     * @return number of checks performed against iaas providers, cache hits and shared checks
+     * are not counted
+     */
+    public long getValidationCount() {
+        return validationCount.get();
+    }
+
+    /**
+     * Remove all cached results.
+     */
+    public void invalidate() {
+        validations.clear();
+    }
+
+    /**
+     * Remove the cached results of the given cartridge, the iaas providers of a cartridge are
+     * replaced when the cartridge is updated.
+     *
+     * @param cartridgeType cartridge type
+     */
+    public void invalidate(String cartridgeType) {
+        Iterator<String> iterator = validations.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().startsWith(cartridgeType + "|")) {
+                iterator.remove();
+            }
+        }
+    }
+
+    protected IaasProvider getIaasProvider(String cartridgeType, String provider) {
+        return CloudControllerContext.getInstance().getIaasProvider(cartridgeType, provider);
+    }
+
+    private ValidationTask submit(String cartridgeType, Partition partition, IaasProvider iaasProvider) {
+        java.util.Properties properties = CloudControllerUtil.toJavaUtilProperties(partition.getProperties());
+        String key = getKey(cartridgeType, iaasProvider, properties);
+        ValidationTask task = validations.get(key);
+        if ((task != null) && task.isExpired()) {
+            validations.remove(key, task);
+            task = null;
+        }
+
+        if (task == null) {
+            ValidationTask newTask = new ValidationTask(key, partition.getId(), properties, iaasProvider,
+                    new PartitionValidatorCallable(partition, cartridgeType, iaasProvider));
+            task = validations.putIfAbsent(key, newTask);
+            if (task == null) {
+                task = newTask;
+                validationCount.incrementAndGet();
+                executorService.execute(task);
+            }
+        } else if (log.isDebugEnabled()) {
+            log.debug(String.format("Partition validation shared: [cartridge-type] %s [partition-id] %s " +
+                    "[validated-partition-id] %s", cartridgeType, partition.getId(), task.partitionId));
+        }
+        return task;
+    }
+
+    private IaasProvider getResult(Partition partition, ValidationTask task) throws InvalidPartitionException {
+        try {
+            long remainingTime = task.deadline - System.currentTimeMillis();
+            return task.get(Math.max(remainingTime, 0), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            validations.remove(task.key, task);
+            String message = String.format("Partition validation timed out: [partition-id] %s [timeout] %d ms",
+                    partition.getId(), timeout);
+            log.error(message);
+            throw new InvalidPartitionException(message, e);
+        } catch (CancellationException e) {
+            String message = "Partition validation timed out: [partition-id] " + partition.getId();
+            log.error(message);
+            throw new InvalidPartitionException(message, e);
+        } catch (ExecutionException e) {
+            validations.remove(task.key, task);
+            Throwable cause = e.getCause();
+            String message = "Partition validation failed: [partition-id] " + partition.getId();
+            log.error(message, cause);
+            throw new InvalidPartitionException(message, (cause instanceof Exception) ? (Exception) cause : e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InvalidPartitionException("Interrupted while validating partition: [partition-id] "
+                    + partition.getId(), e);
+        }
+    }
+
+    private void removeExpiredValidations() {
+        Iterator<ValidationTask> iterator = validations.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Map the iaas provider validated for the partition of a check to the given partition. Partition
+     * validators either return the iaas provider of the cartridge as is or a copy carrying the
+     * properties of the validated partition, the copy of another partition gets its own properties.
+     */
+    private IaasProvider mapToPartition(ValidationTask task, IaasProvider validatedIaasProvider, Partition partition) {
+        if (validatedIaasProvider == task.iaasProvider) {
+            return validatedIaasProvider;
+        }
+        java.util.Properties properties = CloudControllerUtil.toJavaUtilProperties(partition.getProperties());
+        if (task.partitionId.equals(partition.getId()) && task.properties.equals(properties)) {
+            return validatedIaasProvider;
+        }
+
+        IaasProvider partitionIaasProvider = new IaasProvider(validatedIaasProvider);
+        for (String name : task.properties.stringPropertyNames()) {
+            String value = task.iaasProvider.getProperty(name);
+            if (value != null) {
+                partitionIaasProvider.setProperty(name, value);
+            } else {
+                partitionIaasProvider.getProperties().remove(name);
+            }
+        }
+        for (String name : properties.stringPropertyNames()) {
+            partitionIaasProvider.setProperty(name, properties.getProperty(name));
+        }
+        return partitionIaasProvider;
+    }
+
+    /**
+     * Validation key built from the cartridge type, iaas provider type, region and zone, the
+     * properties validated against the iaas.
+     */
+    private String getKey(String cartridgeType, IaasProvider iaasProvider, java.util.Properties properties) {
+        return cartridgeType + "|" + iaasProvider.getType() + "|" +
+                properties.getProperty(CloudControllerConstants.REGION_PROPERTY) + "|" +
+                properties.getProperty(CloudControllerConstants.ZONE_PROPERTY);
+    }
+
+    private class ValidationTask extends FutureTask<IaasProvider> {
+
+        private final String key;
+        private final String partitionId;
+        private final java.util.Properties properties;
+        private final IaasProvider iaasProvider;
+        private final long deadline;
+        private volatile long expiryTime = Long.MAX_VALUE;
+
+        private ValidationTask(String key, String partitionId, java.util.Properties properties,
+                               IaasProvider iaasProvider, PartitionValidatorCallable callable) {
+            super(callable);
+            this.key = key;
+            this.partitionId = partitionId;
+            this.properties = properties;
+            this.iaasProvider = iaasProvider;
+            this.deadline = System.currentTimeMillis() + timeout;
+        }
+
+        @Override
+        protected void done() {
+            expiryTime = System.currentTimeMillis() + cacheTtl;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiryTime;
+        }
+    }
+}
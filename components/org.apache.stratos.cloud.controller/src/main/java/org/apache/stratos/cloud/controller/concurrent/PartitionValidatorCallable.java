@@ -20,8 +20,6 @@ package org.apache.stratos.cloud.controller.concurrent;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.stratos.cloud.controller.context.CloudControllerContext;
-import org.apache.stratos.cloud.controller.domain.Cartridge;
 import org.apache.stratos.cloud.controller.domain.IaasProvider;
 import org.apache.stratos.cloud.controller.domain.Partition;
 import org.apache.stratos.cloud.controller.services.impl.CloudControllerServiceUtil;
@@ -32,28 +30,27 @@ public class PartitionValidatorCallable implements Callable<IaasProvider> {
 
     private static final Log log = LogFactory.getLog(PartitionValidatorCallable.class);
     private Partition partition;
-    private Cartridge cartridge;
+    private String cartridgeType;
+    private IaasProvider iaasProvider;
 
-    public PartitionValidatorCallable(Partition partition, Cartridge cartridge) {
+    public PartitionValidatorCallable(Partition partition, String cartridgeType, IaasProvider iaasProvider) {
         this.partition = partition;
-        this.cartridge = cartridge;
+        this.cartridgeType = cartridgeType;
+        this.iaasProvider = iaasProvider;
     }
 
     @Override
     public IaasProvider call() throws Exception {
 
         if (log.isDebugEnabled()) {
-            log.debug("Partition validation started for " + partition + " of " + cartridge);
+            log.debug("Partition validation started for " + partition + " of cartridge: " + cartridgeType);
         }
-        String provider = partition.getProvider();
-        IaasProvider iaasProvider = CloudControllerContext.getInstance().getIaasProvider(cartridge.getType(), provider);
-
         IaasProvider updatedIaasProvider =
                 CloudControllerServiceUtil.validatePartitionAndGetIaasProvider(partition, iaasProvider);
 
         if (log.isDebugEnabled()) {
             log.debug("Partition " + partition.toString() + " is validated successfully " + "against the Cartridge: "
-                    + cartridge.getType());
+                    + cartridgeType);
         }
 
         return updatedIaasProvider;
@@ -32,6 +32,7 @@ import org.apache.stratos.cloud.controller.exception.NonExistingKubernetesHostEx
 import org.apache.stratos.cloud.controller.internal.ServiceReferenceHolder;
 import org.apache.stratos.cloud.controller.registry.RegistryManager;
 import org.apache.stratos.cloud.controller.util.CloudControllerConstants;
+import org.apache.stratos.common.concurrent.locks.LockBatch;
 import org.apache.stratos.common.services.DistributedObjectProvider;
 import org.apache.stratos.common.threading.StratosThreadPool;
 import org.wso2.carbon.databridge.agent.thrift.AsyncDataPublisher;
@@ -254,6 +255,10 @@ public class CloudControllerContext implements Serializable {
         distributedObjectProvider.releaseLock(lock);
     }
 
+    public void releaseWriteLocks(LockBatch lockBatch) {
+        distributedObjectProvider.releaseLocks(lockBatch);
+    }
+
     public Lock acquireClusterContextWriteLock() {
         return acquireWriteLock(CC_CLUSTER_CTX_WRITE_LOCK);
     }
@@ -282,6 +287,16 @@ public class CloudControllerContext implements Serializable {
         return acquireWriteLock(CC_SERVICE_GROUPS_WRITE_LOCK);
     }
 
+    /**
+     * Acquires the cluster context and cartridges write locks in one batch. The locks are acquired
+     * in the same order by all callers, hence this does not deadlock with other lock batches.
+     *
+     * @return lock batch to be released using releaseWriteLocks()
+     */
+    public LockBatch acquireClusterContextAndCartridgesWriteLocks() {
+        return distributedObjectProvider.acquireLocks(CC_CLUSTER_CTX_WRITE_LOCK, CC_CARTRIDGES_WRITE_LOCK);
+    }
+
     public void addCartridge(Cartridge cartridge) {
         cartridgeTypeToCartridgeMap.put(cartridge.getType(), cartridge);
     }
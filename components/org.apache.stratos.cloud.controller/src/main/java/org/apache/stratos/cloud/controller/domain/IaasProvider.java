@@ -80,7 +80,7 @@ public class IaasProvider implements Serializable {
     /**
      * Corresponding {@link org.apache.stratos.cloud.controller.iaases.Iaas} implementation
      */
-    private transient Iaas iaas;
+    private transient volatile Iaas iaas;
 
     public IaasProvider() {
     }
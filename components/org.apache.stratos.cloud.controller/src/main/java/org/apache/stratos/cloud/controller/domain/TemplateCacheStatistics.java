@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.domain;
+
+import java.io.Serializable;
+
+/**
+ * Hit and miss statistics of the jclouds template cache.
+ */
+public class TemplateCacheStatistics implements Serializable {
+
+    private static final long serialVersionUID = -4625139082311475236L;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private int computeServiceCount;
+    private int templateCount;
+    private int locationSetCount;
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public void setEvictionCount(long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+
+    public int getComputeServiceCount() {
+        return computeServiceCount;
+    }
+
+    public void setComputeServiceCount(int computeServiceCount) {
+        this.computeServiceCount = computeServiceCount;
+    }
+
+    public int getTemplateCount() {
+        return templateCount;
+    }
+
+    public void setTemplateCount(int templateCount) {
+        this.templateCount = templateCount;
+    }
+
+    public int getLocationSetCount() {
+        return locationSetCount;
+    }
+
+    public void setLocationSetCount(int locationSetCount) {
+        this.locationSetCount = locationSetCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[hits] %d [misses] %d [evictions] %d [compute-services] %d [templates] %d " +
+                        "[location-sets] %d", hitCount, missCount, evictionCount, computeServiceCount,
+                templateCount, locationSetCount);
+    }
+}
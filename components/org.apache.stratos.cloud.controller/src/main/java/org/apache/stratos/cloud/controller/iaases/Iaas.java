@@ -23,6 +23,8 @@ import org.apache.stratos.cloud.controller.domain.MemberContext;
 import org.apache.stratos.cloud.controller.domain.Partition;
 import org.apache.stratos.cloud.controller.exception.*;
 
+import java.util.List;
+
 /**
  * All IaaSes that are going to support by Cloud Controller, should extend this abstract class.
  */
@@ -63,6 +65,37 @@ public abstract class Iaas {
      */
     public abstract MemberContext startInstance(MemberContext memberContext, byte[] payload) throws CartridgeNotFoundException;
 
+    /**
+     * Create vm/container instance and notify the given callback once the instance is started. By default the
+     * instance is started in the calling thread, iaases which need to wait for the instance to be activated
+     * may override this to avoid blocking the calling thread while waiting.
+     *
+     * @param memberContext
+     * @param payload
+     * @param callback
+     */
+    public void startInstance(MemberContext memberContext, byte[] payload, InstanceStartCallback callback) {
+        try {
+            MemberContext updatedMemberContext = startInstance(memberContext, payload);
+            callback.onInstanceStarted(updatedMemberContext);
+        } catch (Exception e) {
+            callback.onInstanceStartFailed(memberContext, e);
+        }
+    }
+
+    /**
+     * Create vm/container instances for the given requests and notify the callback of each request once the
+     * instance is started. By default instances are started one by one, iaases which can provision several
+     * instances in a single request, each with the payload of its own member, may override this.
+     *
+     * @param requests instance start requests
+     */
+    public void startInstances(List<InstanceStartRequest> requests) {
+        for (InstanceStartRequest request : requests) {
+            startInstance(request.getMemberContext(), request.getPayload(), request.getCallback());
+        }
+    }
+
     /**
      * This will deallocate/release the given IP address back to pool.
      *
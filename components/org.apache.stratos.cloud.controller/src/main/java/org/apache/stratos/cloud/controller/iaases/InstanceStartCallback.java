@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one 
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY 
+ * KIND, either express or implied.  See the License for the 
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.cloud.controller.iaases;
+
+import org.apache.stratos.cloud.controller.domain.MemberContext;
+
+/**
+ * Callback notified by an {@link Iaas} once an instance start request is completed.
+ */
+public interface InstanceStartCallback {
+
+    /**
+     * Invoked when the instance is started.
+     *
+     * @param memberContext updated member context
+     */
+    public void onInstanceStarted(MemberContext memberContext);
+
+    /**
+     * Invoked when the instance could not be started.
+     *
+     * @param memberContext member context
+     * @param e             cause of the failure
+     */
+    public void onInstanceStartFailed(MemberContext memberContext, Exception e);
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one 
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY 
+ * KIND, either express or implied.  See the License for the 
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.cloud.controller.iaases;
+
+import org.apache.stratos.cloud.controller.domain.MemberContext;
+
+/**
+ * A request to start an instance for a member, handed over to the iaas together with the other
+ * start-up requests of the same iaas.
+ */
+public class InstanceStartRequest {
+
+    private final MemberContext memberContext;
+    private final byte[] payload;
+    private final InstanceStartCallback callback;
+
+    public InstanceStartRequest(MemberContext memberContext, byte[] payload, InstanceStartCallback callback) {
+        this.memberContext = memberContext;
+        this.payload = payload;
+        this.callback = callback;
+    }
+
+    public MemberContext getMemberContext() {
+        return memberContext;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public InstanceStartCallback getCallback() {
+        return callback;
+    }
+}
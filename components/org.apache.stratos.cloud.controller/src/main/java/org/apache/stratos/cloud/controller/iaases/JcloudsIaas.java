@@ -103,27 +103,29 @@ public abstract class JcloudsIaas extends Iaas {
         }
     }
 
+    /**
+     * Set the given payload in the given template.
+     *
+     * @param template template of a node start-up request
+     * @param payload  payload of the member
+     */
+    public abstract void setDynamicPayload(Template template, byte[] payload);
+
     @Override
-    public MemberContext startInstance(MemberContext memberContext, byte[] payload) {
-        // generate the group id from domain name and sub domain name.
-        // Should have lower-case ASCII letters, numbers, or dashes.
-        // Should have a length between 3-15
+    public void setDynamicPayload(byte[] payload) {
+        Template template = getIaasProvider().getTemplate();
+        if (template != null) {
+            setDynamicPayload(template, payload);
+        }
+    }
 
-        this.setDynamicPayload(payload);
-        String clusterId = memberContext.getClusterId();
-        String str = clusterId.length() > 10 ? clusterId.substring(0, 10) : clusterId.substring(0, clusterId.length());
-        String group = str.replaceAll("[^a-z0-9-]", "");
+    @Override
+    public MemberContext startInstance(MemberContext memberContext, byte[] payload) {
+        String group = getNodeGroup(memberContext.getClusterId());
 
         try {
             ComputeService computeService = getIaasProvider().getComputeService();
-            Template template = getIaasProvider().getTemplate();
-
-            if (template == null) {
-                String msg = "Could not start an instance, jclouds template is null for iaas provider [type]: " +
-                        getIaasProvider().getType();
-                log.error(msg);
-                throw new InvalidIaasProviderException(msg);
-            }
+            Template template = createTemplate(payload);
 
             if (log.isDebugEnabled()) {
                 log.debug("Cloud controller is delegating request to start an instance for "
@@ -153,6 +155,37 @@ public abstract class JcloudsIaas extends Iaas {
         return memberContext;
     }
 
+    /**
+     * Generate the group id from the cluster id. Should have lower-case ASCII letters,
+     * numbers, or dashes and should have a length between 3-15.
+     */
+    private String getNodeGroup(String clusterId) {
+        String str = clusterId.length() > 10 ? clusterId.substring(0, 10) : clusterId.substring(0, clusterId.length());
+        return str.replaceAll("[^a-z0-9-]", "");
+    }
+
+    /**
+     * Create a template for a node start-up request by copying the template of the iaas provider
+     * and setting the given payload. The template of the iaas provider is not modified, hence
+     * concurrent start-up requests do not see each others payload.
+     *
+     * @param payload payload of the member
+     * @return template with the payload
+     */
+    protected Template createTemplate(byte[] payload) throws InvalidIaasProviderException {
+        Template template = getIaasProvider().getTemplate();
+        if (template == null) {
+            String msg = "Could not start an instance, jclouds template is null for iaas provider [type]: " +
+                    getIaasProvider().getType();
+            log.error(msg);
+            throw new InvalidIaasProviderException(msg);
+        }
+
+        Template templateCopy = JcloudsIaasUtil.copyTemplate(template);
+        setDynamicPayload(templateCopy, payload);
+        return templateCopy;
+    }
+
     protected InstanceMetadata createInstanceMetadata(NodeMetadata nodeMetadata) {
         InstanceMetadata instanceMetadata = new InstanceMetadata();
         instanceMetadata.setHostname(nodeMetadata.getHostname());
@@ -25,6 +25,8 @@ import org.apache.stratos.cloud.controller.domain.IaasProvider;
 import org.apache.stratos.cloud.controller.exception.InvalidIaasProviderException;
 import org.apache.stratos.cloud.controller.util.ComputeServiceBuilderUtil;
 import org.jclouds.compute.ComputeService;
+import org.jclouds.compute.domain.Template;
+import org.jclouds.compute.domain.internal.TemplateImpl;
 
 /**
  * jclouds IaaS utility methods.
@@ -62,4 +64,17 @@ public class JcloudsIaasUtil {
             throw new InvalidIaasProviderException(msg, e);
         }
     }
+
+    /**
+     * Copy the given template. The image, hardware and location are shared while the
+     * template options are cloned, hence the options of the copy can be modified without
+     * affecting the given template.
+     *
+     * @param template template to be copied
+     * @return copy of the template
+     */
+    public static Template copyTemplate(Template template) {
+        return new TemplateImpl(template.getImage(), template.getHardware(), template.getLocation(),
+                template.getOptions().clone());
+    }
 }
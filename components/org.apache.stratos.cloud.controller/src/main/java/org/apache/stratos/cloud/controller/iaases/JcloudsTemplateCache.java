@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.iaases;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.cloud.controller.domain.IaasProvider;
+import org.apache.stratos.cloud.controller.domain.TemplateCacheStatistics;
+import org.apache.stratos.cloud.controller.exception.CloudControllerException;
+import org.apache.stratos.cloud.controller.util.ComputeServiceBuilderUtil;
+import org.jclouds.compute.ComputeService;
+import org.jclouds.compute.domain.Template;
+import org.jclouds.compute.domain.TemplateBuilder;
+import org.jclouds.domain.Location;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches jclouds compute services, resolved templates and assignable locations, so that
+ * building an iaas for a partition does not need to create a new jclouds context and
+ * resolve images, hardware profiles and locations against the provider again. Templates
+ * and locations expire after the time to live given by the jclouds.template.cache.ttl
+ * system property in milliseconds. Templates and locations of the iaas providers of a
+ * cartridge or network partition are evicted when it is updated. Compute services are not
+ * evicted nor closed, start-up requests in flight may still use them; they are keyed by the
+ * identity, credential and properties of the iaas provider, hence an updated definition gets
+ * a compute service of its own. Cache keys carry a digest of these values instead of the
+ * values themselves.
+ */
+public class JcloudsTemplateCache {
+
+    private static final Log log = LogFactory.getLog(JcloudsTemplateCache.class);
+
+    private static final String TEMPLATE_CACHE_TTL = "jclouds.template.cache.ttl";
+    private static final long DEFAULT_TEMPLATE_CACHE_TTL = 30 * 60 * 1000;
+
+    private static volatile JcloudsTemplateCache instance;
+
+    private final long timeToLive;
+    private final ConcurrentMap<String, CacheEntry<ComputeService>> computeServices;
+    private final ConcurrentMap<String, CacheEntry<Template>> templates;
+    private final ConcurrentMap<String, CacheEntry<Set<? extends Location>>> locations;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    JcloudsTemplateCache(long timeToLive) {
+        this.timeToLive = timeToLive;
+        this.computeServices = new ConcurrentHashMap<String, CacheEntry<ComputeService>>();
+        this.templates = new ConcurrentHashMap<String, CacheEntry<Template>>();
+        this.locations = new ConcurrentHashMap<String, CacheEntry<Set<? extends Location>>>();
+    }
+
+    public static JcloudsTemplateCache getInstance() {
+        if (instance == null) {
+            synchronized (JcloudsTemplateCache.class) {
+                if (instance == null) {
+                    instance = new JcloudsTemplateCache(Long.getLong(TEMPLATE_CACHE_TTL, DEFAULT_TEMPLATE_CACHE_TTL));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the compute service of the given iaas provider. Iaas providers with the same
+     * provider, credentials and properties share the same compute service.
+     *
+     * @param iaasProvider iaas provider
+     * @return compute service
+     */
+    public ComputeService getComputeService(final IaasProvider iaasProvider) {
+        // Compute services do not go stale and may be in use, they are never evicted
+        return getOrLoad(computeServices, getComputeServiceKey(iaasProvider), iaasProvider, Long.MAX_VALUE,
+                new Callable<ComputeService>() {
+                    @Override
+                    public ComputeService call() throws Exception {
+                        return ComputeServiceBuilderUtil.createComputeService(iaasProvider);
+                    }
+                });
+    }
+
+    /**
+     * Returns a template for the given iaas provider. The template is resolved using the given
+     * template builder on a cache miss, the returned template is a copy which can be modified
+     * by the caller.
+     *
+     * @param iaasProvider    iaas provider
+     * @param templateBuilder template builder configured with the image, location and hardware
+     *                        of the iaas provider
+     * @return template
+     */
+    public Template getTemplate(IaasProvider iaasProvider, final TemplateBuilder templateBuilder) {
+        Template template = getOrLoad(templates, getTemplateKey(iaasProvider), iaasProvider, timeToLive,
+                new Callable<Template>() {
+                    @Override
+                    public Template call() throws Exception {
+                        return templateBuilder.build();
+                    }
+                });
+        return JcloudsIaasUtil.copyTemplate(template);
+    }
+
+    /**
+     * Returns the assignable locations of the compute service of the given iaas provider.
+     *
+     * @param iaasProvider iaas provider
+     * @return assignable locations
+     */
+    public Set<? extends Location> getAssignableLocations(final IaasProvider iaasProvider) {
+        return getOrLoad(locations, getComputeServiceKey(iaasProvider), iaasProvider, timeToLive,
+                new Callable<Set<? extends Location>>() {
+                    @Override
+                    public Set<? extends Location> call() throws Exception {
+                        return iaasProvider.getComputeService().listAssignableLocations();
+                    }
+                });
+    }
+
+    /**
+     * Evict the template and the assignable locations of the given iaas provider. Compute services
+     * are kept, hence instances which are being started with them are not affected.
+     *
+     * @param iaasProvider iaas provider
+     */
+    public void invalidate(IaasProvider iaasProvider) {
+        int evictedCount = 0;
+        if (templates.remove(getTemplateKey(iaasProvider)) != null) {
+            evictedCount++;
+        }
+        if (locations.remove(getComputeServiceKey(iaasProvider)) != null) {
+            evictedCount++;
+        }
+        evictionCount.addAndGet(evictedCount);
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Jclouds template cache invalidated: [iaas-provider] %s [evicted] %d",
+                    iaasProvider.getType(), evictedCount));
+        }
+    }
+
+    public TemplateCacheStatistics getStatistics() {
+        TemplateCacheStatistics statistics = new TemplateCacheStatistics();
+        statistics.setHitCount(hitCount.get());
+        statistics.setMissCount(missCount.get());
+        statistics.setEvictionCount(evictionCount.get());
+        statistics.setComputeServiceCount(computeServices.size());
+        statistics.setTemplateCount(templates.size());
+        statistics.setLocationSetCount(locations.size());
+        return statistics;
+    }
+
+    /**
+     * Returns the cached value of the given key, loading it on a cache miss. Error messages refer to the
+     * iaas provider type since keys are derived from credentials.
+     */
+    private <T> T getOrLoad(ConcurrentMap<String, CacheEntry<T>> cache, String key, IaasProvider iaasProvider,
+                            long entryTimeToLive, Callable<T> loader) {
+        CacheEntry<T> entry = cache.get(key);
+        if ((entry != null) && entry.isExpired()) {
+            if (cache.remove(key, entry)) {
+                evictionCount.incrementAndGet();
+            }
+            entry = null;
+        }
+
+        if (entry == null) {
+            long expiryTime = (entryTimeToLive == Long.MAX_VALUE) ? Long.MAX_VALUE :
+                    System.currentTimeMillis() + entryTimeToLive;
+            CacheEntry<T> newEntry = new CacheEntry<T>(new FutureTask<T>(loader), expiryTime);
+            entry = cache.putIfAbsent(key, newEntry);
+            if (entry == null) {
+                missCount.incrementAndGet();
+                entry = newEntry;
+                // Concurrent requests for the same key wait for this entry to be resolved
+                entry.task.run();
+            } else {
+                hitCount.incrementAndGet();
+            }
+        } else {
+            hitCount.incrementAndGet();
+        }
+
+        try {
+            return entry.task.get();
+        } catch (ExecutionException e) {
+            cache.remove(key, entry);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CloudControllerException("Could not resolve jclouds resource: [iaas-provider] " +
+                    iaasProvider.getType(), (Exception) cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CloudControllerException("Interrupted while resolving jclouds resource: [iaas-provider] " +
+                    iaasProvider.getType(), e);
+        }
+    }
+
+    /**
+     * Compute service key, the identity, credential and properties of the iaas provider are
+     * only included as a digest.
+     */
+    String getComputeServiceKey(IaasProvider iaasProvider) {
+        return iaasProvider.getProvider() + "|" + digest(iaasProvider.getIdentity() + "|" +
+                iaasProvider.getCredential() + "|" + new TreeMap<String, String>(iaasProvider.getProperties()));
+    }
+
+    private static String digest(String value) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] digest = messageDigest.digest(value.getBytes("UTF-8"));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new CloudControllerException("Could not create jclouds template cache key", e);
+        } catch (UnsupportedEncodingException e) {
+            throw new CloudControllerException("Could not create jclouds template cache key", e);
+        }
+    }
+
+    /**
+     * Template key, the properties of the iaas provider include the region, zone and
+     * instance type.
+     */
+    private String getTemplateKey(IaasProvider iaasProvider) {
+        return iaasProvider.getType() + "|" + iaasProvider.getImage() + "|" + getComputeServiceKey(iaasProvider);
+    }
+
+    private static class CacheEntry<T> {
+
+        private final FutureTask<T> task;
+        private final long expiryTime;
+
+        private CacheEntry(FutureTask<T> task, long expiryTime) {
+            this.task = task;
+            this.expiryTime = expiryTime;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiryTime;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import org.apache.stratos.cloud.controller.exception.InvalidHostException;
 import org.apache.stratos.cloud.controller.exception.InvalidRegionException;
 import org.apache.stratos.cloud.controller.exception.InvalidZoneException;
 import org.apache.stratos.cloud.controller.iaases.JcloudsIaas;
+import org.apache.stratos.cloud.controller.iaases.JcloudsTemplateCache;
 import org.apache.stratos.cloud.controller.iaases.PartitionValidator;
 import org.apache.stratos.cloud.controller.util.CloudControllerConstants;
 import org.apache.stratos.cloud.controller.util.ComputeServiceBuilderUtil;
@@ -100,7 +101,7 @@ public class CloudStackIaas extends JcloudsIaas {
          *  (user should provide the zone id for this, because zone name is not unique in cloudstack)
          */
         if (iaasInfo.getProperty(CloudControllerConstants.AVAILABILITY_ZONE) != null) {
-            Set<? extends Location> locations = iaasInfo.getComputeService().listAssignableLocations();
+            Set<? extends Location> locations = JcloudsTemplateCache.getInstance().getAssignableLocations(iaasInfo);
             for (Location location : locations) {
                 if (location.getId().equals(iaasInfo.getProperty(CloudControllerConstants.AVAILABILITY_ZONE))) {
                     //if the zone is valid set the zone to templateBuilder Object
@@ -123,7 +124,7 @@ public class CloudStackIaas extends JcloudsIaas {
         }
 
         //build the template
-        Template template = templateBuilder.build();
+        Template template = JcloudsTemplateCache.getInstance().getTemplate(iaasInfo, templateBuilder);
 
         /**if you wish to auto assign IPs, instance spawning call should be
          * blocking, but if you
@@ -204,12 +205,9 @@ public class CloudStackIaas extends JcloudsIaas {
     }
 
     @Override
-    public void setDynamicPayload(byte[] payload) {
-        IaasProvider iaasProvider = getIaasProvider();
-        if (iaasProvider.getTemplate() != null) {
-            iaasProvider.getTemplate().getOptions().as(CloudStackTemplateOptions.class)
-                    .userMetadata(convertByteArrayToHashMap(payload));
-        }
+    public void setDynamicPayload(Template template, byte[] payload) {
+        template.getOptions().as(CloudStackTemplateOptions.class)
+                .userMetadata(convertByteArrayToHashMap(payload));
     }
 
     /**
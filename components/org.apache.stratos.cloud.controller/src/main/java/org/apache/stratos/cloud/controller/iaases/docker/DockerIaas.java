@@ -60,7 +60,7 @@ public class DockerIaas extends JcloudsIaas {
     }
 
     @Override
-    public void setDynamicPayload(byte[] payload) {
+    public void setDynamicPayload(Template template, byte[] payload) {
         log.warn("Not implemented: DockerIaas.setDynamicPayload()");
     }
 
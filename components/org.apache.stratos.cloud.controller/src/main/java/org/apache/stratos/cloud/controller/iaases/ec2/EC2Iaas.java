@@ -31,6 +31,7 @@ import org.apache.stratos.cloud.controller.exception.InvalidHostException;
 import org.apache.stratos.cloud.controller.exception.InvalidRegionException;
 import org.apache.stratos.cloud.controller.exception.InvalidZoneException;
 import org.apache.stratos.cloud.controller.iaases.JcloudsIaas;
+import org.apache.stratos.cloud.controller.iaases.JcloudsTemplateCache;
 import org.apache.stratos.cloud.controller.iaases.PartitionValidator;
 import org.apache.stratos.cloud.controller.util.CloudControllerConstants;
 import org.apache.stratos.cloud.controller.util.CloudControllerUtil;
@@ -92,7 +93,7 @@ public class EC2Iaas extends JcloudsIaas {
         }
 
         if (iaasInfo.getProperty(CloudControllerConstants.AVAILABILITY_ZONE) != null) {
-            Set<? extends Location> locations = iaasInfo.getComputeService().listAssignableLocations();
+            Set<? extends Location> locations = JcloudsTemplateCache.getInstance().getAssignableLocations(iaasInfo);
             for (Location location : locations) {
                 if (location.getScope().toString().equalsIgnoreCase(CloudControllerConstants.ZONE_ELEMENT) &&
                         location.getId().equals(iaasInfo.getProperty(CloudControllerConstants.AVAILABILITY_ZONE))) {
@@ -110,7 +111,7 @@ public class EC2Iaas extends JcloudsIaas {
         }
 
         // build the Template
-        Template template = templateBuilder.build();
+        Template template = JcloudsTemplateCache.getInstance().getTemplate(iaasInfo, templateBuilder);
 
         if (iaasInfo.getProperty(CloudControllerConstants.AVAILABILITY_ZONE) != null) {
             if (!template.getLocation().getId().equals(iaasInfo.getProperty(CloudControllerConstants.AVAILABILITY_ZONE))) {
@@ -218,11 +219,8 @@ public class EC2Iaas extends JcloudsIaas {
     }
 
     @Override
-    public void setDynamicPayload(byte[] payload) {
-        IaasProvider iaasProvider = getIaasProvider();
-        if (iaasProvider.getTemplate() != null) {
-            iaasProvider.getTemplate().getOptions().as(AWSEC2TemplateOptions.class).userData(payload);
-        }
+    public void setDynamicPayload(Template template, byte[] payload) {
+        template.getOptions().as(AWSEC2TemplateOptions.class).userData(payload);
     }
 
     @Override
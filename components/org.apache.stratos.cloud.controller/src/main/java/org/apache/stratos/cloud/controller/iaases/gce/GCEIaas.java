@@ -33,6 +33,7 @@ import org.apache.stratos.cloud.controller.exception.InvalidHostException;
 import org.apache.stratos.cloud.controller.exception.InvalidRegionException;
 import org.apache.stratos.cloud.controller.exception.InvalidZoneException;
 import org.apache.stratos.cloud.controller.iaases.JcloudsIaas;
+import org.apache.stratos.cloud.controller.iaases.JcloudsTemplateCache;
 import org.apache.stratos.cloud.controller.iaases.PartitionValidator;
 import org.apache.stratos.cloud.controller.util.CloudControllerConstants;
 import org.apache.stratos.cloud.controller.util.ComputeServiceBuilderUtil;
@@ -101,7 +102,7 @@ public class GCEIaas extends JcloudsIaas {
 
         String zone = iaasInfo.getProperty(CloudControllerConstants.AVAILABILITY_ZONE);
         if (zone != null) {
-            Set<? extends Location> locations = iaasInfo.getComputeService().listAssignableLocations();
+            Set<? extends Location> locations = JcloudsTemplateCache.getInstance().getAssignableLocations(iaasInfo);
             for (Location location : locations) {
                 if (location.getScope().toString().equalsIgnoreCase(CloudControllerConstants.ZONE_ELEMENT) &&
                         location.getId().equals(zone)) {
@@ -119,7 +120,7 @@ public class GCEIaas extends JcloudsIaas {
         }
 
         // build the Template
-        Template template = templateBuilder.build();
+        Template template = JcloudsTemplateCache.getInstance().getTemplate(iaasInfo, templateBuilder);
 
         if (zone != null) {
             if (!template.getLocation().getId().equals(zone)) {
@@ -177,11 +178,8 @@ public class GCEIaas extends JcloudsIaas {
     }
 
     @Override
-    public void setDynamicPayload(byte[] payload) {
-        // in vCloud case we need to run a script
-        IaasProvider iaasInfo = getIaasProvider();
-
-        if (iaasInfo.getTemplate() == null || payload == null) {
+    public void setDynamicPayload(Template template, byte[] payload) {
+        if (payload == null) {
             if (log.isDebugEnabled()) {
                 log.debug("Template or payload for GCE not found");
             }
@@ -195,7 +193,7 @@ public class GCEIaas extends JcloudsIaas {
 
         Map<String, String> keyValuePairTagsMap = new HashMap<String, String>();
         keyValuePairTagsMap.put("stratos_usermetadata", payloadStr);
-        iaasInfo.getTemplate().getOptions().userMetadata(keyValuePairTagsMap);
+        template.getOptions().userMetadata(keyValuePairTagsMap);
     }
 
     @Override
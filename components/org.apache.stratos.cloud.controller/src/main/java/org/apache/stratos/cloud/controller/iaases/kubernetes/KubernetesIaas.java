@@ -35,13 +35,14 @@ import org.apache.stratos.cloud.controller.domain.kubernetes.KubernetesHost;
 import org.apache.stratos.cloud.controller.domain.kubernetes.PortRange;
 import org.apache.stratos.cloud.controller.exception.*;
 import org.apache.stratos.cloud.controller.iaases.Iaas;
+import org.apache.stratos.cloud.controller.iaases.InstanceStartCallback;
 import org.apache.stratos.cloud.controller.iaases.PartitionValidator;
 import org.apache.stratos.cloud.controller.util.CloudControllerUtil;
 import org.apache.stratos.common.Property;
 import org.apache.stratos.common.constants.StratosConstants;
 import org.apache.stratos.common.domain.NameValuePair;
 import org.apache.stratos.kubernetes.client.KubernetesApiClient;
-import org.apache.stratos.kubernetes.client.KubernetesConstants;
+import org.apache.stratos.kubernetes.client.PodActivation;
 import org.apache.stratos.kubernetes.client.exceptions.KubernetesClientException;
 import org.apache.stratos.messaging.domain.topology.KubernetesService;
 
@@ -49,6 +50,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.locks.Lock;
 
 /**
@@ -127,6 +129,12 @@ public class KubernetesIaas extends Iaas {
         return startContainer(memberContext);
     }
 
+    @Override
+    public void startInstance(MemberContext memberContext, byte[] payload, InstanceStartCallback callback) {
+        setDynamicPayload(payload);
+        startContainer(memberContext, callback);
+    }
+
     @Override
     public PartitionValidator getPartitionValidator() {
         return partitionValidator;
@@ -139,7 +147,7 @@ public class KubernetesIaas extends Iaas {
     }
 
     /**
-     * Starts a container via kubernetes for the given member context.
+     * Starts a container via kubernetes for the given member context and waits until the pod is running.
      *
      * @param memberContext
      * @return
@@ -147,6 +155,59 @@ public class KubernetesIaas extends Iaas {
      */
     public MemberContext startContainer(MemberContext memberContext)
             throws CartridgeNotFoundException {
+        PodActivation podActivation = createContainer(memberContext);
+        try {
+            return onPodActivated(memberContext, podActivation.get());
+        } catch (Exception e) {
+            throw handleContainerStartFailure(memberContext, e);
+        }
+    }
+
+    /**
+     * Starts a container via kubernetes for the given member context. The callback is notified once the pod
+     * is running, the calling thread is not blocked while waiting.
+     *
+     * @param memberContext
+     * @param callback
+     */
+    public void startContainer(final MemberContext memberContext, final InstanceStartCallback callback) {
+        final PodActivation podActivation;
+        try {
+            podActivation = createContainer(memberContext);
+        } catch (Exception e) {
+            callback.onInstanceStartFailed(memberContext, e);
+            return;
+        }
+
+        podActivation.addListener(new Runnable() {
+            @Override
+            public void run() {
+                // Complete member initialization in a worker thread to release the pod watcher
+                CloudControllerContext.getInstance().getExecutorService().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        MemberContext startedMemberContext;
+                        try {
+                            startedMemberContext = onPodActivated(memberContext, podActivation.get());
+                        } catch (Exception e) {
+                            callback.onInstanceStartFailed(memberContext,
+                                    handleContainerStartFailure(memberContext, e));
+                            return;
+                        }
+                        callback.onInstanceStarted(startedMemberContext);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Creates the kubernetes services and the pod for the given member context.
+     *
+     * @param memberContext
+     * @return {@link PodActivation} completed once the pod is running
+     */
+    private PodActivation createContainer(MemberContext memberContext) {
         Lock lock = null;
         try {
             lock = CloudControllerContext.getInstance().acquireMemberContextWriteLock();
@@ -225,24 +286,12 @@ public class KubernetesIaas extends Iaas {
             // Create pod
             createPod(clusterContext, memberContext, kubernetesApi, kubernetesClusterContext);
 
-            // Wait for pod status to be changed to running
-            Pod pod = waitForPodToBeActivated(memberContext, kubernetesApi);
-
-            // Update member context
-            updateMemberContext(memberContext, pod, kubernetesCluster);
-
-            log.info(String.format("Container started successfully: [application] %s [cartridge] %s [member] %s " +
-                            "[pod] %s [cpu] %d [memory] %d MB",
-                    memberContext.getApplicationId(), memberContext.getCartridgeType(),
-                    memberContext.getMemberId(), memberContext.getKubernetesPodId(),
-                    memberContext.getInstanceMetadata().getCpu(), memberContext.getInstanceMetadata().getRam()));
-            return memberContext;
+            // Watch pod status until it is changed to running
+            return KubernetesPodWatcherRegistry.getInstance().getPodWatcher(kubernetesClusterId,
+                    kubernetesApi.getEndpointUrl(), kubernetesApi)
+                    .watch(memberContext.getKubernetesPodId(), podActivationTimeout);
         } catch (Exception e) {
-            String msg = String.format("Could not start container: [application] %s [cartridge] %s [member] %s",
-                    memberContext.getApplicationId(), memberContext.getCartridgeType(),
-                    memberContext.getMemberId());
-            log.error(msg, e);
-            throw new RuntimeException(msg, e);
+            throw handleContainerStartFailure(memberContext, e);
         } finally {
             if (lock != null) {
                 CloudControllerContext.getInstance().releaseWriteLock(lock);
@@ -250,6 +299,33 @@ public class KubernetesIaas extends Iaas {
         }
     }
 
+    private MemberContext onPodActivated(MemberContext memberContext, Pod pod) {
+        log.info(String.format("Pod status changed to running: [application] %s [cartridge] %s [member] %s " +
+                        "[pod] %s", memberContext.getApplicationId(), memberContext.getCartridgeType(),
+                memberContext.getMemberId(), pod.getMetadata().getName()));
+
+        // Update member context
+        KubernetesCluster kubernetesCluster = CloudControllerContext.getInstance().getKubernetesCluster(
+                memberContext.getPartition().getKubernetesClusterId());
+        updateMemberContext(memberContext, pod, kubernetesCluster);
+
+        log.info(String.format("Container started successfully: [application] %s [cartridge] %s [member] %s " +
+                        "[pod] %s [cpu] %d [memory] %d MB",
+                memberContext.getApplicationId(), memberContext.getCartridgeType(),
+                memberContext.getMemberId(), memberContext.getKubernetesPodId(),
+                memberContext.getInstanceMetadata().getCpu(), memberContext.getInstanceMetadata().getRam()));
+        return memberContext;
+    }
+
+    private RuntimeException handleContainerStartFailure(MemberContext memberContext, Exception e) {
+        Throwable cause = ((e instanceof ExecutionException) && (e.getCause() != null)) ? e.getCause() : e;
+        String msg = String.format("Could not start container: [application] %s [cartridge] %s [member] %s",
+                memberContext.getApplicationId(), memberContext.getCartridgeType(),
+                memberContext.getMemberId());
+        log.error(msg, cause);
+        return new RuntimeException(msg, cause);
+    }
+
     private void updateMemberContext(MemberContext memberContext, Pod pod, KubernetesCluster kubernetesCluster) {
 
         String memberPrivateIPAddress = pod.getStatus().getPodIP();
@@ -287,63 +363,6 @@ public class KubernetesIaas extends Iaas {
         return null;
     }
 
-    private Pod waitForPodToBeActivated(MemberContext memberContext, KubernetesApiClient kubernetesApi)
-            throws KubernetesClientException, InterruptedException {
-
-        Pod pod;
-        boolean podCreated = false;
-        boolean podRunning = false;
-        long startTime = System.currentTimeMillis();
-
-        while (!podRunning) {
-            pod = kubernetesApi.getPod(memberContext.getKubernetesPodId());
-            if (pod != null) {
-                podCreated = true;
-                if (pod.getStatus().getPhase().equals(KubernetesConstants.POD_STATUS_RUNNING)) {
-                    log.info(String.format("Pod status changed to running: [application] %s [cartridge] %s [member] %s " +
-                                    "[pod] %s", memberContext.getApplicationId(), memberContext.getCartridgeType(),
-                            memberContext.getMemberId(), pod.getMetadata().getName()));
-                    return pod;
-                } else {
-                    log.info(String.format("Waiting pod status to be changed to running: [application] %s " +
-                                    "[cartridge] %s [member] %s [pod] %s", memberContext.getApplicationId(),
-                            memberContext.getCartridgeType(), memberContext.getMemberId(), pod.getMetadata().getName()));
-                }
-            } else {
-                log.info(String.format("Waiting for pod to be created: [application] %s " +
-                                "[cartridge] %s [member] %s [pod] %s", memberContext.getApplicationId(),
-                        memberContext.getCartridgeType(), memberContext.getMemberId(),
-                        memberContext.getKubernetesPodId()));
-            }
-
-            if ((System.currentTimeMillis() - startTime) > podActivationTimeout) {
-                break;
-            }
-            Thread.sleep(5000);
-        }
-
-        String message;
-        if (podCreated) {
-            // Pod created but status did not change to running
-            message = String.format("Pod status did not change to running within %d sec: " +
-                            "[application] %s [cartridge] %s [member] %s [pod] %s",
-                    (podActivationTimeout.intValue() / 1000),
-                    memberContext.getApplicationId(), memberContext.getCartridgeType(), memberContext.getMemberId(),
-                    memberContext.getKubernetesPodId());
-            log.error(message);
-        } else {
-            // Pod did not create
-            message = String.format("Pod did not create within %d sec: " +
-                            "[application] %s [cartridge] %s [member] %s [pod] %s",
-                    (podActivationTimeout.intValue() / 1000),
-                    memberContext.getApplicationId(), memberContext.getCartridgeType(), memberContext.getMemberId(),
-                    memberContext.getKubernetesPodId());
-            log.error(message);
-        }
-
-        throw new RuntimeException(message);
-    }
-
     /**
      * Create new pod and pass environment variables.
      *
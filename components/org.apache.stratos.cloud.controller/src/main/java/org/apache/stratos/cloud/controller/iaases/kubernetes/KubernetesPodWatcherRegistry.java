@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.iaases.kubernetes;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.kubernetes.client.KubernetesPodWatcher;
+import org.apache.stratos.kubernetes.client.interfaces.KubernetesAPIClientInterface;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Local registry of kubernetes pod watchers, one per kubernetes cluster. Pod watchers own a scheduler
+ * thread, hence they are kept in this node instead of the distributed kubernetes cluster contexts,
+ * which are copied on each read in clustered mode.
+ */
+public class KubernetesPodWatcherRegistry {
+
+    private static final Log log = LogFactory.getLog(KubernetesPodWatcherRegistry.class);
+
+    private static volatile KubernetesPodWatcherRegistry instance;
+
+    private final ConcurrentMap<String, PodWatcherEntry> podWatchers;
+
+    private KubernetesPodWatcherRegistry() {
+        podWatchers = new ConcurrentHashMap<String, PodWatcherEntry>();
+    }
+
+    public static KubernetesPodWatcherRegistry getInstance() {
+        if (instance == null) {
+            synchronized (KubernetesPodWatcherRegistry.class) {
+                if (instance == null) {
+                    instance = new KubernetesPodWatcherRegistry();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the pod watcher of the given kubernetes cluster, a pod watcher is created on the first request.
+     * If the kubernetes master endpoint has changed the existing pod watcher is stopped and replaced.
+     *
+     * @param kubernetesClusterId kubernetes cluster id
+     * @param endpointUrl         kubernetes master endpoint the api client connects to
+     * @param kubernetesApi       kubernetes api client of the kubernetes cluster
+     * @return pod watcher
+     */
+    public KubernetesPodWatcher getPodWatcher(String kubernetesClusterId, String endpointUrl,
+                                              KubernetesAPIClientInterface kubernetesApi) {
+        PodWatcherEntry entry = podWatchers.get(kubernetesClusterId);
+        if ((entry == null) || !entry.isEndpoint(endpointUrl)) {
+            PodWatcherEntry replacedEntry = null;
+            synchronized (this) {
+                entry = podWatchers.get(kubernetesClusterId);
+                if ((entry == null) || !entry.isEndpoint(endpointUrl)) {
+                    replacedEntry = entry;
+                    entry = new PodWatcherEntry(endpointUrl, new KubernetesPodWatcher(kubernetesApi));
+                    podWatchers.put(kubernetesClusterId, entry);
+                    if (log.isDebugEnabled()) {
+                        log.debug(String.format("Kubernetes pod watcher created: [kubernetes-cluster] %s " +
+                                "[endpoint] %s", kubernetesClusterId, endpointUrl));
+                    }
+                }
+            }
+            if (replacedEntry != null) {
+                replacedEntry.podWatcher.stop();
+                log.info(String.format("Kubernetes pod watcher replaced, master endpoint changed: " +
+                                "[kubernetes-cluster] %s [previous-endpoint] %s [endpoint] %s",
+                        kubernetesClusterId, replacedEntry.endpointUrl, endpointUrl));
+            }
+        }
+        return entry.podWatcher;
+    }
+
+    /**
+     * Stop and remove the pod watcher of the given kubernetes cluster.
+     *
+     * @param kubernetesClusterId kubernetes cluster id
+     */
+    public void removePodWatcher(String kubernetesClusterId) {
+        PodWatcherEntry entry = podWatchers.remove(kubernetesClusterId);
+        if (entry != null) {
+            entry.podWatcher.stop();
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Kubernetes pod watcher stopped: [kubernetes-cluster] %s",
+                        kubernetesClusterId));
+            }
+        }
+    }
+
+    public int getPodWatcherCount() {
+        return podWatchers.size();
+    }
+
+    /**
+     * Pod watcher together with the kubernetes master endpoint it polls.
+     */
+    private static class PodWatcherEntry {
+
+        private final String endpointUrl;
+        private final KubernetesPodWatcher podWatcher;
+
+        private PodWatcherEntry(String endpointUrl, KubernetesPodWatcher podWatcher) {
+            this.endpointUrl = endpointUrl;
+            this.podWatcher = podWatcher;
+        }
+
+        private boolean isEndpoint(String endpointUrl) {
+            return (this.endpointUrl == null) ? (endpointUrl == null) : this.endpointUrl.equals(endpointUrl);
+        }
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.stratos.cloud.controller.domain.Partition;
 import org.apache.stratos.cloud.controller.exception.*;
 import org.apache.stratos.cloud.controller.iaases.Iaas;
 import org.apache.stratos.cloud.controller.iaases.PartitionValidator;
+import org.apache.stratos.cloud.controller.util.CloudControllerConstants;
 import org.apache.stratos.mock.iaas.client.MockIaasApiClient;
 import org.apache.stratos.mock.iaas.domain.MockInstanceContext;
 import org.apache.stratos.mock.iaas.domain.MockInstanceMetadata;
@@ -64,12 +65,21 @@ public class MockIaas extends Iaas {
                 memberContext.getNetworkPartitionId(),
                 memberContext.getPartition().getId()
         );
+        mockInstanceContext.setStandby(isStandbyInstance(payload));
         setDynamicPayload(payload);
         MockInstanceMetadata mockInstanceMetadata = apiClient.startInstance(mockInstanceContext);
         memberContext.setInstanceId(mockInstanceMetadata.getInstanceId());
         return memberContext;
     }
 
+    /**
+     * Standby instances of warm pools are started with a payload starting with the standby parameter.
+     */
+    private boolean isStandbyInstance(byte[] payload) {
+        return (payload != null) &&
+                new String(payload).startsWith(CloudControllerConstants.STANDBY_PAYLOAD_PARAMETER + "=true");
+    }
+
     @Override
     public void releaseAddress(String ip) {
     }
@@ -29,6 +29,7 @@ import org.apache.stratos.cloud.controller.exception.InvalidHostException;
 import org.apache.stratos.cloud.controller.exception.InvalidRegionException;
 import org.apache.stratos.cloud.controller.exception.InvalidZoneException;
 import org.apache.stratos.cloud.controller.iaases.JcloudsIaas;
+import org.apache.stratos.cloud.controller.iaases.JcloudsTemplateCache;
 import org.apache.stratos.cloud.controller.iaases.PartitionValidator;
 import org.apache.stratos.cloud.controller.iaases.openstack.networking.NeutronNetworkingApi;
 import org.apache.stratos.cloud.controller.iaases.openstack.networking.NovaNetworkingApi;
@@ -123,7 +124,7 @@ public class OpenstackIaas extends JcloudsIaas {
             templateBuilder.hardwareId(instanceType);
         }
 
-        Template template = templateBuilder.build();
+        Template template = JcloudsTemplateCache.getInstance().getTemplate(iaasProvider, templateBuilder);
 
         // In Openstack the call to IaaS should be blocking, in order to retrieve
         // IP addresses.
@@ -178,10 +179,8 @@ public class OpenstackIaas extends JcloudsIaas {
     }
 
     @Override
-    public void setDynamicPayload(byte[] payload) {
-        if (getIaasProvider().getTemplate() != null) {
-            getIaasProvider().getTemplate().getOptions().as(NovaTemplateOptions.class).userData(payload);
-        }
+    public void setDynamicPayload(Template template, byte[] payload) {
+        template.getOptions().as(NovaTemplateOptions.class).userData(payload);
     }
 
     @Override
@@ -26,6 +26,7 @@ import org.apache.stratos.cloud.controller.domain.IaasProvider;
 import org.apache.stratos.cloud.controller.domain.NetworkInterface;
 import org.apache.stratos.cloud.controller.exception.CloudControllerException;
 import org.apache.stratos.cloud.controller.iaases.JcloudsIaas;
+import org.apache.stratos.cloud.controller.iaases.JcloudsTemplateCache;
 import org.apache.stratos.cloud.controller.iaases.PartitionValidator;
 import org.apache.stratos.cloud.controller.util.ComputeServiceBuilderUtil;
 import org.jclouds.compute.ComputeService;
@@ -103,7 +104,7 @@ public class VCloudIaas extends JcloudsIaas {
         templateBuilder.imageId(iaasInfo.getImage());
 
         // build the Template
-        Template template = templateBuilder.build();
+        Template template = JcloudsTemplateCache.getInstance().getTemplate(iaasInfo, templateBuilder);
 
         // if you wish to auto assign IPs, instance spawning call should be
         // blocking, but if you
@@ -168,11 +169,11 @@ public class VCloudIaas extends JcloudsIaas {
     }
 
     @Override
-    public void setDynamicPayload(byte[] payload) {
+    public void setDynamicPayload(Template template, byte[] payload) {
         // in vCloud case we need to run a script
         IaasProvider iaasProvider = getIaasProvider();
 
-        if (iaasProvider.getTemplate() == null || payload == null) {
+        if (payload == null) {
             if (log.isDebugEnabled()) {
                 log.debug("Payload for vCloud not found");
             }
@@ -199,8 +200,6 @@ public class VCloudIaas extends JcloudsIaas {
             log.debug(String.format("Payload '%s' will be used for vCloud Customization script", payload));
         }
 
-        Template template = iaasProvider.getTemplate();
-
         File scriptPath = new File(CarbonUtils.getCarbonConfigDirPath(), SCRIPTS_PATH);
 
         File customizationScriptFile = new File(new File(scriptPath, shellType), CUSTOMIZATION_SCRIPT);
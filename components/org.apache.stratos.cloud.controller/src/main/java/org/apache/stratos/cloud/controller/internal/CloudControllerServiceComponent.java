@@ -32,6 +32,7 @@ import org.apache.stratos.cloud.controller.messaging.receiver.cluster.status.Clu
 import org.apache.stratos.cloud.controller.messaging.receiver.instance.status.InstanceStatusTopicReceiver;
 import org.apache.stratos.cloud.controller.services.CloudControllerService;
 import org.apache.stratos.cloud.controller.services.impl.CloudControllerServiceImpl;
+import org.apache.stratos.cloud.controller.warmpool.WarmPoolManager;
 import org.apache.stratos.common.Component;
 import org.apache.stratos.common.services.ComponentActivationEventListener;
 import org.apache.stratos.common.services.ComponentStartUpSynchronizer;
@@ -266,6 +267,13 @@ public class CloudControllerServiceComponent {
             log.warn("An error occurred while closing cloud controller topology event publisher", e);
         }
 
+        // Terminate standby instances of the warm pools
+        try {
+            WarmPoolManager.getInstance().shutdown();
+        } catch (Exception e) {
+            log.warn("An error occurred while terminating standby instances of warm pools", e);
+        }
+
         // Shutdown executor service
         shutdownExecutorService(THREAD_POOL_ID);
 
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.messaging.publisher;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.cloud.controller.domain.MemberContext;
+import org.apache.stratos.messaging.broker.publish.EventPublisher;
+import org.apache.stratos.messaging.broker.publish.EventPublisherPool;
+import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.event.instance.notifier.StandbyInstanceAssignedEvent;
+import org.apache.stratos.messaging.util.MessagingUtil;
+
+/**
+ * this is to send the relevant events from cloud controller to instance notifier topic
+ */
+public class InstanceNotifierEventPublisher {
+    private static final Log log = LogFactory.getLog(InstanceNotifierEventPublisher.class);
+
+    /**
+     * Notify a standby instance that it has been assigned to the given member.
+     *
+     * @param standbyMemberId member id the standby instance was started with
+     * @param memberContext   member context of the new member
+     * @param payload         payload of the new member
+     */
+    public static void sendStandbyInstanceAssignedEvent(String standbyMemberId, MemberContext memberContext,
+                                                        String payload) {
+        StandbyInstanceAssignedEvent event = new StandbyInstanceAssignedEvent(standbyMemberId,
+                memberContext.getApplicationId(), memberContext.getClusterId(),
+                memberContext.getClusterInstanceId(), memberContext.getMemberId(), payload);
+
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Publishing standby instance assigned event: [standby-member-id] %s " +
+                            "[cluster-id] %s [member-id] %s", standbyMemberId, memberContext.getClusterId(),
+                    memberContext.getMemberId()));
+        }
+        publishEvent(event);
+    }
+
+    private static void publishEvent(Event event) {
+        String topic = MessagingUtil.getMessageTopicName(event);
+        EventPublisher eventPublisher = EventPublisherPool.getPublisher(topic);
+        eventPublisher.publish(event);
+    }
+}
@@ -224,6 +224,23 @@ public interface CloudControllerService {
      */
     String[] getCartridges();
 
+    /**
+     * Returns the {@link org.apache.stratos.cloud.controller.domain.Cartridge}s of the given types in a single
+     * call. Types which are not registered in Cloud Controller are skipped.
+     *
+     * @param cartridgeTypes types of the cartridges.
+     * @return array of {@link org.apache.stratos.cloud.controller.domain.Cartridge}s found.
+     */
+    Cartridge[] getCartridgesByTypes(String[] cartridgeTypes);
+
+    /**
+     * Returns all {@link org.apache.stratos.cloud.controller.domain.Cartridge}s registered in Cloud Controller
+     * in a single call.
+     *
+     * @return array of registered {@link org.apache.stratos.cloud.controller.domain.Cartridge}s.
+     */
+    Cartridge[] getAllCartridges();
+
     /**
      * Returns the {@link org.apache.stratos.cloud.controller.domain.ClusterContext} object associated with the given cluster id, or null if not found
      *
@@ -400,4 +417,9 @@ public interface CloudControllerService {
      */
     public String[] getIaasProviders();
 
+    /**
+     * Returns the hit, miss and eviction counts of the jclouds template cache
+     */
+    TemplateCacheStatistics getTemplateCacheStatistics();
+
 }
\ No newline at end of file
@@ -21,7 +21,7 @@ package org.apache.stratos.cloud.controller.services.impl;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.stratos.cloud.controller.concurrent.PartitionValidatorCallable;
+import org.apache.stratos.cloud.controller.concurrent.PartitionValidationService;
 import org.apache.stratos.cloud.controller.config.CloudControllerConfig;
 import org.apache.stratos.cloud.controller.context.CloudControllerContext;
 import org.apache.stratos.cloud.controller.domain.*;
@@ -30,11 +30,16 @@ import org.apache.stratos.cloud.controller.domain.kubernetes.KubernetesHost;
 import org.apache.stratos.cloud.controller.domain.kubernetes.KubernetesMaster;
 import org.apache.stratos.cloud.controller.exception.*;
 import org.apache.stratos.cloud.controller.iaases.Iaas;
+import org.apache.stratos.cloud.controller.iaases.JcloudsTemplateCache;
+import org.apache.stratos.cloud.controller.iaases.kubernetes.KubernetesPodWatcherRegistry;
 import org.apache.stratos.cloud.controller.messaging.topology.TopologyBuilder;
 import org.apache.stratos.cloud.controller.messaging.topology.TopologyManager;
 import org.apache.stratos.cloud.controller.services.CloudControllerService;
 import org.apache.stratos.cloud.controller.util.CloudControllerUtil;
+import org.apache.stratos.cloud.controller.warmpool.StandbyInstance;
+import org.apache.stratos.cloud.controller.warmpool.WarmPoolManager;
 import org.apache.stratos.common.Property;
+import org.apache.stratos.common.concurrent.locks.LockBatch;
 import org.apache.stratos.common.domain.LoadBalancingIPType;
 import org.apache.stratos.common.threading.StratosThreadPool;
 import org.apache.stratos.messaging.domain.topology.*;
@@ -43,10 +48,8 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 import java.util.concurrent.locks.Lock;
 
 /**
@@ -139,6 +142,8 @@ public class CloudControllerServiceImpl implements CloudControllerService {
                 removeCartridgeFromCC(cartridgeToBeRemoved.getType());
             } catch (InvalidCartridgeTypeException ignore) {
             }
+            // Standby instances were started with the previous cartridge definition
+            WarmPoolManager.getInstance().removeWarmPools(cartridgeType);
             copyIaasProviders(cartridge, cartridgeToBeRemoved);
         } else {
             throw new CartridgeDefinitionNotExistsException("This cartridge definition not exists");
@@ -185,6 +190,8 @@ public class CloudControllerServiceImpl implements CloudControllerService {
     public boolean removeCartridge(String cartridgeType) throws InvalidCartridgeTypeException {
         //Removing the cartridge from CC
         Cartridge cartridge = removeCartridgeFromCC(cartridgeType);
+        //Terminating the standby instances of the cartridge
+        WarmPoolManager.getInstance().removeWarmPools(cartridgeType);
         //removing the cartridge from Topology
         removeCartridgeFromTopology(cartridge);
 
@@ -200,6 +207,9 @@ public class CloudControllerServiceImpl implements CloudControllerService {
             if (CloudControllerContext.getInstance().getCartridges().remove(cartridge)) {
                 // invalidate partition validation cache
                 CloudControllerContext.getInstance().removeFromCartridgeTypeToPartitionIds(cartridgeType);
+                PartitionValidationService.getInstance().invalidate(cartridgeType);
+
+                invalidateJcloudsTemplateCache(cartridgeType);
 
                 if (log.isDebugEnabled()) {
                     log.debug("Partition cache invalidated for cartridge " + cartridgeType);
@@ -460,7 +470,14 @@ public class CloudControllerServiceImpl implements CloudControllerService {
                                 "[member] %s [application-id] %s", instanceContext.getClusterId(),
                         instanceContext.getClusterInstanceId(), memberId, applicationId));
             }
-            executorService.execute(new InstanceCreator(memberContext, iaasProvider, payload.toString().getBytes()));
+            // Take a standby instance from the warm pool if available, containers are not pooled
+            StandbyInstance standbyInstance = null;
+            if (StringUtils.isBlank(clusterContext.getKubernetesClusterId())) {
+                standbyInstance = WarmPoolManager.getInstance().acquire(cartridge, iaasProvider, networkPartition,
+                        memberContext.getPartition());
+            }
+            executorService.execute(new InstanceCreator(memberContext, iaasProvider, payload.toString().getBytes(),
+                    standbyInstance));
 
             return memberContext;
         } catch (Exception e) {
@@ -749,6 +766,34 @@ public class CloudControllerServiceImpl implements CloudControllerService {
         return cartridgeTypes;
     }
 
+    @Override
+    public Cartridge[] getCartridgesByTypes(String[] cartridgeTypes) {
+        if (cartridgeTypes == null) {
+            return new Cartridge[0];
+        }
+
+        List<Cartridge> cartridges = new ArrayList<Cartridge>(cartridgeTypes.length);
+        for (String cartridgeType : cartridgeTypes) {
+            Cartridge cartridge = CloudControllerContext.getInstance().getCartridge(cartridgeType);
+            if (cartridge != null) {
+                cartridges.add(cartridge);
+            } else if (log.isDebugEnabled()) {
+                log.debug("Could not find cartridge: [cartridge-type] " + cartridgeType);
+            }
+        }
+        return cartridges.toArray(new Cartridge[cartridges.size()]);
+    }
+
+    @Override
+    public Cartridge[] getAllCartridges() {
+        Collection<Cartridge> cartridges = CloudControllerContext.getInstance().getCartridges();
+        if (cartridges == null) {
+            log.info("No registered Cartridge found.");
+            return new Cartridge[0];
+        }
+        return cartridges.toArray(new Cartridge[cartridges.size()]);
+    }
+
     @Override
     public Cartridge getCartridge(String cartridgeType) throws CartridgeNotFoundException {
         Cartridge cartridge = CloudControllerContext.getInstance().getCartridge(cartridgeType);
@@ -823,70 +868,63 @@ public class CloudControllerServiceImpl implements CloudControllerService {
         };
         Runnable unregister = new Runnable() {
             public void run() {
-                Lock lock = null;
-                try {
-                    lock = CloudControllerContext.getInstance().acquireClusterContextWriteLock();
-                    ClusterContext ctxt = CloudControllerContext.getInstance().getClusterContext(clusterId_);
-                    if (ctxt == null) {
-                        String msg = String.format("Service unregistration failed. Cluster not found: [cluster-id] %s " +
-                                "[application-id] %s ", clusterId_, ctxt.getApplicationId());
-                        log.error(msg);
-                        return;
-                    }
-                    Collection<Member> members = TopologyManager.getTopology().
-                            getService(ctxt.getCartridgeType()).getCluster(clusterId_).getMembers();
+                ClusterContext ctxt = CloudControllerContext.getInstance().getClusterContext(clusterId_);
+                if (ctxt == null) {
+                    String msg = String.format("Service unregistration failed. Cluster not found: [cluster-id] %s ",
+                            clusterId_);
+                    log.error(msg);
+                    return;
+                }
+                Collection<Member> members = TopologyManager.getTopology().
+                        getService(ctxt.getCartridgeType()).getCluster(clusterId_).getMembers();
 
-                    while (members.size() > 0) {
-                        //waiting until all the members got removed from the Topology/ timed out
-                        CloudControllerUtil.sleep(1000);
-                    }
+                while (members.size() > 0) {
+                    //waiting until all the members got removed from the Topology/ timed out
+                    CloudControllerUtil.sleep(1000);
+                }
 
+                // The cluster context lock is not held while waiting for the members to be removed,
+                // cluster context and cartridges are then updated holding both locks
+                LockBatch lockBatch = null;
+                try {
+                    lockBatch = CloudControllerContext.getInstance().acquireClusterContextAndCartridgesWriteLocks();
                     log.info(String.format("Unregistration of service cluster: [cluster-id] %s [application-id]",
                             clusterId_, ctxt.getApplicationId()));
                     deleteVolumes(ctxt);
                     onClusterRemoval(clusterId_);
                 } finally {
-                    if (lock != null) {
-                        CloudControllerContext.getInstance().releaseWriteLock(lock);
+                    if (lockBatch != null) {
+                        CloudControllerContext.getInstance().releaseWriteLocks(lockBatch);
                     }
                 }
             }
 
             private void deleteVolumes(ClusterContext ctxt) {
                 if (ctxt.isVolumeRequired()) {
-                    Lock lock = null;
-                    try {
-                        lock = CloudControllerContext.getInstance().acquireCartridgesWriteLock();
-
-                        Cartridge cartridge = CloudControllerContext.getInstance().getCartridge(ctxt.getCartridgeType());
-                        if (cartridge != null && CloudControllerContext.getInstance().getIaasProviders(cartridge.getType()) != null && ctxt.getVolumes() != null) {
-                            for (Volume volume : ctxt.getVolumes()) {
-                                if (volume.getId() != null) {
-                                    String iaasType = volume.getIaasType();
-                                    Iaas iaas = CloudControllerContext.getInstance().getIaasProvider(cartridge.getType(), iaasType).getIaas();
-                                    if (iaas != null) {
-                                        try {
-                                            // delete the volumes if remove on unsubscription is true.
-                                            if (volume.isRemoveOntermination()) {
-                                                iaas.deleteVolume(volume.getId());
-                                                volume.setId(null);
-                                            }
-                                        } catch (Exception ignore) {
-                                            if (log.isErrorEnabled()) {
-                                                log.error((String.format("Error while deleting volume [id] %s " +
-                                                                "[application-id]", volume.getId(), ctxt.getApplicationId())),
-                                                        ignore);
-                                            }
+                    Cartridge cartridge = CloudControllerContext.getInstance().getCartridge(ctxt.getCartridgeType());
+                    if (cartridge != null && CloudControllerContext.getInstance().getIaasProviders(cartridge.getType()) != null && ctxt.getVolumes() != null) {
+                        for (Volume volume : ctxt.getVolumes()) {
+                            if (volume.getId() != null) {
+                                String iaasType = volume.getIaasType();
+                                Iaas iaas = CloudControllerContext.getInstance().getIaasProvider(cartridge.getType(), iaasType).getIaas();
+                                if (iaas != null) {
+                                    try {
+                                        // delete the volumes if remove on unsubscription is true.
+                                        if (volume.isRemoveOntermination()) {
+                                            iaas.deleteVolume(volume.getId());
+                                            volume.setId(null);
+                                        }
+                                    } catch (Exception ignore) {
+                                        if (log.isErrorEnabled()) {
+                                            log.error((String.format("Error while deleting volume [id] %s " +
+                                                            "[application-id]", volume.getId(), ctxt.getApplicationId())),
+                                                    ignore);
                                         }
                                     }
                                 }
                             }
-                            CloudControllerContext.getInstance().updateCartridge(cartridge);
-                        }
-                    } finally {
-                        if (lock != null) {
-                            CloudControllerContext.getInstance().releaseWriteLock(lock);
                         }
+                        CloudControllerContext.getInstance().updateCartridge(cartridge);
                     }
                 }
             }
@@ -930,7 +968,7 @@ public class CloudControllerServiceImpl implements CloudControllerService {
                 throw new InvalidCartridgeTypeException(msg);
             }
 
-            Map<String, Future<IaasProvider>> jobList = new HashMap<String, Future<IaasProvider>>();
+            List<Partition> partitionsToValidate = new ArrayList<Partition>();
             for (Partition partition : networkPartition.getPartitions()) {
                 if (validatedPartitions != null && validatedPartitions.contains(partition.getId())) {
                     // partition cache hit
@@ -940,38 +978,23 @@ public class CloudControllerServiceImpl implements CloudControllerService {
                     partitionToIaasProviders.put(partition.getId(), iaasProvider);
                     continue;
                 }
-
-                Callable<IaasProvider> worker = new PartitionValidatorCallable(partition, cartridge);
-                Future<IaasProvider> job = CloudControllerContext.getInstance()
-                        .getExecutorService().submit(worker);
-                jobList.put(partition.getId(), job);
+                partitionsToValidate.add(partition);
             }
 
-            // Retrieve the results of the concurrently performed sanity checks.
-            for (Entry<String, Future<IaasProvider>> entry : jobList.entrySet()) {
-                if (entry == null) {
-                    continue;
-                }
-                String partitionId = entry.getKey();
-                Future<IaasProvider> job = entry.getValue();
-                try {
-                    // add to a temporary Map
-                    IaasProvider iaasProvider = job.get();
-                    if (iaasProvider != null) {
-                        partitionToIaasProviders.put(partitionId, iaasProvider);
-                    }
+            // Identical partitions are validated once, the checks are performed concurrently
+            Map<String, IaasProvider> validatedIaasProviders = PartitionValidationService.getInstance()
+                    .validatePartitions(cartridgeType, partitionsToValidate.toArray(
+                            new Partition[partitionsToValidate.size()]));
+            partitionToIaasProviders.putAll(validatedIaasProviders);
 
-                    // add to cache
-                    CloudControllerContext.getInstance().addToCartridgeTypeToPartitionIdMap(cartridgeType, partitionId);
+            for (Partition partition : partitionsToValidate) {
+                // add to cache
+                CloudControllerContext.getInstance().addToCartridgeTypeToPartitionIdMap(cartridgeType,
+                        partition.getId());
 
-                    if (log.isDebugEnabled()) {
-                        log.debug("Partition " + partitionId + " added to the cache against cartridge: " +
-                                "[cartridge-type] " + cartridgeType);
-                    }
-                } catch (Exception e) {
-                    String message = "Could not cache partitions against the cartridge: [cartridge-type] " + cartridgeType;
-                    log.error(message, e);
-                    throw new InvalidPartitionException(message, e);
+                if (log.isDebugEnabled()) {
+                    log.debug("Partition " + partition.getId() + " added to the cache against cartridge: " +
+                            "[cartridge-type] " + cartridgeType);
                 }
             }
 
@@ -1305,6 +1328,7 @@ public class CloudControllerServiceImpl implements CloudControllerService {
             }
             // Remove entry from information model
             CloudControllerContext.getInstance().removeKubernetesCluster(kubernetesClusterId);
+            KubernetesPodWatcherRegistry.getInstance().removePodWatcher(kubernetesClusterId);
 
             if (log.isInfoEnabled()) {
                 log.info(String.format("Kubernetes cluster removed successfully: [id] %s", kubernetesClusterId));
@@ -1520,10 +1544,12 @@ public class CloudControllerServiceImpl implements CloudControllerService {
                 log.error(message);
                 throw new NetworkPartitionNotExistsException(message);
             }
+            invalidateJcloudsTemplateCache(cloudControllerContext.getNetworkPartition(networkPartitionId));
             // removing from CC-Context
             CloudControllerContext.getInstance().removeNetworkPartition(networkPartitionId);
             // persisting CC-Context
             CloudControllerContext.getInstance().persist();
+            PartitionValidationService.getInstance().invalidate();
             if (log.isInfoEnabled()) {
                 log.info(String.format("Network partition removed successfully: [network-partition-id] %s",
                         networkPartitionId));
@@ -1571,10 +1597,14 @@ public class CloudControllerServiceImpl implements CloudControllerService {
                 }
             }
 
+            // Templates resolved for the partitions of the previous definition are no longer valid
+            invalidateJcloudsTemplateCache(cloudControllerContext.getNetworkPartition(networkPartitionID));
+            invalidateJcloudsTemplateCache(networkPartition);
             // overriding network partition to CC-Context
             CloudControllerContext.getInstance().addNetworkPartition(networkPartition);
             // persisting CC-Context
             CloudControllerContext.getInstance().persist();
+            PartitionValidationService.getInstance().invalidate();
             if (log.isInfoEnabled()) {
                 log.info(String.format("Network partition updated successfully: [network-partition-id] %s",
                         networkPartition.getId()));
@@ -1631,4 +1661,47 @@ public class CloudControllerServiceImpl implements CloudControllerService {
 
     }
 
+    @Override
+    public TemplateCacheStatistics getTemplateCacheStatistics() {
+        return JcloudsTemplateCache.getInstance().getStatistics();
+    }
+
+    /**
+     * Evict the jclouds templates of the iaas providers of the given cartridge.
+     */
+    private void invalidateJcloudsTemplateCache(String cartridgeType) {
+        CloudControllerContext context = CloudControllerContext.getInstance();
+        List<IaasProvider> iaasProviders = context.getIaasProviders(cartridgeType);
+        if (iaasProviders != null) {
+            for (IaasProvider iaasProvider : iaasProviders) {
+                JcloudsTemplateCache.getInstance().invalidate(iaasProvider);
+            }
+        }
+        Map<String, IaasProvider> partitionToIaasProvider = context.getPartitionToIaasProvider(cartridgeType);
+        if (partitionToIaasProvider != null) {
+            for (IaasProvider iaasProvider : partitionToIaasProvider.values()) {
+                JcloudsTemplateCache.getInstance().invalidate(iaasProvider);
+            }
+        }
+    }
+
+    /**
+     * Evict the jclouds templates of the iaas providers of the partitions of the given network partition.
+     */
+    private void invalidateJcloudsTemplateCache(NetworkPartition networkPartition) {
+        if ((networkPartition == null) || (networkPartition.getPartitions() == null)) {
+            return;
+        }
+        CloudControllerContext context = CloudControllerContext.getInstance();
+        for (Map<String, IaasProvider> partitionToIaasProvider :
+                context.getPartitionToIaasProviderByCartridge().values()) {
+            for (Partition partition : networkPartition.getPartitions()) {
+                IaasProvider iaasProvider = (partition != null) ? partitionToIaasProvider.get(partition.getId()) : null;
+                if (iaasProvider != null) {
+                    JcloudsTemplateCache.getInstance().invalidate(iaasProvider);
+                }
+            }
+        }
+    }
+
 }
@@ -24,40 +24,47 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.cloud.controller.context.CloudControllerContext;
 import org.apache.stratos.cloud.controller.domain.*;
-import org.apache.stratos.cloud.controller.exception.CartridgeNotFoundException;
 import org.apache.stratos.cloud.controller.iaases.Iaas;
+import org.apache.stratos.cloud.controller.iaases.InstanceStartCallback;
+import org.apache.stratos.cloud.controller.iaases.InstanceStartRequest;
+import org.apache.stratos.cloud.controller.messaging.publisher.InstanceNotifierEventPublisher;
 import org.apache.stratos.cloud.controller.messaging.topology.TopologyBuilder;
 import org.apache.stratos.cloud.controller.statistics.publisher.BAMUsageDataPublisher;
+import org.apache.stratos.cloud.controller.warmpool.StandbyInstance;
 import org.apache.stratos.messaging.domain.topology.MemberStatus;
 
 import java.util.concurrent.locks.Lock;
 
 /**
- * Instance creator runnable.
+ * Instance creator runnable. Requests the iaas to start the instance, batched with other start-up
+ * requests of the same iaas, and completes the member initialization once the iaas notifies that
+ * the instance is started. If a standby instance of the warm pool is given, the member is bound to
+ * it instead and the payload is pushed to the standby instance via the instance notifier topic.
  */
-public class InstanceCreator implements Runnable {
+public class InstanceCreator implements Runnable, InstanceStartCallback {
 
     private static final Log log = LogFactory.getLog(InstanceCreator.class);
 
     private MemberContext memberContext;
     private IaasProvider iaasProvider;
     private byte[] payload;
+    private StandbyInstance standbyInstance;
 
     public InstanceCreator(MemberContext memberContext, IaasProvider iaasProvider, byte[] payload) {
+        this(memberContext, iaasProvider, payload, null);
+    }
+
+    public InstanceCreator(MemberContext memberContext, IaasProvider iaasProvider, byte[] payload,
+                           StandbyInstance standbyInstance) {
         this.memberContext = memberContext;
         this.iaasProvider = iaasProvider;
         this.payload = payload;
+        this.standbyInstance = standbyInstance;
     }
 
     @Override
     public void run() {
-        Lock lock = null;
         try {
-            lock = CloudControllerContext.getInstance().acquireMemberContextWriteLock();
-
-            String clusterId = memberContext.getClusterId();
-            Partition partition = memberContext.getPartition();
-            ClusterContext clusterContext = CloudControllerContext.getInstance().getClusterContext(clusterId);
             Iaas iaas = iaasProvider.getIaas();
 
             if (log.isDebugEnabled()) {
@@ -65,7 +72,30 @@ public class InstanceCreator implements Runnable {
                 log.debug(String.format("Payload passed to instance created, [member] %s [payload] %s",
                         memberContext.getMemberId(), new String(payload)));
             }
-            memberContext = startInstance(iaas, memberContext, payload);
+            if (standbyInstance != null) {
+                bindStandbyInstance();
+                return;
+            }
+            InstanceStartBatcher.getInstance().submit(iaas, new InstanceStartRequest(memberContext, payload, this));
+        } catch (Exception e) {
+            String message = String.format("Could not start instance: [cartridge-type] %s [cluster-id] %s",
+                    memberContext.getCartridgeType(), memberContext.getClusterId());
+            log.error(message, e);
+        }
+    }
+
+    @Override
+    public void onInstanceStarted(MemberContext startedMemberContext) {
+        Lock lock = null;
+        try {
+            lock = CloudControllerContext.getInstance().acquireMemberContextWriteLock();
+
+            String clusterId = startedMemberContext.getClusterId();
+            Partition partition = startedMemberContext.getPartition();
+            ClusterContext clusterContext = CloudControllerContext.getInstance().getClusterContext(clusterId);
+            Iaas iaas = iaasProvider.getIaas();
+
+            memberContext = updateMemberContext(startedMemberContext);
 
             if (log.isInfoEnabled()) {
                 log.info(String.format("Instance started successfully: [cartridge-type] %s [cluster-id] %s [instance-id] %s " +
@@ -79,8 +109,10 @@ public class InstanceCreator implements Runnable {
                 attachVolumes(iaas, clusterContext, memberContext);
             }
 
-            // Allocate IP addresses
-            iaas.allocateIpAddresses(clusterId, memberContext, partition);
+            // Allocate IP addresses, standby instances got their addresses when they were started
+            if (standbyInstance == null) {
+                iaas.allocateIpAddresses(clusterId, memberContext, partition);
+            }
 
             // Update topology
             TopologyBuilder.handleMemberInitializedEvent(memberContext);
@@ -94,10 +126,14 @@ public class InstanceCreator implements Runnable {
                     memberContext.getCartridgeType(),
                     MemberStatus.Initialized.toString(),
                     memberContext.getInstanceMetadata());
+
+            if (standbyInstance != null) {
+                // Member is initialized in the topology, the standby instance can take it over
+                InstanceNotifierEventPublisher.sendStandbyInstanceAssignedEvent(standbyInstance.getMemberId(),
+                        memberContext, new String(payload));
+            }
         } catch (Exception e) {
-            String message = String.format("Could not start instance: [cartridge-type] %s [cluster-id] %s",
-                    memberContext.getCartridgeType(), memberContext.getClusterId());
-            log.error(message, e);
+            onInstanceStartFailed(startedMemberContext, e);
         } finally {
             if (lock != null) {
                 CloudControllerContext.getInstance().releaseWriteLock(lock);
@@ -105,9 +141,36 @@ public class InstanceCreator implements Runnable {
         }
     }
 
-    private MemberContext startInstance(Iaas iaas, MemberContext memberContext, byte[] payload) throws CartridgeNotFoundException {
-        memberContext = iaas.startInstance(memberContext, payload);
+    @Override
+    public void onInstanceStartFailed(MemberContext memberContext, Exception e) {
+        String message = String.format("Could not start instance: [cartridge-type] %s [cluster-id] %s",
+                memberContext.getCartridgeType(), memberContext.getClusterId());
+        log.error(message, e);
+    }
+
+    /**
+     * Bind the member to the standby instance by taking over its instance id, ip addresses and
+     * instance metadata.
+     */
+    private void bindStandbyInstance() {
+        MemberContext standbyMemberContext = standbyInstance.getMemberContext();
+        memberContext.setInstanceId(standbyMemberContext.getInstanceId());
+        memberContext.setDefaultPrivateIP(standbyMemberContext.getDefaultPrivateIP());
+        memberContext.setDefaultPublicIP(standbyMemberContext.getDefaultPublicIP());
+        memberContext.setPrivateIPs(standbyMemberContext.getPrivateIPs());
+        memberContext.setPublicIPs(standbyMemberContext.getPublicIPs());
+        memberContext.setAllocatedIPs(standbyMemberContext.getAllocatedIPs());
+        memberContext.setInstanceMetadata(standbyMemberContext.getInstanceMetadata());
+
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Binding member to standby instance: [cartridge-type] %s [cluster-id] %s " +
+                            "[member-id] %s [instance-id] %s", memberContext.getCartridgeType(),
+                    memberContext.getClusterId(), memberContext.getMemberId(), memberContext.getInstanceId()));
+        }
+        onInstanceStarted(memberContext);
+    }
 
+    private MemberContext updateMemberContext(MemberContext memberContext) {
         // Validate instance id
         String instanceId = memberContext.getInstanceId();
         if (StringUtils.isBlank(instanceId)) {
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.services.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.cloud.controller.context.CloudControllerContext;
+import org.apache.stratos.cloud.controller.iaases.Iaas;
+import org.apache.stratos.cloud.controller.iaases.InstanceStartRequest;
+import org.apache.stratos.common.threading.StratosThreadPool;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Hands instance start requests over to the iaas in bulk. A request is started right away if no
+ * start-up call is in progress for its iaas; requests received while a call is in progress are
+ * collected and started together once that call returns. Hence requests are not delayed when the
+ * cloud controller is idle, and are batched while it is under load. Start-up calls run on a thread
+ * pool, its size can be configured via the instance.start.batcher.thread.pool.size system property.
+ */
+public class InstanceStartBatcher {
+
+    private static final Log log = LogFactory.getLog(InstanceStartBatcher.class);
+
+    private static final String INSTANCE_START_BATCHER_THREAD_POOL_ID = "instance.start.batcher.thread.pool";
+    private static final String INSTANCE_START_BATCHER_THREAD_POOL_SIZE = "instance.start.batcher.thread.pool.size";
+    private static final int DEFAULT_INSTANCE_START_BATCHER_THREAD_POOL_SIZE = 10;
+
+    private static volatile InstanceStartBatcher instance;
+
+    private final Map<Iaas, List<InstanceStartRequest>> pendingRequests;
+    private final Set<Iaas> activeIaases;
+    private final ExecutorService executorService;
+
+    private InstanceStartBatcher() {
+        pendingRequests = new HashMap<Iaas, List<InstanceStartRequest>>();
+        activeIaases = new HashSet<Iaas>();
+        executorService = StratosThreadPool.getExecutorService(INSTANCE_START_BATCHER_THREAD_POOL_ID,
+                Integer.getInteger(INSTANCE_START_BATCHER_THREAD_POOL_SIZE,
+                        DEFAULT_INSTANCE_START_BATCHER_THREAD_POOL_SIZE));
+    }
+
+    public static InstanceStartBatcher getInstance() {
+        if (instance == null) {
+            synchronized (InstanceStartBatcher.class) {
+                if (instance == null) {
+                    instance = new InstanceStartBatcher();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Queue an instance start request. If no start-up call is in progress for the iaas, a task
+     * is submitted to start the queued requests of the iaas until none are left.
+     *
+     * @param iaas    iaas of the member
+     * @param request instance start request
+     */
+    public void submit(final Iaas iaas, InstanceStartRequest request) {
+        synchronized (pendingRequests) {
+            List<InstanceStartRequest> requests = pendingRequests.get(iaas);
+            if (requests == null) {
+                requests = new ArrayList<InstanceStartRequest>();
+                pendingRequests.put(iaas, requests);
+            }
+            requests.add(request);
+            if (!activeIaases.add(iaas)) {
+                // The running task of the iaas picks up the request
+                return;
+            }
+        }
+
+        executorService.execute(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    List<InstanceStartRequest> requests;
+                    synchronized (pendingRequests) {
+                        requests = pendingRequests.remove(iaas);
+                        if (requests == null) {
+                            activeIaases.remove(iaas);
+                            return;
+                        }
+                    }
+                    startInstances(iaas, requests);
+                }
+            }
+        });
+    }
+
+    private void startInstances(Iaas iaas, List<InstanceStartRequest> requests) {
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Starting instances: [iaas] %s [count] %d",
+                    iaas.getIaasProvider().getType(), requests.size()));
+        }
+
+        Lock lock = null;
+        try {
+            lock = CloudControllerContext.getInstance().acquireMemberContextWriteLock();
+            iaas.startInstances(requests);
+        } catch (Exception e) {
+            log.error(String.format("Could not start instances: [iaas] %s [count] %d",
+                    iaas.getIaasProvider().getType(), requests.size()), e);
+        } finally {
+            if (lock != null) {
+                CloudControllerContext.getInstance().releaseWriteLock(lock);
+            }
+        }
+    }
+}
@@ -127,6 +127,7 @@ public final class CloudControllerConstants {
      * Properties
      */
     public static final String REGION_PROPERTY = "region";
+    public static final String ZONE_PROPERTY = "zone";
     public static final String TOPICS_PROPERTY = "topics";
     public static final String PUBLIC_IP_PROPERTY = "public_ip";
     public static final String TENANT_ID_PROPERTY = "tenant_id";
@@ -301,4 +302,19 @@ public final class CloudControllerConstants {
     public static final String LOADBALANCING_IP_TYPE_PRIVATE = "private";
     public static final String LOADBALANCING_IP_TYPE_PUBLIC = "public";
 
+    /**
+     * Warm pool
+     */
+    public static final String WARM_POOL_SIZE = "warm.pool.size";
+    public static final String WARM_POOL_INSTANCE_TTL = "warm.pool.instance.ttl";
+    public static final String WARM_POOL_MAINTENANCE_INTERVAL = "warm.pool.maintenance.interval";
+    public static final String STANDBY_PAYLOAD_PARAMETER = "STANDBY";
+
+    /**
+     * Partition validation
+     */
+    public static final String PARTITION_VALIDATION_THREAD_POOL_SIZE = "partition.validation.thread.pool.size";
+    public static final String PARTITION_VALIDATION_TIMEOUT = "partition.validation.timeout";
+    public static final String PARTITION_VALIDATION_CACHE_TTL = "partition.validation.cache.ttl";
+
 }
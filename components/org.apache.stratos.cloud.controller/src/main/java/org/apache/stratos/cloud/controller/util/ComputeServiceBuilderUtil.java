@@ -24,6 +24,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.cloud.controller.domain.IaasProvider;
 import org.apache.stratos.cloud.controller.exception.CloudControllerException;
+import org.apache.stratos.cloud.controller.iaases.JcloudsTemplateCache;
 import org.jclouds.ContextBuilder;
 import org.jclouds.compute.ComputeService;
 import org.jclouds.compute.ComputeServiceContext;
@@ -64,7 +65,24 @@ public class ComputeServiceBuilderUtil {
     }
 
 
+    /**
+     * Returns the compute service of the given iaas provider. Compute services are cached and
+     * shared among iaas providers having the same provider, credentials and properties.
+     *
+     * @param iaasProvider iaas provider
+     * @return compute service
+     */
     public static ComputeService buildDefaultComputeService(IaasProvider iaasProvider) {
+        return JcloudsTemplateCache.getInstance().getComputeService(iaasProvider);
+    }
+
+    /**
+     * Creates a new compute service for the given iaas provider.
+     *
+     * @param iaasProvider iaas provider
+     * @return compute service
+     */
+    public static ComputeService createComputeService(IaasProvider iaasProvider) {
 
         Properties properties = new Properties();
 
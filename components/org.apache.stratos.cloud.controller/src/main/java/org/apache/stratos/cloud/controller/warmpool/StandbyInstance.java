@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.warmpool;
+
+import org.apache.stratos.cloud.controller.domain.MemberContext;
+
+/**
+ * A booted instance which is not yet assigned to a cluster. The member context holds the
+ * instance id and the ip addresses allocated when the instance was started.
+ */
+public class StandbyInstance {
+
+    private final MemberContext memberContext;
+    private final long startedTime;
+
+    public StandbyInstance(MemberContext memberContext) {
+        this.memberContext = memberContext;
+        this.startedTime = System.currentTimeMillis();
+    }
+
+    public MemberContext getMemberContext() {
+        return memberContext;
+    }
+
+    /**
+     * @return member id the standby instance was started with
+     */
+    public String getMemberId() {
+        return memberContext.getMemberId();
+    }
+
+    public String getInstanceId() {
+        return memberContext.getInstanceId();
+    }
+
+    public long getStartedTime() {
+        return startedTime;
+    }
+
+    public boolean isExpired(long timeToLive) {
+        return (System.currentTimeMillis() - startedTime) > timeToLive;
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.warmpool;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.cloud.controller.domain.IaasProvider;
+import org.apache.stratos.cloud.controller.domain.MemberContext;
+import org.apache.stratos.cloud.controller.domain.Partition;
+import org.apache.stratos.cloud.controller.iaases.Iaas;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Pool of booted but unassigned instances of a cartridge in a partition. Standby instances are
+ * started asynchronously until the pool reaches its size and are handed over to new members on
+ * a first in first out basis. Idle standby instances are terminated once their time to live
+ * elapses and replaced on the next refill.
+ */
+public class WarmPool {
+
+    private static final Log log = LogFactory.getLog(WarmPool.class);
+
+    private static final String STANDBY_CLUSTER_ID_PREFIX = "standby-";
+
+    private final String cartridgeType;
+    private final String networkPartitionId;
+    private final Partition partition;
+    private final IaasProvider iaasProvider;
+    private final String payload;
+    private final long instanceTtl;
+    private final LinkedList<StandbyInstance> idleInstances;
+    private int pendingCount;
+    private int size;
+    private boolean closed;
+
+    /**
+     * @param cartridgeType      cartridge type of the standby instances
+     * @param networkPartitionId network partition id of the partition
+     * @param partition          partition the standby instances are started in
+     * @param iaasProvider       iaas provider of the cartridge in the partition
+     * @param payload            payload the standby instances are started with, the member id of
+     *                           each standby instance is appended to it
+     * @param size               number of standby instances to be kept
+     * @param instanceTtl        time in milliseconds a standby instance is kept without being assigned
+     */
+    public WarmPool(String cartridgeType, String networkPartitionId, Partition partition, IaasProvider iaasProvider,
+                    String payload, int size, long instanceTtl) {
+        this.cartridgeType = cartridgeType;
+        this.networkPartitionId = networkPartitionId;
+        this.partition = partition;
+        this.iaasProvider = iaasProvider;
+        this.payload = payload;
+        this.size = size;
+        this.instanceTtl = instanceTtl;
+        this.idleInstances = new LinkedList<StandbyInstance>();
+    }
+
+    /**
+     * Take a standby instance out of the pool.
+     *
+     * @return the longest waiting standby instance or null if the pool is empty
+     */
+    public synchronized StandbyInstance acquire() {
+        StandbyInstance standbyInstance = idleInstances.poll();
+        if ((standbyInstance != null) && log.isDebugEnabled()) {
+            log.debug(String.format("Standby instance acquired: [cartridge-type] %s [partition-id] %s " +
+                            "[instance-id] %s [idle-count] %d", cartridgeType, partition.getId(),
+                    standbyInstance.getInstanceId(), idleInstances.size()));
+        }
+        return standbyInstance;
+    }
+
+    /**
+     * Start as many standby instances as required to fill the pool, instances already being
+     * started are taken into account.
+     *
+     * @param executor executor to start the standby instances in
+     */
+    public void refill(Executor executor) {
+        int count;
+        synchronized (this) {
+            count = closed ? 0 : size - idleInstances.size() - pendingCount;
+            if (count <= 0) {
+                return;
+            }
+            pendingCount += count;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Starting standby instances: [cartridge-type] %s [partition-id] %s [count] %d",
+                    cartridgeType, partition.getId(), count));
+        }
+        for (int i = 0; i < count; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    startStandbyInstance();
+                }
+            });
+        }
+    }
+
+    /**
+     * Terminate standby instances whose time to live elapsed and standby instances exceeding
+     * the size of the pool.
+     *
+     * @return number of standby instances terminated
+     */
+    public int reclaim() {
+        List<StandbyInstance> reclaimedInstances = new ArrayList<StandbyInstance>();
+        synchronized (this) {
+            Iterator<StandbyInstance> iterator = idleInstances.iterator();
+            while (iterator.hasNext()) {
+                StandbyInstance standbyInstance = iterator.next();
+                if (standbyInstance.isExpired(instanceTtl)) {
+                    iterator.remove();
+                    reclaimedInstances.add(standbyInstance);
+                }
+            }
+            while (idleInstances.size() > size) {
+                reclaimedInstances.add(idleInstances.poll());
+            }
+        }
+
+        for (StandbyInstance standbyInstance : reclaimedInstances) {
+            terminate(standbyInstance);
+        }
+        return reclaimedInstances.size();
+    }
+
+    /**
+     * Terminate all standby instances and stop refilling the pool. Standby instances which are
+     * still being started are terminated once they are up.
+     */
+    public void drain() {
+        List<StandbyInstance> drainedInstances;
+        synchronized (this) {
+            closed = true;
+            drainedInstances = new ArrayList<StandbyInstance>(idleInstances);
+            idleInstances.clear();
+        }
+        for (StandbyInstance standbyInstance : drainedInstances) {
+            terminate(standbyInstance);
+        }
+    }
+
+    private void startStandbyInstance() {
+        StandbyInstance standbyInstance = null;
+        try {
+            String clusterId = STANDBY_CLUSTER_ID_PREFIX + cartridgeType;
+            String memberId = clusterId + UUID.randomUUID().toString();
+            MemberContext memberContext = new MemberContext(null, cartridgeType, clusterId, memberId);
+            memberContext.setNetworkPartitionId(networkPartitionId);
+            memberContext.setPartition(partition);
+            memberContext.setInitTime(System.currentTimeMillis());
+
+            Iaas iaas = iaasProvider.getIaas();
+            String standbyPayload = payload + ",MEMBER_ID=" + memberId;
+            memberContext = iaas.startInstance(memberContext, standbyPayload.getBytes());
+            if (StringUtils.isBlank(memberContext.getInstanceId())) {
+                throw new IllegalStateException("Instance id not found in started standby member: [member-id] "
+                        + memberId);
+            }
+            iaas.allocateIpAddresses(clusterId, memberContext, partition);
+            standbyInstance = new StandbyInstance(memberContext);
+
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Standby instance started: [cartridge-type] %s [partition-id] %s " +
+                        "[instance-id] %s", cartridgeType, partition.getId(), standbyInstance.getInstanceId()));
+            }
+        } catch (Exception e) {
+            log.error(String.format("Could not start standby instance: [cartridge-type] %s [partition-id] %s",
+                    cartridgeType, partition.getId()), e);
+        } finally {
+            boolean surplus = false;
+            synchronized (this) {
+                pendingCount--;
+                if (standbyInstance != null) {
+                    if (closed || (idleInstances.size() >= size)) {
+                        surplus = true;
+                    } else {
+                        idleInstances.add(standbyInstance);
+                    }
+                }
+            }
+            if (surplus) {
+                terminate(standbyInstance);
+            }
+        }
+    }
+
+    private void terminate(StandbyInstance standbyInstance) {
+        try {
+            iaasProvider.getIaas().terminateInstance(standbyInstance.getMemberContext());
+            if (log.isInfoEnabled()) {
+                log.info(String.format("Standby instance terminated: [cartridge-type] %s [partition-id] %s " +
+                        "[instance-id] %s", cartridgeType, partition.getId(), standbyInstance.getInstanceId()));
+            }
+        } catch (Exception e) {
+            log.error(String.format("Could not terminate standby instance: [cartridge-type] %s [partition-id] %s " +
+                    "[instance-id] %s", cartridgeType, partition.getId(), standbyInstance.getInstanceId()), e);
+        }
+    }
+
+    public String getCartridgeType() {
+        return cartridgeType;
+    }
+
+    public String getNetworkPartitionId() {
+        return networkPartitionId;
+    }
+
+    public Partition getPartition() {
+        return partition;
+    }
+
+    public synchronized int getSize() {
+        return size;
+    }
+
+    public synchronized void setSize(int size) {
+        this.size = size;
+    }
+
+    public synchronized int getIdleCount() {
+        return idleInstances.size();
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.warmpool;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.cloud.controller.context.CloudControllerContext;
+import org.apache.stratos.cloud.controller.domain.Cartridge;
+import org.apache.stratos.cloud.controller.domain.IaasProvider;
+import org.apache.stratos.cloud.controller.domain.NetworkPartition;
+import org.apache.stratos.cloud.controller.domain.Partition;
+import org.apache.stratos.cloud.controller.services.impl.CloudControllerServiceImpl;
+import org.apache.stratos.cloud.controller.util.CloudControllerConstants;
+import org.apache.stratos.common.Properties;
+import org.apache.stratos.common.Property;
+import org.apache.stratos.common.threading.StratosThreadPool;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manages the warm pools of cartridges per partition. The size of a warm pool is defined by the
+ * warm.pool.size property of the partition, falling back to the same property of the cartridge.
+ * A warm pool is created when the first instance of a cartridge is requested in a partition with
+ * a warm pool size greater than zero. Pools are refilled asynchronously after each acquisition
+ * and periodically by a maintenance task, which also reclaims standby instances idle for longer
+ * than warm.pool.instance.ttl milliseconds.
+ * <p/>
+ * The cartridge agent of a standby instance waits for the standby instance assigned event
+ * before it starts, and then runs with the payload of the member it was assigned to.
+ */
+public class WarmPoolManager {
+
+    private static final Log log = LogFactory.getLog(WarmPoolManager.class);
+
+    private static final String WARM_POOL_THREAD_POOL_ID = "cloud.controller.warm.pool.thread.pool";
+    private static final int WARM_POOL_THREAD_POOL_SIZE = 10;
+    private static final String WARM_POOL_SCHEDULER_ID = "cloud.controller.warm.pool.scheduler";
+    private static final long DEFAULT_INSTANCE_TTL = 30 * 60 * 1000;
+    private static final long DEFAULT_MAINTENANCE_INTERVAL = 30000;
+
+    private static volatile WarmPoolManager instance;
+
+    private final ConcurrentMap<String, WarmPool> warmPools;
+    private final long instanceTtl;
+    private final long maintenanceInterval;
+    private ExecutorService executorService;
+    private ScheduledFuture<?> maintenanceTask;
+
+    private WarmPoolManager() {
+        warmPools = new ConcurrentHashMap<String, WarmPool>();
+        instanceTtl = Long.getLong(CloudControllerConstants.WARM_POOL_INSTANCE_TTL, DEFAULT_INSTANCE_TTL);
+        maintenanceInterval = Long.getLong(CloudControllerConstants.WARM_POOL_MAINTENANCE_INTERVAL,
+                DEFAULT_MAINTENANCE_INTERVAL);
+    }
+
+    public static WarmPoolManager getInstance() {
+        if (instance == null) {
+            synchronized (WarmPoolManager.class) {
+                if (instance == null) {
+                    instance = new WarmPoolManager();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Take a standby instance of the given cartridge in the given partition. The warm pool is
+     * refilled asynchronously.
+     *
+     * @param cartridge        cartridge of the member
+     * @param iaasProvider     iaas provider of the cartridge in the partition
+     * @param networkPartition network partition of the member
+     * @param partition        partition of the member
+     * @return a standby instance or null if no standby instance is available
+     */
+    public StandbyInstance acquire(Cartridge cartridge, IaasProvider iaasProvider,
+                                   NetworkPartition networkPartition, Partition partition) {
+        int size = getWarmPoolSize(cartridge, partition);
+        String key = getKey(cartridge.getType(), networkPartition.getId(), partition.getId());
+        WarmPool warmPool = warmPools.get(key);
+        if (warmPool == null) {
+            if (size <= 0) {
+                return null;
+            }
+            WarmPool newWarmPool = new WarmPool(cartridge.getType(), networkPartition.getId(), partition,
+                    iaasProvider, createStandbyPayload(cartridge, networkPartition, partition), size, instanceTtl);
+            warmPool = warmPools.putIfAbsent(key, newWarmPool);
+            if (warmPool == null) {
+                warmPool = newWarmPool;
+                if (log.isInfoEnabled()) {
+                    log.info(String.format("Warm pool created: [cartridge-type] %s [network-partition-id] %s " +
+                            "[partition-id] %s [size] %d", cartridge.getType(), networkPartition.getId(),
+                            partition.getId(), size));
+                }
+                startMaintenanceTask();
+            }
+        }
+
+        warmPool.setSize(size);
+        StandbyInstance standbyInstance = warmPool.acquire();
+        warmPool.refill(getExecutorService());
+        return standbyInstance;
+    }
+
+    /**
+     * Terminate the standby instances of the given cartridge in all partitions.
+     *
+     * @param cartridgeType cartridge type
+     */
+    public void removeWarmPools(String cartridgeType) {
+        Iterator<WarmPool> iterator = warmPools.values().iterator();
+        while (iterator.hasNext()) {
+            WarmPool warmPool = iterator.next();
+            if (warmPool.getCartridgeType().equals(cartridgeType)) {
+                iterator.remove();
+                warmPool.drain();
+            }
+        }
+    }
+
+    /**
+     * Reclaim expired standby instances and refill the warm pools. Warm pools of removed
+     * cartridges and partitions are drained, warm pools of updated partitions are drained
+     * and re-created on the next instance request.
+     */
+    void maintainWarmPools() {
+        CloudControllerContext cloudControllerContext = CloudControllerContext.getInstance();
+        for (Map.Entry<String, WarmPool> entry : warmPools.entrySet()) {
+            WarmPool warmPool = entry.getValue();
+            try {
+                Cartridge cartridge = cloudControllerContext.getCartridge(warmPool.getCartridgeType());
+                NetworkPartition networkPartition = cloudControllerContext.getNetworkPartition(
+                        warmPool.getNetworkPartitionId());
+                Partition partition = (networkPartition != null) ?
+                        networkPartition.getPartition(warmPool.getPartition().getId()) : null;
+
+                int size = ((cartridge != null) && (partition != null)) ? getWarmPoolSize(cartridge, partition) : 0;
+                if ((size <= 0) || (partition != warmPool.getPartition())) {
+                    if (warmPools.remove(entry.getKey(), warmPool)) {
+                        warmPool.drain();
+                        if (log.isInfoEnabled()) {
+                            log.info(String.format("Warm pool removed: [cartridge-type] %s [network-partition-id] %s " +
+                                            "[partition-id] %s", warmPool.getCartridgeType(),
+                                    warmPool.getNetworkPartitionId(), warmPool.getPartition().getId()));
+                        }
+                    }
+                    continue;
+                }
+
+                warmPool.setSize(size);
+                int reclaimed = warmPool.reclaim();
+                if ((reclaimed > 0) && log.isDebugEnabled()) {
+                    log.debug(String.format("Standby instances reclaimed: [cartridge-type] %s [partition-id] %s " +
+                            "[count] %d", warmPool.getCartridgeType(), warmPool.getPartition().getId(), reclaimed));
+                }
+                warmPool.refill(getExecutorService());
+            } catch (Exception e) {
+                log.error(String.format("Could not maintain warm pool: [cartridge-type] %s [partition-id] %s",
+                        warmPool.getCartridgeType(), warmPool.getPartition().getId()), e);
+            }
+        }
+    }
+
+    /**
+     * Stop the maintenance task and terminate all standby instances.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            if (maintenanceTask != null) {
+                maintenanceTask.cancel(false);
+                maintenanceTask = null;
+            }
+        }
+        Iterator<WarmPool> iterator = warmPools.values().iterator();
+        while (iterator.hasNext()) {
+            WarmPool warmPool = iterator.next();
+            iterator.remove();
+            warmPool.drain();
+        }
+    }
+
+    private synchronized void startMaintenanceTask() {
+        if (maintenanceTask != null) {
+            return;
+        }
+        ScheduledExecutorService scheduler = StratosThreadPool.getScheduledExecutorService(WARM_POOL_SCHEDULER_ID, 1);
+        maintenanceTask = scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                maintainWarmPools();
+            }
+        }, maintenanceInterval, maintenanceInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized ExecutorService getExecutorService() {
+        if (executorService == null) {
+            executorService = StratosThreadPool.getExecutorService(WARM_POOL_THREAD_POOL_ID,
+                    WARM_POOL_THREAD_POOL_SIZE);
+        }
+        return executorService;
+    }
+
+    private int getWarmPoolSize(Cartridge cartridge, Partition partition) {
+        String size = getPropertyValue(partition.getProperties(), CloudControllerConstants.WARM_POOL_SIZE);
+        if (size == null) {
+            size = getPropertyValue(cartridge.getProperties(), CloudControllerConstants.WARM_POOL_SIZE);
+        }
+        if (StringUtils.isBlank(size)) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(size.trim());
+        } catch (NumberFormatException e) {
+            log.warn(String.format("Invalid warm pool size: [cartridge-type] %s [partition-id] %s [value] %s",
+                    cartridge.getType(), partition.getId(), size));
+            return 0;
+        }
+    }
+
+    private String getPropertyValue(Properties properties, String name) {
+        if (properties == null) {
+            return null;
+        }
+        Property property = properties.getProperty(name);
+        return (property != null) ? property.getValue() : null;
+    }
+
+    /**
+     * Standby instances do not belong to a cluster yet, hence their payload only carries the
+     * cartridge, partition and the payload parameters of the network partition such as the
+     * message broker urls required to receive the assignment.
+     */
+    private String createStandbyPayload(Cartridge cartridge, NetworkPartition networkPartition, Partition partition) {
+        StringBuilder payload = new StringBuilder();
+        payload.append(CloudControllerConstants.STANDBY_PAYLOAD_PARAMETER).append("=true");
+        payload.append(",CARTRIDGE_TYPE=").append(cartridge.getType());
+        payload.append(",NETWORK_PARTITION_ID=").append(networkPartition.getId());
+        payload.append(",PARTITION_ID=").append(partition.getId());
+        if ((networkPartition.getProperties() != null) && (networkPartition.getProperties().getProperties() != null)) {
+            for (Property property : networkPartition.getProperties().getProperties()) {
+                if (property.getName().startsWith(CloudControllerServiceImpl.PAYLOAD_PARAMETER)) {
+                    String propertyName = property.getName();
+                    payload.append(",").append(propertyName.substring(propertyName.indexOf(".") + 1))
+                            .append("=").append(property.getValue());
+                }
+            }
+        }
+        return payload.toString();
+    }
+
+    private String getKey(String cartridgeType, String networkPartitionId, String partitionId) {
+        return cartridgeType + "|" + networkPartitionId + "|" + partitionId;
+    }
+}
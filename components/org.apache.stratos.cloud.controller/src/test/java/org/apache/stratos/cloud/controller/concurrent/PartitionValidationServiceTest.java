@@ -0,0 +1,379 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.concurrent;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.cloud.controller.domain.IaasProvider;
+import org.apache.stratos.cloud.controller.domain.MemberContext;
+import org.apache.stratos.cloud.controller.domain.Partition;
+import org.apache.stratos.cloud.controller.exception.InvalidPartitionException;
+import org.apache.stratos.cloud.controller.iaases.Iaas;
+import org.apache.stratos.cloud.controller.iaases.PartitionValidator;
+import org.apache.stratos.common.Properties;
+import org.apache.stratos.common.Property;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests {@link PartitionValidationService} against a mock iaas which simulates the latency
+ * of the iaas api calls made to validate a partition. Partitions in the same region and zone
+ * share one check.
+ */
+public class PartitionValidationServiceTest {
+
+    private static final Log log = LogFactory.getLog(PartitionValidationServiceTest.class);
+
+    private static final long LATENCY = 200;
+    private static final String LATENCY_PROPERTY = "latency";
+    private static final String INVALID_REGION = "invalid";
+    private static final int THREAD_POOL_SIZE = 10;
+
+    private static final AtomicInteger validatedCount = new AtomicInteger();
+
+    private ExecutorService executorService;
+    private IaasProvider iaasProvider;
+
+    @Before
+    public void setUp() {
+        validatedCount.set(0);
+        executorService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+
+        iaasProvider = new IaasProvider();
+        iaasProvider.setType("mock");
+        iaasProvider.setProvider("mock");
+        iaasProvider.setClassName(LatencyIaas.class.getName());
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testPartitionsAreValidatedConcurrently() throws Exception {
+        PartitionValidationService validationService = createValidationService(60000, 60000);
+        // 100 partitions spread across 10 regions with 10 zones each
+        Partition[] partitions = createPartitions(100, 10, 10);
+
+        long startTime = System.currentTimeMillis();
+        Map<String, IaasProvider> iaasProviders = validationService.validatePartitions("php", partitions);
+        long validationTime = System.currentTimeMillis() - startTime;
+        log.info(String.format("Partition validation: [partitions] %d [checks] %d [time] %d ms [serial] %d ms",
+                partitions.length, validatedCount.get(), validationTime, partitions.length * LATENCY));
+
+        assertEquals(100, iaasProviders.size());
+        assertEquals(100, validatedCount.get());
+        assertEquals(100, validationService.getValidationCount());
+        // 100 checks on 10 threads take ten rounds
+        assertTrue("Partitions were not validated concurrently", validationTime < (LATENCY * 100) / 2);
+    }
+
+    @Test
+    public void testPartitionsOfTheSameZoneShareValidation() throws Exception {
+        PartitionValidationService validationService = createValidationService(60000, 60000);
+        // 100 partitions spread across 4 regions with 5 zones each
+        Partition[] partitions = createPartitions(100, 4, 5);
+        for (int i = 0; i < partitions.length; i++) {
+            addProperty(partitions[i], "securityGroups", "group-" + i);
+        }
+
+        Map<String, IaasProvider> iaasProviders = validationService.validatePartitions("php", partitions);
+        assertEquals(100, iaasProviders.size());
+        assertEquals(20, validatedCount.get());
+        assertEquals(20, validationService.getValidationCount());
+
+        // Each partition gets the validated iaas provider with its own properties
+        for (int i = 0; i < partitions.length; i++) {
+            IaasProvider partitionIaasProvider = iaasProviders.get("partition-" + i);
+            assertEquals("zone-" + ((i % 20) % 5), partitionIaasProvider.getProperty("zone"));
+            assertEquals("group-" + i, partitionIaasProvider.getProperty("securityGroups"));
+        }
+    }
+
+    @Test
+    public void testConcurrentValidationsAreShared() throws Exception {
+        final PartitionValidationService validationService = createValidationService(60000, 60000);
+        final Partition[] partitions = createPartitions(10, 1, 2);
+        final Map<String, IaasProvider>[] results = new Map[2];
+        Thread[] threads = new Thread[results.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        results[index] = validationService.validatePartitions("php", partitions);
+                    } catch (InvalidPartitionException e) {
+                        log.error(e.getMessage(), e);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(2, validatedCount.get());
+        assertSame(results[0].get("partition-0"), results[1].get("partition-0"));
+    }
+
+    @Test
+    public void testCartridgeValidationsAreInvalidated() throws Exception {
+        PartitionValidationService validationService = createValidationService(60000, 60000);
+        Partition[] partitions = createPartitions(2, 1, 2);
+        validationService.validatePartitions("php", partitions);
+        validationService.validatePartitions("tomcat", partitions);
+        assertEquals(4, validatedCount.get());
+
+        // The cached results of other cartridges are kept
+        validationService.invalidate("php");
+        validationService.validatePartitions("php", partitions);
+        validationService.validatePartitions("tomcat", partitions);
+        assertEquals(6, validatedCount.get());
+    }
+
+    @Test
+    public void testSuccessfulValidationsAreCached() throws Exception {
+        PartitionValidationService validationService = createValidationService(60000, 60000);
+        Partition[] partitions = createPartitions(10, 1, 2);
+        validationService.validatePartitions("php", partitions);
+        assertEquals(2, validatedCount.get());
+
+        long startTime = System.currentTimeMillis();
+        Map<String, IaasProvider> iaasProviders = validationService.validatePartitions("php", partitions);
+        assertEquals(10, iaasProviders.size());
+        assertEquals(2, validatedCount.get());
+        assertTrue("Cached validations were not used", (System.currentTimeMillis() - startTime) < LATENCY);
+
+        // Other cartridges are validated separately
+        validationService.validatePartitions("tomcat", partitions);
+        assertEquals(4, validatedCount.get());
+    }
+
+    @Test
+    public void testExpiredValidationsArePerformedAgain() throws Exception {
+        PartitionValidationService validationService = createValidationService(60000, 10);
+        Partition[] partitions = createPartitions(10, 1, 2);
+        validationService.validatePartitions("php", partitions);
+        Thread.sleep(50);
+        validationService.validatePartitions("php", partitions);
+        assertEquals(4, validatedCount.get());
+    }
+
+    @Test
+    public void testFailedValidationsAreNotCached() throws Exception {
+        PartitionValidationService validationService = createValidationService(60000, 60000);
+        Partition partition = createPartition("partition-invalid", INVALID_REGION, "zone-1");
+        for (int i = 0; i < 2; i++) {
+            try {
+                validationService.validatePartitions("php", new Partition[]{partition});
+                fail("Invalid partition was validated");
+            } catch (InvalidPartitionException e) {
+                assertTrue(e.getMessage().contains("partition-invalid"));
+            }
+        }
+        assertEquals(2, validatedCount.get());
+    }
+
+    @Test
+    public void testSlowValidationTimesOut() throws Exception {
+        PartitionValidationService validationService = createValidationService(LATENCY * 2, 60000);
+        Partition[] partitions = createPartitions(3, 1, 3);
+        addProperty(partitions[1], LATENCY_PROPERTY, String.valueOf(LATENCY * 50));
+
+        long startTime = System.currentTimeMillis();
+        try {
+            validationService.validatePartitions("php", partitions);
+            fail("Slow partition validation did not time out");
+        } catch (InvalidPartitionException e) {
+            assertTrue(e.getMessage().contains("timed out"));
+        }
+        assertTrue("Timeout was not applied", (System.currentTimeMillis() - startTime) < LATENCY * 10);
+
+        // Checks completed before the timeout are cached
+        addProperty(partitions[1], LATENCY_PROPERTY, String.valueOf(LATENCY));
+        assertEquals(3, validationService.validatePartitions("php", partitions).size());
+        assertEquals(4, validationService.getValidationCount());
+    }
+
+    private PartitionValidationService createValidationService(long timeout, long cacheTtl) {
+        return new PartitionValidationService(executorService, timeout, cacheTtl) {
+            @Override
+            protected IaasProvider getIaasProvider(String cartridgeType, String provider) {
+                return iaasProvider;
+            }
+        };
+    }
+
+    private Partition[] createPartitions(int count, int regionCount, int zoneCount) {
+        Partition[] partitions = new Partition[count];
+        for (int i = 0; i < count; i++) {
+            int zone = i % (regionCount * zoneCount);
+            partitions[i] = createPartition("partition-" + i, "region-" + (zone / zoneCount),
+                    "zone-" + (zone % zoneCount));
+        }
+        return partitions;
+    }
+
+    private Partition createPartition(String id, String region, String zone) {
+        Partition partition = new Partition();
+        partition.setId(id);
+        partition.setProvider("mock");
+        partition.setProperties(new Properties());
+        addProperty(partition, "region", region);
+        addProperty(partition, "zone", zone);
+        return partition;
+    }
+
+    private void addProperty(Partition partition, String name, String value) {
+        Property property = partition.getProperties().getProperty(name);
+        if (property != null) {
+            property.setValue(value);
+        } else {
+            partition.getProperties().addProperty(new Property(name, value));
+        }
+    }
+
+    /**
+     * Partition validator taking the latency of the iaas api calls to validate a partition.
+     * The latency of a partition can be overridden by its latency property.
+     */
+    public static class LatencyPartitionValidator implements PartitionValidator {
+
+        private IaasProvider iaasProvider;
+
+        @Override
+        public void setIaasProvider(IaasProvider iaasProvider) {
+            this.iaasProvider = iaasProvider;
+        }
+
+        @Override
+        public IaasProvider validate(Partition partition, java.util.Properties properties)
+                throws InvalidPartitionException {
+            validatedCount.incrementAndGet();
+            try {
+                Thread.sleep(Long.parseLong(properties.getProperty(LATENCY_PROPERTY, String.valueOf(LATENCY))));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InvalidPartitionException("Partition validation interrupted: " + partition.getId());
+            }
+            if (INVALID_REGION.equals(properties.getProperty("region"))) {
+                throw new InvalidPartitionException("Invalid region: " + partition.getId());
+            }
+            // Copy the partition properties like the partition validators of the iaases
+            IaasProvider updatedIaasProvider = new IaasProvider(iaasProvider);
+            for (String name : properties.stringPropertyNames()) {
+                updatedIaasProvider.setProperty(name, properties.getProperty(name));
+            }
+            return updatedIaasProvider;
+        }
+    }
+
+    /**
+     * Mock iaas validating partitions with the latency partition validator.
+     */
+    public static class LatencyIaas extends Iaas {
+
+        public LatencyIaas(IaasProvider iaasProvider) {
+            super(iaasProvider);
+        }
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public MemberContext startInstance(MemberContext memberContext, byte[] payload) {
+            return memberContext;
+        }
+
+        @Override
+        public void allocateIpAddresses(String clusterId, MemberContext memberContext, Partition partition) {
+        }
+
+        @Override
+        public void terminateInstance(MemberContext memberContext) {
+        }
+
+        @Override
+        public void releaseAddress(String ip) {
+        }
+
+        @Override
+        public boolean isValidRegion(String region) {
+            return true;
+        }
+
+        @Override
+        public boolean isValidZone(String region, String zone) {
+            return true;
+        }
+
+        @Override
+        public boolean isValidHost(String zone, String host) {
+            return true;
+        }
+
+        @Override
+        public PartitionValidator getPartitionValidator() {
+            return new LatencyPartitionValidator();
+        }
+
+        @Override
+        public String createVolume(int sizeGB, String snapshotId) {
+            return null;
+        }
+
+        @Override
+        public String attachVolume(String instanceId, String volumeId, String deviceName) {
+            return null;
+        }
+
+        @Override
+        public void detachVolume(String instanceId, String volumeId) {
+        }
+
+        @Override
+        public void deleteVolume(String volumeId) {
+        }
+
+        @Override
+        public String getIaasDevice(String device) {
+            return device;
+        }
+
+        @Override
+        public void setDynamicPayload(byte[] payload) {
+        }
+    }
+}
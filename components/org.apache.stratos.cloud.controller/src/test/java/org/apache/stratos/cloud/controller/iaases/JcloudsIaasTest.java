@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.iaases;
+
+import org.apache.stratos.cloud.controller.domain.IaasProvider;
+import org.apache.stratos.cloud.controller.domain.MemberContext;
+import org.apache.stratos.cloud.controller.domain.Partition;
+import org.jclouds.ContextBuilder;
+import org.jclouds.compute.ComputeService;
+import org.jclouds.compute.ComputeServiceContext;
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.domain.Template;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests instance start-up of {@link JcloudsIaas} against the jclouds stub compute provider.
+ */
+public class JcloudsIaasTest {
+
+    private static final String PAYLOAD_KEY = "payload";
+
+    private ComputeServiceContext computeServiceContext;
+    private AtomicInteger createNodesCallCount;
+    private IaasProvider iaasProvider;
+    private StubJcloudsIaas iaas;
+
+    @Before
+    public void setUp() {
+        computeServiceContext = ContextBuilder.newBuilder("stub").buildView(ComputeServiceContext.class);
+        final ComputeService computeService = computeServiceContext.getComputeService();
+        createNodesCallCount = new AtomicInteger();
+
+        // Count the node creation requests sent to the provider
+        ComputeService countingComputeService = (ComputeService) Proxy.newProxyInstance(
+                ComputeService.class.getClassLoader(), new Class<?>[]{ComputeService.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("createNodesInGroup".equals(method.getName())) {
+                            createNodesCallCount.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(computeService, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+
+        iaasProvider = new IaasProvider();
+        iaasProvider.setType("stub");
+        iaasProvider.setComputeService(countingComputeService);
+        iaasProvider.setTemplate(computeService.templateBuilder().build());
+        iaas = new StubJcloudsIaas(iaasProvider);
+    }
+
+    @After
+    public void tearDown() {
+        computeServiceContext.close();
+    }
+
+    @Test
+    public void testEachMemberIsStartedWithItsOwnPayload() {
+        RecordingCallback callback = new RecordingCallback();
+        List<InstanceStartRequest> requests = new ArrayList<InstanceStartRequest>();
+        for (int i = 0; i < 3; i++) {
+            requests.add(createRequest("cluster-1", "member-" + i, "p1", callback));
+        }
+        requests.add(createRequest("cluster-1", "member-3", "p2", callback));
+        requests.add(createRequest("cluster-2", "member-4", "p1", callback));
+
+        iaas.startInstances(requests);
+
+        // jclouds applies one template to all the nodes of a request, each member needs its own payload
+        assertEquals(requests.size(), createNodesCallCount.get());
+        assertEquals(requests.size(), callback.started.size());
+        assertTrue(callback.failed.isEmpty());
+
+        Set<String> instanceIds = new HashSet<String>();
+        for (InstanceStartRequest request : requests) {
+            MemberContext memberContext = request.getMemberContext();
+            assertNotNull(memberContext.getInstanceId());
+            instanceIds.add(memberContext.getInstanceId());
+
+            String nodePayload = iaas.findNodeMetadata(memberContext.getInstanceId()).getUserMetadata()
+                    .get(PAYLOAD_KEY);
+            assertEquals(new String(request.getPayload()), nodePayload);
+            assertTrue(nodePayload.contains("MEMBER_ID=" + memberContext.getMemberId()));
+        }
+        assertEquals(requests.size(), instanceIds.size());
+
+        // The template of the iaas provider should not carry any member payload
+        assertNull(iaasProvider.getTemplate().getOptions().getUserMetadata().get(PAYLOAD_KEY));
+    }
+
+    @Test
+    public void testSingleInstanceStartDoesNotModifySharedTemplate() {
+        MemberContext memberContext = createMemberContext("cluster-1", "member-1", "p1");
+        iaas.startInstance(memberContext, createPayload(memberContext));
+
+        assertEquals(1, createNodesCallCount.get());
+        assertEquals(new String(createPayload(memberContext)),
+                iaas.findNodeMetadata(memberContext.getInstanceId()).getUserMetadata().get(PAYLOAD_KEY));
+        assertNull(iaasProvider.getTemplate().getOptions().getUserMetadata().get(PAYLOAD_KEY));
+    }
+
+    private InstanceStartRequest createRequest(String clusterId, String memberId, String partitionId,
+                                               InstanceStartCallback callback) {
+        MemberContext memberContext = createMemberContext(clusterId, memberId, partitionId);
+        return new InstanceStartRequest(memberContext, createPayload(memberContext), callback);
+    }
+
+    /**
+     * Create a payload the way the cloud controller service does, with the member specific
+     * parameters in between the cluster level parameters.
+     */
+    private byte[] createPayload(MemberContext memberContext) {
+        return ("APPLICATION_ID=" + memberContext.getApplicationId() +
+                ",CLUSTER_ID=" + memberContext.getClusterId() +
+                ",INSTANCE_ID=" + memberContext.getInstanceId() +
+                ",PARTITION_ID=" + memberContext.getPartition().getId() +
+                ",MEMBER_ID=" + memberContext.getMemberId() +
+                ",PORTS=80|443").getBytes();
+    }
+
+    private MemberContext createMemberContext(String clusterId, String memberId, String partitionId) {
+        MemberContext memberContext = new MemberContext("application-1", "cartridge-1", clusterId, memberId);
+        Partition partition = new Partition();
+        partition.setId(partitionId);
+        memberContext.setPartition(partition);
+        return memberContext;
+    }
+
+    private static class RecordingCallback implements InstanceStartCallback {
+
+        private final List<MemberContext> started = new ArrayList<MemberContext>();
+        private final List<MemberContext> failed = new ArrayList<MemberContext>();
+
+        @Override
+        public void onInstanceStarted(MemberContext memberContext) {
+            started.add(memberContext);
+        }
+
+        @Override
+        public void onInstanceStartFailed(MemberContext memberContext, Exception e) {
+            failed.add(memberContext);
+        }
+    }
+
+    /**
+     * Jclouds iaas which carries the payload in the user metadata of the node.
+     */
+    private static class StubJcloudsIaas extends JcloudsIaas {
+
+        private StubJcloudsIaas(IaasProvider iaasProvider) {
+            super(iaasProvider);
+        }
+
+        @Override
+        public void setDynamicPayload(Template template, byte[] payload) {
+            template.getOptions().userMetadata(PAYLOAD_KEY, new String(payload));
+        }
+
+        @Override
+        public void buildComputeServiceAndTemplate() {
+        }
+
+        @Override
+        public void buildTemplate() {
+        }
+
+        @Override
+        public boolean createKeyPairFromPublicKey(String region, String keyPairName, String publicKey) {
+            return false;
+        }
+
+        @Override
+        public List<String> associateAddresses(NodeMetadata node) {
+            return null;
+        }
+
+        @Override
+        public String associatePredefinedAddress(NodeMetadata node, String ip) {
+            return null;
+        }
+
+        @Override
+        public void releaseAddress(String ip) {
+        }
+
+        @Override
+        public boolean isValidRegion(String region) {
+            return true;
+        }
+
+        @Override
+        public boolean isValidZone(String region, String zone) {
+            return true;
+        }
+
+        @Override
+        public boolean isValidHost(String zone, String host) {
+            return true;
+        }
+
+        @Override
+        public PartitionValidator getPartitionValidator() {
+            return null;
+        }
+
+        @Override
+        public String createVolume(int sizeGB, String snapshotId) {
+            return null;
+        }
+
+        @Override
+        public String attachVolume(String instanceId, String volumeId, String deviceName) {
+            return null;
+        }
+
+        @Override
+        public void detachVolume(String instanceId, String volumeId) {
+        }
+
+        @Override
+        public void deleteVolume(String volumeId) {
+        }
+
+        @Override
+        public String getIaasDevice(String device) {
+            return device;
+        }
+    }
+}
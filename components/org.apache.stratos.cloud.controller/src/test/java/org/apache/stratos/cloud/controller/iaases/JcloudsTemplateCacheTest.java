@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.iaases;
+
+import org.apache.stratos.cloud.controller.domain.IaasProvider;
+import org.apache.stratos.cloud.controller.domain.TemplateCacheStatistics;
+import org.jclouds.compute.ComputeService;
+import org.jclouds.compute.domain.Template;
+import org.jclouds.compute.domain.TemplateBuilder;
+import org.jclouds.lifecycle.Closer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests {@link JcloudsTemplateCache} against the jclouds stub compute provider.
+ */
+public class JcloudsTemplateCacheTest {
+
+    private JcloudsTemplateCache cache;
+    private IaasProvider iaasProvider;
+    private AtomicInteger buildCount;
+
+    @Before
+    public void setUp() {
+        cache = new JcloudsTemplateCache(60000);
+        iaasProvider = createIaasProvider("identity");
+        iaasProvider.setComputeService(cache.getComputeService(iaasProvider));
+        buildCount = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() {
+        iaasProvider.getComputeService().getContext().close();
+    }
+
+    @Test
+    public void testComputeServiceIsShared() {
+        ComputeService computeService = cache.getComputeService(createIaasProvider("identity"));
+        assertSame(iaasProvider.getComputeService(), computeService);
+
+        ComputeService otherComputeService = cache.getComputeService(createIaasProvider("other-identity"));
+        assertNotSame(computeService, otherComputeService);
+        otherComputeService.getContext().close();
+
+        TemplateCacheStatistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(2, statistics.getMissCount());
+        assertEquals(2, statistics.getComputeServiceCount());
+    }
+
+    @Test
+    public void testTemplateIsResolvedOnce() {
+        for (int i = 0; i < 10; i++) {
+            cache.getTemplate(iaasProvider, createCountingTemplateBuilder());
+        }
+        assertEquals(1, buildCount.get());
+        assertEquals(1, cache.getStatistics().getTemplateCount());
+
+        // A different image resolves a new template
+        iaasProvider.setImage("other-image");
+        cache.getTemplate(iaasProvider, createCountingTemplateBuilder());
+        assertEquals(2, buildCount.get());
+    }
+
+    @Test
+    public void testKeyDoesNotContainCredentials() {
+        IaasProvider otherIaasProvider = createIaasProvider("secret-identity");
+        otherIaasProvider.setCredential("secret-credential");
+        String key = cache.getComputeServiceKey(otherIaasProvider);
+
+        assertFalse(key.contains("secret-identity"));
+        assertFalse(key.contains("secret-credential"));
+        assertEquals(key, cache.getComputeServiceKey(otherIaasProvider));
+        assertFalse(key.equals(cache.getComputeServiceKey(createIaasProvider("secret-identity"))));
+    }
+
+    @Test
+    public void testTemplateCopiesDoNotShareOptions() {
+        Template template = cache.getTemplate(iaasProvider, createCountingTemplateBuilder());
+        template.getOptions().userMetadata("payload", "member-1");
+
+        Template otherTemplate = cache.getTemplate(iaasProvider, createCountingTemplateBuilder());
+        assertNull(otherTemplate.getOptions().getUserMetadata().get("payload"));
+        assertEquals(template.getImage(), otherTemplate.getImage());
+        assertEquals(template.getHardware(), otherTemplate.getHardware());
+    }
+
+    @Test
+    public void testExpiredEntriesAreReloaded() throws Exception {
+        JcloudsTemplateCache expiringCache = new JcloudsTemplateCache(10);
+        expiringCache.getTemplate(iaasProvider, createCountingTemplateBuilder());
+        Thread.sleep(50);
+        expiringCache.getTemplate(iaasProvider, createCountingTemplateBuilder());
+
+        assertEquals(2, buildCount.get());
+        assertEquals(1, expiringCache.getStatistics().getEvictionCount());
+    }
+
+    @Test
+    public void testInvalidateKeepsComputeServicesOpen() {
+        final AtomicInteger closeCount = new AtomicInteger();
+        ComputeService computeService = iaasProvider.getComputeService();
+        computeService.getContext().utils().injector().getInstance(Closer.class).addToClose(new Closeable() {
+            @Override
+            public void close() throws IOException {
+                closeCount.incrementAndGet();
+            }
+        });
+
+        IaasProvider otherIaasProvider = createIaasProvider("identity");
+        otherIaasProvider.setImage("other-image");
+        cache.getTemplate(iaasProvider, createCountingTemplateBuilder());
+        cache.getTemplate(otherIaasProvider, createCountingTemplateBuilder());
+        cache.getAssignableLocations(iaasProvider);
+        cache.invalidate(iaasProvider);
+
+        // Compute services may be in use by instance start-up requests, they are neither closed nor evicted
+        assertEquals(0, closeCount.get());
+        assertSame(computeService, cache.getComputeService(iaasProvider));
+        computeService.listAssignableLocations();
+
+        // Only the template and locations of the invalidated iaas provider are evicted
+        TemplateCacheStatistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.getComputeServiceCount());
+        assertEquals(1, statistics.getTemplateCount());
+        assertEquals(0, statistics.getLocationSetCount());
+        assertEquals(2, statistics.getEvictionCount());
+
+        cache.getTemplate(iaasProvider, createCountingTemplateBuilder());
+        cache.getTemplate(otherIaasProvider, createCountingTemplateBuilder());
+        assertEquals(3, buildCount.get());
+    }
+
+    private IaasProvider createIaasProvider(String identity) {
+        IaasProvider iaasProvider = new IaasProvider();
+        iaasProvider.setType("stub");
+        iaasProvider.setProvider("stub");
+        iaasProvider.setIdentity(identity);
+        iaasProvider.setCredential("credential");
+        iaasProvider.setImage("image");
+        return iaasProvider;
+    }
+
+    /**
+     * Template builder of the stub provider which counts the template resolutions.
+     */
+    private TemplateBuilder createCountingTemplateBuilder() {
+        final TemplateBuilder templateBuilder = iaasProvider.getComputeService().templateBuilder();
+        return (TemplateBuilder) Proxy.newProxyInstance(TemplateBuilder.class.getClassLoader(),
+                new Class<?>[]{TemplateBuilder.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("build".equals(method.getName())) {
+                            buildCount.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(templateBuilder, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+}
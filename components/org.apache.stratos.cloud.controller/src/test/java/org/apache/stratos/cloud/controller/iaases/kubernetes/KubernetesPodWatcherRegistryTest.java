@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.iaases.kubernetes;
+
+import org.apache.stratos.kubernetes.client.KubernetesPodWatcher;
+import org.apache.stratos.kubernetes.client.PodActivation;
+import org.apache.stratos.kubernetes.client.exceptions.KubernetesClientException;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests {@link KubernetesPodWatcherRegistry}.
+ */
+public class KubernetesPodWatcherRegistryTest {
+
+    private static final String ENDPOINT = "http://10.0.0.1:8080/api/v1beta1/";
+
+    @Test
+    public void testPodWatcherIsKeptPerKubernetesCluster() {
+        KubernetesPodWatcherRegistry registry = KubernetesPodWatcherRegistry.getInstance();
+        int count = registry.getPodWatcherCount();
+
+        KubernetesPodWatcher podWatcher = registry.getPodWatcher("kubernetes-cluster-1", ENDPOINT, null);
+        assertSame(podWatcher, registry.getPodWatcher("kubernetes-cluster-1", ENDPOINT, null));
+        assertNotSame(podWatcher, registry.getPodWatcher("kubernetes-cluster-2", ENDPOINT, null));
+        assertEquals(count + 2, registry.getPodWatcherCount());
+
+        registry.removePodWatcher("kubernetes-cluster-1");
+        registry.removePodWatcher("kubernetes-cluster-2");
+        assertEquals(count, registry.getPodWatcherCount());
+
+        // A removed kubernetes cluster gets a new pod watcher if it is added again
+        assertNotSame(podWatcher, registry.getPodWatcher("kubernetes-cluster-1", ENDPOINT, null));
+        registry.removePodWatcher("kubernetes-cluster-1");
+    }
+
+    @Test
+    public void testPodWatcherIsReplacedWhenEndpointChanges() throws Exception {
+        KubernetesPodWatcherRegistry registry = KubernetesPodWatcherRegistry.getInstance();
+        int count = registry.getPodWatcherCount();
+
+        KubernetesPodWatcher podWatcher = registry.getPodWatcher("kubernetes-cluster-3", ENDPOINT, null);
+        PodActivation activation = podWatcher.watch("pod-1", 10000);
+
+        KubernetesPodWatcher replacedPodWatcher = registry.getPodWatcher("kubernetes-cluster-3",
+                "http://10.0.0.2:8080/api/v1beta1/", null);
+        assertNotSame(podWatcher, replacedPodWatcher);
+        assertEquals(count + 1, registry.getPodWatcherCount());
+
+        // Pods watched through the previous endpoint are failed
+        assertTrue(activation.isDone());
+        try {
+            activation.get();
+            fail("Pod activation did not fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof KubernetesClientException);
+        }
+        registry.removePodWatcher("kubernetes-cluster-3");
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.warmpool;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.cloud.controller.domain.IaasProvider;
+import org.apache.stratos.cloud.controller.domain.MemberContext;
+import org.apache.stratos.cloud.controller.domain.Partition;
+import org.apache.stratos.cloud.controller.iaases.Iaas;
+import org.apache.stratos.cloud.controller.iaases.PartitionValidator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link WarmPool} against a mock iaas which simulates the boot time of instances.
+ */
+public class WarmPoolTest {
+
+    private static final Log log = LogFactory.getLog(WarmPoolTest.class);
+
+    private static final long BOOT_TIME = 500;
+    private static final String PAYLOAD = "STANDBY=true,CARTRIDGE_TYPE=php";
+
+    private static final AtomicInteger startedCount = new AtomicInteger();
+    private static final AtomicInteger terminatedCount = new AtomicInteger();
+    private static final Set<String> standbyPayloads = new HashSet<String>();
+
+    private ExecutorService executorService;
+    private IaasProvider iaasProvider;
+    private Partition partition;
+
+    @Before
+    public void setUp() {
+        startedCount.set(0);
+        terminatedCount.set(0);
+        synchronized (standbyPayloads) {
+            standbyPayloads.clear();
+        }
+        executorService = Executors.newCachedThreadPool();
+
+        iaasProvider = new IaasProvider();
+        iaasProvider.setType("mock");
+        iaasProvider.setClassName(DelayedBootIaas.class.getName());
+        partition = new Partition();
+        partition.setId("partition-1");
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testStandbyInstanceIsAssignedWithoutBootDelay() throws Exception {
+        // Cold start through the iaas
+        long startTime = System.currentTimeMillis();
+        MemberContext memberContext = iaasProvider.getIaas().startInstance(
+                new MemberContext("app-1", "php", "cluster-1", "member-1"), "PAYLOAD".getBytes());
+        long coldStartTime = System.currentTimeMillis() - startTime;
+        assertNotNull(memberContext.getInstanceId());
+
+        WarmPool warmPool = createWarmPool(2, 60000);
+        warmPool.refill(executorService);
+        waitForIdleInstances(warmPool, 2);
+        assertEquals(3, startedCount.get());
+
+        startTime = System.currentTimeMillis();
+        StandbyInstance standbyInstance = warmPool.acquire();
+        long warmStartTime = System.currentTimeMillis() - startTime;
+        log.info(String.format("Instance start-up latency: [cold-start] %d ms [warm-pool] %d ms",
+                coldStartTime, warmStartTime));
+
+        assertNotNull(standbyInstance);
+        assertNotNull(standbyInstance.getInstanceId());
+        assertNotNull(standbyInstance.getMemberContext().getDefaultPrivateIP());
+        assertTrue("Cold start did not take the boot time", coldStartTime >= BOOT_TIME);
+        assertTrue("Standby instance was not assigned immediately", warmStartTime < (BOOT_TIME / 5));
+
+        // Standby instances carry their own member id in the payload
+        synchronized (standbyPayloads) {
+            assertTrue(standbyPayloads.contains(PAYLOAD + ",MEMBER_ID=" + standbyInstance.getMemberId()));
+        }
+
+        // The pool is refilled asynchronously
+        warmPool.refill(executorService);
+        assertEquals(1, warmPool.getPendingCount());
+        waitForIdleInstances(warmPool, 2);
+        assertEquals(4, startedCount.get());
+        assertEquals(0, terminatedCount.get());
+    }
+
+    @Test
+    public void testExpiredStandbyInstancesAreReclaimed() throws Exception {
+        WarmPool warmPool = createWarmPool(2, BOOT_TIME);
+        warmPool.refill(executorService);
+        waitForIdleInstances(warmPool, 2);
+
+        assertEquals(0, warmPool.reclaim());
+        Thread.sleep(BOOT_TIME + 100);
+        assertEquals(2, warmPool.reclaim());
+        assertEquals(2, terminatedCount.get());
+        assertEquals(0, warmPool.getIdleCount());
+
+        warmPool.refill(executorService);
+        waitForIdleInstances(warmPool, 2);
+        assertEquals(4, startedCount.get());
+    }
+
+    @Test
+    public void testSurplusStandbyInstancesAreReclaimed() throws Exception {
+        WarmPool warmPool = createWarmPool(3, 60000);
+        warmPool.refill(executorService);
+        waitForIdleInstances(warmPool, 3);
+
+        warmPool.setSize(1);
+        assertEquals(2, warmPool.reclaim());
+        assertEquals(1, warmPool.getIdleCount());
+        assertEquals(2, terminatedCount.get());
+    }
+
+    @Test
+    public void testDrainTerminatesBootingInstances() throws Exception {
+        WarmPool warmPool = createWarmPool(2, 60000);
+        warmPool.refill(executorService);
+        warmPool.drain();
+        assertNull(warmPool.acquire());
+
+        long timeout = System.currentTimeMillis() + (BOOT_TIME * 10);
+        while ((warmPool.getPendingCount() > 0) && (System.currentTimeMillis() < timeout)) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, warmPool.getIdleCount());
+        assertEquals(2, startedCount.get());
+        assertEquals(2, terminatedCount.get());
+
+        // Drained pools are not refilled
+        warmPool.refill(executorService);
+        assertEquals(0, warmPool.getPendingCount());
+    }
+
+    private WarmPool createWarmPool(int size, long instanceTtl) {
+        return new WarmPool("php", "network-partition-1", partition, iaasProvider, PAYLOAD, size, instanceTtl);
+    }
+
+    private void waitForIdleInstances(WarmPool warmPool, int count) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + (BOOT_TIME * 10);
+        while ((warmPool.getIdleCount() < count) && (System.currentTimeMillis() < timeout)) {
+            Thread.sleep(50);
+        }
+        assertEquals(count, warmPool.getIdleCount());
+    }
+
+    /**
+     * Mock iaas taking the boot time to start an instance.
+     */
+    public static class DelayedBootIaas extends Iaas {
+
+        private final AtomicInteger ipAddress = new AtomicInteger();
+
+        public DelayedBootIaas(IaasProvider iaasProvider) {
+            super(iaasProvider);
+        }
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public MemberContext startInstance(MemberContext memberContext, byte[] payload) {
+            try {
+                Thread.sleep(BOOT_TIME);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (standbyPayloads) {
+                standbyPayloads.add(new String(payload));
+            }
+            memberContext.setInstanceId(UUID.randomUUID().toString());
+            startedCount.incrementAndGet();
+            return memberContext;
+        }
+
+        @Override
+        public void allocateIpAddresses(String clusterId, MemberContext memberContext, Partition partition) {
+            memberContext.setDefaultPrivateIP("10.0.0." + ipAddress.incrementAndGet());
+        }
+
+        @Override
+        public void terminateInstance(MemberContext memberContext) {
+            terminatedCount.incrementAndGet();
+        }
+
+        @Override
+        public void releaseAddress(String ip) {
+        }
+
+        @Override
+        public boolean isValidRegion(String region) {
+            return true;
+        }
+
+        @Override
+        public boolean isValidZone(String region, String zone) {
+            return true;
+        }
+
+        @Override
+        public boolean isValidHost(String zone, String host) {
+            return true;
+        }
+
+        @Override
+        public PartitionValidator getPartitionValidator() {
+            return null;
+        }
+
+        @Override
+        public String createVolume(int sizeGB, String snapshotId) {
+            return null;
+        }
+
+        @Override
+        public String attachVolume(String instanceId, String volumeId, String deviceName) {
+            return null;
+        }
+
+        @Override
+        public void detachVolume(String instanceId, String volumeId) {
+        }
+
+        @Override
+        public void deleteVolume(String volumeId) {
+        }
+
+        @Override
+        public String getIaasDevice(String device) {
+            return device;
+        }
+
+        @Override
+        public void setDynamicPayload(byte[] payload) {
+        }
+    }
+}
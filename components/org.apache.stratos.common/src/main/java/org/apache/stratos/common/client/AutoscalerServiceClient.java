@@ -20,7 +20,6 @@
 package org.apache.stratos.common.client;
 
 import org.apache.axis2.AxisFault;
-import org.apache.axis2.transport.http.HTTPConstants;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.autoscaler.stub.*;
@@ -35,12 +34,12 @@ import java.rmi.RemoteException;
 
 public class AutoscalerServiceClient {
 
-    private AutoscalerServiceStub stub;
+    private final ServiceStubPool<AutoscalerServiceStub> stubPool;
 
     private static final Log log = LogFactory.getLog(AutoscalerServiceClient.class);
     private static volatile AutoscalerServiceClient instance;
 
-    private AutoscalerServiceClient(String epr) throws AxisFault {
+    AutoscalerServiceClient(final String epr) throws AxisFault {
 
         String autosclaerSocketTimeout = System.getProperty(StratosConstants.AUTOSCALER_CLIENT_SOCKET_TIMEOUT) == null ?
                 StratosConstants.DEFAULT_CLIENT_SOCKET_TIMEOUT :
@@ -50,18 +49,25 @@ public class AutoscalerServiceClient {
                 StratosConstants.DEFAULT_CLIENT_CONNECTION_TIMEOUT :
                 System.getProperty(StratosConstants.AUTOSCALER_CLIENT_CONNECTION_TIMEOUT);
 
-        try {
-            stub = new AutoscalerServiceStub(epr);
-            stub._getServiceClient().getOptions().setProperty(HTTPConstants.SO_TIMEOUT,
-                    Integer.valueOf(autosclaerSocketTimeout));
-            stub._getServiceClient().getOptions().setProperty(HTTPConstants.CONNECTION_TIMEOUT,
-                    Integer.valueOf(autosclaerConnectionTimeout));
-
-        } catch (AxisFault axisFault) {
-            String msg = "Could not initialize autoscaler service client";
-            log.error(msg, axisFault);
-            throw new AxisFault(msg, axisFault);
-        }
+        final ServiceClientTransport transport = ServiceClientTransport.getInstance();
+        final int socketTimeout = Integer.parseInt(autosclaerSocketTimeout);
+        final int connectionTimeout = Integer.parseInt(autosclaerConnectionTimeout);
+        stubPool = new ServiceStubPool<AutoscalerServiceStub>(
+                new ServiceStubPool.StubFactory<AutoscalerServiceStub>() {
+                    @Override
+                    public AutoscalerServiceStub createStub() throws AxisFault {
+                        try {
+                            AutoscalerServiceStub stub = new AutoscalerServiceStub(
+                                    transport.getConfigurationContext(), epr);
+                            transport.configure(stub, socketTimeout, connectionTimeout);
+                            return stub;
+                        } catch (AxisFault axisFault) {
+                            String msg = "Could not initialize autoscaler service client";
+                            log.error(msg, axisFault);
+                            throw new AxisFault(msg, axisFault);
+                        }
+                    }
+                }, transport.getStubPoolSize(), transport.getStubBorrowTimeout());
     }
 
     public static AutoscalerServiceClient getInstance() throws AxisFault {
@@ -77,7 +83,12 @@ public class AutoscalerServiceClient {
 
     public void undeployServiceGroupDefinition(String serviceGroupName)
             throws RemoteException, AutoscalerServiceCartridgeGroupNotFoundExceptionException {
-        stub.removeServiceGroup(serviceGroupName);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.removeServiceGroup(serviceGroupName);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public org.apache.stratos.autoscaler.stub.autoscale.policy.AutoscalePolicy[] getAutoScalePolicies()
@@ -94,144 +105,289 @@ public class AutoscalerServiceClient {
             throws AutoscalerServiceApplicationDefinitionExceptionException,
             RemoteException, AutoscalerServiceCartridgeNotFoundExceptionException,
             AutoscalerServiceCartridgeGroupNotFoundExceptionException {
-        stub.addApplication(applicationContext);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.addApplication(applicationContext);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void updateApplication(ApplicationContext applicationContext)
             throws AutoscalerServiceApplicationDefinitionExceptionException,
             RemoteException, AutoscalerServiceCartridgeNotFoundExceptionException,
             AutoscalerServiceCartridgeGroupNotFoundExceptionException {
-        stub.updateApplication(applicationContext);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.updateApplication(applicationContext);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public ApplicationContext getApplication(String applicationId) throws RemoteException {
-        return stub.getApplication(applicationId);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getApplication(applicationId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public boolean existApplication(String applicationId) throws RemoteException {
-        return stub.existApplication(applicationId);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.existApplication(applicationId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public ApplicationContext[] getApplications() throws RemoteException {
-        return stub.getApplications();
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getApplications();
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public boolean deployApplication(String applicationId, String applicationPolicyId) throws RemoteException,
             AutoscalerServiceInvalidPolicyExceptionException, AutoscalerServiceApplicationDefinitionExceptionException {
-        return stub.deployApplication(applicationId, applicationPolicyId);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.deployApplication(applicationId, applicationPolicyId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void addApplicationPolicy(ApplicationPolicy applicationPolicy)
             throws RemoteException,
             AutoscalerServiceRemoteExceptionException, AutoscalerServiceInvalidApplicationPolicyExceptionException, AutoscalerServiceApplicationPolicyAlreadyExistsExceptionException {
-        stub.addApplicationPolicy(applicationPolicy);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.addApplicationPolicy(applicationPolicy);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public ApplicationPolicy getApplicationPolicy(String applicationPolicyId) throws RemoteException {
-        return stub.getApplicationPolicy(applicationPolicyId);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getApplicationPolicy(applicationPolicyId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public ApplicationPolicy[] getApplicationPolicies() throws RemoteException {
-        return stub.getApplicationPolicies();
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getApplicationPolicies();
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void updateApplicationPolicy(ApplicationPolicy applicationPolicy)
             throws RemoteException, AutoscalerServiceApplicatioinPolicyNotExistsExceptionException,
             AutoscalerServiceRemoteExceptionException, AutoscalerServiceInvalidApplicationPolicyExceptionException {
-        stub.updateApplicationPolicy(applicationPolicy);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.updateApplicationPolicy(applicationPolicy);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void removeApplicationPolicy(String applicationPolicyId)
             throws RemoteException, AutoscalerServiceInvalidPolicyExceptionException, AutoscalerServiceUnremovablePolicyExceptionException {
-        stub.removeApplicationPolicy(applicationPolicyId);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.removeApplicationPolicy(applicationPolicyId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public String[] getApplicationNetworkPartitions(String applicationId) throws RemoteException,
             AutoscalerServiceAutoScalerExceptionException {
-        return stub.getApplicationNetworkPartitions(applicationId);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getApplicationNetworkPartitions(applicationId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void undeployApplication(String applicationId, boolean force) throws
             AutoscalerServiceApplicationDefinitionExceptionException, RemoteException {
-        stub.undeployApplication(applicationId, force);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.undeployApplication(applicationId, force);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void deleteApplication(String applicationId) throws RemoteException {
-        stub.deleteApplication(applicationId);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.deleteApplication(applicationId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public boolean addAutoscalingPolicy(AutoscalePolicy autoScalePolicy) throws RemoteException,
             AutoscalerServiceAutoScalingPolicyAlreadyExistExceptionException {
-        return stub.addAutoScalingPolicy(autoScalePolicy);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.addAutoScalingPolicy(autoScalePolicy);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public boolean updateAutoscalingPolicy(AutoscalePolicy autoScalePolicy) throws RemoteException,
             AutoscalerServiceInvalidPolicyExceptionException {
-        return stub.updateAutoScalingPolicy(autoScalePolicy);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.updateAutoScalingPolicy(autoScalePolicy);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public boolean removeAutoscalingPolicy(String autoScalePolicyId) throws RemoteException,
             AutoscalerServicePolicyDoesNotExistExceptionException, AutoscalerServiceUnremovablePolicyExceptionException {
-        return stub.removeAutoScalingPolicy(autoScalePolicyId);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.removeAutoScalingPolicy(autoScalePolicyId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public ServiceGroup getServiceGroup(String serviceGroupDefinitionName) throws RemoteException {
-        return stub.getServiceGroup(serviceGroupDefinitionName);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getServiceGroup(serviceGroupDefinitionName);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public ServiceGroup[] getServiceGroups() throws RemoteException, AutoscalerServiceAutoScalerExceptionException {
-        return stub.getServiceGroups();
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getServiceGroups();
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void addServiceGroup(ServiceGroup serviceGroup) throws AutoscalerServiceInvalidServiceGroupExceptionException,
             RemoteException {
-        stub.addServiceGroup(serviceGroup);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.addServiceGroup(serviceGroup);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void updateServiceGroup(ServiceGroup serviceGroup) throws AutoscalerServiceInvalidServiceGroupExceptionException,
             RemoteException {
-        stub.updateServiceGroup(serviceGroup);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.updateServiceGroup(serviceGroup);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void removeServiceGroup(String groupName) throws RemoteException,
             AutoscalerServiceCartridgeGroupNotFoundExceptionException {
-        stub.removeServiceGroup(groupName);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.removeServiceGroup(groupName);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void updateClusterMonitor(String clusterId, org.apache.stratos.autoscaler.stub.Properties properties)
             throws RemoteException, AutoscalerServiceInvalidArgumentExceptionException {
-        stub.updateClusterMonitor(clusterId, properties);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.updateClusterMonitor(clusterId, properties);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public String findClusterId(String applicationId, String alias) throws RemoteException {
-        return stub.findClusterId(applicationId, alias);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.findClusterId(applicationId, alias);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void addDeploymentPolicy(DeploymentPolicy deploymentPolicy) throws RemoteException,
             AutoscalerServiceRemoteExceptionException,
             AutoscalerServiceInvalidDeploymentPolicyExceptionException, AutoscalerServiceDeploymentPolicyAlreadyExistsExceptionException {
-        stub.addDeployementPolicy(deploymentPolicy);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.addDeployementPolicy(deploymentPolicy);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void updateDeploymentPolicy(DeploymentPolicy deploymentPolicy) throws RemoteException,
             AutoscalerServiceDeploymentPolicyNotExistsExceptionException,
             AutoscalerServiceInvalidDeploymentPolicyExceptionException, AutoscalerServiceRemoteExceptionException,
             AutoscalerServiceInvalidPolicyExceptionException, AutoscalerServiceCloudControllerConnectionExceptionException {
-        stub.updateDeploymentPolicy(deploymentPolicy);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.updateDeploymentPolicy(deploymentPolicy);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void removeDeploymentPolicy(String deploymentPolicyID) throws RemoteException,
             AutoscalerServiceDeploymentPolicyNotExistsExceptionException,
             AutoscalerServiceUnremovablePolicyExceptionException {
-        stub.removeDeployementPolicy(deploymentPolicyID);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.removeDeployementPolicy(deploymentPolicyID);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public DeploymentPolicy getDeploymentPolicy(String deploymentPolicyID) throws RemoteException {
-        return stub.getDeploymentPolicy(deploymentPolicyID);
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getDeploymentPolicy(deploymentPolicyID);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public DeploymentPolicy[] getDeploymentPolicies() throws RemoteException {
-        return stub.getDeploymentPolicies();
+        AutoscalerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getDeploymentPolicies();
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
 }
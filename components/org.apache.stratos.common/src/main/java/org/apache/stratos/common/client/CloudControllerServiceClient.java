@@ -20,7 +20,6 @@
 package org.apache.stratos.common.client;
 
 import org.apache.axis2.AxisFault;
-import org.apache.axis2.transport.http.HTTPConstants;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -35,12 +34,22 @@ import java.rmi.RemoteException;
 
 public class CloudControllerServiceClient {
 
-    private CloudControllerServiceStub stub;
+    private final ServiceStubPool<CloudControllerServiceStub> stubPool;
 
     private static final Log log = LogFactory.getLog(CloudControllerServiceClient.class);
     private static volatile CloudControllerServiceClient instance;
 
-    private CloudControllerServiceClient(String epr) throws AxisFault {
+    CloudControllerServiceClient(final CloudControllerServiceStub stub) throws AxisFault {
+        stubPool = new ServiceStubPool<CloudControllerServiceStub>(
+                new ServiceStubPool.StubFactory<CloudControllerServiceStub>() {
+                    @Override
+                    public CloudControllerServiceStub createStub() {
+                        return stub;
+                    }
+                }, 1, 0);
+    }
+
+    CloudControllerServiceClient(final String epr) throws AxisFault {
 
         String ccSocketTimeout = System.getProperty(StratosConstants.CLOUD_CONTROLLER_CLIENT_SOCKET_TIMEOUT) == null ?
                 StratosConstants.DEFAULT_CLIENT_SOCKET_TIMEOUT :
@@ -50,16 +59,25 @@ public class CloudControllerServiceClient {
                 StratosConstants.DEFAULT_CLIENT_CONNECTION_TIMEOUT :
                 System.getProperty(StratosConstants.CLOUD_CONTROLLER_CLIENT_CONNECTION_TIMEOUT);
 
-        try {
-            stub = new CloudControllerServiceStub(epr);
-            stub._getServiceClient().getOptions().setProperty(HTTPConstants.SO_TIMEOUT, Integer.valueOf(ccSocketTimeout));
-            stub._getServiceClient().getOptions().setProperty(HTTPConstants.CONNECTION_TIMEOUT, new Integer(ccConnectionTimeout));
-
-        } catch (AxisFault axisFault) {
-            String msg = "Could not initialize cloud controller service client";
-            log.error(msg, axisFault);
-            throw new AxisFault(msg, axisFault);
-        }
+        final ServiceClientTransport transport = ServiceClientTransport.getInstance();
+        final int socketTimeout = Integer.parseInt(ccSocketTimeout);
+        final int connectionTimeout = Integer.parseInt(ccConnectionTimeout);
+        stubPool = new ServiceStubPool<CloudControllerServiceStub>(
+                new ServiceStubPool.StubFactory<CloudControllerServiceStub>() {
+                    @Override
+                    public CloudControllerServiceStub createStub() throws AxisFault {
+                        try {
+                            CloudControllerServiceStub stub = new CloudControllerServiceStub(
+                                    transport.getConfigurationContext(), epr);
+                            transport.configure(stub, socketTimeout, connectionTimeout);
+                            return stub;
+                        } catch (AxisFault axisFault) {
+                            String msg = "Could not initialize cloud controller service client";
+                            log.error(msg, axisFault);
+                            throw new AxisFault(msg, axisFault);
+                        }
+                    }
+                }, transport.getStubPoolSize(), transport.getStubBorrowTimeout());
     }
 
     public static CloudControllerServiceClient getInstance() throws AxisFault {
@@ -82,157 +100,335 @@ public class CloudControllerServiceClient {
             throws RemoteException, CloudControllerServiceCartridgeAlreadyExistsExceptionException,
             CloudControllerServiceInvalidCartridgeDefinitionExceptionException,
             CloudControllerServiceInvalidIaasProviderExceptionException {
-        stub.addCartridge(cartridgeConfig);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.addCartridge(cartridgeConfig);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void updateCartridge(Cartridge cartridgeConfig)
             throws RemoteException, CloudControllerServiceInvalidCartridgeDefinitionExceptionException,
             CloudControllerServiceInvalidIaasProviderExceptionException,
             CloudControllerServiceCartridgeDefinitionNotExistsExceptionException {
-        stub.updateCartridge(cartridgeConfig);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.updateCartridge(cartridgeConfig);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void removeCartridge(String cartridgeType) throws RemoteException, CloudControllerServiceInvalidCartridgeTypeExceptionException {
-        stub.removeCartridge(cartridgeType);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.removeCartridge(cartridgeType);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public String[] getServiceGroupSubGroups(String name) throws RemoteException, CloudControllerServiceInvalidServiceGroupExceptionException {
-        return stub.getServiceGroupSubGroups(name);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getServiceGroupSubGroups(name);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public String[] getServiceGroupCartridges(String name) throws RemoteException, CloudControllerServiceInvalidServiceGroupExceptionException {
-        return stub.getServiceGroupCartridges(name);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getServiceGroupCartridges(name);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public Dependencies getServiceGroupDependencies(String name) throws RemoteException, CloudControllerServiceInvalidServiceGroupExceptionException {
-        return stub.getServiceGroupDependencies(name);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getServiceGroupDependencies(name);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public ServiceGroup getServiceGroup(String name) throws RemoteException, CloudControllerServiceInvalidServiceGroupExceptionException {
-        return stub.getServiceGroup(name);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getServiceGroup(name);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public String[] getRegisteredCartridges() throws RemoteException {
-        return stub.getCartridges();
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getCartridges();
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public Cartridge getCartridge(String cartridgeType) throws RemoteException,
             CloudControllerServiceCartridgeNotFoundExceptionException {
-        return stub.getCartridge(cartridgeType);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getCartridge(cartridgeType);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
-    public ClusterContext getClusterContext(String clusterId) throws RemoteException {
+    /**
+     * Get the cartridges of the given types in a single call, types which are not registered are skipped.
+     */
+    public Cartridge[] getCartridges(String[] cartridgeTypes) throws RemoteException {
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            Cartridge[] cartridges = stub.getCartridgesByTypes(cartridgeTypes);
+            return (cartridges != null) ? cartridges : new Cartridge[0];
+        } finally {
+            stubPool.returnStub(stub);
+        }
+    }
+
+    /**
+     * Get all registered cartridges in a single call.
+     */
+    public Cartridge[] getAllCartridges() throws RemoteException {
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            Cartridge[] cartridges = stub.getAllCartridges();
+            return (cartridges != null) ? cartridges : new Cartridge[0];
+        } finally {
+            stubPool.returnStub(stub);
+        }
+    }
 
-        return stub.getClusterContext(clusterId);
+    public ClusterContext getClusterContext(String clusterId) throws RemoteException {
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getClusterContext(clusterId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public boolean updateKubernetesCluster(KubernetesCluster kubernetesCluster) throws RemoteException,
             CloudControllerServiceInvalidKubernetesClusterExceptionException {
-        return stub.updateKubernetesCluster(kubernetesCluster);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.updateKubernetesCluster(kubernetesCluster);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
 
     public boolean deployKubernetesCluster(KubernetesCluster kubernetesCluster) throws RemoteException,
             CloudControllerServiceInvalidKubernetesClusterExceptionException,
             CloudControllerServiceKubernetesClusterAlreadyExistsExceptionException {
-        return stub.addKubernetesCluster(kubernetesCluster);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.addKubernetesCluster(kubernetesCluster);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public boolean addKubernetesHost(String kubernetesClusterId, KubernetesHost kubernetesHost)
             throws RemoteException, CloudControllerServiceInvalidKubernetesHostExceptionException,
             CloudControllerServiceNonExistingKubernetesClusterExceptionException {
-
-        return stub.addKubernetesHost(kubernetesClusterId, kubernetesHost);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.addKubernetesHost(kubernetesClusterId, kubernetesHost);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public boolean updateKubernetesMaster(KubernetesMaster kubernetesMaster) throws RemoteException,
             CloudControllerServiceInvalidKubernetesMasterExceptionException,
             CloudControllerServiceNonExistingKubernetesMasterExceptionException {
-        return stub.updateKubernetesMaster(kubernetesMaster);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.updateKubernetesMaster(kubernetesMaster);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public KubernetesCluster[] getAvailableKubernetesClusters() throws RemoteException {
-        return stub.getKubernetesClusters();
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getKubernetesClusters();
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public KubernetesCluster getKubernetesCluster(String kubernetesClusterId) throws RemoteException,
             CloudControllerServiceNonExistingKubernetesClusterExceptionException {
-        return stub.getKubernetesCluster(kubernetesClusterId);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getKubernetesCluster(kubernetesClusterId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void undeployKubernetesCluster(String kubernetesClusterId) throws RemoteException,
             CloudControllerServiceNonExistingKubernetesClusterExceptionException {
-        stub.removeKubernetesCluster(kubernetesClusterId);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.removeKubernetesCluster(kubernetesClusterId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public boolean undeployKubernetesHost(String kubernetesHostId) throws RemoteException,
             CloudControllerServiceNonExistingKubernetesHostExceptionException {
-        return stub.removeKubernetesHost(kubernetesHostId);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.removeKubernetesHost(kubernetesHostId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public KubernetesHost[] getKubernetesHosts(String kubernetesClusterId) throws RemoteException,
             CloudControllerServiceNonExistingKubernetesClusterExceptionException {
-        return stub.getHostsForKubernetesCluster(kubernetesClusterId);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getHostsForKubernetesCluster(kubernetesClusterId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public KubernetesMaster getKubernetesMaster(String kubernetesClusterId) throws RemoteException,
             CloudControllerServiceNonExistingKubernetesClusterExceptionException {
-        return stub.getMasterForKubernetesCluster(kubernetesClusterId);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getMasterForKubernetesCluster(kubernetesClusterId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public boolean updateKubernetesHost(KubernetesHost kubernetesHost) throws RemoteException,
             CloudControllerServiceInvalidKubernetesHostExceptionException,
             CloudControllerServiceNonExistingKubernetesHostExceptionException {
-        return stub.updateKubernetesHost(kubernetesHost);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.updateKubernetesHost(kubernetesHost);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void validateNetworkPartitionOfDeploymentPolicy(String cartridgeType, String networkPartitionId)
             throws RemoteException,
             CloudControllerServiceInvalidPartitionExceptionException,
             CloudControllerServiceInvalidCartridgeTypeExceptionException {
-        stub.validateDeploymentPolicyNetworkPartition(cartridgeType, networkPartitionId);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.validateDeploymentPolicyNetworkPartition(cartridgeType, networkPartitionId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void addNetworkPartition(NetworkPartition networkPartition) throws RemoteException,
             CloudControllerServiceNetworkPartitionAlreadyExistsExceptionException,
             CloudControllerServiceInvalidNetworkPartitionExceptionException {
-        stub.addNetworkPartition(networkPartition);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.addNetworkPartition(networkPartition);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void removeNetworkPartition(String networkPartitionId) throws RemoteException,
             CloudControllerServiceNetworkPartitionNotExistsExceptionException {
-        stub.removeNetworkPartition(networkPartitionId);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.removeNetworkPartition(networkPartitionId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void updateNetworkPartition(NetworkPartition networkPartition) throws RemoteException,
             CloudControllerServiceNetworkPartitionNotExistsExceptionException {
-        stub.updateNetworkPartition(networkPartition);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.updateNetworkPartition(networkPartition);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public NetworkPartition[] getNetworkPartitions() throws RemoteException {
-        return stub.getNetworkPartitions();
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getNetworkPartitions();
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public NetworkPartition getNetworkPartition(String networkPartitionId) throws RemoteException {
-        return stub.getNetworkPartition(networkPartitionId);
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getNetworkPartition(networkPartitionId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void createClusterInstance(String serviceType, String clusterId,
                                       String alias, String instanceId, String partitionId,
                                       String networkPartitionId) throws RemoteException {
+        CloudControllerServiceStub stub = stubPool.borrowStub();
         try {
-            stub.createClusterInstance(serviceType, clusterId, alias,
-                    instanceId, partitionId, networkPartitionId);
-
-        } catch (CloudControllerServiceClusterInstanceCreationExceptionException e) {
-            String msg = e.getFaultMessage().getClusterInstanceCreationException().getMessage();
-            log.error(msg, e);
-            throw new RuntimeException(msg, e);
+            try {
+                stub.createClusterInstance(serviceType, clusterId, alias,
+                        instanceId, partitionId, networkPartitionId);
+
+            } catch (CloudControllerServiceClusterInstanceCreationExceptionException e) {
+                String msg = e.getFaultMessage().getClusterInstanceCreationException().getMessage();
+                log.error(msg, e);
+                throw new RuntimeException(msg, e);
+            }
+        } finally {
+            stubPool.returnStub(stub);
         }
     }
 
     public String[] getIaasProviders() throws RemoteException {
-        return stub.getIaasProviders();
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getIaasProviders();
+        } finally {
+            stubPool.returnStub(stub);
+        }
+    }
+
+    public TemplateCacheStatistics getTemplateCacheStatistics() throws RemoteException {
+        CloudControllerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getTemplateCacheStatistics();
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
 }
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.client;
+
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.client.Options;
+import org.apache.axis2.client.Stub;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.context.ConfigurationContextFactory;
+import org.apache.axis2.transport.http.HTTPConstants;
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
+import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.constants.StratosConstants;
+
+/**
+ * HTTP transport shared by the Axis2 service clients. All stubs are created in the same
+ * configuration context and send their requests through a single http client backed by a
+ * multi-threaded connection manager, hence connections are kept alive and reused across
+ * calls and stubs instead of being opened for each call. The pool sizes are read from the
+ * following system properties:
+ * <ul>
+ * <li>service.client.max.connections.per.host: connections kept per service host</li>
+ * <li>service.client.max.total.connections: connections kept to all hosts</li>
+ * <li>service.client.stub.pool.size: stubs created per service client</li>
+ * <li>service.client.stub.borrow.timeout: milliseconds a call waits for a free stub</li>
+ * </ul>
+ */
+public class ServiceClientTransport {
+
+    private static final Log log = LogFactory.getLog(ServiceClientTransport.class);
+
+    private static volatile ServiceClientTransport instance;
+
+    private final ConfigurationContext configurationContext;
+    private final MultiThreadedHttpConnectionManager connectionManager;
+    private final HttpClient httpClient;
+    private final int stubPoolSize;
+    private final long stubBorrowTimeout;
+
+    private ServiceClientTransport() throws AxisFault {
+        int maxConnectionsPerHost = Integer.getInteger(StratosConstants.SERVICE_CLIENT_MAX_CONNECTIONS_PER_HOST,
+                StratosConstants.DEFAULT_SERVICE_CLIENT_MAX_CONNECTIONS_PER_HOST);
+        int maxTotalConnections = Integer.getInteger(StratosConstants.SERVICE_CLIENT_MAX_TOTAL_CONNECTIONS,
+                StratosConstants.DEFAULT_SERVICE_CLIENT_MAX_TOTAL_CONNECTIONS);
+        stubPoolSize = Integer.getInteger(StratosConstants.SERVICE_CLIENT_STUB_POOL_SIZE,
+                StratosConstants.DEFAULT_SERVICE_CLIENT_STUB_POOL_SIZE);
+        stubBorrowTimeout = Long.getLong(StratosConstants.SERVICE_CLIENT_STUB_BORROW_TIMEOUT,
+                StratosConstants.DEFAULT_SERVICE_CLIENT_STUB_BORROW_TIMEOUT);
+
+        connectionManager = new MultiThreadedHttpConnectionManager();
+        HttpConnectionManagerParams params = connectionManager.getParams();
+        params.setDefaultMaxConnectionsPerHost(maxConnectionsPerHost);
+        params.setMaxTotalConnections(maxTotalConnections);
+        params.setStaleCheckingEnabled(true);
+        httpClient = new HttpClient(connectionManager);
+
+        try {
+            configurationContext = ConfigurationContextFactory.createConfigurationContextFromFileSystem(null, null);
+        } catch (AxisFault axisFault) {
+            String msg = "Could not create service client configuration context";
+            log.error(msg, axisFault);
+            throw new AxisFault(msg, axisFault);
+        }
+        configurationContext.setProperty(HTTPConstants.REUSE_HTTP_CLIENT, Boolean.TRUE);
+        configurationContext.setProperty(HTTPConstants.CACHED_HTTP_CLIENT, httpClient);
+
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Service client transport initialized: [max-connections-per-host] %d " +
+                            "[max-total-connections] %d [stub-pool-size] %d", maxConnectionsPerHost,
+                    maxTotalConnections, stubPoolSize));
+        }
+    }
+
+    public static ServiceClientTransport getInstance() throws AxisFault {
+        if (instance == null) {
+            synchronized (ServiceClientTransport.class) {
+                if (instance == null) {
+                    instance = new ServiceClientTransport();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return configuration context the stubs are to be created in
+     */
+    public ConfigurationContext getConfigurationContext() {
+        return configurationContext;
+    }
+
+    /**
+     * Configure the given stub to use the shared http client with the given timeouts. The
+     * transport is cleaned up after each call, so that the connection is released to the
+     * connection manager as soon as the response is read.
+     *
+     * @param stub              stub to be configured
+     * @param socketTimeout     socket timeout of each call in milliseconds
+     * @param connectionTimeout connection timeout of each call in milliseconds
+     */
+    public void configure(Stub stub, int socketTimeout, int connectionTimeout) {
+        Options options = stub._getServiceClient().getOptions();
+        options.setProperty(HTTPConstants.SO_TIMEOUT, socketTimeout);
+        options.setProperty(HTTPConstants.CONNECTION_TIMEOUT, connectionTimeout);
+        options.setProperty(HTTPConstants.HTTP_PROTOCOL_VERSION, HTTPConstants.HEADER_PROTOCOL_11);
+        options.setProperty(HTTPConstants.REUSE_HTTP_CLIENT, Boolean.TRUE);
+        options.setProperty(HTTPConstants.CACHED_HTTP_CLIENT, httpClient);
+        options.setCallTransportCleanup(true);
+    }
+
+    public int getStubPoolSize() {
+        return stubPoolSize;
+    }
+
+    public long getStubBorrowTimeout() {
+        return stubBorrowTimeout;
+    }
+
+    /**
+     * @return number of connections currently open to all hosts
+     */
+    public int getConnectionsInPool() {
+        return connectionManager.getConnectionsInPool();
+    }
+
+    /**
+     * Close all connections of the shared http client.
+     */
+    public void shutdown() {
+        connectionManager.shutdown();
+    }
+}
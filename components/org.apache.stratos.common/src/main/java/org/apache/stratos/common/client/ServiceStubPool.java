@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.client;
+
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.client.Stub;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of Axis2 stubs of a service. A stub is used by one call at a time, hence concurrent
+ * calls do not share the options and operation state of a single stub. Stubs are created on
+ * demand up to the maximum size of the pool, further calls wait for a stub to be returned.
+ * The first stub is created with the pool, so that an invalid endpoint fails fast.
+ *
+ * @param <T> stub type
+ */
+public class ServiceStubPool<T extends Stub> {
+
+    private static final Log log = LogFactory.getLog(ServiceStubPool.class);
+
+    /**
+     * Creates the stubs of a pool.
+     *
+     * @param <T> stub type
+     */
+    public interface StubFactory<T extends Stub> {
+
+        T createStub() throws AxisFault;
+    }
+
+    private final StubFactory<T> stubFactory;
+    private final int maxSize;
+    private final long borrowTimeout;
+    private final BlockingQueue<T> idleStubs;
+    private final AtomicInteger size;
+
+    /**
+     * @param stubFactory   factory creating the stubs
+     * @param maxSize       maximum number of stubs
+     * @param borrowTimeout milliseconds to wait for a stub once all stubs are in use
+     * @throws AxisFault if the first stub could not be created
+     */
+    public ServiceStubPool(StubFactory<T> stubFactory, int maxSize, long borrowTimeout) throws AxisFault {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Stub pool size should be greater than zero: [max-size] " + maxSize);
+        }
+        this.stubFactory = stubFactory;
+        this.maxSize = maxSize;
+        this.borrowTimeout = borrowTimeout;
+        this.idleStubs = new LinkedBlockingQueue<T>();
+        this.size = new AtomicInteger(1);
+        idleStubs.add(stubFactory.createStub());
+    }
+
+    /**
+     * Take a stub out of the pool, the stub needs to be returned once the call is completed.
+     *
+     * @return stub
+     * @throws AxisFault if a new stub could not be created or no stub was returned within
+     *                   the borrow timeout
+     */
+    public T borrowStub() throws AxisFault {
+        T stub = idleStubs.poll();
+        if (stub != null) {
+            return stub;
+        }
+
+        while (true) {
+            int currentSize = size.get();
+            if (currentSize >= maxSize) {
+                break;
+            }
+            if (size.compareAndSet(currentSize, currentSize + 1)) {
+                try {
+                    return stubFactory.createStub();
+                } catch (AxisFault axisFault) {
+                    size.decrementAndGet();
+                    throw axisFault;
+                } catch (RuntimeException e) {
+                    size.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+
+        try {
+            stub = idleStubs.poll(borrowTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AxisFault("Interrupted while waiting for a service stub", e);
+        }
+        if (stub == null) {
+            throw new AxisFault(String.format("No service stub returned within %d ms: [pool-size] %d",
+                    borrowTimeout, maxSize));
+        }
+        return stub;
+    }
+
+    /**
+     * Return a stub taken by {@link #borrowStub()} to the pool.
+     *
+     * @param stub stub
+     */
+    public void returnStub(T stub) {
+        try {
+            // Release the connection if the call failed before the response was read
+            stub._getServiceClient().cleanupTransport();
+        } catch (AxisFault axisFault) {
+            if (log.isDebugEnabled()) {
+                log.debug("Could not clean up service stub transport", axisFault);
+            }
+        }
+        idleStubs.offer(stub);
+    }
+
+    /**
+     * @return number of stubs created
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * @return number of stubs not in use
+     */
+    public int getIdleCount() {
+        return idleStubs.size();
+    }
+}
@@ -20,7 +20,6 @@
 package org.apache.stratos.common.client;
 
 import org.apache.axis2.AxisFault;
-import org.apache.axis2.transport.http.HTTPConstants;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -39,12 +38,12 @@ import java.rmi.RemoteException;
  */
 public class StratosManagerServiceClient {
 
-    private StratosManagerServiceStub stub;
+    private final ServiceStubPool<StratosManagerServiceStub> stubPool;
 
     private static final Log log = LogFactory.getLog(StratosManagerServiceClient.class);
     private static volatile StratosManagerServiceClient instance;
 
-    private StratosManagerServiceClient(String epr) throws AxisFault {
+    StratosManagerServiceClient(final String epr) throws AxisFault {
 
         String ccSocketTimeout = System.getProperty(StratosConstants.STRATOS_MANAGER_CLIENT_SOCKET_TIMEOUT) == null ?
                 StratosConstants.DEFAULT_CLIENT_SOCKET_TIMEOUT :
@@ -54,16 +53,25 @@ public class StratosManagerServiceClient {
                 StratosConstants.DEFAULT_CLIENT_CONNECTION_TIMEOUT :
                 System.getProperty(StratosConstants.STRATOS_MANAGER_CLIENT_CONNECTION_TIMEOUT);
 
-        try {
-            stub = new StratosManagerServiceStub(epr);
-            stub._getServiceClient().getOptions().setProperty(HTTPConstants.SO_TIMEOUT, Integer.valueOf(ccSocketTimeout));
-            stub._getServiceClient().getOptions().setProperty(HTTPConstants.CONNECTION_TIMEOUT, Integer.valueOf(ccConnectionTimeout));
-
-        } catch (AxisFault axisFault) {
-            String msg = "Could not initialize stratos manager service client";
-            log.error(msg, axisFault);
-            throw new AxisFault(msg, axisFault);
-        }
+        final ServiceClientTransport transport = ServiceClientTransport.getInstance();
+        final int socketTimeout = Integer.parseInt(ccSocketTimeout);
+        final int connectionTimeout = Integer.parseInt(ccConnectionTimeout);
+        stubPool = new ServiceStubPool<StratosManagerServiceStub>(
+                new ServiceStubPool.StubFactory<StratosManagerServiceStub>() {
+                    @Override
+                    public StratosManagerServiceStub createStub() throws AxisFault {
+                        try {
+                            StratosManagerServiceStub stub = new StratosManagerServiceStub(
+                                    transport.getConfigurationContext(), epr);
+                            transport.configure(stub, socketTimeout, connectionTimeout);
+                            return stub;
+                        } catch (AxisFault axisFault) {
+                            String msg = "Could not initialize stratos manager service client";
+                            log.error(msg, axisFault);
+                            throw new AxisFault(msg, axisFault);
+                        }
+                    }
+                }, transport.getStubPoolSize(), transport.getStubBorrowTimeout());
     }
 
     public static StratosManagerServiceClient getInstance() throws AxisFault {
@@ -88,7 +96,12 @@ public class StratosManagerServiceClient {
      * @param applicationSignUp
      */
     public void addApplicationSignUp(ApplicationSignUp applicationSignUp) throws StratosManagerServiceApplicationSignUpExceptionException, RemoteException {
-        stub.addApplicationSignUp(applicationSignUp);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.addApplicationSignUp(applicationSignUp);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     /**
@@ -98,7 +111,12 @@ public class StratosManagerServiceClient {
      * @param tenantId
      */
     public void removeApplicationSignUp(String applicationId, int tenantId) throws StratosManagerServiceApplicationSignUpExceptionException, RemoteException {
-        stub.removeApplicationSignUp(applicationId, tenantId);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.removeApplicationSignUp(applicationId, tenantId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     /**
@@ -109,7 +127,12 @@ public class StratosManagerServiceClient {
      * @return
      */
     public ApplicationSignUp getApplicationSignUp(String applicationId, int tenantId) throws StratosManagerServiceApplicationSignUpExceptionException, RemoteException {
-        return stub.getApplicationSignUp(applicationId, tenantId);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getApplicationSignUp(applicationId, tenantId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     /**
@@ -118,7 +141,12 @@ public class StratosManagerServiceClient {
      * @return
      */
     public ApplicationSignUp[] getApplicationSignUps(String applicationId) throws StratosManagerServiceApplicationSignUpExceptionException, RemoteException {
-        return stub.getApplicationSignUps(applicationId);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getApplicationSignUps(applicationId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     /**
@@ -130,7 +158,12 @@ public class StratosManagerServiceClient {
      * @throws RemoteException
      */
     public void notifyArtifactUpdatedEventForSignUp(String applicationId, int tenantId) throws StratosManagerServiceArtifactDistributionCoordinatorExceptionException, RemoteException {
-        stub.notifyArtifactUpdatedEventForSignUp(applicationId, tenantId);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.notifyArtifactUpdatedEventForSignUp(applicationId, tenantId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     /**
@@ -141,19 +174,39 @@ public class StratosManagerServiceClient {
      * @throws RemoteException
      */
     public void notifyArtifactUpdatedEventForRepository(String repoUrl) throws StratosManagerServiceArtifactDistributionCoordinatorExceptionException, RemoteException {
-        stub.notifyArtifactUpdatedEventForRepository(repoUrl);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.notifyArtifactUpdatedEventForRepository(repoUrl);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void addDomainMapping(DomainMapping domainMapping) throws RemoteException, StratosManagerServiceDomainMappingExceptionException {
-        stub.addDomainMapping(domainMapping);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.addDomainMapping(domainMapping);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public void removeDomainMapping(String applicationId, int tenantId, String domainName) throws RemoteException, StratosManagerServiceDomainMappingExceptionException {
-        stub.removeDomainMapping(applicationId, tenantId, domainName);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.removeDomainMapping(applicationId, tenantId, domainName);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     public DomainMapping[] getDomainMappings(String applicationId, int tenantId) throws RemoteException, StratosManagerServiceDomainMappingExceptionException {
-        return stub.getDomainMappings(applicationId, tenantId);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.getDomainMappings(applicationId, tenantId);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     /**
@@ -164,7 +217,12 @@ public class StratosManagerServiceClient {
      * @throws RemoteException the remote exception
      */
     public void addUsedCartridgesInCartridgeGroups(String cartridgeGroupName, String[] cartridgeNames) throws RemoteException {
-        stub.addUsedCartridgesInCartridgeGroups(cartridgeGroupName, cartridgeNames);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.addUsedCartridgesInCartridgeGroups(cartridgeGroupName, cartridgeNames);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     /**
@@ -175,7 +233,12 @@ public class StratosManagerServiceClient {
      * @throws RemoteException the remote exception
      */
     public void removeUsedCartridgesInCartridgeGroups(String cartridgeGroupName, String[] cartridgeNames) throws RemoteException {
-        stub.removeUsedCartridgesInCartridgeGroups(cartridgeGroupName, cartridgeNames);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.removeUsedCartridgesInCartridgeGroups(cartridgeGroupName, cartridgeNames);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     /**
@@ -186,7 +249,12 @@ public class StratosManagerServiceClient {
      * @throws RemoteException the remote exception
      */
     public void addUsedCartridgesInApplications(String applicationName, String[] cartridgeNames) throws RemoteException {
-        stub.addUsedCartridgesInApplications(applicationName, cartridgeNames);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.addUsedCartridgesInApplications(applicationName, cartridgeNames);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     /**
@@ -197,7 +265,12 @@ public class StratosManagerServiceClient {
      * @throws RemoteException the remote exception
      */
     public void removeUsedCartridgesInApplications(String applicationName, String[] cartridgeNames) throws RemoteException {
-        stub.removeUsedCartridgesInApplications(applicationName, cartridgeNames);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.removeUsedCartridgesInApplications(applicationName, cartridgeNames);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     /**
@@ -208,7 +281,12 @@ public class StratosManagerServiceClient {
      * @throws RemoteException the remote exception
      */
     public boolean canCartridgeBeRemoved(String cartridgeName) throws RemoteException {
-        return stub.canCartridgeBeRemoved(cartridgeName);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.canCartridgeBeRemoved(cartridgeName);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     /**
@@ -219,7 +297,12 @@ public class StratosManagerServiceClient {
      * @throws RemoteException the remote exception
      */
     public void addUsedCartridgeGroupsInCartridgeSubGroups(String cartridgeSubGroupName, String[] cartridgeGroupNames) throws RemoteException {
-        stub.addUsedCartridgeGroupsInCartridgeSubGroups(cartridgeSubGroupName, cartridgeGroupNames);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.addUsedCartridgeGroupsInCartridgeSubGroups(cartridgeSubGroupName, cartridgeGroupNames);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     /**
@@ -230,7 +313,12 @@ public class StratosManagerServiceClient {
      * @throws RemoteException the remote exception
      */
     public void removeUsedCartridgeGroupsInCartridgeSubGroups(String cartridgeSubGroupName, String[] cartridgeGroupNames) throws RemoteException {
-        stub.removeUsedCartridgeGroupsInCartridgeSubGroups(cartridgeSubGroupName, cartridgeGroupNames);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.removeUsedCartridgeGroupsInCartridgeSubGroups(cartridgeSubGroupName, cartridgeGroupNames);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     /**
@@ -241,7 +329,12 @@ public class StratosManagerServiceClient {
      * @throws RemoteException the remote exception
      */
     public void addUsedCartridgeGroupsInApplications(String applicationName, String[] cartridgeGroupNames) throws RemoteException {
-        stub.addUsedCartridgeGroupsInApplications(applicationName, cartridgeGroupNames);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.addUsedCartridgeGroupsInApplications(applicationName, cartridgeGroupNames);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     /**
@@ -252,7 +345,12 @@ public class StratosManagerServiceClient {
      * @throws RemoteException the remote exception
      */
     public void removeUsedCartridgeGroupsInApplications(String applicationName, String[] cartridgeGroupNames) throws RemoteException {
-        stub.removeUsedCartridgeGroupsInApplications(applicationName, cartridgeGroupNames);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            stub.removeUsedCartridgeGroupsInApplications(applicationName, cartridgeGroupNames);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 
     /**
@@ -263,6 +361,11 @@ public class StratosManagerServiceClient {
      * @throws RemoteException the remote exception
      */
     public boolean canCartirdgeGroupBeRemoved(String cartridgeGroupName) throws RemoteException {
-        return stub.canCartirdgeGroupBeRemoved(cartridgeGroupName);
+        StratosManagerServiceStub stub = stubPool.borrowStub();
+        try {
+            return stub.canCartirdgeGroupBeRemoved(cartridgeGroupName);
+        } finally {
+            stubPool.returnStub(stub);
+        }
     }
 }
@@ -19,46 +19,102 @@
 
 package org.apache.stratos.common.clustering.impl;
 
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IList;
 import com.hazelcast.core.ILock;
 import com.hazelcast.core.IMap;
 import org.apache.axis2.engine.AxisConfiguration;
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.concurrent.locks.LockBatch;
 import org.apache.stratos.common.internal.ServiceReferenceHolder;
 import org.apache.stratos.common.services.DistributedObjectProvider;
 import org.wso2.carbon.caching.impl.MapEntryListener;
 import org.wso2.carbon.core.clustering.hazelcast.HazelcastDistributedMapProvider;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Implements DistributedObjectProvider osgi service interface for providing objects to be managed
  * in distributed and non-distributed environments.
+ * <p/>
+ * Distributed maps listed in the distributed.object.provider.near.cache.maps system property
+ * (comma separated map names) are read through a hazelcast near cache on this member. Entries
+ * of a near cache are invalidated when they are updated on any member, hence near caches should
+ * only be enabled for read-mostly maps. The time to live of near cached entries in seconds and
+ * the maximum number of near cached entries per map can be set using the
+ * distributed.object.provider.near.cache.ttl and distributed.object.provider.near.cache.max.size
+ * system properties.
  */
 public class HazelcastDistributedObjectProvider implements DistributedObjectProvider {
 
     private static final Log log = LogFactory.getLog(HazelcastDistributedObjectProvider.class);
 
+    public static final String NEAR_CACHE_MAPS = "distributed.object.provider.near.cache.maps";
+    public static final String NEAR_CACHE_TTL = "distributed.object.provider.near.cache.ttl";
+    public static final String NEAR_CACHE_MAX_SIZE = "distributed.object.provider.near.cache.max.size";
+    private static final int DEFAULT_NEAR_CACHE_TTL = 0;
+    private static final int DEFAULT_NEAR_CACHE_MAX_SIZE = 10000;
+
+    private HazelcastInstance hazelcastInstance;
     private HazelcastDistributedMapProvider mapProvider;
     private HazelcastDistributedListProvider listProvider;
-    private Map<String, Map> mapsMap;
-    private Map<String, List> listsMap;
-    private Map<Object, Lock> locksMap;
+    private ConcurrentMap<String, Map> mapsMap;
+    private ConcurrentMap<String, List> listsMap;
+    private ConcurrentMap<Object, Lock> locksMap;
+    private ConcurrentMap<Object, ILock> distributedLocksMap;
+    private Set<String> nearCachedMaps;
 
     public HazelcastDistributedObjectProvider() {
-        HazelcastInstance hazelcastInstance = ServiceReferenceHolder.getInstance().getHazelcastInstance();
-        mapProvider = new HazelcastDistributedMapProvider(hazelcastInstance);
-        listProvider = new HazelcastDistributedListProvider(hazelcastInstance);
-        mapsMap = new HashMap<String, Map>();
-        listsMap = new HashMap<String, List>();
-        locksMap = new HashMap<Object, Lock>();
+        this(null);
+    }
+
+    /**
+     * @param hazelcastInstance hazelcast instance to provide distributed objects from regardless of the
+     *                          clustering configuration, if null distributed objects are provided from the
+     *                          hazelcast instance of the service reference holder when clustering is enabled
+     */
+    public HazelcastDistributedObjectProvider(HazelcastInstance hazelcastInstance) {
+        this.hazelcastInstance = hazelcastInstance;
+        mapProvider = new HazelcastDistributedMapProvider(getHazelcastInstance());
+        listProvider = new HazelcastDistributedListProvider(getHazelcastInstance());
+        mapsMap = new ConcurrentHashMap<String, Map>();
+        listsMap = new ConcurrentHashMap<String, List>();
+        locksMap = new ConcurrentHashMap<Object, Lock>();
+        distributedLocksMap = new ConcurrentHashMap<Object, ILock>();
+        nearCachedMaps = new HashSet<String>();
+
+        String nearCacheMaps = System.getProperty(NEAR_CACHE_MAPS);
+        if (StringUtils.isNotBlank(nearCacheMaps)) {
+            for (String name : nearCacheMaps.split(",")) {
+                if (StringUtils.isNotBlank(name)) {
+                    nearCachedMaps.add(name.trim());
+                }
+            }
+        }
+        if (getHazelcastInstance() != null) {
+            // Near caches need to be configured before the maps are created on this member
+            for (String name : nearCachedMaps) {
+                configureNearCache(name);
+            }
+        }
     }
 
     /**
@@ -69,44 +125,51 @@ public class HazelcastDistributedObjectProvider implements DistributedObjectProv
      */
     @Override
     public Map getMap(final String name) {
-        if (mapsMap.containsKey(name)) {
-            return mapsMap.get(name);
+        Map map = mapsMap.get(name);
+        if (map != null) {
+            return map;
         }
 
-        Map map = null;
-        if (isClustered()) {
-            map = mapProvider.getMap(name, new MapEntryListener() {
-                @Override
-                public <X> void entryAdded(X key) {
-                    if (log.isDebugEnabled()) {
-                        log.debug(String.format("Entry added to distributed map: [name] %s [key] %s",
-                                name, key));
+        synchronized (mapsMap) {
+            map = mapsMap.get(name);
+            if (map != null) {
+                return map;
+            }
+
+            if (isClustered()) {
+                map = mapProvider.getMap(name, new MapEntryListener() {
+                    @Override
+                    public <X> void entryAdded(X key) {
+                        if (log.isDebugEnabled()) {
+                            log.debug(String.format("Entry added to distributed map: [name] %s [key] %s",
+                                    name, key));
+                        }
                     }
-                }
 
-                @Override
-                public <X> void entryRemoved(X key) {
-                    if (log.isDebugEnabled()) {
-                        log.debug(String.format("Entry removed from distributed map: [name] %s [key] %s",
-                                name, key));
+                    @Override
+                    public <X> void entryRemoved(X key) {
+                        if (log.isDebugEnabled()) {
+                            log.debug(String.format("Entry removed from distributed map: [name] %s [key] %s",
+                                    name, key));
+                        }
                     }
-                }
 
-                @Override
-                public <X> void entryUpdated(X key) {
-                    if (log.isDebugEnabled()) {
-                        log.debug(String.format("Entry updated in distributed map: [name] %s [key] %s",
-                                name, key));
+                    @Override
+                    public <X> void entryUpdated(X key) {
+                        if (log.isDebugEnabled()) {
+                            log.debug(String.format("Entry updated in distributed map: [name] %s [key] %s",
+                                    name, key));
+                        }
                     }
-                }
-            });
-        } else {
-            map = new HashMap<Object, Object>();
-        }
-        if (map != null) {
-            mapsMap.put(name, map);
+                });
+            } else {
+                map = new HashMap<Object, Object>();
+            }
+            if (map != null) {
+                mapsMap.put(name, map);
+            }
+            return map;
         }
-        return map;
     }
 
     /**
@@ -115,13 +178,12 @@ public class HazelcastDistributedObjectProvider implements DistributedObjectProv
      * @param name
      */
     public void removeMap(String name) {
-        if (mapsMap.containsKey(name)) {
-            if (isClustered()) {
-                IMap map = (IMap) mapsMap.get(name);
+        synchronized (mapsMap) {
+            Map map = mapsMap.remove(name);
+            if ((map != null) && isClustered()) {
                 mapProvider.removeMap(name);
-                map.destroy();
+                ((IMap) map).destroy();
             }
-            mapsMap.remove(name);
         }
     }
 
@@ -133,34 +195,41 @@ public class HazelcastDistributedObjectProvider implements DistributedObjectProv
      */
     @Override
     public List getList(final String name) {
-        if (listsMap.containsKey(name)) {
-            return listsMap.get(name);
+        List list = listsMap.get(name);
+        if (list != null) {
+            return list;
         }
 
-        List list = null;
-        if (isClustered()) {
-            list = listProvider.getList(name, new ListEntryListener() {
-                @Override
-                public void itemAdded(Object item) {
-                    if (log.isDebugEnabled()) {
-                        log.debug(String.format("Item added to distributed list: [list] %s [item] %s", name, item));
+        synchronized (listsMap) {
+            list = listsMap.get(name);
+            if (list != null) {
+                return list;
+            }
+
+            if (isClustered()) {
+                list = listProvider.getList(name, new ListEntryListener() {
+                    @Override
+                    public void itemAdded(Object item) {
+                        if (log.isDebugEnabled()) {
+                            log.debug(String.format("Item added to distributed list: [list] %s [item] %s", name, item));
+                        }
                     }
-                }
 
-                @Override
-                public void itemRemoved(Object item) {
-                    if (log.isDebugEnabled()) {
-                        log.debug(String.format("Item removed from distributed list: [list] %s [item] %s", name, item));
+                    @Override
+                    public void itemRemoved(Object item) {
+                        if (log.isDebugEnabled()) {
+                            log.debug(String.format("Item removed from distributed list: [list] %s [item] %s", name, item));
+                        }
                     }
-                }
-            });
-        } else {
-            list = new ArrayList();
-        }
-        if (list != null) {
-            listsMap.put(name, list);
+                });
+            } else {
+                list = new ArrayList();
+            }
+            if (list != null) {
+                listsMap.put(name, list);
+            }
+            return list;
         }
-        return list;
     }
 
     /**
@@ -170,13 +239,12 @@ public class HazelcastDistributedObjectProvider implements DistributedObjectProv
      */
     @Override
     public void removeList(String name) {
-        if (listsMap.containsKey(name)) {
-            if (isClustered()) {
-                IList list = (IList) listsMap.get(name);
+        synchronized (listsMap) {
+            List list = listsMap.remove(name);
+            if ((list != null) && isClustered()) {
                 listProvider.removeList(name);
-                list.destroy();
+                ((IList) list).destroy();
             }
-            listsMap.remove(name);
         }
     }
 
@@ -194,11 +262,10 @@ public class HazelcastDistributedObjectProvider implements DistributedObjectProv
         } else {
             Lock lock = locksMap.get(object);
             if (lock == null) {
-                synchronized (object) {
-                    if (lock == null) {
-                        lock = new ReentrantLock();
-                        locksMap.put(object, lock);
-                    }
+                Lock newLock = new ReentrantLock();
+                lock = locksMap.putIfAbsent(object, newLock);
+                if (lock == null) {
+                    lock = newLock;
                 }
             }
             lock.lock();
@@ -207,29 +274,118 @@ public class HazelcastDistributedObjectProvider implements DistributedObjectProv
     }
 
     /**
-     * Releases a given distributed/local lock.
+     * Acquires the locks of the given objects in one batch. Locks are acquired in the order of the
+     * string representations of the objects, therefore batches sharing locks cannot deadlock each
+     * other. If a lock cannot be acquired the locks acquired so far are released.
+     *
+     * @param objects
+     * @return
+     */
+    @Override
+    public LockBatch acquireLocks(Object... objects) {
+        List<Object> sortedObjects = new ArrayList<Object>(new LinkedHashSet<Object>(Arrays.asList(objects)));
+        Collections.sort(sortedObjects, new Comparator<Object>() {
+            @Override
+            public int compare(Object object1, Object object2) {
+                return String.valueOf(object1).compareTo(String.valueOf(object2));
+            }
+        });
+
+        List<Lock> locks = new ArrayList<Lock>(sortedObjects.size());
+        try {
+            for (Object object : sortedObjects) {
+                Lock lock = acquireLock(object);
+                if (lock == null) {
+                    throw new IllegalStateException("Could not acquire lock: [object] " + object);
+                }
+                locks.add(lock);
+            }
+        } catch (RuntimeException e) {
+            releaseLocks(locks);
+            throw e;
+        }
+        return new LockBatch(locks);
+    }
+
+    /**
+     * Releases a given distributed/local lock. A distributed lock is released even if it is not held
+     * by the current thread, a local lock can only be released by the thread holding it.
      *
      * @param lock
      */
     @Override
     public void releaseLock(Lock lock) {
-        if (isClustered()) {
+        if (lock instanceof ILock) {
             releaseDistributedLock((ILock) lock);
         } else {
             lock.unlock();
         }
     }
 
+    /**
+     * Releases the locks of a batch in the reverse order of acquisition. All locks are released
+     * even if releasing one of them fails, the last failure is then thrown.
+     *
+     * @param lockBatch
+     */
+    @Override
+    public void releaseLocks(LockBatch lockBatch) {
+        releaseLocks(lockBatch.getLocks());
+    }
+
+    private void releaseLocks(List<Lock> locks) {
+        RuntimeException exception = null;
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            try {
+                releaseLock(locks.get(i));
+            } catch (RuntimeException e) {
+                log.error("Could not release lock", e);
+                exception = e;
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
     private boolean isClustered() {
+        if (hazelcastInstance != null) {
+            return true;
+        }
         AxisConfiguration axisConfiguration = ServiceReferenceHolder.getInstance().getAxisConfiguration();
         return ((axisConfiguration != null) && (axisConfiguration.getClusteringAgent() != null)
                 && (getHazelcastInstance() != null));
     }
 
     private HazelcastInstance getHazelcastInstance() {
+        if (hazelcastInstance != null) {
+            return hazelcastInstance;
+        }
         return ServiceReferenceHolder.getInstance().getHazelcastInstance();
     }
 
+    private void configureNearCache(String name) {
+        Config config = getHazelcastInstance().getConfig();
+        MapConfig mapConfig = config.getMapConfig(name);
+        if (!name.equals(mapConfig.getName())) {
+            // Do not modify a wildcard configuration shared with other maps
+            mapConfig = new MapConfig(mapConfig);
+            mapConfig.setName(name);
+            config.addMapConfig(mapConfig);
+        }
+
+        NearCacheConfig nearCacheConfig = new NearCacheConfig();
+        nearCacheConfig.setInvalidateOnChange(true);
+        nearCacheConfig.setTimeToLiveSeconds(Integer.getInteger(NEAR_CACHE_TTL, DEFAULT_NEAR_CACHE_TTL));
+        nearCacheConfig.setMaxSize(Integer.getInteger(NEAR_CACHE_MAX_SIZE, DEFAULT_NEAR_CACHE_MAX_SIZE));
+        mapConfig.setNearCacheConfig(nearCacheConfig);
+
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Near cache enabled for distributed map: [name] %s [ttl] %d [max-size] %d",
+                    name, nearCacheConfig.getTimeToLiveSeconds(), nearCacheConfig.getMaxSize()));
+        }
+    }
+
     protected com.hazelcast.core.ILock acquireDistributedLock(Object object) {
         if (object == null) {
             if (log.isWarnEnabled()) {
@@ -239,11 +395,19 @@ public class HazelcastDistributedObjectProvider implements DistributedObjectProv
         }
 
         if (log.isDebugEnabled()) {
-            log.debug(String.format("Acquiring distributed lock for %s...", object.getClass().getSimpleName()));
+            log.debug(String.format("Acquiring distributed lock for %s...", object));
+        }
+        ILock lock = distributedLocksMap.get(object);
+        if (lock == null) {
+            ILock newLock = getHazelcastInstance().getLock(object);
+            lock = distributedLocksMap.putIfAbsent(object, newLock);
+            if (lock == null) {
+                lock = newLock;
+            }
         }
-        ILock lock = getHazelcastInstance().getLock(object);
+        lock.lock();
         if (log.isDebugEnabled()) {
-            log.debug(String.format("Distributed lock acquired for %s", object.getClass().getSimpleName()));
+            log.debug(String.format("Distributed lock acquired for %s", object));
         }
         return lock;
     }
@@ -259,7 +423,17 @@ public class HazelcastDistributedObjectProvider implements DistributedObjectProv
         if (log.isDebugEnabled()) {
             log.debug(String.format("Releasing distributed lock for %s...", lock.getKey()));
         }
-        lock.forceUnlock();
+        if (lock.isLockedByCurrentThread()) {
+            lock.unlock();
+        } else {
+            // Distributed locks may be released by a thread other than the one which acquired them,
+            // for an example by an asynchronous callback
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Distributed lock is not held by the current thread, forcing release " +
+                        "of %s", lock.getKey()));
+            }
+            lock.forceUnlock();
+        }
         if (log.isDebugEnabled()) {
             log.debug(String.format("Distributed lock released for %s", lock.getKey()));
         }
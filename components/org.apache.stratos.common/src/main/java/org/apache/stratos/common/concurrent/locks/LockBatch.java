@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.concurrent.locks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Locks acquired in one batch by the distributed object provider, in the order of acquisition.
+ * A lock batch is released as a whole using the distributed object provider, it cannot be
+ * locked or unlocked itself.
+ */
+public class LockBatch {
+
+    private final List<Lock> locks;
+
+    public LockBatch(List<Lock> locks) {
+        this.locks = Collections.unmodifiableList(new ArrayList<Lock>(locks));
+    }
+
+    /**
+     * @return locks of the batch in the order of acquisition
+     */
+    public List<Lock> getLocks() {
+        return locks;
+    }
+}
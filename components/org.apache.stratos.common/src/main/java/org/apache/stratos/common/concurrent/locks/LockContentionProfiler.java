@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.concurrent.locks;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.threading.StratosThreadPool;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sampling contention profiler of read write locks, enabled with the read.write.lock.profiler.enabled
+ * system property. Statistics are kept per lock name and exposed over JMX as
+ * org.apache.stratos:type=LockContentionProfiler, the most contended locks are logged every
+ * read.write.lock.profiler.summary.interval milliseconds. Stack traces are only captured for every
+ * read.write.lock.profiler.sample.rate th acquisition and for acquisitions waiting longer than
+ * read.write.lock.profiler.wait.threshold milliseconds.
+ */
+public class LockContentionProfiler implements LockContentionProfilerMBean {
+
+    private static final Log log = LogFactory.getLog(LockContentionProfiler.class);
+
+    private static final String PROFILER_ENABLED = "read.write.lock.profiler.enabled";
+    private static final String SAMPLE_RATE = "read.write.lock.profiler.sample.rate";
+    private static final String WAIT_THRESHOLD = "read.write.lock.profiler.wait.threshold";
+    private static final String SUMMARY_INTERVAL = "read.write.lock.profiler.summary.interval";
+    private static final String PROFILER_SCHEDULER_ID = "read.write.lock.profiler.scheduler";
+    private static final String MBEAN_NAME = "org.apache.stratos:type=LockContentionProfiler";
+    private static final int DEFAULT_SAMPLE_RATE = 10000;
+    private static final long DEFAULT_WAIT_THRESHOLD = 100;
+    private static final long DEFAULT_SUMMARY_INTERVAL = 5 * 60 * 1000;
+    private static final int SUMMARY_LOCK_COUNT = 10;
+
+    private static volatile LockContentionProfiler instance;
+
+    private final boolean enabled;
+    private final ConcurrentMap<String, LockStatistics> lockStatisticsMap;
+    private volatile int sampleRate;
+    private volatile long waitThreshold;
+
+    /**
+     * @param enabled             whether locks are profiled
+     * @param sampleRate          every how many acquisitions the hold time and acquirer site are sampled
+     * @param waitThresholdMillis wait time above which the acquirer site is always sampled
+     */
+    LockContentionProfiler(boolean enabled, int sampleRate, long waitThresholdMillis) {
+        this.enabled = enabled;
+        this.lockStatisticsMap = new ConcurrentHashMap<String, LockStatistics>();
+        setSampleRate(sampleRate);
+        setWaitThresholdMillis(waitThresholdMillis);
+    }
+
+    public static LockContentionProfiler getInstance() {
+        if (instance == null) {
+            synchronized (LockContentionProfiler.class) {
+                if (instance == null) {
+                    LockContentionProfiler profiler = new LockContentionProfiler(Boolean.getBoolean(PROFILER_ENABLED),
+                            Integer.getInteger(SAMPLE_RATE, DEFAULT_SAMPLE_RATE),
+                            Long.getLong(WAIT_THRESHOLD, DEFAULT_WAIT_THRESHOLD));
+                    if (profiler.isEnabled()) {
+                        profiler.registerMBean();
+                        profiler.scheduleSummary(Long.getLong(SUMMARY_INTERVAL, DEFAULT_SUMMARY_INTERVAL));
+                    }
+                    instance = profiler;
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the statistics of the locks with the given name.
+     *
+     * @param lockName lock name
+     * @return lock statistics or null if the profiler is disabled
+     */
+    public LockStatistics getLockStatistics(String lockName) {
+        if (!enabled) {
+            return null;
+        }
+        LockStatistics lockStatistics = lockStatisticsMap.get(lockName);
+        if (lockStatistics == null) {
+            LockStatistics newLockStatistics = new LockStatistics(lockName, this);
+            lockStatistics = lockStatisticsMap.putIfAbsent(lockName, newLockStatistics);
+            if (lockStatistics == null) {
+                lockStatistics = newLockStatistics;
+            }
+        }
+        return lockStatistics;
+    }
+
+    /**
+     * Log the summaries of the most contended locks.
+     */
+    void logSummary() {
+        List<LockStatistics> contendedLocks = getContendedLocks(SUMMARY_LOCK_COUNT);
+        if (contendedLocks.isEmpty()) {
+            if (log.isDebugEnabled()) {
+                log.debug("Lock contention summary: no contended locks");
+            }
+            return;
+        }
+        for (LockStatistics lockStatistics : contendedLocks) {
+            log.info("Lock contention summary: " + lockStatistics.getSummary());
+        }
+    }
+
+    private List<LockStatistics> getContendedLocks(int limit) {
+        List<LockStatistics> contendedLocks = new ArrayList<LockStatistics>();
+        for (LockStatistics lockStatistics : lockStatisticsMap.values()) {
+            if (lockStatistics.getContentionCount() > 0) {
+                contendedLocks.add(lockStatistics);
+            }
+        }
+        Collections.sort(contendedLocks, new Comparator<LockStatistics>() {
+            @Override
+            public int compare(LockStatistics lockStatistics1, LockStatistics lockStatistics2) {
+                return Long.valueOf(lockStatistics2.getTotalWaitTime()).compareTo(lockStatistics1.getTotalWaitTime());
+            }
+        });
+        return (contendedLocks.size() > limit) ? contendedLocks.subList(0, limit) : contendedLocks;
+    }
+
+    private void registerMBean() {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(MBEAN_NAME);
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(this, objectName);
+            }
+        } catch (Exception e) {
+            log.error("Could not register lock contention profiler mbean: [name] " + MBEAN_NAME, e);
+        }
+    }
+
+    private void scheduleSummary(long summaryInterval) {
+        ScheduledExecutorService scheduledExecutorService = StratosThreadPool.getScheduledExecutorService(
+                PROFILER_SCHEDULER_ID, 1);
+        scheduledExecutorService.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    logSummary();
+                } catch (Exception e) {
+                    log.error("Could not log lock contention summary", e);
+                }
+            }
+        }, summaryInterval, summaryInterval, TimeUnit.MILLISECONDS);
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Lock contention profiler started: [sample-rate] %d [wait-threshold] %d ms " +
+                    "[summary-interval] %d seconds", sampleRate, getWaitThresholdMillis(), summaryInterval / 1000));
+        }
+    }
+
+    /**
+     * @return wait threshold in nanoseconds
+     */
+    long getWaitThreshold() {
+        return waitThreshold;
+    }
+
+    @Override
+    public String[] getLockNames() {
+        return lockStatisticsMap.keySet().toArray(new String[lockStatisticsMap.size()]);
+    }
+
+    @Override
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public void setSampleRate(int sampleRate) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("Sample rate must be greater than zero: [sample-rate] " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public long getWaitThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitThreshold);
+    }
+
+    @Override
+    public void setWaitThresholdMillis(long waitThresholdMillis) {
+        this.waitThreshold = TimeUnit.MILLISECONDS.toNanos(waitThresholdMillis);
+    }
+
+    @Override
+    public long getAcquisitionCount(String lockName) {
+        LockStatistics lockStatistics = lockStatisticsMap.get(lockName);
+        return (lockStatistics != null) ? lockStatistics.getAcquisitionCount() : 0;
+    }
+
+    @Override
+    public long getContentionCount(String lockName) {
+        LockStatistics lockStatistics = lockStatisticsMap.get(lockName);
+        return (lockStatistics != null) ? lockStatistics.getContentionCount() : 0;
+    }
+
+    @Override
+    public long getTotalWaitTimeMillis(String lockName) {
+        LockStatistics lockStatistics = lockStatisticsMap.get(lockName);
+        return (lockStatistics != null) ? TimeUnit.NANOSECONDS.toMillis(lockStatistics.getTotalWaitTime()) : 0;
+    }
+
+    @Override
+    public long getMaxWaitTimeMillis(String lockName) {
+        LockStatistics lockStatistics = lockStatisticsMap.get(lockName);
+        return (lockStatistics != null) ? TimeUnit.NANOSECONDS.toMillis(lockStatistics.getMaxWaitTime()) : 0;
+    }
+
+    @Override
+    public long getMeanHoldTimeMicros(String lockName) {
+        LockStatistics lockStatistics = lockStatisticsMap.get(lockName);
+        return (lockStatistics != null) ? TimeUnit.NANOSECONDS.toMicros(lockStatistics.getMeanHoldTime()) : 0;
+    }
+
+    @Override
+    public String getLockSummary(String lockName) {
+        LockStatistics lockStatistics = lockStatisticsMap.get(lockName);
+        return (lockStatistics != null) ? lockStatistics.getSummary() : null;
+    }
+
+    @Override
+    public String[] getContentionSummary(int limit) {
+        List<LockStatistics> contendedLocks = getContendedLocks(limit);
+        String[] summary = new String[contendedLocks.size()];
+        for (int i = 0; i < summary.length; i++) {
+            summary[i] = contendedLocks.get(i).getSummary();
+        }
+        return summary;
+    }
+
+    @Override
+    public void reset() {
+        for (LockStatistics lockStatistics : lockStatisticsMap.values()) {
+            lockStatistics.reset();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.concurrent.locks;
+
+/**
+ * JMX interface of the {@link LockContentionProfiler}.
+ */
+public interface LockContentionProfilerMBean {
+
+    String[] getLockNames();
+
+    int getSampleRate();
+
+    void setSampleRate(int sampleRate);
+
+    long getWaitThresholdMillis();
+
+    void setWaitThresholdMillis(long waitThresholdMillis);
+
+    long getAcquisitionCount(String lockName);
+
+    long getContentionCount(String lockName);
+
+    long getTotalWaitTimeMillis(String lockName);
+
+    long getMaxWaitTimeMillis(String lockName);
+
+    long getMeanHoldTimeMicros(String lockName);
+
+    String getLockSummary(String lockName);
+
+    /**
+     * @param limit maximum number of locks
+     * @return summaries of the locks with the longest total wait time
+     */
+    String[] getContentionSummary(int limit);
+
+    void reset();
+}
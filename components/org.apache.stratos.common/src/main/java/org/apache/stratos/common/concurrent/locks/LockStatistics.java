@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.concurrent.locks;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Contention statistics of the read write locks with a given name. Uncontended acquisitions
+ * are only counted, the wait time is measured for contended acquisitions and the hold time
+ * and acquirer site are recorded for every Nth acquisition and for acquisitions waiting
+ * longer than the wait threshold of the {@link LockContentionProfiler}. The statistics are
+ * shared by all locks with the same name, hence every acquisition is counted atomically and
+ * the sampled acquisitions are selected by the acquisition count.
+ */
+public class LockStatistics {
+
+    private static final int MAX_ACQUIRER_SITES = 1000;
+    private static final String OTHER_ACQUIRER_SITES = "other";
+
+    private final String lockName;
+    private final LockContentionProfiler profiler;
+    private final AtomicLong acquisitionCount;
+    private final AtomicLong contentionCount;
+    private final LatencyHistogram waitTimeHistogram;
+    private final LatencyHistogram holdTimeHistogram;
+    private final ConcurrentMap<String, AtomicLong> acquirerSites;
+
+    LockStatistics(String lockName, LockContentionProfiler profiler) {
+        this.lockName = lockName;
+        this.profiler = profiler;
+        this.acquisitionCount = new AtomicLong();
+        this.contentionCount = new AtomicLong();
+        this.waitTimeHistogram = new LatencyHistogram();
+        this.holdTimeHistogram = new LatencyHistogram();
+        this.acquirerSites = new ConcurrentHashMap<String, AtomicLong>();
+    }
+
+    /**
+     * Acquire the given lock of the given read write lock and record the acquisition. The lock is
+     * taken without waiting if no thread is queued on the read write lock, the wait time is only
+     * measured if the lock is not available.
+     *
+     * @param readWriteLock read write lock the lock belongs to
+     * @param lock          read or write lock to be acquired
+     * @return acquisition time in nanoseconds if the hold time of this acquisition is sampled,
+     * otherwise 0
+     */
+    long lock(ReentrantReadWriteLock readWriteLock, Lock lock) {
+        boolean sampled = (acquisitionCount.incrementAndGet() % profiler.getSampleRate() == 0);
+        long acquiredTime = 0;
+        // Taking the lock without waiting only barges in front of other threads if they have queued in between
+        if (readWriteLock.hasQueuedThreads() || !lock.tryLock()) {
+            long waitStartTime = System.nanoTime();
+            lock.lock();
+            acquiredTime = System.nanoTime();
+
+            long waitTime = acquiredTime - waitStartTime;
+            contentionCount.incrementAndGet();
+            waitTimeHistogram.record(waitTime);
+            sampled = sampled || (waitTime >= profiler.getWaitThreshold());
+        }
+
+        if (!sampled) {
+            return 0;
+        }
+        recordAcquirerSite(Thread.currentThread().getStackTrace());
+        return (acquiredTime != 0) ? acquiredTime : System.nanoTime();
+    }
+
+    /**
+     * Record the hold time of a sampled acquisition.
+     *
+     * @param acquiredTime acquisition time returned by {@link #lock(ReentrantReadWriteLock, Lock)}
+     */
+    void recordHoldTime(long acquiredTime) {
+        holdTimeHistogram.record(System.nanoTime() - acquiredTime);
+    }
+
+    private void recordAcquirerSite(StackTraceElement[] stackTrace) {
+        String site = OTHER_ACQUIRER_SITES;
+        for (StackTraceElement element : stackTrace) {
+            String className = element.getClassName();
+            if (!className.equals(Thread.class.getName()) && !className.equals(LockStatistics.class.getName()) &&
+                    !className.equals(ReadWriteLock.class.getName())) {
+                site = element.toString();
+                break;
+            }
+        }
+
+        AtomicLong count = acquirerSites.get(site);
+        if (count == null) {
+            if (acquirerSites.size() >= MAX_ACQUIRER_SITES) {
+                site = OTHER_ACQUIRER_SITES;
+            }
+            AtomicLong newCount = new AtomicLong();
+            count = acquirerSites.putIfAbsent(site, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    public String getLockName() {
+        return lockName;
+    }
+
+    public long getAcquisitionCount() {
+        return acquisitionCount.get();
+    }
+
+    public long getContentionCount() {
+        return contentionCount.get();
+    }
+
+    /**
+     * @return total wait time of the contended acquisitions in nanoseconds
+     */
+    public long getTotalWaitTime() {
+        return waitTimeHistogram.getTotal();
+    }
+
+    /**
+     * @return longest wait time in nanoseconds
+     */
+    public long getMaxWaitTime() {
+        return waitTimeHistogram.getMax();
+    }
+
+    /**
+     * @param percentile percentile between 0 and 100
+     * @return upper bound of the wait time percentile of the contended acquisitions in microseconds
+     */
+    public long getWaitTimePercentile(double percentile) {
+        return waitTimeHistogram.getPercentile(percentile);
+    }
+
+    public long getSampledHoldCount() {
+        return holdTimeHistogram.getCount();
+    }
+
+    /**
+     * @return mean hold time of the sampled acquisitions in nanoseconds
+     */
+    public long getMeanHoldTime() {
+        return holdTimeHistogram.getMean();
+    }
+
+    /**
+     * @return longest hold time of the sampled acquisitions in nanoseconds
+     */
+    public long getMaxHoldTime() {
+        return holdTimeHistogram.getMax();
+    }
+
+    /**
+     * @param percentile percentile between 0 and 100
+     * @return upper bound of the hold time percentile of the sampled acquisitions in microseconds
+     */
+    public long getHoldTimePercentile(double percentile) {
+        return holdTimeHistogram.getPercentile(percentile);
+    }
+
+    /**
+     * Returns the sampled acquirer sites ordered by the number of sampled acquisitions.
+     *
+     * @param limit maximum number of sites
+     * @return map of acquirer site to number of sampled acquisitions
+     */
+    public List<Map.Entry<String, Long>> getTopAcquirerSites(int limit) {
+        List<Map.Entry<String, Long>> sites = new ArrayList<Map.Entry<String, Long>>();
+        for (Map.Entry<String, AtomicLong> entry : acquirerSites.entrySet()) {
+            sites.add(new AbstractMap.SimpleImmutableEntry<String, Long>(entry.getKey(),
+                    entry.getValue().get()));
+        }
+        Collections.sort(sites, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> site1, Map.Entry<String, Long> site2) {
+                return site2.getValue().compareTo(site1.getValue());
+            }
+        });
+        return (sites.size() > limit) ? sites.subList(0, limit) : sites;
+    }
+
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder(String.format("[lock-name] %s [acquisitions] %d [contended] %d " +
+                        "[wait-total] %d ms [wait-max] %d ms [wait-p99] %d us [hold-mean] %d us [hold-max] %d ms " +
+                        "[hold-p99] %d us [acquirer-sites]", lockName, getAcquisitionCount(), getContentionCount(),
+                TimeUnit.NANOSECONDS.toMillis(getTotalWaitTime()), TimeUnit.NANOSECONDS.toMillis(getMaxWaitTime()),
+                getWaitTimePercentile(99), TimeUnit.NANOSECONDS.toMicros(getMeanHoldTime()),
+                TimeUnit.NANOSECONDS.toMillis(getMaxHoldTime()), getHoldTimePercentile(99)));
+        for (Map.Entry<String, Long> site : getTopAcquirerSites(5)) {
+            summary.append(" ").append(site.getKey()).append("=").append(site.getValue());
+        }
+        return summary.toString();
+    }
+
+    void reset() {
+        acquisitionCount.set(0);
+        contentionCount.set(0);
+        waitTimeHistogram.reset();
+        holdTimeHistogram.reset();
+        acquirerSites.clear();
+    }
+}
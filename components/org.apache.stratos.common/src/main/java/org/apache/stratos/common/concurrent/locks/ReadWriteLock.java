@@ -29,6 +29,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
@@ -36,6 +37,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * provides logic for detecting following scenarios:
  * - A thread trying to acquire a write lock while having a read lock.
  * - Unreleased locks for a certain time period
+ * Lock contention is recorded by the {@link LockContentionProfiler} when it is enabled.
  */
 public class ReadWriteLock {
 
@@ -47,14 +49,29 @@ public class ReadWriteLock {
     private final String name;
     private final ReentrantReadWriteLock lock;
     private final Map<Long, Map<LockType, LockMetadata>> threadToLockSetMap;
+    private final LockStatistics lockStatistics;
+    private final ThreadLocal<Long> readLockAcquiredTime;
+    private final AtomicInteger sampledReadLockCount;
     private boolean readWriteLockMonitorEnabled;
     private int readWriteLockMonitorInterval;
     private int threadPoolSize;
+    private long writeLockAcquiredTime;
 
     public ReadWriteLock(String name) {
+        this(name, LockContentionProfiler.getInstance().getLockStatistics(name));
+    }
+
+    /**
+     * @param name           lock name
+     * @param lockStatistics statistics to record the lock contention in, null if the lock is not profiled
+     */
+    ReadWriteLock(String name, LockStatistics lockStatistics) {
         this.name = name;
         this.lock = new ReentrantReadWriteLock(true);
         this.threadToLockSetMap = new ConcurrentHashMap<Long, Map<LockType, LockMetadata>>();
+        this.lockStatistics = lockStatistics;
+        this.readLockAcquiredTime = (lockStatistics != null) ? new ThreadLocal<Long>() : null;
+        this.sampledReadLockCount = (lockStatistics != null) ? new AtomicInteger() : null;
 
         readWriteLockMonitorEnabled = Boolean.getBoolean("read.write.lock.monitor.enabled");
         if (readWriteLockMonitorEnabled) {
@@ -117,7 +134,14 @@ public class ReadWriteLock {
             }
         }
 
-        lock.writeLock().lock();
+        if (lockStatistics == null) {
+            lock.writeLock().lock();
+        } else {
+            long acquiredTime = lockStatistics.lock(lock, lock.writeLock());
+            if ((acquiredTime != 0) && (lock.getWriteHoldCount() == 1)) {
+                writeLockAcquiredTime = acquiredTime;
+            }
+        }
 
         if (readWriteLockMonitorEnabled) {
             LockMetadata lockMetadata = new LockMetadata(getName(), LockType.Write, currentThread.getId(),
@@ -143,6 +167,10 @@ public class ReadWriteLock {
         }
 
         if (lock.writeLock().isHeldByCurrentThread()) {
+            if ((writeLockAcquiredTime != 0) && (lock.getWriteHoldCount() == 1)) {
+                lockStatistics.recordHoldTime(writeLockAcquiredTime);
+                writeLockAcquiredTime = 0;
+            }
             lock.writeLock().unlock();
 
             if (readWriteLockMonitorEnabled) {
@@ -171,7 +199,15 @@ public class ReadWriteLock {
                     getName(), currentThread.getId(), currentThread.getName()));
         }
 
-        lock.readLock().lock();
+        if (lockStatistics == null) {
+            lock.readLock().lock();
+        } else {
+            long acquiredTime = lockStatistics.lock(lock, lock.readLock());
+            if ((acquiredTime != 0) && (lock.getReadHoldCount() == 1)) {
+                readLockAcquiredTime.set(acquiredTime);
+                sampledReadLockCount.incrementAndGet();
+            }
+        }
 
         if (readWriteLockMonitorEnabled) {
             Map<LockType, LockMetadata> lockTypeLongMap = getLockTypeLongMap(currentThread.getId());
@@ -196,6 +232,14 @@ public class ReadWriteLock {
                     getName(), currentThread.getId(), currentThread.getName()));
         }
 
+        if ((lockStatistics != null) && (sampledReadLockCount.get() > 0) && (lock.getReadHoldCount() == 1)) {
+            Long acquiredTime = readLockAcquiredTime.get();
+            if (acquiredTime != null) {
+                readLockAcquiredTime.remove();
+                sampledReadLockCount.decrementAndGet();
+                lockStatistics.recordHoldTime(acquiredTime);
+            }
+        }
         lock.readLock().unlock();
 
         if (readWriteLockMonitorEnabled) {
@@ -197,6 +197,16 @@ public class StratosConstants {
     public static final String DEFAULT_CLIENT_SOCKET_TIMEOUT = "300000";
     public static final String DEFAULT_CLIENT_CONNECTION_TIMEOUT = "300000";
 
+    public static final String SERVICE_CLIENT_MAX_CONNECTIONS_PER_HOST = "service.client.max.connections.per.host";
+    public static final String SERVICE_CLIENT_MAX_TOTAL_CONNECTIONS = "service.client.max.total.connections";
+    public static final String SERVICE_CLIENT_STUB_POOL_SIZE = "service.client.stub.pool.size";
+    public static final String SERVICE_CLIENT_STUB_BORROW_TIMEOUT = "service.client.stub.borrow.timeout";
+
+    public static final int DEFAULT_SERVICE_CLIENT_MAX_CONNECTIONS_PER_HOST = 100;
+    public static final int DEFAULT_SERVICE_CLIENT_MAX_TOTAL_CONNECTIONS = 300;
+    public static final int DEFAULT_SERVICE_CLIENT_STUB_POOL_SIZE = 100;
+    public static final long DEFAULT_SERVICE_CLIENT_STUB_BORROW_TIMEOUT = 60000;
+
     // partition algorithm id constants
     public static final String PARTITION_ROUND_ROBIN_ALGORITHM_ID = "round-robin";
     public static final String PARTITION_WEIGHTED_ROUND_ROBIN_ALGORITHM_ID = "weighted-round-robin";
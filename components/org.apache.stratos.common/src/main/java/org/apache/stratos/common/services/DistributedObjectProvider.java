@@ -19,6 +19,8 @@
 
 package org.apache.stratos.common.services;
 
+import org.apache.stratos.common.concurrent.locks.LockBatch;
+
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
@@ -70,10 +72,27 @@ public interface DistributedObjectProvider extends Serializable {
      */
     Lock acquireLock(Object object);
 
+    /**
+     * Acquires the locks of the given objects in one batch. Locks are acquired in a canonical order,
+     * hence batches sharing locks do not deadlock each other. The batch is released using
+     * releaseLocks().
+     *
+     * @param objects
+     * @return
+     */
+    LockBatch acquireLocks(Object... objects);
+
     /**
      * Releases a given distributed/local lock.
      *
      * @param lock
      */
     void releaseLock(Lock lock);
+
+    /**
+     * Releases the locks of a batch in the reverse order of acquisition.
+     *
+     * @param lockBatch
+     */
+    void releaseLocks(LockBatch lockBatch);
 }
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.client;
+
+import org.apache.axis2.AxisFault;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.cloud.controller.stub.CloudControllerServiceStub;
+import org.apache.stratos.cloud.controller.stub.domain.Cartridge;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.rmi.RemoteException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares fetching cartridge details one type at a time with the bulk operations of
+ * {@link CloudControllerServiceClient} against a local stand-in of the cloud controller
+ * service stub which counts the calls and adds a fixed latency to each of them.
+ */
+public class CloudControllerServiceClientTest {
+
+    private static final Log log = LogFactory.getLog(CloudControllerServiceClientTest.class);
+
+    private static final int CARTRIDGE_COUNT = 500;
+    private static final long CALL_LATENCY = 1;
+
+    private CountingCloudControllerServiceStub stub;
+    private CloudControllerServiceClient client;
+
+    @Before
+    public void setUp() throws AxisFault {
+        stub = new CountingCloudControllerServiceStub();
+        for (int i = 0; i < CARTRIDGE_COUNT; i++) {
+            Cartridge cartridge = new Cartridge();
+            cartridge.setType("cartridge-" + i);
+            stub.cartridges.put(cartridge.getType(), cartridge);
+        }
+        client = new CloudControllerServiceClient(stub);
+    }
+
+    @Test
+    public void testGetAllCartridgesUsesSingleCall() throws Exception {
+        long startTime = System.currentTimeMillis();
+        int count = 0;
+        for (String cartridgeType : client.getRegisteredCartridges()) {
+            if (client.getCartridge(cartridgeType) != null) {
+                count++;
+            }
+        }
+        long perTypeTime = System.currentTimeMillis() - startTime;
+        assertEquals(CARTRIDGE_COUNT, count);
+        assertEquals(CARTRIDGE_COUNT + 1, stub.callCount.getAndSet(0));
+
+        startTime = System.currentTimeMillis();
+        Cartridge[] cartridges = client.getAllCartridges();
+        long bulkTime = System.currentTimeMillis() - startTime;
+        assertEquals(CARTRIDGE_COUNT, cartridges.length);
+        assertEquals(1, stub.callCount.get());
+
+        log.info(String.format("Fetched %d cartridges: [per-type] %d ms [bulk] %d ms", CARTRIDGE_COUNT,
+                perTypeTime, bulkTime));
+        assertTrue(bulkTime < perTypeTime);
+    }
+
+    @Test
+    public void testGetCartridgesSkipsUnknownTypes() throws Exception {
+        Cartridge[] cartridges = client.getCartridges(new String[]{"cartridge-1", "unknown", "cartridge-2"});
+        assertEquals(2, cartridges.length);
+        assertEquals("cartridge-1", cartridges[0].getType());
+        assertEquals("cartridge-2", cartridges[1].getType());
+        assertEquals(1, stub.callCount.get());
+    }
+
+    @Test
+    public void testEmptyResponse() throws Exception {
+        // Axis2 returns null for empty arrays
+        stub.cartridges.clear();
+        assertEquals(0, client.getAllCartridges().length);
+        assertEquals(0, client.getCartridges(new String[]{"cartridge-1"}).length);
+    }
+
+    /**
+     * Stand-in for the cloud controller service stub serving cartridges from memory.
+     */
+    private static class CountingCloudControllerServiceStub extends CloudControllerServiceStub {
+
+        private final Map<String, Cartridge> cartridges = new LinkedHashMap<String, Cartridge>();
+        private final AtomicInteger callCount = new AtomicInteger();
+
+        private CountingCloudControllerServiceStub() throws AxisFault {
+            super("http://localhost:9443/services/CloudControllerService");
+        }
+
+        private void call() throws RemoteException {
+            callCount.incrementAndGet();
+            try {
+                Thread.sleep(CALL_LATENCY);
+            } catch (InterruptedException e) {
+                throw new RemoteException("Interrupted", e);
+            }
+        }
+
+        @Override
+        public String[] getCartridges() throws RemoteException {
+            call();
+            return cartridges.keySet().toArray(new String[cartridges.size()]);
+        }
+
+        @Override
+        public Cartridge getCartridge(String cartridgeType) throws RemoteException {
+            call();
+            return cartridges.get(cartridgeType);
+        }
+
+        @Override
+        public Cartridge[] getCartridgesByTypes(String[] cartridgeTypes) throws RemoteException {
+            call();
+            Map<String, Cartridge> result = new LinkedHashMap<String, Cartridge>();
+            for (String cartridgeType : cartridgeTypes) {
+                if (cartridges.containsKey(cartridgeType)) {
+                    result.put(cartridgeType, cartridges.get(cartridgeType));
+                }
+            }
+            return result.isEmpty() ? null : result.values().toArray(new Cartridge[result.size()]);
+        }
+
+        @Override
+        public Cartridge[] getAllCartridges() throws RemoteException {
+            call();
+            return cartridges.isEmpty() ? null : cartridges.values().toArray(new Cartridge[cartridges.size()]);
+        }
+    }
+}
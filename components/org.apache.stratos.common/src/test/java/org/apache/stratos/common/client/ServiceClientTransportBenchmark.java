@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.client;
+
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.context.ConfigurationContextFactory;
+import org.apache.axis2.description.AxisService;
+import org.apache.axis2.description.WSDL2Constants;
+import org.apache.axis2.engine.MessageReceiver;
+import org.apache.axis2.rpc.receivers.RPCMessageReceiver;
+import org.apache.axis2.transport.http.SimpleHTTPServer;
+import org.apache.stratos.cloud.controller.stub.CloudControllerServiceStub;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.rmi.RemoteException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures 100 concurrent callers of a local Axis2 service standing in for the cloud controller
+ * service. The default transport benchmark shares a single stub created with the default
+ * transport configuration, which opens a new connection for each call, the pooled transport
+ * benchmark calls the service through {@link CloudControllerServiceClient}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(100)
+public class ServiceClientTransportBenchmark {
+
+    private static final String SERVICE_NAME = "CloudControllerService";
+    private static final String SERVICE_NAMESPACE = "http://impl.services.controller.cloud.stratos.apache.org";
+
+    private SimpleHTTPServer server;
+    private CloudControllerServiceStub sharedStub;
+    private CloudControllerServiceClient client;
+
+    /**
+     * Local service answering the cartridge listing operation of the cloud controller service.
+     */
+    public static class CartridgeListingService {
+
+        public String[] getCartridges() {
+            return new String[]{"php", "tomcat", "mysql"};
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        ConfigurationContext serverContext =
+                ConfigurationContextFactory.createConfigurationContextFromFileSystem(null, null);
+        Map<String, MessageReceiver> messageReceivers = new HashMap<String, MessageReceiver>();
+        messageReceivers.put(WSDL2Constants.MEP_URI_IN_OUT, new RPCMessageReceiver());
+        AxisService service = AxisService.createService(CartridgeListingService.class.getName(),
+                serverContext.getAxisConfiguration(), messageReceivers, SERVICE_NAMESPACE, SERVICE_NAMESPACE,
+                CartridgeListingService.class.getClassLoader());
+        service.setName(SERVICE_NAME);
+        serverContext.getAxisConfiguration().addService(service);
+
+        int port = findFreePort();
+        server = new SimpleHTTPServer(serverContext, port);
+        server.start();
+
+        String epr = String.format("http://localhost:%d/axis2/services/%s", port, SERVICE_NAME);
+        sharedStub = new CloudControllerServiceStub(epr);
+        client = new CloudControllerServiceClient(epr);
+    }
+
+    @TearDown
+    public void tearDown() throws AxisFault {
+        sharedStub.cleanup();
+        server.stop();
+    }
+
+    @Benchmark
+    public String[] defaultTransport() throws RemoteException {
+        return sharedStub.getCartridges();
+    }
+
+    @Benchmark
+    public String[] pooledTransport() throws RemoteException {
+        return client.getRegisteredCartridges();
+    }
+
+    private static int findFreePort() throws IOException {
+        ServerSocket socket = new ServerSocket(0);
+        try {
+            return socket.getLocalPort();
+        } finally {
+            socket.close();
+        }
+    }
+}
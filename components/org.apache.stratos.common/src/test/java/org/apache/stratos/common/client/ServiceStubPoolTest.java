@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.client;
+
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.client.ServiceClient;
+import org.apache.axis2.client.Stub;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests {@link ServiceStubPool} with concurrent callers.
+ */
+public class ServiceStubPoolTest {
+
+    private static final int POOL_SIZE = 10;
+    private static final int CALLER_COUNT = 100;
+    private static final int CALLS_PER_CALLER = 50;
+
+    @Test
+    public void testStubsAreReused() throws Exception {
+        ServiceStubPool<TestStub> stubPool = createStubPool(POOL_SIZE, 1000);
+        TestStub stub = stubPool.borrowStub();
+        stubPool.returnStub(stub);
+        assertSame(stub, stubPool.borrowStub());
+        assertEquals(1, stubPool.getSize());
+    }
+
+    @Test
+    public void testConcurrentCallersDoNotShareStubs() throws Exception {
+        final ServiceStubPool<TestStub> stubPool = createStubPool(POOL_SIZE, 10000);
+        final Set<TestStub> stubsInUse = Collections.newSetFromMap(new IdentityHashMap<TestStub, Boolean>());
+        final AtomicBoolean shared = new AtomicBoolean();
+        final AtomicInteger callCount = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(CALLER_COUNT);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(CALLER_COUNT);
+        try {
+            for (int i = 0; i < CALLER_COUNT; i++) {
+                executorService.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            for (int j = 0; j < CALLS_PER_CALLER; j++) {
+                                TestStub stub = stubPool.borrowStub();
+                                try {
+                                    synchronized (stubsInUse) {
+                                        if (!stubsInUse.add(stub)) {
+                                            shared.set(true);
+                                        }
+                                    }
+                                    callCount.incrementAndGet();
+                                    Thread.yield();
+                                    synchronized (stubsInUse) {
+                                        stubsInUse.remove(stub);
+                                    }
+                                } finally {
+                                    stubPool.returnStub(stub);
+                                }
+                            }
+                        } catch (AxisFault axisFault) {
+                            shared.set(true);
+                        } finally {
+                            latch.countDown();
+                        }
+                    }
+                });
+            }
+            assertTrue(latch.await(30, TimeUnit.SECONDS));
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertFalse(shared.get());
+        assertEquals(CALLER_COUNT * CALLS_PER_CALLER, callCount.get());
+        assertTrue(stubPool.getSize() <= POOL_SIZE);
+        assertEquals(stubPool.getSize(), stubPool.getIdleCount());
+    }
+
+    @Test
+    public void testBorrowTimeout() throws Exception {
+        ServiceStubPool<TestStub> stubPool = createStubPool(1, 10);
+        stubPool.borrowStub();
+        try {
+            stubPool.borrowStub();
+            fail("Borrowing a stub from an exhausted pool should time out");
+        } catch (AxisFault expected) {
+            assertEquals(1, stubPool.getSize());
+        }
+    }
+
+    private ServiceStubPool<TestStub> createStubPool(int maxSize, long borrowTimeout) throws AxisFault {
+        return new ServiceStubPool<TestStub>(new ServiceStubPool.StubFactory<TestStub>() {
+            @Override
+            public TestStub createStub() throws AxisFault {
+                return new TestStub();
+            }
+        }, maxSize, borrowTimeout);
+    }
+
+    private static class TestStub extends Stub {
+
+        private TestStub() throws AxisFault {
+            _serviceClient = new ServiceClient();
+        }
+    }
+}
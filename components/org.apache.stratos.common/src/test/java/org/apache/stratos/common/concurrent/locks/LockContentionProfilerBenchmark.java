@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.concurrent.locks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of the {@link LockContentionProfiler} on uncontended read and write lock
+ * acquisitions with the default sample rate. {@link LockContentionProfilerOverheadTest} fails if
+ * the profiled locks are more than 5% slower than the locks without profiling. Run with:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec surefire:test -Dbenchmark=LockContentionProfilerBenchmark
+ *     -Dtest=LockContentionProfilerOverheadTest
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class LockContentionProfilerBenchmark {
+
+    private ReadWriteLock lock;
+    private ReadWriteLock profiledLock;
+
+    @Setup
+    public void setUp() {
+        LockContentionProfiler profiler = new LockContentionProfiler(true, 10000, 100);
+        lock = new ReadWriteLock("benchmark-lock", null);
+        profiledLock = new ReadWriteLock("benchmark-lock", profiler.getLockStatistics("benchmark-lock"));
+    }
+
+    @Benchmark
+    public void readLock() {
+        lock.acquireReadLock();
+        lock.releaseReadLock();
+    }
+
+    @Benchmark
+    public void readLockProfiled() {
+        profiledLock.acquireReadLock();
+        profiledLock.releaseReadLock();
+    }
+
+    @Benchmark
+    public void writeLock() {
+        lock.acquireWriteLock();
+        lock.releaseWriteLock();
+    }
+
+    @Benchmark
+    public void writeLockProfiled() {
+        profiledLock.acquireWriteLock();
+        profiledLock.releaseWriteLock();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.concurrent.locks;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Fails if the {@link LockContentionProfilerBenchmark} results written by the benchmark profile
+ * show that the profiled locks are more than 5% slower than the locks without profiling. The
+ * test is skipped if the benchmark has not been run.
+ */
+public class LockContentionProfilerOverheadTest {
+
+    private static final double MAX_OVERHEAD = 0.05;
+    private static final String BENCHMARK_RESULT_FILE = "target/jmh-result.json";
+
+    @Test
+    public void testProfilerOverhead() throws IOException {
+        Map<String, Double> scores = readScores(new File(BENCHMARK_RESULT_FILE));
+        assumeTrue(scores.containsKey("readLock") && scores.containsKey("readLockProfiled") &&
+                scores.containsKey("writeLock") && scores.containsKey("writeLockProfiled"));
+
+        for (String benchmark : new String[]{"readLock", "writeLock"}) {
+            double overhead = (scores.get(benchmark + "Profiled") / scores.get(benchmark)) - 1;
+            assertTrue(String.format("Lock contention profiler overhead exceeds %.0f%%: [benchmark] %s " +
+                    "[overhead] %.2f%%", MAX_OVERHEAD * 100, benchmark, overhead * 100), overhead <= MAX_OVERHEAD);
+        }
+    }
+
+    private Map<String, Double> readScores(File resultFile) throws IOException {
+        Map<String, Double> scores = new HashMap<String, Double>();
+        if (!resultFile.exists()) {
+            return scores;
+        }
+
+        String prefix = LockContentionProfilerBenchmark.class.getName() + ".";
+        Reader reader = new FileReader(resultFile);
+        try {
+            for (JsonElement element : new JsonParser().parse(reader).getAsJsonArray()) {
+                JsonObject result = element.getAsJsonObject();
+                String benchmark = result.get("benchmark").getAsString();
+                if (benchmark.startsWith(prefix)) {
+                    scores.put(benchmark.substring(prefix.length()),
+                            result.getAsJsonObject("primaryMetric").get("score").getAsDouble());
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return scores;
+    }
+}
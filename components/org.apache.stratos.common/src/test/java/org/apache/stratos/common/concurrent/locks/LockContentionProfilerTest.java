@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.concurrent.locks;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link LockContentionProfiler} with read write locks recording their contention.
+ */
+public class LockContentionProfilerTest {
+
+    @Test
+    public void testUncontendedAcquisitionsAreSampled() {
+        LockContentionProfiler profiler = new LockContentionProfiler(true, 10, 1000);
+        ReadWriteLock lock = new ReadWriteLock("uncontended-lock", profiler.getLockStatistics("uncontended-lock"));
+        for (int i = 0; i < 100; i++) {
+            lock.acquireReadLock();
+            lock.releaseReadLock();
+            lock.acquireWriteLock();
+            lock.releaseWriteLock();
+        }
+
+        LockStatistics lockStatistics = profiler.getLockStatistics("uncontended-lock");
+        assertEquals(200, lockStatistics.getAcquisitionCount());
+        assertEquals(0, lockStatistics.getContentionCount());
+        assertEquals(0, lockStatistics.getTotalWaitTime());
+        assertEquals(20, lockStatistics.getSampledHoldCount());
+
+        List<Map.Entry<String, Long>> sites = lockStatistics.getTopAcquirerSites(5);
+        assertEquals(1, sites.size());
+        assertTrue(sites.get(0).getKey().startsWith(getClass().getName() + ".testUncontendedAcquisitionsAreSampled"));
+        assertEquals(20L, sites.get(0).getValue().longValue());
+    }
+
+    @Test
+    public void testReentrantAcquisitionsRecordOuterHoldTime() {
+        LockContentionProfiler profiler = new LockContentionProfiler(true, 1, 1000);
+        ReadWriteLock lock = new ReadWriteLock("reentrant-lock", profiler.getLockStatistics("reentrant-lock"));
+        lock.acquireWriteLock();
+        lock.acquireWriteLock();
+        lock.releaseWriteLock();
+        lock.releaseWriteLock();
+        lock.acquireReadLock();
+        lock.acquireReadLock();
+        lock.releaseReadLock();
+        lock.releaseReadLock();
+
+        LockStatistics lockStatistics = profiler.getLockStatistics("reentrant-lock");
+        assertEquals(4, lockStatistics.getAcquisitionCount());
+        assertEquals(2, lockStatistics.getSampledHoldCount());
+    }
+
+    @Test
+    public void testContendedAcquisitionIsSampledAboveWaitThreshold() throws Exception {
+        LockContentionProfiler profiler = new LockContentionProfiler(true, Integer.MAX_VALUE, 50);
+        final ReadWriteLock lock = new ReadWriteLock("contended-lock", profiler.getLockStatistics("contended-lock"));
+        final CountDownLatch writeLockAcquired = new CountDownLatch(1);
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                lock.acquireWriteLock();
+                writeLockAcquired.countDown();
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException ignore) {
+                } finally {
+                    lock.releaseWriteLock();
+                }
+            }
+        });
+        writer.start();
+        assertTrue(writeLockAcquired.await(10, TimeUnit.SECONDS));
+
+        lock.acquireReadLock();
+        lock.releaseReadLock();
+        writer.join();
+
+        LockStatistics lockStatistics = profiler.getLockStatistics("contended-lock");
+        assertEquals(2, lockStatistics.getAcquisitionCount());
+        assertEquals(1, lockStatistics.getContentionCount());
+        assertTrue(lockStatistics.getMaxWaitTime() >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(lockStatistics.getWaitTimePercentile(99) >= TimeUnit.MILLISECONDS.toMicros(100));
+        assertEquals(1, lockStatistics.getSampledHoldCount());
+        assertTrue(lockStatistics.getTopAcquirerSites(1).get(0).getKey().startsWith(
+                getClass().getName() + ".testContendedAcquisitionIsSampledAboveWaitThreshold"));
+
+        String[] summary = profiler.getContentionSummary(10);
+        assertEquals(1, summary.length);
+        assertTrue(summary[0].contains("[lock-name] contended-lock [acquisitions] 2 [contended] 1"));
+        assertTrue(profiler.getTotalWaitTimeMillis("contended-lock") >= 100);
+
+        profiler.reset();
+        assertEquals(0, profiler.getAcquisitionCount("contended-lock"));
+        assertEquals(0, profiler.getContentionSummary(10).length);
+    }
+
+    @Test
+    public void testDisabledProfiler() {
+        LockContentionProfiler profiler = new LockContentionProfiler(false, 100, 100);
+        assertFalse(profiler.isEnabled());
+        assertNull(profiler.getLockStatistics("disabled-lock"));
+
+        ReadWriteLock lock = new ReadWriteLock("disabled-lock", null);
+        lock.acquireWriteLock();
+        lock.releaseWriteLock();
+        assertEquals(0, profiler.getLockNames().length);
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.test;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.clustering.impl.HazelcastDistributedObjectProvider;
+import org.apache.stratos.common.concurrent.locks.LockBatch;
+import org.apache.stratos.common.internal.ServiceReferenceHolder;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the hazelcast distributed object provider against a two member hazelcast cluster
+ * running in this jvm.
+ */
+public class HazelcastDistributedObjectProviderTest {
+
+    private static final Log log = LogFactory.getLog(HazelcastDistributedObjectProviderTest.class);
+
+    private static final String NEAR_CACHED_MAP = "NEAR_CACHED_MAP";
+    private static final String NEAR_CACHED_LATENCY_MAP = "NEAR_CACHED_LATENCY_MAP";
+    private static final String LATENCY_MAP = "LATENCY_MAP";
+    private static final String MAP = "MAP";
+    private static final int ENTRY_COUNT = 1000;
+    private static final int READ_ROUNDS = 20;
+
+    private static HazelcastInstance hazelcastInstance1;
+    private static HazelcastInstance hazelcastInstance2;
+    private static HazelcastDistributedObjectProvider provider1;
+    private static HazelcastDistributedObjectProvider provider2;
+
+    @BeforeClass
+    public static void setUpClass() throws InterruptedException {
+        System.setProperty(HazelcastDistributedObjectProvider.NEAR_CACHE_MAPS,
+                NEAR_CACHED_MAP + "," + NEAR_CACHED_LATENCY_MAP);
+        hazelcastInstance1 = Hazelcast.newHazelcastInstance(createConfig());
+        hazelcastInstance2 = Hazelcast.newHazelcastInstance(createConfig());
+        for (int i = 0; (i < 100) && (hazelcastInstance2.getCluster().getMembers().size() < 2); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(2, hazelcastInstance2.getCluster().getMembers().size());
+
+        provider1 = new HazelcastDistributedObjectProvider(hazelcastInstance1);
+        provider2 = new HazelcastDistributedObjectProvider(hazelcastInstance2);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        System.clearProperty(HazelcastDistributedObjectProvider.NEAR_CACHE_MAPS);
+        hazelcastInstance2.getLifecycleService().shutdown();
+        hazelcastInstance1.getLifecycleService().shutdown();
+    }
+
+    private static Config createConfig() {
+        Config config = new Config();
+        config.getGroupConfig().setName("distributed-object-provider-test");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getTcpIpConfig().addMember("127.0.0.1").setEnabled(true);
+        return config;
+    }
+
+    @Test
+    public void testConcurrentGetMapLocal() throws Exception {
+        ServiceReferenceHolder.getInstance().setHazelcastInstance(null);
+        final HazelcastDistributedObjectProvider provider = new HazelcastDistributedObjectProvider();
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Map>> futures = new ArrayList<Future<Map>>();
+            for (int i = 0; i < 64; i++) {
+                futures.add(executorService.submit(new Callable<Map>() {
+                    @Override
+                    public Map call() {
+                        return provider.getMap(MAP);
+                    }
+                }));
+            }
+            Map map = provider.getMap(MAP);
+            for (Future<Map> future : futures) {
+                assertSame(map, future.get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLockBatchLocal() throws Exception {
+        ServiceReferenceHolder.getInstance().setHazelcastInstance(null);
+        HazelcastDistributedObjectProvider provider = new HazelcastDistributedObjectProvider();
+        testLockBatch(provider, provider);
+    }
+
+    @Test
+    public void testLockBatchDistributed() throws Exception {
+        testLockBatch(provider1, provider2);
+    }
+
+    /**
+     * A lock of a batch acquired using the first provider cannot be acquired by another thread
+     * using the second provider until the batch is released.
+     */
+    private void testLockBatch(HazelcastDistributedObjectProvider provider,
+                               final HazelcastDistributedObjectProvider otherProvider) throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            LockBatch lockBatch = provider.acquireLocks("LOCK_B", "LOCK_A", "LOCK_A");
+            assertEquals(2, lockBatch.getLocks().size());
+            Future<Boolean> future = executorService.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    Lock otherLock = otherProvider.acquireLock("LOCK_A");
+                    otherProvider.releaseLock(otherLock);
+                    return true;
+                }
+            });
+            try {
+                future.get(500, TimeUnit.MILLISECONDS);
+                fail("Lock acquired while held by a lock batch");
+            } catch (TimeoutException ignore) {
+            }
+            provider.releaseLocks(lockBatch);
+            assertTrue(future.get(10, TimeUnit.SECONDS));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * A distributed lock acquired by one thread can be released by another thread, for an example
+     * by an asynchronous callback, and is then available to the other member.
+     */
+    @Test
+    public void testReleaseLockFromOtherThreadDistributed() throws Exception {
+        final Lock lock = provider1.acquireLock("LOCK_C");
+        assertTrue(hazelcastInstance2.getLock("LOCK_C").isLocked());
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            executorService.submit(new Runnable() {
+                @Override
+                public void run() {
+                    provider1.releaseLock(lock);
+                }
+            }).get(10, TimeUnit.SECONDS);
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertFalse(hazelcastInstance2.getLock("LOCK_C").isLocked());
+
+        Lock otherLock = provider2.acquireLock("LOCK_C");
+        provider2.releaseLock(otherLock);
+        assertFalse(hazelcastInstance1.getLock("LOCK_C").isLocked());
+    }
+
+    @Test
+    public void testNearCacheInvalidation() throws Exception {
+        Map<String, String> map1 = provider1.getMap(NEAR_CACHED_MAP);
+        Map<String, String> map2 = provider2.getMap(NEAR_CACHED_MAP);
+        for (int i = 0; i < 10; i++) {
+            map1.put("key" + i, "value1");
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals("value1", map2.get("key" + i));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            map1.put("key" + i, "value2");
+        }
+        for (int i = 0; i < 10; i++) {
+            String key = "key" + i;
+            for (int j = 0; (j < 100) && !"value2".equals(map2.get(key)); j++) {
+                Thread.sleep(100);
+            }
+            assertEquals("value2", map2.get(key));
+        }
+    }
+
+    /**
+     * Reports the read latency of a distributed map with and without a near cache, the latency
+     * depends on the host and is therefore not asserted.
+     */
+    @Test
+    public void testNearCacheReadLatency() {
+        long nearCachedReadTime = measureReadTime(NEAR_CACHED_LATENCY_MAP);
+        long readTime = measureReadTime(LATENCY_MAP);
+        log.info(String.format("Distributed map read latency: [near-cached] %d ns [not-cached] %d ns",
+                nearCachedReadTime, readTime));
+    }
+
+    /**
+     * Returns the average time of a read of the given map in nano seconds, entries are written by
+     * the first member and read by the second member.
+     */
+    private long measureReadTime(String name) {
+        Map<String, String> map1 = provider1.getMap(name);
+        Map<String, String> map2 = provider2.getMap(name);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map1.put("key" + i, "value" + i);
+        }
+        // Warm up, populates the near cache
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals("value" + i, map2.get("key" + i));
+        }
+
+        long startTime = System.nanoTime();
+        for (int round = 0; round < READ_ROUNDS; round++) {
+            for (int i = 0; i < ENTRY_COUNT; i++) {
+                map2.get("key" + i);
+            }
+        }
+        return (System.nanoTime() - startTime) / (READ_ROUNDS * ENTRY_COUNT);
+    }
+}
@@ -39,11 +39,17 @@ public class KubernetesApiClient implements KubernetesAPIClientInterface {
     private static final Log log = LogFactory.getLog(KubernetesApiClient.class);
 
     private KubernetesClient kubernetesClient;
+    private String endpointUrl;
 
     public KubernetesApiClient(String endpointUrl) {
+        this.endpointUrl = endpointUrl;
         kubernetesClient = new KubernetesClient(endpointUrl);
     }
 
+    public String getEndpointUrl() {
+        return endpointUrl;
+    }
+
     /**
      * Create new pod
      *
@@ -0,0 +1,217 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.stratos.kubernetes.client;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.kubernetes.client.exceptions.KubernetesClientException;
+import org.apache.stratos.kubernetes.client.interfaces.KubernetesAPIClientInterface;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches pods of a kubernetes cluster until they are running. Pods of all pending activations are
+ * retrieved using a single list call per poll interval, therefore waiting for a pod does not require
+ * a dedicated thread or an api call per pod. Polling stops when there are no pending activations.
+ */
+public class KubernetesPodWatcher {
+
+    private static final Log log = LogFactory.getLog(KubernetesPodWatcher.class);
+
+    public static final long DEFAULT_POLL_INTERVAL = 5000; // 5 sec
+
+    private final KubernetesAPIClientInterface kubernetesApi;
+    private final long pollInterval;
+    private final Map<String, PodActivation> pendingActivations;
+    private final ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> pollTask;
+    private boolean stopped;
+
+    public KubernetesPodWatcher(KubernetesAPIClientInterface kubernetesApi) {
+        this(kubernetesApi, DEFAULT_POLL_INTERVAL);
+    }
+
+    public KubernetesPodWatcher(KubernetesAPIClientInterface kubernetesApi, long pollInterval) {
+        this.kubernetesApi = kubernetesApi;
+        this.pollInterval = pollInterval;
+        this.pendingActivations = new ConcurrentHashMap<String, PodActivation>();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "kubernetes-pod-watcher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Start watching the given pod until it is running.
+     *
+     * @param podId   id of the pod
+     * @param timeout time in milliseconds to wait for the pod to be running
+     * @return {@link PodActivation} completed once the pod is running or the timeout is exceeded
+     */
+    public synchronized PodActivation watch(String podId, long timeout) {
+        PodActivation activation = pendingActivations.get(podId);
+        if (activation != null) {
+            return activation;
+        }
+
+        activation = new PodActivation(podId, timeout);
+        if (stopped) {
+            fail(activation, new KubernetesClientException(
+                    String.format("Kubernetes pod watcher is stopped: [pod] %s", podId)));
+            return activation;
+        }
+        pendingActivations.put(podId, activation);
+        if (pollTask == null) {
+            pollTask = scheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    poll();
+                }
+            }, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+            if (log.isDebugEnabled()) {
+                log.debug("Kubernetes pod watcher started");
+            }
+        }
+        return activation;
+    }
+
+    /**
+     * Stop watching pods, pending activations are failed and further activations fail immediately.
+     */
+    public void stop() {
+        List<PodActivation> activations;
+        synchronized (this) {
+            stopped = true;
+            scheduler.shutdownNow();
+            pollTask = null;
+            activations = new ArrayList<PodActivation>(pendingActivations.values());
+            pendingActivations.clear();
+        }
+        // Fail activations outside the lock, listeners may take time to complete
+        for (PodActivation activation : activations) {
+            fail(activation, new KubernetesClientException(String.format(
+                    "Kubernetes pod watcher stopped before pod status changed to running: [pod] %s",
+                    activation.getPodId())));
+        }
+    }
+
+    public int getPendingActivationCount() {
+        return pendingActivations.size();
+    }
+
+    private void poll() {
+        if (!stopIfIdle()) {
+            return;
+        }
+
+        Map<String, Pod> podMap = null;
+        try {
+            List<Pod> pods = kubernetesApi.getPods();
+            podMap = new HashMap<String, Pod>();
+            if (pods != null) {
+                for (Pod pod : pods) {
+                    if ((pod != null) && (pod.getMetadata() != null)) {
+                        podMap.put(pod.getMetadata().getName(), pod);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not retrieve kubernetes pods", e);
+        }
+
+        long currentTime = System.currentTimeMillis();
+        for (PodActivation activation : pendingActivations.values()) {
+            String podId = activation.getPodId();
+            Pod pod = (podMap != null) ? podMap.get(podId) : null;
+            if (pod != null) {
+                activation.setPodCreated();
+                if ((pod.getStatus() != null) &&
+                        KubernetesConstants.POD_STATUS_RUNNING.equals(pod.getStatus().getPhase())) {
+                    if (log.isDebugEnabled()) {
+                        log.debug(String.format("Pod status changed to running: [pod] %s", podId));
+                    }
+                    pendingActivations.remove(podId);
+                    complete(activation, pod);
+                    continue;
+                }
+            }
+
+            if (activation.isExpired(currentTime)) {
+                String message = activation.isPodCreated() ?
+                        String.format("Pod status did not change to running within %d sec: [pod] %s",
+                                activation.getTimeout() / 1000, podId) :
+                        String.format("Pod did not create within %d sec: [pod] %s",
+                                activation.getTimeout() / 1000, podId);
+                pendingActivations.remove(podId);
+                fail(activation, new KubernetesClientException(message));
+            }
+        }
+    }
+
+    /**
+     * Cancels polling if there are no pending activations.
+     *
+     * @return true if polling should continue
+     */
+    private synchronized boolean stopIfIdle() {
+        if (pendingActivations.isEmpty()) {
+            if (pollTask != null) {
+                pollTask.cancel(false);
+                pollTask = null;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Kubernetes pod watcher stopped, no pending pods found");
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void complete(PodActivation activation, Pod pod) {
+        try {
+            activation.complete(pod);
+        } catch (Exception e) {
+            log.error(String.format("Pod activation listener failed: [pod] %s", activation.getPodId()), e);
+        }
+    }
+
+    private void fail(PodActivation activation, KubernetesClientException exception) {
+        try {
+            activation.fail(exception);
+        } catch (Exception e) {
+            log.error(String.format("Pod activation listener failed: [pod] %s", activation.getPodId()), e);
+        }
+    }
+}
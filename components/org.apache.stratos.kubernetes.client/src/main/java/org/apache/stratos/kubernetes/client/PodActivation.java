@@ -0,0 +1,159 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.stratos.kubernetes.client;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import org.apache.stratos.kubernetes.client.exceptions.KubernetesClientException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Result of waiting for a pod to be running, completed by {@link KubernetesPodWatcher}. Listeners
+ * are executed once the pod is running or the activation has failed.
+ */
+public class PodActivation implements Future<Pod> {
+
+    private final String podId;
+    private final long timeout;
+    private final long expiryTime;
+    private final CountDownLatch latch;
+    private final List<Runnable> listeners;
+    private volatile boolean podCreated;
+    private volatile Pod pod;
+    private volatile KubernetesClientException exception;
+
+    PodActivation(String podId, long timeout) {
+        this.podId = podId;
+        this.timeout = timeout;
+        this.expiryTime = System.currentTimeMillis() + timeout;
+        this.latch = new CountDownLatch(1);
+        this.listeners = new ArrayList<Runnable>();
+    }
+
+    public String getPodId() {
+        return podId;
+    }
+
+    /**
+     * Returns the time in milliseconds to wait for the pod to be running.
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Returns true if the pod was found in kubernetes at least once.
+     */
+    public boolean isPodCreated() {
+        return podCreated;
+    }
+
+    void setPodCreated() {
+        podCreated = true;
+    }
+
+    boolean isExpired(long currentTime) {
+        return currentTime > expiryTime;
+    }
+
+    /**
+     * Add a listener to be executed when the activation is completed. If the activation is already
+     * completed the listener is executed immediately in the calling thread.
+     *
+     * @param listener listener to be executed
+     */
+    public void addListener(Runnable listener) {
+        synchronized (listeners) {
+            if (!isDone()) {
+                listeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    void complete(Pod pod) {
+        this.pod = pod;
+        done();
+    }
+
+    void fail(KubernetesClientException exception) {
+        this.exception = exception;
+        done();
+    }
+
+    private void done() {
+        List<Runnable> listenersToRun;
+        synchronized (listeners) {
+            if (isDone()) {
+                return;
+            }
+            latch.countDown();
+            listenersToRun = new ArrayList<Runnable>(listeners);
+            listeners.clear();
+        }
+        for (Runnable listener : listenersToRun) {
+            listener.run();
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public boolean isDone() {
+        return latch.getCount() == 0;
+    }
+
+    @Override
+    public Pod get() throws InterruptedException, ExecutionException {
+        latch.await();
+        return getPod();
+    }
+
+    @Override
+    public Pod get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!latch.await(timeout, unit)) {
+            throw new TimeoutException("Pod activation did not complete: [pod] " + podId);
+        }
+        return getPod();
+    }
+
+    private Pod getPod() throws ExecutionException {
+        if (exception != null) {
+            throw new ExecutionException(exception.getMessage(), exception);
+        }
+        return pod;
+    }
+}
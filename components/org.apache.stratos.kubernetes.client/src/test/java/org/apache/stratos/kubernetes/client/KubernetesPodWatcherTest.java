@@ -0,0 +1,238 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.stratos.kubernetes.client;
+
+import io.fabric8.kubernetes.api.model.ContainerPort;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodStatus;
+import io.fabric8.kubernetes.api.model.Service;
+import org.apache.stratos.kubernetes.client.exceptions.KubernetesClientException;
+import org.apache.stratos.kubernetes.client.interfaces.KubernetesAPIClientInterface;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Kubernetes pod watcher tests against a fake kubernetes api.
+ */
+@Category(UnitTests.class)
+public class KubernetesPodWatcherTest {
+
+    private static final long POLL_INTERVAL = 50;
+
+    private FakeKubernetesApi kubernetesApi;
+    private KubernetesPodWatcher podWatcher;
+
+    @Before
+    public void setUp() {
+        kubernetesApi = new FakeKubernetesApi();
+        podWatcher = new KubernetesPodWatcher(kubernetesApi, POLL_INTERVAL);
+    }
+
+    @After
+    public void tearDown() {
+        podWatcher.stop();
+    }
+
+    @Test
+    public void testPendingPodsAreListedOncePerInterval() throws Exception {
+        List<PodActivation> activations = new ArrayList<PodActivation>();
+        for (int i = 0; i < 100; i++) {
+            kubernetesApi.setPod("pod-" + i, "Pending");
+            activations.add(podWatcher.watch("pod-" + i, 10000));
+        }
+        Thread.sleep(POLL_INTERVAL * 3);
+        for (PodActivation activation : activations) {
+            assertFalse(activation.isDone());
+            assertTrue(activation.isPodCreated());
+        }
+        int listCount = kubernetesApi.getListCount();
+        assertTrue("Pods were listed " + listCount + " times", listCount <= 4);
+
+        for (int i = 0; i < 100; i++) {
+            kubernetesApi.setPod("pod-" + i, KubernetesConstants.POD_STATUS_RUNNING);
+        }
+        for (PodActivation activation : activations) {
+            Pod pod = activation.get(5, TimeUnit.SECONDS);
+            assertEquals(activation.getPodId(), pod.getMetadata().getName());
+        }
+        assertEquals(0, podWatcher.getPendingActivationCount());
+        assertEquals(0, kubernetesApi.getGetCount());
+    }
+
+    @Test
+    public void testListenerIsExecutedWhenPodIsRunning() throws Exception {
+        final AtomicInteger listenerCount = new AtomicInteger();
+        PodActivation activation = podWatcher.watch("pod-1", 10000);
+        activation.addListener(new Runnable() {
+            @Override
+            public void run() {
+                listenerCount.incrementAndGet();
+            }
+        });
+
+        kubernetesApi.setPod("pod-1", KubernetesConstants.POD_STATUS_RUNNING);
+        activation.get(5, TimeUnit.SECONDS);
+        assertEquals(1, listenerCount.get());
+
+        // Listeners added after completion are executed immediately
+        activation.addListener(new Runnable() {
+            @Override
+            public void run() {
+                listenerCount.incrementAndGet();
+            }
+        });
+        assertEquals(2, listenerCount.get());
+    }
+
+    @Test
+    public void testActivationFailsWhenPodIsNotCreatedWithinTimeout() throws Exception {
+        PodActivation activation = podWatcher.watch("pod-1", POLL_INTERVAL);
+        try {
+            activation.get(5, TimeUnit.SECONDS);
+            fail("Pod activation did not fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof KubernetesClientException);
+        }
+        assertFalse(activation.isPodCreated());
+    }
+
+    @Test
+    public void testPollingStopsWhenNoPodsArePending() throws Exception {
+        kubernetesApi.setPod("pod-1", KubernetesConstants.POD_STATUS_RUNNING);
+        podWatcher.watch("pod-1", 10000).get(5, TimeUnit.SECONDS);
+        Thread.sleep(POLL_INTERVAL * 2);
+        int listCount = kubernetesApi.getListCount();
+        Thread.sleep(POLL_INTERVAL * 4);
+        assertEquals(listCount, kubernetesApi.getListCount());
+    }
+
+    @Test
+    public void testPendingActivationsFailWhenStopped() throws Exception {
+        final AtomicInteger listenerCount = new AtomicInteger();
+        PodActivation activation = podWatcher.watch("pod-1", 10000);
+        activation.addListener(new Runnable() {
+            @Override
+            public void run() {
+                listenerCount.incrementAndGet();
+            }
+        });
+
+        podWatcher.stop();
+        assertEquals(1, listenerCount.get());
+        assertEquals(0, podWatcher.getPendingActivationCount());
+        try {
+            activation.get(5, TimeUnit.SECONDS);
+            fail("Pod activation did not fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof KubernetesClientException);
+        }
+
+        // Pods watched after stopping fail immediately
+        assertTrue(podWatcher.watch("pod-2", 10000).isDone());
+    }
+
+    /**
+     * Kubernetes api which keeps pods in memory.
+     */
+    private static class FakeKubernetesApi implements KubernetesAPIClientInterface {
+
+        private final Map<String, Pod> pods = new ConcurrentHashMap<String, Pod>();
+        private final AtomicInteger listCount = new AtomicInteger();
+        private final AtomicInteger getCount = new AtomicInteger();
+
+        public void setPod(String podId, String phase) {
+            Pod pod = new Pod();
+            pod.setMetadata(new ObjectMeta());
+            pod.getMetadata().setName(podId);
+            pod.setStatus(new PodStatus());
+            pod.getStatus().setPhase(phase);
+            pods.put(podId, pod);
+        }
+
+        public int getListCount() {
+            return listCount.get();
+        }
+
+        public int getGetCount() {
+            return getCount.get();
+        }
+
+        @Override
+        public void createPod(String podId, String podLabel, String dockerImage, int cpu, int memory,
+                              List<ContainerPort> ports, List<EnvVar> environmentVariables)
+                throws KubernetesClientException {
+            setPod(podId, "Pending");
+        }
+
+        @Override
+        public Pod getPod(String podId) throws KubernetesClientException {
+            getCount.incrementAndGet();
+            return pods.get(podId);
+        }
+
+        @Override
+        public List<Pod> getPods() throws KubernetesClientException {
+            listCount.incrementAndGet();
+            return new ArrayList<Pod>(pods.values());
+        }
+
+        @Override
+        public void deletePod(String podId) throws KubernetesClientException {
+            pods.remove(podId);
+        }
+
+        @Override
+        public void createService(String serviceId, String serviceLabel, int servicePort, String containerPortName,
+                                  int containerPort, List<String> publicIPs, String sessionAffinity)
+                throws KubernetesClientException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Service getService(String serviceId) throws KubernetesClientException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Service> getServices() throws KubernetesClientException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteService(String serviceId) throws KubernetesClientException {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
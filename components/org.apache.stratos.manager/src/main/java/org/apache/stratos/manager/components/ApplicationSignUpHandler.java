@@ -24,9 +24,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.manager.exception.ApplicationSignUpException;
 import org.apache.stratos.manager.messaging.publisher.ApplicationSignUpEventPublisher;
-import org.apache.stratos.manager.registry.RegistryManager;
 import org.apache.stratos.messaging.domain.application.signup.ApplicationSignUp;
-import org.apache.stratos.messaging.domain.application.signup.ArtifactRepository;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -38,10 +36,14 @@ public class ApplicationSignUpHandler {
 
     private static final Log log = LogFactory.getLog(ApplicationSignUpHandler.class);
 
-    private static final String APPLICATION_SIGNUP_RESOURCE_PATH = "/stratos.manager/application.signups/";
+    private final ApplicationSignUpStore applicationSignUpStore;
 
-    private String prepareApplicationSignupResourcePath(String applicationId, int tenantId) {
-        return APPLICATION_SIGNUP_RESOURCE_PATH + applicationId + "-tenant-" + tenantId;
+    public ApplicationSignUpHandler() {
+        this(ApplicationSignUpStore.getInstance());
+    }
+
+    ApplicationSignUpHandler(ApplicationSignUpStore applicationSignUpStore) {
+        this.applicationSignUpStore = applicationSignUpStore;
     }
 
     /**
@@ -77,8 +79,7 @@ public class ApplicationSignUpHandler {
             }
 
             // Persist application signup
-            String resourcePath = prepareApplicationSignupResourcePath(applicationId, tenantId);
-            RegistryManager.getInstance().persist(resourcePath, applicationSignUp);
+            applicationSignUpStore.put(applicationSignUp);
 
             ApplicationSignUpEventPublisher.publishApplicationSignUpAddedEvent(applicationId, tenantId, clusterIdList);
 
@@ -103,9 +104,7 @@ public class ApplicationSignUpHandler {
      */
     public boolean applicationSignUpExist(String applicationId, int tenantId) throws ApplicationSignUpException {
         try {
-            String resourcePath = prepareApplicationSignupResourcePath(applicationId, tenantId);
-            ApplicationSignUp applicationSignUp = (ApplicationSignUp) RegistryManager.getInstance().read(resourcePath);
-            return (applicationSignUp != null);
+            return (applicationSignUpStore.get(applicationId, tenantId) != null);
         } catch (Exception e) {
             String message = "Could not check application signup availability";
             log.error(message, e);
@@ -132,8 +131,7 @@ public class ApplicationSignUpHandler {
                         "[tenant-id] %d", applicationId, tenantId));
             }
 
-            String resourcePath = prepareApplicationSignupResourcePath(applicationId, tenantId);
-            RegistryManager.getInstance().remove(resourcePath);
+            applicationSignUpStore.remove(applicationId, tenantId);
 
             ApplicationSignUpEventPublisher.publishApplicationSignUpRemovedEvent(applicationId, tenantId);
 
@@ -163,9 +161,7 @@ public class ApplicationSignUpHandler {
                         applicationId, tenantId));
             }
 
-            String resourcePath = prepareApplicationSignupResourcePath(applicationId, tenantId);
-            ApplicationSignUp applicationSignUp = (ApplicationSignUp) RegistryManager.getInstance().read(resourcePath);
-            return applicationSignUp;
+            return applicationSignUpStore.get(applicationId, tenantId);
         } catch (Exception e) {
             String message = String.format("Could not get application signup: [application-id] %s [tenant-id] %d",
                     applicationId, tenantId);
@@ -190,21 +186,7 @@ public class ApplicationSignUpHandler {
             if (StringUtils.isBlank(applicationId)) {
                 throw new RuntimeException("Application id is null");
             }
-            List<ApplicationSignUp> applicationSignUps = new ArrayList<ApplicationSignUp>();
-
-            String[] resourcePaths = (String[]) RegistryManager.getInstance().read(APPLICATION_SIGNUP_RESOURCE_PATH);
-            if (resourcePaths != null) {
-                for (String resourcePath : resourcePaths) {
-                    if (resourcePath != null) {
-                        ApplicationSignUp applicationSignUp = (ApplicationSignUp)
-                                RegistryManager.getInstance().read(resourcePath);
-                        if (applicationId.equals(applicationSignUp.getApplicationId())) {
-                            applicationSignUps.add(applicationSignUp);
-                        }
-                    }
-                }
-            }
-
+            List<ApplicationSignUp> applicationSignUps = applicationSignUpStore.getByApplicationId(applicationId);
             return applicationSignUps.toArray(new ApplicationSignUp[applicationSignUps.size()]);
         } catch (Exception e) {
             String message = "Could not get application signups: [application-id] " + applicationId;
@@ -225,20 +207,7 @@ public class ApplicationSignUpHandler {
                 log.debug(String.format("Reading application signups"));
             }
 
-            List<ApplicationSignUp> applicationSignUps = new ArrayList<ApplicationSignUp>();
-
-            String[] resourcePaths = (String[]) RegistryManager.getInstance().read(APPLICATION_SIGNUP_RESOURCE_PATH);
-            if (resourcePaths != null) {
-                for (String resourcePath : resourcePaths) {
-                    if (resourcePath != null) {
-                        ApplicationSignUp applicationSignUp = (ApplicationSignUp)
-                                RegistryManager.getInstance().read(resourcePath);
-                        applicationSignUps.add(applicationSignUp);
-                    }
-                }
-            }
-
-            return applicationSignUps;
+            return applicationSignUpStore.getAll();
         } catch (Exception e) {
             String message = "Could not get application signups";
             log.error(message, e);
@@ -255,23 +224,7 @@ public class ApplicationSignUpHandler {
      */
     public List<ApplicationSignUp> getApplicationSignUpsForRepository(String repoUrl) throws ApplicationSignUpException {
         try {
-            List<ApplicationSignUp> filteredResult = new ArrayList<ApplicationSignUp>();
-
-            List<ApplicationSignUp> applicationSignUps = getApplicationSignUps();
-            for (ApplicationSignUp applicationSignUp : applicationSignUps) {
-                if (applicationSignUp.getArtifactRepositories() != null) {
-                    for (ArtifactRepository artifactRepository : applicationSignUp.getArtifactRepositories()) {
-                        if (artifactRepository != null) {
-                            if (artifactRepository.getRepoUrl().equals(repoUrl)) {
-                                filteredResult.add(applicationSignUp);
-                                break;
-                            }
-                        }
-                    }
-                }
-            }
-
-            return filteredResult;
+            return applicationSignUpStore.getByRepoUrl(repoUrl);
         } catch (Exception e) {
             String message = "Could not get artifact repositories for repository: [repo-url] " + repoUrl;
             log.error(message, e);
@@ -286,8 +239,7 @@ public class ApplicationSignUpHandler {
 
         try {
             // Persist application signup
-            String resourcePath = prepareApplicationSignupResourcePath(applicationId, tenantId);
-            RegistryManager.getInstance().persist(resourcePath, applicationSignUp);
+            applicationSignUpStore.put(applicationSignUp);
 
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Application signup updated successfully: [application-id] %s [tenant-id] %d",
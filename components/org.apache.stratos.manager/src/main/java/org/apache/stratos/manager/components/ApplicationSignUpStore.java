@@ -0,0 +1,434 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.manager.components;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.services.DistributedObjectProvider;
+import org.apache.stratos.manager.internal.ServiceReferenceHolder;
+import org.apache.stratos.manager.registry.RegistryManager;
+import org.apache.stratos.messaging.domain.application.signup.ApplicationSignUp;
+import org.apache.stratos.messaging.domain.application.signup.ArtifactRepository;
+import org.apache.stratos.messaging.domain.application.signup.DomainMapping;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-through store of application signups. Application signups are read from the registry
+ * once and indexed by application id, artifact repository url and domain name, every change is
+ * persisted in the registry before the indexes are updated. Application signups are copied in and
+ * out of the store, therefore callers may modify them without affecting the indexes.
+ * <p/>
+ * The indexes are kept in maps of the distributed object provider. When stratos manager is
+ * clustered they are shared by all members, the first member loads them from the registry and
+ * changes are made while holding a distributed write lock.
+ */
+public class ApplicationSignUpStore {
+
+    private static final Log log = LogFactory.getLog(ApplicationSignUpStore.class);
+
+    private static final String APPLICATION_SIGNUP_RESOURCE_PATH = "/stratos.manager/application.signups/";
+
+    private static final String SM_APPLICATION_SIGNUPS_MAP = "SM_APPLICATION_SIGNUPS_MAP";
+    private static final String SM_APPLICATION_ID_TO_APPLICATION_SIGNUPS_MAP =
+            "SM_APPLICATION_ID_TO_APPLICATION_SIGNUPS_MAP";
+    private static final String SM_REPO_URL_TO_APPLICATION_SIGNUPS_MAP = "SM_REPO_URL_TO_APPLICATION_SIGNUPS_MAP";
+    private static final String SM_DOMAIN_NAME_TO_APPLICATION_SIGNUP_MAP = "SM_DOMAIN_NAME_TO_APPLICATION_SIGNUP_MAP";
+    private static final String SM_APPLICATION_SIGNUPS_WRITE_LOCK = "SM_APPLICATION_SIGNUPS_WRITE_LOCK";
+
+    private static volatile ApplicationSignUpStore instance;
+
+    private final DistributedObjectProvider distributedObjectProvider;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SignUpIndex index;
+    private volatile boolean loaded;
+
+    ApplicationSignUpStore(DistributedObjectProvider distributedObjectProvider) {
+        this.distributedObjectProvider = distributedObjectProvider;
+        this.index = new SignUpIndex(distributedObjectProvider);
+    }
+
+    public static ApplicationSignUpStore getInstance() {
+        if (instance == null) {
+            synchronized (ApplicationSignUpStore.class) {
+                if (instance == null) {
+                    instance = new ApplicationSignUpStore(
+                            ServiceReferenceHolder.getInstance().getDistributedObjectProvider());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Load application signups from the registry, the store is loaded on first access if this
+     * method has not been invoked before. The indexes are not loaded again if another member of
+     * the cluster has loaded them.
+     *
+     * @throws RegistryException if application signups could not be read from the registry
+     */
+    public void load() throws RegistryException {
+        if (loaded) {
+            return;
+        }
+        Lock writeLock = distributedObjectProvider.acquireLock(SM_APPLICATION_SIGNUPS_WRITE_LOCK);
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            if (index.isEmpty()) {
+                int count = readIndex(index);
+                if (log.isInfoEnabled()) {
+                    log.info(String.format("Application signups loaded from registry: [count] %d", count));
+                }
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+            distributedObjectProvider.releaseLock(writeLock);
+        }
+    }
+
+    /**
+     * Persist the given application signup and add a copy of it to the indexes, an existing
+     * application signup of the same application and tenant is replaced. The indexes are not
+     * updated if the application signup could not be persisted.
+     *
+     * @param applicationSignUp application signup
+     * @throws RegistryException if the application signup could not be persisted
+     */
+    public void put(ApplicationSignUp applicationSignUp) throws RegistryException {
+        load();
+        String resourcePath = getResourcePath(applicationSignUp.getApplicationId(), applicationSignUp.getTenantId());
+        Lock writeLock = distributedObjectProvider.acquireLock(SM_APPLICATION_SIGNUPS_WRITE_LOCK);
+        lock.writeLock().lock();
+        try {
+            persistApplicationSignUp(resourcePath, applicationSignUp);
+            index.unindex(resourcePath);
+            index.index(resourcePath, copy(applicationSignUp));
+        } finally {
+            lock.writeLock().unlock();
+            distributedObjectProvider.releaseLock(writeLock);
+        }
+    }
+
+    /**
+     * Remove the application signup of the given application and tenant from the registry and
+     * the indexes.
+     *
+     * @param applicationId application id
+     * @param tenantId      tenant id
+     * @throws RegistryException if the application signup could not be removed
+     */
+    public void remove(String applicationId, int tenantId) throws RegistryException {
+        load();
+        String resourcePath = getResourcePath(applicationId, tenantId);
+        Lock writeLock = distributedObjectProvider.acquireLock(SM_APPLICATION_SIGNUPS_WRITE_LOCK);
+        lock.writeLock().lock();
+        try {
+            removeApplicationSignUp(resourcePath);
+            index.unindex(resourcePath);
+        } finally {
+            lock.writeLock().unlock();
+            distributedObjectProvider.releaseLock(writeLock);
+        }
+    }
+
+    public ApplicationSignUp get(String applicationId, int tenantId) throws RegistryException {
+        load();
+        lock.readLock().lock();
+        try {
+            ApplicationSignUp applicationSignUp = index.get(getResourcePath(applicationId, tenantId));
+            return (applicationSignUp != null) ? copy(applicationSignUp) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ApplicationSignUp> getAll() throws RegistryException {
+        load();
+        lock.readLock().lock();
+        try {
+            return copy(index.getApplicationSignUps(index.signUps.keySet()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ApplicationSignUp> getByApplicationId(String applicationId) throws RegistryException {
+        load();
+        lock.readLock().lock();
+        try {
+            return copy(index.getApplicationSignUps(index.applicationIdToResourcePaths.get(applicationId)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ApplicationSignUp> getByRepoUrl(String repoUrl) throws RegistryException {
+        load();
+        lock.readLock().lock();
+        try {
+            return copy(index.getApplicationSignUps(index.repoUrlToResourcePaths.get(repoUrl)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean domainNameExist(String domainName) throws RegistryException {
+        load();
+        lock.readLock().lock();
+        try {
+            return index.domainNameToResourcePath.containsKey(domainName);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    protected String[] readResourcePaths() throws RegistryException {
+        return (String[]) RegistryManager.getInstance().read(APPLICATION_SIGNUP_RESOURCE_PATH);
+    }
+
+    protected ApplicationSignUp readApplicationSignUp(String resourcePath) throws RegistryException {
+        return (ApplicationSignUp) RegistryManager.getInstance().read(resourcePath);
+    }
+
+    protected void persistApplicationSignUp(String resourcePath, ApplicationSignUp applicationSignUp)
+            throws RegistryException {
+        RegistryManager.getInstance().persist(resourcePath, applicationSignUp);
+    }
+
+    protected void removeApplicationSignUp(String resourcePath) throws RegistryException {
+        RegistryManager.getInstance().remove(resourcePath);
+    }
+
+    private String getResourcePath(String applicationId, int tenantId) {
+        return APPLICATION_SIGNUP_RESOURCE_PATH + applicationId + "-tenant-" + tenantId;
+    }
+
+    /**
+     * Read all application signups from the registry into the given index.
+     *
+     * @return number of application signups read
+     */
+    private int readIndex(SignUpIndex signUpIndex) throws RegistryException {
+        int count = 0;
+        String[] resourcePaths = readResourcePaths();
+        if (resourcePaths != null) {
+            for (String resourcePath : resourcePaths) {
+                if (resourcePath != null) {
+                    ApplicationSignUp applicationSignUp = readApplicationSignUp(resourcePath);
+                    if (applicationSignUp != null) {
+                        signUpIndex.index(resourcePath, applicationSignUp);
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private static List<ApplicationSignUp> copy(List<ApplicationSignUp> applicationSignUps) {
+        List<ApplicationSignUp> copies = new ArrayList<ApplicationSignUp>(applicationSignUps.size());
+        for (ApplicationSignUp applicationSignUp : applicationSignUps) {
+            copies.add(copy(applicationSignUp));
+        }
+        return copies;
+    }
+
+    private static ApplicationSignUp copy(ApplicationSignUp applicationSignUp) {
+        ApplicationSignUp copy = new ApplicationSignUp();
+        copy.setTenantId(applicationSignUp.getTenantId());
+        copy.setApplicationId(applicationSignUp.getApplicationId());
+        if (applicationSignUp.getClusterIds() != null) {
+            copy.setClusterIds(applicationSignUp.getClusterIds().clone());
+        }
+        if (applicationSignUp.getArtifactRepositories() != null) {
+            ArtifactRepository[] artifactRepositories =
+                    new ArtifactRepository[applicationSignUp.getArtifactRepositories().length];
+            for (int i = 0; i < artifactRepositories.length; i++) {
+                artifactRepositories[i] = copy(applicationSignUp.getArtifactRepositories()[i]);
+            }
+            copy.setArtifactRepositories(artifactRepositories);
+        }
+        if (applicationSignUp.getDomainMappings() != null) {
+            DomainMapping[] domainMappings = new DomainMapping[applicationSignUp.getDomainMappings().length];
+            for (int i = 0; i < domainMappings.length; i++) {
+                domainMappings[i] = copy(applicationSignUp.getDomainMappings()[i]);
+            }
+            copy.setDomainMappings(domainMappings);
+        }
+        return copy;
+    }
+
+    private static ArtifactRepository copy(ArtifactRepository artifactRepository) {
+        if (artifactRepository == null) {
+            return null;
+        }
+        ArtifactRepository copy = new ArtifactRepository();
+        copy.setCartridgeType(artifactRepository.getCartridgeType());
+        copy.setAlias(artifactRepository.getAlias());
+        copy.setPrivateRepo(artifactRepository.isPrivateRepo());
+        copy.setRepoUrl(artifactRepository.getRepoUrl());
+        copy.setRepoUsername(artifactRepository.getRepoUsername());
+        copy.setRepoPassword(artifactRepository.getRepoPassword());
+        return copy;
+    }
+
+    private static DomainMapping copy(DomainMapping domainMapping) {
+        if (domainMapping == null) {
+            return null;
+        }
+        DomainMapping copy = new DomainMapping();
+        copy.setTenantId(domainMapping.getTenantId());
+        copy.setApplicationId(domainMapping.getApplicationId());
+        copy.setServiceName(domainMapping.getServiceName());
+        copy.setClusterId(domainMapping.getClusterId());
+        copy.setDomainName(domainMapping.getDomainName());
+        copy.setContextPath(domainMapping.getContextPath());
+        return copy;
+    }
+
+    /**
+     * Application signups indexed by application id, artifact repository url and domain name. The
+     * maps of the distributed object provider return copies of their values when clustered, hence
+     * every modified value is put back.
+     */
+    private static class SignUpIndex {
+
+        private final Map<String, ApplicationSignUp> signUps;
+        private final Map<String, Set<String>> applicationIdToResourcePaths;
+        private final Map<String, Set<String>> repoUrlToResourcePaths;
+        private final Map<String, String> domainNameToResourcePath;
+
+        private SignUpIndex(DistributedObjectProvider distributedObjectProvider) {
+            signUps = distributedObjectProvider.getMap(SM_APPLICATION_SIGNUPS_MAP);
+            applicationIdToResourcePaths = distributedObjectProvider.getMap(
+                    SM_APPLICATION_ID_TO_APPLICATION_SIGNUPS_MAP);
+            repoUrlToResourcePaths = distributedObjectProvider.getMap(SM_REPO_URL_TO_APPLICATION_SIGNUPS_MAP);
+            domainNameToResourcePath = distributedObjectProvider.getMap(SM_DOMAIN_NAME_TO_APPLICATION_SIGNUP_MAP);
+        }
+
+        private boolean isEmpty() {
+            return signUps.isEmpty();
+        }
+
+        private ApplicationSignUp get(String resourcePath) {
+            return signUps.get(resourcePath);
+        }
+
+        private List<ApplicationSignUp> getApplicationSignUps(Collection<String> resourcePaths) {
+            if (resourcePaths == null) {
+                return new ArrayList<ApplicationSignUp>();
+            }
+            List<ApplicationSignUp> applicationSignUps = new ArrayList<ApplicationSignUp>(resourcePaths.size());
+            for (String resourcePath : resourcePaths) {
+                ApplicationSignUp applicationSignUp = signUps.get(resourcePath);
+                // Another member may have removed the application signup in the meantime
+                if (applicationSignUp != null) {
+                    applicationSignUps.add(applicationSignUp);
+                }
+            }
+            return applicationSignUps;
+        }
+
+        private void index(String resourcePath, ApplicationSignUp applicationSignUp) {
+            signUps.put(resourcePath, applicationSignUp);
+            addToIndex(applicationIdToResourcePaths, applicationSignUp.getApplicationId(), resourcePath);
+            for (String repoUrl : getRepoUrls(applicationSignUp)) {
+                addToIndex(repoUrlToResourcePaths, repoUrl, resourcePath);
+            }
+            for (String domainName : getDomainNames(applicationSignUp)) {
+                domainNameToResourcePath.put(domainName, resourcePath);
+            }
+        }
+
+        private void unindex(String resourcePath) {
+            ApplicationSignUp applicationSignUp = signUps.remove(resourcePath);
+            if (applicationSignUp == null) {
+                return;
+            }
+            removeFromIndex(applicationIdToResourcePaths, applicationSignUp.getApplicationId(), resourcePath);
+            for (String repoUrl : getRepoUrls(applicationSignUp)) {
+                removeFromIndex(repoUrlToResourcePaths, repoUrl, resourcePath);
+            }
+            for (String domainName : getDomainNames(applicationSignUp)) {
+                if (resourcePath.equals(domainNameToResourcePath.get(domainName))) {
+                    domainNameToResourcePath.remove(domainName);
+                }
+            }
+        }
+
+        private static Set<String> getRepoUrls(ApplicationSignUp applicationSignUp) {
+            Set<String> repoUrls = new HashSet<String>();
+            if (applicationSignUp.getArtifactRepositories() != null) {
+                for (ArtifactRepository artifactRepository : applicationSignUp.getArtifactRepositories()) {
+                    if ((artifactRepository != null) && (artifactRepository.getRepoUrl() != null)) {
+                        repoUrls.add(artifactRepository.getRepoUrl());
+                    }
+                }
+            }
+            return repoUrls;
+        }
+
+        private static Set<String> getDomainNames(ApplicationSignUp applicationSignUp) {
+            Set<String> domainNames = new HashSet<String>();
+            if (applicationSignUp.getDomainMappings() != null) {
+                for (DomainMapping domainMapping : applicationSignUp.getDomainMappings()) {
+                    if ((domainMapping != null) && (domainMapping.getDomainName() != null)) {
+                        domainNames.add(domainMapping.getDomainName());
+                    }
+                }
+            }
+            return domainNames;
+        }
+
+        private static void addToIndex(Map<String, Set<String>> index, String key, String resourcePath) {
+            Set<String> resourcePaths = index.get(key);
+            if (resourcePaths == null) {
+                resourcePaths = new HashSet<String>();
+            }
+            resourcePaths.add(resourcePath);
+            index.put(key, resourcePaths);
+        }
+
+        private static void removeFromIndex(Map<String, Set<String>> index, String key, String resourcePath) {
+            Set<String> resourcePaths = index.get(key);
+            if (resourcePaths != null) {
+                resourcePaths.remove(resourcePath);
+                if (resourcePaths.isEmpty()) {
+                    index.remove(key);
+                } else {
+                    index.put(key, resourcePaths);
+                }
+            }
+        }
+    }
+}
@@ -22,16 +22,25 @@ package org.apache.stratos.manager.components;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.stratos.common.client.AutoscalerServiceClient;
 import org.apache.stratos.manager.exception.ArtifactDistributionCoordinatorException;
 import org.apache.stratos.manager.messaging.publisher.InstanceNotificationPublisher;
+import org.apache.stratos.manager.utils.StratosManagerConstants;
 import org.apache.stratos.messaging.domain.application.signup.ApplicationSignUp;
 import org.apache.stratos.messaging.domain.application.signup.ArtifactRepository;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
- * Artifact distribution coordinator.
+ * Artifact distribution coordinator. Artifact updated events of a repository shared by several
+ * tenants of the same cluster are published as one multi-tenant artifact updated event when the
+ * artifact.updated.event.batch.enabled system property is set to true. Batching is disabled by
+ * default since cartridge agents of earlier releases only process artifact updated events; it
+ * should only be enabled once every cartridge agent handles multi-tenant artifact updated events.
  */
 public class ArtifactDistributionCoordinator {
 
@@ -39,11 +48,23 @@ public class ArtifactDistributionCoordinator {
 
     private ApplicationSignUpHandler applicationSignUpManager;
     private InstanceNotificationPublisher publisher;
+    private ClusterIdCache clusterIdCache;
+    private boolean batchEnabled;
 
 
     public ArtifactDistributionCoordinator() {
-        applicationSignUpManager = new ApplicationSignUpHandler();
-        publisher = new InstanceNotificationPublisher();
+        this(new ApplicationSignUpHandler(), new InstanceNotificationPublisher(), ClusterIdCache.getInstance(),
+                Boolean.parseBoolean(System.getProperty(
+                        StratosManagerConstants.ARTIFACT_UPDATED_EVENT_BATCH_ENABLED, "false")));
+    }
+
+    ArtifactDistributionCoordinator(ApplicationSignUpHandler applicationSignUpManager,
+                                    InstanceNotificationPublisher publisher, ClusterIdCache clusterIdCache,
+                                    boolean batchEnabled) {
+        this.applicationSignUpManager = applicationSignUpManager;
+        this.publisher = publisher;
+        this.clusterIdCache = clusterIdCache;
+        this.batchEnabled = batchEnabled;
     }
 
     /**
@@ -82,7 +103,8 @@ public class ArtifactDistributionCoordinator {
             } else {
                 for (ArtifactRepository artifactRepository : applicationSignUp.getArtifactRepositories()) {
                     if (artifactRepository != null) {
-                        String artifactRepositoryClusterId = findClusterId(applicationId, artifactRepository.getAlias());
+                        String artifactRepositoryClusterId = clusterIdCache.getClusterId(applicationId,
+                                artifactRepository.getAlias());
                         if (StringUtils.isBlank(clusterId) || (clusterId.equals(artifactRepositoryClusterId))) {
 
                             publisher.publishArtifactUpdatedEvent(artifactRepositoryClusterId,
@@ -112,7 +134,8 @@ public class ArtifactDistributionCoordinator {
     }
 
     /**
-     * Notify artifact updated event for artifact repository.
+     * Notify artifact updated event for artifact repository. Tenants using the repository in the
+     * same cluster with the same credentials are notified with a single event.
      *
      * @param repoUrl
      */
@@ -123,38 +146,42 @@ public class ArtifactDistributionCoordinator {
                 if (log.isWarnEnabled()) {
                     log.warn(String.format("Artifact updated event not sent, " +
                             "application signups not found for repository: [repo-url] %s", repoUrl));
-                    return;
                 }
+                return;
+            }
 
-                for (ApplicationSignUp applicationSignUp : applicationSignUps) {
-                    if (applicationSignUp.getArtifactRepositories() != null) {
-                        for (ArtifactRepository artifactRepository : applicationSignUp.getArtifactRepositories()) {
-                            if ((artifactRepository != null) && (artifactRepository.getRepoUrl().equals(repoUrl))) {
-
-                                String applicationId = applicationSignUp.getApplicationId();
-                                int tenantId = applicationSignUp.getTenantId();
-                                String clusterId = findClusterId(applicationId, artifactRepository.getAlias());
-
-                                publisher.publishArtifactUpdatedEvent(clusterId,
-                                        String.valueOf(applicationSignUp.getTenantId()),
-                                        artifactRepository.getRepoUrl(),
-                                        artifactRepository.getRepoUsername(),
-                                        artifactRepository.getRepoPassword(), false);
-
-                                if (log.isInfoEnabled()) {
-                                    log.info(String.format("Artifact updated event published: [application-id] %s " +
-                                                    "[tenant-id] %d [cartridge-type] %s [alias] %s [repo-url] %s",
-                                            applicationId,
-                                            tenantId,
-                                            artifactRepository.getCartridgeType(),
-                                            artifactRepository.getAlias(),
-                                            artifactRepository.getRepoUrl()));
-                                }
-                            }
+            Map<String, ArtifactUpdatedEventGroup> eventGroups = new LinkedHashMap<String, ArtifactUpdatedEventGroup>();
+            for (ApplicationSignUp applicationSignUp : applicationSignUps) {
+                if (applicationSignUp.getArtifactRepositories() == null) {
+                    continue;
+                }
+                for (ArtifactRepository artifactRepository : applicationSignUp.getArtifactRepositories()) {
+                    if ((artifactRepository != null) && (repoUrl.equals(artifactRepository.getRepoUrl()))) {
+                        String applicationId = applicationSignUp.getApplicationId();
+                        String clusterId = clusterIdCache.getClusterId(applicationId, artifactRepository.getAlias());
+                        if (StringUtils.isBlank(clusterId)) {
+                            log.warn(String.format("Artifact updated event not sent, cluster not found: " +
+                                            "[application-id] %s [tenant-id] %d [alias] %s", applicationId,
+                                    applicationSignUp.getTenantId(), artifactRepository.getAlias()));
+                            continue;
                         }
+
+                        String key = clusterId + "|" + artifactRepository.getRepoUsername() + "|" +
+                                artifactRepository.getRepoPassword();
+                        ArtifactUpdatedEventGroup eventGroup = eventGroups.get(key);
+                        if (eventGroup == null) {
+                            eventGroup = new ArtifactUpdatedEventGroup(clusterId, artifactRepository.getRepoUsername(),
+                                    artifactRepository.getRepoPassword());
+                            eventGroups.put(key, eventGroup);
+                        }
+                        eventGroup.tenantIds.add(String.valueOf(applicationSignUp.getTenantId()));
                     }
                 }
             }
+
+            for (ArtifactUpdatedEventGroup eventGroup : eventGroups.values()) {
+                publishArtifactUpdatedEvents(repoUrl, eventGroup);
+            }
         } catch (Exception e) {
             String message = "Could not notify artifact updated event";
             log.error(message, e);
@@ -162,15 +189,21 @@ public class ArtifactDistributionCoordinator {
         }
     }
 
-    private String findClusterId(String applicationId, String alias) {
-        try {
-            AutoscalerServiceClient autoscalerServiceClient = AutoscalerServiceClient.getInstance();
-            return autoscalerServiceClient.findClusterId(applicationId, alias);
-        } catch (Exception e) {
-            String message = String.format("Could not find cluster id of alias: [application-id] %s [alias] %s",
-                    applicationId, alias);
-            log.error(message, e);
-            throw new RuntimeException(message, e);
+    private void publishArtifactUpdatedEvents(String repoUrl, ArtifactUpdatedEventGroup eventGroup) {
+        if (batchEnabled && (eventGroup.tenantIds.size() > 1)) {
+            publisher.publishMultiTenantArtifactUpdatedEvent(eventGroup.clusterId,
+                    new ArrayList<String>(eventGroup.tenantIds), repoUrl, eventGroup.repoUsername,
+                    eventGroup.repoPassword, false);
+        } else {
+            for (String tenantId : eventGroup.tenantIds) {
+                publisher.publishArtifactUpdatedEvent(eventGroup.clusterId, tenantId, repoUrl,
+                        eventGroup.repoUsername, eventGroup.repoPassword, false);
+            }
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Artifact updated event published: [cluster-id] %s [repo-url] %s " +
+                    "[tenant-count] %d", eventGroup.clusterId, repoUrl, eventGroup.tenantIds.size()));
         }
     }
 
@@ -179,4 +212,22 @@ public class ArtifactDistributionCoordinator {
         return ((artifactRepositories != null) && (artifactRepositories.length > 0) &&
                 (artifactRepositories[0] != null));
     }
+
+    /**
+     * Tenants to be notified about an artifact repository update in a cluster.
+     */
+    private static class ArtifactUpdatedEventGroup {
+
+        private final String clusterId;
+        private final String repoUsername;
+        private final String repoPassword;
+        private final Set<String> tenantIds;
+
+        private ArtifactUpdatedEventGroup(String clusterId, String repoUsername, String repoPassword) {
+            this.clusterId = clusterId;
+            this.repoUsername = repoUsername;
+            this.repoPassword = repoPassword;
+            this.tenantIds = new LinkedHashSet<String>();
+        }
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.manager.components;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.client.AutoscalerServiceClient;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the cluster ids of the cartridge aliases of applications, so that notifying artifact
+ * updated events does not need a remote call to the autoscaler per artifact repository. Cluster
+ * ids of an application are evicted when the application is created or deleted.
+ */
+public class ClusterIdCache {
+
+    private static final Log log = LogFactory.getLog(ClusterIdCache.class);
+
+    private static volatile ClusterIdCache instance;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, String>> applicationIdToClusterIds;
+
+    ClusterIdCache() {
+        applicationIdToClusterIds = new ConcurrentHashMap<String, ConcurrentMap<String, String>>();
+    }
+
+    public static ClusterIdCache getInstance() {
+        if (instance == null) {
+            synchronized (ClusterIdCache.class) {
+                if (instance == null) {
+                    instance = new ClusterIdCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the cluster id of the given alias of an application, the autoscaler is queried on
+     * a cache miss. Cluster ids which could not be found are not cached.
+     *
+     * @param applicationId application id
+     * @param alias         cartridge alias
+     * @return cluster id or null if the alias has no cluster
+     */
+    public String getClusterId(String applicationId, String alias) {
+        ConcurrentMap<String, String> clusterIds = applicationIdToClusterIds.get(applicationId);
+        if (clusterIds != null) {
+            String clusterId = clusterIds.get(alias);
+            if (clusterId != null) {
+                return clusterId;
+            }
+        }
+
+        String clusterId = findClusterId(applicationId, alias);
+        if (clusterId != null) {
+            if (clusterIds == null) {
+                ConcurrentMap<String, String> newClusterIds = new ConcurrentHashMap<String, String>();
+                clusterIds = applicationIdToClusterIds.putIfAbsent(applicationId, newClusterIds);
+                if (clusterIds == null) {
+                    clusterIds = newClusterIds;
+                }
+            }
+            clusterIds.put(alias, clusterId);
+        }
+        return clusterId;
+    }
+
+    /**
+     * Evict the cluster ids of the given application.
+     *
+     * @param applicationId application id
+     */
+    public void invalidate(String applicationId) {
+        if (applicationIdToClusterIds.remove(applicationId) != null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Cluster ids evicted from cache: [application-id] %s", applicationId));
+            }
+        }
+    }
+
+    /**
+     * Evict all cluster ids.
+     */
+    public void invalidateAll() {
+        applicationIdToClusterIds.clear();
+    }
+
+    protected String findClusterId(String applicationId, String alias) {
+        try {
+            AutoscalerServiceClient autoscalerServiceClient = AutoscalerServiceClient.getInstance();
+            return autoscalerServiceClient.findClusterId(applicationId, alias);
+        } catch (Exception e) {
+            String message = String.format("Could not find cluster id of alias: [application-id] %s [alias] %s",
+                    applicationId, alias);
+            log.error(message, e);
+            throw new RuntimeException(message, e);
+        }
+    }
+}
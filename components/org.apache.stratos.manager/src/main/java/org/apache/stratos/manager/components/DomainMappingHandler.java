@@ -100,24 +100,12 @@ public class DomainMappingHandler {
 
     public boolean domainNameExist(String domainName) throws DomainMappingException {
         try {
-            List<ApplicationSignUp> applicationSignUps = applicationSignUpHandler.getApplicationSignUps();
-            if (applicationSignUps != null) {
-                for (ApplicationSignUp applicationSignUp : applicationSignUps) {
-                    if (applicationSignUp.getDomainMappings() != null) {
-                        for (DomainMapping domainMapping : applicationSignUp.getDomainMappings()) {
-                            if ((domainMapping != null) && (domainMapping.getDomainName().equals(domainName))) {
-                                return true;
-                            }
-                        }
-                    }
-                }
-            }
+            return ApplicationSignUpStore.getInstance().domainNameExist(domainName);
         } catch (Exception e) {
             String message = String.format("Could not check domain name existence: [domain-name] %s", domainName);
             log.error(message, e);
             throw new DomainMappingException(message, e);
         }
-        return false;
     }
 
     public DomainMapping[] getDomainMappings(String applicationId, int tenantId) throws DomainMappingException {
@@ -22,6 +22,7 @@ package org.apache.stratos.manager.context;
 import org.apache.axis2.engine.AxisConfiguration;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.concurrent.locks.LockBatch;
 import org.apache.stratos.common.services.DistributedObjectProvider;
 import org.apache.stratos.manager.internal.ServiceReferenceHolder;
 import org.apache.stratos.manager.registry.RegistryManager;
@@ -133,6 +134,10 @@ public class StratosManagerContext implements Serializable {
         distributedObjectProvider.releaseLock(lock);
     }
 
+    public void releaseWriteLocks(LockBatch lockBatch) {
+        distributedObjectProvider.releaseLocks(lockBatch);
+    }
+
     public Lock acquireCartridgesCartridgeGroupsWriteLock() {
         return acquireWriteLock(SM_CARTRIDGES_CARTRIDGEGROUPS_WRITE_LOCK);
     }
@@ -149,6 +154,19 @@ public class StratosManagerContext implements Serializable {
         return acquireWriteLock(SM_CARTRIDGEGROUPS_APPLICATIONS_WRITE_LOCK);
     }
 
+    /**
+     * Acquires the write locks of all the maps of the context in one batch. The whole context is
+     * serialized when it is persisted, therefore changes followed by persist() need to hold all
+     * the write locks.
+     *
+     * @return lock batch to be released using releaseWriteLocks()
+     */
+    public LockBatch acquireWriteLocks() {
+        return distributedObjectProvider.acquireLocks(SM_CARTRIDGES_CARTRIDGEGROUPS_WRITE_LOCK,
+                SM_CARTRIDGES_APPLICATIONS_WRITE_LOCK, SM_CARTRIDGEGROUPS_CARTRIDGESUBGROUPS_WRITE_LOCK,
+                SM_CARTRIDGEGROUPS_APPLICATIONS_WRITE_LOCK);
+    }
+
     public void addUsedCartridgesInCartridgeGroups(String cartridgeGroupName, String[] cartridgeNames) {
         if (cartridgeNames == null) {
             return;
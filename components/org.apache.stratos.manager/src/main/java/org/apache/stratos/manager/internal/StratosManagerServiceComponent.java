@@ -26,11 +26,13 @@ import org.apache.stratos.common.services.ComponentActivationEventListener;
 import org.apache.stratos.common.services.ComponentStartUpSynchronizer;
 import org.apache.stratos.common.services.DistributedObjectProvider;
 import org.apache.stratos.common.threading.StratosThreadPool;
+import org.apache.stratos.manager.components.ApplicationSignUpStore;
 import org.apache.stratos.manager.context.StratosManagerContext;
 import org.apache.stratos.manager.messaging.publisher.TenantEventPublisher;
 import org.apache.stratos.manager.messaging.publisher.synchronizer.ApplicationSignUpEventSynchronizer;
 import org.apache.stratos.manager.messaging.publisher.synchronizer.TenantEventSynchronizer;
 import org.apache.stratos.manager.messaging.receiver.StratosManagerApplicationEventReceiver;
+import org.apache.stratos.manager.messaging.receiver.StratosManagerInitializerEventReceiver;
 import org.apache.stratos.manager.messaging.receiver.StratosManagerInstanceStatusEventReceiver;
 import org.apache.stratos.manager.messaging.receiver.StratosManagerTopologyEventReceiver;
 import org.apache.stratos.manager.user.management.TenantUserRoleManager;
@@ -91,6 +93,7 @@ public class StratosManagerServiceComponent {
     private StratosManagerTopologyEventReceiver topologyEventReceiver;
     private StratosManagerInstanceStatusEventReceiver instanceStatusEventReceiver;
     private StratosManagerApplicationEventReceiver applicationEventReceiver;
+    private StratosManagerInitializerEventReceiver initializerEventReceiver;
     private ExecutorService executorService;
     private ScheduledExecutorService scheduler;
 
@@ -114,6 +117,9 @@ public class StratosManagerServiceComponent {
                                 Component.Autoscaler);
 
                         CartridgeConfigFileReader.readProperties();
+                        // Load application signups from the registry unless another member has loaded them
+                        ApplicationSignUpStore.getInstance().load();
+
                         if (StratosManagerContext.getInstance().isClustered()) {
                             Thread coordinatorElectorThread = new Thread() {
                                 @Override
@@ -177,6 +183,7 @@ public class StratosManagerServiceComponent {
 
         initializeTenantEventPublisher(componentContext);
         initializeInstanceStatusEventReceiver();
+        initializeInitializerEventReceiver();
         registerComponentStartUpEventListeners();
 
         // Create internal/user Role at server start-up
@@ -192,6 +199,16 @@ public class StratosManagerServiceComponent {
         instanceStatusEventReceiver.execute();
     }
 
+    /**
+     * Initialize initializer event receiver, tenant snapshots are published by the coordinator
+     * since it sequences the tenant events
+     */
+    private void initializeInitializerEventReceiver() {
+        initializerEventReceiver = new StratosManagerInitializerEventReceiver();
+        initializerEventReceiver.setExecutorService(executorService);
+        initializerEventReceiver.execute();
+    }
+
     /**
      * Initialize topology event receiver
      */
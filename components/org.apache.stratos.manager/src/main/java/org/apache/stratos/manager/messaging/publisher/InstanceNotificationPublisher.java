@@ -24,8 +24,12 @@ import org.apache.stratos.messaging.broker.publish.EventPublisher;
 import org.apache.stratos.messaging.broker.publish.EventPublisherPool;
 import org.apache.stratos.messaging.event.Event;
 import org.apache.stratos.messaging.event.instance.notifier.ArtifactUpdatedEvent;
+import org.apache.stratos.messaging.event.instance.notifier.MultiTenantArtifactUpdatedEvent;
 import org.apache.stratos.messaging.util.MessagingUtil;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Creating the relevant instance notification event and publish it to the
  * instances.
@@ -66,4 +70,30 @@ public class InstanceNotificationPublisher {
 
         publish(artifactUpdateEvent);
     }
+
+    /**
+     * Publishing one artifact update event for several tenants of a cluster sharing the same
+     * artifact repository
+     *
+     * @param clusterId
+     * @param tenantIds
+     * @param repoUrl
+     * @param repoUsername
+     * @param repoPassword
+     * @param isCommitEnabled
+     */
+    public void publishMultiTenantArtifactUpdatedEvent(String clusterId, List<String> tenantIds, String repoUrl,
+                                                       String repoUsername, String repoPassword,
+                                                       boolean isCommitEnabled) {
+
+        MultiTenantArtifactUpdatedEvent artifactUpdateEvent = new MultiTenantArtifactUpdatedEvent();
+        artifactUpdateEvent.setClusterId(clusterId);
+        artifactUpdateEvent.setRepoUserName(repoUsername);
+        artifactUpdateEvent.setRepoPassword(repoPassword);
+        artifactUpdateEvent.setRepoURL(repoUrl);
+        artifactUpdateEvent.setTenantIds(new ArrayList<String>(tenantIds));
+        artifactUpdateEvent.setCommitEnabled(isCommitEnabled);
+
+        publish(artifactUpdateEvent);
+    }
 }
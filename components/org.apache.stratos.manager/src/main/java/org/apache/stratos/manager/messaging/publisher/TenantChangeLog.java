@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.manager.messaging.publisher;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.manager.internal.ServiceReferenceHolder;
+import org.apache.stratos.messaging.broker.publish.EventPublisher;
+import org.apache.stratos.messaging.broker.publish.EventPublisherPool;
+import org.apache.stratos.messaging.domain.tenant.Tenant;
+import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.event.tenant.CompleteTenantEvent;
+import org.apache.stratos.messaging.event.tenant.TenantCreatedEvent;
+import org.apache.stratos.messaging.event.tenant.TenantEvent;
+import org.apache.stratos.messaging.event.tenant.TenantRemovedEvent;
+import org.apache.stratos.messaging.event.tenant.TenantSequenceEvent;
+import org.apache.stratos.messaging.event.tenant.TenantUpdatedEvent;
+import org.apache.stratos.messaging.util.MessagingUtil;
+import org.wso2.carbon.user.core.tenant.TenantManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tenant change log of the stratos manager. Tenant created, updated and removed events are
+ * published with consecutive sequence numbers, subscribers which miss an event request a
+ * tenant snapshot which is published as pages of complete tenant events. Sequence numbers
+ * start at the start up time of the stratos manager in milliseconds, hence they keep
+ * increasing across restarts and subscribers re-synchronize once the stratos manager
+ * is restarted.
+ * <p/>
+ * Snapshots are published on the reply topic of the requester, hence subscribers which are in
+ * sync do not receive them. Requests without a requester id are answered on the tenant topic;
+ * such requests of subscribers which already applied tenant events, received within the
+ * tenant.snapshot.min.interval (milliseconds) of a snapshot of the same sequence number, are
+ * answered by that snapshot. The number of tenants per page is given by the
+ * tenant.snapshot.page.size system property.
+ */
+public class TenantChangeLog {
+
+    private static final Log log = LogFactory.getLog(TenantChangeLog.class);
+
+    private static final String SNAPSHOT_PAGE_SIZE = "tenant.snapshot.page.size";
+    private static final int DEFAULT_SNAPSHOT_PAGE_SIZE = 1000;
+    private static final String SNAPSHOT_MIN_INTERVAL = "tenant.snapshot.min.interval";
+    private static final long DEFAULT_SNAPSHOT_MIN_INTERVAL = 10000;
+
+    private static volatile TenantChangeLog instance;
+
+    private final int snapshotPageSize;
+    private final long snapshotMinInterval;
+    private long sequenceNumber;
+    private long lastSnapshotSequenceNumber;
+    private long lastSnapshotTime;
+
+    TenantChangeLog(long initialSequenceNumber, int snapshotPageSize, long snapshotMinInterval) {
+        this.sequenceNumber = initialSequenceNumber;
+        this.snapshotPageSize = Math.max(1, snapshotPageSize);
+        this.snapshotMinInterval = snapshotMinInterval;
+    }
+
+    public static TenantChangeLog getInstance() {
+        if (instance == null) {
+            synchronized (TenantChangeLog.class) {
+                if (instance == null) {
+                    instance = new TenantChangeLog(System.currentTimeMillis(),
+                            Integer.getInteger(SNAPSHOT_PAGE_SIZE, DEFAULT_SNAPSHOT_PAGE_SIZE),
+                            Long.getLong(SNAPSHOT_MIN_INTERVAL, DEFAULT_SNAPSHOT_MIN_INTERVAL));
+                }
+            }
+        }
+        return instance;
+    }
+
+    public synchronized void tenantCreated(int tenantId, String tenantDomain) {
+        publishSequenced(new TenantCreatedEvent(new Tenant(tenantId, tenantDomain)));
+    }
+
+    public synchronized void tenantUpdated(int tenantId, String tenantDomain) {
+        publishSequenced(new TenantUpdatedEvent(tenantId, tenantDomain));
+    }
+
+    public synchronized void tenantRemoved(int tenantId) {
+        publishSequenced(new TenantRemovedEvent(tenantId));
+    }
+
+    /**
+     * Publish the latest sequence number, subscribers behind it request a tenant snapshot.
+     */
+    public synchronized void publishSequence() {
+        TenantSequenceEvent event = new TenantSequenceEvent();
+        event.setSequenceNumber(sequenceNumber);
+        publish(event);
+    }
+
+    /**
+     * Publish all tenants as pages of complete tenant events carrying the latest sequence number.
+     *
+     * @param lastSequenceNumber sequence number of the last tenant event applied by the requester
+     * @param requesterId        id of the requester, null to publish on the tenant topic
+     * @throws Exception if the tenants could not be read from the tenant manager
+     */
+    public synchronized void publishSnapshot(long lastSequenceNumber, String requesterId) throws Exception {
+        long now = System.currentTimeMillis();
+        if ((requesterId == null) && (lastSequenceNumber > 0) && (lastSnapshotSequenceNumber == sequenceNumber) &&
+                ((now - lastSnapshotTime) < snapshotMinInterval)) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Tenant snapshot recently published: [sequence-number] %d " +
+                        "[requested-sequence-number] %d", sequenceNumber, lastSequenceNumber));
+            }
+            return;
+        }
+
+        List<Tenant> tenants = readTenants();
+        int pageCount = Math.max(1, (tenants.size() + snapshotPageSize - 1) / snapshotPageSize);
+        for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+            int fromIndex = pageIndex * snapshotPageSize;
+            int toIndex = Math.min(tenants.size(), fromIndex + snapshotPageSize);
+            CompleteTenantEvent event = new CompleteTenantEvent(
+                    new ArrayList<Tenant>(tenants.subList(fromIndex, toIndex)), pageIndex, pageCount);
+            event.setSequenceNumber(sequenceNumber);
+            if (requesterId == null) {
+                publish(event);
+            } else {
+                publish(MessagingUtil.getReplyTopicName(event, requesterId), event);
+            }
+        }
+        if (requesterId == null) {
+            lastSnapshotSequenceNumber = sequenceNumber;
+            lastSnapshotTime = now;
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Tenant snapshot published: [sequence-number] %d [requested-sequence-number] %d " +
+                    "[requester-id] %s [tenant-count] %d [page-count] %d", sequenceNumber, lastSequenceNumber,
+                    requesterId, tenants.size(), pageCount));
+        }
+    }
+
+    /**
+     * Publish all tenants in one complete tenant event carrying the latest sequence number, for
+     * subscribers of earlier releases which neither request snapshots nor read paged snapshots.
+     *
+     * @throws Exception if the tenants could not be read from the tenant manager
+     */
+    public synchronized void publishCompleteTenantEvent() throws Exception {
+        List<Tenant> tenants = readTenants();
+        CompleteTenantEvent event = new CompleteTenantEvent(tenants);
+        event.setSequenceNumber(sequenceNumber);
+        publish(event);
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Complete tenant event published: [sequence-number] %d [tenant-count] %d",
+                    sequenceNumber, tenants.size()));
+        }
+    }
+
+    public synchronized long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    /**
+     * A sequence number is consumed even if the event could not be published, subscribers
+     * then detect the gap and request a snapshot.
+     */
+    private void publishSequenced(TenantEvent event) {
+        event.setSequenceNumber(++sequenceNumber);
+        publish(event);
+    }
+
+    protected List<Tenant> readTenants() throws Exception {
+        List<Tenant> tenants = new ArrayList<Tenant>();
+        TenantManager tenantManager = ServiceReferenceHolder.getRealmService().getTenantManager();
+        for (org.wso2.carbon.user.api.Tenant carbonTenant : tenantManager.getAllTenants()) {
+            tenants.add(new Tenant(carbonTenant.getId(), carbonTenant.getDomain()));
+        }
+        return tenants;
+    }
+
+    private void publish(Event event) {
+        publish(MessagingUtil.getMessageTopicName(event), event);
+    }
+
+    protected void publish(String topic, Event event) {
+        EventPublisher eventPublisher = EventPublisherPool.getPublisher(topic);
+        eventPublisher.publish(event);
+    }
+}
@@ -24,30 +24,16 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.common.beans.TenantInfoBean;
 import org.apache.stratos.common.exception.ApacheStratosException;
 import org.apache.stratos.common.listeners.TenantMgtListener;
-import org.apache.stratos.messaging.broker.publish.EventPublisher;
-import org.apache.stratos.messaging.broker.publish.EventPublisherPool;
-import org.apache.stratos.messaging.domain.tenant.Tenant;
-import org.apache.stratos.messaging.event.Event;
-import org.apache.stratos.messaging.event.tenant.TenantCreatedEvent;
-import org.apache.stratos.messaging.event.tenant.TenantRemovedEvent;
-import org.apache.stratos.messaging.event.tenant.TenantUpdatedEvent;
-import org.apache.stratos.messaging.util.MessagingUtil;
 
 /**
  * Tenant event publisher to publish tenant events to the message broker by
- * listening to the tenant manager.
+ * listening to the tenant manager. Events are sequenced by the {@link TenantChangeLog}.
  */
 public class TenantEventPublisher implements TenantMgtListener {
 
     private static final Log log = LogFactory.getLog(TenantEventPublisher.class);
     private static final int EXEC_ORDER = 1;
 
-    private void publish(Event event) {
-        String topic = MessagingUtil.getMessageTopicName(event);
-        EventPublisher eventPublisher = EventPublisherPool.getPublisher(topic);
-        eventPublisher.publish(event);
-    }
-
     @Override
     public void onTenantCreate(TenantInfoBean tenantInfo) throws ApacheStratosException {
         try {
@@ -55,9 +41,7 @@ public class TenantEventPublisher implements TenantMgtListener {
                 log.debug(String.format("Publishing tenant created event: [tenant-id] %d [tenant-domain] %s",
                         tenantInfo.getTenantId(), tenantInfo.getTenantDomain()));
             }
-            Tenant tenant = new Tenant(tenantInfo.getTenantId(), tenantInfo.getTenantDomain());
-            TenantCreatedEvent event = new TenantCreatedEvent(tenant);
-            publish(event);
+            TenantChangeLog.getInstance().tenantCreated(tenantInfo.getTenantId(), tenantInfo.getTenantDomain());
         } catch (Exception e) {
             log.error(String.format("Could not publish tenant created event [tenant-id] %d [tenant-domain] %s ",
                     tenantInfo.getTenantId(),
@@ -72,9 +56,7 @@ public class TenantEventPublisher implements TenantMgtListener {
                 log.info(String.format("Publishing tenant updated event: [tenant-id] %d [tenant-domain] %s",
                         tenantInfo.getTenantId(), tenantInfo.getTenantDomain()));
             }
-            TenantUpdatedEvent event = new TenantUpdatedEvent(tenantInfo.getTenantId(),
-                    tenantInfo.getTenantDomain());
-            publish(event);
+            TenantChangeLog.getInstance().tenantUpdated(tenantInfo.getTenantId(), tenantInfo.getTenantDomain());
         } catch (Exception e) {
             log.error(String.format("Could not publish tenant updated event:[tenant-id] %d [tenant-domain] %s ",
                     tenantInfo.getTenantId(),
@@ -88,8 +70,7 @@ public class TenantEventPublisher implements TenantMgtListener {
             if (log.isInfoEnabled()) {
                 log.info(String.format("Publishing tenant removed event: [tenant-id] %d", tenantId));
             }
-            TenantRemovedEvent event = new TenantRemovedEvent(tenantId);
-            publish(event);
+            TenantChangeLog.getInstance().tenantRemoved(tenantId);
         } catch (Exception e) {
             log.error(String.format("Could not publish tenant removed event [tenant-id] %d", tenantId), e);
         }
@@ -21,64 +21,56 @@ package org.apache.stratos.manager.messaging.publisher.synchronizer;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.stratos.manager.internal.ServiceReferenceHolder;
-import org.apache.stratos.messaging.broker.publish.EventPublisher;
-import org.apache.stratos.messaging.broker.publish.EventPublisherPool;
-import org.apache.stratos.messaging.domain.tenant.Tenant;
-import org.apache.stratos.messaging.event.tenant.CompleteTenantEvent;
-import org.apache.stratos.messaging.util.MessagingUtil;
-import org.wso2.carbon.stratos.common.beans.TenantInfoBean;
-import org.wso2.carbon.user.core.tenant.TenantManager;
+import org.apache.stratos.manager.messaging.publisher.TenantChangeLog;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Tenant event synchronizer publishes complete tenant event periodically.
+ * Tenant event synchronizer publishes the latest sequence number of the tenant change log
+ * periodically. Subscribers which missed tenant events request a tenant snapshot instead of
+ * the complete tenant list being broadcast on every run.
+ * <p/>
+ * Subscribers of earlier releases only initialize from the complete tenant event broadcast,
+ * therefore all tenants are still published in one complete tenant event every
+ * tenant.complete.event.interval runs (10 by default). Setting it to 0 disables the broadcast
+ * once every subscriber requests tenant snapshots.
  */
 public class TenantEventSynchronizer implements Runnable {
 
     private static final Log log = LogFactory.getLog(TenantEventSynchronizer.class);
 
+    private static final String COMPLETE_TENANT_EVENT_INTERVAL = "tenant.complete.event.interval";
+    private static final int DEFAULT_COMPLETE_TENANT_EVENT_INTERVAL = 10;
+
+    private final int completeTenantEventInterval;
+    private final AtomicLong runCount = new AtomicLong();
+
+    public TenantEventSynchronizer() {
+        this(Integer.getInteger(COMPLETE_TENANT_EVENT_INTERVAL, DEFAULT_COMPLETE_TENANT_EVENT_INTERVAL));
+    }
+
+    TenantEventSynchronizer(int completeTenantEventInterval) {
+        this.completeTenantEventInterval = completeTenantEventInterval;
+    }
+
     @Override
     public void run() {
         try {
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Publishing complete tenant event"));
-            }
-            Tenant tenant;
-            List<Tenant> tenants = new ArrayList<Tenant>();
-            TenantManager tenantManager = ServiceReferenceHolder.getRealmService().getTenantManager();
-            org.wso2.carbon.user.api.Tenant[] carbonTenants = tenantManager.getAllTenants();
-            for (org.wso2.carbon.user.api.Tenant carbonTenant : carbonTenants) {
-                // Create tenant
+            long count = runCount.getAndIncrement();
+            if ((completeTenantEventInterval > 0) && ((count % completeTenantEventInterval) == 0)) {
                 if (log.isDebugEnabled()) {
-                    log.debug(String.format("Tenant found: [tenant-id] %d [tenant-domain] %s",
-                            carbonTenant.getId(), carbonTenant.getDomain()));
+                    log.debug("Publishing complete tenant event");
                 }
-                tenant = new Tenant(carbonTenant.getId(), carbonTenant.getDomain());
-
-                if (!org.apache.stratos.messaging.message.receiver.tenant.TenantManager.getInstance()
-                        .tenantExists(carbonTenant.getId())) {
-                    // if the tenant is not already there in TenantManager,
-                    // trigger TenantCreatedEvent
-                    TenantInfoBean tenantBean = new TenantInfoBean();
-                    tenantBean.setTenantId(carbonTenant.getId());
-                    tenantBean.setTenantDomain(carbonTenant.getDomain());
-
-                    // Add tenant to Tenant Manager
-                    org.apache.stratos.messaging.message.receiver.tenant.TenantManager.getInstance()
-                            .addTenant(tenant);
+                TenantChangeLog.getInstance().publishCompleteTenantEvent();
+            } else {
+                if (log.isDebugEnabled()) {
+                    log.debug("Publishing tenant sequence event");
                 }
-                tenants.add(tenant);
+                TenantChangeLog.getInstance().publishSequence();
             }
-            CompleteTenantEvent event = new CompleteTenantEvent(tenants);
-            String topic = MessagingUtil.getMessageTopicName(event);
-            EventPublisher eventPublisher = EventPublisherPool.getPublisher(topic);
-            eventPublisher.publish(event);
         } catch (Exception e) {
             if (log.isErrorEnabled()) {
-                log.error("Could not publish complete tenant event", e);
+                log.error("Could not publish tenant event", e);
             }
         }
     }
@@ -21,6 +21,12 @@ package org.apache.stratos.manager.messaging.receiver;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.manager.components.ClusterIdCache;
+import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.event.application.ApplicationCreatedEvent;
+import org.apache.stratos.messaging.event.application.ApplicationDeletedEvent;
+import org.apache.stratos.messaging.listener.application.ApplicationCreatedEventListener;
+import org.apache.stratos.messaging.listener.application.ApplicationDeletedEventListener;
 import org.apache.stratos.messaging.message.receiver.application.ApplicationsEventReceiver;
 
 /**
@@ -45,5 +51,22 @@ public class StratosManagerApplicationEventReceiver extends ApplicationsEventRec
     }
 
     private void addEventListeners() {
+        // Cluster ids of the aliases of an application change when the application is re-created
+        addEventListener(new ApplicationCreatedEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                ApplicationCreatedEvent applicationCreatedEvent = (ApplicationCreatedEvent) event;
+                ClusterIdCache.getInstance().invalidate(
+                        applicationCreatedEvent.getApplication().getUniqueIdentifier());
+            }
+        });
+
+        addEventListener(new ApplicationDeletedEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                ApplicationDeletedEvent applicationDeletedEvent = (ApplicationDeletedEvent) event;
+                ClusterIdCache.getInstance().invalidate(applicationDeletedEvent.getAppId());
+            }
+        });
     }
 }
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.manager.messaging.receiver;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.manager.messaging.publisher.TenantChangeLog;
+import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.event.initializer.CompleteTenantRequestEvent;
+import org.apache.stratos.messaging.listener.initializer.CompleteTenantRequestEventListener;
+import org.apache.stratos.messaging.message.receiver.initializer.InitializerEventReceiver;
+
+/**
+ * Stratos manager initializer event receiver, answers tenant snapshot requests of subscribers
+ * which are not in sync with the tenant change log.
+ */
+public class StratosManagerInitializerEventReceiver extends InitializerEventReceiver {
+
+    private static final Log log = LogFactory.getLog(StratosManagerInitializerEventReceiver.class);
+
+    public StratosManagerInitializerEventReceiver() {
+        addEventListeners();
+    }
+
+    @Override
+    public void execute() {
+        super.execute();
+
+        if (log.isInfoEnabled()) {
+            log.info("Stratos manager initializer event receiver thread started");
+        }
+    }
+
+    private void addEventListeners() {
+        addEventListener(new CompleteTenantRequestEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                CompleteTenantRequestEvent completeTenantRequestEvent = (CompleteTenantRequestEvent) event;
+                try {
+                    TenantChangeLog.getInstance().publishSnapshot(completeTenantRequestEvent.getLastSequenceNumber(),
+                            completeTenantRequestEvent.getRequesterId());
+                } catch (Exception e) {
+                    log.error("Could not publish tenant snapshot", e);
+                }
+            }
+        });
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.stratos.manager.services.impl;
 
+import org.apache.stratos.common.concurrent.locks.LockBatch;
 import org.apache.stratos.manager.components.ApplicationSignUpHandler;
 import org.apache.stratos.manager.components.ArtifactDistributionCoordinator;
 import org.apache.stratos.manager.components.DomainMappingHandler;
@@ -30,8 +31,6 @@ import org.apache.stratos.manager.services.StratosManagerService;
 import org.apache.stratos.messaging.domain.application.signup.ApplicationSignUp;
 import org.apache.stratos.messaging.domain.application.signup.DomainMapping;
 
-import java.util.concurrent.locks.Lock;
-
 /**
  * Stratos manager service implementation.
  */
@@ -94,56 +93,56 @@ public class StratosManagerServiceImpl implements StratosManagerService {
 
     @Override
     public void addUsedCartridgesInCartridgeGroups(String cartridgeGroupName, String[] cartridgeNames) {
-        Lock lock = null;
+        LockBatch lockBatch = null;
         try {
-            lock = StratosManagerContext.getInstance().acquireCartridgesCartridgeGroupsWriteLock();
+            lockBatch = StratosManagerContext.getInstance().acquireWriteLocks();
             StratosManagerContext.getInstance().addUsedCartridgesInCartridgeGroups(cartridgeGroupName, cartridgeNames);
             StratosManagerContext.getInstance().persist();
         } finally {
-            if (lock != null) {
-                StratosManagerContext.getInstance().releaseWriteLock(lock);
+            if (lockBatch != null) {
+                StratosManagerContext.getInstance().releaseWriteLocks(lockBatch);
             }
         }
     }
 
     @Override
     public void removeUsedCartridgesInCartridgeGroups(String cartridgeGroupName, String[] cartridgeNames) {
-        Lock lock = null;
+        LockBatch lockBatch = null;
         try {
-            lock = StratosManagerContext.getInstance().acquireCartridgesCartridgeGroupsWriteLock();
+            lockBatch = StratosManagerContext.getInstance().acquireWriteLocks();
             StratosManagerContext.getInstance().removeUsedCartridgesInCartridgeGroups(cartridgeGroupName, cartridgeNames);
             StratosManagerContext.getInstance().persist();
         } finally {
-            if (lock != null) {
-                StratosManagerContext.getInstance().releaseWriteLock(lock);
+            if (lockBatch != null) {
+                StratosManagerContext.getInstance().releaseWriteLocks(lockBatch);
             }
         }
     }
 
     @Override
     public void addUsedCartridgesInApplications(String applicationName, String[] cartridgeNames) {
-        Lock lock = null;
+        LockBatch lockBatch = null;
         try {
-            lock = StratosManagerContext.getInstance().acquireCartridgesApplicationsWriteLock();
+            lockBatch = StratosManagerContext.getInstance().acquireWriteLocks();
             StratosManagerContext.getInstance().addUsedCartridgesInApplications(applicationName, cartridgeNames);
             StratosManagerContext.getInstance().persist();
         } finally {
-            if (lock != null) {
-                StratosManagerContext.getInstance().releaseWriteLock(lock);
+            if (lockBatch != null) {
+                StratosManagerContext.getInstance().releaseWriteLocks(lockBatch);
             }
         }
     }
 
     @Override
     public void removeUsedCartridgesInApplications(String applicationName, String[] cartridgeNames) {
-        Lock lock = null;
+        LockBatch lockBatch = null;
         try {
-            lock = StratosManagerContext.getInstance().acquireCartridgesApplicationsWriteLock();
+            lockBatch = StratosManagerContext.getInstance().acquireWriteLocks();
             StratosManagerContext.getInstance().removeUsedCartridgesInApplications(applicationName, cartridgeNames);
             StratosManagerContext.getInstance().persist();
         } finally {
-            if (lock != null) {
-                StratosManagerContext.getInstance().releaseWriteLock(lock);
+            if (lockBatch != null) {
+                StratosManagerContext.getInstance().releaseWriteLocks(lockBatch);
             }
         }
     }
@@ -159,56 +158,56 @@ public class StratosManagerServiceImpl implements StratosManagerService {
 
     @Override
     public void addUsedCartridgeGroupsInCartridgeSubGroups(String cartridgeSubGroupName, String[] cartridgeGroupNames) {
-        Lock lock = null;
+        LockBatch lockBatch = null;
         try {
-            lock = StratosManagerContext.getInstance().acquireCartridgeGroupsCartridgeSubGroupsWriteLock();
+            lockBatch = StratosManagerContext.getInstance().acquireWriteLocks();
             StratosManagerContext.getInstance().addUsedCartridgeGroupsInCartridgeSubGroups(cartridgeSubGroupName, cartridgeGroupNames);
             StratosManagerContext.getInstance().persist();
         } finally {
-            if (lock != null) {
-                StratosManagerContext.getInstance().releaseWriteLock(lock);
+            if (lockBatch != null) {
+                StratosManagerContext.getInstance().releaseWriteLocks(lockBatch);
             }
         }
     }
 
     @Override
     public void removeUsedCartridgeGroupsInCartridgeSubGroups(String cartridgeSubGroupName, String[] cartridgeGroupNames) {
-        Lock lock = null;
+        LockBatch lockBatch = null;
         try {
-            lock = StratosManagerContext.getInstance().acquireCartridgeGroupsCartridgeSubGroupsWriteLock();
+            lockBatch = StratosManagerContext.getInstance().acquireWriteLocks();
             StratosManagerContext.getInstance().removeUsedCartridgeGroupsInCartridgeSubGroups(cartridgeSubGroupName, cartridgeGroupNames);
             StratosManagerContext.getInstance().persist();
         } finally {
-            if (lock != null) {
-                StratosManagerContext.getInstance().releaseWriteLock(lock);
+            if (lockBatch != null) {
+                StratosManagerContext.getInstance().releaseWriteLocks(lockBatch);
             }
         }
     }
 
     @Override
     public void addUsedCartridgeGroupsInApplications(String applicationName, String[] cartridgeGroupNames) {
-        Lock lock = null;
+        LockBatch lockBatch = null;
         try {
-            lock = StratosManagerContext.getInstance().acquireCartridgeGroupsApplicationsWriteLock();
+            lockBatch = StratosManagerContext.getInstance().acquireWriteLocks();
             StratosManagerContext.getInstance().addUsedCartridgeGroupsInApplications(applicationName, cartridgeGroupNames);
             StratosManagerContext.getInstance().persist();
         } finally {
-            if (lock != null) {
-                StratosManagerContext.getInstance().releaseWriteLock(lock);
+            if (lockBatch != null) {
+                StratosManagerContext.getInstance().releaseWriteLocks(lockBatch);
             }
         }
     }
 
     @Override
     public void removeUsedCartridgeGroupsInApplications(String applicationName, String[] cartridgeGroupNames) {
-        Lock lock = null;
+        LockBatch lockBatch = null;
         try {
-            lock = StratosManagerContext.getInstance().acquireCartridgeGroupsApplicationsWriteLock();
+            lockBatch = StratosManagerContext.getInstance().acquireWriteLocks();
             StratosManagerContext.getInstance().removeUsedCartridgeGroupsInApplications(applicationName, cartridgeGroupNames);
             StratosManagerContext.getInstance().persist();
         } finally {
-            if (lock != null) {
-                StratosManagerContext.getInstance().releaseWriteLock(lock);
+            if (lockBatch != null) {
+                StratosManagerContext.getInstance().releaseWriteLocks(lockBatch);
             }
         }
     }
@@ -29,4 +29,5 @@ public class StratosManagerConstants {
     public static final String TENANT_SYNC_TASK_NAME = "TENANT_SYNC_TASK";
     public static final String APPLICATION_SIGNUP_SYNC_TASK_TYPE = "APPLICATION_SIGNUP_SYNC_TASK_TYPE";
     public static final String APPLICATION_SIGNUP_SYNC_TASK_NAME = "APPLICATION_SIGNUP_SYNC_TASK";
+    public static final String ARTIFACT_UPDATED_EVENT_BATCH_ENABLED = "artifact.updated.event.batch.enabled";
 }
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.manager.components;
+
+import org.apache.stratos.messaging.domain.application.signup.ApplicationSignUp;
+import org.apache.stratos.messaging.domain.application.signup.ArtifactRepository;
+import org.apache.stratos.messaging.domain.application.signup.DomainMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.stratos.manager.components.InMemoryApplicationSignUpStore.createApplicationSignUp;
+
+/**
+ * Compares looking up application signups by scanning the registry, as the application signup
+ * and domain mapping handlers did, with the indexes of {@link ApplicationSignUpStore}. The
+ * registry holds 10,000 application signups of 100 applications, each with its own artifact
+ * repository and domain name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApplicationSignUpStoreBenchmark {
+
+    private static final int SIGNUP_COUNT = 10000;
+    private static final int APPLICATION_COUNT = 100;
+    private static final int TENANT_ID = 4242;
+
+    private InMemoryApplicationSignUpStore store;
+    private String applicationId;
+    private String repoUrl;
+    private String domainName;
+
+    @Setup
+    public void setUp() throws Exception {
+        store = new InMemoryApplicationSignUpStore();
+        for (int tenantId = 1; tenantId <= SIGNUP_COUNT; tenantId++) {
+            store.addResource(createApplicationSignUp(getApplicationId(tenantId), tenantId, getRepoUrl(tenantId),
+                    getDomainName(tenantId)));
+        }
+        store.load();
+        applicationId = getApplicationId(TENANT_ID);
+        repoUrl = getRepoUrl(TENANT_ID);
+        domainName = getDomainName(TENANT_ID);
+    }
+
+    @Benchmark
+    public List<ApplicationSignUp> registryScanByApplication() throws Exception {
+        List<ApplicationSignUp> result = new ArrayList<ApplicationSignUp>();
+        for (String resourcePath : store.readResourcePaths()) {
+            ApplicationSignUp applicationSignUp = store.readApplicationSignUp(resourcePath);
+            if (applicationId.equals(applicationSignUp.getApplicationId())) {
+                result.add(applicationSignUp);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ApplicationSignUp> indexedByApplication() throws Exception {
+        return store.getByApplicationId(applicationId);
+    }
+
+    @Benchmark
+    public List<ApplicationSignUp> registryScanByRepository() throws Exception {
+        List<ApplicationSignUp> result = new ArrayList<ApplicationSignUp>();
+        for (String resourcePath : store.readResourcePaths()) {
+            ApplicationSignUp applicationSignUp = store.readApplicationSignUp(resourcePath);
+            for (ArtifactRepository artifactRepository : applicationSignUp.getArtifactRepositories()) {
+                if (repoUrl.equals(artifactRepository.getRepoUrl())) {
+                    result.add(applicationSignUp);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ApplicationSignUp> indexedByRepository() throws Exception {
+        return store.getByRepoUrl(repoUrl);
+    }
+
+    @Benchmark
+    public boolean registryScanDomainNameExist() throws Exception {
+        for (String resourcePath : store.readResourcePaths()) {
+            ApplicationSignUp applicationSignUp = store.readApplicationSignUp(resourcePath);
+            for (DomainMapping domainMapping : applicationSignUp.getDomainMappings()) {
+                if (domainName.equals(domainMapping.getDomainName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean indexedDomainNameExist() throws Exception {
+        return store.domainNameExist(domainName);
+    }
+
+    private static String getApplicationId(int tenantId) {
+        return "app-" + (tenantId % APPLICATION_COUNT);
+    }
+
+    private static String getRepoUrl(int tenantId) {
+        return "https://git.example.com/tenant-" + tenantId + "/" + getApplicationId(tenantId) + ".git";
+    }
+
+    private static String getDomainName(int tenantId) {
+        return getApplicationId(tenantId) + ".tenant-" + tenantId + ".example.com";
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.manager.components;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.apache.stratos.common.clustering.impl.HazelcastDistributedObjectProvider;
+import org.apache.stratos.messaging.domain.application.signup.ApplicationSignUp;
+import org.apache.stratos.messaging.domain.application.signup.ArtifactRepository;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.apache.stratos.manager.components.InMemoryApplicationSignUpStore.createApplicationSignUp;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link ApplicationSignUpStore} of two stratos manager members sharing their indexes
+ * through a two member hazelcast cluster running in this jvm.
+ */
+public class ApplicationSignUpStoreClusterTest {
+
+    private static HazelcastInstance hazelcastInstance1;
+    private static HazelcastInstance hazelcastInstance2;
+
+    @BeforeClass
+    public static void setUpClass() throws InterruptedException {
+        hazelcastInstance1 = Hazelcast.newHazelcastInstance(createConfig());
+        hazelcastInstance2 = Hazelcast.newHazelcastInstance(createConfig());
+        for (int i = 0; (i < 100) && (hazelcastInstance2.getCluster().getMembers().size() < 2); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(2, hazelcastInstance2.getCluster().getMembers().size());
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        hazelcastInstance2.getLifecycleService().shutdown();
+        hazelcastInstance1.getLifecycleService().shutdown();
+    }
+
+    private static Config createConfig() {
+        Config config = new Config();
+        config.getGroupConfig().setName("application-signup-store-test");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getTcpIpConfig().addMember("127.0.0.1").setEnabled(true);
+        return config;
+    }
+
+    @Test
+    public void testMembersShareIndexes() throws Exception {
+        InMemoryApplicationSignUpStore registry = new InMemoryApplicationSignUpStore();
+        for (int tenantId = 1; tenantId <= 4; tenantId++) {
+            String applicationId = (tenantId % 2 == 0) ? "app-even" : "app-odd";
+            registry.addResource(createApplicationSignUp(applicationId, tenantId,
+                    "https://git/repo-" + applicationId, "tenant" + tenantId + ".example.com"));
+        }
+        InMemoryApplicationSignUpStore store1 = new InMemoryApplicationSignUpStore(
+                new HazelcastDistributedObjectProvider(hazelcastInstance1), registry);
+        InMemoryApplicationSignUpStore store2 = new InMemoryApplicationSignUpStore(
+                new HazelcastDistributedObjectProvider(hazelcastInstance2), registry);
+
+        // The first member loads the indexes, the second member finds them loaded
+        store1.load();
+        store2.load();
+        assertEquals(5, store1.getReadCount());
+        assertEquals(0, store2.getReadCount());
+        assertEquals(2, store2.getByApplicationId("app-even").size());
+
+        // Changes made through one member are visible to the other without reading the registry
+        store1.put(createApplicationSignUp("app-new", 5, "https://git/repo-app-new", "tenant5.example.com"));
+        assertTrue(store2.domainNameExist("tenant5.example.com"));
+        assertEquals(1, store2.getByRepoUrl("https://git/repo-app-new").size());
+        assertEquals(5, store2.get("app-new", 5).getTenantId());
+        assertEquals(5, store2.getAll().size());
+
+        ApplicationSignUp applicationSignUp = store2.get("app-odd", 3);
+        ArtifactRepository artifactRepository = applicationSignUp.getArtifactRepositories()[0];
+        artifactRepository.setRepoUrl("https://git/repo-moved");
+        store2.put(applicationSignUp);
+        assertEquals(1, store1.getByRepoUrl("https://git/repo-app-odd").size());
+        assertEquals(1, store1.getByRepoUrl("https://git/repo-moved").size());
+
+        store2.remove("app-new", 5);
+        assertNull(store1.get("app-new", 5));
+        assertFalse(store1.domainNameExist("tenant5.example.com"));
+        assertEquals(4, registry.getResourceCount());
+        assertEquals(0, store2.getReadCount());
+    }
+}
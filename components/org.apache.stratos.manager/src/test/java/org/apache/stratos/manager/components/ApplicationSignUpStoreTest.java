@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.manager.components;
+
+import org.apache.stratos.messaging.domain.application.signup.ApplicationSignUp;
+import org.apache.stratos.messaging.domain.application.signup.ArtifactRepository;
+import org.apache.stratos.messaging.domain.application.signup.DomainMapping;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+
+import static org.apache.stratos.manager.components.InMemoryApplicationSignUpStore.createApplicationSignUp;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the indexes of {@link ApplicationSignUpStore}.
+ */
+public class ApplicationSignUpStoreTest {
+
+    private InMemoryApplicationSignUpStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        store = new InMemoryApplicationSignUpStore();
+        for (int tenantId = 1; tenantId <= 4; tenantId++) {
+            String applicationId = (tenantId % 2 == 0) ? "app-even" : "app-odd";
+            store.addResource(createApplicationSignUp(applicationId, tenantId, "https://git/repo-" + applicationId,
+                    "tenant" + tenantId + ".example.com"));
+        }
+    }
+
+    @Test
+    public void testRegistryIsReadOnce() throws Exception {
+        assertEquals(2, store.getByApplicationId("app-even").size());
+        assertEquals(2, store.getByRepoUrl("https://git/repo-app-odd").size());
+        assertTrue(store.domainNameExist("tenant3.example.com"));
+        assertFalse(store.domainNameExist("tenant5.example.com"));
+        assertEquals(4, store.getAll().size());
+        assertEquals(3, store.get("app-odd", 3).getTenantId());
+
+        // One read of the collection and one read per application signup
+        assertEquals(5, store.getReadCount());
+    }
+
+    @Test
+    public void testIndexesFollowUpdates() throws Exception {
+        ApplicationSignUp applicationSignUp = store.get("app-even", 2);
+        ArtifactRepository artifactRepository = new ArtifactRepository();
+        artifactRepository.setRepoUrl("https://git/repo-tenant-2");
+        applicationSignUp.setArtifactRepositories(new ArtifactRepository[]{artifactRepository});
+        DomainMapping domainMapping = new DomainMapping();
+        domainMapping.setDomainName("www.tenant2.com");
+        applicationSignUp.setDomainMappings(new DomainMapping[]{domainMapping});
+        store.put(applicationSignUp);
+
+        assertEquals(1, store.getByRepoUrl("https://git/repo-app-even").size());
+        assertEquals(1, store.getByRepoUrl("https://git/repo-tenant-2").size());
+        assertFalse(store.domainNameExist("tenant2.example.com"));
+        assertTrue(store.domainNameExist("www.tenant2.com"));
+        assertEquals(2, store.getByApplicationId("app-even").size());
+        assertEquals(4, store.getResourceCount());
+    }
+
+    @Test
+    public void testApplicationSignUpsAreCopied() throws Exception {
+        // Modifying a returned application signup does not change the store
+        ApplicationSignUp applicationSignUp = store.get("app-even", 2);
+        applicationSignUp.getDomainMappings()[0].setDomainName("www.tenant2.com");
+        applicationSignUp.setDomainMappings(new DomainMapping[0]);
+        assertEquals("tenant2.example.com", store.get("app-even", 2).getDomainMappings()[0].getDomainName());
+        assertTrue(store.domainNameExist("tenant2.example.com"));
+        assertFalse(store.domainNameExist("www.tenant2.com"));
+
+        // Modifying a stored application signup does not change the store
+        store.put(applicationSignUp);
+        applicationSignUp.setDomainMappings(store.get("app-odd", 1).getDomainMappings());
+        assertEquals(0, store.get("app-even", 2).getDomainMappings().length);
+        assertFalse(store.domainNameExist("tenant2.example.com"));
+    }
+
+    @Test
+    public void testFailedPutDoesNotUpdateIndexes() throws Exception {
+        InMemoryApplicationSignUpStore failingStore = new InMemoryApplicationSignUpStore() {
+            @Override
+            protected void persistApplicationSignUp(String resourcePath, ApplicationSignUp applicationSignUp)
+                    throws RegistryException {
+                throw new RegistryException("Registry is not available");
+            }
+        };
+        ApplicationSignUp applicationSignUp = createApplicationSignUp("app-new", 5, "https://git/repo-app-new",
+                "tenant5.example.com");
+        try {
+            failingStore.put(applicationSignUp);
+            fail("Application signup was persisted");
+        } catch (RegistryException expected) {
+        }
+        assertNull(failingStore.get("app-new", 5));
+        assertFalse(failingStore.domainNameExist("tenant5.example.com"));
+    }
+
+    @Test
+    public void testPutAndRemove() throws Exception {
+        store.put(createApplicationSignUp("app-new", 5, "https://git/repo-app-new", "tenant5.example.com"));
+        assertEquals(5, store.getResourceCount());
+        assertTrue(store.domainNameExist("tenant5.example.com"));
+        assertEquals(1, store.getByApplicationId("app-new").size());
+
+        store.remove("app-new", 5);
+        store.remove("app-odd", 1);
+        assertEquals(3, store.getResourceCount());
+        assertNull(store.get("app-new", 5));
+        assertFalse(store.domainNameExist("tenant5.example.com"));
+        assertFalse(store.domainNameExist("tenant1.example.com"));
+        assertTrue(store.getByApplicationId("app-new").isEmpty());
+        assertEquals(1, store.getByRepoUrl("https://git/repo-app-odd").size());
+    }
+}
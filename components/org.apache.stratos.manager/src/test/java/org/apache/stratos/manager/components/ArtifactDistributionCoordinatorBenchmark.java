@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.manager.components;
+
+import org.apache.activemq.broker.BrokerService;
+import org.apache.commons.lang.StringUtils;
+import org.apache.stratos.manager.messaging.publisher.InstanceNotificationPublisher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.stratos.manager.components.InMemoryApplicationSignUpStore.createApplicationSignUp;
+
+/**
+ * Measures notifying a push to an artifact repository shared by 5,000 application signups of 10
+ * applications, publishing to an embedded message broker. The autoscaler lookup of cluster ids
+ * is simulated with a round trip of one millisecond. Compares publishing one event per tenant
+ * with a cluster id lookup per tenant, as the coordinator did before cluster ids were cached,
+ * and with the cluster id cache against publishing one multi-tenant event per cluster.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ArtifactDistributionCoordinatorBenchmark {
+
+    private static final int SIGNUP_COUNT = 5000;
+    private static final int APPLICATION_COUNT = 10;
+    private static final long AUTOSCALER_ROUND_TRIP = 1;
+    private static final String REPO_URL = "https://git.example.com/shared/php.git";
+
+    private BrokerService broker;
+    private LatencyClusterIdCache clusterIdCache;
+    private LatencyClusterIdCache uncachedClusterIdCache;
+    private InstanceNotificationPublisher publisher;
+    private ArtifactDistributionCoordinator uncachedCoordinator;
+    private ArtifactDistributionCoordinator perTenantCoordinator;
+    private ArtifactDistributionCoordinator batchedCoordinator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Event publishers read the broker url from jndi.properties of the test resources
+        String resourcesPath = StringUtils.removeEnd(getClass().getResource("/").getPath(), File.separator);
+        System.setProperty("jndi.properties.dir", resourcesPath);
+        broker = new BrokerService();
+        broker.setBrokerName("artifactDistributionBenchmarkBroker");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.addConnector("tcp://localhost:61618");
+        broker.start();
+
+        InMemoryApplicationSignUpStore store = new InMemoryApplicationSignUpStore();
+        for (int tenantId = 1; tenantId <= SIGNUP_COUNT; tenantId++) {
+            store.addResource(createApplicationSignUp("app-" + (tenantId % APPLICATION_COUNT), tenantId, REPO_URL,
+                    "tenant-" + tenantId + ".example.com"));
+        }
+        ApplicationSignUpHandler applicationSignUpHandler = new ApplicationSignUpHandler(store);
+
+        clusterIdCache = new LatencyClusterIdCache(true);
+        uncachedClusterIdCache = new LatencyClusterIdCache(false);
+        publisher = new InstanceNotificationPublisher();
+        uncachedCoordinator = new ArtifactDistributionCoordinator(applicationSignUpHandler, publisher,
+                uncachedClusterIdCache, false);
+        perTenantCoordinator = new ArtifactDistributionCoordinator(applicationSignUpHandler, publisher,
+                clusterIdCache, false);
+        batchedCoordinator = new ArtifactDistributionCoordinator(applicationSignUpHandler, publisher,
+                clusterIdCache, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        broker.stop();
+    }
+
+    @Benchmark
+    public void perTenantUncached() throws Exception {
+        uncachedCoordinator.notifyArtifactUpdatedEventForRepository(REPO_URL);
+    }
+
+    @Benchmark
+    public void perTenantCached() throws Exception {
+        perTenantCoordinator.notifyArtifactUpdatedEventForRepository(REPO_URL);
+    }
+
+    @Benchmark
+    public void batchedCached() throws Exception {
+        batchedCoordinator.notifyArtifactUpdatedEventForRepository(REPO_URL);
+    }
+
+    /**
+     * Cluster id cache simulating the round trip of the autoscaler service call on a cache miss,
+     * a non caching instance looks up every cluster id.
+     */
+    private static class LatencyClusterIdCache extends ClusterIdCache {
+
+        private final boolean caching;
+
+        private LatencyClusterIdCache(boolean caching) {
+            this.caching = caching;
+        }
+
+        @Override
+        public String getClusterId(String applicationId, String alias) {
+            return caching ? super.getClusterId(applicationId, alias) : findClusterId(applicationId, alias);
+        }
+
+        @Override
+        protected String findClusterId(String applicationId, String alias) {
+            try {
+                Thread.sleep(AUTOSCALER_ROUND_TRIP);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return alias + "-cluster";
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.manager.components;
+
+import org.apache.stratos.manager.messaging.publisher.InstanceNotificationPublisher;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.stratos.manager.components.InMemoryApplicationSignUpStore.createApplicationSignUp;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests grouping of artifact updated events and caching of cluster ids in
+ * {@link ArtifactDistributionCoordinator}.
+ */
+public class ArtifactDistributionCoordinatorTest {
+
+    private static final String REPO_URL = "https://git.example.com/shared/php.git";
+
+    private InMemoryApplicationSignUpStore store;
+    private CountingClusterIdCache clusterIdCache;
+    private RecordingPublisher publisher;
+
+    @Before
+    public void setUp() throws Exception {
+        store = new InMemoryApplicationSignUpStore();
+        // Tenants 1 to 3 use the shared repository in app-1, tenant 4 in app-2
+        for (int tenantId = 1; tenantId <= 3; tenantId++) {
+            store.addResource(createApplicationSignUp("app-1", tenantId, REPO_URL, "tenant-" + tenantId + ".com"));
+        }
+        store.addResource(createApplicationSignUp("app-2", 4, REPO_URL, "tenant-4.com"));
+        store.addResource(createApplicationSignUp("app-2", 5, "https://git.example.com/other.git", "tenant-5.com"));
+
+        clusterIdCache = new CountingClusterIdCache();
+        publisher = new RecordingPublisher();
+    }
+
+    @Test
+    public void testEventsAreBatchedPerCluster() throws Exception {
+        createCoordinator(true).notifyArtifactUpdatedEventForRepository(REPO_URL);
+
+        assertEquals(Arrays.asList("app-1-php-cluster:[1, 2, 3]"), publisher.multiTenantEvents);
+        assertEquals(Arrays.asList("app-2-php-cluster:4"), publisher.events);
+    }
+
+    @Test
+    public void testEventsArePublishedPerTenantWhenBatchingIsDisabled() throws Exception {
+        createCoordinator(false).notifyArtifactUpdatedEventForRepository(REPO_URL);
+
+        assertEquals(0, publisher.multiTenantEvents.size());
+        Collections.sort(publisher.events);
+        assertEquals(Arrays.asList("app-1-php-cluster:1", "app-1-php-cluster:2", "app-1-php-cluster:3",
+                "app-2-php-cluster:4"), publisher.events);
+    }
+
+    @Test
+    public void testClusterIdsAreCached() throws Exception {
+        ArtifactDistributionCoordinator coordinator = createCoordinator(true);
+        coordinator.notifyArtifactUpdatedEventForRepository(REPO_URL);
+        coordinator.notifyArtifactUpdatedEventForRepository(REPO_URL);
+        coordinator.notifyArtifactUpdatedEventForSignUp("app-1", 1);
+        assertEquals(2, clusterIdCache.lookupCount.get());
+
+        clusterIdCache.invalidate("app-1");
+        coordinator.notifyArtifactUpdatedEventForRepository(REPO_URL);
+        assertEquals(3, clusterIdCache.lookupCount.get());
+    }
+
+    private ArtifactDistributionCoordinator createCoordinator(boolean batchEnabled) {
+        return new ArtifactDistributionCoordinator(new ApplicationSignUpHandler(store), publisher, clusterIdCache,
+                batchEnabled);
+    }
+
+    /**
+     * Cluster id cache which resolves cluster ids locally and counts the autoscaler lookups.
+     */
+    static class CountingClusterIdCache extends ClusterIdCache {
+
+        final AtomicInteger lookupCount = new AtomicInteger();
+
+        @Override
+        protected String findClusterId(String applicationId, String alias) {
+            lookupCount.incrementAndGet();
+            return alias + "-cluster";
+        }
+    }
+
+    /**
+     * Publisher recording the events instead of sending them to the message broker.
+     */
+    private static class RecordingPublisher extends InstanceNotificationPublisher {
+
+        private final List<String> events = new ArrayList<String>();
+        private final List<String> multiTenantEvents = new ArrayList<String>();
+
+        @Override
+        public void publishArtifactUpdatedEvent(String clusterId, String tenantId, String repoUrl,
+                                                String repoUsername, String repoPassword, boolean isCommitEnabled) {
+            events.add(clusterId + ":" + tenantId);
+        }
+
+        @Override
+        public void publishMultiTenantArtifactUpdatedEvent(String clusterId, List<String> tenantIds, String repoUrl,
+                                                           String repoUsername, String repoPassword,
+                                                           boolean isCommitEnabled) {
+            // Application signups are not kept in order, hence the tenant ids are sorted for comparison
+            List<String> sortedTenantIds = new ArrayList<String>(tenantIds);
+            Collections.sort(sortedTenantIds);
+            multiTenantEvents.add(clusterId + ":" + sortedTenantIds);
+        }
+    }
+}
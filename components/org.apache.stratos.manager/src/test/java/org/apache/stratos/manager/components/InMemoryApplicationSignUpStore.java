@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.manager.components;
+
+import org.apache.stratos.common.clustering.impl.HazelcastDistributedObjectProvider;
+import org.apache.stratos.common.services.DistributedObjectProvider;
+import org.apache.stratos.messaging.domain.application.signup.ApplicationSignUp;
+import org.apache.stratos.messaging.domain.application.signup.ArtifactRepository;
+import org.apache.stratos.messaging.domain.application.signup.DomainMapping;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Application signup store backed by an in-memory registry. Resources are kept serialized and
+ * every read deserializes the resource as the registry manager does.
+ */
+public class InMemoryApplicationSignUpStore extends ApplicationSignUpStore {
+
+    private static final String APPLICATION_SIGNUP_RESOURCE_PATH = "/stratos.manager/application.signups/";
+
+    private final Map<String, byte[]> resources;
+    private final AtomicInteger readCount = new AtomicInteger();
+
+    /**
+     * Create a store with its own registry, indexes are kept in local maps.
+     */
+    public InMemoryApplicationSignUpStore() {
+        super(new HazelcastDistributedObjectProvider());
+        resources = new TreeMap<String, byte[]>();
+    }
+
+    /**
+     * Create a store of another cluster member, the store shares the registry of the given store
+     * and keeps its indexes in the maps of the given distributed object provider.
+     */
+    public InMemoryApplicationSignUpStore(DistributedObjectProvider distributedObjectProvider,
+                                          InMemoryApplicationSignUpStore registry) {
+        super(distributedObjectProvider);
+        resources = registry.resources;
+    }
+
+    /**
+     * Create an application signup with an artifact repository and a domain mapping.
+     */
+    public static ApplicationSignUp createApplicationSignUp(String applicationId, int tenantId, String repoUrl,
+                                                            String domainName) {
+        ApplicationSignUp applicationSignUp = new ApplicationSignUp();
+        applicationSignUp.setApplicationId(applicationId);
+        applicationSignUp.setTenantId(tenantId);
+        applicationSignUp.setClusterIds(new String[]{applicationId + "-php"});
+
+        ArtifactRepository artifactRepository = new ArtifactRepository();
+        artifactRepository.setCartridgeType("php");
+        artifactRepository.setAlias(applicationId + "-php");
+        artifactRepository.setRepoUrl(repoUrl);
+        applicationSignUp.setArtifactRepositories(new ArtifactRepository[]{artifactRepository});
+
+        DomainMapping domainMapping = new DomainMapping();
+        domainMapping.setApplicationId(applicationId);
+        domainMapping.setTenantId(tenantId);
+        domainMapping.setDomainName(domainName);
+        applicationSignUp.setDomainMappings(new DomainMapping[]{domainMapping});
+        return applicationSignUp;
+    }
+
+    /**
+     * Add an application signup to the registry without going through the store.
+     */
+    public void addResource(ApplicationSignUp applicationSignUp) throws RegistryException {
+        persistApplicationSignUp(APPLICATION_SIGNUP_RESOURCE_PATH + applicationSignUp.getApplicationId() +
+                "-tenant-" + applicationSignUp.getTenantId(), applicationSignUp);
+    }
+
+    public int getResourceCount() {
+        synchronized (resources) {
+            return resources.size();
+        }
+    }
+
+    /**
+     * @return number of registry reads, reading the application signup collection counts as one read
+     */
+    public int getReadCount() {
+        return readCount.get();
+    }
+
+    public void resetReadCount() {
+        readCount.set(0);
+    }
+
+    @Override
+    protected String[] readResourcePaths() {
+        readCount.incrementAndGet();
+        synchronized (resources) {
+            return resources.keySet().toArray(new String[resources.size()]);
+        }
+    }
+
+    @Override
+    protected ApplicationSignUp readApplicationSignUp(String resourcePath) throws RegistryException {
+        readCount.incrementAndGet();
+        byte[] content;
+        synchronized (resources) {
+            content = resources.get(resourcePath);
+        }
+        if (content == null) {
+            return null;
+        }
+        try {
+            ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(content));
+            try {
+                return (ApplicationSignUp) in.readObject();
+            } finally {
+                in.close();
+            }
+        } catch (Exception e) {
+            throw new RegistryException("Could not read resource: " + resourcePath, e);
+        }
+    }
+
+    @Override
+    protected void persistApplicationSignUp(String resourcePath, ApplicationSignUp applicationSignUp)
+            throws RegistryException {
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bos);
+            out.writeObject(applicationSignUp);
+            out.close();
+            synchronized (resources) {
+                resources.put(resourcePath, bos.toByteArray());
+            }
+        } catch (IOException e) {
+            throw new RegistryException("Could not persist resource: " + resourcePath, e);
+        }
+    }
+
+    @Override
+    protected void removeApplicationSignUp(String resourcePath) {
+        synchronized (resources) {
+            resources.remove(resourcePath);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.manager.messaging.publisher;
+
+import org.apache.stratos.messaging.domain.tenant.Tenant;
+import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.event.tenant.CompleteTenantEvent;
+import org.apache.stratos.messaging.event.tenant.TenantCreatedEvent;
+import org.apache.stratos.messaging.event.tenant.TenantEvent;
+import org.apache.stratos.messaging.event.tenant.TenantRemovedEvent;
+import org.apache.stratos.messaging.event.tenant.TenantSequenceEvent;
+import org.apache.stratos.messaging.util.MessagingUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests sequencing and snapshot paging of {@link TenantChangeLog}.
+ */
+public class TenantChangeLogTest {
+
+    private List<Tenant> tenants;
+    private List<Event> events;
+    private List<String> topics;
+    private TenantChangeLog changeLog;
+
+    @Before
+    public void setUp() {
+        tenants = new ArrayList<Tenant>();
+        for (int tenantId = 1; tenantId <= 2500; tenantId++) {
+            tenants.add(new Tenant(tenantId, "tenant-" + tenantId + ".com"));
+        }
+        events = new ArrayList<Event>();
+        topics = new ArrayList<String>();
+        changeLog = createChangeLog(60000);
+    }
+
+    @Test
+    public void testEventsAreSequenced() {
+        changeLog.tenantCreated(1, "tenant-1.com");
+        changeLog.tenantUpdated(1, "tenant-1.org");
+        changeLog.tenantRemoved(1);
+        changeLog.publishSequence();
+
+        assertEquals(4, events.size());
+        assertTrue(events.get(0) instanceof TenantCreatedEvent);
+        assertTrue(events.get(2) instanceof TenantRemovedEvent);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(101 + i, ((TenantEvent) events.get(i)).getSequenceNumber());
+        }
+        assertTrue(events.get(3) instanceof TenantSequenceEvent);
+        assertEquals(103, ((TenantEvent) events.get(3)).getSequenceNumber());
+        assertEquals(103, changeLog.getSequenceNumber());
+    }
+
+    @Test
+    public void testSnapshotIsPaged() throws Exception {
+        changeLog.tenantCreated(2501, "tenant-2501.com");
+        events.clear();
+        changeLog.publishSnapshot(0, null);
+
+        assertEquals(3, events.size());
+        int tenantCount = 0;
+        for (int pageIndex = 0; pageIndex < events.size(); pageIndex++) {
+            CompleteTenantEvent event = (CompleteTenantEvent) events.get(pageIndex);
+            assertEquals(pageIndex, event.getPageIndex());
+            assertEquals(3, event.getPageCount());
+            assertEquals(101, event.getSequenceNumber());
+            tenantCount += event.getTenants().size();
+        }
+        assertEquals(1000, ((CompleteTenantEvent) events.get(0)).getTenants().size());
+        assertTrue(((CompleteTenantEvent) events.get(2)).isLastPage());
+        assertEquals(2500, tenantCount);
+    }
+
+    @Test
+    public void testSnapshotRequestsAreCoalesced() throws Exception {
+        changeLog.publishSnapshot(90, null);
+        changeLog.publishSnapshot(90, null);
+        assertEquals(3, events.size());
+
+        // A tenant event invalidates the published snapshot
+        changeLog.tenantRemoved(1);
+        changeLog.publishSnapshot(90, null);
+        assertEquals(7, events.size());
+    }
+
+    @Test
+    public void testRequestsOfUninitializedSubscribersAreAnswered() throws Exception {
+        changeLog.publishSnapshot(90, null);
+        changeLog.publishSnapshot(0, null);
+        changeLog.publishSnapshot(0, null);
+        assertEquals(9, events.size());
+    }
+
+    @Test
+    public void testSnapshotsArePublishedOnReplyTopic() throws Exception {
+        changeLog.publishSnapshot(90, "requester1");
+        changeLog.publishSnapshot(90, "requester2");
+        // Snapshots published on a reply topic are not coalesced
+        assertEquals(6, events.size());
+        assertEquals(MessagingUtil.getReplyTopicName(events.get(0), "requester1"), topics.get(0));
+        assertEquals(MessagingUtil.getReplyTopicName(events.get(3), "requester2"), topics.get(3));
+    }
+
+    @Test
+    public void testCompleteTenantEvent() throws Exception {
+        changeLog.tenantCreated(2501, "tenant-2501.com");
+        events.clear();
+        changeLog.publishCompleteTenantEvent();
+
+        assertEquals(1, events.size());
+        CompleteTenantEvent event = (CompleteTenantEvent) events.get(0);
+        assertEquals(2500, event.getTenants().size());
+        assertEquals(1, event.getPageCount());
+        assertEquals(101, event.getSequenceNumber());
+    }
+
+    @Test
+    public void testEmptySnapshot() throws Exception {
+        tenants.clear();
+        changeLog.publishSnapshot(0, null);
+
+        assertEquals(1, events.size());
+        CompleteTenantEvent event = (CompleteTenantEvent) events.get(0);
+        assertEquals(0, event.getTenants().size());
+        assertEquals(1, event.getPageCount());
+    }
+
+    private TenantChangeLog createChangeLog(long snapshotMinInterval) {
+        return new TenantChangeLog(100, 1000, snapshotMinInterval) {
+            @Override
+            protected List<Tenant> readTenants() {
+                return new ArrayList<Tenant>(tenants);
+            }
+
+            @Override
+            protected void publish(String topic, Event event) {
+                events.add(event);
+                topics.add(topic);
+            }
+        };
+    }
+}
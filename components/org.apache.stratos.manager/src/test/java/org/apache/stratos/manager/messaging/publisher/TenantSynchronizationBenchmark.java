@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.manager.messaging.publisher;
+
+import com.google.gson.Gson;
+import org.apache.stratos.messaging.domain.tenant.Tenant;
+import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.event.tenant.CompleteTenantEvent;
+import org.apache.stratos.messaging.util.MessagingUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one tenant synchronization tick with 50,000 tenants and 10 tenant changes per tick.
+ * Compares broadcasting a complete tenant event on every tick, as the tenant event synchronizer
+ * did before the tenant change log, against publishing the changes as sequenced tenant events
+ * followed by a tenant sequence event. Each published event is serialized as the event publisher
+ * does and parsed as a subscriber does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TenantSynchronizationBenchmark {
+
+    private static final int TENANT_COUNT = 50000;
+    private static final int CHANGES_PER_TICK = 10;
+
+    private List<Tenant> tenants;
+    private TransportingChangeLog changeLog;
+    private int nextTenantId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tenants = new ArrayList<Tenant>();
+        for (int tenantId = 1; tenantId <= TENANT_COUNT; tenantId++) {
+            tenants.add(new Tenant(tenantId, "tenant-" + tenantId + ".example.com"));
+        }
+        changeLog = new TransportingChangeLog(tenants);
+        nextTenantId = TENANT_COUNT + 1;
+    }
+
+    @Benchmark
+    public Object completeTenantBroadcast() {
+        return changeLog.transport(new CompleteTenantEvent(tenants));
+    }
+
+    @Benchmark
+    public Object incrementalSynchronization() {
+        for (int i = 0; i < CHANGES_PER_TICK; i++) {
+            int tenantId = nextTenantId++;
+            changeLog.tenantCreated(tenantId, "tenant-" + tenantId + ".example.com");
+        }
+        changeLog.publishSequence();
+        return changeLog.lastEvent;
+    }
+
+    /**
+     * Change log serializing each event as the event publisher does and parsing it back as a
+     * subscriber does, instead of publishing it to the message broker.
+     */
+    private static class TransportingChangeLog extends TenantChangeLog {
+
+        private final Gson gson = new Gson();
+        private final List<Tenant> tenants;
+        private Object lastEvent;
+
+        private TransportingChangeLog(List<Tenant> tenants) {
+            super(System.currentTimeMillis(), 1000, 0);
+            this.tenants = tenants;
+        }
+
+        @Override
+        protected List<Tenant> readTenants() {
+            return tenants;
+        }
+
+        @Override
+        protected void publish(String topic, Event event) {
+            lastEvent = transport(event);
+        }
+
+        private Object transport(Event event) {
+            String json = gson.toJson(event);
+            return MessagingUtil.jsonToObject(json, event.getClass());
+        }
+    }
+}
@@ -24,19 +24,21 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.messaging.domain.application.locking.ApplicationLockHierarchy;
 
 import java.io.Serializable;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Applications implements Serializable {
 
     private static Log log = LogFactory.getLog(Applications.class);
 
+    // Applications are added and removed while holding only the lock of the application
+    // concerned, hence the map is read and updated concurrently
     private Map<String, Application> applicationMap;
 
     private boolean initialized;
 
     public Applications() {
-        this.applicationMap = new HashMap<String, Application>();
+        this.applicationMap = new ConcurrentHashMap<String, Application>();
     }
 
     public synchronized void addApplication(Application application) {
@@ -22,9 +22,16 @@ package org.apache.stratos.messaging.domain.application.locking;
 
 import org.apache.stratos.common.concurrent.locks.ReadWriteLock;
 
+/**
+ * Represents a lock in the Applications. Locks of the same level of the
+ * {@link ApplicationLockHierarchy} share a name, hence their contention is profiled together.
+ */
 public class ApplicationLock extends ReadWriteLock {
 
-    public ApplicationLock() {
-        super("application");
+    public static final String APPLICATIONS_LOCK_NAME = "applications";
+    public static final String APPLICATION_LOCK_NAME = "application";
+
+    public ApplicationLock(String name) {
+        super(name);
     }
 }
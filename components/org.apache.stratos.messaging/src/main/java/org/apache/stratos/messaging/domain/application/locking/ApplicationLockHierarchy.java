@@ -39,7 +39,7 @@ public class ApplicationLockHierarchy {
     private static volatile ApplicationLockHierarchy applicationLockHierarchy;
 
     private ApplicationLockHierarchy() {
-        this.applicationLock = new ApplicationLock();
+        this.applicationLock = new ApplicationLock(ApplicationLock.APPLICATIONS_LOCK_NAME);
         this.appIdToApplicationLockMap = new ConcurrentHashMap<String, ApplicationLock>();
     }
 
@@ -60,7 +60,7 @@ public class ApplicationLockHierarchy {
         ApplicationLock applicationLock = appIdToApplicationLockMap.get(appId);
 
         if (applicationLock == null) {
-            applicationLock = new ApplicationLock();
+            applicationLock = new ApplicationLock(ApplicationLock.APPLICATION_LOCK_NAME);
             if (log.isDebugEnabled()) {
                 log.debug("Lock created for application: [application-id] " + appId);
             }
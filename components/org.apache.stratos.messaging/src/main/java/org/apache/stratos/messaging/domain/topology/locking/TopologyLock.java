@@ -22,12 +22,18 @@ package org.apache.stratos.messaging.domain.topology.locking;
 import org.apache.stratos.common.concurrent.locks.ReadWriteLock;
 
 /**
- * Represents a lock in the Topology
+ * Represents a lock in the Topology. Locks of the same level of the {@link TopologyLockHierarchy}
+ * share a name, hence their contention is profiled together.
  */
 
 public class TopologyLock extends ReadWriteLock {
 
-    public TopologyLock() {
-        super("topology");
+    public static final String COMPLETE_TOPOLOGY_LOCK_NAME = "topology";
+    public static final String SERVICES_LOCK_NAME = "topology.services";
+    public static final String SERVICE_LOCK_NAME = "topology.service";
+    public static final String CLUSTER_LOCK_NAME = "topology.cluster";
+
+    public TopologyLock(String name) {
+        super(name);
     }
 }
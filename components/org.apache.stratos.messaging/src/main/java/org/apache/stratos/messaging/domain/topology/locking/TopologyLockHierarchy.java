@@ -44,8 +44,8 @@ public class TopologyLockHierarchy {
     private static volatile TopologyLockHierarchy topologyLockHierarchy;
 
     private TopologyLockHierarchy() {
-        this.completeTopologyLock = new TopologyLock();
-        this.serviceLock = new TopologyLock();
+        this.completeTopologyLock = new TopologyLock(TopologyLock.COMPLETE_TOPOLOGY_LOCK_NAME);
+        this.serviceLock = new TopologyLock(TopologyLock.SERVICES_LOCK_NAME);
         this.serviceNameToTopologyLockMap = new ConcurrentHashMap<String, TopologyLock>();
         this.clusterIdToTopologyLockMap = new ConcurrentHashMap<String, TopologyLock>();
     }
@@ -64,7 +64,7 @@ public class TopologyLockHierarchy {
     public synchronized TopologyLock getTopologyLockForService(String serviceName, boolean forceCreationIfNotFound) {
         TopologyLock topologyLock = serviceNameToTopologyLockMap.get(serviceName);
         if (topologyLock == null && forceCreationIfNotFound) {
-            topologyLock = new TopologyLock();
+            topologyLock = new TopologyLock(TopologyLock.SERVICE_LOCK_NAME);
             if (log.isDebugEnabled()) {
                 log.debug("Lock created for topology service: [service-id] " + serviceName);
             }
@@ -77,7 +77,7 @@ public class TopologyLockHierarchy {
     public synchronized TopologyLock getTopologyLockForCluster(String clusterId, boolean forceCreationIfNotFound) {
         TopologyLock topologyLock = clusterIdToTopologyLockMap.get(clusterId);
         if (topologyLock == null && forceCreationIfNotFound) {
-            topologyLock = new TopologyLock();
+            topologyLock = new TopologyLock(TopologyLock.CLUSTER_LOCK_NAME);
             if (log.isDebugEnabled()) {
                 log.debug("Lock created for topology cluster: [cluster-id] " + clusterId);
             }
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.event.initializer;
+
+import org.apache.stratos.messaging.event.Event;
+
+import java.io.Serializable;
+
+/**
+ * This event is fired by tenant event subscribers which are not initialized yet or which
+ * detected a gap in the sequence numbers of tenant events. The stratos manager answers it by
+ * publishing a paged tenant snapshot on the reply topic of the requester, or on the tenant topic
+ * if the request does not carry a requester id.
+ */
+public class CompleteTenantRequestEvent extends Event implements Serializable {
+    private static final long serialVersionUID = 4528960181837207349L;
+
+    private long lastSequenceNumber;
+    private String requesterId;
+
+    public CompleteTenantRequestEvent(long lastSequenceNumber, String requesterId) {
+        this.lastSequenceNumber = lastSequenceNumber;
+        this.requesterId = requesterId;
+    }
+
+    /**
+     * @return sequence number of the last tenant event applied by the subscriber
+     */
+    public long getLastSequenceNumber() {
+        return lastSequenceNumber;
+    }
+
+    /**
+     * @return id of the requester given to MessagingUtil.getReplyTopicName(), null if the
+     * snapshot should be published on the tenant topic
+     */
+    public String getRequesterId() {
+        return requesterId;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.event.instance.notifier;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This event is fired to a cluster when an artifact repository shared by several tenants of the
+ * cluster is updated. Cartridge agents handle it as one artifact updated event per tenant.
+ */
+public class MultiTenantArtifactUpdatedEvent extends InstanceNotifierEvent implements Serializable {
+
+    private static final long serialVersionUID = -6378234912846113412L;
+
+    private String clusterId;
+    private String repoUserName;
+    private String repoPassword;
+    private String repoURL;
+    private List<String> tenantIds;
+    private boolean commitEnabled;
+
+    public MultiTenantArtifactUpdatedEvent() {
+        tenantIds = new ArrayList<String>();
+    }
+
+    public String getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(String clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public String getRepoUserName() {
+        return repoUserName;
+    }
+
+    public void setRepoUserName(String repoUserName) {
+        this.repoUserName = repoUserName;
+    }
+
+    public String getRepoPassword() {
+        return repoPassword;
+    }
+
+    public void setRepoPassword(String repoPassword) {
+        this.repoPassword = repoPassword;
+    }
+
+    public String getRepoURL() {
+        return repoURL;
+    }
+
+    public void setRepoURL(String repoURL) {
+        this.repoURL = repoURL;
+    }
+
+    public List<String> getTenantIds() {
+        return tenantIds;
+    }
+
+    public void setTenantIds(List<String> tenantIds) {
+        this.tenantIds = tenantIds;
+    }
+
+    public boolean isCommitEnabled() {
+        return commitEnabled;
+    }
+
+    public void setCommitEnabled(boolean commitEnabled) {
+        this.commitEnabled = commitEnabled;
+    }
+
+    /**
+     * Create an artifact updated event for each tenant of this event.
+     *
+     * @return artifact updated events
+     */
+    public List<ArtifactUpdatedEvent> createArtifactUpdatedEvents() {
+        List<ArtifactUpdatedEvent> artifactUpdatedEvents = new ArrayList<ArtifactUpdatedEvent>();
+        if (tenantIds == null) {
+            return artifactUpdatedEvents;
+        }
+        for (String tenantId : tenantIds) {
+            ArtifactUpdatedEvent artifactUpdatedEvent = new ArtifactUpdatedEvent();
+            artifactUpdatedEvent.setClusterId(clusterId);
+            artifactUpdatedEvent.setRepoUserName(repoUserName);
+            artifactUpdatedEvent.setRepoPassword(repoPassword);
+            artifactUpdatedEvent.setRepoURL(repoURL);
+            artifactUpdatedEvent.setTenantId(tenantId);
+            artifactUpdatedEvent.setCommitEnabled(commitEnabled);
+            artifactUpdatedEvents.add(artifactUpdatedEvent);
+        }
+        return artifactUpdatedEvents;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[cluster] %s [repo-url] %s [repo-username] %s [tenant-count] %d",
+                getClusterId(), getRepoURL(), getRepoUserName(), (tenantIds != null) ? tenantIds.size() : 0);
+    }
+}
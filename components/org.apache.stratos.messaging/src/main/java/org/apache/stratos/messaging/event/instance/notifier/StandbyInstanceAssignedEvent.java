@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.event.instance.notifier;
+
+import java.io.Serializable;
+
+/**
+ * This event is fired by CC when a pre-provisioned standby instance is assigned to a cluster.
+ * The standby instance which receives this event takes over the identity of the new member
+ * and applies the given payload.
+ */
+public class StandbyInstanceAssignedEvent extends InstanceNotifierEvent implements Serializable {
+
+    private static final long serialVersionUID = 2834572937454529106L;
+
+    private String standbyMemberId;
+    private String applicationId;
+    private String clusterId;
+    private String clusterInstanceId;
+    private String memberId;
+    private String payload;
+
+    public StandbyInstanceAssignedEvent(String standbyMemberId, String applicationId, String clusterId,
+                                        String clusterInstanceId, String memberId, String payload) {
+        this.standbyMemberId = standbyMemberId;
+        this.applicationId = applicationId;
+        this.clusterId = clusterId;
+        this.clusterInstanceId = clusterInstanceId;
+        this.memberId = memberId;
+        this.payload = payload;
+    }
+
+    /**
+     * @return member id the standby instance was started with
+     */
+    public String getStandbyMemberId() {
+        return standbyMemberId;
+    }
+
+    public String getApplicationId() {
+        return applicationId;
+    }
+
+    public String getClusterId() {
+        return clusterId;
+    }
+
+    public String getClusterInstanceId() {
+        return clusterInstanceId;
+    }
+
+    public String getMemberId() {
+        return memberId;
+    }
+
+    /**
+     * @return payload of the member in the comma separated key=value format
+     */
+    public String getPayload() {
+        return payload;
+    }
+}
@@ -24,19 +24,44 @@ import org.apache.stratos.messaging.domain.tenant.Tenant;
 import java.util.List;
 
 /**
- * This event is fired periodically with all the available tenants. It would be a
- * starting point for subscribers to initialize the list of tenants before receiving
- * other tenant events.
+ * This event is fired with all the available tenants when a subscriber requests a tenant
+ * snapshot. It would be a starting point for subscribers to initialize the list of tenants
+ * before receiving other tenant events. Large snapshots are split into pages, each page is
+ * published as a complete tenant event with the same sequence number.
  */
 public class CompleteTenantEvent extends TenantEvent {
 
     private List<Tenant> tenants;
+    private int pageIndex;
+    private int pageCount;
 
     public CompleteTenantEvent(List<Tenant> tenants) {
+        this(tenants, 0, 1);
+    }
+
+    public CompleteTenantEvent(List<Tenant> tenants, int pageIndex, int pageCount) {
         this.tenants = tenants;
+        this.pageIndex = pageIndex;
+        this.pageCount = pageCount;
     }
 
     public List<Tenant> getTenants() {
         return tenants;
     }
+
+    public int getPageIndex() {
+        return pageIndex;
+    }
+
+    /**
+     * @return number of pages of the snapshot, events of publishers which do not page
+     * snapshots carry zero
+     */
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public boolean isLastPage() {
+        return pageIndex >= (pageCount - 1);
+    }
 }
@@ -28,4 +28,18 @@ import java.io.Serializable;
  */
 public abstract class TenantEvent extends Event implements Serializable {
     private static final long serialVersionUID = -214237911335280160L;
+
+    private long sequenceNumber;
+
+    /**
+     * Sequence number of the tenant change log of the stratos manager at the time this event was
+     * published. Zero if the publisher does not sequence tenant events.
+     */
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public void setSequenceNumber(long sequenceNumber) {
+        this.sequenceNumber = sequenceNumber;
+    }
 }
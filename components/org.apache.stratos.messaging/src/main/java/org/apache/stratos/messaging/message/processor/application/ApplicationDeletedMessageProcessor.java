@@ -25,6 +25,7 @@ import org.apache.stratos.messaging.domain.application.Applications;
 import org.apache.stratos.messaging.event.application.ApplicationDeletedEvent;
 import org.apache.stratos.messaging.message.processor.MessageProcessor;
 import org.apache.stratos.messaging.message.processor.application.updater.ApplicationsUpdater;
+import org.apache.stratos.messaging.message.receiver.application.ApplicationVersionTracker;
 import org.apache.stratos.messaging.util.MessagingUtil;
 
 public class ApplicationDeletedMessageProcessor extends MessageProcessor {
@@ -82,6 +83,7 @@ public class ApplicationDeletedMessageProcessor extends MessageProcessor {
 
         // Remove application and clusters from topology
         applications.removeApplication(event.getAppId());
+        ApplicationVersionTracker.applicationRemoved(event.getAppId());
 
         notifyEventListeners(event);
 
@@ -23,6 +23,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.messaging.domain.application.locking.ApplicationLock;
 import org.apache.stratos.messaging.domain.application.locking.ApplicationLockHierarchy;
+import org.apache.stratos.messaging.message.receiver.application.ApplicationVersionTracker;
 
 /**
  * Used to lock the Topology for writes by messaging component
@@ -77,6 +78,7 @@ public class ApplicationsUpdater {
      * Releases write lock for all Applications
      */
     public static void releaseWriteLockForApplications() {
+        ApplicationVersionTracker.applicationsUpdated();
         if (log.isDebugEnabled()) {
             log.debug("Write lock released for Applications");
         }
@@ -102,6 +104,7 @@ public class ApplicationsUpdater {
      * @param appId Application id
      */
     public static void releaseWriteLockForApplication(String appId) {
+        ApplicationVersionTracker.applicationUpdated(appId);
         ApplicationLock applicationLock = applicationLockHierarchy.getLockForApplication(appId);
         applicationLock.releaseWriteLock();
         if (log.isDebugEnabled()) {
@@ -25,6 +25,8 @@ import org.apache.stratos.messaging.listener.EventListener;
 import org.apache.stratos.messaging.listener.instance.notifier.ArtifactUpdateEventListener;
 import org.apache.stratos.messaging.listener.instance.notifier.InstanceCleanupClusterEventListener;
 import org.apache.stratos.messaging.listener.instance.notifier.InstanceCleanupMemberEventListener;
+import org.apache.stratos.messaging.listener.instance.notifier.MultiTenantArtifactUpdatedEventListener;
+import org.apache.stratos.messaging.listener.instance.notifier.StandbyInstanceAssignedEventListener;
 import org.apache.stratos.messaging.message.processor.MessageProcessorChain;
 
 /**
@@ -36,6 +38,8 @@ public class InstanceNotifierMessageProcessorChain extends MessageProcessorChain
     private ArtifactUpdateMessageProcessor artifactUpdateMessageProcessor;
     private InstanceCleanupMemberNotifierMessageProcessor instanceCleanupMemberNotifierMessageProcessor;
     private InstanceCleanupClusterNotifierMessageProcessor instanceCleanupClusterNotifierMessageProcessor;
+    private StandbyInstanceAssignedMessageProcessor standbyInstanceAssignedMessageProcessor;
+    private MultiTenantArtifactUpdatedMessageProcessor multiTenantArtifactUpdatedMessageProcessor;
 
     public void initialize() {
         // Add instance notifier event processors
@@ -45,6 +49,10 @@ public class InstanceNotifierMessageProcessorChain extends MessageProcessorChain
         add(instanceCleanupMemberNotifierMessageProcessor);
         instanceCleanupClusterNotifierMessageProcessor = new InstanceCleanupClusterNotifierMessageProcessor();
         add(instanceCleanupClusterNotifierMessageProcessor);
+        standbyInstanceAssignedMessageProcessor = new StandbyInstanceAssignedMessageProcessor();
+        add(standbyInstanceAssignedMessageProcessor);
+        multiTenantArtifactUpdatedMessageProcessor = new MultiTenantArtifactUpdatedMessageProcessor();
+        add(multiTenantArtifactUpdatedMessageProcessor);
 
 
         if (log.isDebugEnabled()) {
@@ -59,6 +67,10 @@ public class InstanceNotifierMessageProcessorChain extends MessageProcessorChain
             instanceCleanupMemberNotifierMessageProcessor.addEventListener(eventListener);
         } else if (eventListener instanceof InstanceCleanupClusterEventListener) {
             instanceCleanupClusterNotifierMessageProcessor.addEventListener(eventListener);
+        } else if (eventListener instanceof StandbyInstanceAssignedEventListener) {
+            standbyInstanceAssignedMessageProcessor.addEventListener(eventListener);
+        } else if (eventListener instanceof MultiTenantArtifactUpdatedEventListener) {
+            multiTenantArtifactUpdatedMessageProcessor.addEventListener(eventListener);
         } else {
             throw new RuntimeException("Unknown event listener");
         }
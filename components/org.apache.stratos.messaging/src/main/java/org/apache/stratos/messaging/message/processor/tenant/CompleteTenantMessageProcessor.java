@@ -21,20 +21,30 @@ package org.apache.stratos.messaging.message.processor.tenant;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.domain.tenant.Tenant;
 import org.apache.stratos.messaging.event.tenant.CompleteTenantEvent;
 import org.apache.stratos.messaging.message.processor.MessageProcessor;
+import org.apache.stratos.messaging.message.receiver.tenant.TenantEventSequencer;
 import org.apache.stratos.messaging.message.receiver.tenant.TenantManager;
 import org.apache.stratos.messaging.util.MessagingUtil;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Complete tenant message processor for initializing the tenant manager and
- * triggering complete tenant event listeners.
+ * triggering complete tenant event listeners. Complete tenant events are skipped without being
+ * parsed unless the tenant manager awaits a snapshot. Pages of a tenant snapshot are collected
+ * until the last page is received, a snapshot with a missing page is discarded.
  */
 public class CompleteTenantMessageProcessor extends MessageProcessor {
 
     private static final Log log = LogFactory.getLog(CompleteTenantMessageProcessor.class);
 
     private MessageProcessor nextProcessor;
+    private long pageSequenceNumber;
+    private int nextPageIndex;
+    private List<Tenant> pageTenants;
 
     @Override
     public void setNext(MessageProcessor nextProcessor) {
@@ -44,24 +54,40 @@ public class CompleteTenantMessageProcessor extends MessageProcessor {
     @Override
     public boolean process(String type, String message, Object object) {
         if (CompleteTenantEvent.class.getName().equals(type)) {
-            // Return if tenant manager has already initialized
-            if (TenantManager.getInstance().isInitialized()) {
+            // Return if the tenant manager is initialized and in sync, complete tenant events
+            // are only parsed while a snapshot is awaited
+            if (!isSnapshotRequired()) {
+                pageTenants = null;
                 return false;
             }
 
             // Parse complete message and build event
             CompleteTenantEvent event = (CompleteTenantEvent) MessagingUtil.jsonToObject(message, CompleteTenantEvent.class);
+            List<Tenant> tenants = collectPages(event);
+            if (tenants == null) {
+                return false;
+            }
 
             try {
                 TenantManager.acquireWriteLock();
-                TenantManager.getInstance().addTenants(event.getTenants());
+                TenantEventSequencer sequencer = TenantEventSequencer.getInstance();
+                // Return if the tenant manager is in sync with a newer snapshot
+                if (!sequencer.acceptSnapshot(event.getSequenceNumber())) {
+                    return false;
+                }
+
+                TenantManager.getInstance().replaceTenants(tenants);
+                sequencer.snapshotApplied(event.getSequenceNumber());
                 if (log.isInfoEnabled()) {
-                    log.info("Tenant initialized");
+                    log.info(String.format("Tenant initialized: [sequence-number] %d [tenant-count] %d",
+                            event.getSequenceNumber(), tenants.size()));
                 }
                 TenantManager.getInstance().setInitialized(true);
 
-                // Notify event listeners
-                notifyEventListeners(event);
+                // Notify event listeners with all tenants of the snapshot
+                CompleteTenantEvent completeTenantEvent = new CompleteTenantEvent(tenants);
+                completeTenantEvent.setSequenceNumber(event.getSequenceNumber());
+                notifyEventListeners(completeTenantEvent);
                 return true;
             } finally {
                 TenantManager.releaseWriteLock();
@@ -74,4 +100,51 @@ public class CompleteTenantMessageProcessor extends MessageProcessor {
             }
         }
     }
+
+    private boolean isSnapshotRequired() {
+        try {
+            TenantManager.acquireReadLock();
+            return TenantEventSequencer.getInstance().isSnapshotRequired();
+        } finally {
+            TenantManager.releaseReadLock();
+        }
+    }
+
+    /**
+     * Collect the pages of a tenant snapshot.
+     *
+     * @param event complete tenant event
+     * @return tenants of the snapshot once the last page is received, otherwise null
+     */
+    private List<Tenant> collectPages(CompleteTenantEvent event) {
+        List<Tenant> tenants = (event.getTenants() != null) ? event.getTenants() : new ArrayList<Tenant>();
+        if (event.getPageCount() <= 1) {
+            pageTenants = null;
+            return tenants;
+        }
+
+        if (event.getPageIndex() == 0) {
+            pageSequenceNumber = event.getSequenceNumber();
+            nextPageIndex = 0;
+            pageTenants = new ArrayList<Tenant>();
+        }
+        if ((pageTenants == null) || (event.getSequenceNumber() != pageSequenceNumber) ||
+                (event.getPageIndex() != nextPageIndex)) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Tenant snapshot page discarded: [sequence-number] %d [page-index] %d",
+                        event.getSequenceNumber(), event.getPageIndex()));
+            }
+            pageTenants = null;
+            return null;
+        }
+
+        pageTenants.addAll(tenants);
+        nextPageIndex++;
+        if (!event.isLastPage()) {
+            return null;
+        }
+        List<Tenant> snapshotTenants = pageTenants;
+        pageTenants = null;
+        return snapshotTenants;
+    }
 }
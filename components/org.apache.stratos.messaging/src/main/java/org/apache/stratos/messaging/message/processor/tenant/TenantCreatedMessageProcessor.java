@@ -23,6 +23,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.messaging.event.tenant.TenantCreatedEvent;
 import org.apache.stratos.messaging.message.processor.MessageProcessor;
+import org.apache.stratos.messaging.message.receiver.tenant.TenantEventSequencer;
 import org.apache.stratos.messaging.message.receiver.tenant.TenantManager;
 import org.apache.stratos.messaging.util.MessagingUtil;
 
@@ -44,16 +45,15 @@ public class TenantCreatedMessageProcessor extends MessageProcessor {
     @Override
     public boolean process(String type, String message, Object object) {
         if (TenantCreatedEvent.class.getName().equals(type)) {
-            // Return if tenant manager has not initialized
-            if (!TenantManager.getInstance().isInitialized()) {
-                return false;
-            }
-
             // Parse complete message and build event
             TenantCreatedEvent event = (TenantCreatedEvent) MessagingUtil.jsonToObject(message, TenantCreatedEvent.class);
 
             try {
                 TenantManager.acquireWriteLock();
+                // Skip events received before the tenant manager is initialized and events already applied
+                if (!TenantEventSequencer.getInstance().acceptEvent(event)) {
+                    return false;
+                }
                 TenantManager.getInstance().addTenant(event.getTenant());
                 if (log.isInfoEnabled()) {
                     log.info(String.format("Tenant created: [tenant-id] %d [tenant-domain] %s", event.getTenant().getTenantId(), event.getTenant().getTenantDomain()));
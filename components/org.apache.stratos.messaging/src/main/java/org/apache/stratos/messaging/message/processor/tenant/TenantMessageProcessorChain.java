@@ -25,6 +25,7 @@ import org.apache.stratos.messaging.listener.EventListener;
 import org.apache.stratos.messaging.listener.tenant.CompleteTenantEventListener;
 import org.apache.stratos.messaging.listener.tenant.TenantCreatedEventListener;
 import org.apache.stratos.messaging.listener.tenant.TenantRemovedEventListener;
+import org.apache.stratos.messaging.listener.tenant.TenantSequenceEventListener;
 import org.apache.stratos.messaging.listener.tenant.TenantUpdatedEventListener;
 import org.apache.stratos.messaging.message.processor.MessageProcessorChain;
 
@@ -38,6 +39,7 @@ public class TenantMessageProcessorChain extends MessageProcessorChain {
     private TenantCreatedMessageProcessor tenantCreatedMessageProcessor;
     private TenantUpdatedMessageProcessor tenantUpdatedMessageProcessor;
     private TenantRemovedMessageProcessor tenantRemovedMessageProcessor;
+    private TenantSequenceMessageProcessor tenantSequenceMessageProcessor;
 
     public void initialize() {
         // Initialize tenant event processors
@@ -53,6 +55,9 @@ public class TenantMessageProcessorChain extends MessageProcessorChain {
         tenantRemovedMessageProcessor = new TenantRemovedMessageProcessor();
         add(tenantRemovedMessageProcessor);
 
+        tenantSequenceMessageProcessor = new TenantSequenceMessageProcessor();
+        add(tenantSequenceMessageProcessor);
+
         if (log.isDebugEnabled()) {
             log.debug("Tenant message processor chain initialized");
         }
@@ -67,6 +72,8 @@ public class TenantMessageProcessorChain extends MessageProcessorChain {
             tenantUpdatedMessageProcessor.addEventListener(eventListener);
         } else if (eventListener instanceof TenantRemovedEventListener) {
             tenantRemovedMessageProcessor.addEventListener(eventListener);
+        } else if (eventListener instanceof TenantSequenceEventListener) {
+            tenantSequenceMessageProcessor.addEventListener(eventListener);
         } else {
             throw new RuntimeException("Unknown event listener");
         }
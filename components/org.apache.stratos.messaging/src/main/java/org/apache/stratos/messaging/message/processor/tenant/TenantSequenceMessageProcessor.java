@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.message.processor.tenant;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.event.tenant.TenantSequenceEvent;
+import org.apache.stratos.messaging.message.processor.MessageProcessor;
+import org.apache.stratos.messaging.message.receiver.tenant.TenantEventSequencer;
+import org.apache.stratos.messaging.message.receiver.tenant.TenantManager;
+import org.apache.stratos.messaging.util.MessagingUtil;
+
+/**
+ * Tenant sequence message processor for requesting a tenant snapshot when tenant events
+ * have been missed and triggering tenant sequence event listeners.
+ */
+public class TenantSequenceMessageProcessor extends MessageProcessor {
+
+    private static final Log log = LogFactory.getLog(TenantSequenceMessageProcessor.class);
+
+    private MessageProcessor nextProcessor;
+
+    @Override
+    public void setNext(MessageProcessor nextProcessor) {
+        this.nextProcessor = nextProcessor;
+    }
+
+    @Override
+    public boolean process(String type, String message, Object object) {
+        if (TenantSequenceEvent.class.getName().equals(type)) {
+            // Parse complete message and build event
+            TenantSequenceEvent event = (TenantSequenceEvent) MessagingUtil.jsonToObject(message, TenantSequenceEvent.class);
+
+            try {
+                TenantManager.acquireWriteLock();
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Tenant sequence received: [sequence-number] %d",
+                            event.getSequenceNumber()));
+                }
+                TenantEventSequencer.getInstance().checkSequence(event.getSequenceNumber());
+
+                // Notify event listeners
+                notifyEventListeners(event);
+                return true;
+            } finally {
+                TenantManager.releaseWriteLock();
+            }
+        } else {
+            if (nextProcessor != null) {
+                return nextProcessor.process(type, message, object);
+            } else {
+                throw new RuntimeException(String.format("Failed to process tenant message using available message processors: [type] %s [body] %s", type, message));
+            }
+        }
+    }
+}
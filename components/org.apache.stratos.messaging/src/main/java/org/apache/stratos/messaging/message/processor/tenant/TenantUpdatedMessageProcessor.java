@@ -24,6 +24,7 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.messaging.domain.tenant.Tenant;
 import org.apache.stratos.messaging.event.tenant.TenantUpdatedEvent;
 import org.apache.stratos.messaging.message.processor.MessageProcessor;
+import org.apache.stratos.messaging.message.receiver.tenant.TenantEventSequencer;
 import org.apache.stratos.messaging.message.receiver.tenant.TenantManager;
 import org.apache.stratos.messaging.util.MessagingUtil;
 
@@ -45,16 +46,15 @@ public class TenantUpdatedMessageProcessor extends MessageProcessor {
     @Override
     public boolean process(String type, String message, Object object) {
         if (TenantUpdatedEvent.class.getName().equals(type)) {
-            // Return if tenant manager has not initialized
-            if (!TenantManager.getInstance().isInitialized()) {
-                return false;
-            }
-
             // Parse complete message and build event
             TenantUpdatedEvent event = (TenantUpdatedEvent) MessagingUtil.jsonToObject(message, TenantUpdatedEvent.class);
 
             try {
                 TenantManager.acquireWriteLock();
+                // Skip events received before the tenant manager is initialized and events already applied
+                if (!TenantEventSequencer.getInstance().acceptEvent(event)) {
+                    return false;
+                }
                 Tenant tenant = TenantManager.getInstance().getTenant(event.getTenantId());
                 if (tenant == null) {
                     if (log.isWarnEnabled()) {
@@ -21,8 +21,12 @@ package org.apache.stratos.messaging.message.processor.topology.updater;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.domain.topology.Cluster;
+import org.apache.stratos.messaging.domain.topology.Service;
 import org.apache.stratos.messaging.domain.topology.locking.TopologyLock;
 import org.apache.stratos.messaging.domain.topology.locking.TopologyLockHierarchy;
+import org.apache.stratos.messaging.message.receiver.application.ApplicationManager;
+import org.apache.stratos.messaging.message.receiver.application.ApplicationVersionTracker;
 import org.apache.stratos.messaging.message.receiver.topology.TopologyManager;
 
 /**
@@ -77,6 +81,7 @@ public class TopologyUpdater {
      * Releases write lock for the Complete Topology
      */
     public static void releaseWriteLock() {
+        ApplicationVersionTracker.topologyUpdated();
         if (log.isDebugEnabled()) {
             log.debug("Write lock released for Topology");
         }
@@ -99,6 +104,7 @@ public class TopologyUpdater {
      * Releases write lock for the all Services
      */
     public static void releaseWriteLockForServices() {
+        ApplicationVersionTracker.topologyUpdated();
         if (log.isDebugEnabled()) {
             log.debug("Write lock released for Services");
         }
@@ -133,6 +139,7 @@ public class TopologyUpdater {
      * @param serviceName service name to release write lock
      */
     public static void releaseWriteLockForService(String serviceName) {
+        ApplicationVersionTracker.topologyUpdated();
 
         TopologyLock topologyServiceLock = topologyLockHierarchy.getTopologyLockForService(serviceName, false);
         if (topologyServiceLock == null) {
@@ -183,6 +190,7 @@ public class TopologyUpdater {
      * @param clusterId   cluster id to release write lock
      */
     public static void releaseWriteLockForCluster(String serviceName, String clusterId) {
+        ApplicationVersionTracker.applicationUpdated(findApplicationId(serviceName, clusterId));
 
         TopologyLock topologyClusterLock = topologyLockHierarchy.getTopologyLockForCluster(clusterId, false);
         if (topologyClusterLock == null) {
@@ -199,6 +207,23 @@ public class TopologyUpdater {
         TopologyManager.releaseReadLockForService(serviceName);
     }
 
+    /**
+     * Find the application of a cluster, null is returned if the cluster or its application has
+     * been removed. Clusters of a removed application are updated until they are removed from the
+     * topology, their application must not get a version again.
+     */
+    private static String findApplicationId(String serviceName, String clusterId) {
+        Service service = TopologyManager.getTopology().getService(serviceName);
+        if (service == null) {
+            return null;
+        }
+        Cluster cluster = service.getCluster(clusterId);
+        if ((cluster == null) || (cluster.getAppId() == null)) {
+            return null;
+        }
+        return ApplicationManager.getApplications().applicationExists(cluster.getAppId()) ? cluster.getAppId() : null;
+    }
+
     private static void handleLockNotFound(String errorMsg) {
         log.warn(errorMsg);
         //throw new RuntimeException(errorMsg);
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.message.receiver.application;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks a version of the runtime state of each application. Versions are bumped by the
+ * application and topology event processors while they hold the write lock of the updated
+ * application, cluster or topology, hence a reader which takes a version before acquiring
+ * the read locks never sees content older than that version.
+ * <p/>
+ * Versions are taken from a single sequence, so a version identifies one state of an
+ * application even if the application is removed and deployed again. Updates of the
+ * complete applications or topology change the version of every application.
+ */
+public class ApplicationVersionTracker {
+
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final ConcurrentMap<String, Long> applicationVersions = new ConcurrentHashMap<String, Long>();
+    private static volatile long applicationsVersion;
+    private static volatile long topologyVersion;
+
+    private ApplicationVersionTracker() {
+    }
+
+    /**
+     * Bump the version of the given application.
+     *
+     * @param applicationId application id
+     */
+    public static void applicationUpdated(String applicationId) {
+        if (applicationId == null) {
+            topologyUpdated();
+            return;
+        }
+        applicationVersions.put(applicationId, sequence.incrementAndGet());
+    }
+
+    /**
+     * Forget the version of a removed application. The version of all applications is bumped,
+     * so that the removed application does not fall back to a version handed out before.
+     *
+     * @param applicationId application id
+     */
+    public static void applicationRemoved(String applicationId) {
+        applicationVersions.remove(applicationId);
+        applicationsUpdated();
+    }
+
+    /**
+     * Bump the version of all applications after the complete applications are updated.
+     */
+    public static void applicationsUpdated() {
+        applicationsVersion = sequence.incrementAndGet();
+    }
+
+    /**
+     * Bump the version of all applications after a part of the topology which is not bound to
+     * an application is updated.
+     */
+    public static void topologyUpdated() {
+        topologyVersion = sequence.incrementAndGet();
+    }
+
+    /**
+     * Returns the current version of the given application.
+     *
+     * @param applicationId application id
+     * @return version of the application
+     */
+    public static long getVersion(String applicationId) {
+        Long applicationVersion = applicationVersions.get(applicationId);
+        long version = Math.max(applicationsVersion, topologyVersion);
+        return (applicationVersion != null) ? Math.max(applicationVersion, version) : version;
+    }
+}
@@ -33,9 +33,11 @@ import java.util.concurrent.ExecutorService;
  */
 public class TenantEventReceiver {
     private static final Log log = LogFactory.getLog(TenantEventReceiver.class);
+    private static final long SUBSCRIPTION_TIMEOUT = 60000;
     private TenantEventMessageDelegator messageDelegator;
     private TenantEventMessageListener messageListener;
     private EventSubscriber eventSubscriber;
+    private EventSubscriber replySubscriber;
     private ExecutorService executorService;
 
     public TenantEventReceiver() {
@@ -62,12 +64,32 @@ public class TenantEventReceiver {
                 log.debug("Tenant event message receiver thread started");
             }
 
+            // Start reply topic subscriber thread, tenant snapshots requested by this receiver
+            // are only published on its reply topic
+            String replyTopicName = MessagingUtil.getReplyTopicName(
+                    TenantEventSequencer.getInstance().getRequesterId());
+            replySubscriber = new EventSubscriber(replyTopicName, messageListener);
+            executorService.execute(replySubscriber);
+
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Tenant reply message receiver thread started: [topic] %s",
+                        replyTopicName));
+            }
+
             // Start tenant event message delegator thread
             executorService.execute(messageDelegator);
             if (log.isDebugEnabled()) {
                 log.debug("Tenant event message delegator thread started");
             }
 
+            // Request a tenant snapshot once subscribed to initialize the tenant manager
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    requestInitialSnapshot();
+                }
+            });
+
 
         } catch (Exception e) {
             if (log.isErrorEnabled()) {
@@ -76,8 +98,24 @@ public class TenantEventReceiver {
         }
     }
 
+    private void requestInitialSnapshot() {
+        try {
+            long timeout = System.currentTimeMillis() + SUBSCRIPTION_TIMEOUT;
+            while ((!eventSubscriber.isSubscribed() || !replySubscriber.isSubscribed()) &&
+                    (System.currentTimeMillis() < timeout)) {
+                Thread.sleep(1000);
+            }
+            if (!TenantManager.getInstance().isInitialized()) {
+                TenantEventSequencer.getInstance().requestSnapshot(0);
+            }
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     public void terminate() {
         eventSubscriber.terminate();
+        replySubscriber.terminate();
         messageDelegator.terminate();
     }
 }
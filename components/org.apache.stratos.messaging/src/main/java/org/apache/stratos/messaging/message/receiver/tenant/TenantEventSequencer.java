@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.message.receiver.tenant;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.broker.publish.EventPublisher;
+import org.apache.stratos.messaging.broker.publish.EventPublisherPool;
+import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.event.initializer.CompleteTenantRequestEvent;
+import org.apache.stratos.messaging.event.tenant.TenantEvent;
+import org.apache.stratos.messaging.util.MessagingUtil;
+
+/**
+ * Tracks the sequence numbers of the tenant events published by the tenant change log of the
+ * stratos manager. Tenant events are expected in sequence; a gap in the sequence numbers, or a
+ * tenant sequence event ahead of the last applied event, marks the tenant manager out of sync
+ * and requests a tenant snapshot. Snapshot requests are sent at most once per interval given by
+ * the tenant.snapshot.request.interval system property in milliseconds, snapshots are published
+ * on the reply topic of the requester id of this sequencer.
+ * <p/>
+ * Methods except {@link #requestSnapshot(long)} and {@link #getRequesterId()} are expected to be
+ * invoked while holding the tenant manager write lock, {@link #isSnapshotRequired()} while holding
+ * at least the read lock.
+ */
+public class TenantEventSequencer {
+
+    private static final Log log = LogFactory.getLog(TenantEventSequencer.class);
+
+    private static final String SNAPSHOT_REQUEST_INTERVAL = "tenant.snapshot.request.interval";
+    private static final long DEFAULT_SNAPSHOT_REQUEST_INTERVAL = 10000;
+
+    private static volatile TenantEventSequencer instance;
+
+    private final TenantManager tenantManager;
+    private final long snapshotRequestInterval;
+    private final String requesterId;
+    private long lastRequestTime;
+
+    TenantEventSequencer(TenantManager tenantManager, long snapshotRequestInterval) {
+        this.tenantManager = tenantManager;
+        this.snapshotRequestInterval = snapshotRequestInterval;
+        this.requesterId = MessagingUtil.createRequesterId();
+    }
+
+    public static TenantEventSequencer getInstance() {
+        if (instance == null) {
+            synchronized (TenantEventSequencer.class) {
+                if (instance == null) {
+                    instance = new TenantEventSequencer(TenantManager.getInstance(),
+                            Long.getLong(SNAPSHOT_REQUEST_INTERVAL, DEFAULT_SNAPSHOT_REQUEST_INTERVAL));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Check the sequence number of a tenant created, updated or removed event.
+     *
+     * @param event tenant event
+     * @return true if the event should be applied to the tenant manager
+     */
+    public boolean acceptEvent(TenantEvent event) {
+        if (!tenantManager.isInitialized()) {
+            requestSnapshot(0);
+            return false;
+        }
+
+        long sequenceNumber = event.getSequenceNumber();
+        if (sequenceNumber <= 0) {
+            // Publisher does not sequence tenant events
+            return true;
+        }
+
+        if (tenantManager.isInSync()) {
+            long lastSequenceNumber = tenantManager.getSequenceNumber();
+            if (sequenceNumber <= lastSequenceNumber) {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Tenant event already applied: [sequence-number] %d", sequenceNumber));
+                }
+                return false;
+            }
+            if (sequenceNumber == (lastSequenceNumber + 1)) {
+                tenantManager.setSequenceNumber(sequenceNumber);
+                return true;
+            }
+            log.warn(String.format("Tenant events missed: [expected-sequence-number] %d " +
+                    "[received-sequence-number] %d", lastSequenceNumber + 1, sequenceNumber));
+            tenantManager.setInSync(false);
+        }
+
+        // Tenant events are idempotent, events received while out of sync are applied until the
+        // next snapshot replaces all tenants
+        requestSnapshot(tenantManager.getSequenceNumber());
+        return true;
+    }
+
+    /**
+     * Check whether a tenant snapshot should replace the tenants of the tenant manager. Snapshots
+     * requested by other subscribers are skipped if the tenant manager is in sync.
+     *
+     * @param sequenceNumber sequence number of the snapshot
+     * @return true if the snapshot should be applied
+     */
+    public boolean acceptSnapshot(long sequenceNumber) {
+        if (sequenceNumber <= 0) {
+            // Publisher does not sequence tenant events and publishes snapshots periodically
+            return !tenantManager.isInitialized();
+        }
+        if (!tenantManager.isInitialized() || !tenantManager.isInSync()) {
+            return true;
+        }
+        return sequenceNumber > tenantManager.getSequenceNumber();
+    }
+
+    /**
+     * Check whether a tenant snapshot is awaited, complete tenant events are not parsed otherwise.
+     * The tenant manager awaits a snapshot until it is initialized, and after requesting one
+     * until it is applied.
+     *
+     * @return true if a tenant snapshot should be read
+     */
+    public synchronized boolean isSnapshotRequired() {
+        return !tenantManager.isInitialized() || (lastRequestTime > 0);
+    }
+
+    /**
+     * @return id of the requester, tenant snapshots requested by this sequencer are published on
+     * its reply topic
+     */
+    public String getRequesterId() {
+        return requesterId;
+    }
+
+    /**
+     * Mark the tenant manager in sync with the given snapshot.
+     *
+     * @param sequenceNumber sequence number of the snapshot
+     */
+    public void snapshotApplied(long sequenceNumber) {
+        tenantManager.setSequenceNumber(sequenceNumber);
+        tenantManager.setInSync(sequenceNumber > 0);
+        synchronized (this) {
+            lastRequestTime = 0;
+        }
+    }
+
+    /**
+     * Check the latest sequence number of the tenant change log and request a snapshot if
+     * tenant events have been missed.
+     *
+     * @param latestSequenceNumber latest sequence number of the tenant change log
+     */
+    public void checkSequence(long latestSequenceNumber) {
+        if (latestSequenceNumber <= 0) {
+            return;
+        }
+        if (tenantManager.isInitialized() && tenantManager.isInSync()) {
+            if (latestSequenceNumber == tenantManager.getSequenceNumber()) {
+                return;
+            }
+            log.warn(String.format("Tenant events missed: [last-sequence-number] %d [latest-sequence-number] %d",
+                    tenantManager.getSequenceNumber(), latestSequenceNumber));
+            tenantManager.setInSync(false);
+        }
+        requestSnapshot(tenantManager.getSequenceNumber());
+    }
+
+    /**
+     * Request a tenant snapshot from the stratos manager, unless a snapshot has been requested
+     * within the snapshot request interval.
+     *
+     * @param lastSequenceNumber sequence number of the last applied tenant event
+     */
+    public void requestSnapshot(long lastSequenceNumber) {
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if ((lastRequestTime > 0) && ((now - lastRequestTime) < snapshotRequestInterval)) {
+                return;
+            }
+            lastRequestTime = now;
+        }
+
+        try {
+            publish(new CompleteTenantRequestEvent(lastSequenceNumber, requesterId));
+            if (log.isInfoEnabled()) {
+                log.info(String.format("Tenant snapshot requested: [last-sequence-number] %d", lastSequenceNumber));
+            }
+        } catch (Exception e) {
+            log.error("Could not request tenant snapshot", e);
+        }
+    }
+
+    protected void publish(Event event) {
+        String topic = MessagingUtil.getMessageTopicName(event);
+        EventPublisher eventPublisher = EventPublisherPool.getPublisher(topic);
+        eventPublisher.publish(event);
+    }
+}
@@ -45,6 +45,8 @@ public class TenantManager {
     private Map<Integer, Tenant> tenantIdTenantMap;
     private Map<String, Tenant> tenantDomainTenantMap;
     private boolean initialized;
+    private long sequenceNumber;
+    private boolean inSync;
 
     public static void acquireReadLock() {
         if (log.isDebugEnabled()) {
@@ -77,6 +79,10 @@ public class TenantManager {
     private TenantManager() {
         this.tenantIdTenantMap = new HashMap<Integer, Tenant>();
         this.tenantDomainTenantMap = new HashMap<String, Tenant>();
+        addSuperTenant();
+    }
+
+    private void addSuperTenant() {
         Tenant superTenant = new Tenant(MultitenantConstants.SUPER_TENANT_ID,
                 MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
         this.tenantIdTenantMap.put(MultitenantConstants.SUPER_TENANT_ID, superTenant);
@@ -108,6 +114,18 @@ public class TenantManager {
         }
     }
 
+    /**
+     * Replace all tenants with the tenants of a snapshot.
+     *
+     * @param tenants tenants of the snapshot
+     */
+    public void replaceTenants(List<Tenant> tenants) {
+        tenantIdTenantMap.clear();
+        tenantDomainTenantMap.clear();
+        addSuperTenant();
+        addTenants(tenants);
+    }
+
     public Tenant getTenant(int tenantId) {
         return this.tenantIdTenantMap.get(tenantId);
     }
@@ -135,4 +153,26 @@ public class TenantManager {
     public boolean isInitialized() {
         return initialized;
     }
+
+    /**
+     * @return sequence number of the last tenant snapshot or tenant event applied in order
+     */
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public void setSequenceNumber(long sequenceNumber) {
+        this.sequenceNumber = sequenceNumber;
+    }
+
+    /**
+     * @return false if tenant events have been missed since the last tenant snapshot
+     */
+    public boolean isInSync() {
+        return inSync;
+    }
+
+    public void setInSync(boolean inSync) {
+        this.inSync = inSync;
+    }
 }
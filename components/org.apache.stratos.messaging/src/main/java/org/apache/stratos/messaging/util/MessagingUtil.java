@@ -45,6 +45,8 @@ public class MessagingUtil {
     private static final String HASH = "#";
     private static final String GREATER_THAN = ">";
     private static final String ORG_APACHE_STRATOS_MESSAGING_EVENT_PACKAGE = "org.apache.stratos.messaging.event.";
+    private static final String REPLY_TOPIC_PREFIX = "reply/";
+    private static final int REQUESTER_ID_LENGTH = 32;
     private static final String HYPHEN_MINUS = "-";
     private static final String EMPTY_SPACE = "";
     private static final String TENANT_RANGE_DELIMITER = "-";
@@ -70,7 +72,8 @@ public class MessagingUtil {
         APPLICATION_SIGNUP_TOPIC("application/signup/#"),
         CLUSTER_STATUS_TOPIC("cluster/status/#"),
         TENANT_TOPIC("tenant/#"),
-        DOMAIN_MAPPING_TOPIC("domain/mapping/#");
+        DOMAIN_MAPPING_TOPIC("domain/mapping/#"),
+        INITIALIZER_TOPIC("initializer/#");
 
         private String topicName;
 
@@ -224,6 +227,47 @@ public class MessagingUtil {
         return topicName;
     }
 
+    /**
+     * Get the topic name for an event replying to the request of the given requester. Reply
+     * topics are reply/{requester-id}/{event topic}, hence the event class is resolved as for
+     * the event topic and only the requester receives the reply.
+     *
+     * @param event       event replying to the request
+     * @param requesterId id of the requester
+     * @return String reply topic name of the event
+     */
+    public static String getReplyTopicName(Event event, String requesterId) {
+        return getReplyTopicPrefix(requesterId) + getMessageTopicName(event);
+    }
+
+    /**
+     * Get the topic name for subscribing to all replies to the given requester.
+     *
+     * @param requesterId id of the requester
+     * @return String reply topic name of the requester
+     */
+    public static String getReplyTopicName(String requesterId) {
+        String topicName = REPLY_TOPIC_PREFIX + requesterId + SLASH + HASH;
+        if (getMessagingProtocol().equals(MessagingConstants.AMQP)) {
+            topicName = topicName.replace(SLASH, DOT).replace(HASH, GREATER_THAN);
+        }
+        return topicName;
+    }
+
+    /**
+     * Create a requester id for requests replied on a reply topic.
+     *
+     * @return String requester id
+     */
+    public static String createRequesterId() {
+        return getRandomString(REQUESTER_ID_LENGTH);
+    }
+
+    private static String getReplyTopicPrefix(String requesterId) {
+        String separator = getMessagingProtocol().equals(MessagingConstants.MQTT) ? SLASH : DOT;
+        return REPLY_TOPIC_PREFIX.replace(SLASH, separator) + requesterId + separator;
+    }
+
     /**
      * Get the event name for topic
      *
@@ -231,6 +275,13 @@ public class MessagingUtil {
      * @return String Event name for topic
      */
     public static String getEventClassNameForTopic(String topic) {
+        // Remove the reply prefix and the requester id of reply topics
+        if (topic.startsWith(REPLY_TOPIC_PREFIX) || topic.startsWith(REPLY_TOPIC_PREFIX.replace(SLASH, DOT))) {
+            int index = topic.indexOf(topic.charAt(REPLY_TOPIC_PREFIX.length() - 1), REPLY_TOPIC_PREFIX.length());
+            if (index > 0) {
+                topic = topic.substring(index + 1);
+            }
+        }
         String eventClassName = ORG_APACHE_STRATOS_MESSAGING_EVENT_PACKAGE.concat(topic);
         if (getMessagingProtocol().equals(MessagingConstants.MQTT)) {
             eventClassName = eventClassName.replace(SLASH, DOT);
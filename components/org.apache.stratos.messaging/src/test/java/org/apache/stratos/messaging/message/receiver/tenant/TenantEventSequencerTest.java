@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.message.receiver.tenant;
+
+import org.apache.stratos.messaging.domain.tenant.Tenant;
+import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.event.initializer.CompleteTenantRequestEvent;
+import org.apache.stratos.messaging.event.tenant.TenantCreatedEvent;
+import org.apache.stratos.messaging.event.tenant.TenantEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link TenantEventSequencer} sequence tracking and snapshot requests.
+ */
+public class TenantEventSequencerTest {
+
+    private TenantManager tenantManager;
+    private List<Long> requests;
+    private List<String> requesterIds;
+    private TenantEventSequencer sequencer;
+
+    @Before
+    public void setUp() {
+        tenantManager = TenantManager.getInstance();
+        tenantManager.replaceTenants(new ArrayList<Tenant>());
+        tenantManager.setInitialized(false);
+        tenantManager.setSequenceNumber(0);
+        tenantManager.setInSync(false);
+        requests = new ArrayList<Long>();
+        requesterIds = new ArrayList<String>();
+        sequencer = createSequencer(0);
+    }
+
+    @Test
+    public void testEventsAreSkippedUntilInitialized() {
+        assertFalse(sequencer.acceptEvent(createEvent(1, 101)));
+        assertEquals(1, requests.size());
+        assertEquals(0, requests.get(0).longValue());
+    }
+
+    @Test
+    public void testEventsInSequenceAreApplied() {
+        applySnapshot(100);
+
+        assertTrue(sequencer.acceptEvent(createEvent(1, 101)));
+        assertTrue(sequencer.acceptEvent(createEvent(2, 102)));
+        assertEquals(102, tenantManager.getSequenceNumber());
+        assertTrue(tenantManager.isInSync());
+        assertTrue(requests.isEmpty());
+
+        // Duplicate events are skipped
+        assertFalse(sequencer.acceptEvent(createEvent(2, 102)));
+    }
+
+    @Test
+    public void testGapRequestsSnapshot() {
+        applySnapshot(100);
+
+        assertTrue(sequencer.acceptEvent(createEvent(1, 102)));
+        assertFalse(tenantManager.isInSync());
+        assertEquals(1, requests.size());
+        assertEquals(100, requests.get(0).longValue());
+
+        // Snapshots of any sequence number are applied while out of sync
+        assertTrue(sequencer.acceptSnapshot(100));
+        applySnapshot(102);
+        assertTrue(tenantManager.isInSync());
+        assertFalse(sequencer.acceptSnapshot(102));
+        assertTrue(sequencer.acceptSnapshot(103));
+    }
+
+    @Test
+    public void testCheckSequence() {
+        applySnapshot(100);
+
+        sequencer.checkSequence(100);
+        assertTrue(requests.isEmpty());
+
+        sequencer.checkSequence(101);
+        assertFalse(tenantManager.isInSync());
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void testUnsequencedEvents() {
+        assertTrue(sequencer.acceptSnapshot(0));
+        applySnapshot(0);
+        assertFalse(tenantManager.isInSync());
+        assertFalse(sequencer.acceptSnapshot(0));
+        assertTrue(sequencer.acceptEvent(createEvent(1, 0)));
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    public void testSnapshotRequestsAreRateLimited() {
+        TenantEventSequencer rateLimitedSequencer = createSequencer(60000);
+        rateLimitedSequencer.requestSnapshot(0);
+        rateLimitedSequencer.requestSnapshot(0);
+        assertEquals(1, requests.size());
+
+        rateLimitedSequencer.snapshotApplied(100);
+        rateLimitedSequencer.requestSnapshot(100);
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void testSnapshotIsRequiredUntilApplied() {
+        assertTrue(sequencer.isSnapshotRequired());
+        applySnapshot(100);
+        assertFalse(sequencer.isSnapshotRequired());
+
+        // A gap requests a snapshot on the reply topic of the sequencer
+        sequencer.acceptEvent(createEvent(1, 102));
+        assertTrue(sequencer.isSnapshotRequired());
+        assertEquals(sequencer.getRequesterId(), requesterIds.get(0));
+        applySnapshot(102);
+        assertFalse(sequencer.isSnapshotRequired());
+    }
+
+    private void applySnapshot(long sequenceNumber) {
+        tenantManager.setInitialized(true);
+        sequencer.snapshotApplied(sequenceNumber);
+    }
+
+    private TenantEvent createEvent(int tenantId, long sequenceNumber) {
+        TenantEvent event = new TenantCreatedEvent(new Tenant(tenantId, "tenant-" + tenantId + ".com"));
+        event.setSequenceNumber(sequenceNumber);
+        return event;
+    }
+
+    private TenantEventSequencer createSequencer(long snapshotRequestInterval) {
+        return new TenantEventSequencer(tenantManager, snapshotRequestInterval) {
+            @Override
+            protected void publish(Event event) {
+                requests.add(((CompleteTenantRequestEvent) event).getLastSequenceNumber());
+                requesterIds.add(((CompleteTenantRequestEvent) event).getRequesterId());
+            }
+        };
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.test;
+
+import org.apache.stratos.messaging.message.receiver.application.ApplicationVersionTracker;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Application version tracker test.
+ */
+public class ApplicationVersionTrackerTest {
+
+    @Test
+    public void testApplicationUpdated() {
+        long version1 = ApplicationVersionTracker.getVersion("version-app-1");
+        long version2 = ApplicationVersionTracker.getVersion("version-app-2");
+
+        ApplicationVersionTracker.applicationUpdated("version-app-1");
+        assertTrue(ApplicationVersionTracker.getVersion("version-app-1") > version1);
+        assertEquals(version2, ApplicationVersionTracker.getVersion("version-app-2"));
+    }
+
+    @Test
+    public void testTopologyUpdated() {
+        ApplicationVersionTracker.applicationUpdated("version-app-3");
+        long version3 = ApplicationVersionTracker.getVersion("version-app-3");
+        long version4 = ApplicationVersionTracker.getVersion("version-app-4");
+
+        ApplicationVersionTracker.topologyUpdated();
+        assertTrue(ApplicationVersionTracker.getVersion("version-app-3") > version3);
+        assertTrue(ApplicationVersionTracker.getVersion("version-app-4") > version4);
+
+        long version = ApplicationVersionTracker.getVersion("version-app-3");
+        ApplicationVersionTracker.applicationsUpdated();
+        assertTrue(ApplicationVersionTracker.getVersion("version-app-3") > version);
+    }
+
+    @Test
+    public void testApplicationRemoved() {
+        ApplicationVersionTracker.applicationUpdated("version-app-5");
+        long version5 = ApplicationVersionTracker.getVersion("version-app-5");
+        long version6 = ApplicationVersionTracker.getVersion("version-app-6");
+
+        // A removed application does not fall back to an older version
+        ApplicationVersionTracker.applicationRemoved("version-app-5");
+        assertTrue(ApplicationVersionTracker.getVersion("version-app-5") > version5);
+        assertTrue(ApplicationVersionTracker.getVersion("version-app-6") > version6);
+    }
+}
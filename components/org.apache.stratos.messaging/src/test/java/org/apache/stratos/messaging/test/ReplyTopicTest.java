@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.test;
+
+import org.apache.stratos.messaging.domain.Message;
+import org.apache.stratos.messaging.domain.tenant.Tenant;
+import org.apache.stratos.messaging.event.tenant.CompleteTenantEvent;
+import org.apache.stratos.messaging.util.MessagingConstants;
+import org.apache.stratos.messaging.util.MessagingUtil;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Reply topic test.
+ */
+public class ReplyTopicTest {
+
+    @After
+    public void tearDown() {
+        System.clearProperty(MessagingConstants.MESSAGING_TRANSPORT);
+    }
+
+    @Test
+    public void testMqttReplyTopic() {
+        System.setProperty(MessagingConstants.MESSAGING_TRANSPORT, MessagingConstants.MQTT);
+        String requesterId = MessagingUtil.createRequesterId();
+        CompleteTenantEvent event = new CompleteTenantEvent(new ArrayList<Tenant>());
+        String topicName = MessagingUtil.getReplyTopicName(event, requesterId);
+
+        assertEquals("reply/" + requesterId + "/tenant/CompleteTenantEvent", topicName);
+        assertEquals("reply/" + requesterId + "/#", MessagingUtil.getReplyTopicName(requesterId));
+        assertEquals(CompleteTenantEvent.class.getName(), new Message(topicName, "{}").getEventClassName());
+    }
+
+    @Test
+    public void testAmqpReplyTopic() {
+        System.setProperty(MessagingConstants.MESSAGING_TRANSPORT, MessagingConstants.AMQP);
+        String requesterId = MessagingUtil.createRequesterId();
+        CompleteTenantEvent event = new CompleteTenantEvent(new ArrayList<Tenant>());
+        String topicName = MessagingUtil.getReplyTopicName(event, requesterId);
+
+        assertEquals("reply." + requesterId + ".tenant.CompleteTenantEvent", topicName);
+        assertEquals("reply." + requesterId + ".>", MessagingUtil.getReplyTopicName(requesterId));
+        assertEquals(CompleteTenantEvent.class.getName(), new Message(topicName, "{}").getEventClassName());
+    }
+}
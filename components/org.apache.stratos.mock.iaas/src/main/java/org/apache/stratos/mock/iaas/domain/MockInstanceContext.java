@@ -40,6 +40,7 @@ public class MockInstanceContext implements Serializable {
     private String defaultPrivateIP;
     private String defaultPublicIP;
     private String instanceId;
+    private boolean standby;
 
     public MockInstanceContext() {
     }
@@ -138,4 +139,15 @@ public class MockInstanceContext implements Serializable {
     public void setInstanceId(String instanceId) {
         this.instanceId = instanceId;
     }
+
+    /**
+     * @return true if the instance is a standby instance waiting to be assigned to a member
+     */
+    public boolean isStandby() {
+        return standby;
+    }
+
+    public void setStandby(boolean standby) {
+        this.standby = standby;
+    }
 }
@@ -23,7 +23,11 @@ package org.apache.stratos.mock.iaas.services.impl;
  * Mock constant definitions.
  */
 public class MockConstants {
-    public static final int MOCK_MEMBER_THREAD_POOL_SIZE = 100;
-    public static final String MOCK_MEMBER_THREAD_POOL = "mock.member.thread.pool";
+    public static final int MOCK_MEMBER_THREAD_POOL_SIZE = 10;
+    public static final String MOCK_MEMBER_THREAD_POOL = "mock.member.scheduler.thread.pool";
     public static final String PERSISTENCE_MANAGER_TYPE = "persistence.manager.type";
+    public static final String MOCK_MEMBER_STARTUP_TIME = "mock.member.startup.time";
+    public static final String MOCK_MEMBER_ACTIVATION_TIME = "mock.member.activation.time";
+    public static final String MOCK_INSTANCE_CREATION_TIME = "mock.iaas.instance.creation.time";
+    public static final String MOCK_HEALTH_STATISTICS_NOTIFIER_ENABLED = "mock.iaas.health.statistics.notifier.enabled";
 }
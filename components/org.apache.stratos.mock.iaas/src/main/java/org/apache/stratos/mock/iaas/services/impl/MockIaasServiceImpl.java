@@ -21,7 +21,6 @@ package org.apache.stratos.mock.iaas.services.impl;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.stratos.common.threading.StratosThreadPool;
 import org.apache.stratos.mock.iaas.domain.MockInstanceContext;
 import org.apache.stratos.mock.iaas.domain.MockInstanceMetadata;
 import org.apache.stratos.mock.iaas.exceptions.MockIaasException;
@@ -37,26 +36,28 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
 
 /**
  * Mock IaaS service implementation. This is a singleton class that simulates a standard Infrastructure as a Service
  * platform by creating mock instances and managing their lifecycle states.
  * <p/>
  * How does this work:
- * - Mock IaaS starts a Mock Member thread or each instance created
+ * - Mock IaaS starts a Mock Member state machine for each instance created, state transitions are scheduled
+ *   on a shared scheduler
  * - A sample private IP and a public IP will be assigned to the instance
- * - Mock Member will publish Instance Started and Instance Activated events once the thread is started
- * - Afterwards it will start publishing sample health statistics values to CEP
- * - If the Mock IaaS was asked to terminate an instance it will stop the relevant thread
+ * - Mock Member will publish Instance Started and Instance Activated events once it is started
+ * - Standby instances of warm pools wait until they are assigned to a member via the instance notifier topic
+ * - Afterwards sample health statistics values of all active members are published to CEP periodically,
+ *   unless the mock.iaas.health.statistics.notifier.enabled system property is set to false
+ * - Instance creation, startup and activation times can be set in milliseconds using the
+ *   mock.iaas.instance.creation.time, mock.member.startup.time and mock.member.activation.time system properties
+ * - If the Mock IaaS was asked to terminate an instance it will stop the relevant state machine
  */
 public class MockIaasServiceImpl implements MockIaasService {
 
     private static final Log log = LogFactory.getLog(MockIaasServiceImpl.class);
+    private static final long INSTANCE_CREATION_TIME = Long.getLong(MockConstants.MOCK_INSTANCE_CREATION_TIME, 2000);
 
-    private static final ExecutorService mockMemberExecutorService =
-            StratosThreadPool.getExecutorService(MockConstants.MOCK_MEMBER_THREAD_POOL,
-                    MockConstants.MOCK_MEMBER_THREAD_POOL_SIZE);
     private static volatile MockIaasServiceImpl instance;
 
     private PersistenceManager persistenceManager;
@@ -107,19 +108,20 @@ public class MockIaasServiceImpl implements MockIaasService {
 
             MockInstance mockInstance = new MockInstance(mockInstanceContext);
             instanceIdToMockInstanceMap.put(instanceId, mockInstance);
-            mockMemberExecutorService.submit(mockInstance);
+            mockInstance.start();
 
             // Persist changes
-            mockIaasServiceUtil.persistInRegistry((ConcurrentHashMap<String, MockInstance>) instanceIdToMockInstanceMap);
+            mockIaasServiceUtil.schedulePersistInRegistry(
+                    (ConcurrentHashMap<String, MockInstance>) instanceIdToMockInstanceMap);
 
             String serviceName = mockInstanceContext.getServiceName();
             MockHealthStatisticsGenerator.getInstance().scheduleStatisticsUpdaterTasks(serviceName);
+        }
 
-            // Simulate instance creation time
-            sleep(2000);
+        // Simulate instance creation time without blocking other instance creations
+        sleep(INSTANCE_CREATION_TIME);
 
-            return new MockInstanceMetadata(mockInstanceContext);
-        }
+        return new MockInstanceMetadata(mockInstanceContext);
     }
 
     /**
@@ -127,7 +129,7 @@ public class MockIaasServiceImpl implements MockIaasService {
      *
      * @param time time in milliseconds
      */
-    private void sleep(int time) {
+    private void sleep(long time) {
         try {
             Thread.sleep(time);
         } catch (InterruptedException ignore) {
@@ -181,7 +183,8 @@ public class MockIaasServiceImpl implements MockIaasService {
         MockInstanceContext mockInstanceContext = mockInstance.getMockInstanceContext();
         mockInstanceContext.setDefaultPrivateIP(MockIPAddressPool.getInstance().getNextPrivateIpAddress());
         mockInstanceContext.setDefaultPublicIP(MockIPAddressPool.getInstance().getNextPublicIpAddress());
-        mockIaasServiceUtil.persistInRegistry((ConcurrentHashMap<String, MockInstance>) instanceIdToMockInstanceMap);
+        mockIaasServiceUtil.schedulePersistInRegistry(
+                (ConcurrentHashMap<String, MockInstance>) instanceIdToMockInstanceMap);
 
         return new MockInstanceMetadata(mockInstanceContext);
     }
@@ -202,7 +205,8 @@ public class MockIaasServiceImpl implements MockIaasService {
 
                 mockInstance.terminate();
                 instanceIdToMockInstanceMap.remove(instanceId);
-                mockIaasServiceUtil.persistInRegistry((ConcurrentHashMap<String, MockInstance>) instanceIdToMockInstanceMap);
+                mockIaasServiceUtil.schedulePersistInRegistry(
+                        (ConcurrentHashMap<String, MockInstance>) instanceIdToMockInstanceMap);
 
                 if (getMemberCount(serviceName) == 0) {
                     MockHealthStatisticsGenerator.getInstance().stopStatisticsUpdaterTasks(serviceName);
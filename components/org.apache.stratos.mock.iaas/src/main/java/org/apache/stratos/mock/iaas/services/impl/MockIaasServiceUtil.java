@@ -30,7 +30,9 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Mock iaas service util.
@@ -39,11 +41,34 @@ public class MockIaasServiceUtil {
 
     private static final Log log = LogFactory.getLog(MockIaasServiceUtil.class);
     private static final String MOCK_IAAS_MEMBERS = "/mock.iaas/instances";
+    private static final long PERSISTENCE_DELAY = 1000; // 1 second
+    private static final ScheduledExecutorService persistenceExecutorService =
+            StratosThreadPool.getScheduledExecutorService("mock.iaas.persistence.thread.pool", 1);
 
     private PersistenceManager persistenceManager;
+    private final AtomicBoolean persistenceScheduled;
 
     public MockIaasServiceUtil(PersistenceManager persistenceManager) {
         this.persistenceManager = persistenceManager;
+        this.persistenceScheduled = new AtomicBoolean();
+    }
+
+    /**
+     * Schedule persisting mock instances in registry. Changes made within the persistence delay are
+     * written using a single registry update.
+     *
+     * @param instanceIdToMockMemberMap mock instances to be persisted
+     */
+    public void schedulePersistInRegistry(final ConcurrentHashMap<String, MockInstance> instanceIdToMockMemberMap) {
+        if (persistenceScheduled.compareAndSet(false, true)) {
+            persistenceExecutorService.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    persistenceScheduled.set(false);
+                    persistInRegistry(instanceIdToMockMemberMap);
+                }
+            }, PERSISTENCE_DELAY, TimeUnit.MILLISECONDS);
+        }
     }
 
     public void persistInRegistry(ConcurrentHashMap<String, MockInstance> instanceIdToMockMemberMap) {
@@ -60,16 +85,12 @@ public class MockIaasServiceUtil {
 
     public void startInstancesPersisted() throws RegistryException {
         Map<String, MockInstance> instanceIdToMockMemberMap = readFromRegistry();
-        ExecutorService mockMemberExecutorService =
-                StratosThreadPool.getExecutorService(MockConstants.MOCK_MEMBER_THREAD_POOL,
-                        MockConstants.MOCK_MEMBER_THREAD_POOL_SIZE);
-
         if (instanceIdToMockMemberMap != null) {
             log.info("Starting mock instances persisted...");
 
             Set<String> serviceNameSet = new HashSet<String>();
             for (MockInstance mockInstance : instanceIdToMockMemberMap.values()) {
-                mockMemberExecutorService.submit(mockInstance);
+                mockInstance.start();
 
                 // Schedule statistics updater tasks for service
                 String serviceName = mockInstance.getMockInstanceContext().getServiceName();
@@ -22,154 +22,181 @@ package org.apache.stratos.mock.iaas.services.impl;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.common.threading.StratosThreadPool;
-import org.apache.stratos.messaging.event.Event;
-import org.apache.stratos.messaging.event.instance.notifier.InstanceCleanupClusterEvent;
-import org.apache.stratos.messaging.event.instance.notifier.InstanceCleanupMemberEvent;
-import org.apache.stratos.messaging.listener.instance.notifier.InstanceCleanupClusterEventListener;
-import org.apache.stratos.messaging.listener.instance.notifier.InstanceCleanupMemberEventListener;
-import org.apache.stratos.messaging.message.receiver.instance.notifier.InstanceNotifierEventReceiver;
+import org.apache.stratos.messaging.event.instance.notifier.StandbyInstanceAssignedEvent;
 import org.apache.stratos.mock.iaas.domain.MockInstanceContext;
 import org.apache.stratos.mock.iaas.event.publisher.MockMemberEventPublisher;
 import org.apache.stratos.mock.iaas.statistics.publisher.MockHealthStatisticsNotifier;
 
 import java.io.Serializable;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Mock member definition.
+ * Mock member definition. The lifecycle of a mock member is simulated as a state machine whose transitions are
+ * scheduled on a shared scheduler, therefore mock members do not require dedicated threads.
  */
-public class MockInstance implements Runnable, Serializable {
+public class MockInstance implements Serializable {
 
     private static final Log log = LogFactory.getLog(MockInstance.class);
-    private static final ExecutorService eventListenerExecutorService =
-            StratosThreadPool.getExecutorService("mock.iaas.event.listener.thread.pool", 20);
-    private static final ScheduledExecutorService healthStatNotifierExecutorService =
-            StratosThreadPool.getScheduledExecutorService("mock.iaas.health.statistics.notifier.thread.pool", 20);
+    private static final ScheduledExecutorService scheduler =
+            StratosThreadPool.getScheduledExecutorService(MockConstants.MOCK_MEMBER_THREAD_POOL,
+                    MockConstants.MOCK_MEMBER_THREAD_POOL_SIZE);
+    private static volatile MockHealthStatisticsNotifier healthStatisticsNotifier;
     private static final int HEALTH_STAT_INTERVAL = 15; // 15 seconds
+    private static final long STARTUP_TIME = Long.getLong(MockConstants.MOCK_MEMBER_STARTUP_TIME, 5000);
+    private static final long ACTIVATION_TIME = Long.getLong(MockConstants.MOCK_MEMBER_ACTIVATION_TIME, 5000);
+    private static final boolean HEALTH_STATISTICS_NOTIFIER_ENABLED = Boolean.parseBoolean(
+            System.getProperty(MockConstants.MOCK_HEALTH_STATISTICS_NOTIFIER_ENABLED, "true"));
+    private static final long SHUTDOWN_TIME = 2000;
+
+    /**
+     * Mock member states. Standby instances of warm pools stay in the standby state after the startup time until
+     * they are assigned to a member.
+     */
+    private enum State {
+        Created, Standby, Started, Active, MaintenanceMode, ReadyToShutdown, Terminated
+    }
 
     private final MockInstanceContext mockMemberContext;
-    private boolean terminated;
-    private transient ScheduledFuture<?> healthStatNotifierScheduledFuture;
-    private transient InstanceNotifierEventReceiver instanceNotifierEventReceiver;
+    private transient State state;
+    private transient ScheduledFuture<?> transitionFuture;
 
     public MockInstance(MockInstanceContext mockMemberContext) {
         this.mockMemberContext = mockMemberContext;
     }
 
-    @Override
-    public void run() {
+    /**
+     * Start simulating the mock member lifecycle. Instance started and instance activated events are published
+     * after the startup and activation times, afterwards health statistics are published periodically until
+     * the mock member is terminated.
+     */
+    public synchronized void start() {
         if (log.isInfoEnabled()) {
             log.info(String.format("Mock member started: [member-id] %s", mockMemberContext.getMemberId()));
         }
-
-        sleep(5000);
-        MockMemberEventPublisher.publishInstanceStartedEvent(mockMemberContext);
-
-        sleep(5000);
-        MockMemberEventPublisher.publishInstanceActivatedEvent(mockMemberContext);
-
-        startInstanceNotifierReceiver();
-        startHealthStatisticsPublisher();
-
-        while (!terminated) {
-            sleep(1000);
-        }
-
-        stopInstanceNotifierReceiver();
-        stopHealthStatisticsPublisher();
-
-        if (log.isInfoEnabled()) {
-            log.info(String.format("Mock member terminated: [member-id] %s", mockMemberContext.getMemberId()));
+        state = State.Created;
+        if (mockMemberContext.isStandby()) {
+            // Register right away, the standby instance may be assigned before it is booted
+            MockInstanceNotifierEventDispatcher.getInstance().addStandbyMockInstance(this);
         }
+        scheduleTransition(STARTUP_TIME);
     }
 
-    private void startInstanceNotifierReceiver() {
-        if (log.isDebugEnabled()) {
-            log.debug("Starting instance notifier event message receiver");
-        }
-
-        instanceNotifierEventReceiver = new InstanceNotifierEventReceiver();
-        instanceNotifierEventReceiver.addEventListener(new InstanceCleanupClusterEventListener() {
+    private void scheduleTransition(long delay) {
+        transitionFuture = scheduler.schedule(new Runnable() {
             @Override
-            protected void onEvent(Event event) {
-                InstanceCleanupClusterEvent instanceCleanupClusterEvent = (InstanceCleanupClusterEvent) event;
-                if (mockMemberContext.getClusterId().equals(instanceCleanupClusterEvent.getClusterId()) &&
-                        mockMemberContext.getClusterInstanceId().equals(
-                                instanceCleanupClusterEvent.getClusterInstanceId())) {
-                    handleMemberTermination();
+            public void run() {
+                try {
+                    transition();
+                } catch (Exception e) {
+                    log.error(String.format("Could not change mock member state: [member-id] %s",
+                            mockMemberContext.getMemberId()), e);
                 }
             }
-        });
+        }, delay, TimeUnit.MILLISECONDS);
+    }
 
-        instanceNotifierEventReceiver.addEventListener(new InstanceCleanupMemberEventListener() {
-            @Override
-            protected void onEvent(Event event) {
-                InstanceCleanupMemberEvent instanceCleanupMemberEvent = (InstanceCleanupMemberEvent) event;
-                if (mockMemberContext.getMemberId().equals(instanceCleanupMemberEvent.getMemberId())) {
-                    handleMemberTermination();
+    private synchronized void transition() {
+        switch (state) {
+            case Created:
+                if (mockMemberContext.isStandby()) {
+                    state = State.Standby;
+                    break;
                 }
-            }
-        });
-
-        eventListenerExecutorService.submit(new Runnable() {
-            @Override
-            public void run() {
-                instanceNotifierEventReceiver.execute();
-            }
-        });
-
-        if (log.isDebugEnabled()) {
-            log.debug("Instance notifier event message receiver started");
+                MockMemberEventPublisher.publishInstanceStartedEvent(mockMemberContext);
+                state = State.Started;
+                scheduleTransition(ACTIVATION_TIME);
+                break;
+            case Started:
+                MockMemberEventPublisher.publishInstanceActivatedEvent(mockMemberContext);
+                state = State.Active;
+                MockInstanceNotifierEventDispatcher.getInstance().addMockInstance(this);
+                if (HEALTH_STATISTICS_NOTIFIER_ENABLED) {
+                    getHealthStatisticsNotifier().addMember(mockMemberContext);
+                }
+                break;
+            case MaintenanceMode:
+                MockMemberEventPublisher.publishInstanceReadyToShutdownEvent(mockMemberContext);
+                state = State.ReadyToShutdown;
+                break;
+            default:
+                break;
         }
     }
 
-    private void handleMemberTermination() {
-        MockMemberEventPublisher.publishMaintenanceModeEvent(mockMemberContext);
-        sleep(2000);
-        MockMemberEventPublisher.publishInstanceReadyToShutdownEvent(mockMemberContext);
-    }
-
-    private void startHealthStatisticsPublisher() {
-        if (log.isDebugEnabled()) {
-            log.debug(String.format("Starting health statistics notifier: [member-id] %s", mockMemberContext.getMemberId()));
+    /**
+     * Invoked when this standby instance is assigned to a member. The instance takes over the identity of the member,
+     * a booted standby instance publishes the instance started event right away.
+     *
+     * @param event standby instance assigned event
+     */
+    synchronized void handleStandbyInstanceAssigned(StandbyInstanceAssignedEvent event) {
+        if (!mockMemberContext.isStandby() || (state == State.Terminated)) {
+            return;
         }
+        mockMemberContext.setApplicationId(event.getApplicationId());
+        mockMemberContext.setClusterId(event.getClusterId());
+        mockMemberContext.setClusterInstanceId(event.getClusterInstanceId());
+        mockMemberContext.setMemberId(event.getMemberId());
+        mockMemberContext.setStandby(false);
 
-        healthStatNotifierScheduledFuture = healthStatNotifierExecutorService.scheduleAtFixedRate(new MockHealthStatisticsNotifier(mockMemberContext),
-                0, HEALTH_STAT_INTERVAL, TimeUnit.SECONDS);
-
-        if (log.isDebugEnabled()) {
-            log.debug(String.format("Health statistics notifier started: [member-id] %s", mockMemberContext.getMemberId()));
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Mock standby member assigned: [standby-member-id] %s [member-id] %s",
+                    event.getStandbyMemberId(), event.getMemberId()));
         }
-    }
-
-    private void stopHealthStatisticsPublisher() {
-        if (healthStatNotifierScheduledFuture != null) {
-            healthStatNotifierScheduledFuture.cancel(true);
+        if (state == State.Standby) {
+            state = State.Created;
+            scheduleTransition(0);
         }
     }
 
-    private void stopInstanceNotifierReceiver() {
-        if (instanceNotifierEventReceiver != null) {
-            instanceNotifierEventReceiver.terminate();
+    /**
+     * Invoked when an instance cleanup event is received for this mock member.
+     */
+    synchronized void handleMemberTermination() {
+        if (state != State.Active) {
+            return;
         }
+        MockMemberEventPublisher.publishMaintenanceModeEvent(mockMemberContext);
+        state = State.MaintenanceMode;
+        scheduleTransition(SHUTDOWN_TIME);
     }
 
-    private void sleep(long time) {
-        try {
-            Thread.sleep(time);
-        } catch (InterruptedException ignore) {
-            terminate();
+    /**
+     * Returns the health statistics notifier shared by all mock members, publishing statistics of all active
+     * mock members in each round.
+     */
+    private static MockHealthStatisticsNotifier getHealthStatisticsNotifier() {
+        if (healthStatisticsNotifier == null) {
+            synchronized (MockInstance.class) {
+                if (healthStatisticsNotifier == null) {
+                    MockHealthStatisticsNotifier notifier = new MockHealthStatisticsNotifier();
+                    scheduler.scheduleAtFixedRate(notifier, 0, HEALTH_STAT_INTERVAL, TimeUnit.SECONDS);
+                    healthStatisticsNotifier = notifier;
+                }
+            }
         }
+        return healthStatisticsNotifier;
     }
 
     public MockInstanceContext getMockInstanceContext() {
         return mockMemberContext;
     }
 
-    public void terminate() {
-        terminated = true;
+    public synchronized void terminate() {
+        state = State.Terminated;
+        if (transitionFuture != null) {
+            transitionFuture.cancel(false);
+        }
+        MockInstanceNotifierEventDispatcher.getInstance().removeMockInstance(this);
+        MockInstanceNotifierEventDispatcher.getInstance().removeStandbyMockInstance(this);
+        if (healthStatisticsNotifier != null) {
+            healthStatisticsNotifier.removeMember(mockMemberContext.getMemberId());
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Mock member terminated: [member-id] %s", mockMemberContext.getMemberId()));
+        }
     }
 }
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.mock.iaas.services.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.threading.StratosThreadPool;
+import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.event.instance.notifier.InstanceCleanupClusterEvent;
+import org.apache.stratos.messaging.event.instance.notifier.InstanceCleanupMemberEvent;
+import org.apache.stratos.messaging.event.instance.notifier.StandbyInstanceAssignedEvent;
+import org.apache.stratos.messaging.listener.instance.notifier.InstanceCleanupClusterEventListener;
+import org.apache.stratos.messaging.listener.instance.notifier.InstanceCleanupMemberEventListener;
+import org.apache.stratos.messaging.listener.instance.notifier.StandbyInstanceAssignedEventListener;
+import org.apache.stratos.messaging.message.receiver.instance.notifier.InstanceNotifierEventReceiver;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Receives instance notifier events using a single subscription for all mock members and dispatches them to the
+ * relevant mock members by member id and cluster id.
+ */
+public class MockInstanceNotifierEventDispatcher {
+
+    private static final Log log = LogFactory.getLog(MockInstanceNotifierEventDispatcher.class);
+    private static final ExecutorService eventListenerExecutorService =
+            StratosThreadPool.getExecutorService("mock.iaas.event.listener.thread.pool", 1);
+
+    private static volatile MockInstanceNotifierEventDispatcher instance;
+
+    private final Map<String, MockInstance> memberIdToMockInstanceMap;
+    // Map<ClusterId, Map<MemberId, MockInstance>>
+    private final Map<String, Map<String, MockInstance>> clusterIdToMockInstancesMap;
+    // Map<StandbyMemberId, MockInstance>
+    private final Map<String, MockInstance> standbyMemberIdToMockInstanceMap;
+    private InstanceNotifierEventReceiver instanceNotifierEventReceiver;
+
+    private MockInstanceNotifierEventDispatcher() {
+        memberIdToMockInstanceMap = new ConcurrentHashMap<String, MockInstance>();
+        clusterIdToMockInstancesMap = new ConcurrentHashMap<String, Map<String, MockInstance>>();
+        standbyMemberIdToMockInstanceMap = new ConcurrentHashMap<String, MockInstance>();
+    }
+
+    public static MockInstanceNotifierEventDispatcher getInstance() {
+        if (instance == null) {
+            synchronized (MockInstanceNotifierEventDispatcher.class) {
+                if (instance == null) {
+                    instance = new MockInstanceNotifierEventDispatcher();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Start dispatching instance notifier events to the given mock member.
+     *
+     * @param mockInstance mock member
+     */
+    public void addMockInstance(MockInstance mockInstance) {
+        startInstanceNotifierReceiver();
+
+        String memberId = mockInstance.getMockInstanceContext().getMemberId();
+        String clusterId = mockInstance.getMockInstanceContext().getClusterId();
+        memberIdToMockInstanceMap.put(memberId, mockInstance);
+        synchronized (clusterIdToMockInstancesMap) {
+            Map<String, MockInstance> mockInstances = clusterIdToMockInstancesMap.get(clusterId);
+            if (mockInstances == null) {
+                mockInstances = new ConcurrentHashMap<String, MockInstance>();
+                clusterIdToMockInstancesMap.put(clusterId, mockInstances);
+            }
+            mockInstances.put(memberId, mockInstance);
+        }
+    }
+
+    /**
+     * Stop dispatching instance notifier events to the given mock member.
+     *
+     * @param mockInstance mock member
+     */
+    public void removeMockInstance(MockInstance mockInstance) {
+        String memberId = mockInstance.getMockInstanceContext().getMemberId();
+        String clusterId = mockInstance.getMockInstanceContext().getClusterId();
+        memberIdToMockInstanceMap.remove(memberId);
+        synchronized (clusterIdToMockInstancesMap) {
+            Map<String, MockInstance> mockInstances = clusterIdToMockInstancesMap.get(clusterId);
+            if (mockInstances != null) {
+                mockInstances.remove(memberId);
+                if (mockInstances.isEmpty()) {
+                    clusterIdToMockInstancesMap.remove(clusterId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Start dispatching standby instance assigned events to the given standby mock member.
+     *
+     * @param mockInstance standby mock member
+     */
+    public void addStandbyMockInstance(MockInstance mockInstance) {
+        startInstanceNotifierReceiver();
+        standbyMemberIdToMockInstanceMap.put(mockInstance.getMockInstanceContext().getMemberId(), mockInstance);
+    }
+
+    /**
+     * Stop dispatching standby instance assigned events to the given mock member.
+     *
+     * @param mockInstance mock member
+     */
+    public void removeStandbyMockInstance(MockInstance mockInstance) {
+        standbyMemberIdToMockInstanceMap.values().remove(mockInstance);
+    }
+
+    public int getMockInstanceCount() {
+        return memberIdToMockInstanceMap.size();
+    }
+
+    private synchronized void startInstanceNotifierReceiver() {
+        if (instanceNotifierEventReceiver != null) {
+            return;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Starting instance notifier event message receiver");
+        }
+
+        instanceNotifierEventReceiver = new InstanceNotifierEventReceiver();
+        instanceNotifierEventReceiver.addEventListener(new InstanceCleanupClusterEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                InstanceCleanupClusterEvent instanceCleanupClusterEvent = (InstanceCleanupClusterEvent) event;
+                Map<String, MockInstance> mockInstances = clusterIdToMockInstancesMap.get(
+                        instanceCleanupClusterEvent.getClusterId());
+                if (mockInstances != null) {
+                    dispatchClusterCleanup(mockInstances.values(), instanceCleanupClusterEvent.getClusterInstanceId());
+                }
+            }
+        });
+
+        instanceNotifierEventReceiver.addEventListener(new InstanceCleanupMemberEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                InstanceCleanupMemberEvent instanceCleanupMemberEvent = (InstanceCleanupMemberEvent) event;
+                MockInstance mockInstance = memberIdToMockInstanceMap.get(instanceCleanupMemberEvent.getMemberId());
+                if (mockInstance != null) {
+                    mockInstance.handleMemberTermination();
+                }
+            }
+        });
+
+        instanceNotifierEventReceiver.addEventListener(new StandbyInstanceAssignedEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                StandbyInstanceAssignedEvent standbyInstanceAssignedEvent = (StandbyInstanceAssignedEvent) event;
+                MockInstance mockInstance = standbyMemberIdToMockInstanceMap.remove(
+                        standbyInstanceAssignedEvent.getStandbyMemberId());
+                if (mockInstance != null) {
+                    mockInstance.handleStandbyInstanceAssigned(standbyInstanceAssignedEvent);
+                }
+            }
+        });
+
+        eventListenerExecutorService.submit(new Runnable() {
+            @Override
+            public void run() {
+                instanceNotifierEventReceiver.execute();
+            }
+        });
+
+        if (log.isDebugEnabled()) {
+            log.debug("Instance notifier event message receiver started");
+        }
+    }
+
+    private void dispatchClusterCleanup(Collection<MockInstance> mockInstances, String clusterInstanceId) {
+        for (MockInstance mockInstance : mockInstances) {
+            if (mockInstance.getMockInstanceContext().getClusterInstanceId().equals(clusterInstanceId)) {
+                mockInstance.handleMemberTermination();
+            }
+        }
+    }
+}
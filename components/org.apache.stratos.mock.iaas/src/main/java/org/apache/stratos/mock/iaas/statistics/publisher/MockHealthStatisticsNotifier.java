@@ -27,8 +27,16 @@ import org.apache.stratos.mock.iaas.exceptions.NoStatisticsFoundException;
 import org.apache.stratos.mock.iaas.services.impl.MockScalingFactor;
 import org.apache.stratos.mock.iaas.statistics.MockHealthStatistics;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
- * Health statistics notifier thread for publishing statistics periodically to CEP.
+ * Health statistics notifier for publishing statistics of all active mock members periodically to CEP.
+ * Statistics are generated per service, hence they are read once per service in each round and the
+ * requests in flight count is published once per cluster instance.
  */
 public class MockHealthStatisticsNotifier implements Runnable {
     private static final Log log = LogFactory.getLog(MockHealthStatisticsNotifier.class);
@@ -36,23 +44,54 @@ public class MockHealthStatisticsNotifier implements Runnable {
     public static final String MEMORY_CONSUMPTION = "memory_consumption";
     public static final String LOAD_AVERAGE = "load_average";
 
-    private final MockInstanceContext mockMemberContext;
     private final HealthStatisticsPublisher healthStatisticsPublisher;
     private final InFlightRequestPublisher inFlightRequestPublisher;
+    private final Map<String, MockInstanceContext> memberIdToMockMemberContextMap;
+
+    public MockHealthStatisticsNotifier() {
+        this(HealthStatisticsPublisherFactory.createHealthStatisticsPublisher(StatisticsPublisherType.WSO2CEP),
+                InFlightRequestPublisherFactory.createInFlightRequestPublisher(StatisticsPublisherType.WSO2CEP));
+    }
 
-    public MockHealthStatisticsNotifier(MockInstanceContext mockMemberContext) {
-        this.mockMemberContext = mockMemberContext;
-        this.healthStatisticsPublisher = HealthStatisticsPublisherFactory.createHealthStatisticsPublisher(
-                StatisticsPublisherType.WSO2CEP);
+    public MockHealthStatisticsNotifier(HealthStatisticsPublisher healthStatisticsPublisher,
+                                        InFlightRequestPublisher inFlightRequestPublisher) {
+        this.healthStatisticsPublisher = healthStatisticsPublisher;
         this.healthStatisticsPublisher.setEnabled(true);
 
-        this.inFlightRequestPublisher = InFlightRequestPublisherFactory.createInFlightRequestPublisher(
-                StatisticsPublisherType.WSO2CEP);
+        this.inFlightRequestPublisher = inFlightRequestPublisher;
         this.inFlightRequestPublisher.setEnabled(true);
+
+        this.memberIdToMockMemberContextMap = new ConcurrentHashMap<String, MockInstanceContext>();
+    }
+
+    /**
+     * Start publishing health statistics of the given mock member.
+     *
+     * @param mockMemberContext mock member context
+     */
+    public void addMember(MockInstanceContext mockMemberContext) {
+        memberIdToMockMemberContextMap.put(mockMemberContext.getMemberId(), mockMemberContext);
+    }
+
+    /**
+     * Stop publishing health statistics of the given mock member.
+     *
+     * @param memberId member id
+     */
+    public void removeMember(String memberId) {
+        memberIdToMockMemberContextMap.remove(memberId);
+    }
+
+    public int getMemberCount() {
+        return memberIdToMockMemberContextMap.size();
     }
 
     @Override
     public void run() {
+        if (memberIdToMockMemberContextMap.isEmpty()) {
+            return;
+        }
+
         if (!healthStatisticsPublisher.isEnabled()) {
             if (log.isWarnEnabled()) {
                 log.warn("Statistics publisher is disabled");
@@ -60,71 +99,109 @@ public class MockHealthStatisticsNotifier implements Runnable {
             return;
         }
 
-        try {
-            double memoryConsumption = MockHealthStatistics.getInstance().getStatistics(
-                    mockMemberContext.getServiceName(), MockScalingFactor.MemoryConsumption);
+        Map<String, Integer> memoryConsumptionMap = new HashMap<String, Integer>();
+        Map<String, Integer> loadAverageMap = new HashMap<String, Integer>();
+        Map<String, Integer> requestsInFlightMap = new HashMap<String, Integer>();
+        Set<String> clusterInstancesPublished = new HashSet<String>();
 
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Publishing memory consumption: [member-id] %s [value] %f",
-                        mockMemberContext.getMemberId(), memoryConsumption));
-            }
-            healthStatisticsPublisher.publish(
-                    mockMemberContext.getClusterId(),
-                    mockMemberContext.getClusterInstanceId(),
-                    mockMemberContext.getNetworkPartitionId(),
-                    mockMemberContext.getMemberId(),
-                    mockMemberContext.getPartitionId(),
-                    MEMORY_CONSUMPTION,
-                    memoryConsumption
-            );
-        } catch (NoStatisticsFoundException ignore) {
-        } catch (Exception e) {
-            if (log.isErrorEnabled()) {
-                log.error("Could not publish health statistic: memory consumption", e);
+        for (MockInstanceContext mockMemberContext : memberIdToMockMemberContextMap.values()) {
+            String serviceName = mockMemberContext.getServiceName();
+
+            try {
+                Integer memoryConsumption = getStatistics(memoryConsumptionMap, serviceName,
+                        MockScalingFactor.MemoryConsumption);
+                if (memoryConsumption != null) {
+                    if (log.isDebugEnabled()) {
+                        log.debug(String.format("Publishing memory consumption: [member-id] %s [value] %d",
+                                mockMemberContext.getMemberId(), memoryConsumption));
+                    }
+                    healthStatisticsPublisher.publish(
+                            mockMemberContext.getClusterId(),
+                            mockMemberContext.getClusterInstanceId(),
+                            mockMemberContext.getNetworkPartitionId(),
+                            mockMemberContext.getMemberId(),
+                            mockMemberContext.getPartitionId(),
+                            MEMORY_CONSUMPTION,
+                            memoryConsumption
+                    );
+                }
+            } catch (Exception e) {
+                if (log.isErrorEnabled()) {
+                    log.error("Could not publish health statistic: memory consumption", e);
+                }
             }
-        }
 
+            try {
+                Integer loadAverage = getStatistics(loadAverageMap, serviceName, MockScalingFactor.LoadAverage);
+                if (loadAverage != null) {
+                    if (log.isDebugEnabled()) {
+                        log.debug(String.format("Publishing load average: [member-id] %s [value] %d",
+                                mockMemberContext.getMemberId(), loadAverage));
+                    }
+                    healthStatisticsPublisher.publish(
+                            mockMemberContext.getClusterId(),
+                            mockMemberContext.getClusterInstanceId(),
+                            mockMemberContext.getNetworkPartitionId(),
+                            mockMemberContext.getMemberId(),
+                            mockMemberContext.getPartitionId(),
+                            LOAD_AVERAGE,
+                            loadAverage
+                    );
+                }
+            } catch (Exception e) {
+                if (log.isErrorEnabled()) {
+                    log.error("Could not publish health statistic: load average", e);
+                }
+            }
 
-        try {
-            double loadAvereage = MockHealthStatistics.getInstance().getStatistics(
-                    mockMemberContext.getServiceName(), MockScalingFactor.LoadAverage);
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Publishing load average: [member-id] %s [value] %f",
-                        mockMemberContext.getMemberId(), loadAvereage));
+            // Requests in flight is a cluster level statistic, publish it once per cluster instance
+            String clusterInstanceKey = mockMemberContext.getClusterId() + "/" +
+                    mockMemberContext.getClusterInstanceId() + "/" + mockMemberContext.getNetworkPartitionId();
+            if (!clusterInstancesPublished.add(clusterInstanceKey)) {
+                continue;
             }
-            healthStatisticsPublisher.publish(
-                    mockMemberContext.getClusterId(),
-                    mockMemberContext.getClusterInstanceId(),
-                    mockMemberContext.getNetworkPartitionId(),
-                    mockMemberContext.getMemberId(),
-                    mockMemberContext.getPartitionId(),
-                    LOAD_AVERAGE,
-                    loadAvereage
-            );
-        } catch (NoStatisticsFoundException ignore) {
-        } catch (Exception e) {
-            if (log.isErrorEnabled()) {
-                log.error("Could not publish health statistic: load average", e);
+
+            try {
+                Integer requestsInFlight = getStatistics(requestsInFlightMap, serviceName,
+                        MockScalingFactor.RequestsInFlight);
+                if (requestsInFlight != null) {
+                    if (log.isDebugEnabled()) {
+                        log.debug(String.format("Publishing requests in flight: [cluster-id] %s [value] %d",
+                                mockMemberContext.getClusterId(), requestsInFlight));
+                    }
+                    inFlightRequestPublisher.publish(
+                            mockMemberContext.getClusterId(),
+                            mockMemberContext.getClusterInstanceId(),
+                            mockMemberContext.getNetworkPartitionId(),
+                            requestsInFlight);
+                }
+            } catch (Exception e) {
+                if (log.isErrorEnabled()) {
+                    log.error("Could not publish health statistic: requests in flight", e);
+                }
             }
         }
+    }
+
+    /**
+     * Returns the statistics value of a service for the current round, reading it from mock health statistics
+     * only once per service.
+     *
+     * @return statistics value or null if no statistics found
+     */
+    private Integer getStatistics(Map<String, Integer> serviceNameToValueMap, String serviceName,
+                                  MockScalingFactor scalingFactor) {
+        if (serviceNameToValueMap.containsKey(serviceName)) {
+            return serviceNameToValueMap.get(serviceName);
+        }
 
+        Integer value;
         try {
-            int requestsInFlight = MockHealthStatistics.getInstance().getStatistics(
-                    mockMemberContext.getServiceName(), MockScalingFactor.RequestsInFlight);
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Publishing requests in flight: [member-id] %s [value] %f",
-                        mockMemberContext.getMemberId(), requestsInFlight));
-            }
-            inFlightRequestPublisher.publish(
-                    mockMemberContext.getClusterId(),
-                    mockMemberContext.getClusterInstanceId(),
-                    mockMemberContext.getNetworkPartitionId(),
-                    requestsInFlight);
+            value = MockHealthStatistics.getInstance().getStatistics(serviceName, scalingFactor);
         } catch (NoStatisticsFoundException ignore) {
-        } catch (Exception e) {
-            if (log.isErrorEnabled()) {
-                log.error("Could not publish health statistic: requests in flight", e);
-            }
+            value = null;
         }
+        serviceNameToValueMap.put(serviceName, value);
+        return value;
     }
 }
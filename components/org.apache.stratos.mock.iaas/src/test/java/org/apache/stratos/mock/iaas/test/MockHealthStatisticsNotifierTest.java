@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.mock.iaas.test;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.statistics.publisher.HealthStatisticsPublisher;
+import org.apache.stratos.common.statistics.publisher.InFlightRequestPublisher;
+import org.apache.stratos.mock.iaas.domain.MockInstanceContext;
+import org.apache.stratos.mock.iaas.services.impl.MockScalingFactor;
+import org.apache.stratos.mock.iaas.statistics.MockHealthStatistics;
+import org.apache.stratos.mock.iaas.statistics.publisher.MockHealthStatisticsNotifier;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Mock health statistics notifier scale test.
+ */
+public class MockHealthStatisticsNotifierTest {
+
+    private static final Log log = LogFactory.getLog(MockHealthStatisticsNotifierTest.class);
+
+    private static final int MEMBER_COUNT = 10000;
+    private static final int SERVICE_COUNT = 100;
+
+    @Test
+    public void testPublishTenThousandMembers() {
+        for (int i = 0; i < SERVICE_COUNT; i++) {
+            String serviceName = "scale-service-" + i;
+            MockHealthStatistics.getInstance().addStatistics(serviceName, MockScalingFactor.MemoryConsumption, 40);
+            MockHealthStatistics.getInstance().addStatistics(serviceName, MockScalingFactor.LoadAverage, 20);
+            MockHealthStatistics.getInstance().addStatistics(serviceName, MockScalingFactor.RequestsInFlight, 10);
+        }
+
+        CountingHealthStatisticsPublisher healthStatisticsPublisher = new CountingHealthStatisticsPublisher();
+        CountingInFlightRequestPublisher inFlightRequestPublisher = new CountingInFlightRequestPublisher();
+        MockHealthStatisticsNotifier notifier = new MockHealthStatisticsNotifier(healthStatisticsPublisher,
+                inFlightRequestPublisher);
+
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            int service = i % SERVICE_COUNT;
+            notifier.addMember(new MockInstanceContext("scale-app", "scale-service-" + service,
+                    "scale-cluster-" + service, "scale-member-" + i, "scale-cluster-instance-1", "network-p1", "p1"));
+        }
+        assertEquals(MEMBER_COUNT, notifier.getMemberCount());
+
+        long startTime = System.currentTimeMillis();
+        notifier.run();
+        long elapsedTime = System.currentTimeMillis() - startTime;
+
+        // Memory consumption and load average per member, requests in flight per cluster instance
+        int healthStatisticsCount = MEMBER_COUNT * 2;
+        assertEquals(healthStatisticsCount, healthStatisticsPublisher.events);
+        assertEquals(SERVICE_COUNT, inFlightRequestPublisher.events);
+
+        log.info(String.format("Published mock health statistics: [members] %d [events] %d [elapsed-time] %d ms",
+                MEMBER_COUNT, healthStatisticsPublisher.events + inFlightRequestPublisher.events, elapsedTime));
+    }
+
+    private static class CountingPublisher {
+        boolean enabled;
+        int events;
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void publish(Object[] payload) {
+            events++;
+        }
+    }
+
+    private static class CountingHealthStatisticsPublisher extends CountingPublisher
+            implements HealthStatisticsPublisher {
+
+        @Override
+        public void publish(String clusterId, String clusterInstanceId, String networkPartitionId,
+                            String memberId, String partitionId, String health, double value) {
+            publish(new Object[]{clusterId, clusterInstanceId, networkPartitionId, memberId, partitionId,
+                    health, value});
+        }
+    }
+
+    private static class CountingInFlightRequestPublisher extends CountingPublisher
+            implements InFlightRequestPublisher {
+
+        @Override
+        public void publish(String clusterId, String clusterInstanceId, String networkPartitionId,
+                            int inFlightRequestCount) {
+            publish(new Object[]{clusterId, clusterInstanceId, networkPartitionId, (double) inFlightRequestCount});
+        }
+    }
+}
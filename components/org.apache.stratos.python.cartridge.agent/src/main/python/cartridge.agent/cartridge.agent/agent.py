@@ -17,6 +17,7 @@
 # under the License.
 
 import threading
+import uuid
 
 from modules.subscriber.eventsubscriber import EventSubscriber
 from modules.publisher import cartridgeagentpublisher
@@ -39,6 +40,8 @@ class CartridgeAgent(threading.Thread):
         threading.Thread.__init__(self)
 
         self.__tenant_context_initialized = False
+        self.__complete_tenant_pages = {}
+        """ :type : dict[int, CompleteTenantEvent] """
         self.__log_publish_manager = None
         self.__terminated = False
         self.__log = LogFactory().get_log(__name__)
@@ -49,6 +52,10 @@ class CartridgeAgent(threading.Thread):
 
         self.__inst_topic_subscriber = EventSubscriber(constants.INSTANCE_NOTIFIER_TOPIC, mb_ip, mb_port)
         self.__tenant_topic_subscriber = EventSubscriber(constants.TENANT_TOPIC, mb_ip, mb_port)
+        # tenant snapshots requested by this agent are published on its reply topic only
+        self.__requester_id = uuid.uuid4().hex
+        self.__reply_topic_subscriber = EventSubscriber(constants.REPLY_TOPIC + self.__requester_id + "/#",
+                                                        mb_ip, mb_port)
         self.__app_topic_subscriber = EventSubscriber(constants.APPLICATION_SIGNUP, mb_ip, mb_port)
         self.__topology_event_subscriber = EventSubscriber(constants.TOPOLOGY_TOPIC, mb_ip, mb_port)
 
@@ -57,6 +64,12 @@ class CartridgeAgent(threading.Thread):
     def run(self):
         self.__log.info("Starting Cartridge Agent...")
 
+        # a standby instance of a warm pool takes over a member once it is assigned to it
+        if self.__config.is_standby:
+            self.wait_for_standby_instance_assignment()
+            if self.__terminated:
+                return
+
         # Start topology event receiver thread
         self.register_topology_event_listeners()
 
@@ -121,6 +134,9 @@ class CartridgeAgent(threading.Thread):
         if DataPublisherConfiguration.get_instance().enabled:
             self.__log_publish_manager.terminate_all_publishers()
 
+        # publish queued events before the agent exits
+        cartridgeagentpublisher.terminate_mb_publisher()
+
     def terminate(self):
         """
         Allows the CartridgeAgent thread to be terminated
@@ -132,27 +148,60 @@ class CartridgeAgent(threading.Thread):
     def register_instance_topic_listeners(self):
         self.__log.debug("Starting instance notifier event message receiver thread")
 
-        self.__inst_topic_subscriber.register_handler("ArtifactUpdatedEvent", self.on_artifact_updated)
-        self.__inst_topic_subscriber.register_handler("InstanceCleanupMemberEvent", self.on_instance_cleanup_member)
-        self.__inst_topic_subscriber.register_handler("InstanceCleanupClusterEvent", self.on_instance_cleanup_cluster)
-
-        self.__inst_topic_subscriber.start()
+        self.__inst_topic_subscriber.register_handler("ArtifactUpdatedEvent", self.on_artifact_updated,
+                                                      constants.ARTIFACT_EVENT_CATEGORY)
+        self.__inst_topic_subscriber.register_handler("MultiTenantArtifactUpdatedEvent",
+                                                      self.on_multi_tenant_artifact_updated,
+                                                      constants.ARTIFACT_EVENT_CATEGORY)
+        self.__inst_topic_subscriber.register_handler("InstanceCleanupMemberEvent", self.on_instance_cleanup_member,
+                                                      constants.INSTANCE_CLEANUP_EVENT_CATEGORY)
+        self.__inst_topic_subscriber.register_handler("InstanceCleanupClusterEvent", self.on_instance_cleanup_cluster,
+                                                      constants.INSTANCE_CLEANUP_EVENT_CATEGORY)
+
+        # the subscriber of a standby instance is started while waiting for the assignment
+        if not self.__inst_topic_subscriber.is_alive():
+            self.__inst_topic_subscriber.start()
         self.__log.info("Instance notifier event message receiver thread started")
 
         # wait till subscribed to continue
         while not self.__inst_topic_subscriber.is_subscribed():
             time.sleep(1)
 
+    def wait_for_standby_instance_assignment(self):
+        """
+        Waits until the standby instance assigned event of this instance is received, the launch parameters
+        are then replaced with the payload of the assigned member
+
+        :return: void
+        """
+        self.__log.info("Waiting for standby instance to be assigned: [standby-member-id] %s" % self.__config.member_id)
+
+        self.__inst_topic_subscriber.register_handler("StandbyInstanceAssignedEvent",
+                                                      self.on_standby_instance_assigned)
+        self.__inst_topic_subscriber.start()
+
+        while self.__config.is_standby and not self.__terminated:
+            time.sleep(1)
+
     def register_topology_event_listeners(self):
         self.__log.debug("Starting topology event message receiver thread")
 
-        self.__topology_event_subscriber.register_handler("MemberActivatedEvent", self.on_member_activated)
-        self.__topology_event_subscriber.register_handler("MemberTerminatedEvent", self.on_member_terminated)
-        self.__topology_event_subscriber.register_handler("MemberSuspendedEvent", self.on_member_suspended)
-        self.__topology_event_subscriber.register_handler("CompleteTopologyEvent", self.on_complete_topology)
-        self.__topology_event_subscriber.register_handler("MemberStartedEvent", self.on_member_started)
-        self.__topology_event_subscriber.register_handler("MemberCreatedEvent", self.on_member_created)
-        self.__topology_event_subscriber.register_handler("MemberInitializedEvent", self.on_member_initialized)
+        self.__topology_event_subscriber.register_handler("MemberActivatedEvent", self.on_member_activated,
+                                                          constants.MEMBER_EVENT_CATEGORY)
+        self.__topology_event_subscriber.register_handler("MemberTerminatedEvent", self.on_member_terminated,
+                                                          constants.MEMBER_EVENT_CATEGORY)
+        self.__topology_event_subscriber.register_handler("MemberSuspendedEvent", self.on_member_suspended,
+                                                          constants.MEMBER_EVENT_CATEGORY)
+        # member events received after the complete topology event are dropped unless the topology is
+        # initialized, hence the complete topology event is executed in order with the member events
+        self.__topology_event_subscriber.register_handler("CompleteTopologyEvent", self.on_complete_topology,
+                                                          constants.MEMBER_EVENT_CATEGORY)
+        self.__topology_event_subscriber.register_handler("MemberStartedEvent", self.on_member_started,
+                                                          constants.MEMBER_EVENT_CATEGORY)
+        self.__topology_event_subscriber.register_handler("MemberCreatedEvent", self.on_member_created,
+                                                          constants.MEMBER_EVENT_CATEGORY)
+        self.__topology_event_subscriber.register_handler("MemberInitializedEvent", self.on_member_initialized,
+                                                          constants.MEMBER_EVENT_CATEGORY)
 
         self.__topology_event_subscriber.start()
         self.__log.info("Cartridge agent topology receiver thread started")
@@ -164,19 +213,50 @@ class CartridgeAgent(threading.Thread):
     def register_tenant_event_listeners(self):
         self.__log.debug("Starting tenant event message receiver thread")
         self.__tenant_topic_subscriber.register_handler("DomainMappingAddedEvent",
-                                                        self.on_domain_mapping_added)
+                                                        self.on_domain_mapping_added,
+                                                        constants.DOMAIN_MAPPING_EVENT_CATEGORY)
         self.__tenant_topic_subscriber.register_handler("DomainsMappingRemovedEvent",
-                                                        self.on_domain_mapping_removed)
-        self.__tenant_topic_subscriber.register_handler("CompleteTenantEvent", self.on_complete_tenant)
-        self.__tenant_topic_subscriber.register_handler("TenantSubscribedEvent", self.on_tenant_subscribed)
+                                                        self.on_domain_mapping_removed,
+                                                        constants.DOMAIN_MAPPING_EVENT_CATEGORY)
+        self.__tenant_topic_subscriber.register_handler("CompleteTenantEvent", self.on_complete_tenant,
+                                                        constants.TENANT_EVENT_CATEGORY)
+        self.__tenant_topic_subscriber.register_handler("TenantSubscribedEvent", self.on_tenant_subscribed,
+                                                        constants.TENANT_EVENT_CATEGORY)
+
+        self.__reply_topic_subscriber.register_handler("CompleteTenantEvent", self.on_complete_tenant,
+                                                       constants.TENANT_EVENT_CATEGORY)
 
         self.__tenant_topic_subscriber.start()
+        self.__reply_topic_subscriber.start()
         self.__log.info("Tenant event message receiver thread started")
 
         # wait till subscribed to continue
-        while not self.__tenant_topic_subscriber.is_subscribed():
+        while not self.__tenant_topic_subscriber.is_subscribed() or not self.__reply_topic_subscriber.is_subscribed():
             time.sleep(1)
 
+        # complete tenant events are published on request only
+        complete_tenant_requester = threading.Thread(target=self.request_complete_tenant)
+        complete_tenant_requester.setDaemon(True)
+        complete_tenant_requester.start()
+
+    def request_complete_tenant(self):
+        """
+        Requests a tenant snapshot until the tenant context is initialized, a request or the snapshot
+        is lost if the stratos manager is not available
+
+        :return: void
+        """
+        while not self.__tenant_context_initialized and not self.__terminated:
+            try:
+                cartridgeagentpublisher.publish_complete_tenant_request_event(self.__requester_id)
+            except Exception as e:
+                self.__log.exception("Error publishing complete tenant request event: %s" % e)
+
+            for _ in range(constants.COMPLETE_TENANT_REQUEST_INTERVAL):
+                if self.__tenant_context_initialized or self.__terminated:
+                    return
+                time.sleep(1)
+
     def register_application_signup_event_listeners(self):
         self.__log.debug("Starting application signup event message receiver thread")
         self.__app_topic_subscriber.register_handler("ApplicationSignUpRemovedEvent",
@@ -193,6 +273,20 @@ class CartridgeAgent(threading.Thread):
         event_obj = ArtifactUpdatedEvent.create_from_json(msg.payload)
         self.__event_handler.on_artifact_updated_event(event_obj)
 
+    def on_multi_tenant_artifact_updated(self, msg):
+        event_obj = MultiTenantArtifactUpdatedEvent.create_from_json(msg.payload)
+        if event_obj.cluster_id != self.__config.cluster_id:
+            self.__log.debug("Multi-tenant artifact updated event is not for this cluster: [cluster] %s"
+                             % event_obj.cluster_id)
+            return
+
+        for artifact_updated_event in event_obj.create_artifact_updated_events():
+            try:
+                self.__event_handler.on_artifact_updated_event(artifact_updated_event)
+            except Exception as e:
+                self.__log.exception("Error processing artifact updated event: [tenant] %s %s"
+                                     % (artifact_updated_event.tenant_id, e))
+
     def on_instance_cleanup_member(self, msg):
         member_in_payload = self.__config.member_id
         event_obj = InstanceCleanupMemberEvent.create_from_json(msg.payload)
@@ -210,6 +304,15 @@ class CartridgeAgent(threading.Thread):
         if cluster_in_event == cluster_in_payload and instance_in_payload == instance_in_event:
             self.__event_handler.on_instance_cleanup_cluster_event()
 
+    def on_standby_instance_assigned(self, msg):
+        event_obj = StandbyInstanceAssignedEvent.create_from_json(msg.payload)
+        if not self.__config.is_standby or event_obj.standby_member_id != self.__config.member_id:
+            return
+
+        CartridgeAgentConfiguration.assign_standby_instance(event_obj.payload)
+        self.__log.info("Standby instance assigned: [standby-member-id] %s [member-id] %s [cluster-id] %s"
+                        % (event_obj.standby_member_id, event_obj.member_id, event_obj.cluster_id))
+
     def on_member_created(self, msg):
         self.__log.debug("Member created event received: %r" % msg.payload)
 
@@ -276,6 +379,10 @@ class CartridgeAgent(threading.Thread):
         if not self.__tenant_context_initialized:
             self.__log.debug("Complete tenant event received")
             event_obj = CompleteTenantEvent.create_from_json(msg.payload)
+            event_obj = self.collect_complete_tenant_pages(event_obj)
+            if event_obj is None:
+                return
+
             TenantContext.update(event_obj.tenants)
 
             self.__event_handler.on_complete_tenant_event(event_obj)
@@ -283,6 +390,40 @@ class CartridgeAgent(threading.Thread):
         else:
             self.__log.debug("Complete tenant event updating task disabled")
 
+    def collect_complete_tenant_pages(self, event_obj):
+        """
+        Collects the pages of a tenant snapshot
+        :param CompleteTenantEvent event_obj: page of the snapshot
+        :return: CompleteTenantEvent with the tenants of all pages, None until the last page is received
+        :rtype: CompleteTenantEvent
+        """
+        if event_obj.page_count <= 1:
+            return event_obj
+
+        if event_obj.page_index == 0 or \
+                any(page.sequence_number != event_obj.sequence_number for page in self.__complete_tenant_pages.values()):
+            self.__complete_tenant_pages = {}
+        self.__complete_tenant_pages[event_obj.page_index] = event_obj
+        if not event_obj.is_last_page():
+            return None
+
+        pages = self.__complete_tenant_pages
+        self.__complete_tenant_pages = {}
+        if len(pages) != event_obj.page_count:
+            self.__log.warn("Incomplete tenant snapshot received: [sequence-number] %s [page-count] %s "
+                            "[received-page-count] %s" % (event_obj.sequence_number, event_obj.page_count, len(pages)))
+            cartridgeagentpublisher.publish_complete_tenant_request_event(self.__requester_id)
+            return None
+
+        merged_event = CompleteTenantEvent()
+        merged_event.sequence_number = event_obj.sequence_number
+        merged_event.tenant_list_json = []
+        for page_index in sorted(pages.keys()):
+            merged_event.tenants.extend(pages[page_index].tenants)
+            if pages[page_index].tenant_list_json is not None:
+                merged_event.tenant_list_json.extend(pages[page_index].tenant_list_json)
+        return merged_event
+
     def on_tenant_subscribed(self, msg):
         self.__log.debug("Tenant subscribed event received: %r" % msg.payload)
         event_obj = TenantSubscribedEvent.create_from_json(msg.payload)
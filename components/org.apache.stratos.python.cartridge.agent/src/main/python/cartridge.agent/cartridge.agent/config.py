@@ -114,6 +114,20 @@ class CartridgeAgentConfiguration:
 
             self.initialized = False
             """ :type : bool """
+            self.is_standby = False
+            """ :type : bool """
+
+            if constants.STANDBY in self.__payload_params and \
+                    str(self.__payload_params[constants.STANDBY]).strip().lower() == "true":
+                # standby instances of a warm pool are started with a minimal payload until they are
+                # assigned to a member
+                self.is_standby = True
+                self.member_id = self.read_property(constants.MEMBER_ID)
+                self.network_partition_id = self.read_property(constants.NETWORK_PARTITION_ID, False)
+                self.partition_id = self.read_property(constants.PARTITION_ID, False)
+                self.log.info("Cartridge agent configuration initialized for standby instance: [member-id] %s"
+                              % self.member_id)
+                return
 
             try:
                 self.service_group = self.__payload_params[constants.SERVICE_GROUP] \
@@ -354,6 +368,23 @@ class CartridgeAgentConfiguration:
         if not CartridgeAgentConfiguration.__instance:
             CartridgeAgentConfiguration.__instance = CartridgeAgentConfiguration.__CartridgeAgentConfiguration()
 
+    @staticmethod
+    def assign_standby_instance(payload):
+        """
+        Replaces the launch parameters of a standby instance with the payload of the member it is assigned to
+        and reloads the configuration from them
+        :param str payload: payload of the member in the comma separated key=value format
+        :return: void
+        """
+        param_file = CartridgeAgentConfiguration.__instance.read_property(constants.PARAM_FILE_PATH)
+        metadata_file = open(param_file, "w")
+        try:
+            metadata_file.write(payload)
+        finally:
+            metadata_file.close()
+
+        CartridgeAgentConfiguration.__instance = CartridgeAgentConfiguration.__CartridgeAgentConfiguration()
+
     def __getattr__(self, name):
         return getattr(self.__instance, name)
 
@@ -21,6 +21,10 @@ EXTENSIONS_DIR = "extensions.dir"
 
 MB_IP = "mb.ip"
 MB_PORT = "mb.port"
+MB_PUBLISHER_QOS = "mb.publisher.qos"
+MB_PUBLISHER_QUEUE_SIZE = "mb.publisher.queue.size"
+MB_PUBLISHER_MAX_RETRIES = "mb.publisher.max.retries"
+MB_PUBLISHER_FLUSH_TIMEOUT = "mb.publisher.flush.timeout"
 
 CARTRIDGE_KEY = "CARTRIDGE_KEY"
 APPLICATION_ID = "APPLICATION_ID"
@@ -46,6 +50,7 @@ EXPORT_METADATA_KEYS = "EXPORT_METADATA_KEYS"
 IMPORT_METADATA_KEYS = "IMPORT_METADATA_KEYS"
 CARTRIDGE_ALIAS = "CARTRIDGE_ALIAS"
 TOKEN = "TOKEN"
+STANDBY = "STANDBY"
 
 # stratos.sh environment variables keys
 LOG_FILE_PATHS = "log.file.paths"
@@ -86,6 +91,9 @@ TOPOLOGY_TOPIC = "topology/#"
 TENANT_TOPIC = "tenant/#"
 INSTANCE_STATUS_TOPIC = "instance/status/"
 APPLICATION_SIGNUP = "application/signup/#"
+INITIALIZER_TOPIC = "initializer/"
+# replies to the requests of this agent are published under reply/<requester id>/
+REPLY_TOPIC = "reply/"
 
 # Messaging Model
 TENANT_RANGE_DELIMITER = "-"
@@ -100,6 +108,7 @@ INSTANCE_CLEANUP_CLUSTER_EVENT = "InstanceCleanupClusterEvent"
 INSTANCE_CLEANUP_MEMBER_EVENT = "InstanceCleanupMemberEvent"
 COMPLETE_TOPOLOGY_EVENT = "CompleteTopologyEvent"
 COMPLETE_TENANT_EVENT = "CompleteTenantEvent"
+COMPLETE_TENANT_REQUEST_EVENT = "CompleteTenantRequestEvent"
 DOMAIN_MAPPING_ADDED_EVENT = "DomainMappingAddedEvent"
 DOMAIN_MAPPING_REMOVED_EVENT = "DomainMappingRemovedEvent"
 MEMBER_INITIALIZED_EVENT = "MemberInitializedEvent"
@@ -110,12 +119,21 @@ MEMBER_STARTED_EVENT = "MemberStartedEvent"
 TENANT_SUBSCRIBED_EVENT = "TenantSubscribedEvent"
 APPLICATION_SIGNUP_REMOVAL_EVENT = "ApplicationSignUpRemovedEvent"
 
+# MB event categories, events of the same category are executed in order
+ARTIFACT_EVENT_CATEGORY = "artifact"
+INSTANCE_CLEANUP_EVENT_CATEGORY = "instance-cleanup"
+MEMBER_EVENT_CATEGORY = "member"
+DOMAIN_MAPPING_EVENT_CATEGORY = "domain-mapping"
+TENANT_EVENT_CATEGORY = "tenant"
+
 PRIMARY = "PRIMARY"
 MIN_COUNT = "MIN_COUNT"
 
 # multi tenant constants
 INVALID_TENANT_ID = "-1"
 SUPER_TENANT_ID = "-1234"
+# seconds between complete tenant request events until the tenant context is initialized
+COMPLETE_TENANT_REQUEST_INTERVAL = 10
 
 DATE_FORMAT = "%Y.%m.%d"
 
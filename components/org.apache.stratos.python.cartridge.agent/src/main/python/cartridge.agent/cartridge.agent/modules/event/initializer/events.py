@@ -0,0 +1,34 @@
+# Licensed to the Apache Software Foundation (ASF) under one
+# or more contributor license agreements.  See the NOTICE file
+# distributed with this work for additional information
+# regarding copyright ownership.  The ASF licenses this file
+# to you under the Apache License, Version 2.0 (the
+# "License"); you may not use this file except in compliance
+# with the License.  You may obtain a copy of the License at
+#
+#   http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing,
+# software distributed under the License is distributed on an
+# "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+# KIND, either express or implied.  See the License for the
+# specific language governing permissions and limitations
+# under the License.
+
+import json
+
+
+class CompleteTenantRequestEvent:
+    """
+    Requests a tenant snapshot from the stratos manager, which is published as complete tenant events
+    on the reply topic of the requester
+    """
+
+    def __init__(self, requester_id, last_sequence_number=0):
+        self.lastSequenceNumber = last_sequence_number
+        """ :type : int  """
+        self.requesterId = requester_id
+        """ :type : str  """
+
+    def to_json(self):
+        return json.dumps(self.__dict__)
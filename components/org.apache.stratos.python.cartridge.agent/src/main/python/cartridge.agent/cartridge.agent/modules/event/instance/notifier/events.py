@@ -53,6 +53,55 @@ class ArtifactUpdatedEvent:
         return instance
 
 
+class MultiTenantArtifactUpdatedEvent:
+    def __init__(self):
+        self.cluster_id = None
+        """ :type : str  """
+        self.repo_username = None
+        """ :type : str  """
+        self.repo_password = None
+        """ :type : str  """
+        self.repo_url = None
+        """ :type : str  """
+        self.tenant_ids = []
+        """ :type : list[str]  """
+        self.commit_enabled = None
+        """ :type : bool  """
+
+    def create_artifact_updated_events(self):
+        """
+        Creates an artifact updated event for each tenant of this event
+        :return: artifact updated events
+        :rtype: list[ArtifactUpdatedEvent]
+        """
+        events = []
+        for tenant_id in self.tenant_ids:
+            event = ArtifactUpdatedEvent()
+            event.cluster_id = self.cluster_id
+            event.repo_username = self.repo_username
+            event.repo_password = self.repo_password
+            event.repo_url = self.repo_url
+            event.tenant_id = tenant_id
+            event.commit_enabled = self.commit_enabled
+            events.append(event)
+
+        return events
+
+    @staticmethod
+    def create_from_json(json_str):
+        json_obj = json.loads(json_str)
+        instance = MultiTenantArtifactUpdatedEvent()
+
+        instance.cluster_id = json_obj["clusterId"] if "clusterId" in json_obj else None
+        instance.repo_username = json_obj["repoUserName"] if "repoUserName" in json_obj else None
+        instance.repo_password = json_obj["repoPassword"] if "repoPassword" in json_obj else None
+        instance.repo_url = json_obj["repoURL"] if "repoURL" in json_obj else ""
+        instance.tenant_ids = json_obj["tenantIds"] if "tenantIds" in json_obj else []
+        instance.commit_enabled = json_obj["commitEnabled"] if "commitEnabled" in json_obj else None
+
+        return instance
+
+
 class InstanceCleanupClusterEvent:
     def __init__(self, cluster_id, cluster_instance_id):
         self.cluster_id = cluster_id
@@ -79,4 +128,33 @@ class InstanceCleanupMemberEvent:
         json_obj = json.loads(json_str)
         m_id = json_obj["memberId"] if "memberId" in json_obj else None
 
-        return InstanceCleanupMemberEvent(m_id)
\ No newline at end of file
+        return InstanceCleanupMemberEvent(m_id)
+
+
+class StandbyInstanceAssignedEvent:
+    def __init__(self, standby_member_id, application_id, cluster_id, cluster_instance_id, member_id, payload):
+        self.standby_member_id = standby_member_id
+        """ :type : str  """
+        self.application_id = application_id
+        """ :type : str  """
+        self.cluster_id = cluster_id
+        """ :type : str  """
+        self.cluster_instance_id = cluster_instance_id
+        """ :type : str  """
+        self.member_id = member_id
+        """ :type : str  """
+        self.payload = payload
+        """ :type : str  """
+
+    @staticmethod
+    def create_from_json(json_str):
+        json_obj = json.loads(json_str)
+        standby_member_id = json_obj["standbyMemberId"] if "standbyMemberId" in json_obj else None
+        application_id = json_obj["applicationId"] if "applicationId" in json_obj else None
+        cluster_id = json_obj["clusterId"] if "clusterId" in json_obj else None
+        cluster_instance_id = json_obj["clusterInstanceId"] if "clusterInstanceId" in json_obj else None
+        member_id = json_obj["memberId"] if "memberId" in json_obj else None
+        payload = json_obj["payload"] if "payload" in json_obj else None
+
+        return StandbyInstanceAssignedEvent(standby_member_id, application_id, cluster_id, cluster_instance_id,
+                                            member_id, payload)
@@ -26,12 +26,24 @@ class CompleteTenantEvent:
         """ :type : list[Tenant]  """
         self.tenant_list_json = None
         """ :type : str  """
+        self.sequence_number = 0
+        """ :type : int  """
+        self.page_index = 0
+        """ :type : int  """
+        self.page_count = 1
+        """ :type : int  """
+
+    def is_last_page(self):
+        return self.page_index >= self.page_count - 1
 
     @staticmethod
     def create_from_json(json_str):
         json_obj = json.loads(json_str)
         instance = CompleteTenantEvent()
         instance.tenants = []
+        instance.sequence_number = json_obj["sequenceNumber"] if "sequenceNumber" in json_obj else 0
+        instance.page_index = json_obj["pageIndex"] if "pageIndex" in json_obj else 0
+        instance.page_count = json_obj["pageCount"] if "pageCount" in json_obj else 1
 
         tenants_str = json_obj["tenants"] if "tenants" in json_obj else None
         instance.tenant_list_json = tenants_str
@@ -15,9 +15,11 @@
 # specific language governing permissions and limitations
 # under the License.
 
-import paho.mqtt.publish as publish
+import threading
 
+from . messagebrokerpublisher import MessageBrokerPublisher
 from .. event.instance.status.events import *
+from .. event.initializer.events import *
 from .. healthstatspublisher.healthstats import *
 import constants
 from config import CartridgeAgentConfiguration
@@ -33,6 +35,10 @@ maintenance = False
 publishers = {}
 """ :type : dict[str, EventPublisher] """
 
+mb_publisher = None
+""" :type : MessageBrokerPublisher """
+mb_publisher_lock = threading.Lock()
+
 
 def publish_instance_started_event():
     global started, log
@@ -166,6 +172,14 @@ def publish_instance_ready_to_shutdown_event():
         log.warn("Instance already in a ReadyToShutDown event...")
 
 
+def publish_complete_tenant_request_event(requester_id, last_sequence_number=0):
+    log.info("Publishing complete tenant request event: [last-sequence-number] %s [requester-id] %s"
+             % (last_sequence_number, requester_id))
+    complete_tenant_request_event = CompleteTenantRequestEvent(requester_id, last_sequence_number)
+    publisher = get_publisher(constants.INITIALIZER_TOPIC + constants.COMPLETE_TENANT_REQUEST_EVENT)
+    publisher.publish(complete_tenant_request_event)
+
+
 def get_publisher(topic):
     if topic not in publishers:
         publishers[topic] = EventPublisher(topic)
@@ -173,15 +187,64 @@ def get_publisher(topic):
     return publishers[topic]
 
 
+def get_mb_publisher():
+    """
+    Returns the message broker publisher shared by all event publishers, the publisher is started on first use
+    :return: the message broker publisher
+    :rtype: MessageBrokerPublisher
+    """
+    global mb_publisher
+    with mb_publisher_lock:
+        if mb_publisher is None:
+            mb_ip = CartridgeAgentConfiguration().read_property(constants.MB_IP)
+            mb_port = int(CartridgeAgentConfiguration().read_property(constants.MB_PORT))
+            mb_publisher = MessageBrokerPublisher(
+                mb_ip,
+                mb_port,
+                qos=read_int_property(constants.MB_PUBLISHER_QOS, 0),
+                queue_size=read_int_property(constants.MB_PUBLISHER_QUEUE_SIZE, 1000),
+                max_retries=read_int_property(constants.MB_PUBLISHER_MAX_RETRIES, 5))
+            mb_publisher.start()
+            log.info("Message broker publisher started: [mb-ip] %s [mb-port] %s" % (mb_ip, mb_port))
+
+    return mb_publisher
+
+
+def terminate_mb_publisher():
+    """
+    Waits until the queued messages are published and stops the message broker publisher, invoked when the
+    cartridge agent shuts down
+    :return: void
+    """
+    with mb_publisher_lock:
+        if mb_publisher is None:
+            return
+        timeout = read_int_property(constants.MB_PUBLISHER_FLUSH_TIMEOUT, 10)
+        if not mb_publisher.flush(timeout):
+            log.warn("Queued messages were not published within %s seconds, dropping them" % timeout)
+        mb_publisher.terminate()
+        log.info("Message broker publisher terminated")
+
+
+def read_int_property(property_key, default_value):
+    value = CartridgeAgentConfiguration().read_property(property_key, False)
+    if value is None:
+        return default_value
+    try:
+        return int(value)
+    except ValueError:
+        log.warn("Invalid value for %s: %s, using %s" % (property_key, value, default_value))
+        return default_value
+
+
 class EventPublisher:
     """
-    Handles publishing events to topics to the provided message broker
+    Handles publishing events to topics to the provided message broker. Events are queued on the shared
+    message broker publisher, hence publishing does not block the caller.
     """
     def __init__(self, topic):
         self.__topic = topic
 
     def publish(self, event):
-        mb_ip = CartridgeAgentConfiguration().read_property(constants.MB_IP)
-        mb_port = CartridgeAgentConfiguration().read_property(constants.MB_PORT)
         payload = event.to_json()
-        publish.single(self.__topic, payload, hostname=mb_ip, port=mb_port)
\ No newline at end of file
+        get_mb_publisher().publish(self.__topic, payload)
\ No newline at end of file
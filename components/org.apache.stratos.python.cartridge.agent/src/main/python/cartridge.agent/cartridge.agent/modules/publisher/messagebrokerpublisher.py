@@ -0,0 +1,226 @@
+# Licensed to the Apache Software Foundation (ASF) under one
+# or more contributor license agreements.  See the NOTICE file
+# distributed with this work for additional information
+# regarding copyright ownership.  The ASF licenses this file
+# to you under the Apache License, Version 2.0 (the
+# "License"); you may not use this file except in compliance
+# with the License.  You may obtain a copy of the License at
+#
+#   http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing,
+# software distributed under the License is distributed on an
+# "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+# KIND, either express or implied.  See the License for the
+# specific language governing permissions and limitations
+# under the License.
+
+from Queue import Queue, Full, Empty
+import threading
+import time
+
+import paho.mqtt.client as mqtt
+
+from .. util.log import LogFactory
+
+
+class MessageBrokerPublisher(threading.Thread):
+    """
+    Publishes messages to the message broker over a single long lived MQTT connection shared by all topics.
+
+    Messages are added to a bounded outbound queue and sent by this thread, hence publishing never blocks the
+    caller. When the queue is full the oldest message is dropped. The paho network loop reconnects to the
+    message broker when the connection is lost. QoS 0 messages which could not be written to the connection
+    are retried up to max_retries times, QoS 1 and 2 messages are kept by paho and retransmitted after a
+    reconnect until they are acknowledged.
+    """
+
+    def __init__(self, mb_ip, mb_port, qos=0, queue_size=1000, max_retries=5, keep_alive=60, retry_interval=5):
+        threading.Thread.__init__(self)
+        self.setDaemon(True)
+        self.log = LogFactory().get_log(__name__)
+
+        self.__mb_ip = mb_ip
+        self.__mb_port = mb_port
+        self.__qos = qos
+        self.__max_retries = max_retries
+        self.__keep_alive = keep_alive
+        self.__retry_interval = retry_interval
+
+        self.__queue = Queue(maxsize=queue_size)
+        self.__connected = threading.Event()
+        self.__terminated = False
+
+        # number of messages queued or being sent, counted before a message is queued and after it is sent
+        self.__pending = 0
+        # message id -> time the message was queued, for messages not yet published
+        self.__in_flight = {}
+        # message ids published before they were added to the in flight messages
+        self.__early_published = set()
+        self.__lock = threading.Lock()
+
+        self.__connect_count = 0
+        self.__published_count = 0
+        self.__dropped_count = 0
+        self.__retried_count = 0
+        self.__total_latency = 0.0
+        self.__max_latency = 0.0
+
+        self.__mb_client = mqtt.Client()
+        self.__mb_client.on_connect = self.on_connect
+        self.__mb_client.on_disconnect = self.on_disconnect
+        self.__mb_client.on_publish = self.on_publish
+
+    def run(self):
+        if not self.__connect():
+            return
+        # The network loop reconnects whenever the connection is lost
+        self.__mb_client.loop_start()
+
+        while not self.__terminated:
+            try:
+                topic, payload, queued_time = self.__queue.get(timeout=1)
+            except Empty:
+                continue
+            try:
+                self.__send(topic, payload, queued_time)
+            finally:
+                with self.__lock:
+                    self.__pending -= 1
+
+    def publish(self, topic, payload):
+        """
+        Adds the message to the outbound queue, drops the oldest message if the queue is full.
+        :param str topic: topic to publish the message to
+        :param str payload: message payload
+        :return: void
+        """
+        message = (topic, payload, time.time())
+        with self.__lock:
+            self.__pending += 1
+        while True:
+            try:
+                self.__queue.put_nowait(message)
+                return
+            except Full:
+                try:
+                    dropped_topic = self.__queue.get_nowait()[0]
+                    with self.__lock:
+                        self.__pending -= 1
+                        self.__dropped_count += 1
+                    self.log.warn("Outbound message queue is full, dropped message to %s" % dropped_topic)
+                except Empty:
+                    pass
+
+    def flush(self, timeout):
+        """
+        Waits until all queued messages are published. A message is pending from before it is queued until it is
+        published or dropped, hence a message taken from the queue but not yet sent is waited for.
+        :param float timeout: maximum time to wait in seconds
+        :return: True if all messages were published, False otherwise
+        :rtype: bool
+        """
+        end_time = time.time() + timeout
+        while time.time() < end_time:
+            with self.__lock:
+                if self.__pending == 0 and len(self.__in_flight) == 0:
+                    return True
+            time.sleep(0.01)
+        return False
+
+    def terminate(self):
+        self.__terminated = True
+        self.__mb_client.disconnect()
+        self.__mb_client.loop_stop()
+
+    def get_statistics(self):
+        """
+        :return: connect count, published, dropped and retried message counts and the average and maximum
+        time in seconds from queueing a message until it is published
+        :rtype: dict
+        """
+        with self.__lock:
+            average_latency = self.__total_latency / self.__published_count if self.__published_count > 0 else 0.0
+            return {"connect_count": self.__connect_count,
+                    "published_count": self.__published_count,
+                    "dropped_count": self.__dropped_count,
+                    "retried_count": self.__retried_count,
+                    "queue_size": self.__queue.qsize(),
+                    "average_latency": average_latency,
+                    "max_latency": self.__max_latency}
+
+    def on_connect(self, client, userdata, flags, rc):
+        if rc == 0:
+            with self.__lock:
+                self.__connect_count += 1
+            self.log.debug("Publisher connected to message broker %s:%s" % (self.__mb_ip, self.__mb_port))
+            self.__connected.set()
+        else:
+            self.log.error("Publisher could not connect to message broker %s:%s, return code %s"
+                           % (self.__mb_ip, self.__mb_port, rc))
+
+    def on_disconnect(self, client, userdata, rc):
+        self.__connected.clear()
+        if self.__qos == 0:
+            # QoS 0 messages not yet written to the connection are discarded by paho
+            with self.__lock:
+                self.__dropped_count += len(self.__in_flight)
+                self.__in_flight.clear()
+        if rc != 0 and not self.__terminated:
+            self.log.warn("Publisher disconnected from message broker %s:%s, reconnecting"
+                          % (self.__mb_ip, self.__mb_port))
+
+    def on_publish(self, client, userdata, mid):
+        with self.__lock:
+            queued_time = self.__in_flight.pop(mid, None)
+            if queued_time is None:
+                self.__early_published.add(mid)
+            else:
+                self.__published(queued_time)
+
+    def __connect(self):
+        # paho versions differ in retrying the first connection, hence it is retried here
+        while not self.__terminated:
+            try:
+                self.__mb_client.connect(self.__mb_ip, self.__mb_port, self.__keep_alive)
+                return True
+            except Exception as e:
+                self.log.warn("Publisher could not connect to message broker %s:%s, retrying in %s seconds: %s"
+                              % (self.__mb_ip, self.__mb_port, self.__retry_interval, e))
+                time.sleep(self.__retry_interval)
+        return False
+
+    def __send(self, topic, payload, queued_time):
+        attempt = 0
+        while not self.__terminated:
+            if not self.__connected.wait(1):
+                continue
+
+            rc, mid = self.__mb_client.publish(topic, payload, self.__qos)
+            if rc == mqtt.MQTT_ERR_SUCCESS or self.__qos > 0:
+                # QoS 1 and 2 messages are kept by paho until they are acknowledged
+                with self.__lock:
+                    if mid in self.__early_published:
+                        self.__early_published.discard(mid)
+                        self.__published(queued_time)
+                    else:
+                        self.__in_flight[mid] = queued_time
+                return
+
+            attempt += 1
+            if attempt > self.__max_retries:
+                with self.__lock:
+                    self.__dropped_count += 1
+                self.log.error("Could not publish message to %s after %s attempts, return code %s"
+                               % (topic, attempt, rc))
+                return
+            with self.__lock:
+                self.__retried_count += 1
+            self.log.debug("Could not publish message to %s, retrying: [attempt] %s [return-code] %s"
+                           % (topic, attempt, rc))
+
+    def __published(self, queued_time):
+        latency = time.time() - queued_time
+        self.__published_count += 1
+        self.__total_latency += latency
+        self.__max_latency = max(self.__max_latency, latency)
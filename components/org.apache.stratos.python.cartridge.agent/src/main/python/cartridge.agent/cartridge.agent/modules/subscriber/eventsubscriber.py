@@ -52,16 +52,19 @@ class EventSubscriber(threading.Thread):
         self.__subscribed = True
         self.__mb_client.loop_forever()
 
-    def register_handler(self, event, handler):
+    def register_handler(self, event, handler, category=None):
         """
-        Adds an event handler function mapped to the provided event.
+        Adds an event handler function mapped to the provided event. Events of the same category
+        are handled in the order they are received, events of different categories are handled
+        concurrently.
         :param str event: Name of the event to attach the provided handler
         :param handler: The handler function
+        :param str category: Category of the event, events without a category share a default category
         :return: void
         :rtype: void
         """
-        self.__event_executor.register_event_handler(event, handler)
-        self.log.debug("Registered handler for event %r" % event)
+        self.__event_executor.register_event_handler(event, handler, category)
+        self.log.debug("Registered handler for event %r in category %r" % (event, category))
 
     def on_connect(self, client, userdata, flags, rc):
         self.log.debug("Connected to message broker.")
@@ -83,35 +86,86 @@ class EventSubscriber(threading.Thread):
 
 class EventExecutor(threading.Thread):
     """
-    Polls the event queue and executes event handlers for each event
+    Polls the event queue and dispatches each event to the worker of its category. Each category
+    has a worker thread executing the event handlers in the order the events were received, so
+    that a slow handler only delays the events of its own category.
     """
+
+    DEFAULT_CATEGORY = "default"
+
     def __init__(self, event_queue):
         threading.Thread.__init__(self)
         self.__event_queue = event_queue
         # TODO: several handlers for one event
         self.__event_handlers = {}
+        """ :type : dict[str, (function, str)] """
+        self.__workers = {}
+        """ :type : dict[str, EventWorker] """
+        self.__terminated = False
         self.log = LogFactory().get_log(__name__)
 
     def run(self):
-        while True:
+        while not self.__terminated:
             event_msg = self.__event_queue.get()
+            if event_msg is None:
+                break
+
             event = event_msg.topic.rpartition('/')[2]
             if event in self.__event_handlers:
-                handler = self.__event_handlers[event]
-                try:
-                    self.log.debug("Executing handler for event %r" % event)
-                    handler(event_msg)
-                except:
-                    self.log.exception("Error processing %r event" % event)
+                handler, category = self.__event_handlers[event]
+                self.get_worker(category).add_event(event, handler, event_msg)
             else:
-
                 self.log.debug("Event handler not found for event : %r" % event)
 
-    def register_event_handler(self, event, handler):
-        self.__event_handlers[event] = handler
+        for worker in self.__workers.values():
+            worker.terminate()
+
+    def register_event_handler(self, event, handler, category=None):
+        self.__event_handlers[event] = (handler, category if category is not None else self.DEFAULT_CATEGORY)
+
+    def get_worker(self, category):
+        worker = self.__workers.get(category)
+        if worker is None:
+            worker = EventWorker(category)
+            worker.start()
+            self.__workers[category] = worker
+        return worker
+
+    def terminate(self):
+        self.__terminated = True
+        self.__event_queue.put(None)
+
+
+class EventWorker(threading.Thread):
+    """
+    Executes the event handlers of one event category in the order the events were received
+    """
+
+    def __init__(self, category):
+        threading.Thread.__init__(self, name="EventWorker-%s" % category)
+        self.setDaemon(True)
+        self.__category = category
+        self.__worker_queue = Queue(maxsize=0)
+        self.log = LogFactory().get_log(__name__)
+
+    def run(self):
+        while True:
+            task = self.__worker_queue.get()
+            if task is None:
+                break
+
+            event, handler, event_msg = task
+            try:
+                self.log.debug("Executing handler for event %r" % event)
+                handler(event_msg)
+            except:
+                self.log.exception("Error processing %r event" % event)
+
+    def add_event(self, event, handler, event_msg):
+        self.__worker_queue.put((event, handler, event_msg))
 
     def terminate(self):
-        self.terminate()
+        self.__worker_queue.put(None)
 
 
 from .. util.log import LogFactory
\ No newline at end of file
@@ -0,0 +1,127 @@
+# Licensed to the Apache Software Foundation (ASF) under one
+# or more contributor license agreements.  See the NOTICE file
+# distributed with this work for additional information
+# regarding copyright ownership.  The ASF licenses this file
+# to you under the Apache License, Version 2.0 (the
+# "License"); you may not use this file except in compliance
+# with the License.  You may obtain a copy of the License at
+#
+#   http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing,
+# software distributed under the License is distributed on an
+# "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+# KIND, either express or implied.  See the License for the
+# specific language governing permissions and limitations
+# under the License.
+
+from .. cartridgeagent.modules.subscriber.eventsubscriber import EventExecutor
+from Queue import Queue
+import threading
+import time
+
+
+class EventMessage:
+    """
+    Message as delivered by the MQTT client
+    """
+
+    def __init__(self, topic, payload):
+        self.topic = topic
+        self.payload = payload
+
+
+class EventRecorder:
+    """
+    Records the handled events per category and signals once the expected number of events is handled
+    """
+
+    def __init__(self, expected_count):
+        self.expected_count = expected_count
+        self.events = {}
+        self.completed_times = {}
+        self.count = 0
+        self.lock = threading.Lock()
+        self.completed = threading.Event()
+
+    def handler(self, category, delay=0):
+        def handle(msg):
+            if delay > 0:
+                time.sleep(delay)
+            with self.lock:
+                self.events.setdefault(category, []).append(msg.payload)
+                self.completed_times[category] = time.time()
+                self.count += 1
+                if self.count == self.expected_count:
+                    self.completed.set()
+        return handle
+
+
+def create_executor(recorder, categories):
+    event_queue = Queue()
+    executor = EventExecutor(event_queue)
+    executor.daemon = True
+    executor.register_event_handler("MemberActivatedEvent", recorder.handler("member"), categories[0])
+    executor.register_event_handler("MemberTerminatedEvent", recorder.handler("member"), categories[0])
+    executor.register_event_handler("CompleteTopologyEvent", recorder.handler("complete-topology", 0.02),
+                                    categories[1])
+    executor.start()
+    return event_queue, executor
+
+
+def replay_topology_events(event_queue, count):
+    """
+    Replays the given number of topology events, every 100th event is a complete topology event
+    """
+    for i in range(count):
+        if i % 100 == 0:
+            event_queue.put(EventMessage("topology/CompleteTopologyEvent", i))
+        elif i % 2 == 0:
+            event_queue.put(EventMessage("topology/MemberActivatedEvent", i))
+        else:
+            event_queue.put(EventMessage("topology/MemberTerminatedEvent", i))
+
+
+def test_events_of_a_category_are_executed_in_order():
+    recorder = EventRecorder(10000)
+    event_queue, executor = create_executor(recorder, ["member", "complete-topology"])
+    replay_topology_events(event_queue, 10000)
+
+    assert recorder.completed.wait(60), "Events not handled. [handled] %d" % recorder.count
+    executor.terminate()
+
+    assert len(recorder.events["member"]) == 9900
+    assert len(recorder.events["complete-topology"]) == 100
+    for category in recorder.events:
+        assert recorder.events[category] == sorted(recorder.events[category]), \
+            "Events of category %s not handled in order" % category
+
+
+def test_slow_category_does_not_block_other_categories():
+    recorder = EventRecorder(10000)
+    event_queue, executor = create_executor(recorder, ["member", "complete-topology"])
+    start_time = time.time()
+    replay_topology_events(event_queue, 10000)
+
+    assert recorder.completed.wait(60), "Events not handled. [handled] %d" % recorder.count
+    executor.terminate()
+
+    member_time = recorder.completed_times["member"] - start_time
+    topology_time = recorder.completed_times["complete-topology"] - start_time
+    # 100 complete topology events take at least 2s, member events must not wait for them
+    assert topology_time >= 2
+    assert member_time < topology_time / 2, \
+        "Member events blocked by complete topology events. [member] %.3fs [complete-topology] %.3fs" % \
+        (member_time, topology_time)
+
+
+def test_events_without_category_are_executed_serially():
+    recorder = EventRecorder(1000)
+    event_queue, executor = create_executor(recorder, [None, None])
+    replay_topology_events(event_queue, 1000)
+
+    assert recorder.completed.wait(60), "Events not handled. [handled] %d" % recorder.count
+    executor.terminate()
+
+    # the last event is a member event handled after all complete topology events
+    assert recorder.completed_times["member"] >= recorder.completed_times["complete-topology"]
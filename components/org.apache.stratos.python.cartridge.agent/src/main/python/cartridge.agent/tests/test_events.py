@@ -16,6 +16,7 @@
 # under the License.
 
 from .. cartridgeagent.modules.event.topology.events import CompleteTopologyEvent
+from .. cartridgeagent.modules.event.instance.notifier.events import MultiTenantArtifactUpdatedEvent
 import pytest
 
 
@@ -122,4 +123,23 @@ def test_complete_topology_event():
     assert member.status == "Initialized",\
         "Member object not serialized properly. [status] %s " % member.status
     assert member.lb_cluster_id is None,\
-        "Member object not serialized properly. [lbClusterId] %s " % member.lb_cluster_id
\ No newline at end of file
+        "Member object not serialized properly. [lbClusterId] %s " % member.lb_cluster_id
+
+
+def test_multi_tenant_artifact_updated_event():
+    event_json = '{"clusterId": "php1.php.domain", "repoURL": "https://example.org/repo.git", ' \
+                 '"repoUserName": "user", "repoPassword": "password", "tenantIds": ["1", "2", "3"], ' \
+                 '"commitEnabled": false}'
+
+    event_object = MultiTenantArtifactUpdatedEvent.create_from_json(event_json)
+    artifact_updated_events = event_object.create_artifact_updated_events()
+
+    assert len(artifact_updated_events) == 3, \
+        "Artifact updated events not created for all tenants. Count[events] %s" % len(artifact_updated_events)
+    assert [event.tenant_id for event in artifact_updated_events] == ["1", "2", "3"], \
+        "Artifact updated events not created for the tenants of the event"
+    for event in artifact_updated_events:
+        assert event.cluster_id == "php1.php.domain" and event.repo_url == "https://example.org/repo.git" \
+            and event.repo_username == "user" and event.repo_password == "password" \
+            and not event.commit_enabled, \
+            "Artifact updated event not created properly. [tenant] %s" % event.tenant_id
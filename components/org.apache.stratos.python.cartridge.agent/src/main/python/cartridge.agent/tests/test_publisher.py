@@ -0,0 +1,207 @@
+# Licensed to the Apache Software Foundation (ASF) under one
+# or more contributor license agreements.  See the NOTICE file
+# distributed with this work for additional information
+# regarding copyright ownership.  The ASF licenses this file
+# to you under the Apache License, Version 2.0 (the
+# "License"); you may not use this file except in compliance
+# with the License.  You may obtain a copy of the License at
+#
+#   http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing,
+# software distributed under the License is distributed on an
+# "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+# KIND, either express or implied.  See the License for the
+# specific language governing permissions and limitations
+# under the License.
+
+from .. cartridgeagent.modules.publisher.messagebrokerpublisher import MessageBrokerPublisher
+import socket
+import struct
+import threading
+import time
+
+
+class MessageBrokerStandIn(threading.Thread):
+    """
+    Minimal MQTT 3.1.1 broker accepting connections and publications with QoS 0 and 1. Counts the connections
+    and records the published messages.
+    """
+
+    def __init__(self, port=0):
+        threading.Thread.__init__(self)
+        self.daemon = True
+        self.server_socket = socket.socket(socket.AF_INET, socket.SOCK_STREAM)
+        self.server_socket.setsockopt(socket.SOL_SOCKET, socket.SO_REUSEADDR, 1)
+        self.server_socket.bind(("127.0.0.1", port))
+        self.server_socket.listen(100)
+        self.port = self.server_socket.getsockname()[1]
+        self.connect_count = 0
+        self.messages = []
+        self.connections = []
+        self.lock = threading.Lock()
+        self.running = True
+
+    def run(self):
+        while self.running:
+            try:
+                connection, address = self.server_socket.accept()
+            except socket.error:
+                return
+            with self.lock:
+                self.connections.append(connection)
+            handler = threading.Thread(target=self.handle, args=(connection,))
+            handler.daemon = True
+            handler.start()
+
+    def handle(self, connection):
+        try:
+            while True:
+                header = self.read(connection, 1)[0]
+                length = self.read_length(connection)
+                body = self.read(connection, length)
+                packet_type = header >> 4
+                if packet_type == 1:
+                    with self.lock:
+                        self.connect_count += 1
+                    connection.sendall(bytearray([0x20, 2, 0, 0]))
+                elif packet_type == 3:
+                    qos = (header >> 1) & 3
+                    topic_length = struct.unpack("!H", bytes(body[0:2]))[0]
+                    topic = body[2:2 + topic_length].decode("utf-8")
+                    offset = 2 + topic_length
+                    if qos > 0:
+                        connection.sendall(bytearray([0x40, 2]) + body[offset:offset + 2])
+                        offset += 2
+                    with self.lock:
+                        self.messages.append((topic, body[offset:].decode("utf-8")))
+                elif packet_type == 12:
+                    connection.sendall(bytearray([0xd0, 0]))
+                elif packet_type == 14:
+                    break
+        except (socket.error, IndexError):
+            pass
+        finally:
+            connection.close()
+
+    def read(self, connection, length):
+        data = bytearray()
+        while len(data) < length:
+            chunk = connection.recv(length - len(data))
+            if not chunk:
+                raise socket.error("Connection closed")
+            data += bytearray(chunk)
+        return data
+
+    def read_length(self, connection):
+        length = 0
+        multiplier = 1
+        while True:
+            digit = self.read(connection, 1)[0]
+            length += (digit & 127) * multiplier
+            multiplier *= 128
+            if digit & 128 == 0:
+                return length
+
+    def drop_connections(self):
+        with self.lock:
+            for connection in self.connections:
+                try:
+                    connection.shutdown(socket.SHUT_RDWR)
+                except socket.error:
+                    pass
+            self.connections = []
+
+    def stop(self):
+        self.running = False
+        self.drop_connections()
+        self.server_socket.close()
+
+
+def wait_for(condition, timeout=10):
+    end_time = time.time() + timeout
+    while time.time() < end_time:
+        if condition():
+            return True
+        time.sleep(0.01)
+    return False
+
+
+def test_single_connection_for_all_topics():
+    broker = MessageBrokerStandIn()
+    broker.start()
+    publisher = MessageBrokerPublisher("127.0.0.1", broker.port)
+    publisher.start()
+    try:
+        for i in range(100):
+            publisher.publish("instance/status/Event%d" % (i % 4), '{"index": %d}' % i)
+
+        assert publisher.flush(10), "Queued messages were not published"
+        assert wait_for(lambda: len(broker.messages) == 100), "Messages were not received by the broker"
+        assert broker.connect_count == 1, "Publisher connected %d times" % broker.connect_count
+        assert [message[1] for message in broker.messages] == ['{"index": %d}' % i for i in range(100)]
+        assert publisher.get_statistics()["published_count"] == 100
+    finally:
+        publisher.terminate()
+        broker.stop()
+
+
+def test_reconnect_after_connection_loss():
+    broker = MessageBrokerStandIn()
+    broker.start()
+    publisher = MessageBrokerPublisher("127.0.0.1", broker.port, qos=1)
+    publisher.start()
+    try:
+        publisher.publish("instance/status/InstanceStartedEvent", "started")
+        assert publisher.flush(10)
+
+        broker.drop_connections()
+        publisher.publish("instance/status/InstanceActivatedEvent", "activated")
+        assert publisher.flush(10), "Message was not published after reconnecting"
+        assert wait_for(lambda: "activated" in [message[1] for message in broker.messages])
+        assert broker.connect_count == 2, "Publisher connected %d times" % broker.connect_count
+    finally:
+        publisher.terminate()
+        broker.stop()
+
+
+def test_bounded_queue_drops_oldest_messages():
+    broker = MessageBrokerStandIn()
+    port = broker.port
+    broker.stop()
+
+    # The message broker is not available, messages stay in the queue
+    publisher = MessageBrokerPublisher("127.0.0.1", port, queue_size=10, retry_interval=0.1)
+    publisher.start()
+    try:
+        start_time = time.time()
+        for i in range(20):
+            publisher.publish("instance/status/Event", str(i))
+        assert time.time() - start_time < 1, "Publishing blocked the caller"
+        assert publisher.get_statistics()["dropped_count"] == 10
+
+        broker = MessageBrokerStandIn(port)
+        broker.start()
+        assert publisher.flush(10)
+        assert wait_for(lambda: len(broker.messages) == 10)
+        assert [message[1] for message in broker.messages] == [str(i) for i in range(10, 20)]
+    finally:
+        publisher.terminate()
+        broker.stop()
+
+
+def test_flush_waits_for_messages_being_sent():
+    broker = MessageBrokerStandIn()
+    broker.start()
+    publisher = MessageBrokerPublisher("127.0.0.1", broker.port, qos=1)
+    publisher.start()
+    try:
+        # A message taken from the queue but not yet sent is still pending, flush returns after it is published
+        for i in range(200):
+            publisher.publish("instance/status/Event", str(i))
+            assert publisher.flush(10), "Message %d was not published" % i
+            assert publisher.get_statistics()["published_count"] == i + 1, "Flush returned before message %d " \
+                                                                             "was published" % i
+    finally:
+        publisher.terminate()
+        broker.stop()
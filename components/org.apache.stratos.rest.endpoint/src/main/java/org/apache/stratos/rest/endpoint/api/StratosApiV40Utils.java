@@ -365,27 +365,11 @@ public class StratosApiV40Utils {
         try {
             Pattern searchPattern = getSearchStringPattern(cartridgeSearchString);
 
-            String[] availableCartridges = CloudControllerServiceClient.getInstance().getRegisteredCartridges();
-
-            if (availableCartridges != null) {
-                for (String cartridgeType : availableCartridges) {
-                    Cartridge cartridgeInfo = null;
-                    try {
-                        cartridgeInfo = CloudControllerServiceClient.getInstance().getCartridge(cartridgeType);
-                    } catch (Exception e) {
-                        if (log.isWarnEnabled()) {
-                            log.warn("Error when calling getCartridgeInfo for " + cartridgeType + ", Error: "
-                                    + e.getMessage());
-                        }
-                    }
-                    if (cartridgeInfo == null) {
-                        // This cannot happen. But continue
-                        if (log.isDebugEnabled()) {
-                            log.debug("Cartridge Info not found: " + cartridgeType);
-                        }
-                        continue;
-                    }
+            // Fetch all cartridges in a single call instead of one call per cartridge type
+            Cartridge[] availableCartridges = CloudControllerServiceClient.getInstance().getAllCartridges();
 
+            if (availableCartridges.length > 0) {
+                for (Cartridge cartridgeInfo : availableCartridges) {
                     if (multiTenant != null && !multiTenant && cartridgeInfo.getMultiTenant()) {
                         // Need only Single-Tenant cartridges
                         continue;
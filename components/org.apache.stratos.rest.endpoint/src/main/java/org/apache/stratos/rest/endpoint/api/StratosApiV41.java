@@ -56,7 +56,9 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 import java.net.URI;
@@ -1262,8 +1264,10 @@ public class StratosApiV41 extends AbstractApi {
      * Application details, top level cluster details, details of the group and sub groups.
      *
      * @param applicationId Id of the application.
-     * @return Json representing the application details with 200 as HTTP status. HTTP 404 is returned when there is
-     * no application with given Id.
+     * @param request       request carrying the If-None-Match header of pollers.
+     * @return Json representing the application details with 200 as HTTP status and the version of the runtime as
+     * ETag. HTTP 304 is returned when the ETag given in If-None-Match is still current. HTTP 404 is returned when
+     * there is no application with given Id.
      * @throws RestAPIException is thrown in case of failure occurs.
      */
     @GET
@@ -1271,15 +1275,22 @@ public class StratosApiV41 extends AbstractApi {
     @Consumes("application/json")
     @AuthorizationAction("/permission/admin/stratos/applications/view")
     public Response getApplicationRuntime(
-            @PathParam("applicationId") String applicationId) throws RestAPIException {
+            @PathParam("applicationId") String applicationId, @Context Request request) throws RestAPIException {
 
+        // Pollers sending the entity tag of the current version get 304 without the runtime being converted
+        String version = StratosApiV41Utils.getApplicationRuntimeVersion(applicationId);
+        EntityTag entityTag = new EntityTag(version);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            return notModified.tag(entityTag).build();
+        }
 
-        ApplicationInfoBean applicationRuntime = StratosApiV41Utils.getApplicationRuntime(applicationId);
+        ApplicationInfoBean applicationRuntime = StratosApiV41Utils.getApplicationRuntime(applicationId, version);
         if (applicationRuntime == null) {
             return Response.status(Response.Status.NOT_FOUND).entity(new ResponseMessageBean(
                     ResponseMessageBean.ERROR, "Application runtime not found")).build();
         } else {
-            return Response.ok().entity(applicationRuntime).build();
+            return Response.ok().tag(entityTag).entity(applicationRuntime).build();
         }
     }
 
@@ -70,10 +70,12 @@ import org.apache.stratos.manager.user.management.TenantUserRoleManager;
 import org.apache.stratos.manager.user.management.exception.UserManagerException;
 import org.apache.stratos.manager.utils.ApplicationManagementUtil;
 import org.apache.stratos.messaging.domain.application.Application;
+import org.apache.stratos.messaging.domain.application.Applications;
 import org.apache.stratos.messaging.domain.application.ClusterDataHolder;
 import org.apache.stratos.messaging.domain.application.Group;
 import org.apache.stratos.messaging.domain.topology.Cluster;
 import org.apache.stratos.messaging.message.receiver.application.ApplicationManager;
+import org.apache.stratos.messaging.message.receiver.application.ApplicationVersionTracker;
 import org.apache.stratos.messaging.message.receiver.topology.TopologyManager;
 import org.apache.stratos.rest.endpoint.Constants;
 import org.apache.stratos.rest.endpoint.ServiceHolder;
@@ -97,6 +99,7 @@ import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 import java.rmi.RemoteException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 
@@ -107,6 +110,10 @@ public class StratosApiV41Utils {
 
     private static final Log log = LogFactory.getLog(StratosApiV41Utils.class);
 
+    // application id: converted application runtime of the last version requested
+    private static final ConcurrentMap<String, VersionedApplicationRuntime> applicationRuntimes =
+            new ConcurrentHashMap<String, VersionedApplicationRuntime>();
+
     /**
      * Add New Cartridge
      *
@@ -352,27 +359,11 @@ public class StratosApiV41Utils {
         }
 
         try {
-            String[] availableCartridges = CloudControllerServiceClient.getInstance().getRegisteredCartridges();
-
-            if (availableCartridges != null) {
-                for (String cartridgeType : availableCartridges) {
-                    Cartridge cartridgeInfo = null;
-                    try {
-                        cartridgeInfo = CloudControllerServiceClient.getInstance().getCartridge(cartridgeType);
-                    } catch (Exception e) {
-                        if (log.isWarnEnabled()) {
-                            log.warn("Error when calling getCartridgeInfo for " + cartridgeType + ", Error: "
-                                    + e.getMessage());
-                        }
-                    }
-                    if (cartridgeInfo == null) {
-                        // This cannot happen. But continue
-                        if (log.isDebugEnabled()) {
-                            log.debug("Cartridge Info not found: " + cartridgeType);
-                        }
-                        continue;
-                    }
+            // Fetch all cartridges in a single call instead of one call per cartridge type
+            Cartridge[] availableCartridges = CloudControllerServiceClient.getInstance().getAllCartridges();
 
+            if (availableCartridges.length > 0) {
+                for (Cartridge cartridgeInfo : availableCartridges) {
 
                     if (!cartridgeInfo.getProvider().equals(provider)) {
                         continue;
@@ -421,27 +412,11 @@ public class StratosApiV41Utils {
         try {
             Pattern searchPattern = getSearchStringPattern(cartridgeSearchString);
 
-            String[] availableCartridges = CloudControllerServiceClient.getInstance().getRegisteredCartridges();
-
-            if (availableCartridges != null) {
-                for (String cartridgeType : availableCartridges) {
-                    Cartridge cartridgeInfo = null;
-                    try {
-                        cartridgeInfo = CloudControllerServiceClient.getInstance().getCartridge(cartridgeType);
-                    } catch (Exception e) {
-                        if (log.isWarnEnabled()) {
-                            log.warn("Error when calling getCartridgeInfo for " + cartridgeType + ", Error: "
-                                    + e.getMessage());
-                        }
-                    }
-                    if (cartridgeInfo == null) {
-                        // This cannot happen. But continue
-                        if (log.isDebugEnabled()) {
-                            log.debug("Cartridge Info not found: " + cartridgeType);
-                        }
-                        continue;
-                    }
+            // Fetch all cartridges in a single call instead of one call per cartridge type
+            Cartridge[] availableCartridges = CloudControllerServiceClient.getInstance().getAllCartridges();
 
+            if (availableCartridges.length > 0) {
+                for (Cartridge cartridgeInfo : availableCartridges) {
                     if (multiTenant != null && !multiTenant && cartridgeInfo.getMultiTenant()) {
                         // Need only Single-Tenant cartridges
                         continue;
@@ -966,21 +941,27 @@ public class StratosApiV41Utils {
         CloudControllerServiceClient ccServiceClient = getCloudControllerServiceClient();
 
         cartridgeNames = new String[cartridgeTypes.size()];
+        Set<String> deployedCartridgeTypes = new HashSet<String>();
+        try {
+            // Fetch the cartridges of the group in a single call
+            for (Cartridge cartridge : ccServiceClient.getCartridges(
+                    cartridgeTypes.toArray(new String[cartridgeTypes.size()]))) {
+                deployedCartridgeTypes.add(cartridge.getType());
+            }
+        } catch (RemoteException e) {
+            String message = "Could not add the cartridge group: " + serviceGroupDefinition.getName();
+            log.error(message, e);
+            throw new RestAPIException(message, e);
+        }
         int j = 0;
         for (String cartridgeType : cartridgeTypes) {
-            try {
-                if (ccServiceClient.getCartridge(cartridgeType) == null) {
-                    // cartridge is not deployed, can't continue
-                    log.error("Invalid cartridge found in cartridge group " + cartridgeType);
-                    throw new InvalidCartridgeException();
-                } else {
-                    cartridgeNames[j] = cartridgeType;
-                    j++;
-                }
-            } catch (RemoteException e) {
-                String message = "Could not add the cartridge group: " + serviceGroupDefinition.getName();
-                log.error(message, e);
-                throw new RestAPIException(message, e);
+            if (!deployedCartridgeTypes.contains(cartridgeType)) {
+                // cartridge is not deployed, can't continue
+                log.error("Invalid cartridge found in cartridge group " + cartridgeType);
+                throw new InvalidCartridgeException();
+            } else {
+                cartridgeNames[j] = cartridgeType;
+                j++;
             }
         }
 
@@ -1784,6 +1765,7 @@ public class StratosApiV41Utils {
             ApplicationBean application = ObjectConverter.convertStubApplicationContextToApplicationDefinition(
                     asApplication);
             asServiceClient.deleteApplication(applicationId);
+            applicationRuntimes.remove(applicationId);
 
             List<String> usedCartridges = new ArrayList<String>();
             List<String> usedCartridgeGroups = new ArrayList<String>();
@@ -1890,50 +1872,124 @@ public class StratosApiV41Utils {
      */
     public static ApplicationInfoBean getApplicationRuntime(String applicationId)
             throws RestAPIException {
-        ApplicationInfoBean applicationBean = null;
-        ApplicationContext applicationContext = null;
-        //Checking whether application is in deployed mode
-        try {
-            applicationContext = getAutoscalerServiceClient().
-                    getApplication(applicationId);
-        } catch (RemoteException e) {
-            String message = "Could not get application definition: [application-id] " + applicationId;
-            log.error(message, e);
-            throw new RestAPIException(message, e);
+        return getApplicationRuntime(applicationId, getApplicationRuntimeVersion(applicationId));
+    }
 
-        } catch (RestAPIException e) {
-            String message = "Could not get application definition: [application-id] " + applicationId;
-            log.error(message, e);
-            throw new RestAPIException(message, e);
+    /**
+     * Get the version of the application runtime, the version changes whenever the application or
+     * the topology of its clusters is updated. The runtime of an application without instances
+     * depends on its deployment status in the autoscaler, hence the status is part of the version
+     * of such applications.
+     *
+     * @param applicationId Application Id
+     * @return version of the application runtime
+     */
+    public static String getApplicationRuntimeVersion(String applicationId) throws RestAPIException {
+        long version = ApplicationVersionTracker.getVersion(applicationId);
+        boolean hasInstances;
+        try {
+            ApplicationManager.acquireReadLockForApplication(applicationId);
+            Application application = ApplicationManager.getApplications().getApplication(applicationId);
+            if (application == null) {
+                return String.valueOf(version);
+            }
+            hasInstances = (application.getInstanceContextCount() > 0);
+        } finally {
+            ApplicationManager.releaseReadLockForApplication(applicationId);
+        }
+        if (hasInstances) {
+            return String.valueOf(version);
+        }
+        return version + "-" + (isApplicationDeployed(applicationId) ? APPLICATION_STATUS_DEPLOYED : "Undeployed");
+    }
 
+    /**
+     * Get Application Runtime of the given version. The converted application runtime is cached
+     * per version, hence the application tree is only walked again once the application or the
+     * topology of its clusters is updated.
+     *
+     * @param applicationId Application Id
+     * @param version       version of the application runtime taken before calling this method
+     * @return ApplicationInfoBean
+     */
+    public static ApplicationInfoBean getApplicationRuntime(String applicationId, String version)
+            throws RestAPIException {
+        VersionedApplicationRuntime applicationRuntime = applicationRuntimes.get(applicationId);
+        if ((applicationRuntime != null) && applicationRuntime.version.equals(version)) {
+            return applicationRuntime.applicationBean;
         }
 
+        ApplicationInfoBean applicationBean = null;
         try {
             ApplicationManager.acquireReadLockForApplication(applicationId);
             Application application = ApplicationManager.getApplications().
                     getApplication(applicationId);
-            if(application != null) {
-                if (application.getInstanceContextCount() > 0
-                        || (applicationContext != null &&
-                        applicationContext.getStatus().equals("Deployed"))) {
-
-                    if (application == null) {
-                        return null;
-                    }
-                    applicationBean = ObjectConverter.convertApplicationToApplicationInstanceBean(application);
-                    for (ApplicationInstanceBean instanceBean : applicationBean.getApplicationInstances()) {
-                        addClustersInstancesToApplicationInstanceBean(instanceBean, application);
-                        addGroupsInstancesToApplicationInstanceBean(instanceBean, application);
-                    }
+            //Checking whether application is in deployed mode, the autoscaler is only queried
+            //if the application has no instances yet
+            if ((application != null) && ((application.getInstanceContextCount() > 0)
+                    || isApplicationDeployed(applicationId))) {
+                applicationBean = ObjectConverter.convertApplicationToApplicationInstanceBean(application);
+                for (ApplicationInstanceBean instanceBean : applicationBean.getApplicationInstances()) {
+                    addClustersInstancesToApplicationInstanceBean(instanceBean, application);
+                    addGroupsInstancesToApplicationInstanceBean(instanceBean, application);
                 }
             }
         } finally {
             ApplicationManager.releaseReadLockForApplication(applicationId);
         }
 
+        if (applicationBean != null) {
+            applicationRuntimes.put(applicationId, new VersionedApplicationRuntime(version, applicationBean));
+        } else {
+            applicationRuntimes.remove(applicationId);
+        }
+        evictRemovedApplicationRuntimes();
         return applicationBean;
     }
 
+    /**
+     * Evict the cached runtimes of applications which have been removed, by this or any other
+     * stratos manager.
+     */
+    private static void evictRemovedApplicationRuntimes() {
+        Applications applications = ApplicationManager.getApplications();
+        for (String applicationId : applicationRuntimes.keySet()) {
+            if (!applications.applicationExists(applicationId)) {
+                applicationRuntimes.remove(applicationId);
+            }
+        }
+    }
+
+    private static boolean isApplicationDeployed(String applicationId) throws RestAPIException {
+        try {
+            ApplicationContext applicationContext = getAutoscalerServiceClient().getApplication(applicationId);
+            return (applicationContext != null) &&
+                    APPLICATION_STATUS_DEPLOYED.equals(applicationContext.getStatus());
+        } catch (RemoteException e) {
+            String message = "Could not get application definition: [application-id] " + applicationId;
+            log.error(message, e);
+            throw new RestAPIException(message, e);
+        } catch (RestAPIException e) {
+            String message = "Could not get application definition: [application-id] " + applicationId;
+            log.error(message, e);
+            throw new RestAPIException(message, e);
+        }
+    }
+
+    /**
+     * Converted application runtime and the version it was converted for.
+     */
+    private static class VersionedApplicationRuntime {
+
+        private final String version;
+        private final ApplicationInfoBean applicationBean;
+
+        private VersionedApplicationRuntime(String version, ApplicationInfoBean applicationBean) {
+            this.version = version;
+            this.applicationBean = applicationBean;
+        }
+    }
+
     /**
      * Add GroupsInstances To ApplicationInstanceBean
      *
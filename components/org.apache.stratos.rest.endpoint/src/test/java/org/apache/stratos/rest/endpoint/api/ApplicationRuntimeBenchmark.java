@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.rest.endpoint.api;
+
+import org.apache.stratos.common.domain.LoadBalancingIPType;
+import org.apache.stratos.messaging.domain.application.Application;
+import org.apache.stratos.messaging.domain.application.ClusterDataHolder;
+import org.apache.stratos.messaging.domain.instance.ApplicationInstance;
+import org.apache.stratos.messaging.domain.instance.ClusterInstance;
+import org.apache.stratos.messaging.domain.topology.Cluster;
+import org.apache.stratos.messaging.domain.topology.Member;
+import org.apache.stratos.messaging.domain.topology.Service;
+import org.apache.stratos.messaging.domain.topology.ServiceType;
+import org.apache.stratos.messaging.message.receiver.application.ApplicationManager;
+import org.apache.stratos.messaging.message.receiver.application.ApplicationVersionTracker;
+import org.apache.stratos.messaging.message.receiver.topology.TopologyManager;
+import org.apache.stratos.rest.endpoint.beans.ApplicationInfoBean;
+import org.apache.stratos.rest.endpoint.exception.RestAPIException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures dashboards polling the application runtime of an application with many clusters
+ * and members. The per request benchmark converts the application tree on every poll as the
+ * runtime resource did before versioning, the polling benchmark serves unchanged versions from
+ * the cache and the updated benchmark bumps the version of the application on every poll.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ApplicationRuntimeBenchmark {
+
+    private static final String APPLICATION_ID = "benchmark-app";
+    private static final String APPLICATION_INSTANCE_ID = "benchmark-app-1";
+
+    @Param({"20"})
+    private int clusterCount;
+
+    @Param({"50"})
+    private int membersPerCluster;
+
+    private final AtomicLong requestCount = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        Application application = new Application(APPLICATION_ID);
+        application.addInstance(APPLICATION_INSTANCE_ID,
+                new ApplicationInstance(APPLICATION_ID, APPLICATION_INSTANCE_ID));
+
+        Map<String, ClusterDataHolder> clusterDataMap = new HashMap<String, ClusterDataHolder>();
+        for (int i = 0; i < clusterCount; i++) {
+            String serviceName = "service-" + i;
+            String clusterId = APPLICATION_ID + "." + serviceName;
+            clusterDataMap.put("alias-" + i, new ClusterDataHolder(serviceName, clusterId));
+
+            Service service = new Service(serviceName, ServiceType.SingleTenant);
+            Cluster cluster = new Cluster(serviceName, clusterId, "deployment-policy", "autoscaling-policy",
+                    APPLICATION_ID);
+            cluster.addInstanceContext(APPLICATION_INSTANCE_ID,
+                    new ClusterInstance("alias-" + i, clusterId, APPLICATION_INSTANCE_ID));
+            for (int j = 0; j < membersPerCluster; j++) {
+                Member member = new Member(serviceName, clusterId, clusterId + ".member-" + j,
+                        APPLICATION_INSTANCE_ID, "network-partition", "partition",
+                        LoadBalancingIPType.Private, System.currentTimeMillis());
+                member.setProperties(new Properties());
+                cluster.addMember(member);
+            }
+            service.addCluster(cluster);
+            TopologyManager.getTopology().addService(service);
+        }
+        application.setClusterData(clusterDataMap);
+        ApplicationManager.getApplications().addApplication(application);
+    }
+
+    /**
+     * Every poll converts the application tree.
+     */
+    @Benchmark
+    public ApplicationInfoBean perRequest() throws RestAPIException {
+        // a version which is never current forces the conversion
+        return StratosApiV41Utils.getApplicationRuntime(APPLICATION_ID,
+                "per-request-" + requestCount.incrementAndGet());
+    }
+
+    /**
+     * Polls of an unchanged application are served from the cache, requests with a current
+     * ETag only need the version.
+     */
+    @Benchmark
+    public ApplicationInfoBean polling() throws RestAPIException {
+        return StratosApiV41Utils.getApplicationRuntime(APPLICATION_ID,
+                StratosApiV41Utils.getApplicationRuntimeVersion(APPLICATION_ID));
+    }
+
+    /**
+     * The application is updated between polls.
+     */
+    @Benchmark
+    public ApplicationInfoBean updated() throws RestAPIException {
+        ApplicationVersionTracker.applicationUpdated(APPLICATION_ID);
+        return StratosApiV41Utils.getApplicationRuntime(APPLICATION_ID,
+                StratosApiV41Utils.getApplicationRuntimeVersion(APPLICATION_ID));
+    }
+}
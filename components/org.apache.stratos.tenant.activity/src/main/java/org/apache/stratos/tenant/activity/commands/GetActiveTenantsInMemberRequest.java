@@ -24,9 +24,8 @@ import org.apache.axis2.clustering.ClusteringFault;
 import org.apache.axis2.context.ConfigurationContext;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.wso2.carbon.core.multitenancy.utils.TenantAxisUtils;
 import org.apache.stratos.tenant.activity.beans.TenantDataBean;
-import org.wso2.carbon.user.api.Tenant;
+import org.apache.stratos.tenant.activity.util.ActiveTenantRegistry;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -41,11 +40,7 @@ public class GetActiveTenantsInMemberRequest extends ClusteringMessage {
 
     public void execute(ConfigurationContext configurationContext) throws ClusteringFault {
         try {
-            for (Tenant tenant : TenantAxisUtils.getActiveTenants(configurationContext)) {
-                TenantDataBean tb = new TenantDataBean();
-                tb.setDomain(tenant.getDomain());
-                tenants.add(tb);
-            }
+            tenants.addAll(ActiveTenantRegistry.getInstance().getLocalTenants());
         } catch (Exception e) {
             String msg = "Cannot get Active tenants";
             log.error(msg, e);
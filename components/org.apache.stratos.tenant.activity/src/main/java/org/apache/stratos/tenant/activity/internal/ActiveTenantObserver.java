@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.tenant.activity.internal;
+
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.tenant.activity.util.ActiveTenantRegistry;
+import org.apache.stratos.tenant.activity.util.Util;
+import org.wso2.carbon.utils.AbstractAxis2ConfigurationContextObserver;
+import org.wso2.carbon.utils.multitenancy.MultitenantUtils;
+
+/**
+ * Updates the active tenant registry as tenants are loaded into and unloaded from this node.
+ */
+public class ActiveTenantObserver extends AbstractAxis2ConfigurationContextObserver {
+
+    private static final Log log = LogFactory.getLog(ActiveTenantObserver.class);
+
+    @Override
+    public void createdConfigurationContext(ConfigurationContext configurationContext) {
+        String tenantDomain = getTenantDomain(configurationContext);
+        if (tenantDomain != null) {
+            ActiveTenantRegistry.getInstance().tenantLoaded(tenantDomain);
+        }
+    }
+
+    @Override
+    public void terminatingConfigurationContext(ConfigurationContext configurationContext) {
+        String tenantDomain = getTenantDomain(configurationContext);
+        if (tenantDomain != null) {
+            ActiveTenantRegistry.getInstance().tenantUnloaded(tenantDomain);
+        }
+    }
+
+    private String getTenantDomain(ConfigurationContext configurationContext) {
+        int tenantId = MultitenantUtils.getTenantId(configurationContext);
+        try {
+            return Util.getRealmService().getTenantManager().getDomain(tenantId);
+        } catch (Exception e) {
+            log.error(String.format("Could not find tenant domain: [tenant-id] %d", tenantId), e);
+            return null;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.apache.stratos.tenant.activity.util.Util;
 import org.osgi.service.component.ComponentContext;
 import org.wso2.carbon.registry.core.service.RegistryService;
 import org.wso2.carbon.user.core.service.RealmService;
+import org.wso2.carbon.utils.Axis2ConfigurationContextObserver;
 import org.wso2.carbon.utils.ConfigurationContextService;
 
 /**
@@ -48,6 +49,8 @@ public class TenantActivityServiceComponent {
     protected void activate(ComponentContext context) {
         try {
             Util.registerRetrieverServices(context.getBundleContext());
+            context.getBundleContext().registerService(Axis2ConfigurationContextObserver.class.getName(),
+                    new ActiveTenantObserver(), null);
             if(log.isDebugEnabled()){
                 log.debug("******* Tenant Activity bundle is activated ******* ");
             }
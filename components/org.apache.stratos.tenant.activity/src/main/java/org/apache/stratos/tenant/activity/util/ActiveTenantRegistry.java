@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.tenant.activity.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.tenant.activity.beans.TenantDataBean;
+import org.wso2.carbon.core.multitenancy.utils.TenantAxisUtils;
+import org.wso2.carbon.user.api.Tenant;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of the tenants active in the service cluster, keyed by the lower case tenant domain.
+ * Tenants active in this node are added and removed as tenants are loaded and unloaded, tenants
+ * active in other nodes are fetched with a clustering message at most once per interval given
+ * by the tenant.activity.peer.refresh.interval system property in milliseconds, and only the
+ * differences to the previous fetch are applied. A sorted snapshot of all active tenants is
+ * built for pagination and kept until the index changes.
+ */
+public class ActiveTenantRegistry {
+
+    private static final Log log = LogFactory.getLog(ActiveTenantRegistry.class);
+
+    private static final String PEER_REFRESH_INTERVAL = "tenant.activity.peer.refresh.interval";
+    private static final long DEFAULT_PEER_REFRESH_INTERVAL = 30000;
+
+    private static volatile ActiveTenantRegistry instance;
+
+    private final ConcurrentMap<String, TenantDataBean> localTenants;
+    private final ConcurrentMap<String, TenantDataBean> peerTenants;
+    private final long peerRefreshInterval;
+    private volatile boolean localTenantsLoaded;
+    private volatile long lastPeerRefreshTime;
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    ActiveTenantRegistry(long peerRefreshInterval) {
+        this.localTenants = new ConcurrentHashMap<String, TenantDataBean>();
+        this.peerTenants = new ConcurrentHashMap<String, TenantDataBean>();
+        this.peerRefreshInterval = peerRefreshInterval;
+    }
+
+    public static ActiveTenantRegistry getInstance() {
+        if (instance == null) {
+            synchronized (ActiveTenantRegistry.class) {
+                if (instance == null) {
+                    instance = new ActiveTenantRegistry(Long.getLong(PEER_REFRESH_INTERVAL,
+                            DEFAULT_PEER_REFRESH_INTERVAL));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Add a tenant loaded in this node.
+     *
+     * @param tenantDomain tenant domain
+     */
+    public void tenantLoaded(String tenantDomain) {
+        if (localTenants.putIfAbsent(getKey(tenantDomain), createTenantDataBean(tenantDomain)) == null) {
+            version.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Active tenant added: [tenant-domain] %s", tenantDomain));
+            }
+        }
+    }
+
+    /**
+     * Remove a tenant unloaded from this node.
+     *
+     * @param tenantDomain tenant domain
+     */
+    public void tenantUnloaded(String tenantDomain) {
+        if (localTenants.remove(getKey(tenantDomain)) != null) {
+            version.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Active tenant removed: [tenant-domain] %s", tenantDomain));
+            }
+        }
+    }
+
+    public boolean isActiveTenant(String tenantDomain) throws Exception {
+        refresh();
+        String key = getKey(tenantDomain);
+        return localTenants.containsKey(key) || peerTenants.containsKey(key);
+    }
+
+    public int getActiveTenantCount() throws Exception {
+        return getActiveTenants().size();
+    }
+
+    /**
+     * @return tenants active in the service cluster sorted by tenant domain
+     */
+    public List<TenantDataBean> getActiveTenants() throws Exception {
+        refresh();
+        Snapshot currentSnapshot = snapshot;
+        long currentVersion = version.get();
+        if ((currentSnapshot == null) || (currentSnapshot.version != currentVersion)) {
+            Map<String, TenantDataBean> tenantMap = new TreeMap<String, TenantDataBean>(peerTenants);
+            tenantMap.putAll(localTenants);
+            currentSnapshot = new Snapshot(currentVersion,
+                    Collections.unmodifiableList(new ArrayList<TenantDataBean>(tenantMap.values())));
+            // A snapshot built while the index changed is replaced on the next call
+            snapshot = currentSnapshot;
+        }
+        return currentSnapshot.tenants;
+    }
+
+    /**
+     * @return tenants active in this node
+     */
+    public List<TenantDataBean> getLocalTenants() throws Exception {
+        loadLocalTenants();
+        return new ArrayList<TenantDataBean>(localTenants.values());
+    }
+
+    private void refresh() throws Exception {
+        loadLocalTenants();
+        if ((System.currentTimeMillis() - lastPeerRefreshTime) >= peerRefreshInterval) {
+            refreshPeerTenants();
+        }
+    }
+
+    private void loadLocalTenants() throws Exception {
+        if (localTenantsLoaded) {
+            return;
+        }
+        synchronized (localTenants) {
+            if (!localTenantsLoaded) {
+                for (String tenantDomain : findLocalTenants()) {
+                    tenantLoaded(tenantDomain);
+                }
+                localTenantsLoaded = true;
+            }
+        }
+    }
+
+    private synchronized void refreshPeerTenants() {
+        if ((System.currentTimeMillis() - lastPeerRefreshTime) < peerRefreshInterval) {
+            return;
+        }
+        try {
+            Map<String, TenantDataBean> tenants = new HashMap<String, TenantDataBean>();
+            for (TenantDataBean tenant : findPeerTenants()) {
+                tenants.put(getKey(tenant.getDomain()), tenant);
+            }
+
+            boolean changed = peerTenants.keySet().retainAll(tenants.keySet());
+            for (Map.Entry<String, TenantDataBean> entry : tenants.entrySet()) {
+                if (peerTenants.putIfAbsent(entry.getKey(), entry.getValue()) == null) {
+                    changed = true;
+                }
+            }
+            if (changed) {
+                version.incrementAndGet();
+            }
+        } catch (Exception e) {
+            log.error("Could not refresh active tenants of the cluster, using the last known active tenants", e);
+        } finally {
+            lastPeerRefreshTime = System.currentTimeMillis();
+        }
+    }
+
+    protected Collection<String> findLocalTenants() throws Exception {
+        List<String> tenantDomains = new ArrayList<String>();
+        for (Tenant tenant : TenantAxisUtils.getActiveTenants(
+                Util.getConfigurationContextService().getServerConfigContext())) {
+            tenantDomains.add(tenant.getDomain());
+        }
+        return tenantDomains;
+    }
+
+    protected List<TenantDataBean> findPeerTenants() throws Exception {
+        return TenantActivityUtil.getActiveTenantsInCluster();
+    }
+
+    private TenantDataBean createTenantDataBean(String tenantDomain) {
+        TenantDataBean tenant = new TenantDataBean();
+        tenant.setDomain(tenantDomain);
+        return tenant;
+    }
+
+    private String getKey(String tenantDomain) {
+        return tenantDomain.toLowerCase(Locale.ENGLISH);
+    }
+
+    private static class Snapshot {
+
+        private final long version;
+        private final List<TenantDataBean> tenants;
+
+        private Snapshot(long version, List<TenantDataBean> tenants) {
+            this.version = version;
+            this.tenants = tenants;
+        }
+    }
+}
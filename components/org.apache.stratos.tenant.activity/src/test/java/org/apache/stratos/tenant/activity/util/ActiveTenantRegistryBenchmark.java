@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.tenant.activity.util;
+
+import org.apache.stratos.tenant.activity.beans.TenantDataBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures active tenant lookups with 100,000 active tenants, 50,000 loaded in this node and
+ * 60,000 loaded in peer nodes of which 10,000 are loaded in both. Compares rebuilding the active
+ * tenant list on every call, as the tenant activity service did before the registry, against the
+ * active tenant registry. The clustering round trip to the peers is excluded from both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ActiveTenantRegistryBenchmark {
+
+    private static final int LOCAL_TENANT_COUNT = 50000;
+    private static final int PEER_TENANT_COUNT = 60000;
+    private static final int SHARED_TENANT_COUNT = 10000;
+
+    private List<String> localTenants;
+    private List<TenantDataBean> peerTenants;
+    private ActiveTenantRegistry registry;
+    private int lookupIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        localTenants = new ArrayList<String>();
+        for (int i = 0; i < LOCAL_TENANT_COUNT; i++) {
+            localTenants.add(getDomain(i));
+        }
+        peerTenants = new ArrayList<TenantDataBean>();
+        for (int i = LOCAL_TENANT_COUNT - SHARED_TENANT_COUNT; i < LOCAL_TENANT_COUNT - SHARED_TENANT_COUNT +
+                PEER_TENANT_COUNT; i++) {
+            peerTenants.add(createTenant(getDomain(i)));
+        }
+        registry = new ActiveTenantRegistry(Long.MAX_VALUE) {
+            @Override
+            protected Collection<String> findLocalTenants() {
+                return localTenants;
+            }
+
+            @Override
+            protected List<TenantDataBean> findPeerTenants() {
+                return peerTenants;
+            }
+        };
+        registry.getActiveTenants();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public boolean rebuiltIsActiveTenant() {
+        String tenantDomain = getDomain(nextLookup());
+        for (TenantDataBean tenant : rebuildActiveTenants()) {
+            if (tenant.getDomain().equalsIgnoreCase(tenantDomain)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean registryIsActiveTenant() throws Exception {
+        return registry.isActiveTenant(getDomain(nextLookup()));
+    }
+
+    @Benchmark
+    public int registryActiveTenantCount() throws Exception {
+        return registry.getActiveTenantCount();
+    }
+
+    @Benchmark
+    public List<TenantDataBean> registryPage() throws Exception {
+        List<TenantDataBean> tenants = registry.getActiveTenants();
+        int fromIndex = (nextLookup() * 15) % tenants.size();
+        return new ArrayList<TenantDataBean>(tenants.subList(fromIndex, Math.min(tenants.size(), fromIndex + 15)));
+    }
+
+    /**
+     * A tenant loaded in this node invalidates the sorted snapshot, the next page rebuilds it.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<TenantDataBean> registryPageAfterTenantLoaded() throws Exception {
+        String tenantDomain = "loaded-" + getDomain(nextLookup());
+        registry.tenantLoaded(tenantDomain);
+        List<TenantDataBean> tenants = registry.getActiveTenants();
+        registry.tenantUnloaded(tenantDomain);
+        return tenants;
+    }
+
+    /**
+     * Active tenant list as built by the tenant activity service before the active tenant registry.
+     */
+    private List<TenantDataBean> rebuildActiveTenants() {
+        List<TenantDataBean> list = new ArrayList<TenantDataBean>();
+        for (String tenantDomain : localTenants) {
+            list.add(createTenant(tenantDomain));
+        }
+        for (TenantDataBean tenantDataBean : peerTenants) {
+            if (TenantActivityUtil.indexOfTenantInList(list, tenantDataBean) < 0) {
+                list.add(tenantDataBean);
+            }
+        }
+        return list;
+    }
+
+    private int nextLookup() {
+        lookupIndex = (lookupIndex + 7919) % (LOCAL_TENANT_COUNT + PEER_TENANT_COUNT);
+        return lookupIndex;
+    }
+
+    private static String getDomain(int index) {
+        return "tenant-" + index + ".example.com";
+    }
+
+    private static TenantDataBean createTenant(String domain) {
+        TenantDataBean tenant = new TenantDataBean();
+        tenant.setDomain(domain);
+        return tenant;
+    }
+}
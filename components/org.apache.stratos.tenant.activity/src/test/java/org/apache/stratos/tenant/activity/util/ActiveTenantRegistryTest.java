@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.tenant.activity.util;
+
+import org.apache.stratos.tenant.activity.beans.TenantDataBean;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link ActiveTenantRegistry} with stubbed local and peer tenant lookups.
+ */
+public class ActiveTenantRegistryTest {
+
+    private List<String> localTenants;
+    private List<TenantDataBean> peerTenants;
+    private int peerLookupCount;
+    private boolean peerLookupFails;
+
+    @Before
+    public void setUp() {
+        localTenants = new ArrayList<String>(Arrays.asList("b.com", "a.com"));
+        peerTenants = new ArrayList<TenantDataBean>(Arrays.asList(createTenant("C.com"), createTenant("A.COM")));
+        peerLookupCount = 0;
+        peerLookupFails = false;
+    }
+
+    @Test
+    public void testActiveTenantsAreMergedAndSorted() throws Exception {
+        ActiveTenantRegistry registry = createRegistry(60000);
+
+        assertEquals(Arrays.asList("a.com", "b.com", "C.com"), getDomains(registry.getActiveTenants()));
+        assertEquals(3, registry.getActiveTenantCount());
+        assertTrue(registry.isActiveTenant("c.COM"));
+        assertFalse(registry.isActiveTenant("d.com"));
+        assertEquals(2, registry.getLocalTenants().size());
+    }
+
+    @Test
+    public void testLoadedTenantsUpdateSnapshot() throws Exception {
+        ActiveTenantRegistry registry = createRegistry(60000);
+        List<TenantDataBean> tenants = registry.getActiveTenants();
+        assertSame(tenants, registry.getActiveTenants());
+
+        registry.tenantLoaded("d.com");
+        assertTrue(registry.isActiveTenant("d.com"));
+        List<TenantDataBean> updatedTenants = registry.getActiveTenants();
+        assertNotSame(tenants, updatedTenants);
+        assertEquals(4, updatedTenants.size());
+
+        registry.tenantUnloaded("b.com");
+        assertFalse(registry.isActiveTenant("b.com"));
+        // Tenants loaded in peers stay active
+        registry.tenantUnloaded("a.com");
+        assertTrue(registry.isActiveTenant("a.com"));
+        assertEquals(Arrays.asList("A.COM", "C.com", "d.com"), getDomains(registry.getActiveTenants()));
+    }
+
+    @Test
+    public void testPeerTenantsAreRefreshedPerInterval() throws Exception {
+        ActiveTenantRegistry registry = createRegistry(60000);
+        registry.isActiveTenant("a.com");
+        registry.getActiveTenants();
+        assertEquals(1, peerLookupCount);
+
+        ActiveTenantRegistry refreshingRegistry = createRegistry(0);
+        refreshingRegistry.isActiveTenant("c.com");
+        peerTenants.remove(0);
+        peerTenants.add(createTenant("e.com"));
+        assertFalse(refreshingRegistry.isActiveTenant("c.com"));
+        assertTrue(refreshingRegistry.isActiveTenant("e.com"));
+        assertEquals(Arrays.asList("a.com", "b.com", "e.com"), getDomains(refreshingRegistry.getActiveTenants()));
+    }
+
+    @Test
+    public void testLastKnownPeerTenantsAreKeptOnFailure() throws Exception {
+        ActiveTenantRegistry registry = createRegistry(0);
+        assertTrue(registry.isActiveTenant("c.com"));
+
+        peerLookupFails = true;
+        assertTrue(registry.isActiveTenant("c.com"));
+        assertEquals(3, registry.getActiveTenantCount());
+    }
+
+    private ActiveTenantRegistry createRegistry(long peerRefreshInterval) {
+        return new ActiveTenantRegistry(peerRefreshInterval) {
+            @Override
+            protected Collection<String> findLocalTenants() {
+                return localTenants;
+            }
+
+            @Override
+            protected List<TenantDataBean> findPeerTenants() throws Exception {
+                peerLookupCount++;
+                if (peerLookupFails) {
+                    throw new Exception("Cluster not reachable");
+                }
+                return new ArrayList<TenantDataBean>(peerTenants);
+            }
+        };
+    }
+
+    private static TenantDataBean createTenant(String domain) {
+        TenantDataBean tenant = new TenantDataBean();
+        tenant.setDomain(domain);
+        return tenant;
+    }
+
+    private static List<String> getDomains(List<TenantDataBean> tenants) {
+        List<String> domains = new ArrayList<String>();
+        for (TenantDataBean tenant : tenants) {
+            domains.add(tenant.getDomain());
+        }
+        return domains;
+    }
+}
@@ -76,9 +76,13 @@ public class AWSHelper {
 	private BasicAWSCredentials awsCredentials;
 	private ClientConfiguration clientConfiguration;
 
-	AmazonElasticLoadBalancingClient elbClient;
-	AmazonEC2Client ec2Client;
-	private AmazonCloudWatchClient cloudWatchClient;
+	private ConcurrentHashMap<String, AmazonElasticLoadBalancingClient> regionToElbClientMap;
+	private ConcurrentHashMap<String, AmazonEC2Client> regionToEc2ClientMap;
+	private ConcurrentHashMap<String, AmazonCloudWatchClient> regionToCloudWatchClientMap;
+
+	private int maxConcurrentRequests;
+	private int stateSyncInterval;
+	private AWSRateLimiter rateLimiter;
 
 	private static final Log log = LogFactory.getLog(AWSHelper.class);
 
@@ -96,111 +100,254 @@ public class AWSHelper {
 			inputStream = new FileInputStream(awsPropertiesFile);
 
 			properties.load(inputStream);
+		} catch (IOException e) {
+			log.error("Error reading aws configuration file.");
+			throw new LoadBalancerExtensionException(
+					"Error reading aws configuration file.", e);
+		} finally {
+			try {
+				inputStream.close();
+			} catch (Exception e) {
+				log.warn("Failed to close input stream to aws configuration file.");
+			}
+		}
 
-			this.awsAccessKey = properties
-					.getProperty(Constants.AWS_ACCESS_KEY);
-			this.awsSecretKey = properties
-					.getProperty(Constants.AWS_SECRET_KEY);
+		init(properties);
+	}
 
-			if (this.awsAccessKey.isEmpty() || this.awsSecretKey.isEmpty()) {
-				throw new LoadBalancerExtensionException(
-						"Invalid AWS credentials.");
-			}
+	/**
+	 * Creates an AWS helper using the given aws configuration properties.
+	 * 
+	 * @param properties
+	 *            aws configuration properties
+	 * @throws LoadBalancerExtensionException
+	 */
+	protected AWSHelper(Properties properties)
+			throws LoadBalancerExtensionException {
+		init(properties);
+	}
 
-			this.lbPrefix = properties.getProperty(Constants.LB_PREFIX);
+	private void init(Properties properties)
+			throws LoadBalancerExtensionException {
+		this.awsAccessKey = properties
+				.getProperty(Constants.AWS_ACCESS_KEY);
+		this.awsSecretKey = properties
+				.getProperty(Constants.AWS_SECRET_KEY);
 
-			if (this.lbPrefix.isEmpty()
-					|| this.lbPrefix.length() > Constants.LOAD_BALANCER_PREFIX_MAX_LENGTH) {
-				throw new LoadBalancerExtensionException(
-						"Invalid load balancer prefix.");
-			}
+		if (this.awsAccessKey.isEmpty() || this.awsSecretKey.isEmpty()) {
+			throw new LoadBalancerExtensionException(
+					"Invalid AWS credentials.");
+		}
 
-			lbSequence = new AtomicInteger(1);
+		this.lbPrefix = properties.getProperty(Constants.LB_PREFIX);
 
-			this.lbSecurityGroupName = properties
-					.getProperty(Constants.LOAD_BALANCER_SECURITY_GROUP_NAME);
+		if (this.lbPrefix.isEmpty()
+				|| this.lbPrefix.length() > Constants.LOAD_BALANCER_PREFIX_MAX_LENGTH) {
+			throw new LoadBalancerExtensionException(
+					"Invalid load balancer prefix.");
+		}
 
-			if (this.lbSecurityGroupName.isEmpty()
-					|| this.lbSecurityGroupName.length() > Constants.SECURITY_GROUP_NAME_MAX_LENGTH) {
-				throw new LoadBalancerExtensionException(
-						"Invalid load balancer security group name.");
-			}
+		lbSequence = new AtomicInteger(1);
 
-			this.allowedCidrIpForLBSecurityGroup = properties
-					.getProperty(Constants.ALLOWED_CIDR_IP_KEY);
+		this.lbSecurityGroupName = properties
+				.getProperty(Constants.LOAD_BALANCER_SECURITY_GROUP_NAME);
 
-			if (this.allowedCidrIpForLBSecurityGroup.isEmpty()) {
-				throw new LoadBalancerExtensionException(
-						"Invalid allowed CIDR IP.");
-			}
+		if (this.lbSecurityGroupName.isEmpty()
+				|| this.lbSecurityGroupName.length() > Constants.SECURITY_GROUP_NAME_MAX_LENGTH) {
+			throw new LoadBalancerExtensionException(
+					"Invalid load balancer security group name.");
+		}
 
-			String allowedProtocols = properties
-					.getProperty(Constants.ALLOWED_PROTOCOLS);
+		this.allowedCidrIpForLBSecurityGroup = properties
+				.getProperty(Constants.ALLOWED_CIDR_IP_KEY);
 
-			if (allowedProtocols.isEmpty()) {
-				throw new LoadBalancerExtensionException(
-						"Please specify at least one Internet protocol.");
-			}
+		if (this.allowedCidrIpForLBSecurityGroup.isEmpty()) {
+			throw new LoadBalancerExtensionException(
+					"Invalid allowed CIDR IP.");
+		}
 
-			String[] protocols = allowedProtocols.split(",");
+		String allowedProtocols = properties
+				.getProperty(Constants.ALLOWED_PROTOCOLS);
 
-			this.allowedProtocolsForLBSecurityGroup = new ArrayList<String>();
+		if (allowedProtocols.isEmpty()) {
+			throw new LoadBalancerExtensionException(
+					"Please specify at least one Internet protocol.");
+		}
 
-			for (String protocol : protocols) {
-				this.allowedProtocolsForLBSecurityGroup.add(protocol);
-			}
+		String[] protocols = allowedProtocols.split(",");
+
+		this.allowedProtocolsForLBSecurityGroup = new ArrayList<String>();
+
+		for (String protocol : protocols) {
+			this.allowedProtocolsForLBSecurityGroup.add(protocol);
+		}
 
-			String interval = properties
-					.getProperty(Constants.STATISTICS_INTERVAL);
-
-			if (interval == null || interval.isEmpty()) {
-				this.statisticsInterval = Constants.STATISTICS_INTERVAL_MULTIPLE_OF;
-			} else {
-				try {
-					this.statisticsInterval = Integer.parseInt(interval);
-
-					if (this.statisticsInterval
-							% Constants.STATISTICS_INTERVAL_MULTIPLE_OF != 0) {
-						this.statisticsInterval = Constants.STATISTICS_INTERVAL_MULTIPLE_OF;
-					}
-				} catch (NumberFormatException e) {
-					log.warn("Invalid statistics interval. Setting it to 15.");
-					this.statisticsInterval = 15;
+		String interval = properties
+				.getProperty(Constants.STATISTICS_INTERVAL);
+
+		if (interval == null || interval.isEmpty()) {
+			this.statisticsInterval = Constants.STATISTICS_INTERVAL_MULTIPLE_OF;
+		} else {
+			try {
+				this.statisticsInterval = Integer.parseInt(interval);
+
+				if (this.statisticsInterval
+						% Constants.STATISTICS_INTERVAL_MULTIPLE_OF != 0) {
+					this.statisticsInterval = Constants.STATISTICS_INTERVAL_MULTIPLE_OF;
 				}
+			} catch (NumberFormatException e) {
+				log.warn("Invalid statistics interval. Setting it to 15.");
+				this.statisticsInterval = 15;
 			}
+		}
+
+		this.lbSecurityGroupDescription = Constants.LOAD_BALANCER_SECURITY_GROUP_DESCRIPTION;
+
+		regionToSecurityGroupIdMap = new ConcurrentHashMap<String, String>();
 
-			this.lbSecurityGroupDescription = Constants.LOAD_BALANCER_SECURITY_GROUP_DESCRIPTION;
+		awsCredentials = new BasicAWSCredentials(awsAccessKey, awsSecretKey);
+		clientConfiguration = new ClientConfiguration();
 
-			regionToSecurityGroupIdMap = new ConcurrentHashMap<String, String>();
+		regionToElbClientMap = new ConcurrentHashMap<String, AmazonElasticLoadBalancingClient>();
 
-			awsCredentials = new BasicAWSCredentials(awsAccessKey, awsSecretKey);
-			clientConfiguration = new ClientConfiguration();
+		regionToEc2ClientMap = new ConcurrentHashMap<String, AmazonEC2Client>();
 
-			elbClient = new AmazonElasticLoadBalancingClient(awsCredentials,
+		regionToCloudWatchClientMap = new ConcurrentHashMap<String, AmazonCloudWatchClient>();
+
+		this.maxConcurrentRequests = getIntProperty(properties,
+				Constants.MAX_CONCURRENT_REQUESTS,
+				Constants.DEFAULT_MAX_CONCURRENT_REQUESTS);
+
+		this.stateSyncInterval = getIntProperty(properties,
+				Constants.STATE_SYNC_INTERVAL,
+				Constants.DEFAULT_STATE_SYNC_INTERVAL);
+
+		this.rateLimiter = new AWSRateLimiter(getIntProperty(properties,
+				Constants.MAX_REQUESTS_PER_SECOND,
+				Constants.DEFAULT_MAX_REQUESTS_PER_SECOND));
+	}
+
+	private int getIntProperty(Properties properties, String name,
+			int defaultValue) {
+		String value = properties.getProperty(name);
+
+		if (value == null || value.trim().isEmpty()) {
+			return defaultValue;
+		}
+
+		try {
+			int intValue = Integer.parseInt(value.trim());
+			return (intValue > 0) ? intValue : defaultValue;
+		} catch (NumberFormatException e) {
+			log.warn("Invalid value found for " + name + ". Setting it to "
+					+ defaultValue + ".");
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Returns the elastic load balancing client of the given region. A client
+	 * is kept per region so that calls to different regions could be made
+	 * concurrently without switching the endpoint of a shared client.
+	 * 
+	 * @param region
+	 * @return elastic load balancing client
+	 */
+	private AmazonElasticLoadBalancingClient getElbClient(String region) {
+		AmazonElasticLoadBalancingClient client = regionToElbClientMap
+				.get(region);
+
+		if (client == null) {
+			client = new AmazonElasticLoadBalancingClient(awsCredentials,
 					clientConfiguration);
+			client.setEndpoint(String.format(
+					Constants.ELB_ENDPOINT_URL_FORMAT, region));
 
-			ec2Client = new AmazonEC2Client(awsCredentials, clientConfiguration);
+			AmazonElasticLoadBalancingClient existing = regionToElbClientMap
+					.putIfAbsent(region, client);
+			if (existing != null) {
+				client = existing;
+			}
+		}
+
+		return client;
+	}
+
+	/**
+	 * Returns the EC2 client of the given region.
+	 * 
+	 * @param region
+	 * @return EC2 client
+	 */
+	private AmazonEC2Client getEc2Client(String region) {
+		AmazonEC2Client client = regionToEc2ClientMap.get(region);
+
+		if (client == null) {
+			client = new AmazonEC2Client(awsCredentials, clientConfiguration);
+			client.setEndpoint(String.format(Constants.EC2_ENDPOINT_URL_FORMAT,
+					region));
+
+			AmazonEC2Client existing = regionToEc2ClientMap.putIfAbsent(region,
+					client);
+			if (existing != null) {
+				client = existing;
+			}
+		}
+
+		return client;
+	}
+
+	/**
+	 * Returns the cloud watch client of the given region.
+	 * 
+	 * @param region
+	 * @return cloud watch client
+	 */
+	private AmazonCloudWatchClient getCloudWatchClient(String region) {
+		AmazonCloudWatchClient client = regionToCloudWatchClientMap
+				.get(region);
 
-			cloudWatchClient = new AmazonCloudWatchClient(awsCredentials,
+		if (client == null) {
+			client = new AmazonCloudWatchClient(awsCredentials,
 					clientConfiguration);
+			client.setEndpoint(String.format(
+					Constants.CLOUD_WATCH_ENDPOINT_URL_FORMAT, region));
 
-		} catch (IOException e) {
-			log.error("Error reading aws configuration file.");
-			throw new LoadBalancerExtensionException(
-					"Error reading aws configuration file.", e);
-		} finally {
-			try {
-				inputStream.close();
-			} catch (Exception e) {
-				log.warn("Failed to close input stream to aws configuration file.");
+			AmazonCloudWatchClient existing = regionToCloudWatchClientMap
+					.putIfAbsent(region, client);
+			if (existing != null) {
+				client = existing;
 			}
 		}
+
+		return client;
+	}
+
+	/**
+	 * Waits until the rate limiter allows the next AWS API call.
+	 */
+	private void acquirePermit() {
+		try {
+			rateLimiter.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AmazonClientException(
+					"Interrupted while waiting for AWS API rate limiter", e);
+		}
 	}
 
 	public int getStatisticsInterval() {
 		return statisticsInterval;
 	}
 
+	public int getMaxConcurrentRequests() {
+		return maxConcurrentRequests;
+	}
+
+	public int getStateSyncInterval() {
+		return stateSyncInterval;
+	}
+
 	public int getNextLBSequence() {
 		return lbSequence.getAndIncrement();
 	}
@@ -249,10 +396,9 @@ public class AWSHelper {
 
 			createLoadBalancerRequest.setSecurityGroups(securityGroups);
 
-			elbClient.setEndpoint(String.format(
-					Constants.ELB_ENDPOINT_URL_FORMAT, region));
+			acquirePermit();
 
-			CreateLoadBalancerResult clbResult = elbClient
+			CreateLoadBalancerResult clbResult = getElbClient(region)
 					.createLoadBalancer(createLoadBalancerRequest);
 
 			return clbResult.getDNSName();
@@ -280,10 +426,9 @@ public class AWSHelper {
 		deleteLoadBalancerRequest.setLoadBalancerName(loadBalancerName);
 
 		try {
-			elbClient.setEndpoint(String.format(
-					Constants.ELB_ENDPOINT_URL_FORMAT, region));
+			acquirePermit();
 
-			elbClient.deleteLoadBalancer(deleteLoadBalancerRequest);
+			getElbClient(region).deleteLoadBalancer(deleteLoadBalancerRequest);
 			log.info("Deleted load balancer " + loadBalancerName);
 		} catch (AmazonClientException e) {
 			log.error("Could not delete load balancer : " + loadBalancerName, e);
@@ -300,8 +445,9 @@ public class AWSHelper {
 	 *            to attached to the load balancer
 	 * @param region
 	 *            of the load balancer
+	 * @return true if the instances were registered
 	 */
-	public void registerInstancesToLoadBalancer(String loadBalancerName,
+	public boolean registerInstancesToLoadBalancer(String loadBalancerName,
 			List<Instance> instances, String region) {
 
 		log.info("Registering following instance(s) to load balancer "
@@ -315,15 +461,16 @@ public class AWSHelper {
 				loadBalancerName, instances);
 
 		try {
-			elbClient.setEndpoint(String.format(
-					Constants.ELB_ENDPOINT_URL_FORMAT, region));
+			acquirePermit();
 
-			elbClient
+			getElbClient(region)
 					.registerInstancesWithLoadBalancer(registerInstancesWithLoadBalancerRequest);
 
+			return true;
 		} catch (AmazonClientException e) {
 			log.error("Could not register instances to load balancer "
 					+ loadBalancerName, e);
+			return false;
 		}
 	}
 
@@ -337,8 +484,9 @@ public class AWSHelper {
 	 *            to be de-registered from load balancer
 	 * @param region
 	 *            of the load balancer
+	 * @return true if the instances were de-registered
 	 */
-	public void deregisterInstancesFromLoadBalancer(String loadBalancerName,
+	public boolean deregisterInstancesFromLoadBalancer(String loadBalancerName,
 			List<Instance> instances, String region) {
 
 		log.info("De-registering following instance(s) from load balancer "
@@ -352,15 +500,16 @@ public class AWSHelper {
 				loadBalancerName, instances);
 
 		try {
-			elbClient.setEndpoint(String.format(
-					Constants.ELB_ENDPOINT_URL_FORMAT, region));
+			acquirePermit();
 
-			elbClient
+			getElbClient(region)
 					.deregisterInstancesFromLoadBalancer(deregisterInstancesFromLoadBalancerRequest);
 
+			return true;
 		} catch (AmazonClientException e) {
 			log.error("Could not de-register instances from load balancer "
 					+ loadBalancerName, e);
+			return false;
 		}
 	}
 
@@ -383,10 +532,9 @@ public class AWSHelper {
 				loadBalancers);
 
 		try {
-			elbClient.setEndpoint(String.format(
-					Constants.ELB_ENDPOINT_URL_FORMAT, region));
+			acquirePermit();
 
-			DescribeLoadBalancersResult result = elbClient
+			DescribeLoadBalancersResult result = getElbClient(region)
 					.describeLoadBalancers(describeLoadBalancersRequest);
 
 			if (result.getLoadBalancerDescriptions() != null
@@ -490,10 +638,9 @@ public class AWSHelper {
 		describeSecurityGroupsRequest.setGroupNames(groupNames);
 
 		try {
-			ec2Client.setEndpoint(String.format(
-					Constants.EC2_ENDPOINT_URL_FORMAT, region));
+			acquirePermit();
 
-			DescribeSecurityGroupsResult describeSecurityGroupsResult = ec2Client
+			DescribeSecurityGroupsResult describeSecurityGroupsResult = getEc2Client(region)
 					.describeSecurityGroups(describeSecurityGroupsRequest);
 
 			List<SecurityGroup> securityGroups = describeSecurityGroupsResult
@@ -532,10 +679,9 @@ public class AWSHelper {
 		createSecurityGroupRequest.setDescription(description);
 
 		try {
-			ec2Client.setEndpoint(String.format(
-					Constants.EC2_ENDPOINT_URL_FORMAT, region));
+			acquirePermit();
 
-			CreateSecurityGroupResult createSecurityGroupResult = ec2Client
+			CreateSecurityGroupResult createSecurityGroupResult = getEc2Client(region)
 					.createSecurityGroup(createSecurityGroupRequest);
 
 			return createSecurityGroupResult.getGroupId();
@@ -583,10 +729,9 @@ public class AWSHelper {
 		SecurityGroup secirutyGroup = null;
 
 		try {
-			ec2Client.setEndpoint(String.format(
-					Constants.EC2_ENDPOINT_URL_FORMAT, region));
+			acquirePermit();
 
-			DescribeSecurityGroupsResult describeSecurityGroupsResult = ec2Client
+			DescribeSecurityGroupsResult describeSecurityGroupsResult = getEc2Client(region)
 					.describeSecurityGroups(describeSecurityGroupsRequest);
 
 			List<SecurityGroup> securityGroups = describeSecurityGroupsResult
@@ -628,10 +773,9 @@ public class AWSHelper {
 			authorizeSecurityGroupIngressRequest.setIpProtocol(protocol);
 
 			try {
-				ec2Client.setEndpoint(String.format(
-						Constants.EC2_ENDPOINT_URL_FORMAT, region));
+				acquirePermit();
 
-				ec2Client
+				getEc2Client(region)
 						.authorizeSecurityGroupIngress(authorizeSecurityGroupIngressRequest);
 
 			} catch (AmazonClientException e) {
@@ -651,12 +795,12 @@ public class AWSHelper {
 	 * @return Id of the security group
 	 * @throws LoadBalancerExtensionException
 	 */
-	public String getSecurityGroupIdForRegion(String region)
+	public synchronized String getSecurityGroupIdForRegion(String region)
 			throws LoadBalancerExtensionException {
 		if (region == null)
 			return null;
 
-		if (this.regionToSecurityGroupIdMap.contains(region)) {
+		if (this.regionToSecurityGroupIdMap.containsKey(region)) {
 			return this.regionToSecurityGroupIdMap.get(region);
 		} else {
 			// Get the the security group id if it is already present.
@@ -714,10 +858,9 @@ public class AWSHelper {
 			dimensions.add(loadBalancerDimension);
 			request.setDimensions(dimensions);
 
-			cloudWatchClient.setEndpoint(String.format(
-					Constants.CLOUD_WATCH_ENDPOINT_URL_FORMAT, region));
+			acquirePermit();
 
-			GetMetricStatisticsResult result = cloudWatchClient
+			GetMetricStatisticsResult result = getCloudWatchClient(region)
 					.getMetricStatistics(request);
 
 			List<Datapoint> dataPoints = result.getDatapoints();
@@ -814,10 +957,9 @@ public class AWSHelper {
 			dimensions.add(loadBalancerDimension);
 			request.setDimensions(dimensions);
 
-			cloudWatchClient.setEndpoint(String.format(
-					Constants.CLOUD_WATCH_ENDPOINT_URL_FORMAT, region));
+			acquirePermit();
 
-			GetMetricStatisticsResult result = cloudWatchClient
+			GetMetricStatisticsResult result = getCloudWatchClient(region)
 					.getMetricStatistics(request);
 
 			List<Datapoint> dataPoints = result.getDatapoints();
@@ -23,10 +23,16 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.threading.StratosThreadPool;
 import org.apache.stratos.load.balancer.common.domain.*;
 import org.apache.stratos.load.balancer.extension.api.exception.LoadBalancerExtensionException;
 import org.apache.stratos.load.balancer.extension.api.LoadBalancer;
@@ -45,175 +51,92 @@ public class AWSLoadBalancer implements LoadBalancer {
 	// Object used to invoke methods related to AWS API
 	private AWSHelper awsHelper;
 
-	public AWSLoadBalancer() throws LoadBalancerExtensionException {
-		awsHelper = new AWSHelper();
+	// Executor used to invoke AWS API calls of different load balancers
+	// concurrently
+	private ExecutorService executorService;
+
+	// Time at which the locally tracked instance state of load balancers was
+	// last synchronized with AWS
+	private long lastStateSyncTime;
+
+	public AWSLoadBalancer(AWSHelper awsHelper) {
+		this.awsHelper = awsHelper;
+		this.executorService = StratosThreadPool.getExecutorService(
+				"aws.extension.reconciler.thread.pool",
+				awsHelper.getMaxConcurrentRequests());
+		this.lastStateSyncTime = System.currentTimeMillis();
 	}
 
 	/*
-	 * configure method iterates over topology and configures the AWS load
+	 * configure method iterates over topology and reconciles the AWS load
 	 * balancers needed. Configuration may involve creating a new load balancer
 	 * for a cluster, updating existing load balancers or deleting unwanted load
-	 * balancers.
+	 * balancers. Instances registered with each load balancer are tracked
+	 * locally, hence only the differences are sent to AWS as a single register
+	 * and a single de-register call per load balancer. Calls of different load
+	 * balancers are made concurrently.
 	 */
-	public boolean configure(Topology topology)
+	public synchronized boolean configure(Topology topology)
 			throws LoadBalancerExtensionException {
 
 		log.info("AWS load balancer extension is being reconfigured.");
 
 		HashSet<String> activeClusters = new HashSet<String>();
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+
+		long currentTime = System.currentTimeMillis();
+		boolean stateSyncRequired = (currentTime - lastStateSyncTime) >= awsHelper
+				.getStateSyncInterval() * 1000L;
 
 		for (Service service : topology.getServices()) {
 			for (Cluster cluster : service.getClusters()) {
+				// clusterMembers stores all the members of a cluster.
+				Collection<Member> clusterMembers = cluster.getMembers();
+
+				if (clusterMembers.size() == 0) {
+					continue;
+				}
+				activeClusters.add(cluster.getClusterId());
+
 				// Check if a load balancer is created for this cluster
-				if (clusterIdToLoadBalancerMap.containsKey(cluster
-						.getClusterId())) {
-					// A load balancer is already present for this cluster
-					// Get the load balancer and update it.
+				LoadBalancerInfo loadBalancerInfo = clusterIdToLoadBalancerMap
+						.get(cluster.getClusterId());
 
+				if (loadBalancerInfo != null) {
 					if (log.isDebugEnabled()) {
 						log.debug("Load balancer for cluster "
 								+ cluster.getClusterId()
 								+ " is already present.");
 					}
 
-					LoadBalancerInfo loadBalancerInfo = clusterIdToLoadBalancerMap
-							.get(cluster.getClusterId());
-
-					String loadBalancerName = loadBalancerInfo.getName();
-					String region = loadBalancerInfo.getRegion();
-
-					// Get all the instances attached
-					// Attach newly added instances to load balancer
-
-					// attachedInstances list is useful in finding out what
-					// all new instances which
-					// should be attached to this load balancer.
-					List<Instance> attachedInstances = awsHelper
-							.getAttachedInstances(loadBalancerName, region);
-
-					// clusterMembers stores all the members of a cluster.
-					Collection<Member> clusterMembers = cluster.getMembers();
-
-					if (clusterMembers.size() > 0) {
-						activeClusters.add(cluster.getClusterId());
-
-						List<Instance> instancesToAddToLoadBalancer = new ArrayList<Instance>();
-
-						for (Member member : clusterMembers) {
-							// if instance id of member is not in
-							// attachedInstances
-							// add this to instancesToAddToLoadBalancer
-							Instance instance = new Instance(
-									awsHelper.getAWSInstanceName(member
-											.getInstanceId()));
-
-							if (attachedInstances == null
-									|| !attachedInstances.contains(instance)) {
-								instancesToAddToLoadBalancer.add(instance);
-
-								if (log.isDebugEnabled()) {
-									log.debug("Instance "
-											+ awsHelper
-													.getAWSInstanceName(member
-															.getInstanceId())
-											+ " needs to be registered to load balancer "
-											+ loadBalancerName);
-								}
-
-							}
-						}
-
-						if (instancesToAddToLoadBalancer.size() > 0)
-							awsHelper.registerInstancesToLoadBalancer(
-									loadBalancerName,
-									instancesToAddToLoadBalancer, region);
+					if (stateSyncRequired) {
+						tasks.add(new StateSyncTask(loadBalancerInfo));
 					}
-
 				} else {
 					// Create a new load balancer for this cluster
-					Collection<Member> clusterMembers = cluster.getMembers();
-
-					if (clusterMembers.size() > 0) {
-						// a unique load balancer name with user-defined
-						// prefix and a sequence number.
-						String loadBalancerName = awsHelper
-								.generateLoadBalancerName();
-
-						String region = awsHelper.getAWSRegion(clusterMembers
-								.iterator().next().getInstanceId());
-
-						// list of AWS listeners obtained using port
-						// mappings of one of the members of the cluster.
-						List<Listener> listenersForThisCluster = awsHelper
-								.getRequiredListeners(clusterMembers.iterator()
-										.next());
-
-						// DNS name of load balancer which was created.
-						// This is used in the domain mapping of this
-						// cluster.
-						String loadBalancerDNSName = awsHelper
-								.createLoadBalancer(loadBalancerName,
-										listenersForThisCluster, region);
-
-						// Add the inbound rule the security group of the load
-						// balancer
-						// For each listener, add a new rule with load
-						// balancer port as allowed protocol in the security
-						// group.
-						for (Listener listener : listenersForThisCluster) {
-							int port = listener.getLoadBalancerPort();
-
-							for (String protocol : awsHelper
-									.getAllowedProtocolsForLBSecurityGroup()) {
-								awsHelper
-										.addInboundRuleToSecurityGroup(
-												awsHelper.getSecurityGroupId(
-														awsHelper
-																.getLbSecurityGroupName(),
-														region), region,
-												protocol, port);
-							}
-						}
-
-						log.info("Load balancer '" + loadBalancerDNSName
-								+ "' created for cluster '"
-								+ cluster.getClusterId());
-
-						// Register instances in the cluster to load balancer
-						List<Instance> instances = new ArrayList<Instance>();
-
-						for (Member member : clusterMembers) {
-							String instanceId = member.getInstanceId();
-
-							if (log.isDebugEnabled()) {
-								log.debug("Instance "
-										+ awsHelper
-												.getAWSInstanceName(instanceId)
-										+ " needs to be registered to load balancer "
-										+ loadBalancerName);
-							}
-
-							Instance instance = new Instance();
-							instance.setInstanceId(awsHelper
-									.getAWSInstanceName(instanceId));
-
-							instances.add(instance);
-						}
-
-						awsHelper.registerInstancesToLoadBalancer(
-								loadBalancerName, instances, region);
-
-						LoadBalancerInfo loadBalancerInfo = new LoadBalancerInfo(
-								loadBalancerName, region);
-
-						clusterIdToLoadBalancerMap.put(cluster.getClusterId(),
-								loadBalancerInfo);
-						activeClusters.add(cluster.getClusterId());
-					}
+					loadBalancerInfo = createLoadBalancer(cluster);
+					clusterIdToLoadBalancerMap.put(cluster.getClusterId(),
+							loadBalancerInfo);
+				}
+
+				Set<String> instanceIds = new HashSet<String>();
+				for (Member member : clusterMembers) {
+					instanceIds.add(awsHelper.getAWSInstanceName(member
+							.getInstanceId()));
 				}
+				loadBalancerInfo.setRequiredInstanceIds(instanceIds);
 			}
 		}
 
+		// Re-synchronize the state of existing load balancers before computing
+		// the differences
+		executeTasks(tasks);
+		if (stateSyncRequired) {
+			lastStateSyncTime = currentTime;
+		}
+
+		tasks.clear();
+
 		// Find out clusters which were present earlier but are not now.
 		List<String> clustersToRemoveFromMap = new ArrayList<String>();
 
@@ -231,18 +154,110 @@ public class AWSLoadBalancer implements LoadBalancer {
 
 		// Delete load balancers associated with these clusters.
 		for (String clusterId : clustersToRemoveFromMap) {
-			// Remove load balancer for this cluster.
-			awsHelper.deleteLoadBalancer(
-					clusterIdToLoadBalancerMap.get(clusterId).getName(),
-					clusterIdToLoadBalancerMap.get(clusterId).getRegion());
-			clusterIdToLoadBalancerMap.remove(clusterId);
+			tasks.add(new DeleteTask(clusterIdToLoadBalancerMap
+					.remove(clusterId)));
+		}
+
+		// Register and de-register instances of the remaining load balancers
+		for (LoadBalancerInfo loadBalancerInfo : clusterIdToLoadBalancerMap
+				.values()) {
+			tasks.add(new ReconcileTask(loadBalancerInfo));
 		}
 
+		executeTasks(tasks);
+
 		activeClusters.clear();
 		log.info("AWS load balancer extension was reconfigured as per the topology.");
 		return true;
 	}
 
+	/**
+	 * Creates a load balancer for the given cluster. Instances are registered
+	 * afterwards by the reconcile task of the load balancer.
+	 * 
+	 * @param cluster
+	 * @return load balancer info
+	 * @throws LoadBalancerExtensionException
+	 */
+	private LoadBalancerInfo createLoadBalancer(Cluster cluster)
+			throws LoadBalancerExtensionException {
+		Collection<Member> clusterMembers = cluster.getMembers();
+
+		// a unique load balancer name with user-defined
+		// prefix and a sequence number.
+		String loadBalancerName = awsHelper.generateLoadBalancerName();
+
+		String region = awsHelper.getAWSRegion(clusterMembers.iterator()
+				.next().getInstanceId());
+
+		// list of AWS listeners obtained using port
+		// mappings of one of the members of the cluster.
+		List<Listener> listenersForThisCluster = awsHelper
+				.getRequiredListeners(clusterMembers.iterator().next());
+
+		// DNS name of load balancer which was created.
+		// This is used in the domain mapping of this
+		// cluster.
+		String loadBalancerDNSName = awsHelper.createLoadBalancer(
+				loadBalancerName, listenersForThisCluster, region);
+
+		// Add the inbound rule the security group of the load
+		// balancer
+		// For each listener, add a new rule with load
+		// balancer port as allowed protocol in the security
+		// group.
+		for (Listener listener : listenersForThisCluster) {
+			int port = listener.getLoadBalancerPort();
+
+			for (String protocol : awsHelper
+					.getAllowedProtocolsForLBSecurityGroup()) {
+				awsHelper.addInboundRuleToSecurityGroup(awsHelper
+						.getSecurityGroupId(awsHelper.getLbSecurityGroupName(),
+								region), region, protocol, port);
+			}
+		}
+
+		log.info("Load balancer '" + loadBalancerDNSName
+				+ "' created for cluster '" + cluster.getClusterId());
+
+		return new LoadBalancerInfo(loadBalancerName, region);
+	}
+
+	/**
+	 * Executes the given tasks concurrently and waits until all of them are
+	 * completed.
+	 * 
+	 * @param tasks
+	 */
+	private void executeTasks(List<Callable<Void>> tasks) {
+		if (tasks.isEmpty()) {
+			return;
+		}
+
+		try {
+			List<Future<Void>> futures = executorService.invokeAll(tasks);
+			for (Future<Void> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					log.error("Could not reconfigure AWS load balancer",
+							e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.warn("Interrupted while reconfiguring AWS load balancers");
+		}
+	}
+
+	private List<Instance> toInstances(Collection<String> instanceIds) {
+		List<Instance> instances = new ArrayList<Instance>();
+		for (String instanceId : instanceIds) {
+			instances.add(new Instance(instanceId));
+		}
+		return instances;
+	}
+
 	/*
 	 * start method is called after extension if configured first time. Does
 	 * nothing but logs the message.
@@ -266,31 +281,141 @@ public class AWSLoadBalancer implements LoadBalancer {
 	 */
 	public void stop() throws LoadBalancerExtensionException {
 		// Remove all load balancers
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
 		for (LoadBalancerInfo loadBalancerInfo : clusterIdToLoadBalancerMap
 				.values()) {
-			// Remove load balancer
-			awsHelper.deleteLoadBalancer(loadBalancerInfo.getName(),
-					loadBalancerInfo.getRegion());
+			tasks.add(new DeleteTask(loadBalancerInfo));
 		}
+		executeTasks(tasks);
 	}
 
 	public static ConcurrentHashMap<String, LoadBalancerInfo> getClusterIdToLoadBalancerMap() {
 		return clusterIdToLoadBalancerMap;
 	}
+
+	/**
+	 * Reads the instances attached to a load balancer from AWS and replaces the
+	 * locally tracked state.
+	 */
+	private class StateSyncTask implements Callable<Void> {
+		private final LoadBalancerInfo loadBalancerInfo;
+
+		private StateSyncTask(LoadBalancerInfo loadBalancerInfo) {
+			this.loadBalancerInfo = loadBalancerInfo;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			List<Instance> attachedInstances = awsHelper.getAttachedInstances(
+					loadBalancerInfo.getName(), loadBalancerInfo.getRegion());
+
+			if (attachedInstances != null) {
+				Set<String> instanceIds = new HashSet<String>();
+				for (Instance instance : attachedInstances) {
+					instanceIds.add(instance.getInstanceId());
+				}
+				loadBalancerInfo.setRegisteredInstanceIds(instanceIds);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Registers and de-registers the differences between required and
+	 * registered instances of a load balancer using a single call each.
+	 */
+	private class ReconcileTask implements Callable<Void> {
+		private final LoadBalancerInfo loadBalancerInfo;
+
+		private ReconcileTask(LoadBalancerInfo loadBalancerInfo) {
+			this.loadBalancerInfo = loadBalancerInfo;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			String loadBalancerName = loadBalancerInfo.getName();
+			String region = loadBalancerInfo.getRegion();
+
+			Set<String> instancesToRegister = new HashSet<String>(
+					loadBalancerInfo.getRequiredInstanceIds());
+			instancesToRegister.removeAll(loadBalancerInfo
+					.getRegisteredInstanceIds());
+
+			Set<String> instancesToDeregister = new HashSet<String>(
+					loadBalancerInfo.getRegisteredInstanceIds());
+			instancesToDeregister.removeAll(loadBalancerInfo
+					.getRequiredInstanceIds());
+
+			if (instancesToRegister.size() > 0) {
+				if (log.isDebugEnabled()) {
+					log.debug("Instances " + instancesToRegister
+							+ " need to be registered to load balancer "
+							+ loadBalancerName);
+				}
+
+				if (awsHelper.registerInstancesToLoadBalancer(
+						loadBalancerName, toInstances(instancesToRegister),
+						region)) {
+					loadBalancerInfo.addRegisteredInstanceIds(instancesToRegister);
+				}
+			}
+
+			if (instancesToDeregister.size() > 0) {
+				if (log.isDebugEnabled()) {
+					log.debug("Instances " + instancesToDeregister
+							+ " need to be de-registered from load balancer "
+							+ loadBalancerName);
+				}
+
+				if (awsHelper.deregisterInstancesFromLoadBalancer(
+						loadBalancerName, toInstances(instancesToDeregister),
+						region)) {
+					loadBalancerInfo
+							.removeRegisteredInstanceIds(instancesToDeregister);
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Deletes a load balancer.
+	 */
+	private class DeleteTask implements Callable<Void> {
+		private final LoadBalancerInfo loadBalancerInfo;
+
+		private DeleteTask(LoadBalancerInfo loadBalancerInfo) {
+			this.loadBalancerInfo = loadBalancerInfo;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			// Remove load balancer for this cluster.
+			awsHelper.deleteLoadBalancer(loadBalancerInfo.getName(),
+					loadBalancerInfo.getRegion());
+			return null;
+		}
+	}
 }
 
 /**
  * Used to store load balancer name and the region in which it is created. This
  * helps in finding region while calling API methods to modify/delete a load
- * balancer.
+ * balancer. Instances required by the cluster and the instances known to be
+ * registered with the load balancer are tracked to find the differences to be
+ * applied.
  */
 class LoadBalancerInfo {
 	private String name;
 	private String region;
+	private volatile Set<String> requiredInstanceIds;
+	private final Set<String> registeredInstanceIds;
 
 	public LoadBalancerInfo(String name, String region) {
 		this.name = name;
 		this.region = region;
+		this.requiredInstanceIds = new HashSet<String>();
+		this.registeredInstanceIds = new HashSet<String>();
 	}
 
 	public String getName() {
@@ -300,4 +425,32 @@ class LoadBalancerInfo {
 	public String getRegion() {
 		return region;
 	}
+
+	public Set<String> getRequiredInstanceIds() {
+		return requiredInstanceIds;
+	}
+
+	public void setRequiredInstanceIds(Set<String> requiredInstanceIds) {
+		this.requiredInstanceIds = requiredInstanceIds;
+	}
+
+	public synchronized Set<String> getRegisteredInstanceIds() {
+		return new HashSet<String>(registeredInstanceIds);
+	}
+
+	public synchronized void setRegisteredInstanceIds(
+			Set<String> registeredInstanceIds) {
+		this.registeredInstanceIds.clear();
+		this.registeredInstanceIds.addAll(registeredInstanceIds);
+	}
+
+	public synchronized void addRegisteredInstanceIds(
+			Collection<String> instanceIds) {
+		registeredInstanceIds.addAll(instanceIds);
+	}
+
+	public synchronized void removeRegisteredInstanceIds(
+			Collection<String> instanceIds) {
+		registeredInstanceIds.removeAll(instanceIds);
+	}
 }
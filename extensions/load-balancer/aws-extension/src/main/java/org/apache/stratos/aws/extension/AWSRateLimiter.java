@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.aws.extension;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A simple rate limiter which spaces out permits evenly to allow a given
+ * number of AWS API calls per second.
+ */
+public class AWSRateLimiter {
+
+	private final long intervalNanos;
+	private long nextPermitTime;
+
+	public AWSRateLimiter(int permitsPerSecond) {
+		if (permitsPerSecond < 1) {
+			throw new IllegalArgumentException(
+					"Permits per second should be greater than zero: "
+							+ permitsPerSecond);
+		}
+		this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+		this.nextPermitTime = System.nanoTime();
+	}
+
+	/**
+	 * Blocks until a permit is available.
+	 * 
+	 * @throws InterruptedException
+	 */
+	public void acquire() throws InterruptedException {
+		long waitTime;
+
+		synchronized (this) {
+			long now = System.nanoTime();
+			long permitTime = Math.max(now, nextPermitTime);
+			nextPermitTime = permitTime + intervalNanos;
+			waitTime = permitTime - now;
+		}
+
+		if (waitTime > 0) {
+			TimeUnit.NANOSECONDS.sleep(waitTime);
+		}
+	}
+}
@@ -22,32 +22,64 @@ package org.apache.stratos.aws.extension;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.common.constants.StratosConstants;
+import org.apache.stratos.common.threading.StratosThreadPool;
 import org.apache.stratos.load.balancer.common.statistics.LoadBalancerStatisticsReader;
 import org.apache.stratos.load.balancer.common.topology.TopologyProvider;
-import org.apache.stratos.load.balancer.extension.api.exception.LoadBalancerExtensionException;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
- * AWS statistics reader.
+ * AWS statistics reader. In-flight request counts of all load balancers are
+ * read concurrently and the snapshot is reused for all clusters until it
+ * expires.
  */
 public class AWSStatisticsReader implements LoadBalancerStatisticsReader {
 
 	private static final Log log = LogFactory.getLog(AWSStatisticsReader.class);
+	private static final long DEFAULT_STATS_EXPIRY_TIME = 5000;
 
 	private TopologyProvider topologyProvider;
 	private String clusterInstanceId;
 
 	private AWSHelper awsHelper;
+	private ExecutorService executorService;
+	private long statsExpiryTime;
+
+	// A map <clusterId, in-flight request count> read at statsTimestamp
+	private Map<String, Integer> inFlightRequestCounts;
+	private long statsTimestamp;
+
+	/**
+	 * @param topologyProvider
+	 * @param awsHelper
+	 *            AWS helper shared with the load balancer, so that both are
+	 *            throttled by the same rate limiter
+	 */
+	public AWSStatisticsReader(TopologyProvider topologyProvider,
+			AWSHelper awsHelper) {
+		this(topologyProvider, awsHelper, Long.getLong("stats.expiry.time",
+				DEFAULT_STATS_EXPIRY_TIME));
+	}
 
-	public AWSStatisticsReader(TopologyProvider topologyProvider)
-			throws LoadBalancerExtensionException {
+	public AWSStatisticsReader(TopologyProvider topologyProvider,
+			AWSHelper awsHelper, long statsExpiryTime) {
 		this.topologyProvider = topologyProvider;
 		this.clusterInstanceId = System.getProperty(
 				StratosConstants.CLUSTER_INSTANCE_ID,
 				StratosConstants.NOT_DEFINED);
 
-		awsHelper = new AWSHelper();
+		this.awsHelper = awsHelper;
+		this.statsExpiryTime = statsExpiryTime;
+		this.executorService = StratosThreadPool.getExecutorService(
+				"aws.extension.statistics.thread.pool",
+				awsHelper.getMaxConcurrentRequests());
 	}
 
 	@Override
@@ -57,33 +89,77 @@ public class AWSStatisticsReader implements LoadBalancerStatisticsReader {
 
 	@Override
 	public int getInFlightRequestCount(String clusterId) {
+		Integer inFlightRequestCount = getInFlightRequestCounts()
+				.get(clusterId);
+		return (inFlightRequestCount == null) ? 0 : inFlightRequestCount;
+	}
+
+	/**
+	 * Returns the statistics snapshot, reads the in-flight request counts of
+	 * all load balancers from AWS if the current snapshot has expired.
+	 */
+	private synchronized Map<String, Integer> getInFlightRequestCounts() {
+		if ((inFlightRequestCounts != null)
+				&& (System.currentTimeMillis() - statsTimestamp < statsExpiryTime)) {
+			return inFlightRequestCounts;
+		}
+
+		List<String> clusterIds = new ArrayList<String>();
+		List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+
+		for (Map.Entry<String, LoadBalancerInfo> entry : AWSLoadBalancer
+				.getClusterIdToLoadBalancerMap().entrySet()) {
+			clusterIds.add(entry.getKey());
+			tasks.add(new InFlightRequestCountTask(entry.getValue()));
+		}
+
+		Map<String, Integer> counts = new HashMap<String, Integer>();
+		try {
+			List<Future<Integer>> futures = executorService.invokeAll(tasks);
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					counts.put(clusterIds.get(i), futures.get(i).get());
+				} catch (ExecutionException e) {
+					log.error("Could not read statistics of cluster "
+							+ clusterIds.get(i), e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.warn("Interrupted while reading AWS load balancer statistics");
+		}
 
-		int inFlightRequestCount = 0;
+		inFlightRequestCounts = counts;
+		statsTimestamp = System.currentTimeMillis();
+		return inFlightRequestCounts;
+	}
 
-		ConcurrentHashMap<String, LoadBalancerInfo> clusterIdToLoadBalancerMap = AWSLoadBalancer
-				.getClusterIdToLoadBalancerMap();
+	/**
+	 * Finds the difference between total requests made to a load balancer and
+	 * total responses generated by instances attached to it.
+	 */
+	private class InFlightRequestCountTask implements Callable<Integer> {
+		private final LoadBalancerInfo loadBalancerInfo;
 
-		// Check if load balancer info is available for this cluster.
-		// If yes, then find difference between total requests made to the load balancer and 
-		// total responses generated by instances attached to it.
-		if (clusterIdToLoadBalancerMap.containsKey(clusterId)) {
-			LoadBalancerInfo loadBalancerInfo = clusterIdToLoadBalancerMap
-					.get(clusterId);
+		private InFlightRequestCountTask(LoadBalancerInfo loadBalancerInfo) {
+			this.loadBalancerInfo = loadBalancerInfo;
+		}
 
+		@Override
+		public Integer call() throws Exception {
 			String loadBalancerName = loadBalancerInfo.getName();
 			String region = loadBalancerInfo.getRegion();
 
 			// In flight request count = total requests - total responses
-			inFlightRequestCount = awsHelper.getRequestCount(loadBalancerName,
-					region, awsHelper.getStatisticsInterval())
+			int inFlightRequestCount = awsHelper.getRequestCount(
+					loadBalancerName, region, awsHelper.getStatisticsInterval())
 					- awsHelper.getAllResponsesCount(loadBalancerName, region,
 							awsHelper.getStatisticsInterval());
 
 			if (inFlightRequestCount < 0)
 				inFlightRequestCount = 0;
 
+			return inFlightRequestCount;
 		}
-
-		return inFlightRequestCount;
 	}
 }
@@ -53,4 +53,10 @@ public class Constants {
 	public static final String HTTP_RESPONSE_5XX = "HTTPCode_Backend_5XX";
 	public static final String STATISTICS_INTERVAL = "statistics-interval";
 	public static final int STATISTICS_INTERVAL_MULTIPLE_OF = 60;
+	public static final String MAX_CONCURRENT_REQUESTS = "max-concurrent-requests";
+	public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 5;
+	public static final String MAX_REQUESTS_PER_SECOND = "max-requests-per-second";
+	public static final int DEFAULT_MAX_REQUESTS_PER_SECOND = 10;
+	public static final String STATE_SYNC_INTERVAL = "state-sync-interval";
+	public static final int DEFAULT_STATE_SYNC_INTERVAL = 600;
 }
@@ -53,11 +53,14 @@ public class Main {
 			// Validate runtime parameters
 			AWSExtensionContext.getInstance().validate();
 			TopologyProvider topologyProvider = new TopologyProvider();
+			// Load balancer and statistics reader share the AWS clients and
+			// the request rate limit
+			AWSHelper awsHelper = new AWSHelper();
 			AWSStatisticsReader statisticsReader = AWSExtensionContext
 					.getInstance().isCEPStatsPublisherEnabled() ? new AWSStatisticsReader(
-					topologyProvider) : null;
-			extension = new LoadBalancerExtension(new AWSLoadBalancer(),
-					statisticsReader, topologyProvider);
+					topologyProvider, awsHelper) : null;
+			extension = new LoadBalancerExtension(new AWSLoadBalancer(
+					awsHelper), statisticsReader, topologyProvider);
 			extension.setExecutorService(executorService);
 			extension.execute();
 
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.aws.extension.test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.stratos.aws.extension.AWSHelper;
+import org.apache.stratos.aws.extension.AWSLoadBalancer;
+import org.apache.stratos.load.balancer.common.domain.Cluster;
+import org.apache.stratos.load.balancer.common.domain.Member;
+import org.apache.stratos.load.balancer.common.domain.Service;
+import org.apache.stratos.load.balancer.common.domain.Topology;
+import org.apache.stratos.load.balancer.extension.api.exception.LoadBalancerExtensionException;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.services.elasticloadbalancing.model.Instance;
+import com.amazonaws.services.elasticloadbalancing.model.Listener;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests incremental reconciliation of AWS load balancers.
+ */
+public class AWSLoadBalancerTest {
+
+	private static final String SERVICE_NAME = "php";
+	private static final String CLUSTER_ID = "php.cluster";
+
+	private StubAWSHelper awsHelper;
+	private AWSLoadBalancer awsLoadBalancer;
+
+	@Before
+	public void setUp() throws LoadBalancerExtensionException {
+		AWSLoadBalancer.getClusterIdToLoadBalancerMap().clear();
+		awsHelper = new StubAWSHelper();
+		awsLoadBalancer = new AWSLoadBalancer(awsHelper);
+	}
+
+	/**
+	 * Only the instances added or removed since the previous configuration
+	 * should be sent to AWS, using one call per load balancer.
+	 */
+	@Test
+	public void testOnlyDifferencesAreApplied()
+			throws LoadBalancerExtensionException {
+		awsLoadBalancer.configure(createTopology("i-1", "i-2"));
+		assertEquals(1, awsHelper.createCount);
+		assertEquals(1, awsHelper.registerCount);
+		assertEquals(toSet("i-1", "i-2"), awsHelper.registeredInstanceIds);
+
+		awsLoadBalancer.configure(createTopology("i-1", "i-2"));
+		assertEquals(1, awsHelper.registerCount);
+		assertEquals(0, awsHelper.deregisterCount);
+
+		awsLoadBalancer.configure(createTopology("i-2", "i-3", "i-4"));
+		assertEquals(1, awsHelper.createCount);
+		assertEquals(2, awsHelper.registerCount);
+		assertEquals(1, awsHelper.deregisterCount);
+		assertEquals(toSet("i-2", "i-3", "i-4"),
+				awsHelper.registeredInstanceIds);
+
+		// Nothing should be read back from AWS before state sync interval
+		assertEquals(0, awsHelper.describeCount);
+	}
+
+	/**
+	 * Failed registrations should be retried in the next configuration.
+	 */
+	@Test
+	public void testFailedRegistrationIsRetried()
+			throws LoadBalancerExtensionException {
+		awsHelper.failRequests = true;
+		awsLoadBalancer.configure(createTopology("i-1"));
+		assertTrue(awsHelper.registeredInstanceIds.isEmpty());
+
+		awsHelper.failRequests = false;
+		awsLoadBalancer.configure(createTopology("i-1"));
+		assertEquals(2, awsHelper.registerCount);
+		assertEquals(toSet("i-1"), awsHelper.registeredInstanceIds);
+	}
+
+	@Test
+	public void testLoadBalancerOfRemovedClusterIsDeleted()
+			throws LoadBalancerExtensionException {
+		awsLoadBalancer.configure(createTopology("i-1"));
+		awsLoadBalancer.configure(new Topology());
+		assertEquals(1, awsHelper.deleteCount);
+		assertTrue(AWSLoadBalancer.getClusterIdToLoadBalancerMap().isEmpty());
+	}
+
+	private Topology createTopology(String... instanceIds) {
+		Topology topology = new Topology();
+		Service service = new Service(SERVICE_NAME);
+		Cluster cluster = new Cluster(SERVICE_NAME, CLUSTER_ID);
+		for (String instanceId : instanceIds) {
+			Member member = new Member(SERVICE_NAME, CLUSTER_ID, instanceId,
+					"10.0.0.1");
+			member.setInstanceId("us-east-1/" + instanceId);
+			cluster.addMember(member);
+		}
+		service.addCluster(cluster);
+		topology.addService(service);
+		return topology;
+	}
+
+	private static Set<String> toSet(String... values) {
+		Set<String> set = new HashSet<String>();
+		for (String value : values) {
+			set.add(value);
+		}
+		return set;
+	}
+
+	/**
+	 * AWS helper which keeps load balancer state in memory and counts the
+	 * calls made.
+	 */
+	private static class StubAWSHelper extends AWSHelper {
+		private int createCount;
+		private int registerCount;
+		private int deregisterCount;
+		private int deleteCount;
+		private int describeCount;
+		private volatile boolean failRequests;
+		private final Set<String> registeredInstanceIds = new HashSet<String>();
+
+		private StubAWSHelper() throws LoadBalancerExtensionException {
+			super(createProperties());
+		}
+
+		private static Properties createProperties() {
+			Properties properties = new Properties();
+			properties.setProperty("access-key", "access-key");
+			properties.setProperty("secret-key", "secret-key");
+			properties.setProperty("load-balancer-prefix", "test-");
+			properties.setProperty("load-balancer-security-group-name",
+					"test-security-group");
+			properties.setProperty("allowed-cidr-ip", "0.0.0.0/0");
+			properties.setProperty("allowed-protocols", "tcp");
+			return properties;
+		}
+
+		@Override
+		public List<Listener> getRequiredListeners(Member member) {
+			return new ArrayList<Listener>();
+		}
+
+		@Override
+		public synchronized String createLoadBalancer(String name,
+				List<Listener> listeners, String region) {
+			createCount++;
+			return name + ".elb.amazonaws.com";
+		}
+
+		@Override
+		public synchronized void deleteLoadBalancer(String loadBalancerName,
+				String region) {
+			deleteCount++;
+		}
+
+		@Override
+		public synchronized boolean registerInstancesToLoadBalancer(
+				String loadBalancerName, List<Instance> instances,
+				String region) {
+			registerCount++;
+			if (failRequests) {
+				return false;
+			}
+			for (Instance instance : instances) {
+				registeredInstanceIds.add(instance.getInstanceId());
+			}
+			return true;
+		}
+
+		@Override
+		public synchronized boolean deregisterInstancesFromLoadBalancer(
+				String loadBalancerName, List<Instance> instances,
+				String region) {
+			deregisterCount++;
+			if (failRequests) {
+				return false;
+			}
+			for (Instance instance : instances) {
+				registeredInstanceIds.remove(instance.getInstanceId());
+			}
+			return true;
+		}
+
+		@Override
+		public synchronized List<Instance> getAttachedInstances(
+				String loadBalancerName, String region) {
+			describeCount++;
+			List<Instance> instances = new ArrayList<Instance>();
+			for (String instanceId : registeredInstanceIds) {
+				instances.add(new Instance(instanceId));
+			}
+			return instances;
+		}
+	}
+}
@@ -29,9 +29,11 @@ properties="-Dhaproxy.private.ip=127.0.0.1
             -Djndi.properties.dir=${script_path}/../conf
             -Dtemplates.path=${script_path}/../templates
             -Dtemplates.name=haproxy.cfg.template
-            -Dscripts.path=${script_path}/../scripts
             -Dconf.file.path=/tmp/haproxy.cfg
             -Dstats.socket.file.path=/tmp/haproxy-stats.socket
+            -Druntime.api.ip=127.0.0.1
+            -Druntime.api.port=9999
+            -Dbackend.server.slots=10
             -Dlog4j.properties.file.path=${script_path}/../conf/log4j.properties
             -Djavax.net.ssl.trustStore=${script_path}/../security/client-truststore.jks
             -Djavax.net.ssl.trustStorePassword=wso2carbon
@@ -27,9 +27,12 @@ public class Constants {
     public static final String EXECUTABLE_FILE_PATH = "executable.file.path";
     public static final String TEMPLATES_PATH = "templates.path";
     public static final String TEMPLATES_NAME = "templates.name";
-    public static final String SCRIPTS_PATH = "scripts.path";
     public static final String CONF_FILE_PATH = "conf.file.path";
     public static final String STATS_SOCKET_FILE_PATH = "stats.socket.file.path";
+    public static final String RUNTIME_API_IP = "runtime.api.ip";
+    public static final String RUNTIME_API_PORT = "runtime.api.port";
+    public static final String RUNTIME_API_TIMEOUT = "runtime.api.timeout";
+    public static final String BACKEND_SERVER_SLOTS = "backend.server.slots";
     public static final String CEP_STATS_PUBLISHER_ENABLED = "cep.stats.publisher.enabled";
     public static final String THRIFT_RECEIVER_IP = "thrift.receiver.ip";
     public static final String THRIFT_RECEIVER_PORT = "thrift.receiver.port";
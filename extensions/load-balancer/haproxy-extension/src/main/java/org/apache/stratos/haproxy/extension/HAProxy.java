@@ -29,6 +29,9 @@ import org.apache.stratos.load.balancer.common.domain.Topology;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 
 /**
@@ -37,6 +40,8 @@ import java.util.Vector;
 public class HAProxy implements LoadBalancer {
 
     private static final Log log = LogFactory.getLog(HAProxy.class);
+    private static final String[] RUNTIME_API_ERROR_PREFIXES = new String[]{"No such", "Unknown", "Require",
+            "Invalid", "Permission denied"};
 
     private String executableFilePath;
     private String processIdFilePath;
@@ -44,8 +49,16 @@ public class HAProxy implements LoadBalancer {
     private String templateName;
     private String confFilePath;
     private String statsSocketFilePath;
-
-    public HAProxy() {
+    private HAProxyRuntimeApiClient runtimeApiClient;
+    private HAProxyServerSlots serverSlots;
+    private String frontendConfiguration;
+    private boolean started;
+    private boolean reloadRequired;
+
+    public HAProxy(HAProxyRuntimeApiClient runtimeApiClient) {
+        this.runtimeApiClient = runtimeApiClient;
+        this.serverSlots = new HAProxyServerSlots(HAProxyContext.getInstance().getBackendServerSlots());
+        this.reloadRequired = true;
         this.executableFilePath = HAProxyContext.getInstance().getExecutableFilePath();
         this.templatePath = HAProxyContext.getInstance().getTemplatePath();
         this.templateName = HAProxyContext.getInstance().getTemplateName();
@@ -55,15 +68,28 @@ public class HAProxy implements LoadBalancer {
     }
 
     /**
-     * Configure haproxy instance according to topology given
+     * Configure haproxy instance according to topology given. If haproxy is running and only backend members
+     * have changed, the changes are applied via the runtime api and the next reload() call becomes a no-op.
      * @param topology
      * @throws LoadBalancerExtensionException
      */
     public boolean configure(Topology topology) throws LoadBalancerExtensionException {
         try {
             log.info("Generating haproxy configuration...");
-            HAProxyConfigWriter writer = new HAProxyConfigWriter(templatePath, templateName, confFilePath, statsSocketFilePath);
+            Map<String, List<HAProxyServerSlots.Endpoint>> backends = HAProxyServerSlots.collectBackends(topology);
+            boolean runtimeUpdatable = started && serverSlots.isRuntimeUpdatable(backends);
+            // Update a copy of the slots, the current allocation is kept if the configuration is not written
+            HAProxyServerSlots updatedServerSlots = serverSlots.copy();
+            List<String> commands = updatedServerSlots.update(backends);
+
+            String runtimeApiAddress = runtimeApiClient.getHost() + ":" + runtimeApiClient.getPort();
+            HAProxyConfigWriter writer = new HAProxyConfigWriter(templatePath, templateName, confFilePath,
+                    statsSocketFilePath, runtimeApiAddress, updatedServerSlots);
             if(writer.write(topology)) {
+                serverSlots = updatedServerSlots;
+                boolean frontendsChanged = !writer.getFrontendConfiguration().equals(frontendConfiguration);
+                frontendConfiguration = writer.getFrontendConfiguration();
+                reloadRequired = !runtimeUpdatable || frontendsChanged || !executeRuntimeCommands(commands);
                 return true;
             }
             return false;
@@ -89,6 +115,8 @@ public class HAProxy implements LoadBalancer {
         try {
             String command = executableFilePath + " -f " + confFilePath + " -p " + processIdFilePath;
             CommandUtils.executeCommand(command);
+            started = true;
+            reloadRequired = false;
             log.info("haproxy instance started");
         } catch (Exception e) {
             log.error("Could not start haproxy instance");
@@ -101,6 +129,13 @@ public class HAProxy implements LoadBalancer {
      * @throws LoadBalancerExtensionException
      */
     public void reload() throws LoadBalancerExtensionException {
+        if (!reloadRequired) {
+            if (log.isInfoEnabled()) {
+                log.info("Configuration applied via runtime api, reload not required");
+            }
+            return;
+        }
+
         try {
             log.info("Reloading configuration...");
 
@@ -115,6 +150,7 @@ public class HAProxy implements LoadBalancer {
             // Execute hot configuration deployment
             String command = executableFilePath + " -f " + confFilePath + " -p " + processIdFilePath + " -sf " + pid;
             CommandUtils.executeCommand(command);
+            reloadRequired = false;
             if (log.isInfoEnabled()) {
                 log.info("Configuration done");
             }
@@ -126,6 +162,42 @@ public class HAProxy implements LoadBalancer {
         }
     }
 
+    /**
+     * Apply backend server changes to the running haproxy process via the runtime api.
+     * @param commands runtime api commands
+     * @return true if the commands were applied, false if a reload is required
+     */
+    private boolean executeRuntimeCommands(List<String> commands) {
+        if (commands.isEmpty()) {
+            return true;
+        }
+        try {
+            String output = runtimeApiClient.execute(commands);
+            for (String line : output.split("\r?\n")) {
+                if (isRuntimeApiError(line)) {
+                    log.warn(String.format("Could not apply backend changes via runtime api, reloading: %s", line));
+                    return false;
+                }
+            }
+            if (log.isInfoEnabled()) {
+                log.info(String.format("Backend changes applied via runtime api: [commands] %d", commands.size()));
+            }
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not connect to haproxy runtime api, reloading", e);
+            return false;
+        }
+    }
+
+    private boolean isRuntimeApiError(String line) {
+        for (String prefix : RUNTIME_API_ERROR_PREFIXES) {
+            if (line.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Stop haproxy instance
      * @throws LoadBalancerExtensionException
@@ -44,14 +44,31 @@ public class HAProxyConfigWriter {
     private String templateName;
     private String confFilePath;
     private String statsSocketFilePath;
+    private String runtimeApiAddress;
+    private HAProxyServerSlots serverSlots;
+    private String frontendConfiguration;
 
     public HAProxyConfigWriter(String templatePath, String templateName, String confFilePath,
-                               String statsSocketFilePath) {
+                               String statsSocketFilePath, String runtimeApiAddress,
+                               HAProxyServerSlots serverSlots) {
 
         this.templatePath = templatePath;
         this.templateName = templateName;
         this.confFilePath = confFilePath;
         this.statsSocketFilePath = statsSocketFilePath;
+        this.runtimeApiAddress = runtimeApiAddress;
+        this.serverSlots = serverSlots;
+    }
+
+    /**
+     * Returns the backend id used for the given hostname and port.
+     *
+     * @param hostname cluster hostname
+     * @param port     service port
+     * @return backend id
+     */
+    public static String getBackendId(String hostname, Port port) {
+        return hostname + "_" + port.getProtocol() + "_" + port.getValue() + "_backend";
     }
 
     public boolean write(Topology topology) {
@@ -59,6 +76,10 @@ public class HAProxyConfigWriter {
         StringBuilder globalParameters = new StringBuilder();
         globalParameters.append("stats socket ");
         globalParameters.append(statsSocketFilePath);
+        globalParameters.append(" level admin").append(NEW_LINE);
+        globalParameters.append("    stats socket ipv4@");
+        globalParameters.append(runtimeApiAddress);
+        globalParameters.append(" level admin");
 
         StringBuilder frontendCollection = new StringBuilder();
         StringBuilder backendCollection = new StringBuilder();
@@ -80,7 +101,8 @@ public class HAProxyConfigWriter {
         // Insert strings into the template
         VelocityContext context = new VelocityContext();
         context.put("global_parameters", globalParameters.toString());
-        context.put("frontend_collection", frontendCollection.toString());
+        frontendConfiguration = frontendCollection.toString();
+        context.put("frontend_collection", frontendConfiguration);
         context.put("backend_collection", backendCollection.toString());
 
         // Create a new string from the template
@@ -106,6 +128,15 @@ public class HAProxyConfigWriter {
         }
     }
 
+    /**
+     * Returns the frontend configuration generated by the last write() invocation.
+     *
+     * @return frontend configuration
+     */
+    public String getFrontendConfiguration() {
+        return frontendConfiguration;
+    }
+
     private void createConfig(Service service, Cluster cluster, StringBuilder frontendCollection,
                               StringBuilder backendCollection) {
 
@@ -124,7 +155,7 @@ public class HAProxyConfigWriter {
             frontendCollection.append("\tmode ").append(protocol).append(NEW_LINE);
 
             for (String hostname : cluster.getHostNames()) {
-                String backendId = hostname + "_" + protocol + "_" + port.getValue() + "_backend";
+                String backendId = getBackendId(hostname, port);
 
                 frontendCollection.append("\tacl ").append("is_").append(hostname).append(" hdr_beg(host) -i ")
                         .append(hostname).append(NEW_LINE);
@@ -135,9 +166,8 @@ public class HAProxyConfigWriter {
                 // Backend block start
                 backendCollection.append("backend ").append(backendId).append(NEW_LINE);
                 backendCollection.append("\tmode ").append(protocol).append(NEW_LINE);
-                for (Member member : cluster.getMembers()) {
-                    backendCollection.append("\tserver ").append(member.getMemberId()).append(" ")
-                            .append(member.getHostName()).append(":").append(port.getValue()).append(NEW_LINE);
+                for (String serverLine : serverSlots.getServerLines(backendId, port.getValue())) {
+                    backendCollection.append("\t").append(serverLine).append(NEW_LINE);
                 }
                 backendCollection.append(NEW_LINE);
                 // Backend block end
@@ -34,9 +34,12 @@ public class HAProxyContext {
     private String executableFilePath;
     private String templatePath;
     private String templateName;
-    private String scriptsPath;
     private String confFilePath;
     private String statsSocketFilePath;
+    private String runtimeApiIp;
+    private int runtimeApiPort;
+    private int runtimeApiTimeout;
+    private int backendServerSlots;
     private boolean cepStatsPublisherEnabled;
     private String thriftReceiverIp;
     private String thriftReceiverPort;
@@ -49,9 +52,12 @@ public class HAProxyContext {
         this.executableFilePath = System.getProperty(Constants.EXECUTABLE_FILE_PATH);
         this.templatePath = System.getProperty(Constants.TEMPLATES_PATH);
         this.templateName = System.getProperty(Constants.TEMPLATES_NAME);
-        this.scriptsPath = System.getProperty(Constants.SCRIPTS_PATH);
         this.confFilePath = System.getProperty(Constants.CONF_FILE_PATH);
         this.statsSocketFilePath = System.getProperty(Constants.STATS_SOCKET_FILE_PATH);
+        this.runtimeApiIp = System.getProperty(Constants.RUNTIME_API_IP, "127.0.0.1");
+        this.runtimeApiPort = Integer.getInteger(Constants.RUNTIME_API_PORT, 9999);
+        this.runtimeApiTimeout = Integer.getInteger(Constants.RUNTIME_API_TIMEOUT, 5000);
+        this.backendServerSlots = Integer.getInteger(Constants.BACKEND_SERVER_SLOTS, 10);
         this.cepStatsPublisherEnabled = Boolean.getBoolean(Constants.CEP_STATS_PUBLISHER_ENABLED);
         this.thriftReceiverIp = System.getProperty(Constants.THRIFT_RECEIVER_IP);
         this.thriftReceiverPort = System.getProperty(Constants.THRIFT_RECEIVER_PORT);
@@ -64,9 +70,12 @@ public class HAProxyContext {
             log.debug(Constants.EXECUTABLE_FILE_PATH + " = " + executableFilePath);
             log.debug(Constants.TEMPLATES_PATH + " = " + templatePath);
             log.debug(Constants.TEMPLATES_NAME + " = " + templateName);
-            log.debug(Constants.SCRIPTS_PATH + " = " + scriptsPath);
             log.debug(Constants.CONF_FILE_PATH + " = " + confFilePath);
             log.debug(Constants.STATS_SOCKET_FILE_PATH + " = " + statsSocketFilePath);
+            log.debug(Constants.RUNTIME_API_IP + " = " + runtimeApiIp);
+            log.debug(Constants.RUNTIME_API_PORT + " = " + runtimeApiPort);
+            log.debug(Constants.RUNTIME_API_TIMEOUT + " = " + runtimeApiTimeout);
+            log.debug(Constants.BACKEND_SERVER_SLOTS + " = " + backendServerSlots);
             log.debug(Constants.CEP_STATS_PUBLISHER_ENABLED + " = " + cepStatsPublisherEnabled);
             log.debug(Constants.THRIFT_RECEIVER_IP + " = " + thriftReceiverIp);
             log.debug(Constants.THRIFT_RECEIVER_PORT + " = " + thriftReceiverPort);
@@ -91,7 +100,6 @@ public class HAProxyContext {
         validateSystemProperty(Constants.EXECUTABLE_FILE_PATH);
         validateSystemProperty(Constants.TEMPLATES_PATH);
         validateSystemProperty(Constants.TEMPLATES_NAME);
-        validateSystemProperty(Constants.SCRIPTS_PATH);
         validateSystemProperty(Constants.CONF_FILE_PATH);
         validateSystemProperty(Constants.STATS_SOCKET_FILE_PATH);
         validateSystemProperty(Constants.CEP_STATS_PUBLISHER_ENABLED);
@@ -127,10 +135,6 @@ public class HAProxyContext {
         return templateName;
     }
 
-    public String getScriptsPath() {
-        return scriptsPath;
-    }
-
     public String getConfFilePath() {
         return confFilePath;
     }
@@ -139,6 +143,22 @@ public class HAProxyContext {
         return statsSocketFilePath;
     }
 
+    public String getRuntimeApiIp() {
+        return runtimeApiIp;
+    }
+
+    public int getRuntimeApiPort() {
+        return runtimeApiPort;
+    }
+
+    public int getRuntimeApiTimeout() {
+        return runtimeApiTimeout;
+    }
+
+    public int getBackendServerSlots() {
+        return backendServerSlots;
+    }
+
     public boolean isCEPStatsPublisherEnabled() {
         return cepStatsPublisherEnabled;
     }
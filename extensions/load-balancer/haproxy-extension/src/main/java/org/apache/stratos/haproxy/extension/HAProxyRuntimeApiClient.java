@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.haproxy.extension;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+
+/**
+ * HAProxy runtime API client. Talks to the admin stats socket of the running haproxy process
+ * so that statistics could be read and backend servers could be updated without reloading the process.
+ * The socket is used in non-interactive mode; a set of commands is sent in a single connection
+ * separated by semicolons and haproxy closes the connection once the responses are written.
+ */
+public class HAProxyRuntimeApiClient {
+
+    private static final Log log = LogFactory.getLog(HAProxyRuntimeApiClient.class);
+    private static final String NEW_LINE = System.getProperty("line.separator");
+
+    private final String host;
+    private final int port;
+    private final int timeout;
+
+    public HAProxyRuntimeApiClient(String host, int port, int timeout) {
+        this.host = host;
+        this.port = port;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Execute the given commands in a single runtime API connection.
+     *
+     * @param commands runtime API commands
+     * @return raw output of the commands
+     * @throws IOException if the socket could not be reached
+     */
+    public String execute(List<String> commands) throws IOException {
+        StringBuilder request = new StringBuilder();
+        for (String command : commands) {
+            if (request.length() > 0) {
+                request.append("; ");
+            }
+            request.append(command);
+        }
+        return execute(request.toString());
+    }
+
+    /**
+     * Execute a runtime API command.
+     *
+     * @param command runtime API command, multiple commands could be separated by semicolons
+     * @return raw output of the command
+     * @throws IOException if the socket could not be reached
+     */
+    public String execute(String command) throws IOException {
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Executing haproxy runtime api command: [socket] %s:%d [command] %s",
+                    host, port, command));
+        }
+
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), timeout);
+            socket.setSoTimeout(timeout);
+
+            OutputStream outputStream = socket.getOutputStream();
+            outputStream.write((command + "\n").getBytes("UTF-8"));
+            outputStream.flush();
+
+            StringBuilder output = new StringBuilder();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.append(line).append(NEW_LINE);
+            }
+            return output.toString();
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    /**
+     * Read statistics of all frontends, backends and servers using a single show stat command.
+     *
+     * @return parsed statistics
+     * @throws IOException if the socket could not be reached
+     */
+    public HAProxyStats showStat() throws IOException {
+        return HAProxyStats.parse(execute("show stat"));
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.haproxy.extension;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.load.balancer.common.domain.Cluster;
+import org.apache.stratos.load.balancer.common.domain.Member;
+import org.apache.stratos.load.balancer.common.domain.Port;
+import org.apache.stratos.load.balancer.common.domain.Service;
+import org.apache.stratos.load.balancer.common.domain.Topology;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of the server slots allocated to members in each haproxy backend. Every backend is
+ * written with a fixed number of server slots (slot1..slotN, the same naming server-template uses),
+ * members are bound to free slots and unbound members are drained. As long as the set of backends does
+ * not change and the members fit into the available slots, topology updates could be applied
+ * via the runtime API without reloading the haproxy process.
+ */
+public class HAProxyServerSlots {
+
+    private static final Log log = LogFactory.getLog(HAProxyServerSlots.class);
+
+    public static final String SLOT_PREFIX = "slot";
+    private static final String UNUSED_SLOT_HOST = "127.0.0.1";
+
+    private final int slotCount;
+    private final Map<String, BackendSlots> backendSlotsMap;
+
+    public HAProxyServerSlots(int slotCount) {
+        if (slotCount < 1) {
+            throw new IllegalArgumentException("Backend server slot count should be greater than zero: " + slotCount);
+        }
+        this.slotCount = slotCount;
+        this.backendSlotsMap = new LinkedHashMap<String, BackendSlots>();
+    }
+
+    /**
+     * Returns a copy of the current slot allocation. Updates are applied to a copy which replaces the
+     * current allocation only once the configuration has been written.
+     *
+     * @return server slots copy
+     */
+    public synchronized HAProxyServerSlots copy() {
+        HAProxyServerSlots serverSlots = new HAProxyServerSlots(slotCount);
+        for (BackendSlots backendSlots : backendSlotsMap.values()) {
+            BackendSlots backendSlotsCopy = new BackendSlots(backendSlots.backendId, backendSlots.capacity());
+            backendSlotsCopy.copyFrom(backendSlots);
+            serverSlots.backendSlotsMap.put(backendSlots.backendId, backendSlotsCopy);
+        }
+        return serverSlots;
+    }
+
+    /**
+     * Collect backend endpoints required by the given topology.
+     *
+     * @param topology topology to be configured
+     * @return backend id to member endpoint map
+     */
+    public static Map<String, List<Endpoint>> collectBackends(Topology topology) {
+        Map<String, List<Endpoint>> backends = new LinkedHashMap<String, List<Endpoint>>();
+        for (Service service : topology.getServices()) {
+            if ((service.getPorts() == null) || (service.getPorts().size() == 0)) {
+                throw new RuntimeException(String.format("No ports found in service: %s", service.getServiceName()));
+            }
+            for (Cluster cluster : service.getClusters()) {
+                for (Port port : service.getPorts()) {
+                    for (String hostname : cluster.getHostNames()) {
+                        List<Endpoint> endpoints = new ArrayList<Endpoint>();
+                        for (Member member : cluster.getMembers()) {
+                            endpoints.add(new Endpoint(member.getMemberId(), member.getHostName(), port.getValue()));
+                        }
+                        backends.put(HAProxyConfigWriter.getBackendId(hostname, port), endpoints);
+                    }
+                }
+            }
+        }
+        return backends;
+    }
+
+    /**
+     * Returns true if the given backends could be applied via the runtime API; the set of backends
+     * should be the same as the current one and members should fit into the allocated slots.
+     *
+     * @param backends backend id to member endpoint map
+     * @return true if a reload is not needed
+     */
+    public synchronized boolean isRuntimeUpdatable(Map<String, List<Endpoint>> backends) {
+        if (!backendSlotsMap.keySet().equals(backends.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, List<Endpoint>> entry : backends.entrySet()) {
+            if (entry.getValue().size() > backendSlotsMap.get(entry.getKey()).capacity()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bind the given members to backend slots and return runtime API commands required for moving the
+     * running haproxy process to the new state. New backends are created, removed backends are discarded
+     * and backends which have run out of slots are resized; all of those require a reload.
+     *
+     * @param backends backend id to member endpoint map
+     * @return runtime API commands
+     */
+    public synchronized List<String> update(Map<String, List<Endpoint>> backends) {
+        List<String> commands = new ArrayList<String>();
+
+        backendSlotsMap.keySet().retainAll(backends.keySet());
+        for (Map.Entry<String, List<Endpoint>> entry : backends.entrySet()) {
+            String backendId = entry.getKey();
+            List<Endpoint> endpoints = entry.getValue();
+
+            BackendSlots backendSlots = backendSlotsMap.get(backendId);
+            if ((backendSlots == null) || (endpoints.size() > backendSlots.capacity())) {
+                int capacity = (endpoints.size() > slotCount) ? endpoints.size() + slotCount : slotCount;
+                BackendSlots resized = new BackendSlots(backendId, capacity);
+                if (backendSlots != null) {
+                    resized.copyFrom(backendSlots);
+                }
+                backendSlots = resized;
+                backendSlotsMap.put(backendId, backendSlots);
+            }
+            backendSlots.update(endpoints, commands);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Backend server slots updated: [commands] %s", commands));
+        }
+        return commands;
+    }
+
+    /**
+     * Returns server lines of the given backend to be written to the haproxy configuration.
+     *
+     * @param backendId backend id
+     * @param port      port of the backend
+     * @return server lines
+     */
+    public synchronized List<String> getServerLines(String backendId, int port) {
+        List<String> lines = new ArrayList<String>();
+        BackendSlots backendSlots = backendSlotsMap.get(backendId);
+        if (backendSlots == null) {
+            return lines;
+        }
+        for (int i = 0; i < backendSlots.capacity(); i++) {
+            Endpoint endpoint = backendSlots.endpoints[i];
+            if (endpoint != null) {
+                lines.add(String.format("server %s %s:%d", slotName(i), endpoint.getHost(), endpoint.getPort()));
+            } else {
+                lines.add(String.format("server %s %s:%d disabled", slotName(i), UNUSED_SLOT_HOST, port));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Returns the slot a member has been bound to in the given backend, null if not bound.
+     */
+    public synchronized String getSlotName(String backendId, String memberId) {
+        BackendSlots backendSlots = backendSlotsMap.get(backendId);
+        if (backendSlots == null) {
+            return null;
+        }
+        Integer index = backendSlots.memberSlots.get(memberId);
+        return (index == null) ? null : slotName(index);
+    }
+
+    private static String slotName(int index) {
+        return SLOT_PREFIX + (index + 1);
+    }
+
+    /**
+     * Server slots of a single backend.
+     */
+    private static class BackendSlots {
+
+        private final String backendId;
+        private final Endpoint[] endpoints;
+        private final Map<String, Integer> memberSlots;
+
+        private BackendSlots(String backendId, int capacity) {
+            this.backendId = backendId;
+            this.endpoints = new Endpoint[capacity];
+            this.memberSlots = new HashMap<String, Integer>();
+        }
+
+        private int capacity() {
+            return endpoints.length;
+        }
+
+        private void copyFrom(BackendSlots backendSlots) {
+            for (int i = 0; i < backendSlots.capacity(); i++) {
+                endpoints[i] = backendSlots.endpoints[i];
+            }
+            memberSlots.putAll(backendSlots.memberSlots);
+        }
+
+        private void update(List<Endpoint> desiredEndpoints, List<String> commands) {
+            Set<String> desiredMemberIds = new HashSet<String>();
+            for (Endpoint endpoint : desiredEndpoints) {
+                desiredMemberIds.add(endpoint.getMemberId());
+            }
+
+            // Drain members which are no longer in the topology
+            for (int i = 0; i < endpoints.length; i++) {
+                Endpoint endpoint = endpoints[i];
+                if ((endpoint != null) && !desiredMemberIds.contains(endpoint.getMemberId())) {
+                    endpoints[i] = null;
+                    memberSlots.remove(endpoint.getMemberId());
+                    commands.add(String.format("set server %s/%s state drain", backendId, slotName(i)));
+                }
+            }
+
+            // Bind new members to free slots and update moved members
+            for (Endpoint endpoint : desiredEndpoints) {
+                Integer index = memberSlots.get(endpoint.getMemberId());
+                if (index != null) {
+                    if (!endpoint.equals(endpoints[index])) {
+                        endpoints[index] = endpoint;
+                        addBindCommands(index, endpoint, commands);
+                    }
+                    continue;
+                }
+                index = nextFreeSlot();
+                endpoints[index] = endpoint;
+                memberSlots.put(endpoint.getMemberId(), index);
+                addBindCommands(index, endpoint, commands);
+            }
+        }
+
+        private void addBindCommands(int index, Endpoint endpoint, List<String> commands) {
+            String server = backendId + "/" + slotName(index);
+            commands.add(String.format("set server %s addr %s port %d", server, endpoint.getHost(), endpoint.getPort()));
+            commands.add(String.format("set server %s state ready", server));
+        }
+
+        private int nextFreeSlot() {
+            for (int i = 0; i < endpoints.length; i++) {
+                if (endpoints[i] == null) {
+                    return i;
+                }
+            }
+            throw new RuntimeException("No free server slot found in backend: " + backendId);
+        }
+    }
+
+    /**
+     * Member endpoint to be bound to a backend server slot.
+     */
+    public static class Endpoint {
+
+        private final String memberId;
+        private final String host;
+        private final int port;
+
+        public Endpoint(String memberId, String host, int port) {
+            this.memberId = memberId;
+            this.host = host;
+            this.port = port;
+        }
+
+        public String getMemberId() {
+            return memberId;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Endpoint)) {
+                return false;
+            }
+            Endpoint endpoint = (Endpoint) o;
+            return (port == endpoint.port) && memberId.equals(endpoint.memberId) &&
+                    ((host == null) ? (endpoint.host == null) : host.equals(endpoint.host));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = memberId.hashCode();
+            result = 31 * result + ((host != null) ? host.hashCode() : 0);
+            result = 31 * result + port;
+            return result;
+        }
+    }
+}
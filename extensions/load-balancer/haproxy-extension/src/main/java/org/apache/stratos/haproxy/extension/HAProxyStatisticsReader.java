@@ -22,9 +22,7 @@ package org.apache.stratos.haproxy.extension;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.common.constants.StratosConstants;
-import org.apache.stratos.common.util.CommandUtils;
 import org.apache.stratos.load.balancer.common.domain.Cluster;
-import org.apache.stratos.load.balancer.common.domain.Member;
 import org.apache.stratos.load.balancer.common.domain.Port;
 import org.apache.stratos.load.balancer.common.domain.Service;
 import org.apache.stratos.load.balancer.common.statistics.LoadBalancerStatisticsReader;
@@ -33,21 +31,29 @@ import org.apache.stratos.load.balancer.common.topology.TopologyProvider;
 import java.io.IOException;
 
 /**
- * HAProxy statistics reader.
+ * HAProxy statistics reader. Statistics of all backends are read via a single show stat runtime api
+ * command and the snapshot is reused for all clusters until it expires.
  */
 public class HAProxyStatisticsReader implements LoadBalancerStatisticsReader {
 
     private static final Log log = LogFactory.getLog(HAProxyStatisticsReader.class);
+    private static final long DEFAULT_STATS_EXPIRY_TIME = 5000;
 
-    private String scriptsPath;
-    private String statsSocketFilePath;
-    private TopologyProvider topologyProvider;
-    private String clusterInstanceId;
+    private final HAProxyRuntimeApiClient runtimeApiClient;
+    private final TopologyProvider topologyProvider;
+    private final String clusterInstanceId;
+    private final long statsExpiryTime;
+    private HAProxyStats stats;
 
-    public HAProxyStatisticsReader(TopologyProvider topologyProvider) {
-        this.scriptsPath = HAProxyContext.getInstance().getScriptsPath();
-        this.statsSocketFilePath = HAProxyContext.getInstance().getStatsSocketFilePath();
+    public HAProxyStatisticsReader(TopologyProvider topologyProvider, HAProxyRuntimeApiClient runtimeApiClient) {
+        this(topologyProvider, runtimeApiClient, Long.getLong("stats.expiry.time", DEFAULT_STATS_EXPIRY_TIME));
+    }
+
+    public HAProxyStatisticsReader(TopologyProvider topologyProvider, HAProxyRuntimeApiClient runtimeApiClient,
+                                   long statsExpiryTime) {
         this.topologyProvider = topologyProvider;
+        this.runtimeApiClient = runtimeApiClient;
+        this.statsExpiryTime = statsExpiryTime;
         this.clusterInstanceId = System.getProperty(StratosConstants.CLUSTER_INSTANCE_ID, StratosConstants.NOT_DEFINED);
     }
 
@@ -58,51 +64,56 @@ public class HAProxyStatisticsReader implements LoadBalancerStatisticsReader {
 
     @Override
     public int getInFlightRequestCount(String clusterId) {
-        String frontendId, backendId, command, output;
-        String[] array;
-        int totalWeight, weight;
-
         for (Service service : topologyProvider.getTopology().getServices()) {
             for (Cluster cluster : service.getClusters()) {
                 if (cluster.getClusterId().equals(clusterId)) {
-                    totalWeight = 0;
                     if ((service.getPorts() == null) || (service.getPorts().size() == 0)) {
                         throw new RuntimeException(String.format("No ports found in service: %s", service.getServiceName()));
                     }
 
+                    HAProxyStats stats = getStats();
+                    if (stats == null) {
+                        return 0;
+                    }
+
+                    int requestCount = 0;
                     for (Port port : service.getPorts()) {
-                        for(String hostname : cluster.getHostNames()) {
-                            backendId = hostname+"-http-members";
-                            for (Member member : cluster.getMembers()) {
-                                // echo "get weight <backend>/<server>" | socat stdio <stats-socket>
-                                command = String.format("%s/get-weight.sh %s %s %s", scriptsPath, backendId, member.getMemberId(), statsSocketFilePath);
-                                try {
-                                    output = CommandUtils.executeCommand(command);
-                                    if ((output != null) && (output.length() > 0)) {
-                                        array = output.split(" ");
-                                        if ((array != null) && (array.length > 0)) {
-                                            weight = Integer.parseInt(array[0]);
-                                            if (log.isDebugEnabled()) {
-                                                log.debug(String.format("Member weight found: [cluster] %s [member] %s [weight] %d", member.getClusterId(), member.getMemberId(), weight));
-                                            }
-                                            totalWeight += weight;
-                                        }
-                                    }
-                                } catch (IOException e) {
-                                    if (log.isErrorEnabled()) {
-                                        log.error(e);
-                                    }
-                                }
+                        for (String hostname : cluster.getHostNames()) {
+                            String backendId = HAProxyConfigWriter.getBackendId(hostname, port);
+                            int backendRequestCount = stats.getInFlightRequestCount(backendId);
+                            if (log.isDebugEnabled()) {
+                                log.debug(String.format("Backend in-flight request count found: [cluster] %s " +
+                                        "[backend] %s [count] %d", clusterId, backendId, backendRequestCount));
                             }
+                            requestCount += backendRequestCount;
                         }
                     }
                     if (log.isInfoEnabled()) {
-                        log.info(String.format("Cluster weight found: [cluster] %s [weight] %d", cluster.getClusterId(), totalWeight));
+                        log.info(String.format("Cluster in-flight request count found: [cluster] %s [count] %d",
+                                cluster.getClusterId(), requestCount));
                     }
-                    return totalWeight;
+                    return requestCount;
                 }
             }
         }
         return 0;
     }
+
+    /**
+     * Returns the statistics snapshot, reads statistics of all backends from haproxy if the current
+     * snapshot has expired.
+     */
+    private synchronized HAProxyStats getStats() {
+        if ((stats == null) || (System.currentTimeMillis() - stats.getTimestamp() >= statsExpiryTime)) {
+            try {
+                stats = runtimeApiClient.showStat();
+            } catch (IOException e) {
+                if (log.isErrorEnabled()) {
+                    log.error("Could not read haproxy statistics", e);
+                }
+                stats = null;
+            }
+        }
+        return stats;
+    }
 }
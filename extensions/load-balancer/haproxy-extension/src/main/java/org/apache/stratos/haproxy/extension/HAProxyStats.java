@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.haproxy.extension;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshot of haproxy statistics parsed from the CSV output of the show stat runtime API command.
+ * Rows are indexed by proxy name and service name, hence a single snapshot could serve lookups
+ * of all backends in the configuration.
+ */
+public class HAProxyStats {
+
+    public static final String BACKEND = "BACKEND";
+    public static final String FRONTEND = "FRONTEND";
+
+    public static final String PROXY_NAME = "pxname";
+    public static final String SERVICE_NAME = "svname";
+    public static final String CURRENT_QUEUED = "qcur";
+    public static final String CURRENT_SESSIONS = "scur";
+    public static final String STATUS = "status";
+    public static final String WEIGHT = "weight";
+
+    private final Map<String, Integer> columns;
+    private final Map<String, Map<String, String[]>> rows;
+    private final long timestamp;
+
+    private HAProxyStats(Map<String, Integer> columns, Map<String, Map<String, String[]>> rows) {
+        this.columns = columns;
+        this.rows = rows;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Parse the CSV output of the show stat command.
+     *
+     * @param output raw command output
+     * @return statistics snapshot
+     */
+    public static HAProxyStats parse(String output) {
+        Map<String, Integer> columns = new HashMap<String, Integer>();
+        Map<String, Map<String, String[]>> rows = new LinkedHashMap<String, Map<String, String[]>>();
+
+        if (StringUtils.isNotBlank(output)) {
+            for (String line : output.split("\r?\n")) {
+                if (StringUtils.isBlank(line)) {
+                    continue;
+                }
+                if (line.startsWith("#")) {
+                    String[] headers = line.substring(1).trim().split(",", -1);
+                    for (int i = 0; i < headers.length; i++) {
+                        columns.put(headers[i].trim(), i);
+                    }
+                    continue;
+                }
+                if (columns.isEmpty()) {
+                    throw new RuntimeException("Could not find header line in haproxy statistics: " + line);
+                }
+
+                String[] values = line.split(",", -1);
+                String proxyName = values[columns.get(PROXY_NAME)];
+                String serviceName = values[columns.get(SERVICE_NAME)];
+                Map<String, String[]> proxyRows = rows.get(proxyName);
+                if (proxyRows == null) {
+                    proxyRows = new LinkedHashMap<String, String[]>();
+                    rows.put(proxyName, proxyRows);
+                }
+                proxyRows.put(serviceName, values);
+            }
+        }
+        return new HAProxyStats(columns, rows);
+    }
+
+    /**
+     * Returns true if statistics were found for the given proxy.
+     */
+    public boolean proxyExists(String proxyName) {
+        return rows.containsKey(proxyName);
+    }
+
+    /**
+     * Returns the service names (servers, BACKEND, FRONTEND) found under the given proxy.
+     */
+    public Set<String> getServiceNames(String proxyName) {
+        Map<String, String[]> proxyRows = rows.get(proxyName);
+        if (proxyRows == null) {
+            return Collections.emptySet();
+        }
+        return proxyRows.keySet();
+    }
+
+    /**
+     * Returns the value of a column as a string, null if the row or column was not found.
+     */
+    public String getValue(String proxyName, String serviceName, String column) {
+        Map<String, String[]> proxyRows = rows.get(proxyName);
+        if (proxyRows == null) {
+            return null;
+        }
+        String[] values = proxyRows.get(serviceName);
+        Integer index = columns.get(column);
+        if ((values == null) || (index == null) || (index >= values.length)) {
+            return null;
+        }
+        return values[index];
+    }
+
+    /**
+     * Returns the value of a numeric column, zero if the row or column was not found or the value is empty.
+     */
+    public int getIntValue(String proxyName, String serviceName, String column) {
+        String value = getValue(proxyName, serviceName, column);
+        if (StringUtils.isBlank(value)) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the number of requests being processed and waiting in the queue of the given backend.
+     */
+    public int getInFlightRequestCount(String backendId) {
+        return getIntValue(backendId, BACKEND, CURRENT_SESSIONS) + getIntValue(backendId, BACKEND, CURRENT_QUEUED);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
@@ -67,9 +67,12 @@ public class Main {
 			// Validate runtime parameters
 			HAProxyContext.getInstance().validate();
             TopologyProvider topologyProvider = new TopologyProvider();
+            HAProxyRuntimeApiClient runtimeApiClient = new HAProxyRuntimeApiClient(
+                    HAProxyContext.getInstance().getRuntimeApiIp(), HAProxyContext.getInstance().getRuntimeApiPort(),
+                    HAProxyContext.getInstance().getRuntimeApiTimeout());
             HAProxyStatisticsReader statisticsReader = HAProxyContext.getInstance().isCEPStatsPublisherEnabled() ?
-                    new HAProxyStatisticsReader(topologyProvider) : null;
-            extension = new LoadBalancerExtension(new HAProxy(), statisticsReader, topologyProvider);
+                    new HAProxyStatisticsReader(topologyProvider, runtimeApiClient) : null;
+            extension = new LoadBalancerExtension(new HAProxy(runtimeApiClient), statisticsReader, topologyProvider);
 			extension.setExecutorService(executorService);
 			extension.execute();
 		} catch (Exception e) {
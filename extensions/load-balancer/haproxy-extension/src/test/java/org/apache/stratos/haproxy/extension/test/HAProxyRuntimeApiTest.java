@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.haproxy.extension.test;
+
+import org.apache.stratos.haproxy.extension.HAProxyRuntimeApiClient;
+import org.apache.stratos.haproxy.extension.HAProxyServerSlots;
+import org.apache.stratos.haproxy.extension.HAProxyStatisticsReader;
+import org.apache.stratos.load.balancer.common.domain.Cluster;
+import org.apache.stratos.load.balancer.common.domain.Member;
+import org.apache.stratos.load.balancer.common.domain.Port;
+import org.apache.stratos.load.balancer.common.domain.Service;
+import org.apache.stratos.load.balancer.common.topology.TopologyProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests haproxy runtime api usage against a fake stats socket.
+ */
+public class HAProxyRuntimeApiTest {
+
+    private static final String SHOW_STAT_OUTPUT =
+            "# pxname,svname,qcur,qmax,scur,smax,slim,stot,bin,bout,dreq,dresp,ereq,econ,eresp,wretr,wredis,status,weight\n" +
+            "http_80_frontend,FRONTEND,,,12,20,256,100,0,0,0,0,0,,,,,OPEN,\n" +
+            "app1.stratos.org_http_8080_backend,slot1,0,0,3,5,,40,0,0,,0,,0,0,0,0,UP,1\n" +
+            "app1.stratos.org_http_8080_backend,slot2,0,0,4,5,,40,0,0,,0,,0,0,0,0,UP,1\n" +
+            "app1.stratos.org_http_8080_backend,BACKEND,2,2,7,10,26,80,0,0,0,0,,0,0,0,0,UP,2\n" +
+            "app2.stratos.org_http_8080_backend,slot1,0,0,5,5,,20,0,0,,0,,0,0,0,0,UP,1\n" +
+            "app2.stratos.org_http_8080_backend,BACKEND,0,0,5,5,26,20,0,0,0,0,,0,0,0,0,UP,1\n";
+
+    private FakeStatsSocket statsSocket;
+    private HAProxyRuntimeApiClient runtimeApiClient;
+
+    @Before
+    public void setUp() throws IOException {
+        statsSocket = new FakeStatsSocket(SHOW_STAT_OUTPUT);
+        statsSocket.start();
+        runtimeApiClient = new HAProxyRuntimeApiClient("127.0.0.1", statsSocket.getPort(), 5000);
+    }
+
+    @After
+    public void tearDown() {
+        statsSocket.terminate();
+    }
+
+    @Test
+    public void testStatisticsReadOncePerInterval() {
+        TopologyProvider topologyProvider = new TopologyProvider();
+        Service service = new Service("php");
+        service.addPort(new Port("http", 8080, 80));
+        topologyProvider.addService(service);
+        topologyProvider.addCluster(createCluster("php", "cluster-1", "app1.stratos.org"));
+        topologyProvider.addCluster(createCluster("php", "cluster-2", "app2.stratos.org"));
+
+        HAProxyStatisticsReader statisticsReader = new HAProxyStatisticsReader(topologyProvider,
+                runtimeApiClient, 60000);
+        assertEquals(9, statisticsReader.getInFlightRequestCount("cluster-1"));
+        assertEquals(5, statisticsReader.getInFlightRequestCount("cluster-2"));
+        assertEquals(0, statisticsReader.getInFlightRequestCount("cluster-3"));
+
+        assertEquals(Collections.singletonList("show stat"), statsSocket.getCommands());
+    }
+
+    @Test
+    public void testCommandsSentInSingleConnection() throws IOException {
+        runtimeApiClient.execute(Arrays.asList("set server b/slot1 addr 10.0.0.1 port 8080",
+                "set server b/slot1 state ready"));
+        assertEquals(Collections.singletonList("set server b/slot1 addr 10.0.0.1 port 8080; " +
+                "set server b/slot1 state ready"), statsSocket.getCommands());
+    }
+
+    @Test
+    public void testServerSlotUpdates() {
+        HAProxyServerSlots serverSlots = new HAProxyServerSlots(2);
+        String backendId = "app1.stratos.org_http_8080_backend";
+
+        serverSlots.update(backends(backendId, endpoint("member-1", "10.0.0.1")));
+        assertEquals(Arrays.asList("server slot1 10.0.0.1:8080", "server slot2 127.0.0.1:8080 disabled"),
+                serverSlots.getServerLines(backendId, 8080));
+
+        // Adding a member binds a free slot without a reload
+        Map<String, List<HAProxyServerSlots.Endpoint>> backends = backends(backendId,
+                endpoint("member-1", "10.0.0.1"), endpoint("member-2", "10.0.0.2"));
+        assertTrue(serverSlots.isRuntimeUpdatable(backends));
+        assertEquals(Arrays.asList("set server " + backendId + "/slot2 addr 10.0.0.2 port 8080",
+                "set server " + backendId + "/slot2 state ready"), serverSlots.update(backends));
+
+        // Removing a member drains its slot and the slot gets reused
+        backends = backends(backendId, endpoint("member-2", "10.0.0.2"));
+        assertEquals(Collections.singletonList("set server " + backendId + "/slot1 state drain"),
+                serverSlots.update(backends));
+        backends = backends(backendId, endpoint("member-2", "10.0.0.2"), endpoint("member-3", "10.0.0.3"));
+        serverSlots.update(backends);
+        assertEquals("slot1", serverSlots.getSlotName(backendId, "member-3"));
+
+        // Running out of slots or adding a backend requires a reload
+        assertFalse(serverSlots.isRuntimeUpdatable(backends(backendId, endpoint("member-2", "10.0.0.2"),
+                endpoint("member-3", "10.0.0.3"), endpoint("member-4", "10.0.0.4"))));
+        assertFalse(serverSlots.isRuntimeUpdatable(backends("app2.stratos.org_http_8080_backend",
+                endpoint("member-5", "10.0.0.5"))));
+    }
+
+    @Test
+    public void testServerSlotCopyIsIndependent() {
+        HAProxyServerSlots serverSlots = new HAProxyServerSlots(2);
+        String backendId = "app1.stratos.org_http_8080_backend";
+        serverSlots.update(backends(backendId, endpoint("member-1", "10.0.0.1")));
+
+        // Updating a copy leaves the current allocation untouched until the copy replaces it
+        HAProxyServerSlots updatedServerSlots = serverSlots.copy();
+        updatedServerSlots.update(backends(backendId, endpoint("member-2", "10.0.0.2")));
+        assertEquals("slot1", serverSlots.getSlotName(backendId, "member-1"));
+        assertEquals(null, serverSlots.getSlotName(backendId, "member-2"));
+        assertEquals("slot1", updatedServerSlots.getSlotName(backendId, "member-2"));
+        assertEquals(null, updatedServerSlots.getSlotName(backendId, "member-1"));
+    }
+
+    private Cluster createCluster(String serviceName, String clusterId, String hostName) {
+        Cluster cluster = new Cluster(serviceName, clusterId);
+        cluster.addHostName(hostName);
+        cluster.addMember(new Member(serviceName, clusterId, clusterId + "-member-1", "10.0.0.1"));
+        return cluster;
+    }
+
+    private Map<String, List<HAProxyServerSlots.Endpoint>> backends(String backendId,
+                                                                    HAProxyServerSlots.Endpoint... endpoints) {
+        return Collections.singletonMap(backendId, Arrays.asList(endpoints));
+    }
+
+    private HAProxyServerSlots.Endpoint endpoint(String memberId, String host) {
+        return new HAProxyServerSlots.Endpoint(memberId, host, 8080);
+    }
+
+    /**
+     * Fake haproxy stats socket which records the commands received and answers show stat.
+     */
+    private static class FakeStatsSocket extends Thread {
+
+        private final ServerSocket serverSocket;
+        private final String showStatOutput;
+        private final List<String> commands;
+
+        private FakeStatsSocket(String showStatOutput) throws IOException {
+            this.serverSocket = new ServerSocket(0);
+            this.showStatOutput = showStatOutput;
+            this.commands = Collections.synchronizedList(new ArrayList<String>());
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    try {
+                        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+                        String command = reader.readLine();
+                        commands.add(command);
+                        OutputStream outputStream = socket.getOutputStream();
+                        if ("show stat".equals(command)) {
+                            outputStream.write(showStatOutput.getBytes("UTF-8"));
+                        }
+                        outputStream.flush();
+                    } finally {
+                        socket.close();
+                    }
+                } catch (IOException ignore) {
+                }
+            }
+        }
+
+        private int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private List<String> getCommands() {
+            return new ArrayList<String>(commands);
+        }
+
+        private void terminate() {
+            try {
+                serverSocket.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+}
@@ -38,6 +38,7 @@ public class Main {
 	public static void main(String[] args) {
 
 		LoadBalancerExtension extension = null;
+		NginxStatisticsReader statisticsReader = null;
 		try {
 			// Configure log4j properties
 			PropertyConfigurator.configure(System.getProperty("log4j.properties.file.path"));
@@ -46,15 +47,25 @@ public class Main {
 				log.info("Nginx extension started");
 			}
 
+			executorService = StratosThreadPool.getExecutorService("nginx.extension.thread.pool", 10);
+			// Validate runtime parameters
+			NginxContext.getInstance().validate();
+            TopologyProvider topologyProvider = new TopologyProvider();
+            statisticsReader = NginxContext.getInstance().isCEPStatsPublisherEnabled() ?
+                    new NginxStatisticsReader(topologyProvider) : null;
+            extension = new LoadBalancerExtension(new Nginx(), statisticsReader, topologyProvider);
+
             // Add shutdown hook
             final Thread mainThread = Thread.currentThread();
             final LoadBalancerExtension finalExtension = extension;
+            final NginxStatisticsReader finalStatisticsReader = statisticsReader;
             Runtime.getRuntime().addShutdownHook(new Thread() {
                 public void run() {
                     try {
-                        if(finalExtension != null) {
-                            log.info("Shutting nginx instance...");
-                            finalExtension.stop();
+                        log.info("Shutting nginx instance...");
+                        finalExtension.stop();
+                        if (finalStatisticsReader != null) {
+                            finalStatisticsReader.close();
                         }
                         mainThread.join();
                     } catch (Exception e) {
@@ -63,13 +74,6 @@ public class Main {
                 }
             });
 
-			executorService = StratosThreadPool.getExecutorService("nginx.extension.thread.pool", 10);
-			// Validate runtime parameters
-			NginxContext.getInstance().validate();
-            TopologyProvider topologyProvider = new TopologyProvider();
-            NginxStatisticsReader statisticsReader = NginxContext.getInstance().isCEPStatsPublisherEnabled() ?
-                    new NginxStatisticsReader(topologyProvider) : null;
-            extension = new LoadBalancerExtension(new Nginx(), statisticsReader, topologyProvider);
 			extension.setExecutorService(executorService);
 			extension.execute();
 		} catch (Exception e) {
@@ -80,6 +84,9 @@ public class Main {
                 log.info("Shutting nginx instance...");
 				extension.stop();
 			}
+			if (statisticsReader != null) {
+				statisticsReader.close();
+			}
 		}
 	}
 }
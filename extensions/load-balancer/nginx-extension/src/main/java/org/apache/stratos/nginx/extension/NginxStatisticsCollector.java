@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.nginx.extension;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.HttpHostConnectException;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Nginx statistics collector. Scrapes /nginx_status of each proxy port over a pooled keep-alive http client
+ * and keeps the writing counts found in an immutable snapshot.
+ */
+public class NginxStatisticsCollector {
+
+    private static final Log log = LogFactory.getLog(NginxStatisticsCollector.class);
+
+    private static final Pattern WRITING_PATTERN = Pattern.compile("Writing:\\s+(\\d+)");
+    private static final int MAX_CONNECTIONS_PER_ROUTE = 2;
+
+    private final String host;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private volatile Map<Integer, Integer> writingCounts;
+    private volatile boolean closed;
+
+    public NginxStatisticsCollector(String host, int timeout) {
+        this.host = host;
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        this.connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ROUTE);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(timeout)
+                .setConnectionRequestTimeout(timeout)
+                .setSocketTimeout(timeout)
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .build();
+        this.writingCounts = Collections.emptyMap();
+    }
+
+    /**
+     * Scrape each status endpoint once and replace the current snapshot. The last snapshot is kept
+     * once the collector is closed.
+     *
+     * @param proxyPorts proxy ports to be scraped
+     */
+    public void collect(Collection<Integer> proxyPorts) {
+        if (closed) {
+            return;
+        }
+        Map<Integer, Integer> snapshot = new HashMap<Integer, Integer>();
+        for (Integer proxyPort : proxyPorts) {
+            if (!snapshot.containsKey(proxyPort)) {
+                snapshot.put(proxyPort, findWritingCount(proxyPort));
+            }
+        }
+        writingCounts = Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Returns the writing count of the given proxy port found in the last snapshot.
+     *
+     * @param proxyPort proxy port
+     * @return writing count, zero if the port was not scraped
+     */
+    public int getWritingCount(int proxyPort) {
+        Integer writingCount = writingCounts.get(proxyPort);
+        return (writingCount == null) ? 0 : writingCount;
+    }
+
+    /**
+     * Parse the writing count from a stub_status response.
+     *
+     * @param status nginx_status response body
+     * @return writing count excluding the status request itself, -1 if the writing block was not found
+     */
+    public static int parseWritingCount(String status) {
+        Matcher matcher = WRITING_PATTERN.matcher(status);
+        if (matcher.find()) {
+            // Deduct one to remove the status request
+            return Math.max(Integer.parseInt(matcher.group(1)) - 1, 0);
+        }
+        return -1;
+    }
+
+    /**
+     * Make a http request to http://<host>:<proxy-port>/nginx_status and find writing count.
+     *
+     * @param proxyPort proxy port
+     * @return writing count
+     */
+    private int findWritingCount(int proxyPort) {
+        String url = "http://" + host + ":" + proxyPort + "/nginx_status";
+        try {
+            CloseableHttpResponse response = httpClient.execute(new HttpGet(url));
+            try {
+                HttpEntity entity = response.getEntity();
+                // Consume the entity fully to return the connection to the pool
+                String status = (entity != null) ? EntityUtils.toString(entity) : "";
+                if (response.getStatusLine().getStatusCode() != 200) {
+                    throw new RuntimeException(url + " was not found");
+                }
+                int writingCount = parseWritingCount(status);
+                if (writingCount < 0) {
+                    throw new RuntimeException("Writing block was not found in nginx_status response");
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Writing count: [proxy] %d [value] %d", proxyPort, writingCount));
+                }
+                return writingCount;
+            } finally {
+                response.close();
+            }
+        } catch (HttpHostConnectException e) {
+            log.warn("Could not find in-flight request count, connection refused: " + url);
+        } catch (Exception e) {
+            log.error("Could not find in-flight request count: " + url, e);
+        }
+        return 0;
+    }
+
+    /**
+     * Close pooled connections.
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("Could not close nginx status http client", e);
+        }
+    }
+}
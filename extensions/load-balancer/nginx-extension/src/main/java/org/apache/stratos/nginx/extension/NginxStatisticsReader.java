@@ -21,11 +21,6 @@ package org.apache.stratos.nginx.extension;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.conn.HttpHostConnectException;
-import org.apache.http.impl.client.DefaultHttpClient;
 import org.apache.stratos.common.constants.StratosConstants;
 import org.apache.stratos.load.balancer.common.domain.Cluster;
 import org.apache.stratos.load.balancer.common.domain.Port;
@@ -33,24 +28,35 @@ import org.apache.stratos.load.balancer.common.domain.Service;
 import org.apache.stratos.load.balancer.common.statistics.LoadBalancerStatisticsReader;
 import org.apache.stratos.load.balancer.common.topology.TopologyProvider;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
- * Nginx statistics reader.
+ * Nginx statistics reader. Status endpoints of all proxy ports are scraped once per snapshot and
+ * per cluster values are served from the snapshot until it expires.
  */
 public class NginxStatisticsReader implements LoadBalancerStatisticsReader {
 
     private static final Log log = LogFactory.getLog(NginxStatisticsReader.class);
+    private static final long DEFAULT_STATS_EXPIRY_TIME = 5000;
+    private static final int DEFAULT_STATS_TIMEOUT = 5000;
 
-    private TopologyProvider topologyProvider;
-    private String clusterInstanceId;
+    private final TopologyProvider topologyProvider;
+    private final String clusterInstanceId;
+    private final NginxStatisticsCollector statisticsCollector;
+    private final long statsExpiryTime;
+    private long lastCollectedTime;
 
     public NginxStatisticsReader(TopologyProvider topologyProvider) {
+        this(topologyProvider, new NginxStatisticsCollector("127.0.0.1", DEFAULT_STATS_TIMEOUT),
+                Long.getLong("stats.expiry.time", DEFAULT_STATS_EXPIRY_TIME));
+    }
+
+    public NginxStatisticsReader(TopologyProvider topologyProvider, NginxStatisticsCollector statisticsCollector,
+                                 long statsExpiryTime) {
         this.topologyProvider = topologyProvider;
+        this.statisticsCollector = statisticsCollector;
+        this.statsExpiryTime = statsExpiryTime;
         this.clusterInstanceId = System.getProperty(StratosConstants.CLUSTER_INSTANCE_ID, StratosConstants.NOT_DEFINED);
     }
 
@@ -66,9 +72,10 @@ public class NginxStatisticsReader implements LoadBalancerStatisticsReader {
             String serviceName = cluster.getServiceName();
             Service service = topologyProvider.getTopology().getService(serviceName);
             if(service != null) {
+                collectStatistics();
                 int inFlightRequestCount = 0;
                 for(Port port : service.getPorts()) {
-                    inFlightRequestCount += findWritingCount(port.getProxy());
+                    inFlightRequestCount += statisticsCollector.getWritingCount(port.getProxy());
                 }
                 if(log.isDebugEnabled()) {
                     log.debug(String.format("In-flight request count: [cluster-id] %s [value] %d",
@@ -81,44 +88,28 @@ public class NginxStatisticsReader implements LoadBalancerStatisticsReader {
     }
 
     /**
-     * Make a http request to http://127.0.0.1:<proxy-port>/nginx_status and find writing count.
-     * @param proxyPort
-     * @return
+     * Close the pooled connections of the statistics collector.
      */
-    private int findWritingCount(int proxyPort) {
-        try {
-            URL url = new URL("http", "127.0.0.1", proxyPort, "/nginx_status");
-            DefaultHttpClient httpClient = new DefaultHttpClient();
-            HttpUriRequest request = new HttpGet(url.toURI());
-            HttpResponse response = httpClient.execute(request);
-            if (response.getStatusLine().getStatusCode() != 200) {
-                throw new RuntimeException("http://127.0.0.1:" + proxyPort + "/nginx_status was not found");
-            }
-            BufferedReader reader = new BufferedReader(new InputStreamReader(
-                    (response.getEntity().getContent())));
-            String output, result = "";
-            while ((output = reader.readLine()) != null) {
-                result += output;
-            }
-            Pattern pattern = Pattern.compile("(Writing: )([0-1]*)");
-            Matcher matcher = pattern.matcher(result);
-            if (matcher.find()) {
-                // Deduct one to remove the above request
-                int writingCount = Integer.parseInt(matcher.group(2)) - 1;
-                if(log.isDebugEnabled()) {
-                    log.debug(String.format("Writing count: [proxy] %d [value] %d", proxyPort, writingCount));
-                }
-                return writingCount;
-            }
-            throw new RuntimeException("Writing block was not found in nginx_status response");
-        } catch (HttpHostConnectException ignore) {
-            if(ignore.getMessage().contains("Connection refused")) {
-                log.warn("Could not find in-flight request count, connection refused: " +
-                        "http://127.0.0.1:" + proxyPort + "/nginx_status");
+    public void close() {
+        statisticsCollector.close();
+    }
+
+    /**
+     * Scrape status endpoints of all proxy ports in the topology if the current snapshot has expired.
+     */
+    private synchronized void collectStatistics() {
+        long now = System.currentTimeMillis();
+        if (now - lastCollectedTime < statsExpiryTime) {
+            return;
+        }
+
+        Set<Integer> proxyPorts = new HashSet<Integer>();
+        for (Service service : topologyProvider.getTopology().getServices()) {
+            for (Port port : service.getPorts()) {
+                proxyPorts.add(port.getProxy());
             }
-        } catch (Exception e) {
-            log.error("Could not find in-flight request count: http://127.0.0.1:" + proxyPort + "/nginx_status", e);
         }
-        return 0;
+        statisticsCollector.collect(proxyPorts);
+        lastCollectedTime = now;
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.nginx.extension.test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.stratos.nginx.extension.NginxStatisticsCollector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link NginxStatisticsCollector} against a fake nginx status endpoint.
+ */
+public class NginxStatisticsCollectorTest {
+
+    private static final String NGINX_STATUS = "Active connections: 4 \n" +
+            "server accepts handled requests\n" +
+            " 120 120 300 \n" +
+            "Reading: 0 Writing: 13 Waiting: 2 \n";
+
+    private HttpServer server;
+    private AtomicInteger requestCount;
+    private Set<Integer> clientPorts;
+    private NginxStatisticsCollector collector;
+
+    @Before
+    public void setUp() throws IOException {
+        requestCount = new AtomicInteger();
+        clientPorts = Collections.synchronizedSet(new HashSet<Integer>());
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/nginx_status", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requestCount.incrementAndGet();
+                clientPorts.add(exchange.getRemoteAddress().getPort());
+                byte[] body = NGINX_STATUS.getBytes("UTF-8");
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream outputStream = exchange.getResponseBody();
+                outputStream.write(body);
+                outputStream.close();
+            }
+        });
+        server.start();
+        collector = new NginxStatisticsCollector("127.0.0.1", 5000);
+    }
+
+    @After
+    public void tearDown() {
+        collector.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testParseWritingCount() {
+        assertEquals(12, NginxStatisticsCollector.parseWritingCount(NGINX_STATUS));
+        assertEquals(0, NginxStatisticsCollector.parseWritingCount("Reading: 0 Writing: 1 Waiting: 0"));
+        assertEquals(-1, NginxStatisticsCollector.parseWritingCount("Active connections: 1"));
+    }
+
+    @Test
+    public void testEachPortIsScrapedOncePerSnapshot() {
+        int port = server.getAddress().getPort();
+        collector.collect(Arrays.asList(port, port, port));
+
+        assertEquals(1, requestCount.get());
+        assertEquals(12, collector.getWritingCount(port));
+        assertEquals(0, collector.getWritingCount(port + 1));
+    }
+
+    @Test
+    public void testConnectionsAreReused() {
+        int port = server.getAddress().getPort();
+        for (int i = 0; i < 5; i++) {
+            collector.collect(Collections.singletonList(port));
+        }
+
+        assertEquals(5, requestCount.get());
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void testCloseReleasesConnections() {
+        int port = server.getAddress().getPort();
+        collector.collect(Collections.singletonList(port));
+        collector.close();
+
+        // A closed collector does not scrape any more and keeps serving the last snapshot
+        collector.collect(Collections.singletonList(port));
+        assertEquals(1, requestCount.get());
+        assertEquals(12, collector.getWritingCount(port));
+    }
+}